@@ -0,0 +1,152 @@
+package org.meteoinfo.benchmark;
+
+import org.meteoinfo.ndarray.Array;
+import org.meteoinfo.ndarray.DataType;
+import org.meteoinfo.ndarray.Index;
+import org.meteoinfo.ndarray.InvalidRangeException;
+import org.meteoinfo.ndarray.math.ArrayMath;
+import org.meteoinfo.ndarray.math.ArrayUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of element-wise operations, axis reductions and broadcasting
+ * of ArrayMath and ArrayUtil.
+ *
+ * @author Yaqiang Wang
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrayMathBenchmark {
+
+    @Param({"256", "1024"})
+    public int n;
+
+    @Param({"double", "float"})
+    public String dataType;
+
+    private Array a;
+    private Array b;
+    private Array row;
+    private Array view;
+    private Array volume;
+
+    @Setup(Level.Trial)
+    public void setup() throws InvalidRangeException {
+        DataType dt = dataType.equals("float") ? DataType.FLOAT : DataType.DOUBLE;
+        Random random = new Random(42);
+        a = Array.factory(dt, new int[]{n, n});
+        b = Array.factory(dt, new int[]{n, n});
+        row = Array.factory(dt, new int[]{n});
+        for (int i = 0; i < a.getSize(); i++) {
+            a.setDouble(i, random.nextDouble());
+            b.setDouble(i, random.nextDouble() + 1);
+        }
+        for (int i = 0; i < n; i++) {
+            row.setDouble(i, random.nextDouble());
+        }
+        volume = Array.factory(dt, new int[]{16, n, n});
+        for (int i = 0; i < volume.getSize(); i++) {
+            volume.setDouble(i, random.nextDouble());
+        }
+        view = a.section(new int[]{0, 0}, new int[]{n / 2, n / 2}, new int[]{2, 2});
+    }
+
+    @Benchmark
+    public Array add() {
+        return ArrayMath.add(a, b);
+    }
+
+    @Benchmark
+    public Array mul() {
+        return ArrayMath.mul(a, b);
+    }
+
+    @Benchmark
+    public Array div() {
+        return ArrayMath.div(a, b);
+    }
+
+    @Benchmark
+    public Array addScalar() {
+        return ArrayMath.add(a, 1.5);
+    }
+
+    @Benchmark
+    public Array sqrt() {
+        return ArrayMath.sqrt(a);
+    }
+
+    @Benchmark
+    public Array addView() {
+        return ArrayMath.add(view, 1.5);
+    }
+
+    @Benchmark
+    public Array broadcastAdd() {
+        return ArrayMath.add(a, row);
+    }
+
+    @Benchmark
+    public Array broadcastAddVolume() {
+        return ArrayMath.add(volume, b);
+    }
+
+    /**
+     * Baseline of broadcastAddVolume with the per-element index setting used
+     * before BroadcastIterator
+     */
+    @Benchmark
+    public Array broadcastAddVolumeByIndex() {
+        int[] shape = ArrayMath.broadcast(volume, b);
+        Array r = Array.factory(volume.getDataType(), shape);
+        Index index = r.getIndex();
+        Index aindex = volume.getIndex();
+        Index bindex = b.getIndex();
+        int rank = r.getRank();
+        int na = volume.getRank();
+        int nb = b.getRank();
+        for (int i = 0; i < r.getSize(); i++) {
+            int[] current = index.getCurrentCounter();
+            for (int j = 0; j < rank; j++) {
+                int ia = na - j - 1;
+                if (ia >= 0) {
+                    aindex.setDim(ia, aindex.getShape(ia) == 1 ? 0 : current[rank - j - 1]);
+                }
+                int ib = nb - j - 1;
+                if (ib >= 0) {
+                    bindex.setDim(ib, bindex.getShape(ib) == 1 ? 0 : current[rank - j - 1]);
+                }
+            }
+            r.setDouble(i, volume.getDouble(aindex) + b.getDouble(bindex));
+            index.incr();
+        }
+        return r;
+    }
+
+    @Benchmark
+    public double sumAll() {
+        return ArrayMath.sum(a).doubleValue();
+    }
+
+    @Benchmark
+    public Array sumAxis0() throws InvalidRangeException {
+        return ArrayMath.sum(a, 0);
+    }
+
+    @Benchmark
+    public Array meanAxis1() throws InvalidRangeException {
+        return ArrayMath.mean(a, 1);
+    }
+
+    @Benchmark
+    public Array[] meshgrid() {
+        return ArrayUtil.meshgrid(row, row);
+    }
+}
@@ -0,0 +1,56 @@
+package org.meteoinfo.benchmark;
+
+import org.meteoinfo.common.util.GlobalUtil;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Run the benchmarks and write the results as a JSON file named with the
+ * MeteoInfo version, so the results of different versions can be compared.
+ *
+ * <p>Usage: java -jar benchmarks.jar [include regex...]. The GRIB2 benchmark
+ * is only included when the data file is set by the 'benchmark.grib2' system
+ * property, and the result directory can be set by the 'benchmark.output'
+ * system property (default 'target').
+ *
+ * @author Yaqiang Wang
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Main method
+     * @param args Benchmark include patterns
+     * @throws RunnerException
+     */
+    public static void main(String[] args) throws RunnerException {
+        File outDir = new File(System.getProperty("benchmark.output", "target"));
+        outDir.mkdirs();
+        String resultFile = new File(outDir, "jmh-result-" + GlobalUtil.getVersion() + ".json").getPath();
+
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile);
+        if (args.length == 0) {
+            builder.include(BenchmarkRunner.class.getPackage().getName() + ".*");
+        } else {
+            for (String arg : args) {
+                builder.include(arg);
+            }
+        }
+
+        String grib2File = System.getProperty("benchmark.grib2");
+        if (grib2File == null || grib2File.isEmpty()) {
+            builder.exclude(Grib2ReadBenchmark.class.getSimpleName());
+        } else {
+            builder.param("file", grib2File);
+        }
+
+        new Runner(builder.build()).run();
+        System.out.println("Benchmark results: " + resultFile);
+    }
+}
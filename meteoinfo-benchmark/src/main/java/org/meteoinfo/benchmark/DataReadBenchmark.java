@@ -0,0 +1,133 @@
+package org.meteoinfo.benchmark;
+
+import org.meteoinfo.data.meteodata.DataInfo;
+import org.meteoinfo.data.meteodata.MeteoDataInfo;
+import org.meteoinfo.data.meteodata.radar.BaseRadarDataInfo;
+import org.meteoinfo.data.meteodata.radar.RadarDataUtil;
+import org.meteoinfo.ndarray.Array;
+import org.meteoinfo.ndarray.math.ArrayUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of opening and reading NetCDF, GrADS and CMA standard radar
+ * data files. The data files are generated at trial setup.
+ *
+ * @author Yaqiang Wang
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataReadBenchmark {
+
+    @Param({"8"})
+    public int timeNum;
+
+    @Param({"10"})
+    public int levelNum;
+
+    @Param({"181"})
+    public int latNum;
+
+    @Param({"360"})
+    public int lonNum;
+
+    private File dir;
+    private String ncFile;
+    private String ctlFile;
+    private String radarFile;
+    private DataInfo ncDataInfo;
+    private DataInfo gradsDataInfo;
+    private BaseRadarDataInfo radarDataInfo;
+    private Array xa;
+    private Array ya;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = SyntheticData.createTempDir();
+        ncFile = SyntheticData.writeNetCDF(dir, timeNum, levelNum, latNum, lonNum);
+        ctlFile = SyntheticData.writeGrADS(dir, timeNum, levelNum, latNum, lonNum);
+        radarFile = SyntheticData.writeStandardRadar(dir, 9, 360, 920);
+
+        MeteoDataInfo meteoDataInfo = new MeteoDataInfo();
+        meteoDataInfo.openNetCDFData(ncFile);
+        ncDataInfo = meteoDataInfo.getDataInfo();
+        meteoDataInfo = new MeteoDataInfo();
+        meteoDataInfo.openGrADSData(ctlFile);
+        gradsDataInfo = meteoDataInfo.getDataInfo();
+        radarDataInfo = (BaseRadarDataInfo) RadarDataUtil.getDataInfo(radarFile);
+        radarDataInfo.readDataInfo(radarFile);
+
+        Array x = ArrayUtil.lineSpace(-150000, 150000, 301, true);
+        Array[] xy = ArrayUtil.meshgrid(x, x);
+        xa = xy[0];
+        ya = xy[1];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SyntheticData.delete(dir);
+    }
+
+    @Benchmark
+    public DataInfo netCDFOpen() {
+        MeteoDataInfo meteoDataInfo = new MeteoDataInfo();
+        meteoDataInfo.openNetCDFData(ncFile);
+        return meteoDataInfo.getDataInfo();
+    }
+
+    @Benchmark
+    public Array netCDFReadAll() {
+        return ncDataInfo.read("t");
+    }
+
+    @Benchmark
+    public Array netCDFReadSection() {
+        return ncDataInfo.read("t", new int[]{timeNum / 2, 0, latNum / 4, lonNum / 4},
+                new int[]{1, levelNum, latNum / 2, lonNum / 2}, new int[]{1, 1, 1, 1});
+    }
+
+    @Benchmark
+    public DataInfo gradsOpen() {
+        MeteoDataInfo meteoDataInfo = new MeteoDataInfo();
+        meteoDataInfo.openGrADSData(ctlFile);
+        return meteoDataInfo.getDataInfo();
+    }
+
+    @Benchmark
+    public Array gradsReadAll() {
+        return gradsDataInfo.read("t");
+    }
+
+    @Benchmark
+    public Array gradsReadSection() {
+        return gradsDataInfo.read("t", new int[]{timeNum / 2, 0, latNum / 4, lonNum / 4},
+                new int[]{1, levelNum, latNum / 2, lonNum / 2}, new int[]{1, 1, 1, 1});
+    }
+
+    @Benchmark
+    public DataInfo radarOpen() {
+        BaseRadarDataInfo dataInfo = (BaseRadarDataInfo) RadarDataUtil.getDataInfo(radarFile);
+        dataInfo.readDataInfo(radarFile);
+        return dataInfo;
+    }
+
+    @Benchmark
+    public DataInfo radarOpenFiltered() {
+        BaseRadarDataInfo dataInfo = (BaseRadarDataInfo) RadarDataUtil.getDataInfo(radarFile);
+        dataInfo.readDataInfo(radarFile, Arrays.asList("dBZ"), Arrays.asList(0));
+        return dataInfo;
+    }
+
+    @Benchmark
+    public Array radarCAPPI() {
+        return radarDataInfo.getCAPPIData("dBZ", xa, ya, 3000, null);
+    }
+}
@@ -0,0 +1,60 @@
+package org.meteoinfo.benchmark;
+
+import org.meteoinfo.data.meteodata.DataInfo;
+import org.meteoinfo.data.meteodata.MeteoDataInfo;
+import org.meteoinfo.data.meteodata.Variable;
+import org.meteoinfo.ndarray.Array;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of opening and reading a GRIB2 data file. The data file can not
+ * be generated, so it is set by the 'file' parameter, e.g.
+ * '-p file=/data/gfs.grb2' or the 'benchmark.grib2' system property of
+ * {@link BenchmarkRunner}.
+ *
+ * @author Yaqiang Wang
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Grib2ReadBenchmark {
+
+    @Param({""})
+    public String file;
+
+    private DataInfo dataInfo;
+    private String varName;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalStateException("GRIB2 data file is not set");
+        }
+        MeteoDataInfo meteoDataInfo = new MeteoDataInfo();
+        meteoDataInfo.openData(file);
+        dataInfo = meteoDataInfo.getDataInfo();
+        for (Variable variable : dataInfo.getVariables()) {
+            if (variable.getDimNumber() >= 2) {
+                varName = variable.getName();
+                break;
+            }
+        }
+    }
+
+    @Benchmark
+    public DataInfo open() {
+        MeteoDataInfo meteoDataInfo = new MeteoDataInfo();
+        meteoDataInfo.openData(file);
+        return meteoDataInfo.getDataInfo();
+    }
+
+    @Benchmark
+    public Array readVariable() {
+        return dataInfo.read(varName);
+    }
+}
@@ -0,0 +1,105 @@
+package org.meteoinfo.benchmark;
+
+import org.meteoinfo.math.interpolate.InterpUtil;
+import org.meteoinfo.ndarray.Array;
+import org.meteoinfo.ndarray.DataType;
+import org.meteoinfo.ndarray.math.ArrayUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of grid and station interpolation of InterpUtil.
+ *
+ * @author Yaqiang Wang
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterpolationBenchmark {
+
+    @Param({"180"})
+    public int gridNum;
+
+    @Param({"1000", "5000"})
+    public int stationNum;
+
+    private Array grid;
+    private Array gx;
+    private Array gy;
+    private Array newX;
+    private Array newY;
+    private Array sx;
+    private Array sy;
+    private Array sv;
+    private List<Number> sxList;
+    private List<Number> syList;
+    private List<Number> xList;
+    private List<Number> yList;
+    private List<Number> radList;
+    private Array stX;
+    private Array stY;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        gx = ArrayUtil.lineSpace(0, 360, gridNum * 2 + 1, true);
+        gy = ArrayUtil.lineSpace(-90, 90, gridNum + 1, true);
+        grid = Array.factory(DataType.DOUBLE, new int[]{(int) gy.getSize(), (int) gx.getSize()});
+        for (int i = 0; i < grid.getSize(); i++) {
+            grid.setDouble(i, random.nextDouble() * 30);
+        }
+        newX = ArrayUtil.lineSpace(0.25, 359.75, gridNum * 4, true);
+        newY = ArrayUtil.lineSpace(-89.75, 89.75, gridNum * 2, true);
+
+        sx = Array.factory(DataType.DOUBLE, new int[]{stationNum});
+        sy = Array.factory(DataType.DOUBLE, new int[]{stationNum});
+        sv = Array.factory(DataType.DOUBLE, new int[]{stationNum});
+        sxList = new ArrayList<>(stationNum);
+        syList = new ArrayList<>(stationNum);
+        for (int i = 0; i < stationNum; i++) {
+            double x = 70 + random.nextDouble() * 70;
+            double y = 15 + random.nextDouble() * 40;
+            sx.setDouble(i, x);
+            sy.setDouble(i, y);
+            sv.setDouble(i, random.nextDouble() * 30);
+            sxList.add(x);
+            syList.add(y);
+        }
+        xList = new ArrayList<>();
+        for (double x = 70; x <= 140; x += 0.5) {
+            xList.add(x);
+        }
+        yList = new ArrayList<>();
+        for (double y = 15; y <= 55; y += 0.5) {
+            yList.add(y);
+        }
+        stX = ArrayUtil.lineSpace(70, 140, xList.size(), true);
+        stY = ArrayUtil.lineSpace(15, 55, yList.size(), true);
+        radList = new ArrayList<>();
+        radList.add(5.0);
+        radList.add(3.0);
+        radList.add(1.5);
+    }
+
+    @Benchmark
+    public Array linint2() {
+        return InterpUtil.linint2(grid, gx, gy, newX, newY);
+    }
+
+    @Benchmark
+    public Array idwNeighbor() {
+        return InterpUtil.interpolation_IDW_Neighbor(sx, sy, sv, stX, stY, 8);
+    }
+
+    @Benchmark
+    public Array cressman() {
+        return InterpUtil.cressman(sxList, syList, sv, xList, yList, radList);
+    }
+}
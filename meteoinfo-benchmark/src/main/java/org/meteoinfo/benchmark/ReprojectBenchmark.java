@@ -0,0 +1,71 @@
+package org.meteoinfo.benchmark;
+
+import org.meteoinfo.ndarray.Array;
+import org.meteoinfo.ndarray.DataType;
+import org.meteoinfo.ndarray.InvalidRangeException;
+import org.meteoinfo.ndarray.math.ArrayUtil;
+import org.meteoinfo.projection.KnownCoordinateSystems;
+import org.meteoinfo.projection.ProjectionInfo;
+import org.meteoinfo.projection.Reproject;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of point and grid reprojection of Reproject.
+ *
+ * @author Yaqiang Wang
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReprojectBenchmark {
+
+    @Param({"+proj=lcc +lon_0=105 +lat_1=25 +lat_2=47", "+proj=stere +lon_0=105 +lat_0=90"})
+    public String proj4;
+
+    @Param({"100000"})
+    public int pointNum;
+
+    private ProjectionInfo fromProj;
+    private ProjectionInfo toProj;
+    private Array x;
+    private Array y;
+    private Array data;
+    private Array xx;
+    private Array yy;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        fromProj = KnownCoordinateSystems.geographic.world.WGS1984;
+        toProj = ProjectionInfo.factory(proj4);
+        Random random = new Random(42);
+        x = Array.factory(DataType.DOUBLE, new int[]{pointNum});
+        y = Array.factory(DataType.DOUBLE, new int[]{pointNum});
+        for (int i = 0; i < pointNum; i++) {
+            x.setDouble(i, 70 + random.nextDouble() * 70);
+            y.setDouble(i, 15 + random.nextDouble() * 40);
+        }
+
+        xx = ArrayUtil.lineSpace(70, 140, 281, true);
+        yy = ArrayUtil.lineSpace(15, 55, 161, true);
+        data = Array.factory(DataType.DOUBLE, new int[]{(int) yy.getSize(), (int) xx.getSize()});
+        for (int i = 0; i < data.getSize(); i++) {
+            data.setDouble(i, random.nextDouble() * 30);
+        }
+    }
+
+    @Benchmark
+    public Array[] points() {
+        return Reproject.reproject(x, y, fromProj, toProj);
+    }
+
+    @Benchmark
+    public Object[] grid() throws InvalidRangeException {
+        return Reproject.reproject(data, xx, yy, fromProj, toProj);
+    }
+}
@@ -0,0 +1,261 @@
+package org.meteoinfo.benchmark;
+
+import ucar.nc2.write.NetcdfFormatWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * Generators of the synthetic data files used by the data reading
+ * benchmarks, so the benchmarks need no external sample data.
+ *
+ * @author Yaqiang Wang
+ */
+public class SyntheticData {
+
+    private SyntheticData() {
+    }
+
+    /**
+     * Create a temporary directory for the generated data files
+     * @return Temporary directory
+     * @throws IOException
+     */
+    public static File createTempDir() throws IOException {
+        File dir = Files.createTempDirectory("meteoinfo-benchmark").toFile();
+        dir.deleteOnExit();
+        return dir;
+    }
+
+    /**
+     * Delete a directory and the data files in it
+     * @param dir The directory
+     */
+    public static void delete(File dir) {
+        if (dir == null) {
+            return;
+        }
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    private static float value(int t, int z, int y, int x) {
+        return (float) (280 + 10 * Math.sin(x * 0.05 + t) * Math.cos(y * 0.05) - z);
+    }
+
+    /**
+     * Write a little endian GrADS gridded data file with a 4 dimension
+     * variable 't'
+     * @param dir Output directory
+     * @param nt Time number
+     * @param nz Level number
+     * @param ny Y number
+     * @param nx X number
+     * @return The ctl file name
+     * @throws IOException
+     */
+    public static String writeGrADS(File dir, int nt, int nz, int ny, int nx) throws IOException {
+        File ctlFile = new File(dir, "grads.ctl");
+        File datFile = new File(dir, "grads.dat");
+        try (PrintWriter pw = new PrintWriter(ctlFile)) {
+            pw.println("DSET ^" + datFile.getName());
+            pw.println("TITLE Synthetic benchmark data");
+            pw.println("UNDEF -9999.0");
+            pw.println("OPTIONS little_endian");
+            pw.println("XDEF " + nx + " LINEAR 0.0 " + 360.0 / nx);
+            pw.println("YDEF " + ny + " LINEAR -90.0 " + 180.0 / (ny - 1));
+            pw.println("ZDEF " + nz + " LINEAR 1000 -50");
+            pw.println("TDEF " + nt + " LINEAR 00Z01JAN2020 6hr");
+            pw.println("VARS 1");
+            pw.println("t " + nz + " 99 Temperature");
+            pw.println("ENDVARS");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(ny * nx * 4).order(ByteOrder.LITTLE_ENDIAN);
+        try (OutputStream os = new BufferedOutputStream(new FileOutputStream(datFile))) {
+            for (int t = 0; t < nt; t++) {
+                for (int z = 0; z < nz; z++) {
+                    buffer.clear();
+                    for (int y = 0; y < ny; y++) {
+                        for (int x = 0; x < nx; x++) {
+                            buffer.putFloat(value(t, z, y, x));
+                        }
+                    }
+                    os.write(buffer.array());
+                }
+            }
+        }
+
+        return ctlFile.getAbsolutePath();
+    }
+
+    /**
+     * Write a NetCDF-3 data file with a 4 dimension variable 't'
+     * @param dir Output directory
+     * @param nt Time number
+     * @param nz Level number
+     * @param ny Latitude number
+     * @param nx Longitude number
+     * @return The file name
+     * @throws IOException
+     */
+    public static String writeNetCDF(File dir, int nt, int nz, int ny, int nx) throws IOException {
+        File file = new File(dir, "netcdf.nc");
+        NetcdfFormatWriter.Builder builder = NetcdfFormatWriter.createNewNetcdf3(file.getAbsolutePath());
+        builder.addDimension("time", nt);
+        builder.addDimension("level", nz);
+        builder.addDimension("lat", ny);
+        builder.addDimension("lon", nx);
+        builder.addVariable("time", ucar.ma2.DataType.DOUBLE, "time")
+                .addAttribute(new ucar.nc2.Attribute("units", "hours since 2020-01-01 00:00:00"));
+        builder.addVariable("level", ucar.ma2.DataType.FLOAT, "level")
+                .addAttribute(new ucar.nc2.Attribute("units", "hPa"));
+        builder.addVariable("lat", ucar.ma2.DataType.FLOAT, "lat")
+                .addAttribute(new ucar.nc2.Attribute("units", "degrees_north"));
+        builder.addVariable("lon", ucar.ma2.DataType.FLOAT, "lon")
+                .addAttribute(new ucar.nc2.Attribute("units", "degrees_east"));
+        builder.addVariable("t", ucar.ma2.DataType.FLOAT, "time level lat lon")
+                .addAttribute(new ucar.nc2.Attribute("units", "K"));
+
+        try (NetcdfFormatWriter writer = builder.build()) {
+            double[] times = new double[nt];
+            for (int i = 0; i < nt; i++) {
+                times[i] = i * 6;
+            }
+            float[] levels = new float[nz];
+            for (int i = 0; i < nz; i++) {
+                levels[i] = 1000 - i * 50;
+            }
+            float[] lats = new float[ny];
+            for (int i = 0; i < ny; i++) {
+                lats[i] = -90.0f + i * 180.0f / (ny - 1);
+            }
+            float[] lons = new float[nx];
+            for (int i = 0; i < nx; i++) {
+                lons[i] = i * 360.0f / nx;
+            }
+            writer.write("time", ucar.ma2.Array.factory(ucar.ma2.DataType.DOUBLE, new int[]{nt}, times));
+            writer.write("level", ucar.ma2.Array.factory(ucar.ma2.DataType.FLOAT, new int[]{nz}, levels));
+            writer.write("lat", ucar.ma2.Array.factory(ucar.ma2.DataType.FLOAT, new int[]{ny}, lats));
+            writer.write("lon", ucar.ma2.Array.factory(ucar.ma2.DataType.FLOAT, new int[]{nx}, lons));
+
+            float[] data = new float[nz * ny * nx];
+            for (int t = 0; t < nt; t++) {
+                int i = 0;
+                for (int z = 0; z < nz; z++) {
+                    for (int y = 0; y < ny; y++) {
+                        for (int x = 0; x < nx; x++) {
+                            data[i++] = value(t, z, y, x);
+                        }
+                    }
+                }
+                ucar.ma2.Array array = ucar.ma2.Array.factory(ucar.ma2.DataType.FLOAT,
+                        new int[]{1, nz, ny, nx}, data);
+                writer.write("t", new int[]{t, 0, 0, 0}, array);
+            }
+        } catch (ucar.ma2.InvalidRangeException e) {
+            throw new IOException(e);
+        }
+
+        return file.getAbsolutePath();
+    }
+
+    /**
+     * Write a CMA standard format radar base data file with reflectivity
+     * (dBZ) and velocity (V) moments
+     * @param dir Output directory
+     * @param cutNumber Cut (elevation) number
+     * @param radialNumber Radial number of each cut
+     * @param gateNumber Gate number of each radial
+     * @return The file name
+     * @throws IOException
+     */
+    public static String writeStandardRadar(File dir, int cutNumber, int radialNumber, int gateNumber)
+            throws IOException {
+        File file = new File(dir, "Z_RADR_I_Z9999_20200101000000_O_DOR_SA_CAP_FMT.bin");
+        Random random = new Random(42);
+        try (OutputStream os = new BufferedOutputStream(new FileOutputStream(file))) {
+            //Generic header
+            ByteBuffer buffer = ByteBuffer.allocate(32).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(0, 1297371986);
+            buffer.putInt(8, 1);
+            os.write(buffer.array());
+
+            //Site configuration
+            buffer = ByteBuffer.allocate(128).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.put("Z9999".getBytes());
+            buffer.putFloat(40, 30.0f);
+            buffer.putFloat(44, 120.0f);
+            buffer.putInt(48, 50);
+            buffer.putFloat(64, 1.0f);
+            buffer.putShort(72, (short) 1);
+            os.write(buffer.array());
+
+            //Task configuration
+            buffer = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(176, cutNumber);
+            os.write(buffer.array());
+
+            //Cut configurations
+            float[] elevations = new float[cutNumber];
+            for (int i = 0; i < cutNumber; i++) {
+                elevations[i] = 0.5f + i * 1.0f;
+                buffer = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+                buffer.putFloat(24, elevations[i]);
+                buffer.putInt(44, 250);
+                buffer.putInt(48, 250);
+                os.write(buffer.array());
+            }
+
+            //Radials
+            int[] dataTypes = new int[]{2, 3};
+            ByteBuffer radialHeader = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer momentHeader = ByteBuffer.allocate(32).order(ByteOrder.LITTLE_ENDIAN);
+            byte[] data = new byte[gateNumber * 2];
+            ByteBuffer dataBuffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+            for (int c = 0; c < cutNumber; c++) {
+                for (int r = 0; r < radialNumber; r++) {
+                    radialHeader.clear();
+                    radialHeader.put(new byte[64]);
+                    radialHeader.putInt(12, r + 1);
+                    radialHeader.putInt(16, c + 1);
+                    radialHeader.putFloat(20, r * 360.0f / radialNumber);
+                    radialHeader.putFloat(24, elevations[c]);
+                    radialHeader.putInt(36, dataTypes.length * (32 + data.length));
+                    radialHeader.putInt(40, dataTypes.length);
+                    os.write(radialHeader.array());
+                    for (int dataType : dataTypes) {
+                        momentHeader.clear();
+                        momentHeader.put(new byte[32]);
+                        momentHeader.putInt(0, dataType);
+                        momentHeader.putInt(4, 100);
+                        momentHeader.putInt(8, 5000);
+                        momentHeader.putShort(12, (short) 2);
+                        momentHeader.putInt(16, data.length);
+                        os.write(momentHeader.array());
+                        dataBuffer.clear();
+                        for (int g = 0; g < gateNumber; g++) {
+                            dataBuffer.putShort((short) (5000 + random.nextInt(6000)));
+                        }
+                        os.write(data);
+                    }
+                }
+            }
+        }
+
+        return file.getAbsolutePath();
+    }
+}
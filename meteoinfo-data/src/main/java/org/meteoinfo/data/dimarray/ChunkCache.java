@@ -0,0 +1,297 @@
+package org.meteoinfo.data.dimarray;
+
+import org.meteoinfo.data.meteodata.DataInfo;
+import org.meteoinfo.data.meteodata.Variable;
+import org.meteoinfo.ndarray.Array;
+import org.meteoinfo.ndarray.InvalidRangeException;
+import org.meteoinfo.ndarray.MAMath;
+import org.meteoinfo.ndarray.Range;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Least recently used cache of the data chunks of variables.
+ *
+ * <p>A variable is split into chunks of a fixed shape. By default a chunk
+ * holds the whole last two (y/x) dimensions and one index of the other
+ * dimensions. A section read through the cache only reads the chunks which
+ * are not cached, so repeated reads of overlapping windows do not read the
+ * data file again.
+ *
+ * @author Yaqiang Wang
+ */
+public class ChunkCache {
+
+    // <editor-fold desc="Variables">
+    private final long maxBytes;
+    private final int[] chunkShape;
+    private final LinkedHashMap<Key, Array> chunks = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes = 0;
+    private long hitCount = 0;
+    private long missCount = 0;
+    // </editor-fold>
+    // <editor-fold desc="Constructor">
+
+    /**
+     * Constructor
+     * @param maxBytes Maximum cached bytes
+     */
+    public ChunkCache(long maxBytes) {
+        this(maxBytes, null);
+    }
+
+    /**
+     * Constructor
+     * @param maxBytes Maximum cached bytes
+     * @param chunkShape Chunk shape, null means the default chunk shape. The
+     *                   chunk shape is only used for the variables with same
+     *                   rank, and non-positive lengths mean whole dimensions.
+     */
+    public ChunkCache(long maxBytes, int[] chunkShape) {
+        this.maxBytes = maxBytes;
+        this.chunkShape = chunkShape;
+    }
+    // </editor-fold>
+    // <editor-fold desc="Get Set Methods">
+
+    /**
+     * Get maximum cached bytes
+     * @return Maximum cached bytes
+     */
+    public long getMaxBytes() {
+        return this.maxBytes;
+    }
+
+    /**
+     * Get cached bytes
+     * @return Cached bytes
+     */
+    public synchronized long getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * Get number of chunk reads served from the cache
+     * @return Hit count
+     */
+    public synchronized long getHitCount() {
+        return this.hitCount;
+    }
+
+    /**
+     * Get number of chunk reads from the data file
+     * @return Miss count
+     */
+    public synchronized long getMissCount() {
+        return this.missCount;
+    }
+    // </editor-fold>
+    // <editor-fold desc="Methods">
+
+    /**
+     * Clear the cache
+     */
+    public synchronized void clear() {
+        this.chunks.clear();
+        this.bytes = 0;
+    }
+
+    /**
+     * Remove the cached chunks of a data info
+     * @param dataInfo The data info
+     */
+    public synchronized void remove(DataInfo dataInfo) {
+        Iterator<Map.Entry<Key, Array>> iter = this.chunks.entrySet().iterator();
+        while (iter.hasNext()) {
+            Map.Entry<Key, Array> entry = iter.next();
+            if (entry.getKey().dataInfo == dataInfo) {
+                this.bytes -= entry.getValue().getSizeBytes();
+                iter.remove();
+            }
+        }
+    }
+
+    private int[] getChunkShape(int[] shape) {
+        int n = shape.length;
+        int[] r = new int[n];
+        for (int i = 0; i < n; i++) {
+            int len;
+            if (chunkShape != null && chunkShape.length == n) {
+                len = chunkShape[i] > 0 ? chunkShape[i] : shape[i];
+            } else {
+                len = i >= n - 2 ? shape[i] : 1;
+            }
+            r[i] = Math.max(1, Math.min(len, shape[i]));
+        }
+        return r;
+    }
+
+    /**
+     * Read a section of a variable through the cache
+     * @param dataInfo The data info
+     * @param varName Variable name
+     * @param ranges Section ranges with positive strides, same rank as the variable
+     * @return Section data array without rank reduction
+     * @throws InvalidRangeException
+     */
+    public Array read(DataInfo dataInfo, String varName, List<Range> ranges) throws InvalidRangeException {
+        Variable variable = dataInfo.getVariable(varName);
+        int n = ranges.size();
+        int[] shape = new int[n];
+        for (int i = 0; i < n; i++) {
+            shape[i] = variable.getDimension(i).getLength();
+        }
+        int[] rShape = new int[n];
+        boolean empty = false;
+        for (int i = 0; i < n; i++) {
+            rShape[i] = ranges.get(i).length();
+            if (rShape[i] == 0) {
+                empty = true;
+            }
+        }
+        if (empty) {
+            return Array.factory(variable.getDataType(), rShape);
+        }
+        int[] cShape = getChunkShape(shape);
+
+        //Chunk index range of each dimension
+        int[] first = new int[n];
+        int[] last = new int[n];
+        for (int i = 0; i < n; i++) {
+            Range range = ranges.get(i);
+            first[i] = range.first() / cShape[i];
+            last[i] = range.last() / cShape[i];
+        }
+
+        Array r = null;
+        int[] counter = first.clone();
+        while (true) {
+            int[] chunkOrigin = new int[n];
+            List<Range> chunkRanges = new ArrayList<>(n);
+            List<Range> resultRanges = new ArrayList<>(n);
+            empty = false;
+            for (int i = 0; i < n; i++) {
+                Range range = ranges.get(i);
+                int cStart = counter[i] * cShape[i];
+                int cEnd = Math.min(cStart + cShape[i], shape[i]) - 1;
+                chunkOrigin[i] = cStart;
+                //Positions of the requested elements inside this chunk
+                int s = Math.max(range.first(), cStart);
+                int k1 = (s - range.first() + range.stride() - 1) / range.stride();
+                int k2 = (Math.min(range.last(), cEnd) - range.first()) / range.stride();
+                if (k1 > k2) {
+                    empty = true;
+                    break;
+                }
+                chunkRanges.add(new Range(range.element(k1) - cStart, range.element(k2) - cStart,
+                        range.stride()));
+                resultRanges.add(new Range(k1, k2));
+            }
+
+            if (!empty) {
+                Array chunk = getChunk(dataInfo, varName, chunkOrigin, cShape, shape);
+                if (r == null) {
+                    r = Array.factory(chunk.getDataType(), rShape);
+                }
+                MAMath.copy(r.sectionNoReduce(resultRanges), chunk.sectionNoReduce(chunkRanges));
+            }
+
+            //Next chunk
+            int d = n - 1;
+            while (d >= 0) {
+                counter[d] += 1;
+                if (counter[d] <= last[d]) {
+                    break;
+                }
+                counter[d] = first[d];
+                d -= 1;
+            }
+            if (d < 0) {
+                break;
+            }
+        }
+
+        return r;
+    }
+
+    private Array getChunk(DataInfo dataInfo, String varName, int[] origin, int[] cShape, int[] shape) {
+        Key key = new Key(dataInfo, varName, origin);
+        synchronized (this) {
+            Array chunk = this.chunks.get(key);
+            if (chunk != null) {
+                this.hitCount += 1;
+                return chunk;
+            }
+            this.missCount += 1;
+        }
+
+        int n = origin.length;
+        int[] size = new int[n];
+        int[] stride = new int[n];
+        for (int i = 0; i < n; i++) {
+            size[i] = Math.min(cShape[i], shape[i] - origin[i]);
+            stride[i] = 1;
+        }
+        Array chunk = dataInfo.read(varName, origin, size, stride);
+        chunk = chunk.reshape(size);
+        long chunkBytes = chunk.getSizeBytes();
+        if (chunkBytes <= this.maxBytes) {
+            synchronized (this) {
+                //Another thread may have cached the same chunk meanwhile
+                Array cached = this.chunks.putIfAbsent(key, chunk);
+                if (cached != null) {
+                    return cached;
+                }
+                this.bytes += chunkBytes;
+                Iterator<Array> iter = this.chunks.values().iterator();
+                while (this.bytes > this.maxBytes && iter.hasNext()) {
+                    Array eldest = iter.next();
+                    if (eldest != chunk) {
+                        this.bytes -= eldest.getSizeBytes();
+                        iter.remove();
+                    }
+                }
+            }
+        }
+
+        return chunk;
+    }
+    // </editor-fold>
+
+    private static class Key {
+        final DataInfo dataInfo;
+        final String varName;
+        final int[] origin;
+        final int hash;
+
+        Key(DataInfo dataInfo, String varName, int[] origin) {
+            this.dataInfo = dataInfo;
+            this.varName = varName;
+            this.origin = origin;
+            int result = System.identityHashCode(dataInfo);
+            result = 31 * result + varName.hashCode();
+            result = 31 * result + Arrays.hashCode(origin);
+            this.hash = result;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return dataInfo == other.dataInfo && varName.equals(other.varName)
+                    && Arrays.equals(origin, other.origin);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package org.meteoinfo.data.dimarray;
+
+import org.meteoinfo.data.meteodata.DataInfo;
+import org.meteoinfo.data.meteodata.Variable;
+import org.meteoinfo.ndarray.Array;
+import org.meteoinfo.ndarray.InvalidRangeException;
+import org.meteoinfo.ndarray.Range;
+import org.meteoinfo.ndarray.math.ArrayMath;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dimension array backed by a section of a data file variable.
+ *
+ * <p>Sections of a lazy dimension array are composed with the variable
+ * section without reading data. The data is only read with the final section
+ * when the array values are needed, optionally through a chunk cache. The
+ * loaded array is the same as the one read by the corresponding
+ * {@code DataInfo.readDimArray} method.
+ *
+ * @author Yaqiang Wang
+ */
+public class LazyDimArray extends DimArray {
+    // <editor-fold desc="Variables">
+    private final DataInfo dataInfo;
+    private final String varName;
+    private final List<Range> ranges;
+    private final ChunkCache chunkCache;
+    private final boolean reduce;
+    private final boolean missingToNaN;
+    private volatile boolean loaded = false;
+    // </editor-fold>
+
+    // <editor-fold desc="Constructor">
+    /**
+     * Constructor of a variable section, the loaded array is reduced and the
+     * missing values are set as NaN
+     * @param dataInfo The data info
+     * @param varName Variable name
+     * @param ranges Variable section ranges with positive strides
+     * @param chunkCache Chunk cache, null means read directly
+     */
+    public LazyDimArray(DataInfo dataInfo, String varName, List<Range> ranges, ChunkCache chunkCache) {
+        this(dataInfo, varName, ranges, chunkCache, true, true);
+    }
+
+    /**
+     * Constructor
+     * @param dataInfo The data info
+     * @param varName Variable name
+     * @param ranges Variable section ranges with positive strides
+     * @param chunkCache Chunk cache, null means read directly
+     * @param reduce Whether the dimensions with length 1 are removed
+     * @param missingToNaN Whether the missing values are set as NaN
+     */
+    public LazyDimArray(DataInfo dataInfo, String varName, List<Range> ranges, ChunkCache chunkCache,
+                        boolean reduce, boolean missingToNaN) {
+        super();
+        this.dataInfo = dataInfo;
+        this.varName = varName;
+        this.ranges = new ArrayList<>(ranges);
+        this.chunkCache = chunkCache;
+        this.reduce = reduce;
+        this.missingToNaN = missingToNaN;
+        Variable variable = dataInfo.getVariable(varName);
+        List<Dimension> dims = new ArrayList<>();
+        for (int i = 0; i < ranges.size(); i++) {
+            Range range = ranges.get(i);
+            if (!reduce) {
+                dims.add(variable.getDimension(i));
+            } else if (range.length() > 1) {
+                dims.add(variable.getDimension(i).extract(range));
+            }
+        }
+        this.setDimensions(dims);
+    }
+    // </editor-fold>
+
+    // <editor-fold desc="Get and set methods">
+    /**
+     * Get data info
+     * @return Data info
+     */
+    public DataInfo getDataInfo() {
+        return this.dataInfo;
+    }
+
+    /**
+     * Get variable name
+     * @return Variable name
+     */
+    public String getVariableName() {
+        return this.varName;
+    }
+
+    /**
+     * Get variable section ranges
+     * @return Section ranges
+     */
+    public List<Range> getRanges() {
+        return new ArrayList<>(this.ranges);
+    }
+
+    /**
+     * Get if the data has been read
+     * @return Loaded or not
+     */
+    public boolean isLoaded() {
+        return this.loaded;
+    }
+
+    /**
+     * Get array, the data is read if it has not been read
+     * @return Array
+     */
+    @Override
+    public Array getArray() {
+        if (!this.loaded) {
+            load();
+        }
+        return super.getArray();
+    }
+
+    /**
+     * Set array
+     * @param value Array
+     */
+    @Override
+    public void setArray(Array value) {
+        super.setArray(value);
+        this.loaded = true;
+    }
+    // </editor-fold>
+
+    // <editor-fold desc="Methods">
+    private synchronized void load() {
+        if (this.loaded) {
+            return;
+        }
+        Array array;
+        if (this.chunkCache == null) {
+            array = this.reduce ? this.dataInfo.read(this.varName, this.ranges)
+                    : this.dataInfo.read(this.varName);
+        } else {
+            try {
+                array = this.chunkCache.read(this.dataInfo, this.varName, this.ranges);
+            } catch (InvalidRangeException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        if (this.reduce) {
+            array = array.reduce();
+        }
+        if (this.missingToNaN) {
+            ArrayMath.missingToNaN(array, this.dataInfo.getMissingValue());
+        }
+        this.setArray(array);
+    }
+
+    /**
+     * Get shape of the array without reading data
+     * @return Shape
+     */
+    public int[] getShape() {
+        List<Integer> shape = new ArrayList<>();
+        for (Range range : this.ranges) {
+            if (!this.reduce || range.length() > 1) {
+                shape.add(range.length());
+            }
+        }
+        int[] r = new int[shape.size()];
+        for (int i = 0; i < r.length; i++) {
+            r[i] = shape.get(i);
+        }
+        return r;
+    }
+
+    @Override
+    public long getSize() {
+        if (this.loaded) {
+            return super.getSize();
+        }
+        long size = 1;
+        for (Range range : this.ranges) {
+            size *= range.length();
+        }
+        return size;
+    }
+
+    @Override
+    public Object getValue(int idx) {
+        return this.getArray().getObject(idx);
+    }
+
+    @Override
+    public void asAscending() {
+        this.getArray();
+        super.asAscending();
+    }
+
+    /**
+     * Compose section ranges of the dimensions with the variable
+     * section ranges
+     * @param sRanges Section ranges of the reduced dimensions
+     * @return Variable section ranges
+     * @throws InvalidRangeException
+     */
+    private List<Range> compose(List<Range> sRanges) throws InvalidRangeException {
+        List<Range> r = new ArrayList<>(this.ranges.size());
+        int k = 0;
+        for (Range range : this.ranges) {
+            if (!this.reduce || range.length() > 1) {
+                r.add(range.compose(sRanges.get(k)));
+                k += 1;
+            } else {
+                r.add(range);
+            }
+        }
+        return r;
+    }
+
+    @Override
+    public DimArray section(int[] origin, int[] size, int[] stride) throws InvalidRangeException {
+        if (this.loaded) {
+            return super.section(origin, size, stride);
+        }
+
+        List<Range> sRanges = new ArrayList<>(origin.length);
+        for (int i = 0; i < origin.length; i++) {
+            int s = stride == null ? 1 : stride[i];
+            sRanges.add(new Range(origin[i], origin[i] + s * size[i] - 1, s));
+        }
+        return new LazyDimArray(this.dataInfo, this.varName, compose(sRanges), this.chunkCache,
+                true, this.missingToNaN);
+    }
+
+    @Override
+    public DimArray section(List<Range> ranges) throws InvalidRangeException {
+        if (this.loaded) {
+            return super.section(ranges);
+        }
+
+        return new LazyDimArray(this.dataInfo, this.varName, compose(ranges), this.chunkCache,
+                true, this.missingToNaN);
+    }
+
+    @Override
+    public String toString() {
+        return this.getArray().toString();
+    }
+    // </editor-fold>
+}
@@ -25,10 +25,13 @@ import java.util.logging.Logger;
 
 import com.google.errorprone.annotations.Var;
 import org.meteoinfo.common.util.JDateUtil;
+import org.meteoinfo.data.dimarray.ChunkCache;
 import org.meteoinfo.data.dimarray.DimArray;
 import org.meteoinfo.data.dimarray.DimensionType;
+import org.meteoinfo.data.dimarray.LazyDimArray;
 import org.meteoinfo.data.meteodata.netcdf.NCUtil;
 import org.meteoinfo.data.meteodata.netcdf.NetCDFDataInfo;
+import org.meteoinfo.data.meteodata.util.FileHandlePool;
 import org.meteoinfo.ndarray.*;
 import org.meteoinfo.data.dimarray.Dimension;
 import org.meteoinfo.ndarray.math.ArrayMath;
@@ -59,6 +62,7 @@ import org.meteoinfo.projection.ProjectionInfo;
      protected double missingValue = -9999.0;
      protected ProjectionInfo projInfo = KnownCoordinateSystems.geographic.world.WGS1984;
      protected MeteoDataType meteoDataType;
+     protected ChunkCache chunkCache = null;
 
      // </editor-fold>
      // <editor-fold desc="Constructor">
@@ -539,6 +543,24 @@ import org.meteoinfo.projection.ProjectionInfo;
          missingValue = value;
      }
 
+     /**
+      * Get chunk cache of lazy dimension arrays
+      *
+      * @return Chunk cache, null means no cache
+      */
+     public ChunkCache getChunkCache() {
+         return chunkCache;
+     }
+
+     /**
+      * Set chunk cache of lazy dimension arrays
+      *
+      * @param value Chunk cache, null means no cache
+      */
+     public void setChunkCache(ChunkCache value) {
+         chunkCache = value;
+     }
+
      /**
       * Get projection info
       *
@@ -930,6 +952,69 @@ import org.meteoinfo.projection.ProjectionInfo;
          return readDimArray(varName, origin, size, stride);
      }
 
+     /**
+      * Read lazy dimension array. The data is not read until the array values
+      * are needed, and sections of the lazy array are composed without reading.
+      * The loaded array is the same as the one of {@link #readDimArray(String)}.
+      *
+      * @param varName Variable name
+      * @return Lazy dimension array
+      */
+     public DimArray readDimArrayLazy(String varName) {
+         Variable variable = this.getVariable(varName);
+         if (variable == null) {
+             System.out.println("The variable is not exist: " + varName);
+             return null;
+         }
+
+         List<Range> ranges = new ArrayList<>();
+         for (Dimension dim : variable.getDimensions()) {
+             ranges.add(new Range(dim.getLength()));
+         }
+         return new LazyDimArray(this, varName, ranges, this.chunkCache, false, false);
+     }
+
+     /**
+      * Read lazy dimension array of a section, the loaded array is the same as
+      * the one of {@link #readDimArray(String, List)}
+      *
+      * @param varName Variable name
+      * @param ranges Range list
+      * @return Lazy dimension array
+      */
+     public DimArray readDimArrayLazy(String varName, List<Range> ranges) {
+         Variable variable = this.getVariable(varName);
+         if (variable == null) {
+             System.out.println("The variable is not exist: " + varName);
+             return null;
+         }
+
+         return new LazyDimArray(this, varName, ranges, this.chunkCache);
+     }
+
+     /**
+      * Read lazy dimension array of a section
+      *
+      * @param varName Variable name
+      * @param origin Origin array
+      * @param size Size array
+      * @param stride Stride array
+      * @return Lazy dimension array
+      */
+     public DimArray readDimArrayLazy(String varName, int[] origin, int[] size, int[] stride) {
+         for (int s : stride) {
+             if (s < 0) {
+                 return readDimArray(varName, origin, size, stride);
+             }
+         }
+         try {
+             Section section = new Section(origin, size, stride);
+             return readDimArrayLazy(varName, section.getRanges());
+         } catch (InvalidRangeException e) {
+             throw new RuntimeException(e);
+         }
+     }
+
      /**
       * Get global attributes
       * @return Global attributes
@@ -1058,9 +1143,20 @@ import org.meteoinfo.projection.ProjectionInfo;
      }
 
      /**
-      * Close opened file
+      * Remove the cached chunks of this data info from the chunk cache
+      */
+     protected void removeCachedChunks() {
+         if (this.chunkCache != null) {
+             this.chunkCache.remove(this);
+         }
+     }
+
+     /**
+      * Close opened file and the pooled idle handles of the file. The cached
+      * chunks of the file are removed from the chunk cache.
       */
      public void close() throws IOException {
+         this.removeCachedChunks();
          if (this.getDataType() == MeteoDataType.NETCDF) {
              NetCDFDataInfo dataInfo = (NetCDFDataInfo) this;
              try {
@@ -1068,6 +1164,8 @@ import org.meteoinfo.projection.ProjectionInfo;
              } catch (IOException ex) {
                  Logger.getLogger(MeteoDataInfo.class.getName()).log(Level.SEVERE, null, ex);
              }
+         } else {
+             FileHandlePool.RANDOM_ACCESS_FILES.invalidate(this.getFileName());
          }
      }
 
@@ -542,13 +542,19 @@ public class MeteoDataInfo {
      * Close opened file
      */
     public void close() {
-        if (this.dataInfo.getDataType() == MeteoDataType.NETCDF) {
-            NetCDFDataInfo dinfo = (NetCDFDataInfo) this.dataInfo;
-            try {
-                dinfo.close();
-            } catch (IOException ex) {
-                Logger.getLogger(MeteoDataInfo.class.getName()).log(Level.SEVERE, null, ex);
-            }
+        switch (this.dataInfo.getDataType()) {
+            case NETCDF:
+            case GRADS_GRID:
+            case GRADS_STATION:
+            case ARL_GRID:
+            case HYSPLIT_CONC:
+            case HYSPLIT_PARTICLE:
+                try {
+                    this.dataInfo.close();
+                } catch (IOException ex) {
+                    Logger.getLogger(MeteoDataInfo.class.getName()).log(Level.SEVERE, null, ex);
+                }
+                break;
         }
     }
 
@@ -23,6 +23,7 @@ import org.meteoinfo.data.GridData;
 import org.meteoinfo.data.dimarray.Dimension;
 import org.meteoinfo.data.dimarray.DimensionType;
 import org.meteoinfo.data.meteodata.*;
+import org.meteoinfo.data.meteodata.util.FileHandlePool;
 import org.meteoinfo.ndarray.*;
 import org.meteoinfo.ndarray.math.ArrayMath;
 import org.meteoinfo.ndarray.util.BigDecimalUtil;
@@ -208,145 +209,157 @@ public class ARLDataInfo extends DataInfo implements IGridDataInfo {
     public void readDataInfo(String fileName) {
         this.setFileName(fileName);
         try {
-            RandomAccessFile br = new RandomAccessFile(fileName, "r");
             int i, j, vNum;
             String vName;
             List<String> vList = new ArrayList<>();
+            List<LocalDateTime> times = new ArrayList<>();
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(fileName);
+            try {
+                //open file to decode the standard label (50) plus the 
+                //fixed portion (108) of the extended header   
+                DataLabel aDL = readDataLabel(br);
 
-            //open file to decode the standard label (50) plus the 
-            //fixed portion (108) of the extended header   
-            DataLabel aDL = readDataLabel(br);
-
-            DataHead aDH = this.readDataHead(br);
+                DataHead aDH = this.readDataHead(br);
 
-            if (aDL.XGPT) {
-                int xn = aDL.IGC.charAt(0) - 64;
-                int yn = aDL.IGC.charAt(1) - 64;
-                aDH.NX = aDH.NX + xn * 1000;
-                aDH.NY = aDH.NY + yn * 1000;
-            }
-            int NXY = aDH.NX * aDH.NY;
-            int LEN = NXY + 50;
-            recLen = LEN;
-            int indexRecNum = 1;
-            indexLen = recLen;
-            int recNum = 0;
-            byte[] bytes;
-
-            if (aDH.LENH > NXY) {
-                bytes = new byte[NXY - 108];
-                br.read(bytes);
-                List<Byte> byteList = new ArrayList<>();
-                for (byte b : bytes) {
-                    byteList.add(b);
+                if (aDL.XGPT) {
+                    int xn = aDL.IGC.charAt(0) - 64;
+                    int yn = aDL.IGC.charAt(1) - 64;
+                    aDH.NX = aDH.NX + xn * 1000;
+                    aDH.NY = aDH.NY + yn * 1000;
                 }
-
-                for (i = 0; i < 100; i++) {
-                    aDL = readDataLabel(br);
-                    if (!aDL.getVarName().equalsIgnoreCase("INDX")) {
-                        break;
-                    }
-
-                    bytes = new byte[NXY];
+                int NXY = aDH.NX * aDH.NY;
+                int LEN = NXY + 50;
+                recLen = LEN;
+                int indexRecNum = 1;
+                indexLen = recLen;
+                int recNum = 0;
+                byte[] bytes;
+
+                if (aDH.LENH > NXY) {
+                    bytes = new byte[NXY - 108];
                     br.read(bytes);
+                    List<Byte> byteList = new ArrayList<>();
                     for (byte b : bytes) {
                         byteList.add(b);
                     }
-                }
-                indexRecNum = i + 1;
-                indexLen += i * recLen;
-                bytes = new byte[byteList.size()];
-                for (i = 0; i < byteList.size(); i++) {
-                    bytes[i] = byteList.get(i);
-                }
 
-                byte[] nbytes;
-                int idx = 0;
-                int n;
-                for (i = 0; i < aDH.NZ; i++) {
-                    n = 6;
-                    nbytes = Arrays.copyOfRange(bytes, idx, idx + n);
-                    idx += n;
-                    String lstr = new String(nbytes);
-                    levels.add(Double.parseDouble(lstr.trim()));
-                    n = 2;
-                    nbytes = Arrays.copyOfRange(bytes, idx, idx + n);
-                    vNum = Integer.parseInt(new String(nbytes).trim());
-                    idx += n;
-                    for (j = 0; j < vNum; j++) {
-                        n = 4;
+                    for (i = 0; i < 100; i++) {
+                        aDL = readDataLabel(br);
+                        if (!aDL.getVarName().equalsIgnoreCase("INDX")) {
+                            break;
+                        }
+
+                        bytes = new byte[NXY];
+                        br.read(bytes);
+                        for (byte b : bytes) {
+                            byteList.add(b);
+                        }
+                    }
+                    indexRecNum = i + 1;
+                    indexLen += i * recLen;
+                    bytes = new byte[byteList.size()];
+                    for (i = 0; i < byteList.size(); i++) {
+                        bytes[i] = byteList.get(i);
+                    }
+
+                    byte[] nbytes;
+                    int idx = 0;
+                    int n;
+                    for (i = 0; i < aDH.NZ; i++) {
+                        n = 6;
                         nbytes = Arrays.copyOfRange(bytes, idx, idx + n);
                         idx += n;
-                        vName = new String(nbytes).trim();
-                        vList.add(vName);
-                        recNum += 1;
-                        idx += 4;
+                        String lstr = new String(nbytes);
+                        levels.add(Double.parseDouble(lstr.trim()));
+                        n = 2;
+                        nbytes = Arrays.copyOfRange(bytes, idx, idx + n);
+                        vNum = Integer.parseInt(new String(nbytes).trim());
+                        idx += n;
+                        for (j = 0; j < vNum; j++) {
+                            n = 4;
+                            nbytes = Arrays.copyOfRange(bytes, idx, idx + n);
+                            idx += n;
+                            vName = new String(nbytes).trim();
+                            vList.add(vName);
+                            recNum += 1;
+                            idx += 4;
+                        }
+                        LevelVarList.add(new ArrayList<>(vList));
+                        vList.clear();
                     }
-                    LevelVarList.add(new ArrayList<>(vList));
-                    vList.clear();
-                }
-            } else {
-                for (i = 0; i < aDH.NZ; i++) {
-                    bytes = new byte[6];
-                    br.read(bytes);
-                    String lstr = new String(bytes);
-                    levels.add(Double.parseDouble(lstr.trim()));
-                    bytes = new byte[2];
-                    br.read(bytes);
-                    vNum = Integer.parseInt(new String(bytes).trim());
-                    bytes = new byte[4];
-                    for (j = 0; j < vNum; j++) {
+                } else {
+                    for (i = 0; i < aDH.NZ; i++) {
+                        bytes = new byte[6];
                         br.read(bytes);
-                        vName = new String(bytes).trim();
-                        vList.add(vName);
-                        recNum += 1;
+                        String lstr = new String(bytes);
+                        levels.add(Double.parseDouble(lstr.trim()));
+                        bytes = new byte[2];
                         br.read(bytes);
+                        vNum = Integer.parseInt(new String(bytes).trim());
+                        bytes = new byte[4];
+                        for (j = 0; j < vNum; j++) {
+                            br.read(bytes);
+                            vName = new String(bytes).trim();
+                            vList.add(vName);
+                            recNum += 1;
+                            br.read(bytes);
+                        }
+                        LevelVarList.add(new ArrayList<>(vList));
+                        vList.clear();
                     }
-                    LevelVarList.add(new ArrayList<>(vList));
-                    vList.clear();
-                }
-            }
-            levelNum = aDH.NZ;
-            recsPerTime = recNum + indexRecNum;
-
-//            if (!aDL.Variable.equals("INDX")) {
-//                //ErrorStr = "WARNING Old format meteo data grid!" + Environment.NewLine + aDL.Variable;
-//                return;
-//            }
-            //Decide projection            
-            dataHead = aDH;
-            if (aDH.SIZE == 0) {
-                isLatLon = true;
-                X = new double[aDH.NX];
-                Y = new double[aDH.NY];
-                double xmin = BigDecimalUtil.toDouble(aDH.SYNC_LON);
-                double xdelta = BigDecimalUtil.toDouble(aDH.REF_LON);
-                X[0] = xmin;
-                for (i = 1; i < aDH.NX; i++) {
-                    X[i] = BigDecimalUtil.add(X[i-1], xdelta);
-                }
-                if (X[aDH.NX - 1] + aDH.REF_LON - X[0] == 360) {
-                    isGlobal = true;
-                }
-                double ymin = BigDecimalUtil.toDouble(aDH.SYNC_LAT);
-                double ydelta = BigDecimalUtil.toDouble(aDH.REF_LAT);
-                Y[0] = ymin;
-                for (i = 1; i < aDH.NY; i++) {
-                    Y[i] = BigDecimalUtil.add(Y[i-1], ydelta);
                 }
-            } else {
-                //Identify projection
-                isLatLon = false;
-                String ProjStr;
-                ProjectionInfo theProj;
-                if (aDH.POLE_LAT == 90 || aDH.POLE_LAT == -90) {
-                    if (aDH.TANG_LAT == 90 || aDH.TANG_LAT == -90) {
-                        ProjStr = "+proj=stere"
-                                + "+lat_ts=" + String.valueOf(aDH.REF_LAT)
-                                + "+lat_0=" + String.valueOf(aDH.TANG_LAT)
-                                + "+lon_0=" + String.valueOf(aDH.REF_LON + aDH.ORIENT);
+                levelNum = aDH.NZ;
+                recsPerTime = recNum + indexRecNum;
+
+    //            if (!aDL.Variable.equals("INDX")) {
+    //                //ErrorStr = "WARNING Old format meteo data grid!" + Environment.NewLine + aDL.Variable;
+    //                return;
+    //            }
+                //Decide projection            
+                dataHead = aDH;
+                if (aDH.SIZE == 0) {
+                    isLatLon = true;
+                    X = new double[aDH.NX];
+                    Y = new double[aDH.NY];
+                    double xmin = BigDecimalUtil.toDouble(aDH.SYNC_LON);
+                    double xdelta = BigDecimalUtil.toDouble(aDH.REF_LON);
+                    X[0] = xmin;
+                    for (i = 1; i < aDH.NX; i++) {
+                        X[i] = BigDecimalUtil.add(X[i-1], xdelta);
+                    }
+                    if (X[aDH.NX - 1] + aDH.REF_LON - X[0] == 360) {
+                        isGlobal = true;
+                    }
+                    double ymin = BigDecimalUtil.toDouble(aDH.SYNC_LAT);
+                    double ydelta = BigDecimalUtil.toDouble(aDH.REF_LAT);
+                    Y[0] = ymin;
+                    for (i = 1; i < aDH.NY; i++) {
+                        Y[i] = BigDecimalUtil.add(Y[i-1], ydelta);
+                    }
+                } else {
+                    //Identify projection
+                    isLatLon = false;
+                    String ProjStr;
+                    ProjectionInfo theProj;
+                    if (aDH.POLE_LAT == 90 || aDH.POLE_LAT == -90) {
+                        if (aDH.TANG_LAT == 90 || aDH.TANG_LAT == -90) {
+                            ProjStr = "+proj=stere"
+                                    + "+lat_ts=" + String.valueOf(aDH.REF_LAT)
+                                    + "+lat_0=" + String.valueOf(aDH.TANG_LAT)
+                                    + "+lon_0=" + String.valueOf(aDH.REF_LON + aDH.ORIENT);
+                        } else if (aDH.TANG_LAT == 0) {
+                            ProjStr = "+proj=merc"
+                                    + "+lon_0=" + String.valueOf(aDH.REF_LON + aDH.ORIENT);
+                        } else {
+                            ProjStr = "+proj=lcc"
+                                    + "+lat_0=" + String.valueOf(aDH.REF_LAT)
+                                    + "+lat_1=" + String.valueOf(aDH.TANG_LAT)
+                                    + "+lat_2=" + String.valueOf(aDH.TANG_LAT)
+                                    + "+lon_0=" + String.valueOf(aDH.REF_LON + aDH.ORIENT);
+                        }
                     } else if (aDH.TANG_LAT == 0) {
-                        ProjStr = "+proj=merc"
+                        ProjStr = "+proj=tmerc"
+                                + "+lat_0=" + String.valueOf(aDH.POLE_LAT)
                                 + "+lon_0=" + String.valueOf(aDH.REF_LON + aDH.ORIENT);
                     } else {
                         ProjStr = "+proj=lcc"
@@ -355,77 +368,66 @@ public class ARLDataInfo extends DataInfo implements IGridDataInfo {
                                 + "+lat_2=" + String.valueOf(aDH.TANG_LAT)
                                 + "+lon_0=" + String.valueOf(aDH.REF_LON + aDH.ORIENT);
                     }
-                } else if (aDH.TANG_LAT == 0) {
-                    ProjStr = "+proj=tmerc"
-                            + "+lat_0=" + String.valueOf(aDH.POLE_LAT)
-                            + "+lon_0=" + String.valueOf(aDH.REF_LON + aDH.ORIENT);
-                } else {
-                    ProjStr = "+proj=lcc"
-                            + "+lat_0=" + String.valueOf(aDH.REF_LAT)
-                            + "+lat_1=" + String.valueOf(aDH.TANG_LAT)
-                            + "+lat_2=" + String.valueOf(aDH.TANG_LAT)
-                            + "+lon_0=" + String.valueOf(aDH.REF_LON + aDH.ORIENT);
-                }
 
-                theProj = ProjectionInfo.factory(ProjStr);
-                this.setProjectionInfo(theProj);
+                    theProj = ProjectionInfo.factory(ProjStr);
+                    this.setProjectionInfo(theProj);
 
-                //Set X Y
-                X = new double[aDH.NX];
-                Y = new double[aDH.NY];
-                getProjectedXY(theProj, aDH.SIZE * 1000, aDH.SYNC_XP, aDH.SYNC_YP, aDH.SYNC_LON,
-                        aDH.SYNC_LAT, X, Y);
-            }
-
-            Dimension xDim = new Dimension(DimensionType.X);
-            xDim.setName(this.getXCoordVariableName());
-            xDim.setValues(X);
-            this.setXDimension(xDim);
-            this.addDimension(xDim);
-            Dimension yDim = new Dimension(DimensionType.Y);
-            yDim.setName(this.getYCoordVariableName());
-            yDim.setValues(Y);
-            this.setYDimension(yDim);
-            this.addDimension(yDim);
-
-            //Reopen
-            LocalDateTime aTime, oldTime;
-            int timeNum = 0;
-            br.seek(0);
-            int year = aDL.getYear();
-            if (year < 50) {
-                year = 2000 + year;
-            } else {
-                year = 1900 + year;
-            }
-            oldTime = LocalDateTime.of(year, aDL.getMonth(), aDL.getDay(), aDL.getHour(), 0, 0);
-            List<LocalDateTime> times = new ArrayList<>();
-            times.add(oldTime);
-            int sameTimeNum = 1;
+                    //Set X Y
+                    X = new double[aDH.NX];
+                    Y = new double[aDH.NY];
+                    getProjectedXY(theProj, aDH.SIZE * 1000, aDH.SYNC_XP, aDH.SYNC_YP, aDH.SYNC_LON,
+                            aDH.SYNC_LAT, X, Y);
+                }
 
-            do {
-                if (br.getFilePointer() >= br.length() - recsPerTime * recLen) {
-                    break;
+                Dimension xDim = new Dimension(DimensionType.X);
+                xDim.setName(this.getXCoordVariableName());
+                xDim.setValues(X);
+                this.setXDimension(xDim);
+                this.addDimension(xDim);
+                Dimension yDim = new Dimension(DimensionType.Y);
+                yDim.setName(this.getYCoordVariableName());
+                yDim.setValues(Y);
+                this.setYDimension(yDim);
+                this.addDimension(yDim);
+
+                //Reopen
+                LocalDateTime aTime, oldTime;
+                int timeNum = 0;
+                br.seek(0);
+                int year = aDL.getYear();
+                if (year < 50) {
+                    year = 2000 + year;
+                } else {
+                    year = 1900 + year;
                 }
+                oldTime = LocalDateTime.of(year, aDL.getMonth(), aDL.getDay(), aDL.getHour(), 0, 0);
+                times.add(oldTime);
+                int sameTimeNum = 1;
 
-                //Seek to next time
-                br.seek(br.getFilePointer() + recsPerTime * recLen);
+                do {
+                    if (br.getFilePointer() >= br.length() - recsPerTime * recLen) {
+                        break;
+                    }
 
-                //Read label
-                aDL = readDataLabel(br);
+                    //Seek to next time
+                    br.seek(br.getFilePointer() + recsPerTime * recLen);
 
-                //Rad data head
-                DataHead dh = this.readDataHead(br);
+                    //Read label
+                    aDL = readDataLabel(br);
 
-                //Seek back
-                br.seek(br.getFilePointer() - 50 - 108);
+                    //Rad data head
+                    DataHead dh = this.readDataHead(br);
 
-                aTime = LocalDateTime.of(year, aDL.getMonth(), aDL.getDay(), aDL.getHour(), dh.MN, 0);
-                times.add(aTime);
-                timeNum += 1;
-            } while (true);
+                    //Seek back
+                    br.seek(br.getFilePointer() - 50 - 108);
 
-            br.close();
+                    aTime = LocalDateTime.of(year, aDL.getMonth(), aDL.getDay(), aDL.getHour(), dh.MN, 0);
+                    times.add(aTime);
+                    timeNum += 1;
+                } while (true);
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(fileName, br);
+            }
 
             //Set dimensions
             Array values = Array.factory(DataType.DATE, new int[]{times.size()});
@@ -793,27 +795,30 @@ public class ARLDataInfo extends DataInfo implements IGridDataInfo {
             int xNum, yNum;
             xNum = dataHead.NX;
             yNum = dataHead.NY;
-            RandomAccessFile br = new RandomAccessFile(this.getFileName(), "r");
             byte[] dataBytes;
             DataLabel aDL;
-            //Update level and variable index
-            Variable aVar = this.getVariables().get(varIdx);
-            if (aVar.getLevelNum() > 1) {
-                levelIdx += 1;
-            }
-            varIdx = LevelVarList.get(levelIdx).indexOf(aVar.getName());
-            br.seek(timeIdx * recsPerTime * recLen);
-            br.seek(br.getFilePointer() + indexLen);
-            for (int i = 0; i < levelIdx; i++) {
-                br.seek(br.getFilePointer() + LevelVarList.get(i).size() * recLen);
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(this.getFileName());
+            try {
+                //Update level and variable index
+                Variable aVar = this.getVariables().get(varIdx);
+                if (aVar.getLevelNum() > 1) {
+                    levelIdx += 1;
+                }
+                varIdx = LevelVarList.get(levelIdx).indexOf(aVar.getName());
+                br.seek(timeIdx * recsPerTime * recLen);
+                br.seek(br.getFilePointer() + indexLen);
+                for (int i = 0; i < levelIdx; i++) {
+                    br.seek(br.getFilePointer() + LevelVarList.get(i).size() * recLen);
+                }
+                br.seek(br.getFilePointer() + varIdx * recLen);
+                //Read label
+                aDL = ARLDataInfo.readDataLabel(br);
+                //Read Data
+                dataBytes = new byte[(int)recLen - 50];
+                br.read(dataBytes);
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(this.getFileName(), br);
             }
-            br.seek(br.getFilePointer() + varIdx * recLen);
-            //Read label
-            aDL = ARLDataInfo.readDataLabel(br);
-            //Read Data
-            dataBytes = new byte[(int)recLen - 50];
-            br.read(dataBytes);
-            br.close();
             float[] data = unpackARLData(dataBytes, xNum, yNum, aDL);
             for (int y = yRange.first(); y <= yRange.last();
                     y += yRange.stride()) {
@@ -848,33 +853,34 @@ public class ARLDataInfo extends DataInfo implements IGridDataInfo {
             xNum = dataHead.NX;
             yNum = dataHead.NY;
             double[][] theData;
-            RandomAccessFile br = new RandomAccessFile(this.getFileName(), "r");
             byte[] dataBytes;
             DataLabel aDL;
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(this.getFileName());
+            try {
+                //Update level and variable index
+                Variable aVar = this.getVariable(varName);
+                if (aVar.getLevelNum() > 1) {
+                    levelIdx += 1;
+                }
 
-            //Update level and variable index
-            Variable aVar = this.getVariable(varName);
-            if (aVar.getLevelNum() > 1) {
-                levelIdx += 1;
-            }
-
-            int varIdx = LevelVarList.get(levelIdx).indexOf(aVar.getName());
-
-            br.seek(timeIdx * recsPerTime * recLen);
-            br.seek(br.getFilePointer() + indexLen);
-            for (int i = 0; i < levelIdx; i++) {
-                br.seek(br.getFilePointer() + LevelVarList.get(i).size() * recLen);
-            }
-            br.seek(br.getFilePointer() + varIdx * recLen);
+                int varIdx = LevelVarList.get(levelIdx).indexOf(aVar.getName());
 
-            //Read label
-            aDL = ARLDataInfo.readDataLabel(br);
+                br.seek(timeIdx * recsPerTime * recLen);
+                br.seek(br.getFilePointer() + indexLen);
+                for (int i = 0; i < levelIdx; i++) {
+                    br.seek(br.getFilePointer() + LevelVarList.get(i).size() * recLen);
+                }
+                br.seek(br.getFilePointer() + varIdx * recLen);
 
-            //Read Data
-            dataBytes = new byte[(int)recLen - 50];
-            br.read(dataBytes);
+                //Read label
+                aDL = ARLDataInfo.readDataLabel(br);
 
-            br.close();
+                //Read Data
+                dataBytes = new byte[(int)recLen - 50];
+                br.read(dataBytes);
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(this.getFileName(), br);
+            }
 
             theData = unpackARLGridData(dataBytes, xNum, yNum, aDL);
 
@@ -893,41 +899,43 @@ public class ARLDataInfo extends DataInfo implements IGridDataInfo {
             yNum = dataHead.NY;
             tNum = this.getTimeNum();
             double[][] theData;
-            RandomAccessFile br = new RandomAccessFile(this.getFileName(), "r");
-            byte[] dataBytes;
-            DataLabel aDL;
             double[][] newGridData = new double[tNum][yNum];
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(this.getFileName());
+            try {
+                byte[] dataBytes;
+                DataLabel aDL;
 
-            //Update level and variable index
-            Variable aVar = this.getVariable(varName);
-            if (aVar.getLevelNum() > 1) {
-                levelIdx += 1;
-            }
+                //Update level and variable index
+                Variable aVar = this.getVariable(varName);
+                if (aVar.getLevelNum() > 1) {
+                    levelIdx += 1;
+                }
 
-            int varIdx = LevelVarList.get(levelIdx).indexOf(aVar.getName());
+                int varIdx = LevelVarList.get(levelIdx).indexOf(aVar.getName());
 
-            for (t = 0; t < tNum; t++) {
-                br.seek(t * recsPerTime * recLen);
-                br.seek(br.getFilePointer() + indexLen);
-                for (int i = 0; i < levelIdx; i++) {
-                    br.seek(br.getFilePointer() + LevelVarList.get(i).size() * recLen);
-                }
-                br.seek(br.getFilePointer() + varIdx * recLen);
+                for (t = 0; t < tNum; t++) {
+                    br.seek(t * recsPerTime * recLen);
+                    br.seek(br.getFilePointer() + indexLen);
+                    for (int i = 0; i < levelIdx; i++) {
+                        br.seek(br.getFilePointer() + LevelVarList.get(i).size() * recLen);
+                    }
+                    br.seek(br.getFilePointer() + varIdx * recLen);
 
-                //Read label
-                aDL = ARLDataInfo.readDataLabel(br);
+                    //Read label
+                    aDL = ARLDataInfo.readDataLabel(br);
 
-                //Read Data
-                dataBytes = new byte[(int)recLen - 50];
-                br.read(dataBytes);
-                theData = unpackARLGridData(dataBytes, xNum, yNum, aDL);
-                for (int i = 0; i < yNum; i++) {
-                    newGridData[t][i] = theData[i][lonIdx];
+                    //Read Data
+                    dataBytes = new byte[(int)recLen - 50];
+                    br.read(dataBytes);
+                    theData = unpackARLGridData(dataBytes, xNum, yNum, aDL);
+                    for (int i = 0; i < yNum; i++) {
+                        newGridData[t][i] = theData[i][lonIdx];
+                    }
                 }
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(this.getFileName(), br);
             }
 
-            br.close();
-
             double[] yArray = new double[tNum];
             for (int i = 0; i < tNum; i++) {
                 yArray[i] = JDateUtil.toOADate(this.getTimes().getDate(i));
@@ -948,41 +956,43 @@ public class ARLDataInfo extends DataInfo implements IGridDataInfo {
             yNum = dataHead.NY;
             tNum = this.getTimeNum();
             double[][] theData;
-            RandomAccessFile br = new RandomAccessFile(this.getFileName(), "r");
-            byte[] dataBytes;
-            DataLabel aDL;
             double[][] newGridData = new double[tNum][xNum];
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(this.getFileName());
+            try {
+                byte[] dataBytes;
+                DataLabel aDL;
 
-            //Update level and variable index
-            Variable aVar = this.getVariable(varName);
-            if (aVar.getLevelNum() > 1) {
-                levelIdx += 1;
-            }
+                //Update level and variable index
+                Variable aVar = this.getVariable(varName);
+                if (aVar.getLevelNum() > 1) {
+                    levelIdx += 1;
+                }
 
-            int varIdx = LevelVarList.get(levelIdx).indexOf(aVar.getName());
+                int varIdx = LevelVarList.get(levelIdx).indexOf(aVar.getName());
 
-            for (t = 0; t < tNum; t++) {
-                br.seek(t * recsPerTime * recLen);
-                br.seek(br.getFilePointer() + indexLen);
-                for (int i = 0; i < levelIdx; i++) {
-                    br.seek(br.getFilePointer() + LevelVarList.get(i).size() * recLen);
-                }
-                br.seek(br.getFilePointer() + varIdx * recLen);
+                for (t = 0; t < tNum; t++) {
+                    br.seek(t * recsPerTime * recLen);
+                    br.seek(br.getFilePointer() + indexLen);
+                    for (int i = 0; i < levelIdx; i++) {
+                        br.seek(br.getFilePointer() + LevelVarList.get(i).size() * recLen);
+                    }
+                    br.seek(br.getFilePointer() + varIdx * recLen);
 
-                //Read label
-                aDL = ARLDataInfo.readDataLabel(br);
+                    //Read label
+                    aDL = ARLDataInfo.readDataLabel(br);
 
-                //Read Data
-                dataBytes = new byte[(int)recLen - 50];
-                br.read(dataBytes);
-                theData = unpackARLGridData(dataBytes, xNum, yNum, aDL);
-                for (int j = 0; j < xNum; j++) {
-                    newGridData[t][j] = theData[latIdx][j];
+                    //Read Data
+                    dataBytes = new byte[(int)recLen - 50];
+                    br.read(dataBytes);
+                    theData = unpackARLGridData(dataBytes, xNum, yNum, aDL);
+                    for (int j = 0; j < xNum; j++) {
+                        newGridData[t][j] = theData[latIdx][j];
+                    }
                 }
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(this.getFileName(), br);
             }
 
-            br.close();
-
             double[] yArray = new double[tNum];
             for (int i = 0; i < tNum; i++) {
                 yArray[i] = JDateUtil.toOADate(this.getTimes().getDate(i));
@@ -1004,39 +1014,41 @@ public class ARLDataInfo extends DataInfo implements IGridDataInfo {
             Variable var = this.getVariable(varName);
             lNum = var.getLevelNum();
             double[][] theData;
-            RandomAccessFile br = new RandomAccessFile(this.getFileName(), "r");
-            byte[] dataBytes;
-            DataLabel aDL;
             double[][] newGridData = new double[lNum][yNum];
-            long aLevPosition;
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(this.getFileName());
+            try {
+                byte[] dataBytes;
+                DataLabel aDL;
+                long aLevPosition;
 
-            br.seek(timeIdx * recsPerTime * recLen);
-            br.seek(br.getFilePointer() + indexLen);
-            aLevPosition = br.getFilePointer();
-            //levIdx = this.getVariables().get(varIdx).getLevelIdxs().get(0);
-            for (int i = 0; i < lNum; i++) {
-                nvarIdx = var.getVarInLevelIdxs().get(i);
-                levIdx = var.getLevelIdxs().get(i);
-                br.seek(aLevPosition);
-                for (int j = 0; j < levIdx; j++) {
-                    br.seek(br.getFilePointer() + LevelVarList.get(j).size() * recLen);
-                }
-                br.seek(br.getFilePointer() + nvarIdx * recLen);
+                br.seek(timeIdx * recsPerTime * recLen);
+                br.seek(br.getFilePointer() + indexLen);
+                aLevPosition = br.getFilePointer();
+                //levIdx = this.getVariables().get(varIdx).getLevelIdxs().get(0);
+                for (int i = 0; i < lNum; i++) {
+                    nvarIdx = var.getVarInLevelIdxs().get(i);
+                    levIdx = var.getLevelIdxs().get(i);
+                    br.seek(aLevPosition);
+                    for (int j = 0; j < levIdx; j++) {
+                        br.seek(br.getFilePointer() + LevelVarList.get(j).size() * recLen);
+                    }
+                    br.seek(br.getFilePointer() + nvarIdx * recLen);
 
-                //Read label
-                aDL = ARLDataInfo.readDataLabel(br);
+                    //Read label
+                    aDL = ARLDataInfo.readDataLabel(br);
 
-                //Read Data
-                dataBytes = new byte[(int)recLen - 50];
-                br.read(dataBytes);
-                theData = unpackARLGridData(dataBytes, xNum, yNum, aDL);
-                for (int j = 0; j < yNum; j++) {
-                    newGridData[i][j] = theData[j][lonIdx];
+                    //Read Data
+                    dataBytes = new byte[(int)recLen - 50];
+                    br.read(dataBytes);
+                    theData = unpackARLGridData(dataBytes, xNum, yNum, aDL);
+                    for (int j = 0; j < yNum; j++) {
+                        newGridData[i][j] = theData[j][lonIdx];
+                    }
                 }
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(this.getFileName(), br);
             }
 
-            br.close();
-
             double[] yArray = new double[lNum];
             for (int i = 0; i < lNum; i++) {
                 yArray[i] = var.getLevels().get(i);
@@ -1058,39 +1070,41 @@ public class ARLDataInfo extends DataInfo implements IGridDataInfo {
             Variable var = this.getVariable(varName);
             lNum = var.getLevelNum();
             double[][] theData;
-            RandomAccessFile br = new RandomAccessFile(this.getFileName(), "r");
-            byte[] dataBytes;
-            DataLabel aDL;
             double[][] newGridData = new double[lNum][xNum];
-            long aLevPosition;
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(this.getFileName());
+            try {
+                byte[] dataBytes;
+                DataLabel aDL;
+                long aLevPosition;
 
-            br.seek(timeIdx * recsPerTime * recLen);
-            br.seek(br.getFilePointer() + indexLen);
-            aLevPosition = br.getFilePointer();
-            //levIdx = Variables[cvarIdx].LevelIdxs[0];
-            for (int i = 0; i < lNum; i++) {
-                nvarIdx = var.getVarInLevelIdxs().get(i);
-                levIdx = var.getLevelIdxs().get(i);
-                br.seek(aLevPosition);
-                for (int j = 0; j < levIdx; j++) {
-                    br.seek(br.getFilePointer() + LevelVarList.get(j).size() * recLen);
-                }
-                br.seek(br.getFilePointer() + nvarIdx * recLen);
+                br.seek(timeIdx * recsPerTime * recLen);
+                br.seek(br.getFilePointer() + indexLen);
+                aLevPosition = br.getFilePointer();
+                //levIdx = Variables[cvarIdx].LevelIdxs[0];
+                for (int i = 0; i < lNum; i++) {
+                    nvarIdx = var.getVarInLevelIdxs().get(i);
+                    levIdx = var.getLevelIdxs().get(i);
+                    br.seek(aLevPosition);
+                    for (int j = 0; j < levIdx; j++) {
+                        br.seek(br.getFilePointer() + LevelVarList.get(j).size() * recLen);
+                    }
+                    br.seek(br.getFilePointer() + nvarIdx * recLen);
 
-                //Read label
-                aDL = ARLDataInfo.readDataLabel(br);
+                    //Read label
+                    aDL = ARLDataInfo.readDataLabel(br);
 
-                //Read Data
-                dataBytes = new byte[(int)recLen - 50];
-                br.read(dataBytes);
-                theData = unpackARLGridData(dataBytes, xNum, yNum, aDL);
-                for (int j = 0; j < xNum; j++) {
-                    newGridData[i][j] = theData[latIdx][j];
+                    //Read Data
+                    dataBytes = new byte[(int)recLen - 50];
+                    br.read(dataBytes);
+                    theData = unpackARLGridData(dataBytes, xNum, yNum, aDL);
+                    for (int j = 0; j < xNum; j++) {
+                        newGridData[i][j] = theData[latIdx][j];
+                    }
                 }
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(this.getFileName(), br);
             }
 
-            br.close();
-
             double[] yArray = new double[lNum];
             for (int i = 0; i < lNum; i++) {
                 yArray[i] = var.getLevels().get(i);
@@ -1114,41 +1128,43 @@ public class ARLDataInfo extends DataInfo implements IGridDataInfo {
             lNum = var.getLevelNum();
             tNum = this.getTimeNum();
             double[][] theData;
-            RandomAccessFile br = new RandomAccessFile(this.getFileName(), "r");
-            byte[] dataBytes;
-            DataLabel aDL;
             double[][] newGridData = new double[lNum][tNum];
-            long aLevPosition;
-
-            for (t = 0; t < tNum; t++) {
-                br.seek(t * recsPerTime * recLen);
-                br.seek(br.getFilePointer() + indexLen);
-                aLevPosition = br.getFilePointer();
-                //levIdx = this.getVariables().get(varIdx).getLevelIdxs().get(0);
-                for (int i = 0; i < lNum; i++) {
-                    nvarIdx = var.getVarInLevelIdxs().get(i);
-                    levIdx = var.getLevelIdxs().get(i);
-                    br.seek(aLevPosition);
-                    for (int j = 0; j < levIdx; j++) {
-                        br.seek(br.getFilePointer() + LevelVarList.get(j).size() * recLen);
-                    }
-                    br.seek(br.getFilePointer() + nvarIdx * recLen);
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(this.getFileName());
+            try {
+                byte[] dataBytes;
+                DataLabel aDL;
+                long aLevPosition;
+
+                for (t = 0; t < tNum; t++) {
+                    br.seek(t * recsPerTime * recLen);
+                    br.seek(br.getFilePointer() + indexLen);
+                    aLevPosition = br.getFilePointer();
+                    //levIdx = this.getVariables().get(varIdx).getLevelIdxs().get(0);
+                    for (int i = 0; i < lNum; i++) {
+                        nvarIdx = var.getVarInLevelIdxs().get(i);
+                        levIdx = var.getLevelIdxs().get(i);
+                        br.seek(aLevPosition);
+                        for (int j = 0; j < levIdx; j++) {
+                            br.seek(br.getFilePointer() + LevelVarList.get(j).size() * recLen);
+                        }
+                        br.seek(br.getFilePointer() + nvarIdx * recLen);
 
-                    //Read label
-                    aDL = ARLDataInfo.readDataLabel(br);
+                        //Read label
+                        aDL = ARLDataInfo.readDataLabel(br);
 
-                    //Read Data
-                    dataBytes = new byte[(int)recLen - 50];
-                    br.read(dataBytes);
-                    theData = unpackARLGridData(dataBytes, xNum, yNum, aDL);
+                        //Read Data
+                        dataBytes = new byte[(int)recLen - 50];
+                        br.read(dataBytes);
+                        theData = unpackARLGridData(dataBytes, xNum, yNum, aDL);
 
-                    newGridData[i][t] = theData[latIdx][lonIdx];
+                        newGridData[i][t] = theData[latIdx][lonIdx];
 
+                    }
                 }
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(this.getFileName(), br);
             }
 
-            br.close();
-
             double[] xArray = new double[tNum];
             for (int i = 0; i < tNum; i++) {
                 xArray[i] = JDateUtil.toOADate(this.getTimes().getDate(i));
@@ -1169,51 +1185,53 @@ public class ARLDataInfo extends DataInfo implements IGridDataInfo {
     @Override
     public GridData getGridData_Time(int lonIdx, int latIdx, String varName, int levelIdx) {
         try {
-            RandomAccessFile br = new RandomAccessFile(this.getFileName(), "r");
-            byte[] dataBytes;
-            DataLabel aDL;
-            int xNum, yNum, t;
-            xNum = dataHead.NX;
-            yNum = dataHead.NY;
-            double[][] gridData;
-            double aValue;
-
             double[] xArray = new double[this.getTimeNum()];
             double[] yArray = new double[1];
-            yArray[0] = 0;
             double[][] data = new double[1][this.getTimeNum()];
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(this.getFileName());
+            try {
+                byte[] dataBytes;
+                DataLabel aDL;
+                int xNum, yNum, t;
+                xNum = dataHead.NX;
+                yNum = dataHead.NY;
+                double[][] gridData;
+                double aValue;
+
+                yArray[0] = 0;
+
+                //Update level and variable index
+                Variable aVar = this.getVariable(varName);
+                if (aVar.getLevelNum() > 1) {
+                    levelIdx += 1;
+                }
 
-            //Update level and variable index
-            Variable aVar = this.getVariable(varName);
-            if (aVar.getLevelNum() > 1) {
-                levelIdx += 1;
-            }
-
-            int varIdx = LevelVarList.get(levelIdx).indexOf(aVar.getName());
+                int varIdx = LevelVarList.get(levelIdx).indexOf(aVar.getName());
 
-            for (t = 0; t < this.getTimeNum(); t++) {
-                br.seek(t * recsPerTime * recLen);
-                br.seek(br.getFilePointer() + indexLen);
-                for (int i = 0; i < levelIdx; i++) {
-                    br.seek(br.getFilePointer() + LevelVarList.get(i).size() * recLen);
-                }
-                br.seek(br.getFilePointer() + varIdx * recLen);
+                for (t = 0; t < this.getTimeNum(); t++) {
+                    br.seek(t * recsPerTime * recLen);
+                    br.seek(br.getFilePointer() + indexLen);
+                    for (int i = 0; i < levelIdx; i++) {
+                        br.seek(br.getFilePointer() + LevelVarList.get(i).size() * recLen);
+                    }
+                    br.seek(br.getFilePointer() + varIdx * recLen);
 
-                //Read label
-                aDL = ARLDataInfo.readDataLabel(br);
+                    //Read label
+                    aDL = ARLDataInfo.readDataLabel(br);
 
-                //Read Data
-                dataBytes = new byte[(int)recLen - 50];
-                br.read(dataBytes);
-                gridData = unpackARLGridData(dataBytes, xNum, yNum, aDL);
+                    //Read Data
+                    dataBytes = new byte[(int)recLen - 50];
+                    br.read(dataBytes);
+                    gridData = unpackARLGridData(dataBytes, xNum, yNum, aDL);
 
-                aValue = gridData[latIdx][lonIdx];
-                xArray[t] = JDateUtil.toOADate(this.getTimes().getDate(t));
-                data[0][t] = aValue;
+                    aValue = gridData[latIdx][lonIdx];
+                    xArray[t] = JDateUtil.toOADate(this.getTimes().getDate(t));
+                    data[0][t] = aValue;
+                }
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(this.getFileName(), br);
             }
 
-            br.close();
-
             return new GridData(data, xArray, yArray, this.missingValue);
         } catch (IOException ex) {
             Logger.getLogger(ARLDataInfo.class.getName()).log(Level.SEVERE, null, ex);
@@ -1224,49 +1242,53 @@ public class ARLDataInfo extends DataInfo implements IGridDataInfo {
     @Override
     public GridData getGridData_Level(int lonIdx, int latIdx, String varName, int timeIdx) {
         try {
-            RandomAccessFile br = new RandomAccessFile(this.getFileName(), "r");
-            byte[] dataBytes;
-            DataLabel aDL;
-            int xNum, yNum, nvarIdx, levIdx, lNum;
-            xNum = dataHead.NX;
-            yNum = dataHead.NY;
-            Variable var = this.getVariable(varName);
-            lNum = var.getLevelNum();
-            double[][] gridData;
-            double aValue;
-
-            double[] xArray = new double[lNum];
+            double[] xArray;
             double[] yArray = new double[1];
-            yArray[0] = 0;
-            double[][] data = new double[1][lNum];
-
-            br.seek(timeIdx * recsPerTime * recLen);
-            br.seek(br.getFilePointer() + indexLen);
-            long aLevPosition = br.getFilePointer();
-            //levIdx = this.getVariables().get(varIdx).getLevelIdxs().get(0);
-            for (int i = 0; i < lNum; i++) {
-                nvarIdx = var.getVarInLevelIdxs().get(i);
-                levIdx = var.getLevelIdxs().get(i);
-                br.seek(aLevPosition);
-                for (int j = 0; j < levIdx; j++) {
-                    br.seek(br.getFilePointer() + LevelVarList.get(j).size() * recLen);
-                }
-                br.seek(br.getFilePointer() + nvarIdx * recLen);
+            double[][] data;
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(this.getFileName());
+            try {
+                byte[] dataBytes;
+                DataLabel aDL;
+                int xNum, yNum, nvarIdx, levIdx, lNum;
+                xNum = dataHead.NX;
+                yNum = dataHead.NY;
+                Variable var = this.getVariable(varName);
+                lNum = var.getLevelNum();
+                double[][] gridData;
+                double aValue;
+
+                xArray = new double[lNum];
+                yArray[0] = 0;
+                data = new double[1][lNum];
+
+                br.seek(timeIdx * recsPerTime * recLen);
+                br.seek(br.getFilePointer() + indexLen);
+                long aLevPosition = br.getFilePointer();
+                //levIdx = this.getVariables().get(varIdx).getLevelIdxs().get(0);
+                for (int i = 0; i < lNum; i++) {
+                    nvarIdx = var.getVarInLevelIdxs().get(i);
+                    levIdx = var.getLevelIdxs().get(i);
+                    br.seek(aLevPosition);
+                    for (int j = 0; j < levIdx; j++) {
+                        br.seek(br.getFilePointer() + LevelVarList.get(j).size() * recLen);
+                    }
+                    br.seek(br.getFilePointer() + nvarIdx * recLen);
 
-                //Read label
-                aDL = ARLDataInfo.readDataLabel(br);
+                    //Read label
+                    aDL = ARLDataInfo.readDataLabel(br);
 
-                //Read Data
-                dataBytes = new byte[(int)recLen - 50];
-                br.read(dataBytes);
-                gridData = unpackARLGridData(dataBytes, xNum, yNum, aDL);
-                aValue = gridData[latIdx][lonIdx];
-                xArray[i] = levels.get(levIdx);
-                data[0][i] = aValue;
+                    //Read Data
+                    dataBytes = new byte[(int)recLen - 50];
+                    br.read(dataBytes);
+                    gridData = unpackARLGridData(dataBytes, xNum, yNum, aDL);
+                    aValue = gridData[latIdx][lonIdx];
+                    xArray[i] = levels.get(levIdx);
+                    data[0][i] = aValue;
+                }
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(this.getFileName(), br);
             }
 
-            br.close();
-
             return new GridData(data, xArray, yArray, this.missingValue);
         } catch (IOException ex) {
             Logger.getLogger(ARLDataInfo.class.getName()).log(Level.SEVERE, null, ex);
@@ -1277,48 +1299,49 @@ public class ARLDataInfo extends DataInfo implements IGridDataInfo {
     @Override
     public GridData getGridData_Lon(int timeIdx, int latIdx, String varName, int levelIdx) {
         try {
-            RandomAccessFile br = new RandomAccessFile(this.getFileName(), "r");
-            byte[] dataBytes;
-            DataLabel aDL;
-            int xNum, yNum, i;
-            xNum = dataHead.NX;
-            yNum = dataHead.NY;
-            double[][] gridData;
-            double aValue;
-
             double[] yArray = new double[1];
             double[][] data = new double[1][X.length];
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(this.getFileName());
+            try {
+                byte[] dataBytes;
+                DataLabel aDL;
+                int xNum, yNum, i;
+                xNum = dataHead.NX;
+                yNum = dataHead.NY;
+                double[][] gridData;
+                double aValue;
+
+                //Update level and variable index
+                Variable aVar = this.getVariable(varName);
+                if (aVar.getLevelNum() > 1) {
+                    levelIdx += 1;
+                }
 
-            //Update level and variable index
-            Variable aVar = this.getVariable(varName);
-            if (aVar.getLevelNum() > 1) {
-                levelIdx += 1;
-            }
-
-            int varIdx = LevelVarList.get(levelIdx).indexOf(aVar.getName());
+                int varIdx = LevelVarList.get(levelIdx).indexOf(aVar.getName());
 
-            br.seek(timeIdx * recsPerTime * recLen);
-            br.seek(br.getFilePointer() + indexLen);
-            for (i = 0; i < levelIdx; i++) {
-                br.seek(br.getFilePointer() + LevelVarList.get(i).size() * recLen);
-            }
-            br.seek(br.getFilePointer() + varIdx * recLen);
+                br.seek(timeIdx * recsPerTime * recLen);
+                br.seek(br.getFilePointer() + indexLen);
+                for (i = 0; i < levelIdx; i++) {
+                    br.seek(br.getFilePointer() + LevelVarList.get(i).size() * recLen);
+                }
+                br.seek(br.getFilePointer() + varIdx * recLen);
 
-            //Read label
-            aDL = ARLDataInfo.readDataLabel(br);
+                //Read label
+                aDL = ARLDataInfo.readDataLabel(br);
 
-            //Read Data
-            dataBytes = new byte[(int)recLen - 50];
-            br.read(dataBytes);
-            gridData = unpackARLGridData(dataBytes, xNum, yNum, aDL);
+                //Read Data
+                dataBytes = new byte[(int)recLen - 50];
+                br.read(dataBytes);
+                gridData = unpackARLGridData(dataBytes, xNum, yNum, aDL);
 
-            for (i = 0; i < xNum; i++) {
-                aValue = gridData[latIdx][i];
-                data[0][i] = aValue;
+                for (i = 0; i < xNum; i++) {
+                    aValue = gridData[latIdx][i];
+                    data[0][i] = aValue;
+                }
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(this.getFileName(), br);
             }
 
-            br.close();
-
             return new GridData(data, X, yArray, this.missingValue);
         } catch (IOException ex) {
             Logger.getLogger(ARLDataInfo.class.getName()).log(Level.SEVERE, null, ex);
@@ -1329,48 +1352,49 @@ public class ARLDataInfo extends DataInfo implements IGridDataInfo {
     @Override
     public GridData getGridData_Lat(int timeIdx, int lonIdx, String varName, int levelIdx) {
         try {
-            RandomAccessFile br = new RandomAccessFile(this.getFileName(), "r");
-            byte[] dataBytes;
-            DataLabel aDL;
-            int xNum, yNum, i;
-            xNum = dataHead.NX;
-            yNum = dataHead.NY;
-            double[][] gridData;
-            double aValue;
-
             double[] yArray = new double[1];
             double[][] data = new double[1][Y.length];
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(this.getFileName());
+            try {
+                byte[] dataBytes;
+                DataLabel aDL;
+                int xNum, yNum, i;
+                xNum = dataHead.NX;
+                yNum = dataHead.NY;
+                double[][] gridData;
+                double aValue;
+
+                //Update level and variable index
+                Variable aVar = this.getVariable(varName);
+                if (aVar.getLevelNum() > 1) {
+                    levelIdx += 1;
+                }
 
-            //Update level and variable index
-            Variable aVar = this.getVariable(varName);
-            if (aVar.getLevelNum() > 1) {
-                levelIdx += 1;
-            }
-
-            int varIdx = LevelVarList.get(levelIdx).indexOf(aVar.getName());
+                int varIdx = LevelVarList.get(levelIdx).indexOf(aVar.getName());
 
-            br.seek(timeIdx * recsPerTime * recLen);
-            br.seek(br.getFilePointer() + indexLen);
-            for (i = 0; i < levelIdx; i++) {
-                br.seek(br.getFilePointer() + LevelVarList.get(i).size() * recLen);
-            }
-            br.seek(br.getFilePointer() + varIdx * recLen);
+                br.seek(timeIdx * recsPerTime * recLen);
+                br.seek(br.getFilePointer() + indexLen);
+                for (i = 0; i < levelIdx; i++) {
+                    br.seek(br.getFilePointer() + LevelVarList.get(i).size() * recLen);
+                }
+                br.seek(br.getFilePointer() + varIdx * recLen);
 
-            //Read label
-            aDL = ARLDataInfo.readDataLabel(br);
+                //Read label
+                aDL = ARLDataInfo.readDataLabel(br);
 
-            //Read Data
-            dataBytes = new byte[(int)recLen - 50];
-            br.read(dataBytes);
-            gridData = unpackARLGridData(dataBytes, xNum, yNum, aDL);
+                //Read Data
+                dataBytes = new byte[(int)recLen - 50];
+                br.read(dataBytes);
+                gridData = unpackARLGridData(dataBytes, xNum, yNum, aDL);
 
-            for (i = 0; i < yNum; i++) {
-                aValue = gridData[i][lonIdx];
-                data[0][i] = aValue;
+                for (i = 0; i < yNum; i++) {
+                    aValue = gridData[i][lonIdx];
+                    data[0][i] = aValue;
+                }
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(this.getFileName(), br);
             }
 
-            br.close();
-
             return new GridData(data, Y, yArray, this.missingValue);
         } catch (IOException ex) {
             Logger.getLogger(ARLDataInfo.class.getName()).log(Level.SEVERE, null, ex);
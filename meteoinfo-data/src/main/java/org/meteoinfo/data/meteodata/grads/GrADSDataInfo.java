@@ -60,6 +60,7 @@ import org.meteoinfo.ndarray.InvalidRangeException;
 import org.meteoinfo.ndarray.Range;
 import org.meteoinfo.ndarray.Section;
 import org.meteoinfo.data.meteodata.Attribute;
+import org.meteoinfo.data.meteodata.util.FileHandlePool;
 import org.meteoinfo.projection.Reproject;
 
 /**
@@ -168,6 +169,9 @@ public class GrADSDataInfo extends DataInfo implements IGridDataInfo, IStationDa
     public int YNum;
     private DataOutputStream _bw = null;
     private ByteOrder _byteOrder = ByteOrder.LITTLE_ENDIAN;
+    private long[] varOffsets;
+    private final LinkedHashMap<String, MappedBinaryFile> mappedFiles = new LinkedHashMap<>(16, 0.75f, true);
+    private int maxMappedFiles = 8;
     // </editor-fold>
     // <editor-fold desc="Constructor">
 
@@ -1002,14 +1006,17 @@ public class GrADSDataInfo extends DataInfo implements IGridDataInfo, IStationDa
 
         //Calculate data length of each time
         RecLenPerTime = 0;
+        varOffsets = new long[VARDEF.getVNum()];
         int lNum;
         for (i = 0; i < VARDEF.getVNum(); i++) {
+            varOffsets[i] = RecLenPerTime;
             lNum = VARDEF.getVars().get(i).getLevelNum();
             if (lNum == 0) {
                 lNum = 1;
             }
-            RecLenPerTime += lNum * RecordLen;
+            RecLenPerTime += (long) lNum * RecordLen;
         }
+        this.closeMappedFiles();
 
         return true;
     }
@@ -1439,14 +1446,9 @@ public class GrADSDataInfo extends DataInfo implements IGridDataInfo, IStationDa
         }
     }
 
-    private void readXY(String varName, int timeIdx, int levelIdx, Range yRange, Range xRange, IndexIterator ii) {
+    private void readXY(String varName, int eIdx, int timeIdx, int levelIdx, Range yRange, Range xRange, IndexIterator ii) {
         try {
             int varIdx = this.getVariableNames().indexOf(varName);
-            int xNum, yNum;
-            xNum = XNum;
-            yNum = YNum;
-            float[] data = new float[yNum * xNum];
-
             String filePath = DSET;
             int tIdx = timeIdx;
             if (OPTIONS.template) {
@@ -1454,111 +1456,127 @@ public class GrADSDataInfo extends DataInfo implements IGridDataInfo, IStationDa
                 filePath = (String) result[0];
                 tIdx = (int) result[1];
             }
-            RandomAccessFile br = new RandomAccessFile(filePath, "r");
-            int i, lNum;
-            byte[] aBytes;
-
-            br.seek(FILEHEADER);
-            br.seek(br.getFilePointer() + tIdx * RecLenPerTime);
-            for (i = 0; i < varIdx; i++) {
-                lNum = VARDEF.getVars().get(i).getLevelNum();
-                if (lNum == 0) {
-                    lNum = 1;
-                }
-                br.seek(br.getFilePointer() + lNum * RecordLen);
-            }
-            br.seek(br.getFilePointer() + levelIdx * RecordLen);
-
-            if (OPTIONS.sequential) {
-                br.seek(br.getFilePointer() + 4);
-            }
-
-            //Read X/Y data
-            byte[] byteData = new byte[xNum * yNum * 4];
-            br.read(byteData);
-            int start = 0;
-            for (i = 0; i < yNum * xNum; i++) {
-                aBytes = new byte[4];
-                System.arraycopy(byteData, start, aBytes, 0, 4);
-                start += 4;
-                data[i] = DataConvert.bytes2Float(aBytes, _byteOrder);
-            }
-
-            br.close();
-            for (int y = yRange.first(); y <= yRange.last();
-                    y += yRange.stride()) {
-                for (int x = xRange.first(); x <= xRange.last();
-                        x += xRange.stride()) {
-                    int index = y * xNum + x;
-                    ii.setFloatNext(data[index]);
-                }
-            }
+            MappedBinaryFile mf = getMappedFile(filePath);
+            long pos = getRecordPosition(varIdx, eIdx, tIdx, levelIdx);
+            mf.readWindow(pos, XNum, yRange, xRange, ii);
         } catch (FileNotFoundException ex) {
             Logger.getLogger(ARLDataInfo.class.getName()).log(Level.SEVERE, null, ex);
         } catch (IOException ex) {
             Logger.getLogger(ARLDataInfo.class.getName()).log(Level.SEVERE, null, ex);
         }
     }
-    
-    private void readXY(String varName, int eIdx, int timeIdx, int levelIdx, Range yRange, Range xRange, IndexIterator ii) {
-        try {
-            int varIdx = this.getVariableNames().indexOf(varName);
-            int xNum, yNum;
-            xNum = XNum;
-            yNum = YNum;
-            float[] data = new float[yNum * xNum];
 
-            String filePath = DSET;
-            int tIdx = timeIdx;
-            if (OPTIONS.template) {
-                Object[] result = getFilePath_Template(timeIdx);
-                filePath = (String) result[0];
-                tIdx = (int) result[1];
-            }
-            RandomAccessFile br = new RandomAccessFile(filePath, "r");
-            int i, lNum;
-            byte[] aBytes;
+    /**
+     * Get the byte position of a X/Y record in the data file
+     *
+     * @param varIdx Variable index
+     * @param eIdx Ensemble index
+     * @param tIdx Time index in the data file
+     * @param levelIdx Level index
+     * @return Record position
+     */
+    private long getRecordPosition(int varIdx, int eIdx, int tIdx, int levelIdx) {
+        long pos = FILEHEADER + ((long) eIdx * this.getTimeNum() + tIdx) * RecLenPerTime
+                + varOffsets[varIdx] + (long) levelIdx * RecordLen;
+        if (OPTIONS.sequential) {
+            pos += 4;
+        }
+        return pos;
+    }
 
-            br.seek(FILEHEADER);
-            br.seek(br.getFilePointer() + eIdx * this.getTimeNum() * RecLenPerTime);
-            br.seek(br.getFilePointer() + tIdx * RecLenPerTime);
-            for (i = 0; i < varIdx; i++) {
-                lNum = VARDEF.getVars().get(i).getLevelNum();
-                if (lNum == 0) {
-                    lNum = 1;
-                }
-                br.seek(br.getFilePointer() + lNum * RecordLen);
+    /**
+     * Get the memory mapped data file. The mapped files are cached in least
+     * recently used order, the oldest one is closed when the cached file
+     * number exceeds the maximum mapped file number. All mapped files are
+     * closed when the data info is closed.
+     *
+     * @param filePath Data file path
+     * @return Mapped data file
+     * @throws IOException
+     */
+    private MappedBinaryFile getMappedFile(String filePath) throws IOException {
+        synchronized (mappedFiles) {
+            MappedBinaryFile mf = mappedFiles.get(filePath);
+            if (mf == null) {
+                mf = new MappedBinaryFile(filePath, _byteOrder, RecordLen);
+                mappedFiles.put(filePath, mf);
+                this.trimMappedFiles();
             }
-            br.seek(br.getFilePointer() + levelIdx * RecordLen);
+            return mf;
+        }
+    }
 
-            if (OPTIONS.sequential) {
-                br.seek(br.getFilePointer() + 4);
+    /**
+     * Close the least recently used mapped files beyond the maximum mapped
+     * file number, should be called with the mapped files locked
+     */
+    private void trimMappedFiles() {
+        Iterator<MappedBinaryFile> it = mappedFiles.values().iterator();
+        while (mappedFiles.size() > maxMappedFiles && it.hasNext()) {
+            MappedBinaryFile mf = it.next();
+            it.remove();
+            try {
+                mf.close();
+            } catch (IOException ex) {
+                Logger.getLogger(GrADSDataInfo.class.getName()).log(Level.SEVERE, null, ex);
             }
+        }
+    }
 
-            //Read X/Y data
-            byte[] byteData = new byte[xNum * yNum * 4];
-            br.read(byteData);
-            int start = 0;
-            for (i = 0; i < yNum * xNum; i++) {
-                aBytes = new byte[4];
-                System.arraycopy(byteData, start, aBytes, 0, 4);
-                start += 4;
-                data[i] = DataConvert.bytes2Float(aBytes, _byteOrder);
-            }
+    /**
+     * Get maximum number of the data files kept mapped, mostly matters for
+     * template data sets with one data file per time
+     *
+     * @return Maximum mapped file number
+     */
+    public int getMaxMappedFiles() {
+        return this.maxMappedFiles;
+    }
+
+    /**
+     * Set maximum number of the data files kept mapped
+     *
+     * @param value Maximum mapped file number
+     */
+    public void setMaxMappedFiles(int value) {
+        if (value < 1) {
+            throw new IllegalArgumentException("Maximum mapped file number should be positive: " + value);
+        }
+        synchronized (mappedFiles) {
+            this.maxMappedFiles = value;
+            this.trimMappedFiles();
+        }
+    }
 
-            br.close();
-            for (int y = yRange.first(); y <= yRange.last();
-                    y += yRange.stride()) {
-                for (int x = xRange.first(); x <= xRange.last();
-                        x += xRange.stride()) {
-                    int index = y * xNum + x;
-                    ii.setFloatNext(data[index]);
+    private void closeMappedFiles() {
+        synchronized (mappedFiles) {
+            for (MappedBinaryFile mf : mappedFiles.values()) {
+                try {
+                    mf.close();
+                } catch (IOException ex) {
+                    Logger.getLogger(GrADSDataInfo.class.getName()).log(Level.SEVERE, null, ex);
                 }
             }
-        } catch (FileNotFoundException ex) {
-            Logger.getLogger(ARLDataInfo.class.getName()).log(Level.SEVERE, null, ex);
-        } catch (IOException ex) {
-            Logger.getLogger(ARLDataInfo.class.getName()).log(Level.SEVERE, null, ex);
+            mappedFiles.clear();
+        }
+    }
+
+    /**
+     * Close the memory mapped data files and the pooled idle handles of the
+     * data files, and remove the cached chunks
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        this.removeCachedChunks();
+        this.closeMappedFiles();
+        if (OPTIONS.template) {
+            for (int t = 0; t < TDEF.getTimeNum(); t++) {
+                FileHandlePool.RANDOM_ACCESS_FILES.invalidate((String) getFilePath_Template(t)[0]);
+            }
+        } else {
+            FileHandlePool.RANDOM_ACCESS_FILES.invalidate(DSET);
         }
     }
 
@@ -1629,40 +1647,17 @@ public class GrADSDataInfo extends DataInfo implements IGridDataInfo, IStationDa
                 tIdx = this.getTimeNum() - 1;
             }
         }
-        RandomAccessFile br = new RandomAccessFile(filePath, "r");
-        int i, j, lNum;
-        byte[] aBytes;
-
-        br.seek(FILEHEADER);
-        br.seek(br.getFilePointer() + tIdx * RecLenPerTime);
-        for (i = 0; i < varIdx; i++) {
-            lNum = VARDEF.getVars().get(i).getLevelNum();
-            if (lNum == 0) {
-                lNum = 1;
-            }
-            br.seek(br.getFilePointer() + lNum * RecordLen);
-        }
-        br.seek(br.getFilePointer() + levelIdx * RecordLen);
-
-        if (OPTIONS.sequential) {
-            br.seek(br.getFilePointer() + 4);
-        }
 
         //Read X/Y data
-        byte[] byteData = new byte[xNum * yNum * 4];
-        br.read(byteData);
+        float[] data = new float[xNum * yNum];
+        getMappedFile(filePath).readFloat(getRecordPosition(varIdx, 0, tIdx, levelIdx), data);
         int start = 0;
-        for (i = 0; i < yNum; i++) {
-            for (j = 0; j < xNum; j++) {
-                aBytes = new byte[4];
-                System.arraycopy(byteData, start, aBytes, 0, 4);
-                start += 4;
-                gridData[i][j] = DataConvert.bytes2Float(aBytes, _byteOrder);
+        for (int i = 0; i < yNum; i++) {
+            for (int j = 0; j < xNum; j++) {
+                gridData[i][j] = data[start++];
             }
         }
 
-        br.close();
-
         return gridData;
     }
 
@@ -1683,71 +1678,76 @@ public class GrADSDataInfo extends DataInfo implements IGridDataInfo, IStationDa
                     Object[] result = getFilePath_Template(t);
                     String filePath = (String) result[0];
                     int tIdx = (int) result[1];
-                    RandomAccessFile br = new RandomAccessFile(filePath, "r");
-                    br.seek(FILEHEADER + tIdx * RecLenPerTime);
-
-                    for (i = 0; i < varIdx; i++) {
-                        lNum = VARDEF.getVars().get(i).getLevelNum();
-                        if (lNum == 0) {
-                            lNum = 1;
+                    RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(filePath);
+                    try {
+                        br.seek(FILEHEADER + tIdx * RecLenPerTime);
+
+                        for (i = 0; i < varIdx; i++) {
+                            lNum = VARDEF.getVars().get(i).getLevelNum();
+                            if (lNum == 0) {
+                                lNum = 1;
+                            }
+                            br.seek(br.getFilePointer() + lNum * RecordLen);
+                        }
+                        br.seek(br.getFilePointer() + levelIdx * RecordLen);
+                        if (OPTIONS.sequential) {
+                            br.seek(br.getFilePointer() + 4);
                         }
-                        br.seek(br.getFilePointer() + lNum * RecordLen);
-                    }
-                    br.seek(br.getFilePointer() + levelIdx * RecordLen);
-                    if (OPTIONS.sequential) {
-                        br.seek(br.getFilePointer() + 4);
-                    }
 
-                    if (br.getFilePointer() >= br.length()) {
-                        System.out.println("Erro");
-                    }
+                        if (br.getFilePointer() >= br.length()) {
+                            System.out.println("Erro");
+                        }
 
-                    for (i = 0; i < YNum; i++) {
-                        for (j = 0; j < XNum; j++) {
-                            br.read(aBytes);
-                            if (j == lonIdx) {
-                                gridData[t][i] = DataConvert.bytes2Float(aBytes, _byteOrder);
+                        for (i = 0; i < YNum; i++) {
+                            for (j = 0; j < XNum; j++) {
+                                br.read(aBytes);
+                                if (j == lonIdx) {
+                                    gridData[t][i] = DataConvert.bytes2Float(aBytes, _byteOrder);
+                                }
                             }
                         }
+                    } finally {
+                        FileHandlePool.RANDOM_ACCESS_FILES.release(filePath, br);
                     }
-                    br.close();
                 }
             } else {
-                RandomAccessFile br = new RandomAccessFile(DSET, "r");
-                for (t = 0; t < TDEF.getTimeNum(); t++) {
-                    br.seek(FILEHEADER + t * RecLenPerTime);
-                    aTPosition = br.getFilePointer();
-
-                    for (i = 0; i < varIdx; i++) {
-                        lNum = VARDEF.getVars().get(i).getLevelNum();
-                        if (lNum == 0) {
-                            lNum = 1;
+                RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(DSET);
+                try {
+                    for (t = 0; t < TDEF.getTimeNum(); t++) {
+                        br.seek(FILEHEADER + t * RecLenPerTime);
+                        aTPosition = br.getFilePointer();
+
+                        for (i = 0; i < varIdx; i++) {
+                            lNum = VARDEF.getVars().get(i).getLevelNum();
+                            if (lNum == 0) {
+                                lNum = 1;
+                            }
+                            br.seek(br.getFilePointer() + lNum * RecordLen);
                         }
-                        br.seek(br.getFilePointer() + lNum * RecordLen);
-                    }
-                    br.seek(br.getFilePointer() + levelIdx * RecordLen);
+                        br.seek(br.getFilePointer() + levelIdx * RecordLen);
 
-                    if (OPTIONS.sequential) {
-                        br.seek(br.getFilePointer() + 4);
-                    }
+                        if (OPTIONS.sequential) {
+                            br.seek(br.getFilePointer() + 4);
+                        }
 
-                    if (br.getFilePointer() >= br.length()) {
-                        System.out.println("Erro");
-                    }
+                        if (br.getFilePointer() >= br.length()) {
+                            System.out.println("Erro");
+                        }
 
-                    byte[] aBytes = new byte[4];
-                    for (i = 0; i < YNum; i++) {
-                        for (j = 0; j < XNum; j++) {
-                            br.read(aBytes);
-                            if (j == lonIdx) {
-                                gridData[t][i] = DataConvert.bytes2Float(aBytes, _byteOrder);
+                        byte[] aBytes = new byte[4];
+                        for (i = 0; i < YNum; i++) {
+                            for (j = 0; j < XNum; j++) {
+                                br.read(aBytes);
+                                if (j == lonIdx) {
+                                    gridData[t][i] = DataConvert.bytes2Float(aBytes, _byteOrder);
+                                }
                             }
                         }
+                        br.seek(aTPosition);
                     }
-                    br.seek(aTPosition);
+                } finally {
+                    FileHandlePool.RANDOM_ACCESS_FILES.release(DSET, br);
                 }
-
-                br.close();
             }
 
             double[] yArray = new double[this.getTimeNum()];
@@ -1780,64 +1780,69 @@ public class GrADSDataInfo extends DataInfo implements IGridDataInfo, IStationDa
                     Object[] result = getFilePath_Template(t);
                     String filePath = (String) result[0];
                     int tIdx = (int) result[1];
-                    RandomAccessFile br = new RandomAccessFile(filePath, "r");
-                    br.seek(FILEHEADER + tIdx * RecLenPerTime);
-
-                    for (i = 0; i < varIdx; i++) {
-                        lNum = VARDEF.getVars().get(i).getLevelNum();
-                        if (lNum == 0) {
-                            lNum = 1;
+                    RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(filePath);
+                    try {
+                        br.seek(FILEHEADER + tIdx * RecLenPerTime);
+
+                        for (i = 0; i < varIdx; i++) {
+                            lNum = VARDEF.getVars().get(i).getLevelNum();
+                            if (lNum == 0) {
+                                lNum = 1;
+                            }
+                            br.seek(br.getFilePointer() + lNum * RecordLen);
                         }
-                        br.seek(br.getFilePointer() + lNum * RecordLen);
-                    }
-                    br.seek(br.getFilePointer() + levelIdx * RecordLen);
-                    if (OPTIONS.sequential) {
-                        br.seek(br.getFilePointer() + 4);
-                    }
-                    br.seek(br.getFilePointer() + latIdx * xNum * 4);
+                        br.seek(br.getFilePointer() + levelIdx * RecordLen);
+                        if (OPTIONS.sequential) {
+                            br.seek(br.getFilePointer() + 4);
+                        }
+                        br.seek(br.getFilePointer() + latIdx * xNum * 4);
 
-                    if (br.getFilePointer() >= br.length()) {
-                        System.out.println("Erro");
-                    }
+                        if (br.getFilePointer() >= br.length()) {
+                            System.out.println("Erro");
+                        }
 
-                    for (j = 0; j < xNum; j++) {
-                        br.read(aBytes);
-                        gridData[t][j] = DataConvert.bytes2Float(aBytes, _byteOrder);
+                        for (j = 0; j < xNum; j++) {
+                            br.read(aBytes);
+                            gridData[t][j] = DataConvert.bytes2Float(aBytes, _byteOrder);
+                        }
+                    } finally {
+                        FileHandlePool.RANDOM_ACCESS_FILES.release(filePath, br);
                     }
-                    br.close();
                 }
             } else {
-                RandomAccessFile br = new RandomAccessFile(DSET, "r");
-                for (t = 0; t < TDEF.getTimeNum(); t++) {
-                    br.seek(FILEHEADER + t * RecLenPerTime);
-                    aTPosition = br.getFilePointer();
-
-                    for (i = 0; i < varIdx; i++) {
-                        lNum = VARDEF.getVars().get(i).getLevelNum();
-                        if (lNum == 0) {
-                            lNum = 1;
+                RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(DSET);
+                try {
+                    for (t = 0; t < TDEF.getTimeNum(); t++) {
+                        br.seek(FILEHEADER + t * RecLenPerTime);
+                        aTPosition = br.getFilePointer();
+
+                        for (i = 0; i < varIdx; i++) {
+                            lNum = VARDEF.getVars().get(i).getLevelNum();
+                            if (lNum == 0) {
+                                lNum = 1;
+                            }
+                            br.seek(br.getFilePointer() + lNum * RecordLen);
                         }
-                        br.seek(br.getFilePointer() + lNum * RecordLen);
-                    }
-                    br.seek(br.getFilePointer() + levelIdx * RecordLen);
-                    if (OPTIONS.sequential) {
-                        br.seek(br.getFilePointer() + 4);
-                    }
-                    br.seek(br.getFilePointer() + latIdx * xNum * 4);
+                        br.seek(br.getFilePointer() + levelIdx * RecordLen);
+                        if (OPTIONS.sequential) {
+                            br.seek(br.getFilePointer() + 4);
+                        }
+                        br.seek(br.getFilePointer() + latIdx * xNum * 4);
 
-                    if (br.getFilePointer() >= br.length()) {
-                        System.out.println("Erro");
-                    }
+                        if (br.getFilePointer() >= br.length()) {
+                            System.out.println("Erro");
+                        }
 
-                    byte[] aBytes = new byte[4];
-                    for (j = 0; j < xNum; j++) {
-                        br.read(aBytes);
-                        gridData[t][j] = DataConvert.bytes2Float(aBytes, _byteOrder);
+                        byte[] aBytes = new byte[4];
+                        for (j = 0; j < xNum; j++) {
+                            br.read(aBytes);
+                            gridData[t][j] = DataConvert.bytes2Float(aBytes, _byteOrder);
+                        }
+                        br.seek(aTPosition);
                     }
-                    br.seek(aTPosition);
+                } finally {
+                    FileHandlePool.RANDOM_ACCESS_FILES.release(DSET, br);
                 }
-
-                br.close();
             }
 
             double[] yArray = new double[this.getTimeNum()];
@@ -1870,38 +1875,40 @@ public class GrADSDataInfo extends DataInfo implements IGridDataInfo, IStationDa
                 tIdx = (int) result[1];
             }
 
-            RandomAccessFile br = new RandomAccessFile(filePath, "r");
             int i, j, lNum;
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(filePath);
+            try {
+                br.seek(FILEHEADER + tIdx * RecLenPerTime);
 
-            br.seek(FILEHEADER + tIdx * RecLenPerTime);
-
-            for (i = 0; i < varIdx; i++) {
-                lNum = VARDEF.getVars().get(i).getLevelNum();
-                if (lNum == 0) {
-                    lNum = 1;
+                for (i = 0; i < varIdx; i++) {
+                    lNum = VARDEF.getVars().get(i).getLevelNum();
+                    if (lNum == 0) {
+                        lNum = 1;
+                    }
+                    br.seek(br.getFilePointer() + lNum * RecordLen);
                 }
-                br.seek(br.getFilePointer() + lNum * RecordLen);
-            }
 
-            if (br.getFilePointer() >= br.length()) {
-                System.out.println("Erro");
-            }
-
-            for (i = 0; i < yNum; i++) //Levels
-            {
-                if (OPTIONS.sequential) {
-                    br.seek(br.getFilePointer() + 4);
+                if (br.getFilePointer() >= br.length()) {
+                    System.out.println("Erro");
                 }
 
-                byte[] aBytes = new byte[4];
-                for (j = 0; j < YNum; j++) {
-                    br.skipBytes(lonIdx * 4);
-                    br.read(aBytes);
-                    gridData[i][j] = DataConvert.bytes2Float(aBytes, _byteOrder);
-                    br.skipBytes((XNum - lonIdx - 1) * 4);
+                for (i = 0; i < yNum; i++) //Levels
+                {
+                    if (OPTIONS.sequential) {
+                        br.seek(br.getFilePointer() + 4);
+                    }
+
+                    byte[] aBytes = new byte[4];
+                    for (j = 0; j < YNum; j++) {
+                        br.skipBytes(lonIdx * 4);
+                        br.read(aBytes);
+                        gridData[i][j] = DataConvert.bytes2Float(aBytes, _byteOrder);
+                        br.skipBytes((XNum - lonIdx - 1) * 4);
+                    }
                 }
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(filePath, br);
             }
-            br.close();
 
             double[] levels = new double[VARDEF.getVars().get(varIdx).getLevelNum()];
             for (i = 0; i < levels.length; i++) {
@@ -1933,38 +1940,40 @@ public class GrADSDataInfo extends DataInfo implements IGridDataInfo, IStationDa
                 tIdx = (int) result[1];
             }
 
-            RandomAccessFile br = new RandomAccessFile(filePath, "r");
             int i, j, lNum;
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(filePath);
+            try {
+                br.seek(FILEHEADER + tIdx * RecLenPerTime);
 
-            br.seek(FILEHEADER + tIdx * RecLenPerTime);
-
-            for (i = 0; i < varIdx; i++) {
-                lNum = VARDEF.getVars().get(i).getLevelNum();
-                if (lNum == 0) {
-                    lNum = 1;
+                for (i = 0; i < varIdx; i++) {
+                    lNum = VARDEF.getVars().get(i).getLevelNum();
+                    if (lNum == 0) {
+                        lNum = 1;
+                    }
+                    br.seek(br.getFilePointer() + lNum * RecordLen);
                 }
-                br.seek(br.getFilePointer() + lNum * RecordLen);
-            }
-
-            if (br.getFilePointer() >= br.length()) {
-                System.out.println("Erro");
-            }
 
-            for (i = 0; i < yNum; i++) //Levels
-            {
-                if (OPTIONS.sequential) {
-                    br.seek(br.getFilePointer() + 4);
+                if (br.getFilePointer() >= br.length()) {
+                    System.out.println("Erro");
                 }
-                br.seek(br.getFilePointer() + latIdx * xNum * 4);
 
-                byte[] aBytes = new byte[4];
-                for (j = 0; j < xNum; j++) {
-                    br.read(aBytes);
-                    gridData[i][j] = DataConvert.bytes2Float(aBytes, _byteOrder);
+                for (i = 0; i < yNum; i++) //Levels
+                {
+                    if (OPTIONS.sequential) {
+                        br.seek(br.getFilePointer() + 4);
+                    }
+                    br.seek(br.getFilePointer() + latIdx * xNum * 4);
+
+                    byte[] aBytes = new byte[4];
+                    for (j = 0; j < xNum; j++) {
+                        br.read(aBytes);
+                        gridData[i][j] = DataConvert.bytes2Float(aBytes, _byteOrder);
+                    }
+                    br.seek(br.getFilePointer() + (YNum - latIdx - 1) * xNum * 4);
                 }
-                br.seek(br.getFilePointer() + (YNum - latIdx - 1) * xNum * 4);
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(filePath, br);
             }
-            br.close();
 
             double[] levels = new double[VARDEF.getVars().get(varIdx).getLevelNum()];
             for (i = 0; i < levels.length; i++) {
@@ -1996,67 +2005,72 @@ public class GrADSDataInfo extends DataInfo implements IGridDataInfo, IStationDa
                     Object[] result = getFilePath_Template(t);
                     String filePath = (String) result[0];
                     int tIdx = (int) result[1];
-                    RandomAccessFile br = new RandomAccessFile(filePath, "r");
-                    br.seek(FILEHEADER + tIdx * RecLenPerTime);
-
-                    for (i = 0; i < varIdx; i++) {
-                        lNum = VARDEF.getVars().get(i).getLevelNum();
-                        if (lNum == 0) {
-                            lNum = 1;
+                    RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(filePath);
+                    try {
+                        br.seek(FILEHEADER + tIdx * RecLenPerTime);
+
+                        for (i = 0; i < varIdx; i++) {
+                            lNum = VARDEF.getVars().get(i).getLevelNum();
+                            if (lNum == 0) {
+                                lNum = 1;
+                            }
+                            br.seek(br.getFilePointer() + lNum * RecordLen);
                         }
-                        br.seek(br.getFilePointer() + lNum * RecordLen);
-                    }
 
-                    if (br.getFilePointer() >= br.length()) {
-                        System.out.println("Erro");
-                    }
+                        if (br.getFilePointer() >= br.length()) {
+                            System.out.println("Erro");
+                        }
 
-                    for (i = 0; i < yNum; i++) //Levels
-                    {
-                        if (OPTIONS.sequential) {
-                            br.seek(br.getFilePointer() + 4);
+                        for (i = 0; i < yNum; i++) //Levels
+                        {
+                            if (OPTIONS.sequential) {
+                                br.seek(br.getFilePointer() + 4);
+                            }
+                            br.seek(br.getFilePointer() + latIdx * xNum * 4 + lonIdx * 4);
+                            br.read(aBytes);
+                            gridData[i][t] = DataConvert.bytes2Float(aBytes, _byteOrder);
+                            br.seek(br.getFilePointer() + (XNum - lonIdx - 1) * 4 + (YNum - latIdx - 1) * xNum * 4);
                         }
-                        br.seek(br.getFilePointer() + latIdx * xNum * 4 + lonIdx * 4);
-                        br.read(aBytes);
-                        gridData[i][t] = DataConvert.bytes2Float(aBytes, _byteOrder);
-                        br.seek(br.getFilePointer() + (XNum - lonIdx - 1) * 4 + (YNum - latIdx - 1) * xNum * 4);
+                    } finally {
+                        FileHandlePool.RANDOM_ACCESS_FILES.release(filePath, br);
                     }
-                    br.close();
                 }
             } else {
-                RandomAccessFile br = new RandomAccessFile(DSET, "r");
-                for (t = 0; t < xNum; t++) {
-                    br.seek(FILEHEADER + t * RecLenPerTime);
-                    aTPosition = br.getFilePointer();
-
-                    for (i = 0; i < varIdx; i++) {
-                        lNum = VARDEF.getVars().get(i).getLevelNum();
-                        if (lNum == 0) {
-                            lNum = 1;
+                RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(DSET);
+                try {
+                    for (t = 0; t < xNum; t++) {
+                        br.seek(FILEHEADER + t * RecLenPerTime);
+                        aTPosition = br.getFilePointer();
+
+                        for (i = 0; i < varIdx; i++) {
+                            lNum = VARDEF.getVars().get(i).getLevelNum();
+                            if (lNum == 0) {
+                                lNum = 1;
+                            }
+                            br.seek(br.getFilePointer() + lNum * RecordLen);
                         }
-                        br.seek(br.getFilePointer() + lNum * RecordLen);
-                    }
 
-                    if (br.getFilePointer() >= br.length()) {
-                        System.out.println("Erro");
-                    }
+                        if (br.getFilePointer() >= br.length()) {
+                            System.out.println("Erro");
+                        }
 
-                    byte[] aBytes = new byte[4];
-                    for (i = 0; i < yNum; i++) //Levels
-                    {
-                        if (OPTIONS.sequential) {
-                            br.seek(br.getFilePointer() + 4);
+                        byte[] aBytes = new byte[4];
+                        for (i = 0; i < yNum; i++) //Levels
+                        {
+                            if (OPTIONS.sequential) {
+                                br.seek(br.getFilePointer() + 4);
+                            }
+                            br.seek(br.getFilePointer() + latIdx * xNum * 4 + lonIdx * 4);
+                            br.read(aBytes);
+                            gridData[i][t] = DataConvert.bytes2Float(aBytes, _byteOrder);
+                            br.seek(br.getFilePointer() + (XNum - lonIdx - 1) * 4 + (YNum - latIdx - 1) * xNum * 4);
                         }
-                        br.seek(br.getFilePointer() + latIdx * xNum * 4 + lonIdx * 4);
-                        br.read(aBytes);
-                        gridData[i][t] = DataConvert.bytes2Float(aBytes, _byteOrder);
-                        br.seek(br.getFilePointer() + (XNum - lonIdx - 1) * 4 + (YNum - latIdx - 1) * xNum * 4);
-                    }
 
-                    br.seek(aTPosition);
+                        br.seek(aTPosition);
+                    }
+                } finally {
+                    FileHandlePool.RANDOM_ACCESS_FILES.release(DSET, br);
                 }
-
-                br.close();
             }
 
             double[] xArray = new double[this.getTimeNum()];
@@ -2094,65 +2108,69 @@ public class GrADSDataInfo extends DataInfo implements IGridDataInfo, IStationDa
                     Object[] result = getFilePath_Template(t);
                     String filePath = (String) result[0];
                     int tIdx = (int) result[1];
-                    RandomAccessFile br = new RandomAccessFile(filePath, "r");
-                    br.seek(FILEHEADER + tIdx * RecLenPerTime);
-
-                    for (i = 0; i < varIdx; i++) {
-                        lNum = VARDEF.getVars().get(i).getLevelNum();
-                        if (lNum == 0) {
-                            lNum = 1;
+                    RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(filePath);
+                    try {
+                        br.seek(FILEHEADER + tIdx * RecLenPerTime);
+
+                        for (i = 0; i < varIdx; i++) {
+                            lNum = VARDEF.getVars().get(i).getLevelNum();
+                            if (lNum == 0) {
+                                lNum = 1;
+                            }
+                            br.seek(br.getFilePointer() + lNum * RecordLen);
                         }
-                        br.seek(br.getFilePointer() + lNum * RecordLen);
-                    }
-                    br.seek(br.getFilePointer() + levelIdx * RecordLen);
-                    if (OPTIONS.sequential) {
-                        br.seek(br.getFilePointer() + 4);
-                    }
-                    br.seek(br.getFilePointer() + latIdx * XNum * 4);
-
-                    if (br.getFilePointer() >= br.length()) {
-                        System.out.println("Erro");
-                    }
+                        br.seek(br.getFilePointer() + levelIdx * RecordLen);
+                        if (OPTIONS.sequential) {
+                            br.seek(br.getFilePointer() + 4);
+                        }
+                        br.seek(br.getFilePointer() + latIdx * XNum * 4);
 
-                    br.seek(br.getFilePointer() + lonIdx * 4);
+                        if (br.getFilePointer() >= br.length()) {
+                            System.out.println("Erro");
+                        }
 
-                    br.read(aBytes);
-                    aValue = DataConvert.bytes2Float(aBytes, _byteOrder);
-                    xArray[t] = JDateUtil.toOADate(TDEF.times.get(t));
-                    data[0][t] = aValue;
+                        br.seek(br.getFilePointer() + lonIdx * 4);
 
-                    br.close();
+                        br.read(aBytes);
+                        aValue = DataConvert.bytes2Float(aBytes, _byteOrder);
+                        xArray[t] = JDateUtil.toOADate(TDEF.times.get(t));
+                        data[0][t] = aValue;
+                    } finally {
+                        FileHandlePool.RANDOM_ACCESS_FILES.release(filePath, br);
+                    }
                 }
             } else {
-                RandomAccessFile br = new RandomAccessFile(DSET, "r");
-                for (t = 0; t < TDEF.getTimeNum(); t++) {
-                    br.seek(FILEHEADER + t * RecLenPerTime);
-                    for (i = 0; i < varIdx; i++) {
-                        lNum = VARDEF.getVars().get(i).getLevelNum();
-                        if (lNum == 0) {
-                            lNum = 1;
+                RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(DSET);
+                try {
+                    for (t = 0; t < TDEF.getTimeNum(); t++) {
+                        br.seek(FILEHEADER + t * RecLenPerTime);
+                        for (i = 0; i < varIdx; i++) {
+                            lNum = VARDEF.getVars().get(i).getLevelNum();
+                            if (lNum == 0) {
+                                lNum = 1;
+                            }
+                            br.seek(br.getFilePointer() + lNum * RecordLen);
                         }
-                        br.seek(br.getFilePointer() + lNum * RecordLen);
-                    }
-                    br.seek(br.getFilePointer() + levelIdx * RecordLen);
-                    if (OPTIONS.sequential) {
-                        br.seek(br.getFilePointer() + 4);
-                    }
-                    br.seek(br.getFilePointer() + latIdx * XNum * 4);
+                        br.seek(br.getFilePointer() + levelIdx * RecordLen);
+                        if (OPTIONS.sequential) {
+                            br.seek(br.getFilePointer() + 4);
+                        }
+                        br.seek(br.getFilePointer() + latIdx * XNum * 4);
 
-                    if (br.getFilePointer() >= br.length()) {
-                        System.out.println("Erro");
-                    }
+                        if (br.getFilePointer() >= br.length()) {
+                            System.out.println("Erro");
+                        }
 
-                    br.seek(br.getFilePointer() + lonIdx * 4);
+                        br.seek(br.getFilePointer() + lonIdx * 4);
 
-                    br.read(aBytes);
-                    aValue = DataConvert.bytes2Float(aBytes, _byteOrder);
-                    xArray[t] = JDateUtil.toOADate(TDEF.times.get(t));
-                    data[0][t] = aValue;
+                        br.read(aBytes);
+                        aValue = DataConvert.bytes2Float(aBytes, _byteOrder);
+                        xArray[t] = JDateUtil.toOADate(TDEF.times.get(t));
+                        data[0][t] = aValue;
+                    }
+                } finally {
+                    FileHandlePool.RANDOM_ACCESS_FILES.release(DSET, br);
                 }
-
-                br.close();
             }
 
             return new GridData(data, xArray, yArray, this.missingValue);
@@ -2175,43 +2193,45 @@ public class GrADSDataInfo extends DataInfo implements IGridDataInfo, IStationDa
                 tIdx = (int) result[1];
             }
 
-            RandomAccessFile br = new RandomAccessFile(filePath, "r");
-            int i, lNum;
-            byte[] aBytes = new byte[4];
-            float aValue;
-
             double[] xArray = new double[ZDEF.ZNum];
             double[] yArray = new double[1];
-            yArray[0] = 0;
             double[][] data = new double[1][ZDEF.ZNum];
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(filePath);
+            try {
+                int i, lNum;
+                byte[] aBytes = new byte[4];
+                float aValue;
 
-            br.seek(FILEHEADER + tIdx * RecLenPerTime);
+                yArray[0] = 0;
 
-            for (i = 0; i < varIdx; i++) {
-                lNum = VARDEF.getVars().get(i).getLevelNum();
-                if (lNum == 0) {
-                    lNum = 1;
+                br.seek(FILEHEADER + tIdx * RecLenPerTime);
+
+                for (i = 0; i < varIdx; i++) {
+                    lNum = VARDEF.getVars().get(i).getLevelNum();
+                    if (lNum == 0) {
+                        lNum = 1;
+                    }
+                    br.seek(br.getFilePointer() + lNum * RecordLen);
                 }
-                br.seek(br.getFilePointer() + lNum * RecordLen);
-            }
 
-            long aPosition = br.getFilePointer();
+                long aPosition = br.getFilePointer();
 
-            for (i = 0; i < ZDEF.ZNum; i++) {
-                br.seek(aPosition + i * RecordLen);
-                if (OPTIONS.sequential) {
-                    br.seek(br.getFilePointer() + 4);
-                }
-                br.seek(br.getFilePointer() + latIdx * XNum * 4 + lonIdx * 4);
+                for (i = 0; i < ZDEF.ZNum; i++) {
+                    br.seek(aPosition + i * RecordLen);
+                    if (OPTIONS.sequential) {
+                        br.seek(br.getFilePointer() + 4);
+                    }
+                    br.seek(br.getFilePointer() + latIdx * XNum * 4 + lonIdx * 4);
 
-                br.read(aBytes);
-                aValue = DataConvert.bytes2Float(aBytes, _byteOrder);
-                xArray[i] = ZDEF.ZLevels[i];
-                data[0][i] = aValue;
+                    br.read(aBytes);
+                    aValue = DataConvert.bytes2Float(aBytes, _byteOrder);
+                    xArray[i] = ZDEF.ZLevels[i];
+                    data[0][i] = aValue;
+                }
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(filePath, br);
             }
 
-            br.close();
-
             return new GridData(data, xArray, yArray, this.missingValue);
         } catch (IOException ex) {
             Logger.getLogger(GrADSDataInfo.class.getName()).log(Level.SEVERE, null, ex);
@@ -2231,37 +2251,39 @@ public class GrADSDataInfo extends DataInfo implements IGridDataInfo, IStationDa
                 filePath = (String) result[0];
                 tIdx = (int) result[1];
             }
-            RandomAccessFile br = new RandomAccessFile(filePath, "r");
-            int i, lNum;
-            byte[] aBytes = new byte[4];
-            float aValue;
-
             double[] yArray = new double[1];
-            yArray[0] = 0;
             double[][] data = new double[1][X.length];
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(filePath);
+            try {
+                int i, lNum;
+                byte[] aBytes = new byte[4];
+                float aValue;
+
+                yArray[0] = 0;
 
-            br.seek(FILEHEADER + tIdx * RecLenPerTime);
-            for (i = 0; i < varIdx; i++) {
-                lNum = VARDEF.getVars().get(i).getLevelNum();
-                if (lNum == 0) {
-                    lNum = 1;
+                br.seek(FILEHEADER + tIdx * RecLenPerTime);
+                for (i = 0; i < varIdx; i++) {
+                    lNum = VARDEF.getVars().get(i).getLevelNum();
+                    if (lNum == 0) {
+                        lNum = 1;
+                    }
+                    br.seek(br.getFilePointer() + lNum * RecordLen);
                 }
-                br.seek(br.getFilePointer() + lNum * RecordLen);
-            }
-            br.seek(br.getFilePointer() + levelIdx * RecordLen);
-            if (OPTIONS.sequential) {
-                br.seek(br.getFilePointer() + 4);
-            }
-            br.seek(br.getFilePointer() + latIdx * XNum * 4);
+                br.seek(br.getFilePointer() + levelIdx * RecordLen);
+                if (OPTIONS.sequential) {
+                    br.seek(br.getFilePointer() + 4);
+                }
+                br.seek(br.getFilePointer() + latIdx * XNum * 4);
 
-            for (i = 0; i < XNum; i++) {
-                br.read(aBytes);
-                aValue = DataConvert.bytes2Float(aBytes, _byteOrder);
-                data[0][i] = aValue;
+                for (i = 0; i < XNum; i++) {
+                    br.read(aBytes);
+                    aValue = DataConvert.bytes2Float(aBytes, _byteOrder);
+                    data[0][i] = aValue;
+                }
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(filePath, br);
             }
 
-            br.close();
-
             return new GridData(data, X, yArray, this.missingValue);
         } catch (IOException ex) {
             Logger.getLogger(GrADSDataInfo.class.getName()).log(Level.SEVERE, null, ex);
@@ -2281,38 +2303,40 @@ public class GrADSDataInfo extends DataInfo implements IGridDataInfo, IStationDa
                 filePath = (String) result[0];
                 tIdx = (int) result[1];
             }
-            RandomAccessFile br = new RandomAccessFile(filePath, "r");
-            int i, lNum;
-            byte[] aBytes = new byte[4];
-            float aValue;
-
             double[] yArray = new double[1];
-            yArray[0] = 0;
             double[][] data = new double[1][Y.length];
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(filePath);
+            try {
+                int i, lNum;
+                byte[] aBytes = new byte[4];
+                float aValue;
 
-            br.seek(FILEHEADER + tIdx * RecLenPerTime);
-            for (i = 0; i < varIdx; i++) {
-                lNum = VARDEF.getVars().get(i).getLevelNum();
-                if (lNum == 0) {
-                    lNum = 1;
+                yArray[0] = 0;
+
+                br.seek(FILEHEADER + tIdx * RecLenPerTime);
+                for (i = 0; i < varIdx; i++) {
+                    lNum = VARDEF.getVars().get(i).getLevelNum();
+                    if (lNum == 0) {
+                        lNum = 1;
+                    }
+                    br.seek(br.getFilePointer() + lNum * RecordLen);
                 }
-                br.seek(br.getFilePointer() + lNum * RecordLen);
-            }
-            br.seek(br.getFilePointer() + levelIdx * RecordLen);
-            if (OPTIONS.sequential) {
-                br.seek(br.getFilePointer() + 4);
-            }
-            long aPosition = br.getFilePointer();
+                br.seek(br.getFilePointer() + levelIdx * RecordLen);
+                if (OPTIONS.sequential) {
+                    br.seek(br.getFilePointer() + 4);
+                }
+                long aPosition = br.getFilePointer();
 
-            for (i = 0; i < YNum; i++) {
-                br.seek(aPosition + i * XNum * 4 + lonIdx * 4);
-                br.read(aBytes);
-                aValue = DataConvert.bytes2Float(aBytes, _byteOrder);
-                data[0][i] = aValue;
+                for (i = 0; i < YNum; i++) {
+                    br.seek(aPosition + i * XNum * 4 + lonIdx * 4);
+                    br.read(aBytes);
+                    aValue = DataConvert.bytes2Float(aBytes, _byteOrder);
+                    data[0][i] = aValue;
+                }
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(filePath, br);
             }
 
-            br.close();
-
             return new GridData(data, Y, yArray, this.missingValue);
         } catch (IOException ex) {
             Logger.getLogger(GrADSDataInfo.class.getName()).log(Level.SEVERE, null, ex);
@@ -2330,98 +2354,102 @@ public class GrADSDataInfo extends DataInfo implements IGridDataInfo, IStationDa
      */
     public GridData getGridData_Station(int vIdx, String stID) {
         try {
-            RandomAccessFile br = new RandomAccessFile(DSET, "r");
-            int i, stNum, tNum;
-            STDataHead aSTDH = new STDataHead();
-            STLevData aSTLevData = new STLevData();
-            STData aSTData = new STData();
-            Variable aVar = getUpperVariables().get(vIdx);
-            int varNum = VARDEF.getVNum();
-            int uVarNum = getUpperVariables().size();
-            if (uVarNum > 0) {
-                varNum = varNum - uVarNum;
-            }
-            byte[] aBytes;
-
             double[] xArray = new double[this.getTimeNum()];
-            for (i = 0; i < this.getTimeNum(); i++) {
-                xArray[i] = JDateUtil.toOADate(this.getTimes().getDate(i));
-            }
-
-            double[] yArray = new double[aVar.getLevelNum()];
-            for (i = 0; i < aVar.getLevelNum(); i++) {
-                yArray[i] = i + 1;
-            }
-
-            double[][] data = new double[aVar.getLevelNum()][this.getTimeNum()];
-
-            stNum = 0;
-            tNum = 0;
-            do {
-                aBytes = getByteArray(br, 8);
-                //aSTDH.STID = System.Text.Encoding.Default.GetString(aBytes);
-                aSTDH.STID = new String(aBytes, "UTF-8");
-
-                aBytes = getByteArray(br, 4);
-                aSTDH.Lat = DataConvert.bytes2Float(aBytes, _byteOrder);
-
-                aBytes = getByteArray(br, 4);
-                aSTDH.Lon = DataConvert.bytes2Float(aBytes, _byteOrder);
-
-                aBytes = getByteArray(br, 4);
-                aSTDH.T = DataConvert.bytes2Float(aBytes, _byteOrder);
+            double[] yArray;
+            double[][] data;
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(DSET);
+            try {
+                int i, stNum, tNum;
+                STDataHead aSTDH = new STDataHead();
+                STLevData aSTLevData = new STLevData();
+                STData aSTData = new STData();
+                Variable aVar = getUpperVariables().get(vIdx);
+                int varNum = VARDEF.getVNum();
+                int uVarNum = getUpperVariables().size();
+                if (uVarNum > 0) {
+                    varNum = varNum - uVarNum;
+                }
+                byte[] aBytes;
 
-                aBytes = getByteArray(br, 4);
-                aSTDH.NLev = DataConvert.bytes2Int(aBytes);
+                for (i = 0; i < this.getTimeNum(); i++) {
+                    xArray[i] = JDateUtil.toOADate(this.getTimes().getDate(i));
+                }
 
-                aBytes = getByteArray(br, 4);
-                aSTDH.Flag = DataConvert.bytes2Int(aBytes);
+                yArray = new double[aVar.getLevelNum()];
+                for (i = 0; i < aVar.getLevelNum(); i++) {
+                    yArray[i] = i + 1;
+                }
 
-                if (aSTDH.NLev > 0) {
-                    stNum += 1;
-                    aSTData.STHead = aSTDH;
-                    aSTData.dataList = new ArrayList<>();
-                    if (aSTDH.Flag == 1) //Has ground level
-                    {
-                        if (aSTDH.STID.equals(stID)) {
-                            aSTLevData.data = new float[varNum];
-                            for (i = 0; i < varNum; i++) {
-                                aBytes = getByteArray(br, 4);
-                                aSTLevData.data[i] = DataConvert.bytes2Float(aBytes, _byteOrder);
+                data = new double[aVar.getLevelNum()][this.getTimeNum()];
+
+                stNum = 0;
+                tNum = 0;
+                do {
+                    aBytes = getByteArray(br, 8);
+                    //aSTDH.STID = System.Text.Encoding.Default.GetString(aBytes);
+                    aSTDH.STID = new String(aBytes, "UTF-8");
+
+                    aBytes = getByteArray(br, 4);
+                    aSTDH.Lat = DataConvert.bytes2Float(aBytes, _byteOrder);
+
+                    aBytes = getByteArray(br, 4);
+                    aSTDH.Lon = DataConvert.bytes2Float(aBytes, _byteOrder);
+
+                    aBytes = getByteArray(br, 4);
+                    aSTDH.T = DataConvert.bytes2Float(aBytes, _byteOrder);
+
+                    aBytes = getByteArray(br, 4);
+                    aSTDH.NLev = DataConvert.bytes2Int(aBytes);
+
+                    aBytes = getByteArray(br, 4);
+                    aSTDH.Flag = DataConvert.bytes2Int(aBytes);
+
+                    if (aSTDH.NLev > 0) {
+                        stNum += 1;
+                        aSTData.STHead = aSTDH;
+                        aSTData.dataList = new ArrayList<>();
+                        if (aSTDH.Flag == 1) //Has ground level
+                        {
+                            if (aSTDH.STID.equals(stID)) {
+                                aSTLevData.data = new float[varNum];
+                                for (i = 0; i < varNum; i++) {
+                                    aBytes = getByteArray(br, 4);
+                                    aSTLevData.data[i] = DataConvert.bytes2Float(aBytes, _byteOrder);
+                                }
+                                aSTLevData.lev = 0;
+                                aSTData.dataList.add(aSTLevData);
+                            } else {
+                                br.skipBytes(varNum * 4);
                             }
-                            aSTLevData.lev = 0;
-                            aSTData.dataList.add(aSTLevData);
-                        } else {
-                            br.skipBytes(varNum * 4);
                         }
-                    }
-                    if (aSTDH.NLev - aSTDH.Flag > 0) //Has upper level
-                    {
-                        if (aSTDH.STID.equals(stID)) {
-                            for (i = 0; i < aSTDH.NLev - aSTDH.Flag; i++) {
-                                br.skipBytes(4 + vIdx * 4);
-                                aBytes = getByteArray(br, 4);
-                                data[i][tNum] = DataConvert.bytes2Float(aBytes, _byteOrder);
-                                br.skipBytes((uVarNum - vIdx - 1) * 4);
+                        if (aSTDH.NLev - aSTDH.Flag > 0) //Has upper level
+                        {
+                            if (aSTDH.STID.equals(stID)) {
+                                for (i = 0; i < aSTDH.NLev - aSTDH.Flag; i++) {
+                                    br.skipBytes(4 + vIdx * 4);
+                                    aBytes = getByteArray(br, 4);
+                                    data[i][tNum] = DataConvert.bytes2Float(aBytes, _byteOrder);
+                                    br.skipBytes((uVarNum - vIdx - 1) * 4);
+                                }
+                            } else {
+                                br.skipBytes((aSTDH.NLev - aSTDH.Flag) * (uVarNum + 1) * 4);
                             }
-                        } else {
-                            br.skipBytes((aSTDH.NLev - aSTDH.Flag) * (uVarNum + 1) * 4);
+                        }
+                    } else //End of time seriel
+                    {
+                        stNum = 0;
+                        if (tNum == getTimes().getSize() - 1) {
+                            break;
+                        }
+                        tNum += 1;
+                        if (br.getFilePointer() + 28 >= br.length()) {
+                            break;
                         }
                     }
-                } else //End of time seriel
-                {
-                    stNum = 0;
-                    if (tNum == getTimes().getSize() - 1) {
-                        break;
-                    }
-                    tNum += 1;
-                    if (br.getFilePointer() + 28 >= br.length()) {
-                        break;
-                    }
-                }
-            } while (true);
-
-            br.close();
+                } while (true);
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(DSET, br);
+            }
 
             return new GridData(data, xArray, yArray, this.missingValue);
         } catch (FileNotFoundException ex) {
@@ -2467,87 +2495,89 @@ public class GrADSDataInfo extends DataInfo implements IGridDataInfo, IStationDa
             tIdx = (Integer) result[1];
         }
 
-        RandomAccessFile br = new RandomAccessFile(filePath, "r");
-        int i, j, tNum;
-        STDataHead aSTDH;
-        STLevData aSTLevData;
-        STData aSTData;
-        int varNum = VARDEF.getVNum();
-        int uVarNum = this.getUpperVariables().size();
-        if (uVarNum > 0) {
-            varNum = varNum - uVarNum;
-        }
-        byte[] aBytes;
+        RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(filePath);
+        try {
+            int i, j, tNum;
+            STDataHead aSTDH;
+            STLevData aSTLevData;
+            STData aSTData;
+            int varNum = VARDEF.getVNum();
+            int uVarNum = this.getUpperVariables().size();
+            if (uVarNum > 0) {
+                varNum = varNum - uVarNum;
+            }
+            byte[] aBytes;
 
-        tNum = 0;
-        if (OPTIONS.template) {
-            timeIdx = 0;
-        }
-        do {
-            aSTDH = new STDataHead();
-            aBytes = getByteArray(br, 8);
-            aSTDH.STID = new String(aBytes);
+            tNum = 0;
+            if (OPTIONS.template) {
+                timeIdx = 0;
+            }
+            do {
+                aSTDH = new STDataHead();
+                aBytes = getByteArray(br, 8);
+                aSTDH.STID = new String(aBytes);
 
-            aBytes = getByteArray(br, 4);
-            aSTDH.Lat = DataConvert.bytes2Float(aBytes, _byteOrder);
+                aBytes = getByteArray(br, 4);
+                aSTDH.Lat = DataConvert.bytes2Float(aBytes, _byteOrder);
 
-            aBytes = getByteArray(br, 4);
-            aSTDH.Lon = DataConvert.bytes2Float(aBytes, _byteOrder);
+                aBytes = getByteArray(br, 4);
+                aSTDH.Lon = DataConvert.bytes2Float(aBytes, _byteOrder);
 
-            aBytes = getByteArray(br, 4);
-            aSTDH.T = DataConvert.bytes2Float(aBytes, _byteOrder);
+                aBytes = getByteArray(br, 4);
+                aSTDH.T = DataConvert.bytes2Float(aBytes, _byteOrder);
 
-            aBytes = getByteArray(br, 4);
-            aSTDH.NLev = DataConvert.bytes2Int(aBytes, _byteOrder);
+                aBytes = getByteArray(br, 4);
+                aSTDH.NLev = DataConvert.bytes2Int(aBytes, _byteOrder);
 
-            aBytes = getByteArray(br, 4);
-            aSTDH.Flag = DataConvert.bytes2Int(aBytes, _byteOrder);
-            if (aSTDH.NLev > 0) {
-                aSTData = new STData();
-                aSTData.STHead = aSTDH;
-                aSTData.dataList = new ArrayList<>();
-                if (aSTDH.Flag == 1) //Has ground level
-                {
-                    aSTLevData = new STLevData();
-                    aSTLevData.data = new float[varNum];
-                    for (i = 0; i < varNum; i++) {
-                        aBytes = getByteArray(br, 4);
-                        aSTLevData.data[i] = DataConvert.bytes2Float(aBytes, _byteOrder);
-                    }
-                    aSTLevData.lev = 0;
-                    aSTData.dataList.add(aSTLevData);
-                }
-                if (aSTDH.NLev - aSTDH.Flag > 0) //Has upper level
-                {
-                    for (i = 0; i < aSTDH.NLev - aSTDH.Flag; i++) {
-                        aBytes = getByteArray(br, 4);
+                aBytes = getByteArray(br, 4);
+                aSTDH.Flag = DataConvert.bytes2Int(aBytes, _byteOrder);
+                if (aSTDH.NLev > 0) {
+                    aSTData = new STData();
+                    aSTData.STHead = aSTDH;
+                    aSTData.dataList = new ArrayList<>();
+                    if (aSTDH.Flag == 1) //Has ground level
+                    {
                         aSTLevData = new STLevData();
-                        aSTLevData.lev = DataConvert.bytes2Float(aBytes, _byteOrder);
-                        aSTLevData.data = new float[uVarNum];
-                        for (j = 0; j < uVarNum; j++) {
+                        aSTLevData.data = new float[varNum];
+                        for (i = 0; i < varNum; i++) {
                             aBytes = getByteArray(br, 4);
-                            aSTLevData.data[j] = DataConvert.bytes2Float(aBytes, _byteOrder);
+                            aSTLevData.data[i] = DataConvert.bytes2Float(aBytes, _byteOrder);
                         }
+                        aSTLevData.lev = 0;
                         aSTData.dataList.add(aSTLevData);
                     }
-                }
+                    if (aSTDH.NLev - aSTDH.Flag > 0) //Has upper level
+                    {
+                        for (i = 0; i < aSTDH.NLev - aSTDH.Flag; i++) {
+                            aBytes = getByteArray(br, 4);
+                            aSTLevData = new STLevData();
+                            aSTLevData.lev = DataConvert.bytes2Float(aBytes, _byteOrder);
+                            aSTLevData.data = new float[uVarNum];
+                            for (j = 0; j < uVarNum; j++) {
+                                aBytes = getByteArray(br, 4);
+                                aSTLevData.data[j] = DataConvert.bytes2Float(aBytes, _byteOrder);
+                            }
+                            aSTData.dataList.add(aSTLevData);
+                        }
+                    }
 
-                if (tNum == tIdx) {
-                    stDataList.add(aSTData);
-                }
-            } else //End of time seriel
-            {
-                if (tNum == tIdx) {
-                    break;
-                }
-                tNum += 1;
-                if (br.getFilePointer() + 28 >= br.length()) {
-                    break;
+                    if (tNum == tIdx) {
+                        stDataList.add(aSTData);
+                    }
+                } else //End of time seriel
+                {
+                    if (tNum == tIdx) {
+                        break;
+                    }
+                    tNum += 1;
+                    if (br.getFilePointer() + 28 >= br.length()) {
+                        break;
+                    }
                 }
-            }
-        } while (true);
-
-        br.close();
+            } while (true);
+        } finally {
+            FileHandlePool.RANDOM_ACCESS_FILES.release(filePath, br);
+        }
 
         return stDataList;
     }
@@ -0,0 +1,199 @@
+/* Copyright 2012 Yaqiang Wang,
+ * yaqiang.wang@gmail.com
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser
+ * General Public License for more details.
+ */
+package org.meteoinfo.data.meteodata.grads;
+
+import org.meteoinfo.ndarray.IndexIterator;
+import org.meteoinfo.ndarray.Range;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Read only memory mapped binary data file.
+ *
+ * <p>The file is mapped in segments so that files larger than 2GB can be
+ * read. Neighbour segments overlap by the maximum record length, so a record
+ * never crosses a segment boundary.
+ *
+ * @author Yaqiang Wang
+ */
+public class MappedBinaryFile implements Closeable {
+
+    // <editor-fold desc="Variables">
+    private static final long SEGMENT_SIZE = 1L << 30;
+    private final String fileName;
+    private final RandomAccessFile raf;
+    private final FileChannel channel;
+    private final long length;
+    private final long overlap;
+    private final ByteOrder byteOrder;
+    private final MappedByteBuffer[] segments;
+    // </editor-fold>
+    // <editor-fold desc="Constructor">
+
+    /**
+     * Constructor
+     *
+     * @param fileName File name
+     * @param byteOrder Byte order
+     * @param maxRecordLen Maximum record length in bytes
+     * @throws IOException
+     */
+    public MappedBinaryFile(String fileName, ByteOrder byteOrder, long maxRecordLen) throws IOException {
+        this.fileName = fileName;
+        this.byteOrder = byteOrder;
+        this.raf = new RandomAccessFile(fileName, "r");
+        this.channel = raf.getChannel();
+        this.length = channel.size();
+        this.overlap = Math.min(maxRecordLen, Integer.MAX_VALUE - SEGMENT_SIZE);
+        int n = (int) ((length + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+        this.segments = new MappedByteBuffer[Math.max(n, 1)];
+    }
+    // </editor-fold>
+    // <editor-fold desc="Get Set Methods">
+
+    /**
+     * Get file name
+     *
+     * @return File name
+     */
+    public String getFileName() {
+        return this.fileName;
+    }
+
+    /**
+     * Get file length in bytes
+     *
+     * @return File length
+     */
+    public long length() {
+        return this.length;
+    }
+
+    /**
+     * Get byte order
+     *
+     * @return Byte order
+     */
+    public ByteOrder getByteOrder() {
+        return this.byteOrder;
+    }
+    // </editor-fold>
+    // <editor-fold desc="Methods">
+
+    private synchronized MappedByteBuffer getSegment(int idx) throws IOException {
+        MappedByteBuffer segment = segments[idx];
+        if (segment == null) {
+            long start = idx * SEGMENT_SIZE;
+            long size = Math.min(length - start, SEGMENT_SIZE + overlap);
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+            segments[idx] = segment;
+        }
+        return segment;
+    }
+
+    /**
+     * Get a float buffer view of the file. The view is independent of other
+     * views, so it can be used by several threads.
+     *
+     * @param pos Start position in bytes
+     * @param n Float number
+     * @return Float buffer
+     * @throws IOException
+     */
+    public FloatBuffer getFloatBuffer(long pos, int n) throws IOException {
+        long nBytes = (long) n * 4;
+        if (pos < 0 || pos + nBytes > length) {
+            throw new EOFException("Read beyond the end of file: " + fileName);
+        }
+        int idx = (int) (pos / SEGMENT_SIZE);
+        if (pos + nBytes > idx * SEGMENT_SIZE + SEGMENT_SIZE + overlap) {
+            throw new IOException("Record is larger than the mapped overlap: " + fileName);
+        }
+        ByteBuffer bb = getSegment(idx).duplicate();
+        int start = (int) (pos - idx * SEGMENT_SIZE);
+        bb.limit(start + (int) nBytes);
+        bb.position(start);
+        return bb.slice().order(byteOrder).asFloatBuffer();
+    }
+
+    /**
+     * Read a y/x window of a float grid record
+     *
+     * @param pos Start position of the record in bytes
+     * @param xNum X number of the grid
+     * @param yRange Y range
+     * @param xRange X range
+     * @param ii Index iterator to receive the data
+     * @throws IOException
+     */
+    public void readWindow(long pos, int xNum, Range yRange, Range xRange, IndexIterator ii) throws IOException {
+        int y0 = yRange.first();
+        int x0 = xRange.first();
+        int n = (yRange.last() - y0) * xNum + xRange.last() + 1 - x0;
+        FloatBuffer fb = getFloatBuffer(pos + ((long) y0 * xNum + x0) * 4, n);
+        int xStride = xRange.stride();
+        if (xStride == 1) {
+            float[] row = new float[xRange.length()];
+            for (int y = y0; y <= yRange.last(); y += yRange.stride()) {
+                fb.position((y - y0) * xNum);
+                fb.get(row);
+                for (float v : row) {
+                    ii.setFloatNext(v);
+                }
+            }
+        } else {
+            for (int y = y0; y <= yRange.last(); y += yRange.stride()) {
+                int rowStart = (y - y0) * xNum - x0;
+                for (int x = x0; x <= xRange.last(); x += xStride) {
+                    ii.setFloatNext(fb.get(rowStart + x));
+                }
+            }
+        }
+    }
+
+    /**
+     * Read a whole float grid record
+     *
+     * @param pos Start position of the record in bytes
+     * @param data Data array to receive the record
+     * @throws IOException
+     */
+    public void readFloat(long pos, float[] data) throws IOException {
+        getFloatBuffer(pos, data.length).get(data);
+    }
+
+    /**
+     * Close the file. The mapped segments are released when they are garbage
+     * collected.
+     *
+     * @throws IOException
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = null;
+        }
+        channel.close();
+        raf.close();
+    }
+    // </editor-fold>
+}
@@ -4,41 +4,36 @@
  */
 package org.meteoinfo.data.meteodata.grib2;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.meteoinfo.common.Bytes2Number;
 import org.meteoinfo.data.DataMath;
-import org.meteoinfo.data.GridArray;
-import org.meteoinfo.data.GridData;
 import org.meteoinfo.data.meteodata.DataInfo;
-import org.meteoinfo.data.meteodata.IGridDataInfo;
 import org.meteoinfo.data.meteodata.MeteoDataType;
 import org.meteoinfo.data.meteodata.Variable;
 import org.meteoinfo.projection.ProjectionInfo;
 import org.meteoinfo.ndarray.Array;
 import org.meteoinfo.data.meteodata.Attribute;
-import ucar.nc2.grib.grib2.Grib2SectionGridDefinition;
-import ucar.nc2.grib.grib2.Grib2SectionIdentification;
-import ucar.nc2.grib.grib2.Grib2SectionIndicator;
-import ucar.nc2.grib.grib2.Grib2SectionLocalUse;
-import ucar.nc2.grib.grib2.Grib2SectionProductDefinition;
-import ucar.unidata.io.RandomAccessFile;
+import ucar.nc2.grib.grib2.Grib2Pds;
+import ucar.nc2.grib.grib2.Grib2Record;
 
 /**
  *
  * @author yaqiang
  */
-public class GRIB2DataInfo extends DataInfo implements IGridDataInfo {
+public class GRIB2DataInfo extends DataInfo {
 
     // <editor-fold desc="Variables">
     private int _headerLength = 0;
     private List<GRIB2MessageIndex> _messageIdxList = new ArrayList<>();
+    private Map<MessageKey, GRIB2MessageIndex> _messageIdxMap;
+    private boolean _useIndexFile = false;
     private ProjectionInfo _projInfo;
     // </editor-fold>
     // <editor-fold desc="Constructor">
@@ -68,6 +63,26 @@ public class GRIB2DataInfo extends DataInfo implements IGridDataInfo {
     public void setHeaderLength(int length) {
         _headerLength = length;
     }
+
+    /**
+     * Get if use sidecar index file
+     *
+     * @return Use index file or not
+     */
+    public boolean isUseIndexFile() {
+        return _useIndexFile;
+    }
+
+    /**
+     * Set if use sidecar index file, default is false. The message inventory
+     * is read from the index file if it matches the data file, otherwise the
+     * data file is scanned and the index file is written.
+     *
+     * @param value Use index file or not
+     */
+    public void setUseIndexFile(boolean value) {
+        _useIndexFile = value;
+    }
     // </editor-fold>
     // <editor-fold desc="Methods">
 
@@ -79,111 +94,152 @@ public class GRIB2DataInfo extends DataInfo implements IGridDataInfo {
     @Override
     public void readDataInfo(String fileName) {
         this.setFileName(fileName);
-        try {
-            RandomAccessFile br = new RandomAccessFile(fileName, "r");
-
-            //Shift header
-            br.seek(_headerLength);
-            boolean isNewTime = false;
-            int recordNum = 0;
-            int gridNum = 0;
-            List<Date> times = new ArrayList<Date>();
-            List<Variable> variables = new ArrayList<Variable>();
-            double[] X, Y;
-            while (br.getFilePointer() < br.length() - 30) {
-                Grib2SectionIndicator rINS = new Grib2SectionIndicator(br);
-                long messageStart = rINS.getStartPos();
-                long messageEnd = rINS.getEndPos();
-                Grib2SectionIdentification rIDS = new Grib2SectionIdentification(br);
+        List<GRIB2MessageIndex> messageIdxList = null;
+        if (_useIndexFile) {
+            messageIdxList = GRIB2IndexFile.read(fileName);
+        }
+        if (messageIdxList == null) {
+            try {
+                messageIdxList = scanMessages(fileName);
+            } catch (IOException ex) {
+                Logger.getLogger(GRIB2DataInfo.class.getName()).log(Level.SEVERE, null, ex);
+                return;
+            }
+            if (_useIndexFile) {
+                GRIB2IndexFile.write(fileName, messageIdxList);
+            }
+        }
 
-                while (this.readSectionNumber(br) != 8) {
-                    int sectionNum = readSectionNumber(br);
-                    GRIB2MessageIndex messageIdx = new GRIB2MessageIndex();
-                    messageIdx.messagePos = messageStart;
-                    messageIdx.dataPos = br.getFilePointer();
-                    messageIdx.startSection = sectionNum;
-                    if (sectionNum == 2) {
-                        Grib2SectionLocalUse rLUS = new Grib2SectionLocalUse(br);
-                        Grib2SectionGridDefinition rGDS = new Grib2SectionGridDefinition(br);
-                        if (gridNum == 0) {
-                            //this._projInfo = getProjectionInfo(rGDS);
-                            this.setProjectionInfo(this._projInfo);
-                            //Object[] XY = this.getXYArray(rGDS);
-                            //X = (double[]) XY[0];
-                            //Y = (double[]) XY[1];
-//                            Dimension xDim = new Dimension(DimensionType.X);
-//                            xDim.setValues(X);
-//                            this.setXDimension(xDim);
-//                            Dimension yDim = new Dimension(DimensionType.Y);
-//                            yDim.setValues(Y);
-//                            this.setYDimension(yDim);
-                        } else {
-                            //Object[] XY = this.getXYArray(rGDS);
-                            //X = (double[]) XY[0];
-                            //Y = (double[]) XY[1];
-                        }
-                        gridNum += 1;
-                    }
-                    if (sectionNum == 3) {
-                        Grib2SectionGridDefinition rGDS = new Grib2SectionGridDefinition(br);
-                        if (gridNum == 0) {
-                            //this._projInfo = getProjectionInfo(rGDS);
-                            this.setProjectionInfo(this._projInfo);
-                            //Object[] XY = this.getXYArray(rGDS);
-                            //X = (double[]) XY[0];
-                            //Y = (double[]) XY[1];
-//                            Dimension xDim = new Dimension(DimensionType.X);
-//                            xDim.setValues(X);
-//                            this.setXDimension(xDim);
-//                            Dimension yDim = new Dimension(DimensionType.Y);
-//                            yDim.setValues(Y);
-//                            this.setYDimension(yDim);
-                        } else {
-                            //Object[] XY = this.getXYArray(rGDS);
-                            //X = (double[]) XY[0];
-                            //Y = (double[]) XY[1];
-                        }
-                        gridNum += 1;
-                    }
-                    Grib2SectionProductDefinition rPDS = new Grib2SectionProductDefinition(br);
-                    seekNextSction(br);    //Skip Data representation section
-                    seekNextSction(br);    //Skip Bitmap section
-                    seekNextSction(br);    //Skip Data section
+        _messageIdxList = messageIdxList;
+        _messageIdxMap = new HashMap<>();
+        for (GRIB2MessageIndex messageIdx : messageIdxList) {
+            _messageIdxMap.putIfAbsent(new MessageKey(messageIdx.getParameterName(),
+                    messageIdx.dateTime.getTime(), messageIdx.level), messageIdx);
+        }
+    }
 
-                    recordNum += 1;
-                                        
+    /**
+     * Scan all records of a GRIB2 data file to build message index list
+     *
+     * @param fileName GRIB2 data file name
+     * @return Message index list
+     * @throws IOException
+     */
+    private List<GRIB2MessageIndex> scanMessages(String fileName) throws IOException {
+        List<GRIB2MessageIndex> messageIdxList = new ArrayList<>();
+        GRIB2RecordReader reader = new GRIB2RecordReader(fileName);
+        try {
+            while (reader.hasNext()) {
+                Grib2Record record = reader.next();
+                Grib2Pds pds = record.getPDS();
+                long unitMillis = getTimeUnitMillis(pds.getTimeUnit());
+                if (unitMillis < 0) {
+                    Logger.getLogger(GRIB2DataInfo.class.getName()).log(Level.WARNING,
+                            "Skip the message at {0} with unsupported forecast time unit {1}",
+                            new Object[]{record.getIs().getStartPos(), pds.getTimeUnit()});
+                    continue;
                 }
+                GRIB2MessageIndex messageIdx = new GRIB2MessageIndex();
+                messageIdx.messagePos = record.getIs().getStartPos();
+                messageIdx.dataPos = record.getDataRepresentationSection().getStartingPosition();
+                messageIdx.discipline = record.getDiscipline();
+                messageIdx.category = pds.getParameterCategory();
+                messageIdx.number = pds.getParameterNumber();
+                messageIdx.levelType = pds.getLevelType1();
+                messageIdx.level = pds.getLevelValue1();
+                messageIdx.dateTime = new Date(record.getReferenceDate().getMillis() +
+                        unitMillis * pds.getForecastTime());
+                messageIdx.parameter.setName(messageIdx.getParameterName());
+                messageIdxList.add(messageIdx);
             }
+        } finally {
+            reader.close();
+        }
 
-            br.close();
-        } catch (FileNotFoundException ex) {
-            Logger.getLogger(GRIB2DataInfo.class.getName()).log(Level.SEVERE, null, ex);
-        } catch (IOException ex) {
-            Logger.getLogger(GRIB2DataInfo.class.getName()).log(Level.SEVERE, null, ex);
+        return messageIdxList;
+    }
+
+    /**
+     * Get milliseconds of a GRIB2 forecast time unit (code table 4.4). The
+     * calendar units (month, year, ...) have no fixed length and are not
+     * supported.
+     *
+     * @param timeUnit Time unit code
+     * @return Milliseconds, -1 if the time unit is not supported
+     */
+    static long getTimeUnitMillis(int timeUnit) {
+        long hour = 3600000L;
+        switch (timeUnit) {
+            case 0:
+                return 60000L;
+            case 1:
+                return hour;
+            case 2:
+                return 24 * hour;
+            case 10:
+                return 3 * hour;
+            case 11:
+                return 6 * hour;
+            case 12:
+                return 12 * hour;
+            case 13:
+                return 1000L;
+            default:
+                return -1;
         }
     }
 
-    private int readSectionNumber(RandomAccessFile br) throws IOException {
-        byte[] bytes = br.readBytes(4);
-        if (new String(bytes).trim().equals("GRIB")) {
-            br.seek(br.getFilePointer() - 4);
-            return 0;
-        } else if (bytes[0] == '7' && bytes[1] == '7' && bytes[2] == '7' && bytes[3] == '7') {
-            br.seek(br.getFilePointer() - 4);
-            return 8;
-        } else {
-            int sectionNum = br.readByte();
-            br.seek(br.getFilePointer() - 5);
-            return sectionNum;
+    /**
+     * Get message index list
+     *
+     * @return Message index list
+     */
+    public List<GRIB2MessageIndex> getMessageIndexList() {
+        return _messageIdxList;
+    }
+
+    /**
+     * Get the message index of a parameter, time and level
+     *
+     * @param paramName Parameter name
+     * @param time Time
+     * @param level Level value
+     * @return Message index, null if not exists
+     */
+    public GRIB2MessageIndex getMessageIndex(String paramName, Date time, double level) {
+        if (_messageIdxMap == null) {
+            return null;
         }
+        return _messageIdxMap.get(new MessageKey(paramName, time.getTime(), level));
     }
 
-    private void seekNextSction(RandomAccessFile br) {
+    /**
+     * Read grid data array of a parameter, time and level
+     *
+     * @param paramName Parameter name
+     * @param time Time
+     * @param level Level value
+     * @return Data array, null if the message not exists
+     */
+    public Array readArray(String paramName, Date time, double level) {
+        GRIB2MessageIndex messageIdx = getMessageIndex(paramName, time, level);
+        if (messageIdx == null) {
+            return null;
+        }
+
+        GRIB2RecordReader reader = new GRIB2RecordReader(this.getFileName());
         try {
-            int length = Bytes2Number.int4(br.getRandomAccessFile());
-            br.seek(br.getFilePointer() + length - 4);
+            Grib2Record record = reader.getDataRecordByDrsPos(messageIdx.dataPos);
+            return record == null ? null : reader.readData(record);
         } catch (IOException ex) {
             Logger.getLogger(GRIB2DataInfo.class.getName()).log(Level.SEVERE, null, ex);
+            return null;
+        } finally {
+            try {
+                reader.close();
+            } catch (IOException ex) {
+                Logger.getLogger(GRIB2DataInfo.class.getName()).log(Level.SEVERE, null, ex);
+            }
         }
     }
 
@@ -475,68 +531,45 @@ public class GRIB2DataInfo extends DataInfo implements IGridDataInfo {
 
     @Override
     public String generateInfoText() {
-        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
-    }
-    
-    /**
-     * Get grid data
-     *
-     * @param varName Variable name
-     * @return Grid data
-     */
-    @Override
-    public GridArray getGridArray(String varName) {
-        return null;    
-    }
-
-    @Override
-    public GridData getGridData_LonLat(int timeIdx, String varName, int levelIdx) {
-        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
-    }
-
-    @Override
-    public GridData getGridData_TimeLat(int lonIdx, String varName, int levelIdx) {
-        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
-    }
-
-    @Override
-    public GridData getGridData_TimeLon(int latIdx, String varName, int levelIdx) {
-        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
-    }
-
-    @Override
-    public GridData getGridData_LevelLat(int lonIdx, String varName, int timeIdx) {
-        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
-    }
-
-    @Override
-    public GridData getGridData_LevelLon(int latIdx, String varName, int timeIdx) {
-        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
-    }
+        StringBuilder sb = new StringBuilder();
+        sb.append("File Name: ").append(this.getFileName());
+        sb.append(System.getProperty("line.separator")).append("Messages: ").append(_messageIdxList.size());
+        for (GRIB2MessageIndex messageIdx : _messageIdxList) {
+            sb.append(System.getProperty("line.separator")).append("\t").append(messageIdx.getParameterName())
+                    .append(" ").append(messageIdx.dateTime).append(" ").append(messageIdx.level);
+        }
 
-    @Override
-    public GridData getGridData_LevelTime(int latIdx, String varName, int lonIdx) {
-        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+        return sb.toString();
     }
+    // </editor-fold>
 
-    @Override
-    public GridData getGridData_Time(int lonIdx, int latIdx, String varName, int levelIdx) {
-        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
-    }
+    private static class MessageKey {
+        final String paramName;
+        final long time;
+        final double level;
 
-    @Override
-    public GridData getGridData_Level(int lonIdx, int latIdx, String varName, int timeIdx) {
-        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
-    }
+        MessageKey(String paramName, long time, double level) {
+            this.paramName = paramName;
+            this.time = time;
+            this.level = level;
+        }
 
-    @Override
-    public GridData getGridData_Lon(int timeIdx, int latIdx, String varName, int levelIdx) {
-        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
-    }
+        @Override
+        public int hashCode() {
+            int result = paramName.hashCode();
+            result = 31 * result + Long.hashCode(time);
+            result = 31 * result + Double.hashCode(level);
+            return result;
+        }
 
-    @Override
-    public GridData getGridData_Lat(int timeIdx, int lonIdx, String varName, int levelIdx) {
-        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof MessageKey)) {
+                return false;
+            }
+            MessageKey other = (MessageKey) o;
+            return time == other.time && Double.compare(level, other.level) == 0
+                    && paramName.equals(other.paramName);
+        }
     }
-    // </editor-fold>
 }
\ No newline at end of file
@@ -0,0 +1,158 @@
+package org.meteoinfo.data.meteodata.grib2;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sidecar index file of the message inventory of a GRIB2 data file.
+ *
+ * <p>The index is a small binary file beside the data file. It starts with a
+ * magic number, a version and the length and last modified time of the data
+ * file, so a stale index is ignored and rebuilt. The message entries have
+ * fixed length and are read through a memory mapped buffer.
+ *
+ * @author Yaqiang Wang
+ */
+public class GRIB2IndexFile {
+
+    // <editor-fold desc="Variables">
+    /**
+     * Index file name extension
+     */
+    public static final String EXTENSION = ".mi2x";
+    private static final int MAGIC = 0x4D493258;    //MI2X
+    private static final int VERSION = 1;
+    private static final int HEADER_LENGTH = 4 + 4 + 8 + 8 + 4;
+    private static final int ENTRY_LENGTH = 8 + 8 + 4 + 8 + 8 + 4 * 4;
+    // </editor-fold>
+    // <editor-fold desc="Constructor">
+
+    private GRIB2IndexFile() {
+    }
+    // </editor-fold>
+    // <editor-fold desc="Methods">
+
+    /**
+     * Get index file of a GRIB2 data file
+     *
+     * @param fileName GRIB2 data file name
+     * @return Index file
+     */
+    public static File getIndexFile(String fileName) {
+        return new File(fileName + EXTENSION);
+    }
+
+    /**
+     * Read message index list from the index file of a GRIB2 data file
+     *
+     * @param fileName GRIB2 data file name
+     * @return Message index list, null if the index file does not exist or
+     * does not match the data file
+     */
+    public static List<GRIB2MessageIndex> read(String fileName) {
+        File dataFile = new File(fileName);
+        File indexFile = getIndexFile(fileName);
+        if (!indexFile.isFile() || indexFile.length() < HEADER_LENGTH) {
+            return null;
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(indexFile, "r");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                    || buffer.getLong() != dataFile.length()
+                    || buffer.getLong() != dataFile.lastModified()) {
+                return null;
+            }
+            int n = buffer.getInt();
+            if (n < 0 || buffer.remaining() < (long) n * ENTRY_LENGTH) {
+                return null;
+            }
+
+            List<GRIB2MessageIndex> messageIdxList = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                GRIB2MessageIndex messageIdx = new GRIB2MessageIndex();
+                messageIdx.messagePos = buffer.getLong();
+                messageIdx.dataPos = buffer.getLong();
+                messageIdx.startSection = buffer.getInt();
+                messageIdx.dateTime = new Date(buffer.getLong());
+                messageIdx.level = buffer.getDouble();
+                messageIdx.discipline = buffer.getInt();
+                messageIdx.category = buffer.getInt();
+                messageIdx.number = buffer.getInt();
+                messageIdx.levelType = buffer.getInt();
+                messageIdx.parameter.setName(messageIdx.getParameterName());
+                messageIdxList.add(messageIdx);
+            }
+            return messageIdxList;
+        } catch (IOException ex) {
+            Logger.getLogger(GRIB2IndexFile.class.getName()).log(Level.WARNING, null, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Write message index list to the index file of a GRIB2 data file. The
+     * index is written to a temporary file first and then moved, so other
+     * processes never see a partial index.
+     *
+     * @param fileName GRIB2 data file name
+     * @param messageIdxList Message index list
+     * @return Written or not
+     */
+    public static boolean write(String fileName, List<GRIB2MessageIndex> messageIdxList) {
+        File dataFile = new File(fileName);
+        File indexFile = getIndexFile(fileName);
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile(indexFile.getName(), ".tmp", indexFile.getAbsoluteFile().getParentFile());
+            try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(tempFile)))) {
+                dos.writeInt(MAGIC);
+                dos.writeInt(VERSION);
+                dos.writeLong(dataFile.length());
+                dos.writeLong(dataFile.lastModified());
+                dos.writeInt(messageIdxList.size());
+                for (GRIB2MessageIndex messageIdx : messageIdxList) {
+                    dos.writeLong(messageIdx.messagePos);
+                    dos.writeLong(messageIdx.dataPos);
+                    dos.writeInt(messageIdx.startSection);
+                    dos.writeLong(messageIdx.dateTime.getTime());
+                    dos.writeDouble(messageIdx.level);
+                    dos.writeInt(messageIdx.discipline);
+                    dos.writeInt(messageIdx.category);
+                    dos.writeInt(messageIdx.number);
+                    dos.writeInt(messageIdx.levelType);
+                }
+            }
+            try {
+                Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException ex) {
+            //The data directory may be read only
+            Logger.getLogger(GRIB2IndexFile.class.getName()).log(Level.FINE, null, ex);
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+            return false;
+        }
+    }
+    // </editor-fold>
+}
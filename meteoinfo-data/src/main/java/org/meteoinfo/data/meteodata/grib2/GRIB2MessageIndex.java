@@ -20,7 +20,7 @@ public class GRIB2MessageIndex {
 
     public long messagePos;
     /// <summary>
-    /// Grid data position. record repeat start postion
+    /// Grid data position. data representation section start postion
     /// </summary>
     public long dataPos;
     /// <summary>
@@ -39,6 +39,22 @@ public class GRIB2MessageIndex {
     /// Parameter
     /// </summary>
     public Variable parameter;
+    /// <summary>
+    /// Discipline
+    /// </summary>
+    public int discipline;
+    /// <summary>
+    /// Parameter category
+    /// </summary>
+    public int category;
+    /// <summary>
+    /// Parameter number
+    /// </summary>
+    public int number;
+    /// <summary>
+    /// Level type
+    /// </summary>
+    public int levelType;
     // </editor-fold>
     // <editor-fold desc="Constructor">
 
@@ -54,6 +70,15 @@ public class GRIB2MessageIndex {
     // </editor-fold>
     // <editor-fold desc="Methods">
 
+    /**
+     * Get parameter name from discipline, category, number and level type
+     *
+     * @return Parameter name
+     */
+    public String getParameterName() {
+        return "VAR_" + discipline + "-" + category + "-" + number + "_L" + levelType;
+    }
+
     /**
      * Judge if two message index are equal
      *
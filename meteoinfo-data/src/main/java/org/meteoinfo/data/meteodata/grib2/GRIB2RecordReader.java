@@ -78,6 +78,16 @@ public class GRIB2RecordReader {
         return this.scanner.next();
     }
 
+    /**
+     * Get data record from the start byte of its data representation section
+     * @param drsPos Data representation section start byte position
+     * @return Data record
+     * @throws IOException
+     */
+    public Grib2Record getDataRecordByDrsPos(long drsPos) throws IOException {
+        return Grib2RecordScanner.findRecordByDrspos(this.raf, drsPos);
+    }
+
     /**
      * Get current file position
      * @return Current file position
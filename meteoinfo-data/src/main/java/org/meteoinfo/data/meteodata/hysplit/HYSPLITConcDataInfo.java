@@ -42,6 +42,7 @@ import org.meteoinfo.ndarray.InvalidRangeException;
 import org.meteoinfo.ndarray.Range;
 import org.meteoinfo.ndarray.Section;
 import org.meteoinfo.data.meteodata.Attribute;
+import org.meteoinfo.data.meteodata.util.FileHandlePool;
 import org.meteoinfo.ndarray.util.BigDecimalUtil;
 
  /**
@@ -102,284 +103,286 @@ public class HYSPLITConcDataInfo extends DataInfo implements IGridDataInfo {
         try {
             this.setFileName(fileName);
 
-            RandomAccessFile br = new RandomAccessFile(fileName, "r");
-            int i, j, hBytes;
-            byte[] aBytes;
-
-            //Record #1
-            br.skipBytes(4);
-            aBytes = new byte[4];
-            br.read(aBytes);
-            String Ident = new String(aBytes);
-            byte[] bytes = new byte[28];
-            br.read(bytes);
-            int start = 0;
-            System.arraycopy(bytes, start, aBytes, 0, 4);
-            int year = DataConvert.bytes2Int(aBytes, byteOrder);
-            start += 4;
-            System.arraycopy(bytes, start, aBytes, 0, 4);
-            int month = DataConvert.bytes2Int(aBytes, byteOrder);
-            start += 4;
-            System.arraycopy(bytes, start, aBytes, 0, 4);
-            int day = DataConvert.bytes2Int(aBytes, byteOrder);
-            start += 4;
-            System.arraycopy(bytes, start, aBytes, 0, 4);
-            int hour = DataConvert.bytes2Int(aBytes, byteOrder);
-            start += 4;
-            System.arraycopy(bytes, start, aBytes, 0, 4);
-            int forecast_hour = DataConvert.bytes2Int(aBytes, byteOrder);
-            start += 4;
-            System.arraycopy(bytes, start, aBytes, 0, 4);
-            _loc_num = DataConvert.bytes2Int(aBytes, byteOrder);
-            start += 4;
-            System.arraycopy(bytes, start, aBytes, 0, 4);
-            _pack_flag = DataConvert.bytes2Int(aBytes, byteOrder);
-
-            //Record #2
-            Object[][] locArray = new Object[8][_loc_num];
-            bytes = new byte[_loc_num * (8 + 32)];
-            br.read(bytes);
-            start = 0;
-            for (i = 0; i < _loc_num; i++) {
-                start += 8;
-                for (j = 0; j < 4; j++) {
-                    System.arraycopy(bytes, start, aBytes, 0, 4);
-                    locArray[j][i] = DataConvert.bytes2Int(aBytes, byteOrder);
-                    start += 4;
-                }
-                for (j = 4; j < 7; j++) {
-                    System.arraycopy(bytes, start, aBytes, 0, 4);
-                    locArray[j][i] = DataConvert.bytes2Float(aBytes, byteOrder);
-                    start += 4;
-                }
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(fileName);
+            try {
+                int i, j, hBytes;
+                byte[] aBytes;
+
+                //Record #1
+                br.skipBytes(4);
+                aBytes = new byte[4];
+                br.read(aBytes);
+                String Ident = new String(aBytes);
+                byte[] bytes = new byte[28];
+                br.read(bytes);
+                int start = 0;
                 System.arraycopy(bytes, start, aBytes, 0, 4);
-                locArray[7][i] = DataConvert.bytes2Int(aBytes, byteOrder);
+                int year = DataConvert.bytes2Int(aBytes, byteOrder);
                 start += 4;
-            }
-
-            //Record #3
-            String fName = new File(fileName).getName().toLowerCase();
-            if (fName.contains("gemzint")) {
-                br.skipBytes(4);   //For vertical concentration file gemzint
-            } else {
-                br.skipBytes(8);
-            }
-            bytes = new byte[24];
-            br.read(bytes);
-            start = 0;
-            System.arraycopy(bytes, start, aBytes, 0, 4);
-            int lat_point_num = DataConvert.bytes2Int(aBytes, byteOrder);
-            start += 4;
-            System.arraycopy(bytes, start, aBytes, 0, 4);
-            int lon_point_num = DataConvert.bytes2Int(aBytes, byteOrder);
-            start += 4;
-            System.arraycopy(bytes, start, aBytes, 0, 4);
-            float lat_delta = DataConvert.bytes2Float(aBytes, byteOrder);
-            start += 4;
-            System.arraycopy(bytes, start, aBytes, 0, 4);
-            float lon_delta = DataConvert.bytes2Float(aBytes, byteOrder);
-            start += 4;
-            System.arraycopy(bytes, start, aBytes, 0, 4);
-            float lat_LF = DataConvert.bytes2Float(aBytes, byteOrder);
-            start += 4;
-            System.arraycopy(bytes, start, aBytes, 0, 4);
-            float lon_LF = DataConvert.bytes2Float(aBytes, byteOrder);
-
-            double[] X = new double[lon_point_num];
-            double[] Y = new double[lat_point_num];
-            double lonMin = BigDecimalUtil.toDouble(lon_LF);
-            double lonDelta = BigDecimalUtil.toDouble(lon_delta);
-            for (i = 0; i < lon_point_num; i++) {
-                X[i] = BigDecimalUtil.add(lonMin, BigDecimalUtil.mul(i, lonDelta));
-            }
-            if (X[0] == 0 && BigDecimalUtil.add(X[X.length - 1], lon_delta) == 360) {
-                this.setGlobal(true);
-            }
-            double latMin = BigDecimalUtil.toDouble(lat_LF);
-            double latDelta = BigDecimalUtil.toDouble(lat_delta);
-            for (i = 0; i < lat_point_num; i++) {
-                Y[i] = BigDecimalUtil.add(latMin, BigDecimalUtil.mul(i, latDelta));
-            }
-            
-            this.addAttribute(new Attribute("data_format", "HYSPLIT Concentration"));
-            Dimension xDim = new Dimension(DimensionType.X);
-            xDim.setShortName("lon");
-            xDim.setValues(X);
-            this.setXDimension(xDim);
-            this.addDimension(xDim);            
-            Dimension yDim = new Dimension(DimensionType.Y);
-            yDim.setShortName("lat");
-            yDim.setValues(Y);
-            this.setYDimension(yDim);
-            this.addDimension(yDim);
-            List<Variable> variables = new ArrayList<>();
-
-            //Record #4
-            br.skipBytes(8);
-            br.read(aBytes);
-            int level_num = DataConvert.bytes2Int(aBytes, byteOrder);
-            double[] heights = new double[level_num];
-            bytes = new byte[level_num * 4];
-            br.read(bytes);
-            start = 0;
-            for (i = 0; i < level_num; i++) {
                 System.arraycopy(bytes, start, aBytes, 0, 4);
-                heights[i] = DataConvert.bytes2Int(aBytes, byteOrder);
+                int month = DataConvert.bytes2Int(aBytes, byteOrder);
                 start += 4;
-            }
-            Dimension zDim = new Dimension(DimensionType.Z);
-            zDim.setName("z");
-            zDim.setValues(heights);
-            this.setZDimension(zDim);
-            this.addDimension(zDim);
-
-            //Record #5
-            br.skipBytes(8);
-            br.read(aBytes);
-            int pollutant_num = DataConvert.bytes2Int(aBytes, byteOrder);     
-            String vName;
-            for (i = 0; i < pollutant_num; i++) {
-                br.read(aBytes);
-                vName = new String(aBytes);
-                vName = vName.trim();
-                Variable var = new Variable();
-                var.setName(vName);
-                var.setDataType(DataType.FLOAT);
-                var.addAttribute("long_name", vName);
-                variables.add(var);
-            }
-            this.setVariables(variables);
-
-            hBytes = 36 + lon_point_num * 40 + 32 + 12 + level_num * 4 + 12
-                    + pollutant_num * 4;
-            int hByte_num = hBytes;
-
-            //Record Data
-            int k, tNum;
-            tNum = 0;
-            int[] sampleTimes = new int[6];
-            String dStr;
-            LocalDateTime aDateTime;
-            List<LocalDateTime> sample_start = new ArrayList<>();
-            List<LocalDateTime> sample_stop = new ArrayList<>();
-            do {
-                //Record #6
-                br.skipBytes(8);
-                bytes = new byte[24];
+                System.arraycopy(bytes, start, aBytes, 0, 4);
+                int day = DataConvert.bytes2Int(aBytes, byteOrder);
+                start += 4;
+                System.arraycopy(bytes, start, aBytes, 0, 4);
+                int hour = DataConvert.bytes2Int(aBytes, byteOrder);
+                start += 4;
+                System.arraycopy(bytes, start, aBytes, 0, 4);
+                int forecast_hour = DataConvert.bytes2Int(aBytes, byteOrder);
+                start += 4;
+                System.arraycopy(bytes, start, aBytes, 0, 4);
+                _loc_num = DataConvert.bytes2Int(aBytes, byteOrder);
+                start += 4;
+                System.arraycopy(bytes, start, aBytes, 0, 4);
+                _pack_flag = DataConvert.bytes2Int(aBytes, byteOrder);
+
+                //Record #2
+                Object[][] locArray = new Object[8][_loc_num];
+                bytes = new byte[_loc_num * (8 + 32)];
                 br.read(bytes);
                 start = 0;
-                for (i = 0; i < 6; i++) {
+                for (i = 0; i < _loc_num; i++) {
+                    start += 8;
+                    for (j = 0; j < 4; j++) {
+                        System.arraycopy(bytes, start, aBytes, 0, 4);
+                        locArray[j][i] = DataConvert.bytes2Int(aBytes, byteOrder);
+                        start += 4;
+                    }
+                    for (j = 4; j < 7; j++) {
+                        System.arraycopy(bytes, start, aBytes, 0, 4);
+                        locArray[j][i] = DataConvert.bytes2Float(aBytes, byteOrder);
+                        start += 4;
+                    }
                     System.arraycopy(bytes, start, aBytes, 0, 4);
-                    sampleTimes[i] = DataConvert.bytes2Int(aBytes, byteOrder);
+                    locArray[7][i] = DataConvert.bytes2Int(aBytes, byteOrder);
                     start += 4;
                 }
-                if (sampleTimes[1] == 0 || sampleTimes[2] == 0) {
-                    aDateTime = LocalDateTime.now();
+
+                //Record #3
+                String fName = new File(fileName).getName().toLowerCase();
+                if (fName.contains("gemzint")) {
+                    br.skipBytes(4);   //For vertical concentration file gemzint
                 } else {
-                    year = sampleTimes[0];
-                    if (year < 50) {
-                        year = 2000 + year;
-                    } else {
-                        year = 1900 + year;
-                    }
-                    aDateTime = LocalDateTime.of(year, sampleTimes[1], sampleTimes[2],
-                            sampleTimes[3], sampleTimes[4], 0);
+                    br.skipBytes(8);
                 }
-                sample_start.add(aDateTime);
-
-                //Record #7
-                br.skipBytes(8);
                 bytes = new byte[24];
                 br.read(bytes);
                 start = 0;
-                for (i = 0; i < 6; i++) {
+                System.arraycopy(bytes, start, aBytes, 0, 4);
+                int lat_point_num = DataConvert.bytes2Int(aBytes, byteOrder);
+                start += 4;
+                System.arraycopy(bytes, start, aBytes, 0, 4);
+                int lon_point_num = DataConvert.bytes2Int(aBytes, byteOrder);
+                start += 4;
+                System.arraycopy(bytes, start, aBytes, 0, 4);
+                float lat_delta = DataConvert.bytes2Float(aBytes, byteOrder);
+                start += 4;
+                System.arraycopy(bytes, start, aBytes, 0, 4);
+                float lon_delta = DataConvert.bytes2Float(aBytes, byteOrder);
+                start += 4;
+                System.arraycopy(bytes, start, aBytes, 0, 4);
+                float lat_LF = DataConvert.bytes2Float(aBytes, byteOrder);
+                start += 4;
+                System.arraycopy(bytes, start, aBytes, 0, 4);
+                float lon_LF = DataConvert.bytes2Float(aBytes, byteOrder);
+
+                double[] X = new double[lon_point_num];
+                double[] Y = new double[lat_point_num];
+                double lonMin = BigDecimalUtil.toDouble(lon_LF);
+                double lonDelta = BigDecimalUtil.toDouble(lon_delta);
+                for (i = 0; i < lon_point_num; i++) {
+                    X[i] = BigDecimalUtil.add(lonMin, BigDecimalUtil.mul(i, lonDelta));
+                }
+                if (X[0] == 0 && BigDecimalUtil.add(X[X.length - 1], lon_delta) == 360) {
+                    this.setGlobal(true);
+                }
+                double latMin = BigDecimalUtil.toDouble(lat_LF);
+                double latDelta = BigDecimalUtil.toDouble(lat_delta);
+                for (i = 0; i < lat_point_num; i++) {
+                    Y[i] = BigDecimalUtil.add(latMin, BigDecimalUtil.mul(i, latDelta));
+                }
+            
+                this.addAttribute(new Attribute("data_format", "HYSPLIT Concentration"));
+                Dimension xDim = new Dimension(DimensionType.X);
+                xDim.setShortName("lon");
+                xDim.setValues(X);
+                this.setXDimension(xDim);
+                this.addDimension(xDim);            
+                Dimension yDim = new Dimension(DimensionType.Y);
+                yDim.setShortName("lat");
+                yDim.setValues(Y);
+                this.setYDimension(yDim);
+                this.addDimension(yDim);
+                List<Variable> variables = new ArrayList<>();
+
+                //Record #4
+                br.skipBytes(8);
+                br.read(aBytes);
+                int level_num = DataConvert.bytes2Int(aBytes, byteOrder);
+                double[] heights = new double[level_num];
+                bytes = new byte[level_num * 4];
+                br.read(bytes);
+                start = 0;
+                for (i = 0; i < level_num; i++) {
                     System.arraycopy(bytes, start, aBytes, 0, 4);
-                    sampleTimes[i] = DataConvert.bytes2Int(aBytes, byteOrder);
+                    heights[i] = DataConvert.bytes2Int(aBytes, byteOrder);
                     start += 4;
                 }
-                if (sampleTimes[1] == 0 || sampleTimes[2] == 0) {
-                    aDateTime = LocalDateTime.now();
-                } else {
-                    year = sampleTimes[0];
-                    if (year < 50) {
-                        year = 2000 + year;
-                    } else {
-                        year = 1900 + year;
-                    }
-                    aDateTime = LocalDateTime.of(year, sampleTimes[1], sampleTimes[2],
-                            sampleTimes[3], sampleTimes[4], 0);
-                }
-                sample_stop.add(aDateTime);
+                Dimension zDim = new Dimension(DimensionType.Z);
+                zDim.setName("z");
+                zDim.setValues(heights);
+                this.setZDimension(zDim);
+                this.addDimension(zDim);
 
-                //Record 8;
-                int aLevel, aN, IP, JP;
-                String aType;
+                //Record #5
+                br.skipBytes(8);
+                br.read(aBytes);
+                int pollutant_num = DataConvert.bytes2Int(aBytes, byteOrder);     
+                String vName;
                 for (i = 0; i < pollutant_num; i++) {
-                    for (j = 0; j < level_num; j++) {
-                        if (_pack_flag == 1) {
-                            br.skipBytes(8);
-                            br.read(aBytes);
-                            aType = new String(aBytes);
-                            br.read(aBytes);
-                            aLevel = DataConvert.bytes2Int(aBytes, byteOrder);
-                            br.read(aBytes);
-                            aN = DataConvert.bytes2Int(aBytes, byteOrder);
-                            br.skipBytes(aN * 8);
+                    br.read(aBytes);
+                    vName = new String(aBytes);
+                    vName = vName.trim();
+                    Variable var = new Variable();
+                    var.setName(vName);
+                    var.setDataType(DataType.FLOAT);
+                    var.addAttribute("long_name", vName);
+                    variables.add(var);
+                }
+                this.setVariables(variables);
+
+                hBytes = 36 + lon_point_num * 40 + 32 + 12 + level_num * 4 + 12
+                        + pollutant_num * 4;
+                int hByte_num = hBytes;
+
+                //Record Data
+                int k, tNum;
+                tNum = 0;
+                int[] sampleTimes = new int[6];
+                String dStr;
+                LocalDateTime aDateTime;
+                List<LocalDateTime> sample_start = new ArrayList<>();
+                List<LocalDateTime> sample_stop = new ArrayList<>();
+                do {
+                    //Record #6
+                    br.skipBytes(8);
+                    bytes = new byte[24];
+                    br.read(bytes);
+                    start = 0;
+                    for (i = 0; i < 6; i++) {
+                        System.arraycopy(bytes, start, aBytes, 0, 4);
+                        sampleTimes[i] = DataConvert.bytes2Int(aBytes, byteOrder);
+                        start += 4;
+                    }
+                    if (sampleTimes[1] == 0 || sampleTimes[2] == 0) {
+                        aDateTime = LocalDateTime.now();
+                    } else {
+                        year = sampleTimes[0];
+                        if (year < 50) {
+                            year = 2000 + year;
                         } else {
-                            br.skipBytes(8);
-                            br.read(aBytes);
-                            aType = new String(aBytes);
-                            br.read(aBytes);
-                            aLevel = DataConvert.bytes2Int(aBytes, byteOrder);
-                            br.skipBytes(lat_point_num * lon_point_num * 4);
+                            year = 1900 + year;
                         }
+                        aDateTime = LocalDateTime.of(year, sampleTimes[1], sampleTimes[2],
+                                sampleTimes[3], sampleTimes[4], 0);
                     }
-                }
+                    sample_start.add(aDateTime);
+
+                    //Record #7
+                    br.skipBytes(8);
+                    bytes = new byte[24];
+                    br.read(bytes);
+                    start = 0;
+                    for (i = 0; i < 6; i++) {
+                        System.arraycopy(bytes, start, aBytes, 0, 4);
+                        sampleTimes[i] = DataConvert.bytes2Int(aBytes, byteOrder);
+                        start += 4;
+                    }
+                    if (sampleTimes[1] == 0 || sampleTimes[2] == 0) {
+                        aDateTime = LocalDateTime.now();
+                    } else {
+                        year = sampleTimes[0];
+                        if (year < 50) {
+                            year = 2000 + year;
+                        } else {
+                            year = 1900 + year;
+                        }
+                        aDateTime = LocalDateTime.of(year, sampleTimes[1], sampleTimes[2],
+                                sampleTimes[3], sampleTimes[4], 0);
+                    }
+                    sample_stop.add(aDateTime);
 
-                tNum += 1;
+                    //Record 8;
+                    int aLevel, aN, IP, JP;
+                    String aType;
+                    for (i = 0; i < pollutant_num; i++) {
+                        for (j = 0; j < level_num; j++) {
+                            if (_pack_flag == 1) {
+                                br.skipBytes(8);
+                                br.read(aBytes);
+                                aType = new String(aBytes);
+                                br.read(aBytes);
+                                aLevel = DataConvert.bytes2Int(aBytes, byteOrder);
+                                br.read(aBytes);
+                                aN = DataConvert.bytes2Int(aBytes, byteOrder);
+                                br.skipBytes(aN * 8);
+                            } else {
+                                br.skipBytes(8);
+                                br.read(aBytes);
+                                aType = new String(aBytes);
+                                br.read(aBytes);
+                                aLevel = DataConvert.bytes2Int(aBytes, byteOrder);
+                                br.skipBytes(lat_point_num * lon_point_num * 4);
+                            }
+                        }
+                    }
 
-                if (br.getFilePointer() + 10 > br.length()) {
-                    break;
-                }
-            } while (true);
+                    tNum += 1;
 
-            Array tArray = Array.factory(DataType.DATE, new int[]{sample_start.size()});
-            IndexIterator iter = tArray.getIndexIterator();
-            for (LocalDateTime t : sample_start) {
-                iter.setDateNext(t);
-            }
-            Dimension tDim = new Dimension(DimensionType.T);
-            tDim.setName("time");
-            tDim.setDimValue(tArray);
-            this.setTimeDimension(tDim);
-            this.addDimension(tDim);
-
-            for (Variable v : variables) {                                
-                v.setDimension(tDim);
-                v.setDimension(zDim);
-                v.setDimension(yDim);
-                v.setDimension(xDim);
-            }
-            this.setVariables(variables);
-
-            //Add coordinate variables
-            Variable variable;
-            for (Dimension dim : this.dimensions) {
-                switch (dim.getDimType()) {
-                    case X:
-                    case Y:
-                    case Z:
-                    case T:
-                        variable = new Variable(dim.getName());
-                        variable.setDimVar(true);
-                        variable.setCachedData(dim.getDimValue());
-                        variable.addDimension(dim);
-                        this.addCoordinate(variable);
+                    if (br.getFilePointer() + 10 > br.length()) {
                         break;
+                    }
+                } while (true);
+
+                Array tArray = Array.factory(DataType.DATE, new int[]{sample_start.size()});
+                IndexIterator iter = tArray.getIndexIterator();
+                for (LocalDateTime t : sample_start) {
+                    iter.setDateNext(t);
                 }
+                Dimension tDim = new Dimension(DimensionType.T);
+                tDim.setName("time");
+                tDim.setDimValue(tArray);
+                this.setTimeDimension(tDim);
+                this.addDimension(tDim);
+
+                for (Variable v : variables) {                                
+                    v.setDimension(tDim);
+                    v.setDimension(zDim);
+                    v.setDimension(yDim);
+                    v.setDimension(xDim);
+                }
+                this.setVariables(variables);
+
+                //Add coordinate variables
+                Variable variable;
+                for (Dimension dim : this.dimensions) {
+                    switch (dim.getDimType()) {
+                        case X:
+                        case Y:
+                        case Z:
+                        case T:
+                            variable = new Variable(dim.getName());
+                            variable.setDimVar(true);
+                            variable.setCachedData(dim.getDimValue());
+                            variable.addDimension(dim);
+                            this.addCoordinate(variable);
+                            break;
+                    }
+                }
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(fileName, br);
             }
-
-            br.close();
         } catch (IOException ex) {
             Logger.getLogger(ASCIIGridDataInfo.class.getName()).log(Level.SEVERE, null, ex);
         }
@@ -467,129 +470,131 @@ public class HYSPLITConcDataInfo extends DataInfo implements IGridDataInfo {
     private void readXY(String varName, int timeIdx, int levelIdx, Range yRange, Range xRange, IndexIterator ii) {
         try {
             int varIdx = this.getVariableNames().indexOf(varName);
-            RandomAccessFile br = new RandomAccessFile(this.getFileName(), "r");
             int i, j, nBytes;
-            byte[] aBytes = new byte[4];
             int xNum = this.getXDimension().getLength();
             int yNum = this.getYDimension().getLength();
             double[][] dataArray = new double[xNum][yNum];
             double[] data = new double[yNum * xNum];
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(this.getFileName());
+            try {
+                byte[] aBytes = new byte[4];
 
-            //Record #1            
-            br.skipBytes(36);
+                //Record #1            
+                br.skipBytes(36);
 
-            //Record #2
-            nBytes = (8 * 4 + 8) * _loc_num;
-            br.skipBytes(nBytes);
+                //Record #2
+                nBytes = (8 * 4 + 8) * _loc_num;
+                br.skipBytes(nBytes);
 
-            //Record #3
-            String fName = new File(this.getFileName()).getName().toLowerCase();
-            if (fName.contains("gemzint")) {
-                br.skipBytes(28);   //For vertical concentration file gemzint
-            } else {
-                br.skipBytes(32);
-            }
+                //Record #3
+                String fName = new File(this.getFileName()).getName().toLowerCase();
+                if (fName.contains("gemzint")) {
+                    br.skipBytes(28);   //For vertical concentration file gemzint
+                } else {
+                    br.skipBytes(32);
+                }
 
-            //Record #4
-            nBytes = 12 + this.getZDimension().getLength() * 4;
-            br.skipBytes(nBytes);
-
-            //Record #5
-            nBytes = 12 + this.getDataVariableNum() * 4;
-            br.skipBytes(nBytes);
-
-            //Record Data
-            int t, k;
-            int aLevel, aN, IP, JP;
-            String aType;
-            double aConc;
-            byte[] bytes;
-            byte[] sbytes = new byte[2];
-            int start = 0;
-            for (t = 0; t < this.getTimeNum(); t++) {
-                br.skipBytes(64);
-
-                for (i = 0; i < this.getDataVariableNum(); i++) {
-                    for (j = 0; j < this.getZDimension().getLength(); j++) {
-                        if (t == timeIdx && i == varIdx && j == levelIdx) {
-                            if (br.getFilePointer() + 28 > br.length()) {
-                                break;
-                            }
-                            if (_pack_flag == 1) {
-                                br.skipBytes(8);
-                                br.read(aBytes);
-                                aType = new String(aBytes);
-                                br.read(aBytes);
-                                aLevel = DataConvert.bytes2Int(aBytes, byteOrder);
-                                br.read(aBytes);
-                                aN = DataConvert.bytes2Int(aBytes, byteOrder);
-                                bytes = new byte[aN * 8];
-                                br.read(bytes);
-                                start = 0;
-                                for (k = 0; k < aN; k++) {
-                                    System.arraycopy(bytes, start, sbytes, 0, 2);
-                                    IP = DataConvert.bytes2Short(sbytes, byteOrder) - 1;
-                                    start += 2;
-                                    System.arraycopy(bytes, start, sbytes, 0, 2);                                    
-                                    JP = DataConvert.bytes2Short(sbytes, byteOrder) - 1;
-                                    start += 2;
-                                    System.arraycopy(bytes, start, aBytes, 0, 4);
-                                    aConc = DataConvert.bytes2Float(aBytes, byteOrder);
-                                    start += 4;
-                                    if (IP >= 0 && IP < xNum && JP >= 0 && JP < yNum) {
-                                        dataArray[IP][JP] = aConc;
-                                    }
+                //Record #4
+                nBytes = 12 + this.getZDimension().getLength() * 4;
+                br.skipBytes(nBytes);
+
+                //Record #5
+                nBytes = 12 + this.getDataVariableNum() * 4;
+                br.skipBytes(nBytes);
+
+                //Record Data
+                int t, k;
+                int aLevel, aN, IP, JP;
+                String aType;
+                double aConc;
+                byte[] bytes;
+                byte[] sbytes = new byte[2];
+                int start = 0;
+                for (t = 0; t < this.getTimeNum(); t++) {
+                    br.skipBytes(64);
+
+                    for (i = 0; i < this.getDataVariableNum(); i++) {
+                        for (j = 0; j < this.getZDimension().getLength(); j++) {
+                            if (t == timeIdx && i == varIdx && j == levelIdx) {
+                                if (br.getFilePointer() + 28 > br.length()) {
+                                    break;
                                 }
-                            } else {
-                                br.skipBytes(8);
-                                br.read(aBytes);
-                                aType = new String(aBytes);
-                                br.read(aBytes);
-                                aLevel = DataConvert.bytes2Int(aBytes, byteOrder);
-                                bytes = new byte[yNum * xNum * 4];
-                                br.read(bytes);
-                                start = 0;
-                                for (JP = 0; JP < yNum; JP++) {
-                                    for (IP = 0; IP < xNum; IP++) {
+                                if (_pack_flag == 1) {
+                                    br.skipBytes(8);
+                                    br.read(aBytes);
+                                    aType = new String(aBytes);
+                                    br.read(aBytes);
+                                    aLevel = DataConvert.bytes2Int(aBytes, byteOrder);
+                                    br.read(aBytes);
+                                    aN = DataConvert.bytes2Int(aBytes, byteOrder);
+                                    bytes = new byte[aN * 8];
+                                    br.read(bytes);
+                                    start = 0;
+                                    for (k = 0; k < aN; k++) {
+                                        System.arraycopy(bytes, start, sbytes, 0, 2);
+                                        IP = DataConvert.bytes2Short(sbytes, byteOrder) - 1;
+                                        start += 2;
+                                        System.arraycopy(bytes, start, sbytes, 0, 2);                                    
+                                        JP = DataConvert.bytes2Short(sbytes, byteOrder) - 1;
+                                        start += 2;
                                         System.arraycopy(bytes, start, aBytes, 0, 4);
                                         aConc = DataConvert.bytes2Float(aBytes, byteOrder);
                                         start += 4;
-                                        dataArray[IP][JP] = aConc;
+                                        if (IP >= 0 && IP < xNum && JP >= 0 && JP < yNum) {
+                                            dataArray[IP][JP] = aConc;
+                                        }
+                                    }
+                                } else {
+                                    br.skipBytes(8);
+                                    br.read(aBytes);
+                                    aType = new String(aBytes);
+                                    br.read(aBytes);
+                                    aLevel = DataConvert.bytes2Int(aBytes, byteOrder);
+                                    bytes = new byte[yNum * xNum * 4];
+                                    br.read(bytes);
+                                    start = 0;
+                                    for (JP = 0; JP < yNum; JP++) {
+                                        for (IP = 0; IP < xNum; IP++) {
+                                            System.arraycopy(bytes, start, aBytes, 0, 4);
+                                            aConc = DataConvert.bytes2Float(aBytes, byteOrder);
+                                            start += 4;
+                                            dataArray[IP][JP] = aConc;
+                                        }
                                     }
                                 }
-                            }
-                        } else {
-                            if (br.getFilePointer() + 28 > br.length()) {
-                                break;
-                            }
-                            if (_pack_flag == 1) {
-                                br.skipBytes(8);
-                                br.read(aBytes);
-                                aType = new String(aBytes);
-                                br.read(aBytes);
-                                aLevel = DataConvert.bytes2Int(aBytes, byteOrder);
-                                br.read(aBytes);
-                                aN = DataConvert.bytes2Int(aBytes, byteOrder);
-                                br.skipBytes(aN * 8);
                             } else {
-                                br.skipBytes(8);
-                                br.read(aBytes);
-                                aType = new String(aBytes);
-                                br.read(aBytes);
-                                aLevel = DataConvert.bytes2Int(aBytes, byteOrder);
-                                br.skipBytes(yNum * xNum * 4);
+                                if (br.getFilePointer() + 28 > br.length()) {
+                                    break;
+                                }
+                                if (_pack_flag == 1) {
+                                    br.skipBytes(8);
+                                    br.read(aBytes);
+                                    aType = new String(aBytes);
+                                    br.read(aBytes);
+                                    aLevel = DataConvert.bytes2Int(aBytes, byteOrder);
+                                    br.read(aBytes);
+                                    aN = DataConvert.bytes2Int(aBytes, byteOrder);
+                                    br.skipBytes(aN * 8);
+                                } else {
+                                    br.skipBytes(8);
+                                    br.read(aBytes);
+                                    aType = new String(aBytes);
+                                    br.read(aBytes);
+                                    aLevel = DataConvert.bytes2Int(aBytes, byteOrder);
+                                    br.skipBytes(yNum * xNum * 4);
+                                }
                             }
                         }
                     }
-                }
 
-                if (br.getFilePointer() + 10 > br.length()) {
-                    break;
+                    if (br.getFilePointer() + 10 > br.length()) {
+                        break;
+                    }
                 }
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(this.getFileName(), br);
             }
 
-            br.close();
-
             for (i = 0; i < yNum; i++) {
                 for (j = 0; j < xNum; j++) {
                     data[i * xNum + j] = dataArray[j][i];
@@ -625,121 +630,123 @@ public class HYSPLITConcDataInfo extends DataInfo implements IGridDataInfo {
     @Override
     public GridData getGridData_LonLat(int timeIdx, String varName, int levelIdx) {
         try {
-            RandomAccessFile br = new RandomAccessFile(this.getFileName(), "r");
             int i, j, nBytes;
-            byte[] aBytes = new byte[4];
             int xNum = this.getXDimension().getLength();
             int yNum = this.getYDimension().getLength();
             double[][] dataArray = new double[xNum][yNum];
             double[][] newDataArray = new double[yNum][xNum];
-            int varIdx = this.getVariableIndex(varName);
-
-            //Record #1            
-            br.skipBytes(36);
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(this.getFileName());
+            try {
+                byte[] aBytes = new byte[4];
+                int varIdx = this.getVariableIndex(varName);
+
+                //Record #1            
+                br.skipBytes(36);
+
+                //Record #2
+                nBytes = (8 * 4 + 8) * _loc_num;
+                br.skipBytes(nBytes);
+
+                //Record #3
+                String fName = new File(this.getFileName()).getName().toLowerCase();
+                if (fName.contains("gemzint")) {
+                    br.skipBytes(28);   //For vertical concentration file gemzint
+                } else {
+                    br.skipBytes(32);
+                }
 
-            //Record #2
-            nBytes = (8 * 4 + 8) * _loc_num;
-            br.skipBytes(nBytes);
+                //Record #4
+                nBytes = 12 + this.getZDimension().getLength() * 4;
+                br.skipBytes(nBytes);
 
-            //Record #3
-            String fName = new File(this.getFileName()).getName().toLowerCase();
-            if (fName.contains("gemzint")) {
-                br.skipBytes(28);   //For vertical concentration file gemzint
-            } else {
-                br.skipBytes(32);
-            }
+                //Record #5
+                nBytes = 12 + this.getDataVariableNum() * 4;
+                br.skipBytes(nBytes);
 
-            //Record #4
-            nBytes = 12 + this.getZDimension().getLength() * 4;
-            br.skipBytes(nBytes);
-
-            //Record #5
-            nBytes = 12 + this.getDataVariableNum() * 4;
-            br.skipBytes(nBytes);
-
-            //Record Data
-            int t, k;
-            int aLevel, aN, IP, JP;
-            String aType;
-            double aConc;
-            for (t = 0; t < this.getTimeNum(); t++) {
-                br.skipBytes(64);
-
-                for (i = 0; i < this.getDataVariableNum(); i++) {
-                    for (j = 0; j < this.getZDimension().getLength(); j++) {
-                        if (t == timeIdx && i == varIdx && j == levelIdx) {
-                            if (br.getFilePointer() + 28 > br.length()) {
-                                break;
-                            }
-                            if (_pack_flag == 1) {
-                                br.skipBytes(8);
-                                br.read(aBytes);
-                                aType = new String(aBytes);
-                                aLevel = br.readInt();
-                                aN = br.readInt();
-                                for (k = 0; k < aN; k++) {
-                                    if (br.getFilePointer() + 8 > br.length()) {
-                                        break;
-                                    }
-                                    IP = br.readShort() - 1;
-                                    JP = br.readShort() - 1;
-                                    aConc = br.readFloat();
-                                    if (IP >= 0 && IP < xNum && JP >= 0 && JP < yNum) {
-                                        dataArray[IP][JP] = aConc;
-                                    }
+                //Record Data
+                int t, k;
+                int aLevel, aN, IP, JP;
+                String aType;
+                double aConc;
+                for (t = 0; t < this.getTimeNum(); t++) {
+                    br.skipBytes(64);
+
+                    for (i = 0; i < this.getDataVariableNum(); i++) {
+                        for (j = 0; j < this.getZDimension().getLength(); j++) {
+                            if (t == timeIdx && i == varIdx && j == levelIdx) {
+                                if (br.getFilePointer() + 28 > br.length()) {
+                                    break;
                                 }
-                            } else {
-                                br.skipBytes(8);
-                                br.read(aBytes);
-                                aType = new String(aBytes);
-                                aLevel = br.readInt();
-                                for (JP = 0; JP < yNum; JP++) {
-                                    for (IP = 0; IP < xNum; IP++) {
+                                if (_pack_flag == 1) {
+                                    br.skipBytes(8);
+                                    br.read(aBytes);
+                                    aType = new String(aBytes);
+                                    aLevel = br.readInt();
+                                    aN = br.readInt();
+                                    for (k = 0; k < aN; k++) {
+                                        if (br.getFilePointer() + 8 > br.length()) {
+                                            break;
+                                        }
+                                        IP = br.readShort() - 1;
+                                        JP = br.readShort() - 1;
                                         aConc = br.readFloat();
-                                        dataArray[IP][JP] = aConc;
+                                        if (IP >= 0 && IP < xNum && JP >= 0 && JP < yNum) {
+                                            dataArray[IP][JP] = aConc;
+                                        }
                                     }
-                                }
-                            }
-                        } else {
-                            if (br.getFilePointer() + 28 > br.length()) {
-                                break;
-                            }
-                            if (_pack_flag == 1) {
-                                br.skipBytes(8);
-                                br.read(aBytes);
-                                aType = new String(aBytes);
-                                aLevel = br.readInt();
-                                aN = br.readInt();
-                                for (k = 0; k < aN; k++) {
-                                    if (br.getFilePointer() + 8 > br.length()) {
-                                        break;
+                                } else {
+                                    br.skipBytes(8);
+                                    br.read(aBytes);
+                                    aType = new String(aBytes);
+                                    aLevel = br.readInt();
+                                    for (JP = 0; JP < yNum; JP++) {
+                                        for (IP = 0; IP < xNum; IP++) {
+                                            aConc = br.readFloat();
+                                            dataArray[IP][JP] = aConc;
+                                        }
                                     }
-                                    IP = br.readShort();
-                                    JP = br.readShort();
-                                    br.skipBytes(4);
                                 }
                             } else {
-                                br.skipBytes(8);
-                                br.read(aBytes);
-                                aType = new String(aBytes);
-                                aLevel = br.readInt();
-                                for (JP = 0; JP < yNum; JP++) {
-                                    for (IP = 0; IP < xNum; IP++) {
+                                if (br.getFilePointer() + 28 > br.length()) {
+                                    break;
+                                }
+                                if (_pack_flag == 1) {
+                                    br.skipBytes(8);
+                                    br.read(aBytes);
+                                    aType = new String(aBytes);
+                                    aLevel = br.readInt();
+                                    aN = br.readInt();
+                                    for (k = 0; k < aN; k++) {
+                                        if (br.getFilePointer() + 8 > br.length()) {
+                                            break;
+                                        }
+                                        IP = br.readShort();
+                                        JP = br.readShort();
                                         br.skipBytes(4);
                                     }
+                                } else {
+                                    br.skipBytes(8);
+                                    br.read(aBytes);
+                                    aType = new String(aBytes);
+                                    aLevel = br.readInt();
+                                    for (JP = 0; JP < yNum; JP++) {
+                                        for (IP = 0; IP < xNum; IP++) {
+                                            br.skipBytes(4);
+                                        }
+                                    }
                                 }
                             }
                         }
                     }
-                }
 
-                if (br.getFilePointer() + 10 > br.length()) {
-                    break;
+                    if (br.getFilePointer() + 10 > br.length()) {
+                        break;
+                    }
                 }
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(this.getFileName(), br);
             }
 
-            br.close();
-
             double[] newX = this.getXDimension().getValues();
             for (i = 0; i < xNum; i++) {
                 for (j = 0; j < yNum; j++) {
@@ -39,6 +39,7 @@ import java.util.logging.Logger;
 import org.meteoinfo.data.meteodata.MeteoDataType;
 import org.meteoinfo.ndarray.Array;
 import org.meteoinfo.data.meteodata.Attribute;
+import org.meteoinfo.data.meteodata.util.FileHandlePool;
 import org.meteoinfo.ndarray.IndexIterator;
 
 /**
@@ -87,95 +88,97 @@ public class HYSPLITPartDataInfo extends DataInfo implements IStationDataInfo {
     public void readDataInfo(String fileName) {
         try {
             this.setFileName(fileName);
-            RandomAccessFile br = new RandomAccessFile(fileName, "r");
-            int year, month, day, hour;
             List<LocalDateTime> times = new ArrayList<>();
-            _parameters = new ArrayList<List<Integer>>();
             List<Variable> variables = new ArrayList<>();
-
-            this.addAttribute(new Attribute("data_format", "HYSPLIT Particles"));
-
-            int i = 0;
-            String[] varNames = new String[]{"lat", "lon", "height", "sigma_h", "vel_w", "vel_v"};
-            while (br.getFilePointer() < br.length() - 28) {
-                //Read head
-                int pos = (int) br.getFilePointer();
-                br.skipBytes(4);
-                int particleNum = br.readInt();
-                int pollutantNum = br.readInt();
-                year = br.readInt();
-                month = br.readInt();
-                day = br.readInt();
-                hour = br.readInt();                
-                if (year < 50) {
-                    year = 2000 + year;
-                } else {
-                    year = 1900 + year;
-                }
-                times.add(LocalDateTime.of(year, month, day, hour, 0, 0));
-                List<Integer> data = new ArrayList<Integer>();
-                data.add(particleNum);
-                data.add(pollutantNum);
-                data.add(pos);
-                _parameters.add(data);
-
-                Dimension dim = new Dimension();
-                dim.setName(String.format("pnum_t%d", i));
-                dim.setValues(new float[particleNum]);
-                this.addDimension(dim);
-
-                for (String varName : varNames) {
-                    Variable var = new Variable();
-                    var.setStation(true);
-                    var.setName(String.format("%s_t%d", varName, i));
-                    var.setDimension(dim);
-                    var.setDataType(DataType.FLOAT);
-                    var.addAttribute(new Attribute("time_index", i));
-                    switch (varName.toLowerCase()) {
-                        case "lon":
-                            var.setDimVar(true);
-                            var.addAttribute("long_name", "longitude");
-                            var.addAttribute("units", "degrees_east");
-                            break;
-                        case "lat":
-                            var.setDimVar(true);
-                            var.addAttribute("long_name", "latitude");
-                            var.addAttribute("units", "degrees_north");
-                            break;
-                        case "height":
-                            var.setDimVar(true);
-                            var.addAttribute("long_name", "height above ground");
-                            var.addAttribute("units", "meter");
-                            break;
-                        case "sigma_h":
-                            var.setDimVar(true);
-                            var.addAttribute("long_name", "horizontal puff size");
-                            var.addAttribute("units", "meter");
-                            break;
-                        case "vel_w":
-                            var.setDimVar(true);
-                            var.addAttribute("long_name", "current value for the turbulent velocity in the vertical");
-                            var.addAttribute("units", "m/s");
-                            break;
-                        case "vel_v":
-                            var.setDimVar(true);
-                            var.addAttribute("long_name", "current value for the turbulent velocity in the horizontal");
-                            var.addAttribute("units", "m/s");
-                            break;
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(fileName);
+            try {
+                int year, month, day, hour;
+                _parameters = new ArrayList<List<Integer>>();
+
+                this.addAttribute(new Attribute("data_format", "HYSPLIT Particles"));
+
+                int i = 0;
+                String[] varNames = new String[]{"lat", "lon", "height", "sigma_h", "vel_w", "vel_v"};
+                while (br.getFilePointer() < br.length() - 28) {
+                    //Read head
+                    int pos = (int) br.getFilePointer();
+                    br.skipBytes(4);
+                    int particleNum = br.readInt();
+                    int pollutantNum = br.readInt();
+                    year = br.readInt();
+                    month = br.readInt();
+                    day = br.readInt();
+                    hour = br.readInt();                
+                    if (year < 50) {
+                        year = 2000 + year;
+                    } else {
+                        year = 1900 + year;
+                    }
+                    times.add(LocalDateTime.of(year, month, day, hour, 0, 0));
+                    List<Integer> data = new ArrayList<Integer>();
+                    data.add(particleNum);
+                    data.add(pollutantNum);
+                    data.add(pos);
+                    _parameters.add(data);
+
+                    Dimension dim = new Dimension();
+                    dim.setName(String.format("pnum_t%d", i));
+                    dim.setValues(new float[particleNum]);
+                    this.addDimension(dim);
+
+                    for (String varName : varNames) {
+                        Variable var = new Variable();
+                        var.setStation(true);
+                        var.setName(String.format("%s_t%d", varName, i));
+                        var.setDimension(dim);
+                        var.setDataType(DataType.FLOAT);
+                        var.addAttribute(new Attribute("time_index", i));
+                        switch (varName.toLowerCase()) {
+                            case "lon":
+                                var.setDimVar(true);
+                                var.addAttribute("long_name", "longitude");
+                                var.addAttribute("units", "degrees_east");
+                                break;
+                            case "lat":
+                                var.setDimVar(true);
+                                var.addAttribute("long_name", "latitude");
+                                var.addAttribute("units", "degrees_north");
+                                break;
+                            case "height":
+                                var.setDimVar(true);
+                                var.addAttribute("long_name", "height above ground");
+                                var.addAttribute("units", "meter");
+                                break;
+                            case "sigma_h":
+                                var.setDimVar(true);
+                                var.addAttribute("long_name", "horizontal puff size");
+                                var.addAttribute("units", "meter");
+                                break;
+                            case "vel_w":
+                                var.setDimVar(true);
+                                var.addAttribute("long_name", "current value for the turbulent velocity in the vertical");
+                                var.addAttribute("units", "m/s");
+                                break;
+                            case "vel_v":
+                                var.setDimVar(true);
+                                var.addAttribute("long_name", "current value for the turbulent velocity in the horizontal");
+                                var.addAttribute("units", "m/s");
+                                break;
+                        }
+                        variables.add(var);
                     }
-                    variables.add(var);
-                }
 
-                //Skip data
-                int len = (8 + pollutantNum * 4 + 60) * particleNum + 4;
-                len += this.skipNBytes;
-                br.skipBytes(len);
+                    //Skip data
+                    int len = (8 + pollutantNum * 4 + 60) * particleNum + 4;
+                    len += this.skipNBytes;
+                    br.skipBytes(len);
 
-                i ++;
+                    i ++;
+                }
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(fileName, br);
             }
 
-            br.close();
-
             Array tArray = Array.factory(DataType.DATE, new int[]{times.size()});
             IndexIterator iter = tArray.getIndexIterator();
             for (LocalDateTime t : times) {
@@ -260,41 +263,44 @@ public class HYSPLITPartDataInfo extends DataInfo implements IStationDataInfo {
             int pos = _parameters.get(timeIdx).get(2);
             Array r = Array.factory(var.getDataType(), new int[]{particleNum});
 
-            RandomAccessFile br = new RandomAccessFile(this.getFileName(), "r");
-            int i, j;
-            float lon, lat, alt, sigma_h, vel_w, vel_v;
-
-            br.seek(pos);
-            br.skipBytes(28 + skipNBytes);
-            for (i = 0; i < particleNum; i++) {
-                br.skipBytes(8);
-                for (j = 0; j < pollutantNum; j++) {
-                    br.skipBytes(4);
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(this.getFileName());
+            try {
+                int i, j;
+                float lon, lat, alt, sigma_h, vel_w, vel_v;
+
+                br.seek(pos);
+                br.skipBytes(28 + skipNBytes);
+                for (i = 0; i < particleNum; i++) {
+                    br.skipBytes(8);
+                    for (j = 0; j < pollutantNum; j++) {
+                        br.skipBytes(4);
+                    }
+                    br.skipBytes(8);
+                    lat = br.readFloat();
+                    lon = br.readFloat();
+                    alt = br.readFloat();
+                    sigma_h = br.readFloat();
+                    vel_w = br.readFloat();
+                    vel_v = br.readFloat();
+
+                    if (varName.startsWith("lon"))
+                        r.setFloat(i, lon);
+                    else if (varName.startsWith("lat"))
+                        r.setFloat(i, lat);
+                    else if (varName.startsWith("height"))
+                        r.setFloat(i, alt);
+                    else if (varName.startsWith("sigma_h"))
+                        r.setFloat(i, sigma_h);
+                    else if (varName.startsWith("vel_w"))
+                        r.setFloat(i, vel_w);
+                    else if (varName.startsWith("vel_v"))
+                        r.setFloat(i, vel_v);
+
+                    br.skipBytes(28);
                 }
-                br.skipBytes(8);
-                lat = br.readFloat();
-                lon = br.readFloat();
-                alt = br.readFloat();
-                sigma_h = br.readFloat();
-                vel_w = br.readFloat();
-                vel_v = br.readFloat();
-
-                if (varName.startsWith("lon"))
-                    r.setFloat(i, lon);
-                else if (varName.startsWith("lat"))
-                    r.setFloat(i, lat);
-                else if (varName.startsWith("height"))
-                    r.setFloat(i, alt);
-                else if (varName.startsWith("sigma_h"))
-                    r.setFloat(i, sigma_h);
-                else if (varName.startsWith("vel_w"))
-                    r.setFloat(i, vel_w);
-                else if (varName.startsWith("vel_v"))
-                    r.setFloat(i, vel_v);
-
-                br.skipBytes(28);
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(this.getFileName(), br);
             }
-
             return r;
         } catch (IOException e) {
             return null;
@@ -321,37 +327,42 @@ public class HYSPLITPartDataInfo extends DataInfo implements IStationDataInfo {
                 }
             }
 
-            RandomAccessFile br = new RandomAccessFile(this.getFileName(), "r");
-            int i, j;
-            float lon, lat, alt, sigma_h, vel_w, vel_v;
-
-            br.seek(pos);
-            br.skipBytes(28 + skipNBytes);
-            for (i = 0; i < particleNum; i++) {
-                br.skipBytes(8);
-                for (j = 0; j < pollutantNum; j++) {
-                    br.skipBytes(4);
+            DataFrame df;
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(this.getFileName());
+            try {
+                int i, j;
+                float lon, lat, alt, sigma_h, vel_w, vel_v;
+
+                br.seek(pos);
+                br.skipBytes(28 + skipNBytes);
+                for (i = 0; i < particleNum; i++) {
+                    br.skipBytes(8);
+                    for (j = 0; j < pollutantNum; j++) {
+                        br.skipBytes(4);
+                    }
+                    br.skipBytes(8);
+                    lat = br.readFloat();
+                    lon = br.readFloat();
+                    alt = br.readFloat();
+                    sigma_h = br.readFloat();
+                    vel_w = br.readFloat();
+                    vel_v = br.readFloat();
+
+                    data.get(0).setFloat(i, lat);
+                    data.get(1).setFloat(i, lon);
+                    data.get(2).setFloat(i, alt);
+                    data.get(3).setFloat(i, sigma_h);
+                    data.get(4).setFloat(i, vel_w);
+                    data.get(5).setFloat(i, vel_v);
+
+                    br.skipBytes(28);
                 }
-                br.skipBytes(8);
-                lat = br.readFloat();
-                lon = br.readFloat();
-                alt = br.readFloat();
-                sigma_h = br.readFloat();
-                vel_w = br.readFloat();
-                vel_v = br.readFloat();
-
-                data.get(0).setFloat(i, lat);
-                data.get(1).setFloat(i, lon);
-                data.get(2).setFloat(i, alt);
-                data.get(3).setFloat(i, sigma_h);
-                data.get(4).setFloat(i, vel_w);
-                data.get(5).setFloat(i, vel_v);
-
-                br.skipBytes(28);
-            }
 
-            Index index = Index.factory(particleNum);
-            DataFrame df = new DataFrame(data, index, columns);
+                Index index = Index.factory(particleNum);
+                df = new DataFrame(data, index, columns);
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(this.getFileName(), br);
+            }
             return df;
         } catch (IOException e) {
             return null;
@@ -368,66 +379,68 @@ public class HYSPLITPartDataInfo extends DataInfo implements IStationDataInfo {
             int pos = _parameters.get(timeIdx).get(2);
             double[][] discreteData = new double[particleNum][6];
 
-            RandomAccessFile br = new RandomAccessFile(this.getFileName(), "r");
-            byte[] aBytes;
-            int i, j;
-            float lon, lat, alt, sigma_h, vel_w, vel_v;
-            float minX, maxX, minY, maxY;
-            minX = 0;
-            maxX = 0;
-            minY = 0;
-            maxY = 0;
-
-            br.seek(pos);
-            br.skipBytes(28 + skipNBytes);
-            for (i = 0; i < particleNum; i++) {
-                br.skipBytes(8);
-                for (j = 0; j < pollutantNum; j++) {
-                    br.skipBytes(4);
-                }
-                br.skipBytes(8);
-                lat = br.readFloat();
-                lon = br.readFloat();
-                alt = br.readFloat();
-                sigma_h = br.readFloat();
-                vel_w = br.readFloat();
-                vel_v = br.readFloat();
-
-                discreteData[i][0] = lon;
-                discreteData[i][1] = lat;
-                discreteData[i][2] = alt;
-                discreteData[i][3] = sigma_h;
-                discreteData[i][4] = vel_w;
-                discreteData[i][5] = vel_v;
-                stations.add("P" + String.valueOf(i + 1));
-
-                br.skipBytes(40);
-
-                if (i == 0) {
-                    minX = lon;
-                    maxX = minX;
-                    minY = lat;
-                    maxY = minY;
-                } else {
-                    if (minX > lon) {
-                        minX = lon;
-                    } else if (maxX < lon) {
-                        maxX = lon;
+            Extent dataExtent = new Extent();
+            RandomAccessFile br = FileHandlePool.RANDOM_ACCESS_FILES.acquire(this.getFileName());
+            try {
+                byte[] aBytes;
+                int i, j;
+                float lon, lat, alt, sigma_h, vel_w, vel_v;
+                float minX, maxX, minY, maxY;
+                minX = 0;
+                maxX = 0;
+                minY = 0;
+                maxY = 0;
+
+                br.seek(pos);
+                br.skipBytes(28 + skipNBytes);
+                for (i = 0; i < particleNum; i++) {
+                    br.skipBytes(8);
+                    for (j = 0; j < pollutantNum; j++) {
+                        br.skipBytes(4);
                     }
-                    if (minY > lat) {
+                    br.skipBytes(8);
+                    lat = br.readFloat();
+                    lon = br.readFloat();
+                    alt = br.readFloat();
+                    sigma_h = br.readFloat();
+                    vel_w = br.readFloat();
+                    vel_v = br.readFloat();
+
+                    discreteData[i][0] = lon;
+                    discreteData[i][1] = lat;
+                    discreteData[i][2] = alt;
+                    discreteData[i][3] = sigma_h;
+                    discreteData[i][4] = vel_w;
+                    discreteData[i][5] = vel_v;
+                    stations.add("P" + String.valueOf(i + 1));
+
+                    br.skipBytes(40);
+
+                    if (i == 0) {
+                        minX = lon;
+                        maxX = minX;
                         minY = lat;
-                    } else if (maxY < lat) {
-                        maxY = lat;
+                        maxY = minY;
+                    } else {
+                        if (minX > lon) {
+                            minX = lon;
+                        } else if (maxX < lon) {
+                            maxX = lon;
+                        }
+                        if (minY > lat) {
+                            minY = lat;
+                        } else if (maxY < lat) {
+                            maxY = lat;
+                        }
                     }
                 }
+                dataExtent.minX = minX;
+                dataExtent.maxX = maxX;
+                dataExtent.minY = minY;
+                dataExtent.maxY = maxY;
+            } finally {
+                FileHandlePool.RANDOM_ACCESS_FILES.release(this.getFileName(), br);
             }
-            Extent dataExtent = new Extent();
-            dataExtent.minX = minX;
-            dataExtent.maxX = maxX;
-            dataExtent.minY = minY;
-            dataExtent.maxY = maxY;
-
-            br.close();
 
             stationData.data = discreteData;
             stationData.dataExtent = dataExtent;
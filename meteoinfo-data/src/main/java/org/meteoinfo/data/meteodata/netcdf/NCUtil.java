@@ -235,6 +235,71 @@ public class NCUtil {
         return new double[]{add_offset, scale_factor, missingValue};
     }
 
+    /**
+     * Get valid range of the unpacked values from variable. As the CF
+     * conventions define, the valid_range, valid_min and valid_max attributes
+     * with the data type of scale_factor or add_offset are unpacked values,
+     * otherwise they are packed values and are unpacked.
+     * @param var The variable
+     * @return Valid minimum and maximum, infinity if not defined
+     */
+    public static double[] getValidRange(ucar.nc2.Variable var) {
+        double[] packData = getPackData(var);
+        double addOffset = packData[0];
+        double scaleFactor = packData[1];
+        ucar.ma2.DataType unpackedType = null;
+        for (ucar.nc2.Attribute att : var.getAttributes()) {
+            if (att.getShortName().equals("scale_factor") || att.getShortName().equals("add_offset")) {
+                unpackedType = att.getDataType();
+            }
+        }
+
+        double validMin = Double.NEGATIVE_INFINITY, validMax = Double.POSITIVE_INFINITY;
+        for (ucar.nc2.Attribute att : var.getAttributes()) {
+            try {
+                //NaN for the bound not defined by the attribute
+                double min = Double.NaN, max = Double.NaN;
+                switch (att.getShortName()) {
+                    case "valid_range":
+                        if (att.getLength() < 2) {
+                            continue;
+                        }
+                        min = Double.parseDouble(att.getValue(0).toString());
+                        max = Double.parseDouble(att.getValue(1).toString());
+                        break;
+                    case "valid_min":
+                        min = Double.parseDouble(att.getValue(0).toString());
+                        break;
+                    case "valid_max":
+                        max = Double.parseDouble(att.getValue(0).toString());
+                        break;
+                    default:
+                        continue;
+                }
+                if (att.getDataType() != unpackedType) {
+                    //Packed values, the bounds are swapped by a negative scale factor
+                    min = min * scaleFactor + addOffset;
+                    max = max * scaleFactor + addOffset;
+                    if (scaleFactor < 0) {
+                        double v = min;
+                        min = max;
+                        max = v;
+                    }
+                }
+                if (!Double.isNaN(min)) {
+                    validMin = min;
+                }
+                if (!Double.isNaN(max)) {
+                    validMax = max;
+                }
+            } catch (NumberFormatException e) {
+                e.printStackTrace();
+            }
+        }
+
+        return new double[]{validMin, validMax};
+    }
+
     /**
      * Get pack data from variable
      * @param var The variable
@@ -29,6 +29,7 @@ import org.meteoinfo.data.meteodata.IStationDataInfo;
 import org.meteoinfo.data.meteodata.StationInfoData;
 import org.meteoinfo.data.meteodata.StationModelData;
 import org.meteoinfo.data.meteodata.Variable;
+import org.meteoinfo.data.meteodata.util.FileHandlePool;
 
 import java.io.IOException;
 import java.text.ParseException;
@@ -49,7 +50,6 @@ import org.meteoinfo.projection.ProjectionInfo;
 import org.meteoinfo.ndarray.Array;
 import org.meteoinfo.ndarray.Index;
 import org.meteoinfo.ndarray.IndexIterator;
-import org.meteoinfo.ndarray.MAMath;
 import org.meteoinfo.data.meteodata.Attribute;
 import org.meteoinfo.projection.Reproject;
 import ucar.ma2.DataType;
@@ -74,6 +74,8 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
     private NetcdfDataset ncDataset = null;
     private NetcdfFile ncfile = null;
     private boolean keepOpen = false;
+    private boolean pooled = false;
+    private String iospClassName = null;
     private List<ucar.nc2.Variable> ncVariables = new ArrayList<>();
     private List<ucar.nc2.Dimension> ncDimensions = new ArrayList<>();
     private List<ucar.nc2.Attribute> ncAttributes = new ArrayList<>();
@@ -219,7 +221,8 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
     public void reOpen() {
         if (ncfile == null) {
             try {
-                ncfile = NetcdfFile.open(this.getFileName());
+                ncfile = openDirect();
+                pooled = false;
             } catch (IOException e) {
                 e.printStackTrace();
             }
@@ -227,12 +230,75 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
     }
 
     /**
-     * Close file
+     * Close file and remove its cached chunks
      */
     public void close() throws IOException {
+        this.removeCachedChunks();
         if (this.ncfile != null) {
-            this.ncfile.close();
+            if (this.pooled) {
+                FileHandlePool.NETCDF_FILES.release(this.fileName, this.ncfile);
+            } else {
+                this.ncfile.close();
+            }
             this.ncfile = null;
+            this.pooled = false;
+        }
+        FileHandlePool.NETCDF_FILES.invalidate(this.fileName);
+    }
+
+    /**
+     * Open the data file directly without the file handle pool
+     *
+     * @return NetCDF file
+     * @throws IOException
+     */
+    private NetcdfFile openDirect() throws IOException {
+        if (this.iospClassName == null) {
+            return NetcdfDatasets.openFile(this.fileName, null);
+        }
+
+        try {
+            return NetcdfFiles.open(this.fileName, this.iospClassName, 0, null, null);
+        } catch (ClassNotFoundException | IllegalAccessException | InstantiationException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    /**
+     * Open the data file if it is not opened. The file handle pool is only
+     * used when the file is not kept open and is opened by the default IOSP.
+     *
+     * @throws IOException
+     */
+    private void openFile() throws IOException {
+        if (ncfile == null) {
+            if (this.keepOpen || this.iospClassName != null || this.fileName == null) {
+                ncfile = openDirect();
+                pooled = false;
+            } else {
+                ncfile = FileHandlePool.NETCDF_FILES.acquire(this.fileName);
+                pooled = true;
+            }
+        }
+    }
+
+    /**
+     * Close the data file if it is not kept open
+     */
+    private void closeFile() {
+        if (!this.keepOpen && null != ncfile) {
+            try {
+                if (pooled) {
+                    FileHandlePool.NETCDF_FILES.release(this.fileName, ncfile);
+                } else {
+                    ncfile.close();
+                }
+            } catch (IOException ex) {
+                Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
+            } finally {
+                ncfile = null;
+                pooled = false;
+            }
         }
     }
 
@@ -256,15 +322,20 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
                 break;
         }
         try {
-            ncfile = NetcdfFiles.open(fileName, iospClassName, 0, null, null);
+            //Files opened by a specific IOSP are not shared in the file handle pool
+            this.iospClassName = iospClassName;
+            this.keepOpen = false;
+            openFile();
             readDataInfo(false);
-        } catch (ClassNotFoundException | IllegalAccessException | InstantiationException | IOException ex) {
+        } catch (IOException ex) {
             Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
         }
     }
 
     public void readDataInfo(NetcdfFile nf, boolean keepOpen) {
+        //The file opened by the caller is closed rather than given to the pool
         this.ncfile = nf;
+        this.pooled = false;
         readDataInfo(keepOpen);
     }
 
@@ -368,16 +439,7 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
             Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
         } finally {
             this.keepOpen = keepOpen;
-            if (!keepOpen) {
-                if (null != ncfile) {
-                    try {
-                        ncfile.close();
-                        ncfile = null;
-                    } catch (IOException ex) {
-                        Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
-                    }
-                }
-            }
+            closeFile();
         }
         //this.keepOpen = true;
     }
@@ -386,7 +448,9 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
     public void readDataInfo(String fileName, boolean keepOpen) {
         try {
             this.setFileName(fileName);
-            ncfile = NetcdfDatasets.openFile(fileName, null);
+            this.iospClassName = null;
+            this.keepOpen = keepOpen;
+            openFile();
             //ncfile = NetcdfDataset.openFile(fileName, null);
             //ncfile = NetcdfFiles.open(fileName);
             readDataInfo(keepOpen);
@@ -2012,6 +2076,33 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
         return tVarIdx;
     }
 
+    /**
+     * Unpack data in a single pass if the variable is packed, otherwise only
+     * set the missing values to NaN
+     *
+     * @param var The variable
+     * @param data The data array, can be a view
+     * @param dataType Data type of the unpacked data - FLOAT or DOUBLE
+     * @return Unpacked data
+     */
+    private Array unpackData(ucar.nc2.Variable var, Array data, org.meteoinfo.ndarray.DataType dataType) {
+        double[] packData = this.getPackData(var);
+        double addOffset = packData[0];
+        double scaleFactor = packData[1];
+        double fillValue = packData[2];
+        if (scaleFactor != 1 || addOffset != 0) {
+            double[] validRange = NCUtil.getValidRange(var);
+            return ArrayUtil.unPack(data, fillValue, validRange[0], validRange[1], scaleFactor,
+                    addOffset, dataType);
+        }
+
+        data = data.copyIfView();
+        if (!Double.isNaN(fillValue)) {
+            ArrayMath.missingToNaN(data, fillValue);
+        }
+        return data;
+    }
+
     private double[] getPackData(ucar.nc2.Variable var) {
         double add_offset = 0, scale_factor = 1, missingValue = Double.NaN;
         for (int i = 0; i < var.getAttributes().size(); i++) {
@@ -2060,10 +2151,7 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
     @Override
     public GridData getGridData_LonLat(int timeIdx, String varName, int levelIdx) {
         try {
-            if (ncfile == null) {
-                //ncfile = NetcdfDatasets.openFile(this.getFileName(), null);
-                ncfile = NetcdfFile.open(this.fileName);
-            }
+            openFile();
 
             int i, j;
             ucar.nc2.Variable var = ncfile.findVariable(varName);
@@ -2161,24 +2249,14 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
             Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
             return null;
         } finally {
-            if (!this.keepOpen && null != ncfile) {
-                try {
-                    ncfile.close();
-                    ncfile = null;
-                } catch (IOException ex) {
-                    Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
-                }
-            }
+            closeFile();
         }
     }
 
     @Override
     public GridData getGridData_TimeLat(int lonIdx, String varName, int levelIdx) {
         try {
-            if (ncfile == null) {
-                //ncfile = NetcdfDataset.openFile(this.getFileName(), null);
-                ncfile = NetcdfFile.open(this.fileName);
-            }
+            openFile();
 
             int i, j;
             ucar.nc2.Variable var = ncfile.findVariable(varName);
@@ -2247,23 +2325,14 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
             Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
             return null;
         } finally {
-            if (null != ncfile) {
-                try {
-                    ncfile.close();
-                } catch (IOException ex) {
-                    Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
-                }
-            }
+            closeFile();
         }
     }
 
     @Override
     public GridData getGridData_TimeLon(int latIdx, String varName, int levelIdx) {
         try {
-            if (ncfile == null) {
-                //ncfile = NetcdfDataset.openFile(this.getFileName(), null);
-                ncfile = NetcdfFile.open(this.fileName);
-            }
+            openFile();
 
             int i, j;
             ucar.nc2.Variable var = ncfile.findVariable(varName);
@@ -2332,24 +2401,14 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
             Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
             return null;
         } finally {
-            if (!this.keepOpen && null != ncfile) {
-                try {
-                    ncfile.close();
-                    ncfile = null;
-                } catch (IOException ex) {
-                    Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
-                }
-            }
+            closeFile();
         }
     }
 
     @Override
     public GridData getGridData_LevelLat(int lonIdx, String varName, int timeIdx) {
         try {
-            if (ncfile == null) {
-                //ncfile = NetcdfDataset.openFile(this.getFileName(), null);
-                ncfile = NetcdfFile.open(this.fileName);
-            }
+            openFile();
 
             int i, j;
             ucar.nc2.Variable var = ncfile.findVariable(varName);
@@ -2419,24 +2478,14 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
             Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
             return null;
         } finally {
-            if (!this.keepOpen && null != ncfile) {
-                try {
-                    ncfile.close();
-                    ncfile = null;
-                } catch (IOException ex) {
-                    Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
-                }
-            }
+            closeFile();
         }
     }
 
     @Override
     public GridData getGridData_LevelLon(int latIdx, String varName, int timeIdx) {
         try {
-            if (ncfile == null) {
-                //ncfile = NetcdfDataset.openFile(this.getFileName(), null);
-                ncfile = NetcdfFile.open(this.fileName);
-            }
+            openFile();
 
             int i, j;
             ucar.nc2.Variable var = ncfile.findVariable(varName);
@@ -2505,24 +2554,14 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
             Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
             return null;
         } finally {
-            if (!this.keepOpen && null != ncfile) {
-                try {
-                    ncfile.close();
-                    ncfile = null;
-                } catch (IOException ex) {
-                    Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
-                }
-            }
+            closeFile();
         }
     }
 
     @Override
     public GridData getGridData_LevelTime(int latIdx, String varName, int lonIdx) {
         try {
-            if (ncfile == null) {
-                //ncfile = NetcdfDataset.openFile(this.getFileName(), null);
-                ncfile = NetcdfFile.open(this.fileName);
-            }
+            openFile();
 
             int i, j;
             ucar.nc2.Variable var = ncfile.findVariable(varName);
@@ -2596,24 +2635,14 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
             Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
             return null;
         } finally {
-            if (!this.keepOpen && null != ncfile) {
-                try {
-                    ncfile.close();
-                    ncfile = null;
-                } catch (IOException ex) {
-                    Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
-                }
-            }
+            closeFile();
         }
     }
 
     @Override
     public GridData getGridData_Time(int lonIdx, int latIdx, String varName, int levelIdx) {
         try {
-            if (ncfile == null) {
-                //ncfile = NetcdfDataset.openFile(this.getFileName(), null);
-                ncfile = NetcdfFile.open(this.fileName);
-            }
+            openFile();
 
             int i;
             ucar.nc2.Variable var = ncfile.findVariable(varName);
@@ -2678,24 +2707,14 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
             Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
             return null;
         } finally {
-            if (!this.keepOpen && null != ncfile) {
-                try {
-                    ncfile.close();
-                    ncfile = null;
-                } catch (IOException ex) {
-                    Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
-                }
-            }
+            closeFile();
         }
     }
 
     @Override
     public GridData getGridData_Level(int lonIdx, int latIdx, String varName, int timeIdx) {
         try {
-            if (ncfile == null) {
-                //ncfile = NetcdfDataset.openFile(this.getFileName(), null);
-                ncfile = NetcdfFile.open(this.fileName);
-            }
+            openFile();
 
             int i;
             ucar.nc2.Variable var = ncfile.findVariable(varName);
@@ -2760,24 +2779,14 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
             Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
             return null;
         } finally {
-            if (!this.keepOpen && null != ncfile) {
-                try {
-                    ncfile.close();
-                    ncfile = null;
-                } catch (IOException ex) {
-                    Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
-                }
-            }
+            closeFile();
         }
     }
 
     @Override
     public GridData getGridData_Lon(int timeIdx, int latIdx, String varName, int levelIdx) {
         try {
-            if (ncfile == null) {
-                //ncfile = NetcdfDataset.openFile(this.getFileName(), null);
-                ncfile = NetcdfFile.open(this.fileName);
-            }
+            openFile();
 
             int i;
             ucar.nc2.Variable var = ncfile.findVariable(varName);
@@ -2842,24 +2851,14 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
             Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
             return null;
         } finally {
-            if (!this.keepOpen && null != ncfile) {
-                try {
-                    ncfile.close();
-                    ncfile = null;
-                } catch (IOException ex) {
-                    Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
-                }
-            }
+            closeFile();
         }
     }
 
     @Override
     public GridData getGridData_Lat(int timeIdx, int lonIdx, String varName, int levelIdx) {
         try {
-            if (ncfile == null) {
-                //ncfile = NetcdfDataset.openFile(this.getFileName(), null);
-                ncfile = NetcdfFile.open(this.fileName);
-            }
+            openFile();
 
             int i;
             ucar.nc2.Variable var = ncfile.findVariable(varName);
@@ -2924,23 +2923,14 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
             Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
             return null;
         } finally {
-            if (!this.keepOpen && null != ncfile) {
-                try {
-                    ncfile.close();
-                    ncfile = null;
-                } catch (IOException ex) {
-                    Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
-                }
-            }
+            closeFile();
         }
     }
 
     @Override
     public StationData getStationData(int timeIdx, String varNmae, int levelIdx) {
         try {
-            if (ncfile == null) {
-                ncfile = NetcdfFile.open(this.getFileName());
-            }
+            openFile();
 
             int i;
             ucar.nc2.Variable var = ncfile.findVariable(varNmae);
@@ -3058,14 +3048,7 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
             Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
             return null;
         } finally {
-            if (!this.keepOpen && null != ncfile) {
-                try {
-                    ncfile.close();
-                    ncfile = null;
-                } catch (IOException ex) {
-                    Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
-                }
-            }
+            closeFile();
         }
     }
 
@@ -3099,9 +3082,7 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
      */
     public Array read(String varName, boolean unpack) {
         try {
-            if (ncfile == null) {
-                ncfile = NetcdfDatasets.openFile(this.fileName, null);
-            }
+            openFile();
             ucar.nc2.Variable var = ncfile.findVariable(varName);
             if (var == null) {
                 List<ucar.nc2.Variable> vars = ncfile.getVariables();
@@ -3128,11 +3109,9 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
                 scale_factor = packData[1];
                 missingValue = packData[2];
                 if (add_offset != 0 || scale_factor != 1) {
-                    data = ArrayUtil.convertToDataType(data, org.meteoinfo.ndarray.DataType.DOUBLE);
-                    if (!Double.isNaN(missingValue)) {
-                        ArrayMath.replaceValue(data, missingValue, Double.NaN);
-                    }
-                    data = ArrayMath.add(ArrayMath.mul(data, scale_factor), add_offset);
+                    double[] validRange = NCUtil.getValidRange(var);
+                    data = ArrayUtil.unPack(data, missingValue, validRange[0], validRange[1],
+                            scale_factor, add_offset, org.meteoinfo.ndarray.DataType.DOUBLE);
                 }
             }
 
@@ -3141,14 +3120,7 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
             Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
             return null;
         } finally {
-            if (!this.keepOpen && null != ncfile) {
-                try {
-                    ncfile.close();
-                    ncfile = null;
-                } catch (IOException ex) {
-                    Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
-                }
-            }
+            closeFile();
         }
     }
 
@@ -3205,12 +3177,24 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
      * @return Array data
      */
     public Array read(String varName, int[] origin, int[] size, int[] stride, boolean unpack) {
+        return read(varName, origin, size, stride, unpack, org.meteoinfo.ndarray.DataType.DOUBLE);
+    }
+
+    /**
+     * Read array data of the variable
+     *
+     * @param varName Variable name
+     * @param origin The origin array
+     * @param size The size array
+     * @param stride The stride array
+     * @param unpack Unpack data or not
+     * @param unpackType Data type of the unpacked data - FLOAT or DOUBLE
+     * @return Array data
+     */
+    public Array read(String varName, int[] origin, int[] size, int[] stride, boolean unpack,
+                      org.meteoinfo.ndarray.DataType unpackType) {
         try {
-            if (ncfile == null) {
-                ncfile = NetcdfDatasets.openFile(this.fileName, null);
-                //ncfile = NetcdfFiles.open(this.fileName);
-                //ncfile = NetcdfFile.open(this.fileName);
-            }
+            openFile();
             ucar.nc2.Variable var = ncfile.findVariable(varName);
             if (var == null) {
                 List<ucar.nc2.Variable> vars = ncfile.getVariables();
@@ -3250,28 +3234,17 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
                 for (int i : flips) {
                     r = r.flip(i);
                 }
-                data = Array.factory(r.getDataType(), r.getShape());
-                MAMath.copy(data, r);
+                data = r;
             } else {
                 ucar.ma2.Section section = new ucar.ma2.Section(origin, size, stride);
                 data = NCUtil.convertArray(var.read(section));
             }
 
+            //The flipped view is copied by the unpacking
             if (unpack) {
-                //Get pack info
-                double[] packData = this.getPackData(var);
-                double addOffset = packData[0];
-                double scaleFactor = packData[1];
-                double fillValue = packData[2];
-                if (scaleFactor != 1) {
-                    data = ArrayMath.mul(data, scaleFactor);
-                }
-                if (addOffset != 0) {
-                    data = ArrayMath.add(data, addOffset);
-                }
-                if (!Double.isNaN(fillValue)) {
-                    ArrayMath.missingToNaN(data, fillValue);
-                }
+                data = this.unpackData(var, data, unpackType);
+            } else {
+                data = data.copyIfView();
             }
 
             return data;
@@ -3279,14 +3252,7 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
             Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
             return null;
         } finally {
-            if (!this.keepOpen && null != ncfile) {
-                try {
-                    ncfile.close();
-                    ncfile = null;
-                } catch (IOException ex) {
-                    Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
-                }
-            }
+            closeFile();
         }
     }
 
@@ -3313,29 +3279,14 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
      */
     public Array read(String varName, int[] origin, int[] size, boolean unpack) {
         try {
-            if (ncfile == null) {
-                ncfile = NetcdfDatasets.openFile(this.fileName, null);
-            }
+            openFile();
             ucar.nc2.Variable var = ncfile.findVariable(varName);
 
             ucar.ma2.Section section = new ucar.ma2.Section(origin, size);
             Array data = NCUtil.convertArray(var.read(section));
 
             if (unpack) {
-                //Get pack info
-                double[] packData = this.getPackData(var);
-                double addOffset = packData[0];
-                double scaleFactor = packData[1];
-                double fillValue = packData[2];
-                if (scaleFactor != 1) {
-                    data = ArrayMath.mul(data, scaleFactor);
-                }
-                if (addOffset != 0) {
-                    data = ArrayMath.add(data, addOffset);
-                }
-                if (!Double.isNaN(fillValue)) {
-                    ArrayMath.missingToNaN(data, fillValue);
-                }
+                data = this.unpackData(var, data, org.meteoinfo.ndarray.DataType.DOUBLE);
             }
 
             return data;
@@ -3343,14 +3294,7 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
             Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
             return null;
         } finally {
-            if (!this.keepOpen && null != ncfile) {
-                try {
-                    ncfile.close();
-                    ncfile = null;
-                } catch (IOException ex) {
-                    Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
-                }
-            }
+            closeFile();
         }
     }
 
@@ -3364,50 +3308,26 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
      */
     public Array read_pack(String varName, int[] origin, int[] size) {
         try {
-            if (ncfile == null) {
-                ncfile = NetcdfDatasets.openFile(this.fileName, null);
-            }
+            openFile();
             ucar.nc2.Variable var = ncfile.findVariable(varName);
 
             ucar.ma2.Section section = new ucar.ma2.Section(origin, size);
             Array data = NCUtil.convertArray(var.read(section));
 
-            //Get pack info
-            double[] packData = this.getPackData(var);
-            double addOffset = packData[0];
-            double scaleFactor = packData[1];
-            double fillValue = packData[2];
-            if (scaleFactor != 1) {
-                data = ArrayMath.mul(data, scaleFactor);
-            }
-            if (addOffset != 0) {
-                data = ArrayMath.add(data, addOffset);
-            }
-            if (!Double.isNaN(fillValue)) {
-                ArrayMath.missingToNaN(data, fillValue);
-            }
+            data = this.unpackData(var, data, org.meteoinfo.ndarray.DataType.DOUBLE);
 
             return data;
         } catch (IOException | ucar.ma2.InvalidRangeException ex) {
             Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
             return null;
         } finally {
-            if (!this.keepOpen && null != ncfile) {
-                try {
-                    ncfile.close();
-                    ncfile = null;
-                } catch (IOException ex) {
-                    Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
-                }
-            }
+            closeFile();
         }
     }
 
     public Array read(String varName, String key) {
         try {
-            if (ncfile == null) {
-                ncfile = NetcdfDatasets.openFile(this.fileName, null);
-            }
+            openFile();
             ucar.nc2.Variable var = ncfile.findVariable(varName);
 
             Array data = NCUtil.convertArray(var.read(key));
@@ -3417,14 +3337,7 @@ public class NetCDFDataInfo extends DataInfo implements IGridDataInfo, IStationD
             Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
             return null;
         } finally {
-            if (!this.keepOpen && null != ncfile) {
-                try {
-                    ncfile.close();
-                    ncfile = null;
-                } catch (IOException ex) {
-                    Logger.getLogger(NetCDFDataInfo.class.getName()).log(Level.SEVERE, null, ex);
-                }
-            }
+            closeFile();
         }
     }
 
@@ -0,0 +1,150 @@
+package org.meteoinfo.data.meteodata.radar;
+
+/**
+ * Primitive azimuth index of a radar scan.
+ *
+ * <p>The radial azimuths of a scan increase from the radial with minimum
+ * azimuth and wrap around at 360 degree. The azimuths are stored in that
+ * rotated order together with the radial index of each position, so the
+ * radials around an azimuth can be found by binary search.
+ */
+public class AzimuthIndex {
+
+    private final float[] values;
+    private final float[] sorted;
+    private final int[] order;
+
+    /**
+     * Constructor
+     * @param values Azimuth values in radial order
+     * @param minIndex Radial index of minimum azimuth
+     */
+    public AzimuthIndex(float[] values, int minIndex) {
+        int n = values.length;
+        this.values = values;
+        this.sorted = new float[n];
+        this.order = new int[n];
+        for (int i = 0; i < n; i++) {
+            int idx = (i + minIndex) % n;
+            sorted[i] = values[idx];
+            order[i] = idx;
+        }
+    }
+
+    /**
+     * Get radial number
+     * @return Radial number
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Get azimuth values in radial order
+     * @return Azimuth values
+     */
+    public float[] getValues() {
+        return values;
+    }
+
+    /**
+     * Get azimuth values in ascending order
+     * @return Sorted azimuth values
+     */
+    public float[] getSortedValues() {
+        return sorted;
+    }
+
+    /**
+     * Get radial indices of the sorted azimuth values
+     * @return Radial indices
+     */
+    public int[] getOrder() {
+        return order;
+    }
+
+    /**
+     * Get azimuth value of a radial
+     * @param i Radial index
+     * @return Azimuth value
+     */
+    public float get(int i) {
+        return values[i];
+    }
+
+    /**
+     * Get the indices of the two radials around an azimuth value. Both indices
+     * are same if the azimuth equals to a radial azimuth, and both are -1 if
+     * the azimuth is NaN.
+     *
+     * @param a Azimuth value
+     * @param indices Output radial indices - 2 elements
+     */
+    public void indices(float a, int[] indices) {
+        int n = sorted.length;
+        if (Float.isNaN(a)) {
+            indices[0] = -1;
+            indices[1] = -1;
+            return;
+        }
+        if (a < sorted[0] || a > sorted[n - 1]) {
+            indices[0] = order[n - 1];
+            indices[1] = order[0];
+            return;
+        }
+
+        int low = 1, high = n - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < a) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (low < n) {
+            if (sorted[low] == a) {
+                indices[0] = order[low];
+            } else {
+                indices[0] = order[low - 1];
+            }
+            indices[1] = order[low];
+        } else if (a == sorted[0]) {
+            indices[0] = order[0];
+            indices[1] = order[0];
+        } else {
+            indices[0] = -1;
+            indices[1] = -1;
+        }
+    }
+
+    /**
+     * Get the indices of the two radials around an azimuth value
+     *
+     * @param a Azimuth value
+     * @return Radial indices - 2 elements
+     */
+    public int[] indices(float a) {
+        int[] r = new int[2];
+        indices(a, r);
+        return r;
+    }
+
+    /**
+     * Get the index of the nearest radial of an azimuth value
+     *
+     * @param a Azimuth value
+     * @return Radial index
+     */
+    public int nearest(float a) {
+        int[] idx = indices(a);
+        if (idx[0] == idx[1] || idx[0] < 0) {
+            return idx[0];
+        }
+        if (values[idx[1]] - a < a - values[idx[0]]) {
+            return idx[1];
+        } else {
+            return idx[0];
+        }
+    }
+}
@@ -13,6 +13,7 @@ import java.io.InputStream;
 import java.io.RandomAccessFile;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 public abstract class BaseRadarDataInfo extends DataInfo {
@@ -31,6 +32,9 @@ public abstract class BaseRadarDataInfo extends DataInfo {
     protected float beamWidthVert = 1.f;
     protected float logResolution = 1000;
     protected float dopplerResolution = 1000;
+    // Filters of the read in progress, reset after each read
+    protected Set<String> productFilter;
+    protected Set<Integer> scanFilter;
 
     /**
      * Get record map
@@ -58,17 +62,51 @@ public abstract class BaseRadarDataInfo extends DataInfo {
         return velocityGroup.contains(product);
     }
 
-    @Override
-    public void readDataInfo(String fileName) {
+    /**
+     * Whether a product is selected to be read
+     * @param product The product name
+     * @return Selected or not
+     */
+    protected boolean isProductSelected(String product) {
+        return productFilter == null || productFilter.contains(product);
+    }
+
+    /**
+     * Whether an elevation cut is selected to be read
+     * @param scanIdx The cut index in the data file
+     * @return Selected or not
+     */
+    protected boolean isScanSelected(int scanIdx) {
+        return scanFilter == null || scanFilter.contains(scanIdx);
+    }
+
+    /**
+     * Read data info of part of the products and elevation cuts. The data of
+     * other products and cuts are skipped without decoding.
+     * @param fileName The data file name
+     * @param products The product names, all products are read if it is null
+     * @param scans The cut indices (zero based), all cuts are read if it is null
+     */
+    public void readDataInfo(String fileName, Collection<String> products, Collection<Integer> scans) {
         this.fileName = fileName;
+        this.productFilter = products == null ? null : new HashSet<>(products);
+        this.scanFilter = scans == null ? null : new HashSet<>(scans);
         try {
             InputStream inputStream = RadarDataUtil.getInputStream(fileName);
             readDataInfo(inputStream);
         } catch (IOException e) {
             throw new RuntimeException(e);
+        } finally {
+            this.productFilter = null;
+            this.scanFilter = null;
         }
     }
 
+    @Override
+    public void readDataInfo(String fileName) {
+        readDataInfo(fileName, null, null);
+    }
+
     /**
      * Read data info
      * @param is The InputStream
@@ -132,14 +170,14 @@ public abstract class BaseRadarDataInfo extends DataInfo {
         Index elevIndex = elevData.getIndex();
         Index aziIndex = aziData.getIndex();
         for (int i = 0; i < nScan; i++) {
-            List<Float> elevList = radialRecord.elevation.get(i);
-            List<Float> aziList = radialRecord.azimuth.get(i);
-            nRData.setInt(i, aziList.size());
+            float[] elevList = radialRecord.getElevation(i);
+            float[] aziList = radialRecord.getAzimuth(i);
+            nRData.setInt(i, aziList.length);
             nGData.setInt(i, (int) radialRecord.distance.get(i).getSize());
             for (int j = 0; j < nRadial; j++) {
-                if (j < elevList.size()) {
-                    elevData.setFloat(elevIndex.set(i, j), elevList.get(j));
-                    aziData.setFloat(aziIndex.set(i, j), aziList.get(j));
+                if (j < elevList.length) {
+                    elevData.setFloat(elevIndex.set(i, j), elevList[j]);
+                    aziData.setFloat(aziIndex.set(i, j), aziList[j]);
                 } else {
                     elevData.setFloat(elevIndex.set(i, j), Float.NaN);
                     aziData.setFloat(aziIndex.set(i, j), Float.NaN);
@@ -155,6 +193,53 @@ public abstract class BaseRadarDataInfo extends DataInfo {
         nGates.setCachedData(nGData);
     }
 
+    /**
+     * Add dimensions and variables of the reflectivity and velocity groups.
+     * The reference records are dBZ and V, or the first record of each group
+     * if they are not read.
+     */
+    protected void makeRadialVariables() {
+        RadialRecord refRadialRecord = this.recordMap.get("dBZ");
+        RadialRecord velRadialRecord = this.recordMap.get("V");
+        for (RadialRecord record : this.recordMap.values()) {
+            if (record.isVelocityGroup()) {
+                if (velRadialRecord == null) {
+                    velRadialRecord = record;
+                }
+            } else if (refRadialRecord == null) {
+                refRadialRecord = record;
+            }
+        }
+        RadialRecord dimRecord = refRadialRecord == null ? velRadialRecord : refRadialRecord;
+        if (dimRecord == null) {
+            return;
+        }
+
+        radialDim = new Dimension();
+        radialDim.setName("radial");
+        radialDim.setLength(dimRecord.getMaxRadials());
+        this.addDimension(radialDim);
+        scanDim = new Dimension();
+        scanDim.setName("scan");
+        scanDim.setLength(dimRecord.getScanNumber());
+        this.addDimension(scanDim);
+        if (refRadialRecord != null) {
+            gateRDim = new Dimension();
+            gateRDim.setName("gateR");
+            gateRDim.setLength(refRadialRecord.getGateNumber(0));
+            this.addDimension(gateRDim);
+            makeRefVariables(refRadialRecord);
+        }
+
+        if (velRadialRecord != null) {
+            gateVDim = new Dimension();
+            gateVDim.setName("gateV");
+            gateVDim.setLength(velRadialRecord.getGateNumber(0));
+            this.addDimension(gateVDim);
+            makeVelVariables(velRadialRecord);
+        }
+    }
+
     protected void makeRefVariables(RadialRecord refRadialRecord) {
         Dimension[] dimensions = new Dimension[]{scanDim, radialDim, gateRDim};
         for (RadialRecord radialRecord : this.recordMap.values()) {
@@ -213,14 +298,14 @@ public abstract class BaseRadarDataInfo extends DataInfo {
         Index elevIndex = elevData.getIndex();
         Index aziIndex = aziData.getIndex();
         for (int i = 0; i < nScan; i++) {
-            List<Float> elevList = refRadialRecord.elevation.get(i);
-            List<Float> aziList = refRadialRecord.azimuth.get(i);
-            nRData.setInt(i, aziList.size());
+            float[] elevList = refRadialRecord.getElevation(i);
+            float[] aziList = refRadialRecord.getAzimuth(i);
+            nRData.setInt(i, aziList.length);
             nGData.setInt(i, (int) refRadialRecord.distance.get(i).getSize());
             for (int j = 0; j < nRadial; j++) {
-                if (j < elevList.size()) {
-                    elevData.setFloat(elevIndex.set(i, j), elevList.get(j));
-                    aziData.setFloat(aziIndex.set(i, j), aziList.get(j));
+                if (j < elevList.length) {
+                    elevData.setFloat(elevIndex.set(i, j), elevList[j]);
+                    aziData.setFloat(aziIndex.set(i, j), aziList[j]);
                 } else {
                     elevData.setFloat(elevIndex.set(i, j), Float.NaN);
                     aziData.setFloat(aziIndex.set(i, j), Float.NaN);
@@ -294,14 +379,14 @@ public abstract class BaseRadarDataInfo extends DataInfo {
         Index elevIndex = elevData.getIndex();
         Index aziIndex = aziData.getIndex();
         for (int i = 0; i < nScan; i++) {
-            List<Float> elevList = velRadialRecord.elevation.get(i);
-            List<Float> aziList = velRadialRecord.azimuth.get(i);
-            nRData.setInt(i, aziList.size());
+            float[] elevList = velRadialRecord.getElevation(i);
+            float[] aziList = velRadialRecord.getAzimuth(i);
+            nRData.setInt(i, aziList.length);
             nGData.setInt(i, (int) velRadialRecord.distance.get(i).getSize());
             for (int j = 0; j < nRadial; j++) {
-                if (j < elevList.size()) {
-                    elevData.setFloat(elevIndex.set(i, j), elevList.get(j));
-                    aziData.setFloat(aziIndex.set(i, j), aziList.get(j));
+                if (j < elevList.length) {
+                    elevData.setFloat(elevIndex.set(i, j), elevList[j]);
+                    aziData.setFloat(aziIndex.set(i, j), aziList[j]);
                 } else {
                     elevData.setFloat(elevIndex.set(i, j), Float.NaN);
                     aziData.setFloat(aziIndex.set(i, j), Float.NaN);
@@ -370,20 +455,9 @@ public abstract class BaseRadarDataInfo extends DataInfo {
             Range xRange = section.getRange(2);
             IndexIterator iter = dataArray.getIndexIterator();
             for (int s = zRange.first(); s <= zRange.last(); s += zRange.stride()) {
-                List<Array> arrays = record.getDataArray(s);
                 for (int i = yRange.first(); i <= yRange.last(); i += yRange.stride()) {
-                    if (i < arrays.size()) {
-                        Array array = arrays.get(i);
-                        for (int j = xRange.first(); j <= xRange.last(); j += xRange.stride()) {
-                            if (j < array.getSize())
-                                iter.setFloatNext(array.getFloat(j));
-                            else
-                                iter.setFloatNext(Float.NaN);
-                        }
-                    } else {
-                        for (int j = xRange.first(); j <= xRange.last(); j += xRange.stride()) {
-                            iter.setFloatNext(Float.NaN);
-                        }
+                    for (int j = xRange.first(); j <= xRange.last(); j += xRange.stride()) {
+                        iter.setFloatNext(record.getRawValue(s, i, j));
                     }
                 }
             }
@@ -449,20 +523,12 @@ public abstract class BaseRadarDataInfo extends DataInfo {
         if (h == null) {
             h = antennaHeight;
         }
-        Array[] rr = Transform.cartesianToAntennaElevation(xa, ya, record.fixedElevation.get(scanIdx), h);
-        Array azimuth = rr[0];
-        Array ranges = rr[1];
-        Array data = Array.factory(DataType.FLOAT, xa.getShape());
-        IndexIterator iterA = azimuth.getIndexIterator();
-        IndexIterator iterR = ranges.getIndexIterator();
-        IndexIterator iterData = data.getIndexIterator();
-        float v;
-        while (iterData.hasNext()) {
-            v = record.interpolateValue(scanIdx, iterA.getFloatNext(), iterR.getFloatNext());
-            iterData.setFloatNext(v);
-        }
+        RadarGridGeometry geometry = RadarGridGeometry.ofElevation(xa, ya, record.fixedElevation.get(scanIdx), h);
+        RadarGridLookup lookup = RadarGridLookup.ofScan(record, geometry, scanIdx);
+        float[] data = new float[geometry.getSize()];
+        lookup.interpolate(record, data, 0);
 
-        return data;
+        return Array.factory(DataType.FLOAT, xa.getShape(), data);
     }
 
     /**
@@ -480,40 +546,29 @@ public abstract class BaseRadarDataInfo extends DataInfo {
             h = antennaHeight;
         }
 
+        RadarGridLookup[] lookups = new RadarGridLookup[nScan];
+        for (int s = 0; s < nScan; s++) {
+            RadarGridGeometry geometry = RadarGridGeometry.ofElevation(xa, ya, record.fixedElevation.get(s), h);
+            lookups[s] = RadarGridLookup.ofScan(record, geometry, s);
+        }
         int[] shape = xa.getShape();
         int ny = shape[0];
         int nx = shape[1];
-        Array data = Array.factory(DataType.FLOAT, shape);
-        Index2D index2D = (Index2D) data.getIndex();
-        float v;
-        for (int s = 0; s < nScan; s++) {
-            Array[] rr = Transform.cartesianToAntennaElevation(xa, ya, record.fixedElevation.get(s), h);
-            Array azimuth = rr[0];
-            Array ranges = rr[1];
-            IndexIterator iterA = azimuth.getIndexIterator();
-            IndexIterator iterR = ranges.getIndexIterator();
-            if (s == 0) {
-                for (int i = 0; i < ny; i++) {
-                    for (int j = 0; j < nx; j++) {
-                        v = record.interpolateValue(s, iterA.getFloatNext(), iterR.getFloatNext());
-                        data.setFloat(index2D.set(i, j), v);
-                    }
-                }
-            } else {
-                float v1;
-                for (int i = 0; i < ny; i++) {
-                    for (int j = 0; j < nx; j++) {
-                        v = record.interpolateValue(s, iterA.getFloatNext(), iterR.getFloatNext());
-                        index2D.set(i, j);
-                        v1 = data.getFloat(index2D);
-                        if (Float.isNaN(v1) || (v > v1))
-                            data.setFloat(index2D, v);
-                    }
+        float[] data = new float[ny * nx];
+        IntStream.range(0, ny).parallel().forEach(i -> {
+            float v, v1;
+            for (int j = i * nx; j < (i + 1) * nx; j++) {
+                v1 = lookups[0].interpolate(record, j);
+                for (int s = 1; s < nScan; s++) {
+                    v = lookups[s].interpolate(record, j);
+                    if (Float.isNaN(v1) || (v > v1))
+                        v1 = v;
                 }
+                data[j] = v1;
             }
-        }
+        });
 
-        return data;
+        return Array.factory(DataType.FLOAT, shape, data);
     }
 
     /**
@@ -530,24 +585,13 @@ public abstract class BaseRadarDataInfo extends DataInfo {
         if (h == null) {
             h = antennaHeight;
         }
-        Array[] rr = Transform.cartesianToAntenna(xa, ya, z, h);
-        Array azimuth = rr[0];
-        Array ranges = rr[1];
-        Array elevation = rr[2];
-        Array data = Array.factory(DataType.FLOAT, xa.getShape());
-        IndexIterator iterA = azimuth.getIndexIterator();
-        IndexIterator iterR = ranges.getIndexIterator();
-        IndexIterator iterE = elevation.getIndexIterator();
-        IndexIterator iterData = data.getIndexIterator();
-        float v;
         float halfBeamWidth = beamWidthVert / 2;
-        while (iterData.hasNext()) {
-            v = record.interpolateValue(iterE.getFloatNext(), iterA.getFloatNext(),
-                    iterR.getFloatNext(), halfBeamWidth);
-            iterData.setFloatNext(v);
-        }
+        RadarGridGeometry geometry = RadarGridGeometry.ofHeight(xa, ya, z, h);
+        RadarGridLookup lookup = RadarGridLookup.ofVolume(record, geometry, halfBeamWidth);
+        float[] data = new float[geometry.getSize()];
+        lookup.interpolate(record, data, 0);
 
-        return data;
+        return Array.factory(DataType.FLOAT, xa.getShape(), data);
     }
 
     /**
@@ -568,28 +612,20 @@ public abstract class BaseRadarDataInfo extends DataInfo {
         int nz = (int) za.getSize();
         int[] shape2D = xa.getShape();
         int[] shape3D = new int[]{nz, shape2D[0], shape2D[1]};
-        Array data = Array.factory(DataType.FLOAT, shape3D);
-        IndexIterator iterData = data.getIndexIterator();
+        int n = shape2D[0] * shape2D[1];
+        float[] data = new float[nz * n];
         IndexIterator iterZ = za.getIndexIterator();
         float halfBeamWidth = beamWidthVert / 2;
+        int offset = 0;
         while(iterZ.hasNext()) {
             float z = iterZ.getFloatNext();
-            Array[] rr = Transform.cartesianToAntenna(xa, ya, z, h);
-            Array azimuth = rr[0];
-            Array ranges = rr[1];
-            Array elevation = rr[2];
-            IndexIterator iterA = azimuth.getIndexIterator();
-            IndexIterator iterR = ranges.getIndexIterator();
-            IndexIterator iterE = elevation.getIndexIterator();
-            float v;
-            while (iterA.hasNext()) {
-                v = record.interpolateValue(iterE.getFloatNext(), iterA.getFloatNext(),
-                        iterR.getFloatNext(), halfBeamWidth);
-                iterData.setFloatNext(v);
-            }
+            RadarGridGeometry geometry = RadarGridGeometry.ofHeight(xa, ya, z, h);
+            RadarGridLookup lookup = RadarGridLookup.ofVolume(record, geometry, halfBeamWidth);
+            lookup.interpolate(record, data, offset);
+            offset += n;
         }
 
-        return data;
+        return Array.factory(DataType.FLOAT, shape3D, data);
     }
 
     /**
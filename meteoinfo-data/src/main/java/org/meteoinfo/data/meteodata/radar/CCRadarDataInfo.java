@@ -69,6 +69,9 @@ public class CCRadarDataInfo extends BaseRadarDataInfo implements IRadarDataInfo
 
             List<String> products = new ArrayList<>(Arrays.asList("dBZ", "V", "W"));
             for (String product : products) {
+                if (!isProductSelected(product)) {
+                    continue;
+                }
                 RadialRecord record = new RadialRecord(product);
                 record.setRadarDataType(RadarDataType.CC);
                 record.setBinLength(2);
@@ -77,38 +80,34 @@ public class CCRadarDataInfo extends BaseRadarDataInfo implements IRadarDataInfo
                 this.recordMap.put(product, record);
             }
 
+            bytes = new byte[this.perRadialSize];
             for (int i = 0; i < sweepN; i++) {
                 CutConfig cutConfig = cutConfigs.get(i);
+                if (!isScanSelected(i)) {
+                    RadarDataUtil.skipFully(is, (long) this.perRadialSize * cutConfig.usRecordNumber);
+                    continue;
+                }
                 int radialN = cutConfig.usBinNumber;
                 float azimuth = 0;
                 float aDelta = 360.f / cutConfig.usRecordNumber;
                 for (int j = 0; j < cutConfig.usRecordNumber; j++) {
-                    bytes = new byte[this.perRadialSize];
-                    is.read(bytes);
+                    RadarDataUtil.readFully(is, bytes, 0, this.perRadialSize);
                     idx = 0;
                     for (String product : products) {
                         RadialRecord record = this.recordMap.get(product);
+                        if (record == null) {
+                            idx += 2 * radialN;
+                            continue;
+                        }
                         if (j == 0) {
-                            record.fixedElevation.add(cutConfig.getAngle());
-                            record.elevation.add(new ArrayList<>());
-                            record.azimuth.add(new ArrayList<>());
-                            record.azimuthMinIndex.add(0);
-                            record.disResolution.add((float) cutConfig.usBindWidth);
-                            record.distance.add(ArrayUtil.arrayRange1(300,
+                            record.newScan(cutConfig.getAngle(), (float) cutConfig.usBindWidth,
+                                    ArrayUtil.arrayRange1(300,
                                     radialN, cutConfig.usBindWidth));
-                            record.newScanData();
                         }
-                        record.elevation.get(record.elevation.size() - 1).add(cutConfig.getAngle());
+                        record.addElevation(cutConfig.getAngle());
                         record.addAzimuth(azimuth);
-                        byte[] data = Arrays.copyOfRange(bytes, idx, idx + 2 * radialN);
+                        record.addDataBytes(record.getScanNumber() - 1, bytes, idx, 2 * radialN);
                         idx += 2 * radialN;
-                        Array dataArray = Array.factory(record.getDataType(), new int[]{radialN});
-                        ByteBuffer byteBuffer = ByteBuffer.wrap(data);
-                        byteBuffer.order(ByteOrder.LITTLE_ENDIAN);
-                        for (int k = 0; k < radialN; k++) {
-                            dataArray.setShort(k, byteBuffer.getShort());
-                        }
-                        record.addDataArray(dataArray);
                     }
                     azimuth += aDelta;
                 }
@@ -127,27 +126,7 @@ public class CCRadarDataInfo extends BaseRadarDataInfo implements IRadarDataInfo
             this.addAttribute(new Attribute("RadarDataType", "CC"));
 
             //Add dimensions and variables
-            RadialRecord refRadialRecord = this.recordMap.get("dBZ");
-            radialDim = new Dimension();
-            radialDim.setName("radial");
-            radialDim.setLength(refRadialRecord.getMaxRadials());
-            this.addDimension(radialDim);
-            scanDim = new Dimension();
-            scanDim.setName("scan");
-            scanDim.setLength(refRadialRecord.getScanNumber());
-            this.addDimension(scanDim);
-            gateRDim = new Dimension();
-            gateRDim.setName("gateR");
-            gateRDim.setLength(refRadialRecord.getGateNumber(0));
-            this.addDimension(gateRDim);
-            makeRefVariables(refRadialRecord);
-
-            RadialRecord velRadialRecord = this.recordMap.get("V");
-            gateVDim = new Dimension();
-            gateVDim.setName("gateV");
-            gateVDim.setLength(velRadialRecord.getGateNumber(0));
-            this.addDimension(gateVDim);
-            makeVelVariables(velRadialRecord);
+            makeRadialVariables();
         } catch (FileNotFoundException e) {
             throw new RuntimeException(e);
         } catch (IOException e) {
@@ -5,6 +5,7 @@ import org.meteoinfo.common.DataConvert;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
 public class MomentHeader {
@@ -46,22 +47,17 @@ public class MomentHeader {
      * @param raf InputStream object
      */
     public MomentHeader(InputStream raf) throws IOException {
-        byte[] bytes = new byte[4];
-        raf.read(bytes);
-        dataType = DataConvert.bytes2Int(bytes, ByteOrder.LITTLE_ENDIAN);
-        raf.read(bytes);
-        scale = DataConvert.bytes2Int(bytes, ByteOrder.LITTLE_ENDIAN);
-        raf.read(bytes);
-        offset = DataConvert.bytes2Int(bytes, ByteOrder.LITTLE_ENDIAN);
-        bytes = new byte[2];
-        raf.read(bytes);
-        binLength = DataConvert.bytes2Short(bytes, ByteOrder.LITTLE_ENDIAN);
-        raf.read(bytes);
-        flags = DataConvert.bytes2Short(bytes, ByteOrder.LITTLE_ENDIAN);
-        bytes = new byte[4];
-        raf.read(bytes);
-        dataLength = DataConvert.bytes2Int(bytes, ByteOrder.LITTLE_ENDIAN);
+        byte[] bytes = new byte[length];
+        RadarDataUtil.readFully(raf, bytes);
+        ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+        byteBuffer.order(ByteOrder.LITTLE_ENDIAN);
+        dataType = byteBuffer.getInt();
+        scale = byteBuffer.getInt();
+        offset = byteBuffer.getInt();
+        binLength = byteBuffer.getShort();
+        flags = byteBuffer.getShort();
+        dataLength = byteBuffer.getInt();
         reserved = new byte[12];
-        raf.read(reserved);
+        byteBuffer.get(reserved);
     }
 }
@@ -176,14 +176,25 @@ public class PARadarDataInfo extends BaseRadarDataInfo implements IRadarDataInfo
             }
 
             //Read radial data
+            int[] scanIndices = new int[cutConfigs.size()];
+            int nScan = 0;
+            for (int i = 0; i < scanIndices.length; i++) {
+                scanIndices[i] = isScanSelected(i) ? nScan++ : -1;
+            }
             radialHeaders = new ArrayList<>();
             byte[] rhBytes = new byte[RadialHeader.length];
-            while (raf.read(rhBytes) != -1) {
+            byte[] buffer = new byte[0];
+            while (RadarDataUtil.readRecord(raf, rhBytes)) {
                 RadialHeader radialHeader = new RadialHeader(rhBytes);
-                int scanIdx = radialHeader.elevationNumber - 1;
+                int cutIdx = radialHeader.elevationNumber - 1;
+                int scanIdx = scanIndices[cutIdx];
                 for (int i = 0; i < radialHeader.momentNumber; i++) {
                     MomentHeader momentHeader = new MomentHeader(raf);
                     String product = this.productMap.get(momentHeader.dataType);
+                    if (scanIdx < 0 || !isProductSelected(product)) {
+                        RadarDataUtil.skipFully(raf, momentHeader.dataLength);
+                        continue;
+                    }
                     RadialRecord record;
                     if (this.recordMap.containsKey(product)) {
                         record = this.recordMap.get(product);
@@ -195,26 +206,23 @@ public class PARadarDataInfo extends BaseRadarDataInfo implements IRadarDataInfo
                         this.recordMap.put(product, record);
                     }
                     if (radialHeader.radialNumber == 1) {
-                        record.fixedElevation.add(cutConfigs.get(scanIdx).elevation);
-                        record.elevation.add(new ArrayList<>());
-                        record.azimuth.add(new ArrayList<>());
-                        record.azimuthMinIndex.add(0);
                         if (isVelocityGroup(record)) {
-                            record.disResolution.add(cutConfigs.get(scanIdx).dopplerResolution);
-                            record.distance.add(ArrayUtil.arrayRange1(0, momentHeader.dataLength / momentHeader.binLength,
-                                    cutConfigs.get(scanIdx).dopplerResolution));
+                            record.newScan(cutConfigs.get(cutIdx).elevation, cutConfigs.get(cutIdx).dopplerResolution,
+                                    ArrayUtil.arrayRange1(0, momentHeader.dataLength / momentHeader.binLength,
+                                    cutConfigs.get(cutIdx).dopplerResolution));
                         } else {
-                            record.disResolution.add(cutConfigs.get(scanIdx).logResolution);
-                            record.distance.add(ArrayUtil.arrayRange1(0, momentHeader.dataLength / momentHeader.binLength,
-                                    cutConfigs.get(scanIdx).logResolution));
+                            record.newScan(cutConfigs.get(cutIdx).elevation, cutConfigs.get(cutIdx).logResolution,
+                                    ArrayUtil.arrayRange1(0, momentHeader.dataLength / momentHeader.binLength,
+                                    cutConfigs.get(cutIdx).logResolution));
                         }
-                        record.newScanData();
                     }
-                    record.elevation.get(scanIdx).add(radialHeader.elevation);
+                    record.addElevation(scanIdx, radialHeader.elevation);
                     record.addAzimuth(scanIdx, radialHeader.azimuth);
-                    byte[] bytes = new byte[momentHeader.dataLength];
-                    raf.read(bytes);
-                    record.addDataBytes(scanIdx, bytes);
+                    if (buffer.length < momentHeader.dataLength) {
+                        buffer = new byte[momentHeader.dataLength];
+                    }
+                    RadarDataUtil.readFully(raf, buffer, 0, momentHeader.dataLength);
+                    record.addDataBytes(scanIdx, buffer, 0, momentHeader.dataLength);
                 }
                 radialHeaders.add(radialHeader);
             }
@@ -222,6 +230,12 @@ public class PARadarDataInfo extends BaseRadarDataInfo implements IRadarDataInfo
 
             //Add dimensions and variables
             RadialRecord radialRecord = this.recordMap.get("dBZ");
+            if (radialRecord == null) {
+                if (this.recordMap.isEmpty()) {
+                    return;
+                }
+                radialRecord = this.recordMap.values().iterator().next();
+            }
             radialDim = new Dimension();
             radialDim.setName("radial");
             radialDim.setLength(radialRecord.getMaxRadials());
@@ -0,0 +1,97 @@
+package org.meteoinfo.data.meteodata.radar;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Least recently used cache bounded by the estimated memory size of the
+ * cached values.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+class RadarCache<K, V> {
+
+    private final LinkedHashMap<K, V> map = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<K, Long> sizes = new LinkedHashMap<>();
+    private final ToLongFunction<V> sizer;
+    private long maxBytes;
+    private long bytes;
+
+    /**
+     * Constructor
+     * @param maxBytes Maximum cached bytes
+     * @param sizer Estimated byte size of a value
+     */
+    RadarCache(long maxBytes, ToLongFunction<V> sizer) {
+        this.maxBytes = maxBytes;
+        this.sizer = sizer;
+    }
+
+    /**
+     * Get maximum cached bytes
+     * @return Maximum cached bytes
+     */
+    synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Set maximum cached bytes, 0 to disable the caching
+     * @param value Maximum cached bytes
+     */
+    synchronized void setMaxBytes(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Maximum cache bytes should not be negative: " + value);
+        }
+        this.maxBytes = value;
+        trim();
+    }
+
+    /**
+     * Get estimated cached bytes
+     * @return Cached bytes
+     */
+    synchronized long getBytes() {
+        return bytes;
+    }
+
+    synchronized V get(K key) {
+        return map.get(key);
+    }
+
+    synchronized void put(K key, V value) {
+        long size = sizer.applyAsLong(value);
+        if (size > maxBytes) {
+            return;
+        }
+        remove(key);
+        map.put(key, value);
+        sizes.put(key, size);
+        bytes += size;
+        trim();
+    }
+
+    synchronized void clear() {
+        map.clear();
+        sizes.clear();
+        bytes = 0;
+    }
+
+    private void remove(K key) {
+        if (map.remove(key) != null) {
+            bytes -= sizes.remove(key);
+        }
+    }
+
+    private void trim() {
+        Iterator<K> it = map.keySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            K key = it.next();
+            it.remove();
+            bytes -= sizes.remove(key);
+        }
+    }
+}
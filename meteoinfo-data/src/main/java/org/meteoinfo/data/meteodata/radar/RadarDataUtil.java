@@ -17,6 +17,8 @@ import java.util.zip.GZIPInputStream;
 
 public class RadarDataUtil {
 
+    private static final int BUFFER_SIZE = 1 << 16;
+
     /**
      * Get radar data type
      * @param raf RandomAccessFile object
@@ -67,13 +69,87 @@ public class RadarDataUtil {
      */
     public static InputStream getInputStream(String fileName) throws IOException {
         String fileExtent = FilenameUtils.getExtension(fileName).toLowerCase();
+        InputStream fileStream = new BufferedInputStream(Files.newInputStream(Paths.get(fileName)),
+                BUFFER_SIZE);
         switch (fileExtent) {
             case "bz2":
-                return new BZip2CompressorInputStream(Files.newInputStream(Paths.get(fileName)));
+                return new BufferedInputStream(new BZip2CompressorInputStream(fileStream), BUFFER_SIZE);
             case "gz":
-                return new GzipCompressorInputStream(new FileInputStream(fileName));
+                return new BufferedInputStream(new GzipCompressorInputStream(fileStream), BUFFER_SIZE);
             default:
-                return new BufferedInputStream(Files.newInputStream(Paths.get(fileName)));
+                return fileStream;
+        }
+    }
+
+    /**
+     * Read bytes from an InputStream until the buffer is filled. Decompressing
+     * streams may return less bytes than requested by a single read.
+     *
+     * @param is The InputStream
+     * @param bytes The buffer
+     * @param off Start offset in the buffer
+     * @param len Byte number to read
+     * @throws EOFException If the end of the stream is reached before the bytes are read
+     * @throws IOException
+     */
+    public static void readFully(InputStream is, byte[] bytes, int off, int len) throws IOException {
+        int n = 0;
+        while (n < len) {
+            int count = is.read(bytes, off + n, len - n);
+            if (count < 0) {
+                throw new EOFException();
+            }
+            n += count;
+        }
+    }
+
+    /**
+     * Read bytes from an InputStream until the buffer is filled
+     *
+     * @param is The InputStream
+     * @param bytes The buffer
+     * @throws EOFException If the end of the stream is reached before the buffer is filled
+     * @throws IOException
+     */
+    public static void readFully(InputStream is, byte[] bytes) throws IOException {
+        readFully(is, bytes, 0, bytes.length);
+    }
+
+    /**
+     * Read the next record from an InputStream into the buffer
+     *
+     * @param is The InputStream
+     * @param bytes The buffer of the record
+     * @return False if the stream has already ended before the record
+     * @throws EOFException If the stream ends within the record
+     * @throws IOException
+     */
+    public static boolean readRecord(InputStream is, byte[] bytes) throws IOException {
+        int count = bytes.length == 0 ? 0 : is.read(bytes, 0, bytes.length);
+        if (count < 0) {
+            return false;
+        }
+        readFully(is, bytes, count, bytes.length - count);
+        return true;
+    }
+
+    /**
+     * Skip bytes of an InputStream without keeping them
+     *
+     * @param is The InputStream
+     * @param n Byte number to skip
+     * @throws IOException
+     */
+    public static void skipFully(InputStream is, long n) throws IOException {
+        while (n > 0) {
+            long count = is.skip(n);
+            if (count <= 0) {
+                if (is.read() < 0) {
+                    throw new EOFException();
+                }
+                count = 1;
+            }
+            n -= count;
         }
     }
 
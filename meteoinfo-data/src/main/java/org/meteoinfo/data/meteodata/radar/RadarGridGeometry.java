@@ -0,0 +1,228 @@
+package org.meteoinfo.data.meteodata.radar;
+
+import org.meteoinfo.ndarray.Array;
+import org.meteoinfo.ndarray.IndexIterator;
+
+import java.util.stream.IntStream;
+
+/**
+ * Antenna coordinates of the cells of a cartesian grid around a radar.
+ *
+ * <p>The geometry only depends on the grid, the radar height and the
+ * elevation angle (PPI) or the height (CAPPI), so it is cached and reused
+ * across products and volume scans. The cache is keyed on the identity of
+ * the coordinate arrays, so the arrays should not be modified in place once
+ * they are used.
+ */
+public class RadarGridGeometry {
+
+    private static final RadarCache<Key, RadarGridGeometry> cache = new RadarCache<>(32L << 20, RadarGridGeometry::getBytes);
+
+    private final int[] shape;
+    private final float[] azimuth;
+    private final float[] range;
+    private final float[] elevation;
+
+    private RadarGridGeometry(int[] shape, float[] azimuth, float[] range, float[] elevation) {
+        this.shape = shape;
+        this.azimuth = azimuth;
+        this.range = range;
+        this.elevation = elevation;
+    }
+
+    /**
+     * Get grid shape
+     * @return Grid shape
+     */
+    public int[] getShape() {
+        return shape.clone();
+    }
+
+    /**
+     * Get grid cell number
+     * @return Grid cell number
+     */
+    public int getSize() {
+        return azimuth.length;
+    }
+
+    /**
+     * Get azimuth of each grid cell in degree
+     * @return Azimuth values
+     */
+    public float[] getAzimuth() {
+        return azimuth;
+    }
+
+    /**
+     * Get range of each grid cell in meters
+     * @return Range values
+     */
+    public float[] getRange() {
+        return range;
+    }
+
+    /**
+     * Get elevation of each grid cell in degree, null for fixed elevation geometry
+     * @return Elevation values
+     */
+    public float[] getElevation() {
+        return elevation;
+    }
+
+    /**
+     * Get estimated memory size of the geometry and the coordinate arrays
+     * held by its cache key
+     * @return Byte number
+     */
+    long getBytes() {
+        long n = azimuth.length;
+        return (elevation == null ? 4 : 5) * 4 * n;
+    }
+
+    /**
+     * Get row number of the grid for row parallel calculation
+     * @return Row number
+     */
+    int getRowNumber() {
+        return shape.length > 1 ? shape[0] : 1;
+    }
+
+    /**
+     * Get maximum memory size of the cached geometries
+     * @return Maximum cached bytes
+     */
+    public static long getMaxCacheBytes() {
+        return cache.getMaxBytes();
+    }
+
+    /**
+     * Set maximum memory size of the cached geometries, the least recently used
+     * ones are removed beyond it, 0 to disable the caching. The default is 32MB.
+     * @param value Maximum cached bytes
+     */
+    public static void setMaxCacheBytes(long value) {
+        cache.setMaxBytes(value);
+    }
+
+    /**
+     * Clear cached geometries
+     */
+    public static void clearCache() {
+        cache.clear();
+        RadarGridLookup.clearCache();
+    }
+
+    /**
+     * Get the geometry of a grid on the cone of a fixed elevation angle
+     * @param xa X coordinates array in meters
+     * @param ya Y coordinates array in meters
+     * @param e Elevation angle
+     * @param h Radar height
+     * @return Grid geometry
+     */
+    public static RadarGridGeometry ofElevation(Array xa, Array ya, float e, float h) {
+        return get(new Key(false, e, h, xa, ya));
+    }
+
+    /**
+     * Get the geometry of a grid on a fixed height
+     * @param xa X coordinates array in meters
+     * @param ya Y coordinates array in meters
+     * @param z Height in meters
+     * @param h Radar height
+     * @return Grid geometry
+     */
+    public static RadarGridGeometry ofHeight(Array xa, Array ya, float z, float h) {
+        return get(new Key(true, z, h, xa, ya));
+    }
+
+    private static RadarGridGeometry get(Key key) {
+        RadarGridGeometry geometry;
+        geometry = cache.get(key);
+        if (geometry == null) {
+            geometry = calculate(key);
+            cache.put(key, geometry);
+        }
+        return geometry;
+    }
+
+    private static RadarGridGeometry calculate(Key key) {
+        int[] shape = key.xa.getShape();
+        float[] x = toArray(key.xa);
+        float[] y = toArray(key.ya);
+        int n = x.length;
+        float[] azimuth = new float[n];
+        float[] range = new float[n];
+        float[] elevation = key.height ? new float[n] : null;
+        int nRow = shape.length > 1 ? shape[0] : 1;
+        int rowLen = nRow == 0 ? 0 : n / nRow;
+        IntStream.range(0, nRow).parallel().forEach(row -> {
+            double[] rr;
+            for (int i = row * rowLen; i < (row + 1) * rowLen; i++) {
+                if (key.height) {
+                    rr = Transform.cartesianToAntenna(x[i], y[i], key.value, key.h);
+                    elevation[i] = (float) rr[2];
+                } else {
+                    rr = Transform.cartesianToAntennaElevation(x[i], y[i], key.value, key.h);
+                }
+                azimuth[i] = (float) rr[0];
+                range[i] = (float) rr[1];
+            }
+        });
+
+        return new RadarGridGeometry(shape, azimuth, range, elevation);
+    }
+
+    private static float[] toArray(Array a) {
+        float[] r = new float[(int) a.getSize()];
+        IndexIterator iter = a.getIndexIterator();
+        int i = 0;
+        while (iter.hasNext()) {
+            r[i++] = iter.getFloatNext();
+        }
+        return r;
+    }
+
+    private static class Key {
+        final boolean height;
+        final float value;
+        final float h;
+        final Array xa;
+        final Array ya;
+        final int hash;
+
+        Key(boolean height, float value, float h, Array xa, Array ya) {
+            this.height = height;
+            this.value = value;
+            this.h = h;
+            this.xa = xa;
+            this.ya = ya;
+            int result = Boolean.hashCode(height);
+            result = 31 * result + Float.hashCode(value);
+            result = 31 * result + Float.hashCode(h);
+            result = 31 * result + System.identityHashCode(xa);
+            result = 31 * result + System.identityHashCode(ya);
+            this.hash = result;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return xa == other.xa && ya == other.ya && height == other.height
+                    && Float.compare(value, other.value) == 0
+                    && Float.compare(h, other.h) == 0;
+        }
+    }
+}
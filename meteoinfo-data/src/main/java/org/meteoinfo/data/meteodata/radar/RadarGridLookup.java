@@ -0,0 +1,288 @@
+package org.meteoinfo.data.meteodata.radar;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Lookup table from the cells of a radar grid geometry to the scans and
+ * radials of a radial record.
+ *
+ * <p>The table only depends on the geometry, the radial azimuths and the scan
+ * elevations, so it is cached and shared by the products and volume scans
+ * with same radial layout. The gate indices and interpolation weights are
+ * cheap and calculated when the values are interpolated.
+ */
+public class RadarGridLookup {
+
+    private static final RadarCache<Key, RadarGridLookup> cache = new RadarCache<>(32L << 20, RadarGridLookup::getBytes);
+
+    private final RadarGridGeometry geometry;
+    private final int scanIdx;
+    private final float halfBeamWidth;
+    private final float[] fixedElevation;
+    private final int[] scan1;
+    private final int[] scan2;
+    private final int[][] azi1;
+    private final int[][] azi2;
+
+    private RadarGridLookup(RadarGridGeometry geometry, int scanIdx, float halfBeamWidth,
+                            float[] fixedElevation, AzimuthIndex[] azimuthIndices) {
+        this.geometry = geometry;
+        this.scanIdx = scanIdx;
+        this.halfBeamWidth = halfBeamWidth;
+        this.fixedElevation = fixedElevation;
+        int n = geometry.getSize();
+        int nSlot = scanIdx < 0 ? 2 : 1;
+        this.azi1 = new int[nSlot][n];
+        this.azi2 = new int[nSlot][n];
+        if (scanIdx < 0) {
+            this.scan1 = new int[n];
+            this.scan2 = new int[n];
+        } else {
+            this.scan1 = null;
+            this.scan2 = null;
+        }
+
+        float[] azimuth = geometry.getAzimuth();
+        float[] elevation = geometry.getElevation();
+        int nRow = geometry.getRowNumber();
+        int rowLen = nRow == 0 ? 0 : n / nRow;
+        IntStream.range(0, nRow).parallel().forEach(row -> {
+            int[] idx = new int[2];
+            for (int i = row * rowLen; i < (row + 1) * rowLen; i++) {
+                if (scanIdx >= 0) {
+                    azimuthIndices[scanIdx].indices(azimuth[i], idx);
+                    azi1[0][i] = idx[0];
+                    azi2[0][i] = idx[1];
+                } else {
+                    int[] ss = getScanIndices(elevation[i]);
+                    scan1[i] = ss[0];
+                    scan2[i] = ss[1];
+                    if (ss[0] >= 0) {
+                        azimuthIndices[ss[0]].indices(azimuth[i], idx);
+                        azi1[0][i] = idx[0];
+                        azi2[0][i] = idx[1];
+                        if (ss[1] != ss[0]) {
+                            azimuthIndices[ss[1]].indices(azimuth[i], idx);
+                            azi1[1][i] = idx[0];
+                            azi2[1][i] = idx[1];
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Get maximum memory size of the cached lookup tables
+     * @return Maximum cached bytes
+     */
+    public static long getMaxCacheBytes() {
+        return cache.getMaxBytes();
+    }
+
+    /**
+     * Set maximum memory size of the cached lookup tables, the least recently used
+     * ones are removed beyond it, 0 to disable the caching. The default is 32MB.
+     * @param value Maximum cached bytes
+     */
+    public static void setMaxCacheBytes(long value) {
+        cache.setMaxBytes(value);
+    }
+
+    /**
+     * Clear cached lookup tables
+     */
+    public static void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * Get lookup table of a scan on a fixed elevation geometry
+     * @param record The radial record
+     * @param geometry The grid geometry
+     * @param scanIdx Scan index
+     * @return Lookup table
+     */
+    public static RadarGridLookup ofScan(RadialRecord record, RadarGridGeometry geometry, int scanIdx) {
+        AzimuthIndex[] azimuthIndices = new AzimuthIndex[record.getScanNumber()];
+        azimuthIndices[scanIdx] = record.getAzimuthIndex(scanIdx);
+        return get(new Key(geometry, scanIdx, 0, null, azimuthIndices));
+    }
+
+    /**
+     * Get lookup table of all scans on a fixed height geometry
+     * @param record The radial record
+     * @param geometry The grid geometry
+     * @param halfBeamWidth Half beam width
+     * @return Lookup table
+     */
+    public static RadarGridLookup ofVolume(RadialRecord record, RadarGridGeometry geometry, float halfBeamWidth) {
+        int nScan = record.getScanNumber();
+        AzimuthIndex[] azimuthIndices = new AzimuthIndex[nScan];
+        float[] fixedElevation = new float[nScan];
+        for (int i = 0; i < nScan; i++) {
+            azimuthIndices[i] = record.getAzimuthIndex(i);
+            fixedElevation[i] = record.fixedElevation.get(i);
+        }
+        return get(new Key(geometry, -1, halfBeamWidth, fixedElevation, azimuthIndices));
+    }
+
+    private static RadarGridLookup get(Key key) {
+        RadarGridLookup lookup;
+        lookup = cache.get(key);
+        if (lookup == null) {
+            lookup = new RadarGridLookup(key.geometry, key.scanIdx, key.halfBeamWidth,
+                    key.fixedElevation, key.azimuthIndices);
+            cache.put(key, lookup);
+        }
+        return lookup;
+    }
+
+    /**
+     * Get estimated memory size of the lookup table
+     * @return Byte number
+     */
+    long getBytes() {
+        long n = geometry.getSize();
+        return (azi1.length * 2 + (scan1 == null ? 0 : 2)) * 4 * n;
+    }
+
+    /**
+     * Get the grid geometry
+     * @return Grid geometry
+     */
+    public RadarGridGeometry getGeometry() {
+        return geometry;
+    }
+
+    private int[] getScanIndices(float e) {
+        int n = fixedElevation.length;
+        if (e < fixedElevation[0] - halfBeamWidth || e > fixedElevation[n - 1] + halfBeamWidth) {
+            return new int[]{-1, -1};
+        } else if (e <= fixedElevation[0]) {
+            return new int[]{0, 0};
+        } else if (e >= fixedElevation[n - 1]) {
+            return new int[]{n - 1, n - 1};
+        }
+
+        for (int i = 1; i < n; i++) {
+            if (e <= fixedElevation[i]) {
+                return new int[]{i - 1, i};
+            }
+        }
+
+        return new int[]{-1, -1};
+    }
+
+    /**
+     * Interpolate the value of a grid cell
+     * @param record The radial record
+     * @param i Grid cell index
+     * @return Data value
+     */
+    public float interpolate(RadialRecord record, int i) {
+        float a = geometry.getAzimuth()[i];
+        float r = geometry.getRange()[i];
+        if (scanIdx >= 0) {
+            return record.interpolateValue(scanIdx, azi1[0][i], azi2[0][i], a, r);
+        }
+
+        int ei1 = scan1[i];
+        if (ei1 < 0) {
+            return Float.NaN;
+        }
+        int ei2 = scan2[i];
+        float v = record.interpolateValue(ei1, azi1[0][i], azi2[0][i], a, r);
+        if (ei2 != ei1) {
+            float v2 = record.interpolateValue(ei2, azi1[1][i], azi2[1][i], a, r);
+            if (Float.isNaN(v)) {
+                v = v2;
+            } else {
+                if (!Float.isNaN(v2)) {
+                    float e = geometry.getElevation()[i];
+                    v = v + (v2 - v) * (e - fixedElevation[ei1]) / (fixedElevation[ei2] -
+                            fixedElevation[ei1]);
+                }
+            }
+        }
+
+        return v;
+    }
+
+    /**
+     * Interpolate the values of all grid cells, rows are calculated in parallel
+     * @param record The radial record
+     * @param data Output data
+     * @param offset Start position in the output data
+     */
+    public void interpolate(RadialRecord record, float[] data, int offset) {
+        int n = geometry.getSize();
+        int nRow = geometry.getRowNumber();
+        int rowLen = nRow == 0 ? 0 : n / nRow;
+        IntStream.range(0, nRow).parallel().forEach(row -> {
+            for (int i = row * rowLen; i < (row + 1) * rowLen; i++) {
+                data[offset + i] = interpolate(record, i);
+            }
+        });
+    }
+
+    private static class Key {
+        final RadarGridGeometry geometry;
+        final int scanIdx;
+        final float halfBeamWidth;
+        final float[] fixedElevation;
+        final AzimuthIndex[] azimuthIndices;
+        final int hash;
+
+        Key(RadarGridGeometry geometry, int scanIdx, float halfBeamWidth, float[] fixedElevation,
+            AzimuthIndex[] azimuthIndices) {
+            this.geometry = geometry;
+            this.scanIdx = scanIdx;
+            this.halfBeamWidth = halfBeamWidth;
+            this.fixedElevation = fixedElevation;
+            this.azimuthIndices = azimuthIndices;
+            int result = System.identityHashCode(geometry);
+            result = 31 * result + scanIdx;
+            result = 31 * result + Float.hashCode(halfBeamWidth);
+            result = 31 * result + Arrays.hashCode(fixedElevation);
+            for (AzimuthIndex ai : azimuthIndices) {
+                result = 31 * result + (ai == null ? 0 : Arrays.hashCode(ai.getValues()));
+            }
+            this.hash = result;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            if (hash != other.hash || geometry != other.geometry || scanIdx != other.scanIdx
+                    || Float.compare(halfBeamWidth, other.halfBeamWidth) != 0
+                    || !Arrays.equals(fixedElevation, other.fixedElevation)
+                    || azimuthIndices.length != other.azimuthIndices.length) {
+                return false;
+            }
+            for (int i = 0; i < azimuthIndices.length; i++) {
+                AzimuthIndex a = azimuthIndices[i];
+                AzimuthIndex b = other.azimuthIndices[i];
+                if (a == b) {
+                    continue;
+                }
+                if (a == null || b == null || !Arrays.equals(a.getValues(), b.getValues())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
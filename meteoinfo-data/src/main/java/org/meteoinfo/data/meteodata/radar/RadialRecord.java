@@ -1,6 +1,5 @@
 package org.meteoinfo.data.meteodata.radar;
 
-import org.meteoinfo.common.DataConvert;
 import org.meteoinfo.data.dimarray.Dimension;
 import org.meteoinfo.data.dimarray.DimensionType;
 import org.meteoinfo.data.meteodata.Attribute;
@@ -8,11 +7,10 @@ import org.meteoinfo.data.meteodata.Variable;
 import org.meteoinfo.ndarray.Array;
 import org.meteoinfo.ndarray.DataType;
 import org.meteoinfo.ndarray.Index;
-import org.meteoinfo.ndarray.math.ArrayUtil;
+import org.meteoinfo.ndarray.IndexIterator;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class RadialRecord {
@@ -24,12 +22,95 @@ public class RadialRecord {
     public float scale = 1;
     public float offset = 0;
     public List<Float> fixedElevation = new ArrayList<>();
-    public List<List<Float>> elevation = new ArrayList<>();
-    public List<List<Float>> azimuth = new ArrayList<>();
-    public List<Integer> azimuthMinIndex = new ArrayList<>();
     public List<Array> distance = new ArrayList<>();
     public List<Float> disResolution = new ArrayList<>();
-    private final List<List<Array>> data = new ArrayList<>();
+    private final List<Scan> scans = new ArrayList<>();
+
+    /**
+     * Radial data of a scan. Azimuth and elevation are stored in primitive
+     * arrays and the gate data of all radials in one contiguous (radial x gate)
+     * buffer.
+     */
+    private static class Scan {
+        private static final int INITIAL_RADIALS = 360;
+        float[] azimuth = new float[INITIAL_RADIALS];
+        float[] elevation = new float[INITIAL_RADIALS];
+        int[] gateNum = new int[INITIAL_RADIALS];
+        int azimuthNum;
+        int elevationNum;
+        int radialNum;
+        int azimuthMinIndex;
+        int gateStride;
+        Array data;
+        volatile AzimuthIndex azimuthIndex;
+
+        Scan(int gateStride) {
+            this.gateStride = Math.max(gateStride, 1);
+        }
+
+        void addAzimuth(float a) {
+            if (azimuthNum == azimuth.length) {
+                azimuth = Arrays.copyOf(azimuth, azimuthNum * 2);
+            }
+            azimuth[azimuthNum++] = a;
+            if (azimuthMinIndex == 0 && azimuthNum > 1) {
+                if (a < azimuth[azimuthNum - 2]) {
+                    azimuthMinIndex = azimuthNum - 1;
+                }
+            }
+            azimuthIndex = null;
+        }
+
+        void addElevation(float e) {
+            if (elevationNum == elevation.length) {
+                elevation = Arrays.copyOf(elevation, elevationNum * 2);
+            }
+            elevation[elevationNum++] = e;
+        }
+
+        /**
+         * Start a new radial and get the start position of it in the data buffer
+         * @param dataType Data type
+         * @param n Gate number of the radial
+         * @return Start position
+         */
+        int newRadial(DataType dataType, int n) {
+            if (data == null) {
+                gateStride = Math.max(gateStride, n);
+                data = Array.factory(dataType, new int[]{INITIAL_RADIALS * gateStride});
+            } else if (n > gateStride) {
+                resize(gateNum.length, n);
+            }
+            if (radialNum == gateNum.length) {
+                resize(radialNum * 2, gateStride);
+            }
+            gateNum[radialNum] = n;
+            return gateStride * radialNum++;
+        }
+
+        private void resize(int capacity, int stride) {
+            Array newData = Array.factory(data.getDataType(), new int[]{capacity * stride});
+            Object src = data.getStorage();
+            Object dst = newData.getStorage();
+            if (stride == gateStride) {
+                System.arraycopy(src, 0, dst, 0, radialNum * gateStride);
+            } else {
+                for (int i = 0; i < radialNum; i++) {
+                    System.arraycopy(src, i * gateStride, dst, i * stride, gateNum[i]);
+                }
+            }
+            data = newData;
+            gateStride = stride;
+            gateNum = Arrays.copyOf(gateNum, capacity);
+        }
+
+        float getRawValue(int ai, int gi) {
+            if (ai >= radialNum || gi < 0 || gi >= gateNum[ai]) {
+                return Float.NaN;
+            }
+            return data.getFloat(ai * gateStride + gi);
+        }
+    }
 
     /**
      * Constructor
@@ -81,21 +162,46 @@ public class RadialRecord {
         this.dataType = dataType;
     }
 
+    /**
+     * Add a new scan
+     * @param fixedElevation Fixed elevation angle of the scan
+     * @param disResolution Distance resolution
+     * @param distance Distance array of the gates
+     */
+    public void newScan(float fixedElevation, float disResolution, Array distance) {
+        this.fixedElevation.add(fixedElevation);
+        this.disResolution.add(disResolution);
+        this.distance.add(distance);
+        this.scans.add(new Scan((int) distance.getSize()));
+    }
+
+    private Scan lastScan() {
+        return this.scans.get(this.scans.size() - 1);
+    }
+
+    /**
+     * Add an elevation value
+     * @param e Elevation value
+     */
+    public void addElevation(float e) {
+        lastScan().addElevation(e);
+    }
+
+    /**
+     * Add an elevation value
+     * @param scanIdx Scan index
+     * @param e Elevation value
+     */
+    public void addElevation(int scanIdx, float e) {
+        this.scans.get(scanIdx).addElevation(e);
+    }
+
     /**
      * Add an azimuth value
      * @param a Azimuth value
      */
     public void addAzimuth(float a) {
-        int n = getScanNumber();
-        List<Float> azi = this.azimuth.get(n - 1);
-        azi.add(a);
-        if (this.azimuthMinIndex.get(n - 1) == 0) {
-            if (azi.size() > 1) {
-                if (a < azi.get(azi.size() - 2)) {
-                    this.azimuthMinIndex.set(n - 1, azi.size() - 1);
-                }
-            }
-        }
+        lastScan().addAzimuth(a);
     }
 
     /**
@@ -104,15 +210,7 @@ public class RadialRecord {
      * @param a Azimuth value
      */
     public void addAzimuth(int scanIdx, float a) {
-        List<Float> azi = this.azimuth.get(scanIdx);
-        azi.add(a);
-        if (this.azimuthMinIndex.get(scanIdx) == 0) {
-            if (azi.size() > 1) {
-                if (a < azi.get(azi.size() - 2)) {
-                    this.azimuthMinIndex.set(scanIdx, azi.size() - 1);
-                }
-            }
-        }
+        this.scans.get(scanIdx).addAzimuth(a);
     }
 
     /**
@@ -128,7 +226,7 @@ public class RadialRecord {
      * @return Scan number
      */
     public int getScanNumber() {
-        return elevation.size();
+        return scans.size();
     }
 
     /**
@@ -137,7 +235,7 @@ public class RadialRecord {
      * @return Radial number
      */
     public int getRadialNumber(int scanIdx) {
-        return elevation.get(scanIdx).size();
+        return scans.get(scanIdx).elevationNum;
     }
 
     /**
@@ -150,10 +248,23 @@ public class RadialRecord {
     }
 
     /**
-     * Add new scan data list
+     * Get azimuth values of a scan
+     * @param scanIdx The scan index
+     * @return Azimuth values
      */
-    public void newScanData() {
-        this.data.add(new ArrayList<>());
+    public float[] getAzimuth(int scanIdx) {
+        Scan scan = scans.get(scanIdx);
+        return Arrays.copyOf(scan.azimuth, scan.azimuthNum);
+    }
+
+    /**
+     * Get elevation values of a scan
+     * @param scanIdx The scan index
+     * @return Elevation values
+     */
+    public float[] getElevation(int scanIdx) {
+        Scan scan = scans.get(scanIdx);
+        return Arrays.copyOf(scan.elevation, scan.elevationNum);
     }
 
     /**
@@ -161,11 +272,13 @@ public class RadialRecord {
      * @param array Data array
      */
     public void addDataArray(Array array) {
-        if (this.data.isEmpty()) {
-            this.data.add(new ArrayList<>());
+        Scan scan = lastScan();
+        int n = (int) array.getSize();
+        int start = scan.newRadial(this.dataType, n);
+        IndexIterator iter = array.getIndexIterator();
+        for (int i = start; i < start + n; i++) {
+            scan.data.setDouble(i, iter.getDoubleNext());
         }
-
-        this.data.get(this.data.size() - 1).add(array);
     }
 
     /**
@@ -173,21 +286,7 @@ public class RadialRecord {
      * @param bytes Data bytes
      */
     public void addDataBytes(byte[] bytes) {
-        if (this.data.isEmpty()) {
-            this.data.add(new ArrayList<>());
-        }
-        Array array;
-        if (this.dataType == DataType.UBYTE) {
-            array = Array.factory(this.dataType, new int[]{bytes.length}, bytes);
-        } else {
-            int n = bytes.length / 2;
-            array = Array.factory(this.dataType, new int[]{n});
-            for (int i = 0; i < n; i++) {
-                short v = DataConvert.bytes2Short(new byte[]{bytes[i*2], bytes[i*2+1]}, ByteOrder.LITTLE_ENDIAN);
-                array.setShort(i, v);
-            }
-        }
-        this.data.get(this.data.size() - 1).add(array);
+        addDataBytes(lastScan(), bytes, 0, bytes.length);
     }
 
     /**
@@ -196,21 +295,33 @@ public class RadialRecord {
      * @param bytes Data bytes
      */
     public void addDataBytes(int index, byte[] bytes) {
-        if (this.data.isEmpty()) {
-            this.data.add(new ArrayList<>());
-        }
-        Array array;
+        addDataBytes(this.scans.get(index), bytes, 0, bytes.length);
+    }
+
+    /**
+     * Add a radial data from part of a byte buffer. The bytes are decoded
+     * directly into the scan storage, so the buffer can be reused.
+     * @param index Scan index
+     * @param bytes Byte buffer
+     * @param off Start offset in the buffer
+     * @param len Byte number of the radial data
+     */
+    public void addDataBytes(int index, byte[] bytes, int off, int len) {
+        addDataBytes(this.scans.get(index), bytes, off, len);
+    }
+
+    private void addDataBytes(Scan scan, byte[] bytes, int off, int len) {
         if (this.dataType == DataType.UBYTE) {
-            array = Array.factory(this.dataType, new int[]{bytes.length}, bytes);
+            int start = scan.newRadial(this.dataType, len);
+            System.arraycopy(bytes, off, scan.data.getStorage(), start, len);
         } else {
-            int n = bytes.length / 2;
-            array = Array.factory(this.dataType, new int[]{n});
-            for (int i = 0; i < n; i++) {
-                short v = DataConvert.bytes2Short(new byte[]{bytes[i*2], bytes[i*2+1]}, ByteOrder.LITTLE_ENDIAN);
-                array.setShort(i, v);
+            int n = len / 2;
+            int start = scan.newRadial(this.dataType, n);
+            short[] storage = (short[]) scan.data.getStorage();
+            for (int i = 0, j = off; i < n; i++, j += 2) {
+                storage[start + i] = (short) ((bytes[j] & 0xff) | (bytes[j + 1] << 8));
             }
         }
-        this.data.get(index).add(array);
     }
 
     /**
@@ -220,38 +331,59 @@ public class RadialRecord {
      * @param scale Scale
      */
     public void addDataBytes(byte[] bytes, int offset, int scale) {
-        if (this.data.isEmpty()) {
-            this.data.add(new ArrayList<>());
-        }
-        Array array;
+        Scan scan = lastScan();
         float v;
         if (this.binLength == 1) {
-            array = Array.factory(this.dataType, new int[]{bytes.length});
+            int start = scan.newRadial(this.dataType, bytes.length);
             for (int i = 0; i < bytes.length; i++) {
                 v = (float) DataType.unsignedByteToShort(bytes[i]);
                 v = v * scale + offset;
-                array.setFloat(i, v);
+                scan.data.setFloat(start + i, v);
             }
         } else {
             int n = bytes.length / 2;
-            array = Array.factory(this.dataType, new int[]{n});
+            int start = scan.newRadial(this.dataType, n);
             for (int i = 0; i < n; i++) {
-                short s = DataConvert.bytes2Short(new byte[]{bytes[i*2], bytes[i*2+1]}, ByteOrder.LITTLE_ENDIAN);
+                short s = (short) ((bytes[i * 2] & 0xff) | (bytes[i * 2 + 1] << 8));
                 v = (float) DataType.unsignedShortToInt(s);
                 v = v * scale + offset;
-                array.setFloat(i, v);
+                scan.data.setFloat(start + i, v);
             }
         }
-        this.data.get(this.data.size() - 1).add(array);
     }
 
     /**
-     * Get data array
+     * Get data number of radials of a scan
      * @param scanIdx The scan index
+     * @return Data radial number
+     */
+    public int getDataRadialNumber(int scanIdx) {
+        return this.scans.get(scanIdx).radialNum;
+    }
+
+    /**
+     * Get raw data value without scale and offset
+     * @param scanIdx The scan index
+     * @param radialIdx The radial index
+     * @param gateIdx The gate index
+     * @return Raw data value, NaN if the gate is out of the radial data
+     */
+    public float getRawValue(int scanIdx, int radialIdx, int gateIdx) {
+        return this.scans.get(scanIdx).getRawValue(radialIdx, gateIdx);
+    }
+
+    /**
+     * Get data array of a radial
+     * @param scanIdx The scan index
+     * @param radialIdx The radial index
      * @return Data array
      */
-    public List<Array> getDataArray(int scanIdx) {
-        return this.data.get(scanIdx);
+    public Array getDataArray(int scanIdx, int radialIdx) {
+        Scan scan = this.scans.get(scanIdx);
+        int n = scan.gateNum[radialIdx];
+        Array r = Array.factory(scan.data.getDataType(), new int[]{n});
+        System.arraycopy(scan.data.getStorage(), radialIdx * scan.gateStride, r.getStorage(), 0, n);
+        return r;
     }
 
     /**
@@ -260,9 +392,9 @@ public class RadialRecord {
      */
     public int getMaxRadials() {
         int maxRadials = 0;
-        for (List a : this.azimuth) {
-            if (maxRadials < a.size()) {
-                maxRadials = a.size();
+        for (Scan scan : this.scans) {
+            if (maxRadials < scan.azimuthNum) {
+                maxRadials = scan.azimuthNum;
             }
         }
 
@@ -275,9 +407,9 @@ public class RadialRecord {
      */
     public int getMinRadials() {
         int minRadials = Integer.MAX_VALUE;
-        for (List a : this.azimuth) {
-            if (minRadials > a.size()) {
-                minRadials = a.size();
+        for (Scan scan : this.scans) {
+            if (minRadials > scan.azimuthNum) {
+                minRadials = scan.azimuthNum;
             }
         }
 
@@ -290,19 +422,18 @@ public class RadialRecord {
      * @return XYZ data array
      */
     public Array getXYZ(int scanIdx) {
-        List<Float> azi = this.azimuth.get(scanIdx);
+        Scan scan = this.scans.get(scanIdx);
         Array dis = this.distance.get(scanIdx);
-        List<Float> ele = this.elevation.get(scanIdx);
         int nz = 3;
-        int ny = azi.size();
+        int ny = scan.azimuthNum;
         int nx = (int) dis.getSize();
         Array r = Array.factory(DataType.FLOAT, new int[]{nz, ny, nx});
         Index index = r.getIndex();
         float a, e, x, y, z;
         double[] xyz;
         for (int i = 0; i < ny; i++) {
-            a = (float) Math.toRadians(azi.get(i));
-            e = (float) Math.toRadians(ele.get(i));
+            a = (float) Math.toRadians(scan.azimuth[i]);
+            e = (float) Math.toRadians(scan.elevation[i]);
             for (int j = 0; j < nx; j++) {
                 xyz = Transform.antennaToCartesian(dis.getFloat(j), a, e);
                 index.set(0, i, j);
@@ -348,7 +479,8 @@ public class RadialRecord {
             Dimension radialDim = new Dimension(DimensionType.Y);
             radialDim.setShortName("azimuth_" + this.product + suffix);
             radialDim.setUnit("degree");
-            radialDim.setDimValue(ArrayUtil.array_list(this.azimuth.get(i), DataType.FLOAT));
+            float[] azi = getAzimuth(i);
+            radialDim.setDimValue(Array.factory(DataType.FLOAT, new int[]{azi.length}, azi));
             dataInfo.addDimension(radialDim);
             Dimension disDim = new Dimension(DimensionType.X);
             disDim.setShortName("distance_" + this.product + suffix);
@@ -358,7 +490,8 @@ public class RadialRecord {
             Dimension eleDim = new Dimension(DimensionType.OTHER);
             eleDim.setShortName("elevation_" + this.product + suffix);
             eleDim.setUnit("degree");
-            eleDim.setDimValue(ArrayUtil.array_list(this.elevation.get(i), DataType.FLOAT));
+            float[] ele = getElevation(i);
+            eleDim.setDimValue(Array.factory(DataType.FLOAT, new int[]{ele.length}, ele));
             dataInfo.addDimension(eleDim);
 
             Variable variable = new Variable();
@@ -391,19 +524,36 @@ public class RadialRecord {
      * @return Sorted azimuth list
      */
     public List<Float> getSortedAzimuth(int scanIndex) {
-        int sIdx = this.azimuthMinIndex.get(scanIndex);
-        if (sIdx == 0) {
-            return this.azimuth.get(scanIndex);
+        float[] sorted = getAzimuthIndex(scanIndex).getSortedValues();
+        List<Float> sortedAzimuth = new ArrayList<>(sorted.length);
+        for (float a : sorted) {
+            sortedAzimuth.add(a);
         }
 
-        List<Float> azs = this.azimuth.get(scanIndex);
-        List<Float> sortedAzimuth = new ArrayList<>();
-        sortedAzimuth.addAll(azs.subList(sIdx, azs.size()));
-        sortedAzimuth.addAll(azs.subList(0, sIdx));
-
         return sortedAzimuth;
     }
 
+    /**
+     * Get primitive azimuth index of a scan. The index is built once and can
+     * be shared by threads reading the record.
+     * @param scanIdx Scan index
+     * @return Azimuth index
+     */
+    public AzimuthIndex getAzimuthIndex(int scanIdx) {
+        Scan scan = this.scans.get(scanIdx);
+        AzimuthIndex index = scan.azimuthIndex;
+        if (index == null) {
+            synchronized (scan) {
+                index = scan.azimuthIndex;
+                if (index == null) {
+                    index = new AzimuthIndex(getAzimuth(scanIdx), scan.azimuthMinIndex);
+                    scan.azimuthIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
     /**
      * Get azimuth value index
      * @param ei Scan index
@@ -411,49 +561,7 @@ public class RadialRecord {
      * @return Azimuth value index
      */
     public int getAzimuthIndex(int ei, float a) {
-        List<Float> azs = this.azimuth.get(ei);
-        int n = azs.size();
-        int sIdx = this.azimuthMinIndex.get(ei);
-        int eIdx = sIdx - 1;
-        if (eIdx < 0) {
-            eIdx = n - 1;
-        }
-
-        int i1 = -1, i2 = -1;
-        if (a < azs.get(sIdx) || a > azs.get(eIdx)) {
-            i1 = eIdx;
-            i2 = sIdx;
-        } else {
-            for (int i = sIdx + 1; i < n; i++) {
-                if (a == azs.get(i)) {
-                    return i;
-                } else if (a < azs.get(i)) {
-                    i1 = i - 1;
-                    i2 = i;
-                    break;
-                }
-            }
-            if (i1 < 0) {
-                for (int i = 0; i <= eIdx; i++) {
-                    if (a == azs.get(i)) {
-                        return i;
-                    } else if (a < azs.get(i)) {
-                        i1 = i - 1;
-                        i2 = i;
-                        if (i1 < 0) {
-                            i1 = n - 1;
-                        }
-                        break;
-                    }
-                }
-            }
-        }
-
-        if (azs.get(i2) - a < a - azs.get(i1)) {
-            return i2;
-        } else {
-            return i1;
-        }
+        return getAzimuthIndex(ei).nearest(a);
     }
 
     /**
@@ -463,45 +571,7 @@ public class RadialRecord {
      * @return Azimuth value indices - 2 elements
      */
     public int[] getAzimuthIndices(int ei, float a) {
-        List<Float> azs = this.azimuth.get(ei);
-        int n = azs.size();
-        int sIdx = this.azimuthMinIndex.get(ei);
-        int eIdx = sIdx - 1;
-        if (eIdx < 0) {
-            eIdx = n - 1;
-        }
-
-        int i1 = -1, i2 = -1;
-        if (a < azs.get(sIdx) || a > azs.get(eIdx)) {
-            i1 = eIdx;
-            i2 = sIdx;
-        } else {
-            for (int i = sIdx + 1; i < n; i++) {
-                if (a == azs.get(i)) {
-                    return new int[]{i, i};
-                } else if (a < azs.get(i)) {
-                    i1 = i - 1;
-                    i2 = i;
-                    break;
-                }
-            }
-            if (i1 < 0) {
-                for (int i = 0; i <= eIdx; i++) {
-                    if (a == azs.get(i)) {
-                        return new int[]{i, i};
-                    } else if (a < azs.get(i)) {
-                        i1 = i - 1;
-                        i2 = i;
-                        if (i1 < 0) {
-                            i1 = n - 1;
-                        }
-                        break;
-                    }
-                }
-            }
-        }
-
-        return new int[]{i1, i2};
+        return getAzimuthIndex(ei).indices(a);
     }
 
     /**
@@ -563,18 +633,12 @@ public class RadialRecord {
      * @return Data value
      */
     public float getValue(int ei, float a, float r) {
-        List<Array> sData = this.data.get(ei);
+        Scan scan = this.scans.get(ei);
         int aziIdx = getAzimuthIndex(ei, a);
         float disRes = this.disResolution.get(ei);
         int disIdx = (int) (r / disRes);
-        Array rData = sData.get(aziIdx);
-        float v;
-        if (disIdx < rData.getSize()) {
-            v = rData.getFloat(disIdx);
-            if (v == this.fillValue) {
-                v = Float.NaN;
-            }
-        } else {
+        float v = scan.getRawValue(aziIdx, disIdx);
+        if (v == this.fillValue) {
             v = Float.NaN;
         }
 
@@ -593,29 +657,18 @@ public class RadialRecord {
      * @return Data value
      */
     public float interpolateValue(int ei, int ai, float r) {
-        List<Array> sData = this.data.get(ei);
+        Scan scan = this.scans.get(ei);
         float disRes = this.disResolution.get(ei);
-        float v;
-        Array rData = sData.get(ai);
         float disIdx = r / disRes;
         int di1 = (int) Math.floor(disIdx);
         int di2 = (int) Math.ceil(disIdx);
-        if (di1 < rData.getSize()) {
-            v = rData.getFloat(di1);
-            if (v == this.fillValue) {
-                v = Float.NaN;
-            }
-        } else {
+        float v = scan.getRawValue(ai, di1);
+        if (v == this.fillValue) {
             v = Float.NaN;
         }
         if (di1 != di2) {
-            float v2;
-            if (di2 < rData.getSize()) {
-                v2 = rData.getFloat(di2);
-                if (v2 == this.fillValue) {
-                    v2 = Float.NaN;
-                }
-            } else {
+            float v2 = scan.getRawValue(ai, di2);
+            if (v2 == this.fillValue) {
                 v2 = Float.NaN;
             }
 
@@ -641,10 +694,26 @@ public class RadialRecord {
      * @return Data value
      */
     public float interpolateValue(int ei, float a, float r) {
-        List<Array> sData = this.data.get(ei);
         int[] aziIndices = getAzimuthIndices(ei, a);
-        int ai1 = aziIndices[0];
-        int ai2 = aziIndices[1];
+        return interpolateValue(ei, aziIndices[0], aziIndices[1], a, r);
+    }
+
+    /**
+     * Interpolate value by elevation index, the two azimuth indices around the
+     * azimuth, azimuth and distance
+     *
+     * @param ei Elevation index
+     * @param ai1 The first azimuth index
+     * @param ai2 The second azimuth index
+     * @param a Azimuth value
+     * @param r Distance value
+     * @return Data value
+     */
+    public float interpolateValue(int ei, int ai1, int ai2, float a, float r) {
+        if (ai1 < 0) {
+            return Float.NaN;
+        }
+
         float v = interpolateValue(ei, ai1, r);
         if (ai2 != ai1) {
             float v2 = interpolateValue(ei, ai2, r);
@@ -652,7 +721,7 @@ public class RadialRecord {
                 v = v2;
             } else {
                 if (!Float.isNaN(v2)) {
-                    List<Float> azi = this.azimuth.get(ei);
+                    AzimuthIndex azi = getAzimuthIndex(ei);
                     v = v + (v2 - v) * (a - azi.get(ai1)) / (azi.get(ai2) - azi.get(ai1));
                 }
             }
@@ -76,8 +76,10 @@ public class SABRadarDataInfo extends BaseRadarDataInfo implements IRadarDataInf
     void readDataInfo(InputStream is) {
         try {
             int index = 0;
+            int scanIdx = -1;
             byte[] rhBytes = new byte[RadialHeader.length];
-            while (is.read(rhBytes) != -1) {
+            byte[] buffer = new byte[Math.max(this.reflectivityFixSize, this.dopplerFixSize)];
+            while (RadarDataUtil.readRecord(is, rhBytes)) {
                 RadialHeader radialHeader = new RadialHeader(rhBytes);
                 if (index == 0) {
                     this.logResolution = radialHeader.gateSizeOfReflectivity;
@@ -86,10 +88,21 @@ public class SABRadarDataInfo extends BaseRadarDataInfo implements IRadarDataInf
                         this.setCACB(true);
                     }
                 }
+                if (radialHeader.radialNumber == 1) {
+                    scanIdx += 1;
+                }
+                boolean scanSelected = isScanSelected(scanIdx);
                 if (!radialHeader.hasReflectivityData()) {
-                    is.read(new byte[this.reflectivityFixSize]);
+                    RadarDataUtil.skipFully(is, this.reflectivityFixSize);
                 }
                 for (String product : radialHeader.getProducts()) {
+                    boolean velocity = isVelocityGroup(product);
+                    int dataLength = velocity ? radialHeader.gatesNumberOfDoppler : radialHeader.gatesNumberOfReflectivity;
+                    int fixSize = velocity ? this.dopplerFixSize : this.reflectivityFixSize;
+                    if (!scanSelected || !isProductSelected(product)) {
+                        RadarDataUtil.skipFully(is, Math.max(dataLength, fixSize));
+                        continue;
+                    }
                     RadialRecord record;
                     if (this.recordMap.containsKey(product)) {
                         record = this.recordMap.get(product);
@@ -100,41 +113,31 @@ public class SABRadarDataInfo extends BaseRadarDataInfo implements IRadarDataInf
                         this.recordMap.put(product, record);
                     }
                     if (radialHeader.radialNumber == 1) {
-                        record.fixedElevation.add(radialHeader.getElevation());
-                        record.elevation.add(new ArrayList<>());
-                        record.azimuth.add(new ArrayList<>());
-                        record.azimuthMinIndex.add(0);
-                        if (isVelocityGroup(record)) {
-                            record.disResolution.add((float) radialHeader.gateSizeOfDoppler);
-                            record.distance.add(ArrayUtil.arrayRange1(radialHeader.rangeToFirstGateOfDop,
+                        if (velocity) {
+                            record.newScan(radialHeader.getElevation(), (float) radialHeader.gateSizeOfDoppler,
+                                    ArrayUtil.arrayRange1(radialHeader.rangeToFirstGateOfDop,
                                     radialHeader.gatesNumberOfDoppler, radialHeader.gateSizeOfDoppler));
                         } else {
-                            record.disResolution.add((float) radialHeader.gateSizeOfReflectivity);
-                            record.distance.add(ArrayUtil.arrayRange1(radialHeader.rangeToFirstGateOfRef,
+                            record.newScan(radialHeader.getElevation(), (float) radialHeader.gateSizeOfReflectivity,
+                                    ArrayUtil.arrayRange1(radialHeader.rangeToFirstGateOfRef,
                                     radialHeader.gatesNumberOfReflectivity, radialHeader.gateSizeOfReflectivity));
                         }
-                        record.newScanData();
                     }
-                    record.elevation.get(record.elevation.size() - 1).add(radialHeader.getElevation());
+                    record.addElevation(radialHeader.getElevation());
                     record.addAzimuth(radialHeader.getAzimuth());
-                    int dataLength = isVelocityGroup(record) ? radialHeader.gatesNumberOfDoppler : radialHeader.gatesNumberOfReflectivity;
-                    byte[] bytes = new byte[dataLength];
-                    is.read(bytes);
-                    record.addDataBytes(bytes);
-                    if (isVelocityGroup(record)) {
-                        if (dataLength < this.dopplerFixSize) {
-                            is.read(new byte[this.dopplerFixSize - dataLength]);
-                        }
-                    } else {
-                        if (dataLength < this.reflectivityFixSize) {
-                            is.read(new byte[this.reflectivityFixSize - dataLength]);
-                        }
+                    if (buffer.length < dataLength) {
+                        buffer = new byte[dataLength];
+                    }
+                    RadarDataUtil.readFully(is, buffer, 0, dataLength);
+                    record.addDataBytes(record.getScanNumber() - 1, buffer, 0, dataLength);
+                    if (dataLength < fixSize) {
+                        RadarDataUtil.skipFully(is, fixSize - dataLength);
                     }
                 }
                 if (!radialHeader.hasDopplerData()) {
-                    is.read(new byte[this.dopplerFixSize * 2]);
+                    RadarDataUtil.skipFully(is, this.dopplerFixSize * 2);
                 }
-                is.read(new byte[4]);
+                RadarDataUtil.skipFully(is, 4);
                 index += 1;
             }
             is.close();
@@ -148,27 +151,7 @@ public class SABRadarDataInfo extends BaseRadarDataInfo implements IRadarDataInf
             this.addAttribute(new Attribute("RadarDataType", radarDataTypeStr));
 
             //Add dimensions and variables
-            RadialRecord refRadialRecord = this.recordMap.get("dBZ");
-            radialDim = new Dimension();
-            radialDim.setName("radial");
-            radialDim.setLength(refRadialRecord.getMaxRadials());
-            this.addDimension(radialDim);
-            scanDim = new Dimension();
-            scanDim.setName("scan");
-            scanDim.setLength(refRadialRecord.getScanNumber());
-            this.addDimension(scanDim);
-            gateRDim = new Dimension();
-            gateRDim.setName("gateR");
-            gateRDim.setLength(refRadialRecord.getGateNumber(0));
-            this.addDimension(gateRDim);
-            makeRefVariables(refRadialRecord);
-
-            RadialRecord velRadialRecord = this.recordMap.get("V");
-            gateVDim = new Dimension();
-            gateVDim.setName("gateV");
-            gateVDim.setLength(velRadialRecord.getGateNumber(0));
-            this.addDimension(gateVDim);
-            makeVelVariables(velRadialRecord);
+            makeRadialVariables();
         } catch (FileNotFoundException e) {
             throw new RuntimeException(e);
         } catch (IOException e) {
@@ -52,6 +52,9 @@ public class SCRadarDataInfo extends BaseRadarDataInfo implements IRadarDataInfo
             List<String> products = new ArrayList<>(Arrays.asList("dBZ", "V", "dBT", "W"));
             float maxV = radarHeader.layerParams.get(0).getMaxV();
             for (String product : products) {
+                if (!isProductSelected(product)) {
+                    continue;
+                }
                 RadialRecord record = new RadialRecord(product);
                 record.setBinLength(1);
                 setScaleOffset(record, maxV);
@@ -59,34 +62,38 @@ public class SCRadarDataInfo extends BaseRadarDataInfo implements IRadarDataInfo
             }
             int gateNum = 998;
             byte[] rhBytes = new byte[RadialHeader.length];
+            bytes = new byte[gateNum * 4];
+            byte[] data = new byte[gateNum];
             for (int iSweep = 0; iSweep < radarHeader.nSweeps; iSweep++) {
                 LayerParam layerParam = radarHeader.layerParams.get(iSweep);
+                if (!isScanSelected(iSweep)) {
+                    RadarDataUtil.skipFully(is, (long) (RadialHeader.length + bytes.length) *
+                            layerParam.recordNumber);
+                    continue;
+                }
                 maxV = layerParam.maxV / 100.f;
                 for (int iRadial = 0; iRadial < layerParam.recordNumber; iRadial++) {
-                    is.read(rhBytes);
+                    RadarDataUtil.readFully(is, rhBytes, 0, rhBytes.length);
                     RadialHeader radialHeader = new RadialHeader(rhBytes);
-                    bytes = new byte[gateNum * 4];
-                    is.read(bytes);
+                    RadarDataUtil.readFully(is, bytes, 0, bytes.length);
                     int i = 0;
                     for (String product : products) {
                         RadialRecord record = this.recordMap.get(product);
+                        if (record == null) {
+                            i += 1;
+                            continue;
+                        }
                         if (iRadial == 0) {
-                            record.fixedElevation.add(layerParam.getSweepAngle());
-                            record.elevation.add(new ArrayList<>());
-                            record.azimuth.add(new ArrayList<>());
-                            record.azimuthMinIndex.add(0);
-                            record.disResolution.add(layerParam.binWidth / 10.f);
-                            record.distance.add(ArrayUtil.arrayRange1(0,
+                            record.newScan(layerParam.getSweepAngle(), layerParam.binWidth / 10.f,
+                                    ArrayUtil.arrayRange1(0,
                                     gateNum, layerParam.binWidth / 10));
-                            record.newScanData();
                         }
-                        record.elevation.get(record.elevation.size() - 1).add(radialHeader.getElevation());
+                        record.addElevation(radialHeader.getElevation());
                         record.addAzimuth(radialHeader.getAzimuth());
-                        byte[] data = new byte[gateNum];
-                        for (int j = 0; j < 998; j++) {
+                        for (int j = 0; j < gateNum; j++) {
                             data[j] = bytes[4 * j + i];
                         }
-                        record.addDataBytes(data);
+                        record.addDataBytes(record.getScanNumber() - 1, data, 0, gateNum);
                         i += 1;
                     }
                 }
@@ -105,27 +112,7 @@ public class SCRadarDataInfo extends BaseRadarDataInfo implements IRadarDataInfo
             this.addAttribute(new Attribute("RadarDataType", "SC"));
 
             //Add dimensions and variables
-            RadialRecord refRadialRecord = this.recordMap.get("dBZ");
-            radialDim = new Dimension();
-            radialDim.setName("radial");
-            radialDim.setLength(refRadialRecord.getMaxRadials());
-            this.addDimension(radialDim);
-            scanDim = new Dimension();
-            scanDim.setName("scan");
-            scanDim.setLength(refRadialRecord.getScanNumber());
-            this.addDimension(scanDim);
-            gateRDim = new Dimension();
-            gateRDim.setName("gateR");
-            gateRDim.setLength(refRadialRecord.getGateNumber(0));
-            this.addDimension(gateRDim);
-            makeRefVariables(refRadialRecord);
-
-            RadialRecord velRadialRecord = this.recordMap.get("V");
-            gateVDim = new Dimension();
-            gateVDim.setName("gateV");
-            gateVDim.setLength(velRadialRecord.getGateNumber(0));
-            this.addDimension(gateVDim);
-            makeVelVariables(velRadialRecord);
+            makeRadialVariables();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
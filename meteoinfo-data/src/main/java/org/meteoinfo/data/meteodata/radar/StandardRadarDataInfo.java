@@ -161,11 +161,17 @@ public class StandardRadarDataInfo extends BaseRadarDataInfo implements IRadarDa
             }
             radialHeaders = new ArrayList<>();
             byte[] rhBytes = new byte[RadialHeader.length];
-            while (raf.read(rhBytes) != -1) {
+            byte[] buffer = new byte[0];
+            while (RadarDataUtil.readRecord(raf, rhBytes)) {
                 RadialHeader radialHeader = new RadialHeader(rhBytes);
+                boolean scanSelected = isScanSelected(radialHeader.elevationNumber - 1);
                 for (int i = 0; i < radialHeader.momentNumber; i++) {
                     MomentHeader momentHeader = new MomentHeader(raf);
                     String product = this.productMap.get(momentHeader.dataType);
+                    if (!scanSelected || !isProductSelected(product)) {
+                        RadarDataUtil.skipFully(raf, momentHeader.dataLength);
+                        continue;
+                    }
                     RadialRecord record;
                     if (this.recordMap.containsKey(product)) {
                         record = this.recordMap.get(product);
@@ -177,53 +183,31 @@ public class StandardRadarDataInfo extends BaseRadarDataInfo implements IRadarDa
                         this.recordMap.put(product, record);
                     }
                     if (radialHeader.radialNumber == 1) {
-                        record.fixedElevation.add(cutConfigs.get(radialHeader.elevationNumber - 1).elevation);
-                        record.elevation.add(new ArrayList<>());
-                        record.azimuth.add(new ArrayList<>());
-                        record.azimuthMinIndex.add(0);
+                        cutConfig = cutConfigs.get(radialHeader.elevationNumber - 1);
                         if (isVelocityGroup(record)) {
-                            record.disResolution.add((float) cutConfigs.get(radialHeader.elevationNumber - 1).dopplerResolution);
-                            record.distance.add(ArrayUtil.arrayRange1(0, momentHeader.dataLength / momentHeader.binLength,
-                                    cutConfigs.get(radialHeader.elevationNumber - 1).dopplerResolution));
+                            record.newScan(cutConfig.elevation, (float) cutConfig.dopplerResolution,
+                                    ArrayUtil.arrayRange1(0, momentHeader.dataLength / momentHeader.binLength,
+                                    cutConfig.dopplerResolution));
                         } else {
-                            record.disResolution.add((float) cutConfigs.get(radialHeader.elevationNumber - 1).logResolution);
-                            record.distance.add(ArrayUtil.arrayRange1(0, momentHeader.dataLength / momentHeader.binLength,
-                                    cutConfigs.get(radialHeader.elevationNumber - 1).logResolution));
+                            record.newScan(cutConfig.elevation, (float) cutConfig.logResolution,
+                                    ArrayUtil.arrayRange1(0, momentHeader.dataLength / momentHeader.binLength,
+                                    cutConfig.logResolution));
                         }
-                        record.newScanData();
                     }
-                    record.elevation.get(record.elevation.size() - 1).add(radialHeader.elevation);
+                    record.addElevation(radialHeader.elevation);
                     record.addAzimuth(radialHeader.azimuth);
-                    byte[] bytes = new byte[momentHeader.dataLength];
-                    raf.read(bytes);
-                    record.addDataBytes(bytes);
+                    if (buffer.length < momentHeader.dataLength) {
+                        buffer = new byte[momentHeader.dataLength];
+                    }
+                    RadarDataUtil.readFully(raf, buffer, 0, momentHeader.dataLength);
+                    record.addDataBytes(record.getScanNumber() - 1, buffer, 0, momentHeader.dataLength);
                 }
                 radialHeaders.add(radialHeader);
             }
             raf.close();
 
             //Add dimensions and variables
-            RadialRecord refRadialRecord = this.recordMap.get("dBZ");
-            radialDim = new Dimension();
-            radialDim.setName("radial");
-            radialDim.setLength(refRadialRecord.getMaxRadials());
-            this.addDimension(radialDim);
-            scanDim = new Dimension();
-            scanDim.setName("scan");
-            scanDim.setLength(refRadialRecord.getScanNumber());
-            this.addDimension(scanDim);
-            gateRDim = new Dimension();
-            gateRDim.setName("gateR");
-            gateRDim.setLength(refRadialRecord.getGateNumber(0));
-            this.addDimension(gateRDim);
-            makeRefVariables(refRadialRecord);
-
-            RadialRecord velRadialRecord = this.recordMap.get("V");
-            gateVDim = new Dimension();
-            gateVDim.setName("gateV");
-            gateVDim.setLength(velRadialRecord.getGateNumber(0));
-            this.addDimension(gateVDim);
-            makeVelVariables(velRadialRecord);
+            makeRadialVariables();
 
             /*Dimension xyzDim = new Dimension(DimensionType.OTHER);
             xyzDim.setShortName("xyz");
@@ -0,0 +1,533 @@
+package org.meteoinfo.data.meteodata.util;
+
+import ucar.nc2.NetcdfFile;
+import ucar.nc2.dataset.NetcdfDatasets;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded LRU pool of open read only file handles.
+ *
+ * <p>A handle is leased exclusively by {@link #acquire(String)} and given
+ * back by {@link #release(String, Closeable)}, so the same handle is never
+ * used by two threads at the same time. Idle handles are keyed by the file
+ * path, the file modification time and the file length, handles of a
+ * modified file are closed instead of reused. The number of leased and idle
+ * handles is capped by the maximum open number: the least recently used idle
+ * handles are closed to open a new one, and an acquisition waits for a
+ * release when all handles are leased. The handles idle longer than the idle
+ * timeout are closed by a background evictor.
+ *
+ * @author Yaqiang Wang
+ * @param <T> Handle type
+ */
+public class FileHandlePool<T extends Closeable> {
+
+    /**
+     * Opener of the file handles
+     *
+     * @param <T> Handle type
+     */
+    @FunctionalInterface
+    public interface Opener<T> {
+
+        /**
+         * Open a file handle
+         *
+         * @param path File path
+         * @return File handle
+         * @throws IOException
+         */
+        T open(String path) throws IOException;
+    }
+
+    /**
+     * Pool of NetCDF file handles
+     */
+    public static final FileHandlePool<NetcdfFile> NETCDF_FILES = new FileHandlePool<>(
+            path -> NetcdfDatasets.openFile(path, null));
+
+    /**
+     * Pool of read only random access file handles, a reused handle is
+     * positioned at the file start
+     */
+    public static final FileHandlePool<RandomAccessFile> RANDOM_ACCESS_FILES = new FileHandlePool<RandomAccessFile>(
+            path -> new RandomAccessFile(path, "r")) {
+        @Override
+        protected void reuse(RandomAccessFile handle) throws IOException {
+            handle.seek(0);
+        }
+    };
+
+    private static final ScheduledExecutorService EVICTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "FileHandlePool evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // <editor-fold desc="Variables">
+    private final Opener<T> opener;
+    private final Deque<Entry<T>> idle = new ArrayDeque<>();
+    private final Map<T, Stamp> leased = new WeakHashMap<>();
+    private int opening = 0;
+    private int maxOpen = 32;
+    private long idleTimeout = 60000;
+    private ScheduledFuture<?> evictTask;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    // </editor-fold>
+    // <editor-fold desc="Constructor">
+
+    /**
+     * Constructor
+     *
+     * @param opener File handle opener
+     */
+    public FileHandlePool(Opener<T> opener) {
+        this.opener = opener;
+    }
+    // </editor-fold>
+    // <editor-fold desc="Get Set Methods">
+
+    /**
+     * Get maximum number of leased and idle handles
+     *
+     * @return Maximum open number
+     */
+    public int getMaxOpen() {
+        return this.maxOpen;
+    }
+
+    /**
+     * Set maximum number of leased and idle handles, 0 to disable the pooling
+     *
+     * @param value Maximum open number
+     */
+    public void setMaxOpen(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Maximum open number should not be negative: " + value);
+        }
+        List<T> closes;
+        synchronized (this) {
+            this.maxOpen = value;
+            closes = this.evict(System.currentTimeMillis());
+            this.notifyAll();
+        }
+        closeQuietly(closes);
+    }
+
+    /**
+     * Get idle timeout
+     *
+     * @return Idle timeout in milliseconds
+     */
+    public long getIdleTimeout() {
+        return this.idleTimeout;
+    }
+
+    /**
+     * Set idle timeout
+     *
+     * @param value Idle timeout in milliseconds
+     */
+    public synchronized void setIdleTimeout(long value) {
+        this.idleTimeout = value;
+        if (this.evictTask != null) {
+            this.evictTask.cancel(false);
+            this.evictTask = null;
+        }
+        this.scheduleEviction(System.currentTimeMillis());
+    }
+
+    /**
+     * Get the number of acquisitions served by an idle handle
+     *
+     * @return Hit count
+     */
+    public long getHitCount() {
+        return this.hitCount.get();
+    }
+
+    /**
+     * Get the number of acquisitions which opened a new handle
+     *
+     * @return Miss count
+     */
+    public long getMissCount() {
+        return this.missCount.get();
+    }
+
+    /**
+     * Get the number of idle handles closed by the pool
+     *
+     * @return Eviction count
+     */
+    public long getEvictionCount() {
+        return this.evictionCount.get();
+    }
+
+    /**
+     * Get the number of idle handles
+     *
+     * @return Idle handle number
+     */
+    public synchronized int getIdleCount() {
+        return this.idle.size();
+    }
+
+    /**
+     * Get the number of leased handles
+     *
+     * @return Leased handle number
+     */
+    public synchronized int getLeasedCount() {
+        return this.leased.size();
+    }
+    // </editor-fold>
+    // <editor-fold desc="Methods">
+
+    /**
+     * Prepare an idle handle to be reused, does nothing by default
+     *
+     * @param handle File handle
+     * @throws IOException
+     */
+    protected void reuse(T handle) throws IOException {
+    }
+
+    /**
+     * Acquire a handle of a file, the handle should be given back by
+     * {@link #release(String, Closeable)} in a finally block and not closed
+     * by the caller. The acquisition waits for a release if the maximum open
+     * number of handles are leased, so a thread should not hold more handles
+     * than the maximum open number.
+     *
+     * @param path File path
+     * @return File handle
+     * @throws IOException
+     */
+    public T acquire(String path) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("The file path is null");
+        }
+        Stamp stamp = new Stamp(path);
+        T handle = null;
+        List<T> closes;
+        synchronized (this) {
+            closes = this.evict(System.currentTimeMillis());
+            while (true) {
+                handle = this.takeIdle(path, stamp, closes);
+                if (handle != null) {
+                    this.leased.put(handle, stamp);
+                    break;
+                }
+                if (this.maxOpen <= 0 || this.leased.size() + this.opening + this.idle.size() < this.maxOpen) {
+                    this.opening += 1;
+                    break;
+                }
+
+                //Close the least recently used idle handle or wait for a release
+                if (!this.idle.isEmpty()) {
+                    closes.add(this.idle.removeFirst().handle);
+                    this.evictionCount.incrementAndGet();
+                } else {
+                    try {
+                        //Leaked handles are removed from the leased map by the garbage collection
+                        this.wait(1000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        closeQuietly(closes);
+                        throw new InterruptedIOException("Interrupted while waiting for a file handle: " + path);
+                    }
+                }
+            }
+        }
+        closeQuietly(closes);
+
+        if (handle == null) {
+            this.missCount.incrementAndGet();
+            try {
+                handle = this.opener.open(path);
+            } finally {
+                synchronized (this) {
+                    this.opening -= 1;
+                    if (handle != null) {
+                        this.leased.put(handle, stamp);
+                    }
+                    this.notifyAll();
+                }
+            }
+        } else {
+            this.hitCount.incrementAndGet();
+            try {
+                this.reuse(handle);
+            } catch (IOException ex) {
+                synchronized (this) {
+                    this.leased.remove(handle);
+                    this.notifyAll();
+                }
+                this.evictionCount.incrementAndGet();
+                closeQuietly(Collections.singletonList(handle));
+                throw ex;
+            }
+        }
+
+        return handle;
+    }
+
+    /**
+     * Give back a file handle to the pool. A handle not acquired from the
+     * pool or without a file path is closed, and a handle given back twice
+     * is ignored.
+     *
+     * @param path File path
+     * @param handle File handle
+     * @throws IOException
+     */
+    public void release(String path, T handle) throws IOException {
+        if (handle == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Stamp stamp = path == null ? null : new Stamp(path);
+        List<T> closes;
+        synchronized (this) {
+            Stamp leasedStamp = this.leased.remove(handle);
+            if (leasedStamp == null && this.isIdle(handle)) {
+                //Released twice
+                return;
+            }
+            if (this.maxOpen > 0 && leasedStamp != null && leasedStamp.equals(stamp)) {
+                this.idle.addLast(new Entry<>(path, stamp, handle, now));
+                closes = this.evict(now);
+                this.scheduleEviction(now);
+            } else {
+                closes = this.evict(now);
+                closes.add(handle);
+                this.evictionCount.incrementAndGet();
+            }
+            this.notifyAll();
+        }
+        closeAll(closes);
+    }
+
+    /**
+     * Remove the most recently used idle handle of a file, the idle handles
+     * of the file which is modified are removed to be closed. Should be
+     * called with the pool locked.
+     *
+     * @param path File path
+     * @param stamp Current file state
+     * @param closes Removed handles to be closed
+     * @return Idle handle or null
+     */
+    private T takeIdle(String path, Stamp stamp, List<T> closes) {
+        Iterator<Entry<T>> it = this.idle.descendingIterator();
+        while (it.hasNext()) {
+            Entry<T> entry = it.next();
+            if (entry.path.equals(path)) {
+                it.remove();
+                if (entry.stamp.equals(stamp)) {
+                    return entry.handle;
+                }
+                closes.add(entry.handle);
+                this.evictionCount.incrementAndGet();
+            }
+        }
+        return null;
+    }
+
+    private boolean isIdle(T handle) {
+        for (Entry<T> entry : this.idle) {
+            if (entry.handle == handle) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Close the idle handles of a file, the leased handles of the file are
+     * closed when they are released if the file is modified
+     *
+     * @param path File path
+     */
+    public void invalidate(String path) {
+        List<T> closes = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Entry<T>> it = this.idle.iterator();
+            while (it.hasNext()) {
+                Entry<T> entry = it.next();
+                if (entry.path.equals(path)) {
+                    it.remove();
+                    closes.add(entry.handle);
+                }
+            }
+            this.evictionCount.addAndGet(closes.size());
+            this.notifyAll();
+        }
+        closeQuietly(closes);
+    }
+
+    /**
+     * Close all idle handles
+     */
+    public void clear() {
+        List<T> closes = new ArrayList<>();
+        synchronized (this) {
+            for (Entry<T> entry : this.idle) {
+                closes.add(entry.handle);
+            }
+            this.evictionCount.addAndGet(closes.size());
+            this.idle.clear();
+            this.notifyAll();
+        }
+        closeQuietly(closes);
+    }
+
+    /**
+     * Remove the expired idle handles and the least recently used idle
+     * handles over the maximum open number, should be called with the pool
+     * locked
+     *
+     * @param now Current time in milliseconds
+     * @return Removed handles to be closed
+     */
+    private List<T> evict(long now) {
+        List<T> closes = new ArrayList<>();
+        int leasedNum = this.leased.size() + this.opening;
+        while (!this.idle.isEmpty()) {
+            Entry<T> entry = this.idle.peekFirst();
+            if (this.idle.size() + leasedNum > this.maxOpen || now - entry.lastUsed > this.idleTimeout) {
+                this.idle.removeFirst();
+                closes.add(entry.handle);
+            } else {
+                break;
+            }
+        }
+        this.evictionCount.addAndGet(closes.size());
+
+        return closes;
+    }
+
+    /**
+     * Schedule the eviction of the least recently used idle handle when it
+     * expires, should be called with the pool locked
+     *
+     * @param now Current time in milliseconds
+     */
+    private void scheduleEviction(long now) {
+        if (this.evictTask == null && !this.idle.isEmpty()) {
+            long delay = this.idle.peekFirst().lastUsed + this.idleTimeout - now + 1;
+            this.evictTask = EVICTOR.schedule(this::evictExpired, Math.max(delay, 1), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void evictExpired() {
+        List<T> closes;
+        synchronized (this) {
+            this.evictTask = null;
+            long now = System.currentTimeMillis();
+            closes = this.evict(now);
+            this.scheduleEviction(now);
+            this.notifyAll();
+        }
+        closeQuietly(closes);
+    }
+
+    private static <T extends Closeable> void closeQuietly(List<T> handles) {
+        try {
+            closeAll(handles);
+        } catch (IOException ex) {
+            Logger.getLogger(FileHandlePool.class.getName()).log(Level.SEVERE, null, ex);
+        }
+    }
+
+    /**
+     * Close handles, the first exception is thrown after all handles are
+     * closed
+     */
+    private static <T extends Closeable> void closeAll(List<T> handles) throws IOException {
+        IOException exception = null;
+        for (T handle : handles) {
+            try {
+                handle.close();
+            } catch (IOException ex) {
+                if (exception == null) {
+                    exception = ex;
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+    // </editor-fold>
+
+    /**
+     * File state to check if the file is modified. The file length is
+     * checked with the modification time, which may have a resolution of
+     * one second.
+     */
+    private static class Stamp {
+
+        private final long modified;
+        private final long length;
+
+        Stamp(String path) {
+            File file = new File(path);
+            this.modified = file.lastModified();
+            this.length = file.length();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Stamp)) {
+                return false;
+            }
+            Stamp other = (Stamp) o;
+            return this.modified == other.modified && this.length == other.length;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(this.modified) + Long.hashCode(this.length);
+        }
+    }
+
+    private static class Entry<T> {
+
+        private final String path;
+        private final Stamp stamp;
+        private final T handle;
+        private final long lastUsed;
+
+        Entry(String path, Stamp stamp, T handle, long lastUsed) {
+            this.path = path;
+            this.stamp = stamp;
+            this.handle = handle;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package org.meteoinfo.data.dimarray;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.meteoinfo.data.meteodata.DataInfo;
+import org.meteoinfo.data.meteodata.Variable;
+import org.meteoinfo.ndarray.Array;
+import org.meteoinfo.ndarray.DataType;
+import org.meteoinfo.ndarray.InvalidRangeException;
+import org.meteoinfo.ndarray.Range;
+import org.meteoinfo.ndarray.Section;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyDimArrayTest {
+
+    /**
+     * In memory data info counting the data reads
+     */
+    static class MemoryDataInfo extends DataInfo {
+        final Array data;
+        int readCount = 0;
+
+        MemoryDataInfo(int[] shape) {
+            data = Array.factory(DataType.FLOAT, shape);
+            for (int i = 0; i < data.getSize(); i++) {
+                data.setFloat(i, i % 7 == 0 ? -9999.0f : i);
+            }
+            Variable var = new Variable("v");
+            var.setDataType(DataType.FLOAT);
+            for (int i = 0; i < shape.length; i++) {
+                Dimension dim = new Dimension("d" + i, shape[i]);
+                this.addDimension(dim);
+                var.addDimension(dim);
+            }
+            this.addVariable(var);
+        }
+
+        @Override
+        public boolean isValidFile(RandomAccessFile raf) {
+            return false;
+        }
+
+        @Override
+        public void readDataInfo(String fileName) {
+        }
+
+        @Override
+        public Array realRead(String varName) {
+            readCount += 1;
+            return data.copy();
+        }
+
+        @Override
+        public Array realRead(String varName, int[] origin, int[] size, int[] stride) {
+            readCount += 1;
+            try {
+                return data.sectionNoReduce(new Section(origin, size, stride).getRanges()).copy();
+            } catch (InvalidRangeException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private MemoryDataInfo dataInfo;
+
+    @BeforeEach
+    void setUp() {
+        dataInfo = new MemoryDataInfo(new int[]{3, 4, 5});
+    }
+
+    private static void assertSameDimArray(DimArray expected, DimArray actual) {
+        Array a = expected.getArray();
+        Array b = actual.getArray();
+        assertArrayEquals(a.getShape(), b.getShape());
+        assertEquals(a.getDataType(), b.getDataType());
+        assertEquals(expected.getDimensions().size(), actual.getDimensions().size());
+        for (int i = 0; i < expected.getDimensions().size(); i++) {
+            assertArrayEquals(expected.getDimensions().get(i).getValues(),
+                    actual.getDimensions().get(i).getValues());
+        }
+        for (int i = 0; i < a.getSize(); i++) {
+            assertEquals(a.getDouble(i), b.getDouble(i));
+        }
+    }
+
+    @Test
+    public void testWholeVariable() {
+        DimArray eager = dataInfo.readDimArray("v");
+        DimArray lazy = dataInfo.readDimArrayLazy("v");
+        assertFalse(((LazyDimArray) lazy).isLoaded());
+        assertArrayEquals(new int[]{3, 4, 5}, ((LazyDimArray) lazy).getShape());
+        assertSameDimArray(eager, lazy);
+        //Missing values are kept as readDimArray does
+        assertEquals(-9999.0, lazy.getArray().getDouble(0));
+    }
+
+    @Test
+    public void testSection() {
+        int[] origin = {1, 0, 1};
+        int[] size = {1, 4, 3};
+        int[] stride = {1, 2, 1};
+        DimArray eager = dataInfo.readDimArray("v", origin, size, stride);
+        DimArray lazy = dataInfo.readDimArrayLazy("v", origin, size, stride);
+        assertArrayEquals(new int[]{2, 3}, ((LazyDimArray) lazy).getShape());
+        assertSameDimArray(eager, lazy);
+    }
+
+    @Test
+    public void testSectionOfLazy() throws InvalidRangeException {
+        int[] origin = {0, 1, 0};
+        int[] size = {2, 1, 5};
+        int[] stride = {1, 1, 1};
+        DimArray eager = dataInfo.readDimArray("v").section(origin, size, stride);
+        DimArray lazy = dataInfo.readDimArrayLazy("v").section(origin, size, stride);
+        assertTrue(lazy instanceof LazyDimArray);
+        assertSameDimArray(eager, lazy);
+
+        DimArray eager2 = dataInfo.readDimArray("v", new int[]{0, 0, 0}, new int[]{3, 4, 5}, new int[]{1, 1, 1})
+                .section(new int[]{1, 1, 1}, new int[]{2, 2, 2}, new int[]{1, 1, 1});
+        DimArray lazy2 = dataInfo.readDimArrayLazy("v", new int[]{0, 0, 0}, new int[]{3, 4, 5}, new int[]{1, 1, 1})
+                .section(new int[]{1, 1, 1}, new int[]{2, 2, 2}, new int[]{1, 1, 1});
+        assertSameDimArray(eager2, lazy2);
+    }
+
+    @Test
+    public void testChunkCacheHit() {
+        dataInfo.setChunkCache(new ChunkCache(1 << 20));
+        int[] origin = {0, 1, 1};
+        int[] size = {3, 2, 3};
+        int[] stride = {1, 1, 1};
+        DimArray eager = dataInfo.readDimArray("v", origin, size, stride);
+        int reads = dataInfo.readCount;
+        assertSameDimArray(eager, dataInfo.readDimArrayLazy("v", origin, size, stride));
+        ChunkCache cache = dataInfo.getChunkCache();
+        assertEquals(3, cache.getMissCount());
+        assertEquals(reads + 3, dataInfo.readCount);
+
+        //Overlapping window is served by the cached chunks
+        assertSameDimArray(dataInfo.readDimArray("v", new int[]{1, 0, 0}, new int[]{2, 4, 5}, stride),
+                dataInfo.readDimArrayLazy("v", new int[]{1, 0, 0}, new int[]{2, 4, 5}, stride));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void testChunkCacheEviction() {
+        //Room for two 4x5 float chunks
+        ChunkCache cache = new ChunkCache(2 * 4 * 5 * 4);
+        dataInfo.setChunkCache(cache);
+        DimArray eager = dataInfo.readDimArray("v");
+        assertSameDimArray(eager, dataInfo.readDimArrayLazy("v"));
+        assertEquals(3, cache.getMissCount());
+        assertTrue(cache.getBytes() <= cache.getMaxBytes());
+
+        //First chunk was evicted, the last one is still cached
+        dataInfo.readDimArrayLazy("v", new int[]{0, 0, 0}, new int[]{1, 4, 5}, new int[]{1, 1, 1}).getArray();
+        assertEquals(4, cache.getMissCount());
+        dataInfo.readDimArrayLazy("v", new int[]{2, 0, 0}, new int[]{1, 4, 5}, new int[]{1, 1, 1}).getArray();
+        assertEquals(1, cache.getHitCount());
+        assertTrue(cache.getBytes() <= cache.getMaxBytes());
+    }
+
+    @Test
+    public void testChunkCacheEmptyRange() throws InvalidRangeException {
+        ChunkCache cache = new ChunkCache(1 << 20);
+        List<Range> ranges = new ArrayList<>(Arrays.asList(new Range(3), Range.EMPTY, new Range(5)));
+        Array r = cache.read(dataInfo, "v", ranges);
+        assertNotNull(r);
+        assertEquals(DataType.FLOAT, r.getDataType());
+        assertEquals(0, r.getSize());
+        assertEquals(0, dataInfo.readCount);
+    }
+
+    @Test
+    public void testCloseRemovesChunks() throws IOException {
+        ChunkCache cache = new ChunkCache(1 << 20);
+        MemoryDataInfo other = new MemoryDataInfo(new int[]{2, 4, 5});
+        dataInfo.setChunkCache(cache);
+        other.setChunkCache(cache);
+        dataInfo.readDimArrayLazy("v").getArray();
+        other.readDimArrayLazy("v").getArray();
+        assertEquals((3 + 2) * 4 * 5 * 4, cache.getBytes());
+
+        dataInfo.close();
+        assertEquals(2 * 4 * 5 * 4, cache.getBytes());
+        other.readDimArrayLazy("v").getArray();
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void testConcurrentChunkRead() throws Exception {
+        int nThreads = 4;
+        CyclicBarrier barrier = new CyclicBarrier(nThreads);
+        //All threads miss the same chunk before any of them caches it
+        MemoryDataInfo slow = new MemoryDataInfo(new int[]{1, 4, 5}) {
+            @Override
+            public Array realRead(String varName, int[] origin, int[] size, int[] stride) {
+                try {
+                    barrier.await();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+                return super.realRead(varName, origin, size, stride);
+            }
+        };
+        ChunkCache cache = new ChunkCache(1 << 20);
+        List<Range> ranges = Arrays.asList(new Range(1), new Range(4), new Range(5));
+        ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+        try {
+            List<Future<Array>> futures = new ArrayList<>();
+            for (int i = 0; i < nThreads; i++) {
+                futures.add(executor.submit(() -> cache.read(slow, "v", ranges)));
+            }
+            for (Future<Array> future : futures) {
+                assertEquals(20, future.get().getSize());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(nThreads, cache.getMissCount());
+        assertEquals(4 * 5 * 4, cache.getBytes());
+        cache.remove(slow);
+        assertEquals(0, cache.getBytes());
+    }
+}
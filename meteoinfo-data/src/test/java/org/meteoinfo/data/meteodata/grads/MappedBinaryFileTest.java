@@ -0,0 +1,146 @@
+package org.meteoinfo.data.meteodata.grads;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.meteoinfo.common.DataConvert;
+import org.meteoinfo.ndarray.Array;
+import org.meteoinfo.ndarray.DataType;
+import org.meteoinfo.ndarray.InvalidRangeException;
+import org.meteoinfo.ndarray.Range;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedBinaryFileTest {
+
+    private static final int X_NUM = 7;
+    private static final int Y_NUM = 5;
+    private static final int RECORD_NUM = 3;
+    private static final int HEADER = 12;
+
+    private final List<File> files = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    /**
+     * Write a data file with a header and float grid records. Sequential
+     * records have 4 byte length markers before and after the data.
+     */
+    private File createFile(ByteOrder byteOrder, boolean sequential) throws IOException {
+        int recordLen = X_NUM * Y_NUM * 4 + (sequential ? 8 : 0);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + recordLen * RECORD_NUM).order(byteOrder);
+        buffer.position(HEADER);
+        for (int r = 0; r < RECORD_NUM; r++) {
+            if (sequential) {
+                buffer.putInt(X_NUM * Y_NUM * 4);
+            }
+            for (int i = 0; i < X_NUM * Y_NUM; i++) {
+                buffer.putFloat(r * 1000 + i + 0.25f * (i % 4) - (i % 3 == 0 ? 500 : 0));
+            }
+            if (sequential) {
+                buffer.putInt(X_NUM * Y_NUM * 4);
+            }
+        }
+        File file = File.createTempFile("grads", ".dat");
+        files.add(file);
+        Files.write(file.toPath(), buffer.array());
+        return file;
+    }
+
+    private static long recordPosition(int r, boolean sequential) {
+        int recordLen = X_NUM * Y_NUM * 4 + (sequential ? 8 : 0);
+        return HEADER + (long) r * recordLen + (sequential ? 4 : 0);
+    }
+
+    /**
+     * Read a grid value like the RandomAccessFile path of GrADSDataInfo
+     */
+    private static float readValue(RandomAccessFile raf, long pos, int y, int x, ByteOrder byteOrder)
+            throws IOException {
+        byte[] bytes = new byte[4];
+        raf.seek(pos + ((long) y * X_NUM + x) * 4);
+        raf.readFully(bytes);
+        return DataConvert.bytes2Float(bytes, byteOrder);
+    }
+
+    @Test
+    public void testReadFloat() throws IOException {
+        for (ByteOrder byteOrder : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            for (boolean sequential : new boolean[]{false, true}) {
+                File file = createFile(byteOrder, sequential);
+                try (MappedBinaryFile mf = new MappedBinaryFile(file.getPath(), byteOrder, X_NUM * Y_NUM * 4 + 8);
+                     RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                    assertEquals(file.length(), mf.length());
+                    float[] data = new float[X_NUM * Y_NUM];
+                    for (int r = 0; r < RECORD_NUM; r++) {
+                        long pos = recordPosition(r, sequential);
+                        mf.readFloat(pos, data);
+                        for (int i = 0; i < data.length; i++) {
+                            assertEquals(readValue(raf, pos, i / X_NUM, i % X_NUM, byteOrder), data[i],
+                                    byteOrder + " record " + r + " element " + i);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReadWindow() throws IOException, InvalidRangeException {
+        for (ByteOrder byteOrder : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            File file = createFile(byteOrder, true);
+            try (MappedBinaryFile mf = new MappedBinaryFile(file.getPath(), byteOrder, X_NUM * Y_NUM * 4 + 8);
+                 RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                Range[][] windows = new Range[][]{
+                        {new Range(0, Y_NUM - 1, 1), new Range(0, X_NUM - 1, 1)},
+                        {new Range(1, 3, 1), new Range(2, 5, 1)},
+                        {new Range(0, 4, 2), new Range(1, 6, 3)},
+                        {new Range(Y_NUM - 1, Y_NUM - 1, 1), new Range(X_NUM - 1, X_NUM - 1, 1)}};
+                for (Range[] window : windows) {
+                    //The last record ends at the end of the file
+                    long pos = recordPosition(RECORD_NUM - 1, true);
+                    Array a = Array.factory(DataType.FLOAT, new int[]{window[0].length(), window[1].length()});
+                    mf.readWindow(pos, X_NUM, window[0], window[1], a.getIndexIterator());
+                    int k = 0;
+                    for (int y = window[0].first(); y <= window[0].last(); y += window[0].stride()) {
+                        for (int x = window[1].first(); x <= window[1].last(); x += window[1].stride()) {
+                            assertEquals(readValue(raf, pos, y, x, byteOrder), a.getFloat(k++));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRecordBoundary() throws IOException {
+        File file = createFile(ByteOrder.BIG_ENDIAN, false);
+        try (MappedBinaryFile mf = new MappedBinaryFile(file.getPath(), ByteOrder.BIG_ENDIAN, X_NUM * Y_NUM * 4)) {
+            float[] data = new float[X_NUM * Y_NUM];
+            long last = recordPosition(RECORD_NUM - 1, false);
+            assertEquals(file.length(), last + data.length * 4);
+            mf.readFloat(last, data);
+            assertEquals(mf.getFloatBuffer(last, data.length).get(data.length - 1), data[data.length - 1]);
+
+            //Records crossing the end of the file
+            assertThrows(EOFException.class, () -> mf.readFloat(last + 4, data));
+            assertThrows(EOFException.class, () -> mf.getFloatBuffer(file.length(), 1));
+            assertThrows(EOFException.class, () -> mf.getFloatBuffer(-4, 1));
+            assertEquals(0, mf.getFloatBuffer(file.length(), 0).remaining());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.meteoinfo.data.meteodata.grib2;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GRIB2DataInfoTest {
+
+    @Test
+    public void testTimeUnitMillis() {
+        assertEquals(60000L, GRIB2DataInfo.getTimeUnitMillis(0));
+        assertEquals(3600000L, GRIB2DataInfo.getTimeUnitMillis(1));
+        assertEquals(86400000L, GRIB2DataInfo.getTimeUnitMillis(2));
+        assertEquals(6 * 3600000L, GRIB2DataInfo.getTimeUnitMillis(11));
+        assertEquals(1000L, GRIB2DataInfo.getTimeUnitMillis(13));
+        //Month, year and missing units are skipped instead of failing the scan
+        assertEquals(-1, GRIB2DataInfo.getTimeUnitMillis(3));
+        assertEquals(-1, GRIB2DataInfo.getTimeUnitMillis(4));
+        assertEquals(-1, GRIB2DataInfo.getTimeUnitMillis(255));
+    }
+}
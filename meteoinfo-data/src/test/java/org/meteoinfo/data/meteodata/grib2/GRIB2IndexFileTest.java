@@ -0,0 +1,118 @@
+package org.meteoinfo.data.meteodata.grib2;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GRIB2IndexFileTest {
+
+    private final List<File> files = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    private String createDataFile() throws IOException {
+        File file = File.createTempFile("grib", ".grb2");
+        files.add(file);
+        files.add(GRIB2IndexFile.getIndexFile(file.getPath()));
+        Files.write(file.toPath(), new byte[1024]);
+        return file.getPath();
+    }
+
+    private static List<GRIB2MessageIndex> createMessages() {
+        List<GRIB2MessageIndex> messageIdxList = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            GRIB2MessageIndex messageIdx = new GRIB2MessageIndex();
+            messageIdx.messagePos = i * 300L;
+            messageIdx.dataPos = i * 300L + 120;
+            messageIdx.startSection = 4;
+            messageIdx.dateTime = new Date(1600000000000L + i * 3600000L);
+            messageIdx.level = 500.5 + i;
+            messageIdx.discipline = 0;
+            messageIdx.category = 2;
+            messageIdx.number = i;
+            messageIdx.levelType = 100;
+            messageIdx.parameter.setName(messageIdx.getParameterName());
+            messageIdxList.add(messageIdx);
+        }
+        return messageIdxList;
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        String fileName = createDataFile();
+        assertNull(GRIB2IndexFile.read(fileName));
+
+        List<GRIB2MessageIndex> messageIdxList = createMessages();
+        assertTrue(GRIB2IndexFile.write(fileName, messageIdxList));
+        List<GRIB2MessageIndex> read = GRIB2IndexFile.read(fileName);
+        assertNotNull(read);
+        assertEquals(messageIdxList.size(), read.size());
+        for (int i = 0; i < read.size(); i++) {
+            GRIB2MessageIndex expected = messageIdxList.get(i);
+            GRIB2MessageIndex actual = read.get(i);
+            assertEquals(expected.messagePos, actual.messagePos);
+            assertEquals(expected.dataPos, actual.dataPos);
+            assertEquals(expected.startSection, actual.startSection);
+            assertEquals(expected.dateTime, actual.dateTime);
+            assertEquals(expected.level, actual.level);
+            assertEquals(expected.discipline, actual.discipline);
+            assertEquals(expected.category, actual.category);
+            assertEquals(expected.number, actual.number);
+            assertEquals(expected.levelType, actual.levelType);
+            assertEquals(expected.getParameterName(), actual.parameter.getName());
+        }
+    }
+
+    @Test
+    public void testStaleIndex() throws IOException {
+        String fileName = createDataFile();
+        File dataFile = new File(fileName);
+        assertTrue(GRIB2IndexFile.write(fileName, createMessages()));
+        assertNotNull(GRIB2IndexFile.read(fileName));
+
+        //Data file modified
+        long modified = dataFile.lastModified();
+        assertTrue(dataFile.setLastModified(modified - 10000));
+        assertNull(GRIB2IndexFile.read(fileName));
+
+        //Data file length changed with the same modification time
+        assertTrue(dataFile.setLastModified(modified));
+        assertNotNull(GRIB2IndexFile.read(fileName));
+        try (RandomAccessFile raf = new RandomAccessFile(dataFile, "rw")) {
+            raf.setLength(2048);
+        }
+        assertTrue(dataFile.setLastModified(modified));
+        assertNull(GRIB2IndexFile.read(fileName));
+
+        //Rebuilt index matches the data file again
+        List<GRIB2MessageIndex> messageIdxList = createMessages();
+        messageIdxList.remove(2);
+        assertTrue(GRIB2IndexFile.write(fileName, messageIdxList));
+        assertEquals(2, GRIB2IndexFile.read(fileName).size());
+    }
+
+    @Test
+    public void testTruncatedIndex() throws IOException {
+        String fileName = createDataFile();
+        assertTrue(GRIB2IndexFile.write(fileName, createMessages()));
+        File indexFile = GRIB2IndexFile.getIndexFile(fileName);
+        try (RandomAccessFile raf = new RandomAccessFile(indexFile, "rw")) {
+            raf.setLength(raf.length() - 10);
+        }
+        assertNull(GRIB2IndexFile.read(fileName));
+    }
+}
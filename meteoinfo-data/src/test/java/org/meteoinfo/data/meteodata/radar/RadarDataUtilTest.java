@@ -0,0 +1,69 @@
+package org.meteoinfo.data.meteodata.radar;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RadarDataUtilTest {
+
+    /**
+     * Stream returning at most one byte on each read like some decompressing streams
+     */
+    private static InputStream trickle(byte[] bytes) {
+        return new ByteArrayInputStream(bytes) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 1));
+            }
+
+            @Override
+            public synchronized long skip(long n) {
+                return super.skip(Math.min(n, 1));
+            }
+        };
+    }
+
+    private static byte[] range(int n) {
+        byte[] bytes = new byte[n];
+        for (int i = 0; i < n; i++) {
+            bytes[i] = (byte) i;
+        }
+        return bytes;
+    }
+
+    @Test
+    public void testReadFully() throws IOException {
+        InputStream is = trickle(range(10));
+        byte[] bytes = new byte[4];
+        RadarDataUtil.readFully(is, bytes);
+        assertArrayEquals(new byte[]{0, 1, 2, 3}, bytes);
+        byte[] buffer = new byte[8];
+        RadarDataUtil.readFully(is, buffer, 2, 3);
+        assertArrayEquals(new byte[]{0, 0, 4, 5, 6, 0, 0, 0}, buffer);
+        RadarDataUtil.skipFully(is, 2);
+        assertThrows(EOFException.class, () -> RadarDataUtil.readFully(is, bytes));
+
+        assertThrows(EOFException.class, () -> RadarDataUtil.skipFully(trickle(range(3)), 4));
+    }
+
+    @Test
+    public void testReadRecord() throws IOException {
+        InputStream is = trickle(range(10));
+        byte[] bytes = new byte[4];
+        assertTrue(RadarDataUtil.readRecord(is, bytes));
+        assertTrue(RadarDataUtil.readRecord(is, bytes));
+        assertArrayEquals(new byte[]{4, 5, 6, 7}, bytes);
+        //The stream ends within the record
+        assertThrows(EOFException.class, () -> RadarDataUtil.readRecord(is, bytes));
+
+        InputStream is1 = trickle(range(8));
+        assertTrue(RadarDataUtil.readRecord(is1, bytes));
+        assertTrue(RadarDataUtil.readRecord(is1, bytes));
+        assertFalse(RadarDataUtil.readRecord(is1, bytes));
+    }
+}
@@ -0,0 +1,88 @@
+package org.meteoinfo.data.meteodata.radar;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.meteoinfo.ndarray.Array;
+import org.meteoinfo.ndarray.DataType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RadarGridGeometryTest {
+
+    @AfterEach
+    public void tearDown() {
+        RadarGridGeometry.setMaxCacheBytes(32L << 20);
+        RadarGridGeometry.clearCache();
+    }
+
+    /**
+     * 2D grid coordinates with x varying along the columns
+     */
+    private static Array[] grid(int ny, int nx, float delta) {
+        Array xa = Array.factory(DataType.FLOAT, new int[]{ny, nx});
+        Array ya = Array.factory(DataType.FLOAT, new int[]{ny, nx});
+        for (int i = 0; i < ny; i++) {
+            for (int j = 0; j < nx; j++) {
+                xa.setFloat(i * nx + j, (j - nx / 2) * delta);
+                ya.setFloat(i * nx + j, (i - ny / 2) * delta);
+            }
+        }
+        return new Array[]{xa, ya};
+    }
+
+    @Test
+    public void testElevation() {
+        Array[] xy = grid(20, 30, 1000);
+        float e = (float) Math.toRadians(1.5);
+        RadarGridGeometry geometry = RadarGridGeometry.ofElevation(xy[0], xy[1], e, 100);
+        assertArrayEquals(new int[]{20, 30}, geometry.getShape());
+        assertEquals(600, geometry.getSize());
+        assertNull(geometry.getElevation());
+        for (int i = 0; i < geometry.getSize(); i++) {
+            double[] rr = Transform.cartesianToAntennaElevation(xy[0].getFloat(i), xy[1].getFloat(i), e, 100);
+            assertEquals((float) rr[0], geometry.getAzimuth()[i]);
+            assertEquals((float) rr[1], geometry.getRange()[i]);
+        }
+    }
+
+    @Test
+    public void testHeight() {
+        Array[] xy = grid(15, 10, 2000);
+        RadarGridGeometry geometry = RadarGridGeometry.ofHeight(xy[0], xy[1], 3000, 50);
+        assertNotNull(geometry.getElevation());
+        for (int i = 0; i < geometry.getSize(); i++) {
+            double[] rr = Transform.cartesianToAntenna(xy[0].getFloat(i), xy[1].getFloat(i), 3000, 50);
+            assertEquals((float) rr[0], geometry.getAzimuth()[i]);
+            assertEquals((float) rr[1], geometry.getRange()[i]);
+            assertEquals((float) rr[2], geometry.getElevation()[i]);
+        }
+    }
+
+    @Test
+    public void testCache() {
+        Array[] xy = grid(10, 10, 1000);
+        RadarGridGeometry geometry = RadarGridGeometry.ofElevation(xy[0], xy[1], 0.01f, 100);
+        assertSame(geometry, RadarGridGeometry.ofElevation(xy[0], xy[1], 0.01f, 100));
+
+        //Different parameters
+        assertNotSame(geometry, RadarGridGeometry.ofElevation(xy[0], xy[1], 0.02f, 100));
+        assertNotSame(geometry, RadarGridGeometry.ofElevation(xy[0], xy[1], 0.01f, 200));
+        assertNotSame(geometry, RadarGridGeometry.ofHeight(xy[0], xy[1], 0.01f, 100));
+
+        //Equal arrays of other instances are new keys with the same values
+        Array[] other = grid(10, 10, 1000);
+        RadarGridGeometry geometry1 = RadarGridGeometry.ofElevation(other[0], other[1], 0.01f, 100);
+        assertNotSame(geometry, geometry1);
+        assertArrayEquals(geometry.getAzimuth(), geometry1.getAzimuth());
+        assertArrayEquals(geometry.getRange(), geometry1.getRange());
+        assertSame(geometry1, RadarGridGeometry.ofElevation(other[0], other[1], 0.01f, 100));
+
+        RadarGridGeometry.clearCache();
+        assertNotSame(geometry, RadarGridGeometry.ofElevation(xy[0], xy[1], 0.01f, 100));
+
+        //Caching disabled
+        RadarGridGeometry.setMaxCacheBytes(0);
+        geometry = RadarGridGeometry.ofElevation(xy[0], xy[1], 0.01f, 100);
+        assertNotSame(geometry, RadarGridGeometry.ofElevation(xy[0], xy[1], 0.01f, 100));
+    }
+}
@@ -0,0 +1,82 @@
+package org.meteoinfo.data.meteodata.radar;
+
+import org.junit.jupiter.api.Test;
+import org.meteoinfo.ndarray.Array;
+import org.meteoinfo.ndarray.DataType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RadialRecordTest {
+
+    /**
+     * Record with one scan starting at 100 degree azimuth and wrapping at 360 degree
+     */
+    private static RadialRecord createRecord(int n) {
+        RadialRecord record = new RadialRecord("REF");
+        record.setBinLength(1);
+        Array distance = Array.factory(DataType.FLOAT, new int[]{10});
+        record.newScan(0.5f, 1000, distance);
+        for (int i = 0; i < n; i++) {
+            record.addAzimuth((100 + i * 360.0f / n) % 360);
+            record.addElevation(0.5f);
+        }
+        return record;
+    }
+
+    @Test
+    public void testAzimuthIndex() {
+        RadialRecord record = createRecord(360);
+        AzimuthIndex index = record.getAzimuthIndex(0);
+        assertEquals(360, index.size());
+        assertSame(index, record.getAzimuthIndex(0));
+        assertEquals(0, index.getSortedValues()[0]);
+        assertEquals(260, index.getOrder()[0]);
+        assertEquals(359, index.getSortedValues()[359]);
+
+        assertArrayEquals(new int[]{0, 0}, record.getAzimuthIndices(0, 100));
+        assertArrayEquals(new int[]{0, 1}, record.getAzimuthIndices(0, 100.5f));
+        assertArrayEquals(new int[]{259, 260}, record.getAzimuthIndices(0, 359.5f));
+        assertEquals(1, record.getAzimuthIndex(0, 100.7f));
+        assertEquals(100, record.getAzimuthIndex(0, 200.3f));
+        assertEquals(-1, record.getAzimuthIndex(0, Float.NaN));
+
+        //Adding an azimuth rebuilds the index
+        record.addAzimuth(99.5f);
+        AzimuthIndex index1 = record.getAzimuthIndex(0);
+        assertNotSame(index, index1);
+        assertEquals(361, index1.size());
+    }
+
+    @Test
+    public void testConcurrentAzimuthIndex() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int k = 0; k < 20; k++) {
+                RadialRecord record = createRecord(720);
+                List<Callable<AzimuthIndex>> tasks = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    tasks.add(() -> record.getAzimuthIndex(0));
+                }
+                AzimuthIndex index = null;
+                for (Future<AzimuthIndex> future : executor.invokeAll(tasks)) {
+                    AzimuthIndex r = future.get();
+                    assertEquals(720, r.size());
+                    if (index == null) {
+                        index = r;
+                    } else {
+                        assertSame(index, r);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
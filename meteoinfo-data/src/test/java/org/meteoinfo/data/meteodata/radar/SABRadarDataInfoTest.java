@@ -0,0 +1,141 @@
+package org.meteoinfo.data.meteodata.radar;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SABRadarDataInfoTest {
+
+    private static final int SCAN_NUM = 2;
+    private static final int RADIAL_NUM = 4;
+    private static final int REF_GATES = 10;
+    private static final int DOP_GATES = 20;
+    private static final int RADIAL_LENGTH = 128 + 460 + 920 * 2 + 4;
+
+    private final List<File> files = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    /**
+     * Raw value of a gate, different for each product, scan, radial and gate
+     */
+    private static int rawValue(int product, int scan, int radial, int gate) {
+        return product * 80 + scan * 40 + radial * 10 + gate % 10;
+    }
+
+    private static byte[] createData() {
+        ByteBuffer buffer = ByteBuffer.allocate(RADIAL_LENGTH * SCAN_NUM * RADIAL_NUM);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        for (int s = 0; s < SCAN_NUM; s++) {
+            for (int r = 0; r < RADIAL_NUM; r++) {
+                int offset = (s * RADIAL_NUM + r) * RADIAL_LENGTH;
+                buffer.putShort(offset + 36, (short) (r * 90 * 4096 * 8 / 180));
+                buffer.putShort(offset + 38, (short) (r + 1));
+                buffer.putShort(offset + 42, (short) ((s + 1) * 4096 * 8 / 180));
+                buffer.putShort(offset + 44, (short) (s + 1));
+                buffer.putShort(offset + 50, (short) 1000);
+                buffer.putShort(offset + 52, (short) 250);
+                buffer.putShort(offset + 54, (short) REF_GATES);
+                buffer.putShort(offset + 56, (short) DOP_GATES);
+                buffer.putShort(offset + 68, (short) 2);
+                for (int g = 0; g < REF_GATES; g++) {
+                    buffer.put(offset + 128 + g, (byte) rawValue(0, s, r, g));
+                }
+                for (int g = 0; g < DOP_GATES; g++) {
+                    buffer.put(offset + 128 + 460 + g, (byte) rawValue(1, s, r, g));
+                    buffer.put(offset + 128 + 460 + 920 + g, (byte) rawValue(2, s, r, g));
+                }
+            }
+        }
+        return buffer.array();
+    }
+
+    private String createFile(byte[] data, boolean gzip) throws IOException {
+        File file = File.createTempFile("sab", gzip ? ".bin.gz" : ".bin");
+        files.add(file);
+        try (OutputStream os = gzip ? new GZIPOutputStream(Files.newOutputStream(file.toPath()))
+                : Files.newOutputStream(file.toPath())) {
+            os.write(data);
+        }
+        return file.getPath();
+    }
+
+    private static void assertRecord(RadialRecord record, int product, int[] scans) {
+        int gateNum = product == 0 ? REF_GATES : DOP_GATES;
+        assertEquals(scans.length, record.getScanNumber());
+        for (int i = 0; i < scans.length; i++) {
+            assertEquals(RADIAL_NUM, record.getDataRadialNumber(i));
+            assertEquals(gateNum, record.getGateNumber(i));
+            assertEquals(scans[i] + 1, record.fixedElevation.get(i), 0.01);
+            for (int r = 0; r < RADIAL_NUM; r++) {
+                for (int g = 0; g < gateNum; g++) {
+                    assertEquals(rawValue(product, scans[i], r, g), record.getRawValue(i, r, g));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        for (boolean gzip : new boolean[]{false, true}) {
+            SABRadarDataInfo dataInfo = new SABRadarDataInfo();
+            dataInfo.readDataInfo(createFile(createData(), gzip));
+            assertEquals(new HashSet<>(Arrays.asList("dBZ", "V", "W")), dataInfo.getRecordMap().keySet());
+            assertRecord(dataInfo.getRecordMap().get("dBZ"), 0, new int[]{0, 1});
+            assertRecord(dataInfo.getRecordMap().get("V"), 1, new int[]{0, 1});
+            assertRecord(dataInfo.getRecordMap().get("W"), 2, new int[]{0, 1});
+        }
+    }
+
+    @Test
+    public void testFilter() throws IOException {
+        String fileName = createFile(createData(), true);
+        SABRadarDataInfo dataInfo = new SABRadarDataInfo();
+        dataInfo.readDataInfo(fileName, Collections.singletonList("V"), Collections.singletonList(1));
+        assertEquals(Collections.singleton("V"), dataInfo.getRecordMap().keySet());
+        assertRecord(dataInfo.getRecordMap().get("V"), 1, new int[]{1});
+        assertNotNull(dataInfo.getVariable("V"));
+
+        dataInfo = new SABRadarDataInfo();
+        dataInfo.readDataInfo(fileName, Arrays.asList("dBZ", "W"), null);
+        assertEquals(new HashSet<>(Arrays.asList("dBZ", "W")), dataInfo.getRecordMap().keySet());
+        assertRecord(dataInfo.getRecordMap().get("dBZ"), 0, new int[]{0, 1});
+        assertRecord(dataInfo.getRecordMap().get("W"), 2, new int[]{0, 1});
+
+        //Filters only apply to a single read
+        assertNull(dataInfo.productFilter);
+        assertNull(dataInfo.scanFilter);
+        dataInfo = new SABRadarDataInfo();
+        dataInfo.readDataInfo(fileName, null, Collections.singletonList(0));
+        assertEquals(3, dataInfo.getRecordMap().size());
+        assertRecord(dataInfo.getRecordMap().get("dBZ"), 0, new int[]{0});
+    }
+
+    @Test
+    public void testTruncated() throws IOException {
+        byte[] data = createData();
+        SABRadarDataInfo dataInfo = new SABRadarDataInfo();
+        String fileName = createFile(Arrays.copyOf(data, data.length - 100), false);
+        RuntimeException e = assertThrows(RuntimeException.class, () -> dataInfo.readDataInfo(fileName));
+        assertTrue(e.getCause() instanceof java.io.EOFException);
+    }
+}
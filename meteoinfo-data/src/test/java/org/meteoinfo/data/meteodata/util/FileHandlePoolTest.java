@@ -0,0 +1,232 @@
+package org.meteoinfo.data.meteodata.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileHandlePoolTest {
+
+    /**
+     * File handle recording if it is closed or in use
+     */
+    static class Handle implements Closeable {
+        final String path;
+        final AtomicBoolean inUse = new AtomicBoolean();
+        volatile boolean closed = false;
+
+        Handle(String path) {
+            this.path = path;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private FileHandlePool<Handle> pool;
+    private final List<File> files = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        pool = new FileHandlePool<>(Handle::new);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.clear();
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    private String createFile(String content) throws IOException {
+        File file = File.createTempFile("pool", ".dat");
+        files.add(file);
+        Files.write(file.toPath(), content.getBytes());
+        return file.getPath();
+    }
+
+    @Test
+    public void testReuse() throws IOException {
+        String path = createFile("abc");
+        Handle h1 = pool.acquire(path);
+        pool.release(path, h1);
+        Handle h2 = pool.acquire(path);
+        pool.release(path, h2);
+
+        assertSame(h1, h2);
+        assertFalse(h1.closed);
+        assertEquals(1, pool.getMissCount());
+        assertEquals(1, pool.getHitCount());
+        assertEquals(1, pool.getIdleCount());
+        assertEquals(0, pool.getLeasedCount());
+    }
+
+    @Test
+    public void testStale() throws IOException {
+        String path = createFile("abc");
+        File file = new File(path);
+        Handle h1 = pool.acquire(path);
+        pool.release(path, h1);
+
+        //Same modification time but different length
+        long modified = file.lastModified();
+        Files.write(file.toPath(), "abcdef".getBytes());
+        assertTrue(file.setLastModified(modified));
+        Handle h2 = pool.acquire(path);
+        assertNotSame(h1, h2);
+        assertTrue(h1.closed);
+        pool.release(path, h2);
+
+        //Same length but different modification time
+        assertTrue(file.setLastModified(modified - 10000));
+        Handle h3 = pool.acquire(path);
+        assertNotSame(h2, h3);
+        assertTrue(h2.closed);
+
+        //Modified while leased
+        assertTrue(file.setLastModified(modified));
+        pool.release(path, h3);
+        assertTrue(h3.closed);
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    public void testForeignHandle() throws IOException {
+        String path = createFile("abc");
+        //Handles not acquired from the pool are closed instead of pooled
+        Handle h1 = new Handle(path);
+        pool.release(path, h1);
+        assertTrue(h1.closed);
+        assertEquals(0, pool.getIdleCount());
+
+        Handle h2 = pool.acquire(path);
+        pool.release(null, h2);
+        assertTrue(h2.closed);
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(0, pool.getLeasedCount());
+
+        assertThrows(IllegalArgumentException.class, () -> pool.acquire(null));
+    }
+
+    @Test
+    public void testEviction() throws IOException {
+        pool.setMaxOpen(2);
+        String[] paths = new String[]{createFile("a"), createFile("b"), createFile("c")};
+        Handle[] handles = new Handle[3];
+        for (int i = 0; i < 3; i++) {
+            handles[i] = pool.acquire(paths[i]);
+            pool.release(paths[i], handles[i]);
+        }
+
+        assertTrue(handles[0].closed);
+        assertFalse(handles[1].closed);
+        assertFalse(handles[2].closed);
+        assertEquals(2, pool.getIdleCount());
+        assertEquals(1, pool.getEvictionCount());
+
+        pool.invalidate(paths[1]);
+        assertTrue(handles[1].closed);
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    public void testIdleTimeout() throws Exception {
+        pool.setIdleTimeout(50);
+        String path = createFile("abc");
+        Handle h = pool.acquire(path);
+        pool.release(path, h);
+
+        //Closed by the evictor without any further access
+        long end = System.currentTimeMillis() + 5000;
+        while (!h.closed && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        assertTrue(h.closed);
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    public void testExclusiveLeasing() throws Exception {
+        String path = createFile("abc");
+        Handle h1 = pool.acquire(path);
+        Handle h2 = pool.acquire(path);
+        assertNotSame(h1, h2);
+        pool.release(path, h1);
+        pool.release(path, h2);
+        //A handle given back twice is not leased twice
+        pool.release(path, h2);
+        assertEquals(2, pool.getIdleCount());
+
+        AtomicInteger shared = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < 200; j++) {
+                    Handle h = pool.acquire(path);
+                    try {
+                        if (!h.inUse.compareAndSet(false, true) || h.closed) {
+                            shared.incrementAndGet();
+                        }
+                        Thread.yield();
+                        h.inUse.set(false);
+                    } finally {
+                        pool.release(path, h);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(0, shared.get());
+        assertEquals(0, pool.getLeasedCount());
+        assertTrue(pool.getIdleCount() <= pool.getMaxOpen());
+    }
+
+    @Test
+    public void testMaxOpen() throws Exception {
+        pool.setMaxOpen(2);
+        String path = createFile("abc");
+        Handle h1 = pool.acquire(path);
+        Handle h2 = pool.acquire(path);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Handle> future = executor.submit(() -> pool.acquire(path));
+        assertThrows(TimeoutException.class, () -> future.get(200, TimeUnit.MILLISECONDS));
+        assertEquals(2, pool.getLeasedCount());
+
+        pool.release(path, h1);
+        Handle h3 = future.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+        assertSame(h1, h3);
+        assertEquals(2, pool.getLeasedCount());
+        assertEquals(0, pool.getIdleCount());
+
+        pool.release(path, h2);
+        pool.release(path, h3);
+        assertEquals(2, pool.getIdleCount());
+        assertEquals(2, pool.getMissCount());
+    }
+}
@@ -1165,14 +1165,14 @@ public class DataFrame implements Iterable {
             ranges.add(new Range(this.length()));
             ranges.add(columns.indexOfName(colnames));
             Array r = ArrayMath.take((Array) this.data, ranges);
-            return new DataFrame(r, index.getValues(), colnames);
+            return new DataFrame(r, new ArrayList<>(index.getValues()), colnames);
         } else {
             final List<Array> keep = new ArrayList<>(colnames.size());
             for (final String col : colnames) {
                 keep.add(((List<Array>) this.data).get(this.columns.indexOfName(col)));
             }
 
-            return new DataFrame(keep, index.getValues(), colnames);
+            return new DataFrame(keep, new ArrayList<>(index.getValues()), colnames);
         }
     }
 
@@ -1721,15 +1721,9 @@ public class DataFrame implements Iterable {
             r = ArrayMath.section((Array) this.data, ranges);
         } else {
             r = new ArrayList<>();
-            int rn = rowRange.length();
             for (int j = colRange.first(); j <= colRange.last(); j += colRange.stride()) {
-                Array rr = Array.factory(this.columns.get(j).getDataType(), new int[]{rn});
                 Array mr = ((List<Array>) this.data).get(j);
-                int idx = 0;
-                for (int i = rowRange.first(); i <= rowRange.last(); i += rowRange.stride()) {
-                    rr.setObject(idx, mr.getObject(i));
-                    idx += 1;
-                }
+                Array rr = takeRows(mr, this.columns.get(j).getDataType(), null, rowIndices(rowRange));
                 ((ArrayList) r).add(rr);
             }
             if (cols.size() == 1) {
@@ -1778,15 +1772,9 @@ public class DataFrame implements Iterable {
             r = ArrayMath.take((Array) this.data, ranges);
         } else {
             r = new ArrayList<>();
-            int rn = rowRange.length();
             for (int j : colRange) {
-                Array rr = Array.factory(this.columns.get(j).getDataType(), new int[]{rn});
                 Array mr = ((List<Array>) this.data).get(j);
-                int idx = 0;
-                for (int i = rowRange.first(); i <= rowRange.last(); i += rowRange.stride()) {
-                    rr.setObject(idx, mr.getObject(i));
-                    idx += 1;
-                }
+                Array rr = takeRows(mr, this.columns.get(j).getDataType(), null, rowIndices(rowRange));
                 ((ArrayList) r).add(rr);
             }
             if (cols.size() == 1) {
@@ -1833,15 +1821,9 @@ public class DataFrame implements Iterable {
             r = ArrayMath.take((Array) this.data, ranges);
         } else {
             r = new ArrayList<>();
-            int rn = rowRange.size();
             for (int j = 0; j < cols.size(); j ++) {
-                Array rr = Array.factory(this.columns.get(j).getDataType(), new int[]{rn});
                 Array mr = ((List<Array>) this.data).get(j);
-                int idx = 0;
-                for (int i : rowRange) {
-                    rr.setObject(idx, mr.getObject(i));
-                    idx += 1;
-                }
+                Array rr = takeRows(mr, this.columns.get(j).getDataType(), null, rowIndices(rowRange));
                 ((ArrayList) r).add(rr);
             }
             if (cols.size() == 1) {
@@ -1889,15 +1871,9 @@ public class DataFrame implements Iterable {
             r = ArrayMath.take((Array) this.data, ranges);
         } else {
             r = new ArrayList<>();
-            int rn = rowRange.size();
             for (int j = colRange.first(); j <= colRange.last(); j += colRange.stride()) {
-                Array rr = Array.factory(this.columns.get(j).getDataType(), new int[]{rn});
                 Array mr = ((List<Array>) this.data).get(j);
-                int idx = 0;
-                for (int i : rowRange) {
-                    rr.setObject(idx, mr.getObject(i));
-                    idx += 1;
-                }
+                Array rr = takeRows(mr, this.columns.get(j).getDataType(), null, rowIndices(rowRange));
                 ((ArrayList) r).add(rr);
             }
             if (cols.size() == 1) {
@@ -1961,15 +1937,9 @@ public class DataFrame implements Iterable {
             r = ArrayMath.take((Array) this.data, ranges);
         } else {
             r = new ArrayList<>();
-            int rn = rowRange.size();
             for (int j = colRange.first(); j <= colRange.last(); j += colRange.stride()) {
-                Array rr = Array.factory(this.columns.get(j).getDataType(), new int[]{rn});
                 Array mr = ((List<Array>) this.data).get(j);
-                int idx = 0;
-                for (int i : rowRange) {
-                    rr.setObject(idx, mr.getObject(i));
-                    idx += 1;
-                }
+                Array rr = takeRows(mr, this.columns.get(j).getDataType(), null, rowIndices(rowRange));
                 ((ArrayList) r).add(rr);
             }
             if (cols.size() == 1) {
@@ -2035,21 +2005,10 @@ public class DataFrame implements Iterable {
             }
         } else {
             r = new ArrayList<>();
-            int rn = rowRange.size();
             for (int j = colRange.first(); j <= colRange.last(); j += colRange.stride()) {
-                DataType dtype = this.columns.get(j).getDataType();
-                String format = this.columns.get(j).getFormat();
-                Array rr = Array.factory(dtype, new int[]{rn});
+                Column col = this.columns.get(j);
                 Array mr = ((List<Array>) this.data).get(j);
-                int idx = 0;
-                for (int i : rowRange) {
-                    if (i < 0) {
-                        rr.setObject(idx, DataTypeUtil.convertTo(null, dtype, format));
-                    } else {
-                        rr.setObject(idx, mr.getObject(i));
-                    }
-                    idx += 1;
-                }
+                Array rr = takeRows(mr, col.getDataType(), col.getFormat(), rowIndices(rowRange));
                 ((ArrayList) r).add(rr);
             }
             if (cols.size() == 1) {
@@ -2115,21 +2074,10 @@ public class DataFrame implements Iterable {
             }
         } else {
             r = new ArrayList<>();
-            int rn = rowRange.size();
             for (int j : colRange) {
-                DataType dtype = this.columns.get(j).getDataType();
-                String format = this.columns.get(j).getFormat();
-                Array rr = Array.factory(dtype, new int[]{rn});
+                Column col = this.columns.get(j);
                 Array mr = ((List<Array>) this.data).get(j);
-                int idx = 0;
-                for (int i : rowRange) {
-                    if (i < 0) {
-                        rr.setObject(idx, DataTypeUtil.convertTo(null, dtype, format));
-                    } else {
-                        rr.setObject(idx, mr.getObject(i));
-                    }
-                    idx += 1;
-                }
+                Array rr = takeRows(mr, col.getDataType(), col.getFormat(), rowIndices(rowRange));
                 ((ArrayList) r).add(rr);
             }
             if (cols.size() == 1) {
@@ -2249,15 +2197,9 @@ public class DataFrame implements Iterable {
             }
         } else {
             r = new ArrayList<>();
-            int rn = rowRange.size();
             for (int j : colRange) {
-                Array rr = Array.factory(this.columns.get(j).getDataType(), new int[]{rn});
                 Array mr = ((List<Array>) this.data).get(j);
-                int idx = 0;
-                for (int i : rowRange) {
-                    rr.setObject(idx, mr.getObject(i));
-                    idx += 1;
-                }
+                Array rr = takeRows(mr, this.columns.get(j).getDataType(), null, rowIndices(rowRange));
                 ((ArrayList) r).add(rr);
             }
             if (cols.size() == 1) {
@@ -2353,19 +2295,9 @@ public class DataFrame implements Iterable {
                         idx += 1;
                     }
                 } else {
-                    DataType dtype = this.columns.get(j).getDataType();
-                    String format = this.columns.get(j).getFormat();
-                    rr = Array.factory(dtype, new int[]{rn});
+                    Column col = this.columns.get(j);
                     Array mr = ((List<Array>) this.data).get(j);
-                    Object v = DataTypeUtil.convertTo(null, dtype, format);
-                    for (int i : rowRange) {
-                        if (i < 0) {
-                            rr.setObject(idx, v);
-                        } else {
-                            rr.setObject(idx, mr.getObject(i));
-                        }
-                        idx += 1;
-                    }
+                    rr = takeRows(mr, col.getDataType(), col.getFormat(), rowIndices(rowRange));
                 }
                 ((ArrayList) r).add(rr);
             }
@@ -2430,15 +2362,9 @@ public class DataFrame implements Iterable {
             }
         } else {
             r = new ArrayList<>();
-            int rn = rowRange.size();
             for (int j : colRange) {
-                Array rr = Array.factory(this.columns.get(j).getDataType(), new int[]{rn});
                 Array mr = ((List<Array>) this.data).get(j);
-                int idx = 0;
-                for (int i : rowRange) {
-                    rr.setObject(idx, mr.getObject(i));
-                    idx += 1;
-                }
+                Array rr = takeRows(mr, this.columns.get(j).getDataType(), null, rowIndices(rowRange));
                 ((ArrayList) r).add(rr);
             }
             if (cols.size() == 1) {
@@ -2584,253 +2510,17 @@ public class DataFrame implements Iterable {
      */
     public static DataFrame readTable(String fileName, String delimiter, int skipRows, String formatSpec, String encoding,
             int indexCol, String indexFormat, List<String> names, Integer header, int skipFooter) throws FileNotFoundException, IOException, Exception {
-        if (encoding == null) {
-            encoding = UniversalDetector.detectCharset(new File(fileName));
-        }
-
-        BufferedReader sr = new BufferedReader(new InputStreamReader(Files.newInputStream(Paths.get(fileName)), encoding));
-        if (skipRows > 0) {
-            for (int i = 0; i < skipRows; i++) {
-                sr.readLine();
-            }
-        }
-
-        String title = sr.readLine().trim();
-        switch (encoding) {
-            case "UTF8":
-            case "UTF-8":
-            case "UTF-16BE":
-            case "UTF-16LE":
-            case "UTF-32BE":
-            case "UTF-32LE":
-                if (title.startsWith("\uFEFF")) {
-                    title = title.substring(1);
-                }
-        }
-        String[] titleArray1 = GlobalUtil.split(title, delimiter);
-        List<String> titleArray = new ArrayList(Arrays.asList(titleArray1));
-        if (indexCol >= 0) {
-            titleArray.remove(indexCol);
-        }
-
-        if (titleArray.isEmpty()) {
-            System.out.println("File Format Error!");
-            sr.close();
-            return null;
-        }
-
-        int colNum = titleArray.size();
-        if (header == null) {
-            for (int i = 0; i < colNum; i++) {
-                titleArray.set(i, "Col_" + String.valueOf(i));
-            }
-        }
-
-        //Get fields
-        ColumnIndex cols = new ColumnIndex();
-        Column col;
-        List<List> values = new ArrayList<>();
-        String[] colFormats;
-        if (formatSpec == null) {
-            colFormats = new String[colNum];
-            for (int i = 0; i < colNum; i++) {
-                colFormats[i] = "C";
-            }
-        } else {
-            colFormats = formatSpec.split("%");
-        }
-
-        int idx = 0;
-        boolean isBreak = false;
-        for (String colFormat : colFormats) {
-            if (colFormat.isEmpty()) {
-                continue;
-            }
-
-            int num = 1;
-            if (colFormat.length() > 1 && !colFormat.substring(0, 1).equals("{")) {
-                int index = colFormat.indexOf("{");
-                if (index < 0) {
-                    index = colFormat.length() - 1;
-                }
-                num = Integer.parseInt(colFormat.substring(0, index));
-                colFormat = colFormat.substring(index);
-            }
-            for (int i = 0; i < num; i++) {
-                String colName = titleArray.get(idx).trim();
-                if (colFormat.equals("C") || colFormat.equals("s")) //String
-                {
-                    col = Column.factory(colName, DataType.STRING);
-                } else if (colFormat.equals("i")) //Integer
-                {
-                    col = Column.factory(colName, DataType.INT);
-                } else if (colFormat.equals("f")) //Float
-                {
-                    col = Column.factory(colName, DataType.FLOAT);
-                } else if (colFormat.equals("d")) //Double
-                {
-                    col = Column.factory(colName, DataType.DOUBLE);
-                } else if (colFormat.equals("B")) //Boolean
-                {
-                    col = Column.factory(colName, DataType.BOOLEAN);
-                } else if (colFormat.substring(0, 1).equals("{")) {    //Date
-                    int eidx = colFormat.indexOf("}");
-                    String formatStr = colFormat.substring(1, eidx);
-                    col = Column.factory(colName, DataType.DATE);
-                    col.setFormat(formatStr);
-                } else {
-                    col = Column.factory(colName, DataType.STRING);
-                }
-                cols.add(col);
-                values.add(new ArrayList<>());
-                idx += 1;
-                if (idx == colNum) {
-                    isBreak = true;
-                    break;
-                }
-            }
-            if (isBreak) {
-                break;
-            }
-        }
-
-        if (idx < colNum) {
-            for (int i = idx; i < colNum; i++) {
-                cols.add(new Column(titleArray.get(i), DataType.STRING));
-                values.add(new ArrayList<>());
-            }
-        }
-
-        String[] dataArray;
-        List<String> indexValues = new ArrayList<>();
-        String line;
-        if (header == null) {
-            line = title;
-        } else {
-            line = sr.readLine();
-        }
-        while (line != null) {
-            line = line.trim();
-            if (line.isEmpty()) {
-                line = sr.readLine();
-                continue;
-            }
-            dataArray = GlobalUtil.split(line, delimiter);
-            int cn = 0;
-            for (int i = 0; i < dataArray.length; i++) {
-                if (cn < colNum) {
-                    if (i == indexCol) {
-                        indexValues.add(dataArray[i]);
-                    } else {
-                        values.get(cn).add(dataArray[i]);
-                        cn++;
-                    }
-                } else {
-                    break;
-                }
-            }
-            if (cn < colNum) {
-                for (int i = cn; i < colNum; i++) {
-                    values.get(i).add("");
-                }
-            }
-
-            line = sr.readLine();
-        }
-        sr.close();
-
-        int rn = values.get(0).size();
-        if (skipFooter > 0) {
-            if (indexCol >= 0) {
-                indexValues = indexValues.subList(0, rn - skipFooter);
-            }
-            for (int i = 0; i < colNum; i++) {
-                values.set(i, values.get(i).subList(0, rn - skipFooter));
-            }
-        }
-        rn = values.get(0).size();
-        Index index;
-        if (indexCol >= 0) {
-            DataType idxDT;
-            DateTimeFormatter dtFormatter = DateTimeFormatter.ISO_DATE_TIME;
-            if (indexFormat != null) {
-                if (indexFormat.substring(0, 1).equals("%")) {
-                    indexFormat = indexFormat.substring(1);
-                }
-                idxDT = DataTypeUtil.getDataType(indexFormat);
-                if (idxDT == DataType.DATE) {
-                    indexFormat = DataTypeUtil.getDateFormat(indexFormat);
-                    dtFormatter = DateTimeFormatter.ofPattern(indexFormat);
-                }
-            } else {
-                idxDT = DataTypeUtil.detectDataType(indexValues, 10, null);
-                if (idxDT == DataType.DATE) {
-                    dtFormatter = TypeUtils.getDateTimeFormatter(indexValues.get(0));
-                }
-            }
-
-            List indexData = new ArrayList<>();
-            if (idxDT == DataType.DATE) {
-                for (String s : indexValues) {
-                    indexData.add(JDateUtil.parseDateTime(s, dtFormatter));
-                }
-                index = new DateTimeIndex(indexData);
-                //((DateTimeIndex) index).setDateTimeFormatter(dtFormatter);
-                if (indexFormat != null) {
-                    index.setFormat(indexFormat);
-                } else {
-                    index.updateFormat();
-                }
-            } else {
-                for (String s : indexValues) {
-                    indexData.add(DataTypeUtil.convertFromString(s, idxDT, null));
-                }
-                index = Index.factory(indexData);
-                index.updateFormat();
-            }
-        } else {
-            index = new IntIndex(rn);
-            index.updateFormat();
-        }
-
-        DataFrame df;
-        if (cols.isSameDataType()) {
-            Array data = Array.factory(cols.get(0).dataType, new int[]{rn, colNum});
-            List vv;
-            col = cols.get(0);
-            for (int i = 0; i < colNum; i++) {
-                vv = values.get(i);
-                String v;
-                for (int j = 0; j < vv.size(); j++) {
-                    v = (String) vv.get(j);
-                    data.setObject(j * colNum + i, col.convertFromString(v));
-                }
-            }
-            df = new DataFrame(data, index, cols);
-        } else {
-            List<Array> data = new ArrayList<>();
-            Array a;
-            List vv;
-            for (int i = 0; i < colNum; i++) {
-                vv = values.get(i);
-                col = cols.get(i);
-                DataType dt = col.getDataType();
-                a = Array.factory(dt, new int[]{rn});
-                String v;
-                for (int j = 0; j < vv.size(); j++) {
-                    v = (String) vv.get(j);
-                    a.setObject(j, col.convertFromString(v));
-                }
-                data.add(a);
-            }
-
-            df = new DataFrame(data, index, cols);
-        }
-        if (names != null) {
-            df.setColumns(names);
-        }
-
-        return df;
+        TableReader reader = new TableReader(fileName);
+        reader.setDelimiter(delimiter);
+        reader.setSkipRows(skipRows);
+        reader.setFormatSpec(formatSpec);
+        reader.setEncoding(encoding);
+        reader.setIndexCol(indexCol);
+        reader.setIndexFormat(indexFormat);
+        reader.setNames(names);
+        reader.setHeader(header);
+        reader.setSkipFooter(skipFooter);
+        return reader.read();
     }
 
     /**
@@ -2853,271 +2543,18 @@ public class DataFrame implements Iterable {
     public static DataFrame readTable(String fileName, String delimiter, int skipRows, String formatSpec, String encoding,
             int indexCol, String indexFormat, List<String> names, Integer header, int skipFooter,
             List<Object> usecolsin) throws FileNotFoundException, IOException, Exception {
-        if (encoding == null) {
-            encoding = UniversalDetector.detectCharset(new File(fileName));
-        }
-
-        BufferedReader sr = new BufferedReader(new InputStreamReader(Files.newInputStream(Paths.get(fileName)), encoding));
-        if (skipRows > 0) {
-            for (int i = 0; i < skipRows; i++) {
-                sr.readLine();
-            }
-        }
-
-        String title = sr.readLine().trim();
-        switch (encoding) {
-            case "UTF8":
-            case "UTF-8":
-            case "UTF-16BE":
-            case "UTF-16LE":
-            case "UTF-32BE":
-            case "UTF-32LE":
-                if (title.startsWith("\uFEFF")) {
-                    title = title.substring(1);
-                }
-        }
-
-        String[] titleArray1 = GlobalUtil.split(title, delimiter);
-        List<Integer> usecols = new ArrayList<>();
-        if (usecolsin.get(0) instanceof Integer) {
-            for (Object o : usecolsin) {
-                usecols.add((Integer) o);
-            }
-        } else {
-            int idx;
-            List<String> titleArray2 = new ArrayList(Arrays.asList(titleArray1));
-            for (Object o : usecolsin) {
-                idx = titleArray2.indexOf((String) o);
-                if (idx >= 0) {
-                    usecols.add(idx);
-                }
-            }
-        }
-        List<String> titleArray = new ArrayList<>();
-        for (int i = 0; i < titleArray1.length; i++) {
-            if (i != indexCol && usecols.contains(i)) {
-                titleArray.add(titleArray1[i]);
-            }
-        }
-
-        if (titleArray.isEmpty()) {
-            System.out.println("File Format Error!");
-            sr.close();
-            return null;
-        }
-
-        int colNum = titleArray.size();
-        if (header == null) {
-            for (int i = 0; i < colNum; i++) {
-                titleArray.set(i, "Col_" + String.valueOf(i));
-            }
-        }
-
-        //Get fields
-        ColumnIndex cols = new ColumnIndex();
-        Column col;
-        List<List> values = new ArrayList<>();
-        String[] colFormats;
-        if (formatSpec == null) {
-            colFormats = new String[colNum];
-            for (int i = 0; i < colNum; i++) {
-                colFormats[i] = "C";
-            }
-        } else {
-            colFormats = formatSpec.split("%");
-        }
-
-        int idx = 0;
-        boolean isBreak = false;
-        for (String colFormat : colFormats) {
-            if (colFormat.isEmpty()) {
-                continue;
-            }
-
-            int num = 1;
-            if (colFormat.length() > 1 && !colFormat.substring(0, 1).equals("{")) {
-                int index = colFormat.indexOf("{");
-                if (index < 0) {
-                    index = colFormat.length() - 1;
-                }
-                num = Integer.parseInt(colFormat.substring(0, index));
-                colFormat = colFormat.substring(index);
-            }
-            for (int i = 0; i < num; i++) {
-                String colName = titleArray.get(idx).trim();
-                if (colFormat.equals("C") || colFormat.equals("s")) //String
-                {
-                    col = Column.factory(colName, DataType.STRING);
-                } else if (colFormat.equals("i")) //Integer
-                {
-                    col = Column.factory(colName, DataType.INT);
-                } else if (colFormat.equals("f")) //Float
-                {
-                    col = Column.factory(colName, DataType.FLOAT);
-                } else if (colFormat.equals("d")) //Double
-                {
-                    col = Column.factory(colName, DataType.DOUBLE);
-                } else if (colFormat.equals("B")) //Boolean
-                {
-                    col = Column.factory(colName, DataType.BOOLEAN);
-                } else if (colFormat.substring(0, 1).equals("{")) {    //Date
-                    int eidx = colFormat.indexOf("}");
-                    String formatStr = colFormat.substring(1, eidx);
-                    col = Column.factory(colName, DataType.DATE);
-                    col.setFormat(formatStr);
-                } else {
-                    col = Column.factory(colName, DataType.STRING);
-                }
-                cols.add(col);
-                values.add(new ArrayList<>());
-                idx += 1;
-                if (idx == colNum) {
-                    isBreak = true;
-                    break;
-                }
-            }
-            if (isBreak) {
-                break;
-            }
-        }
-
-        if (idx < colNum) {
-            for (int i = idx; i < colNum; i++) {
-                cols.add(new Column(titleArray.get(i), DataType.STRING));
-                values.add(new ArrayList<>());
-            }
-        }
-
-        String[] dataArray;
-        List<String> indexValues = new ArrayList<>();
-        String line;
-        if (header == null) {
-            line = title;
-        } else {
-            line = sr.readLine();
-        }
-        while (line != null) {
-            line = line.trim();
-            if (line.isEmpty()) {
-                line = sr.readLine();
-                continue;
-            }
-            dataArray = GlobalUtil.split(line, delimiter);
-            int cn = 0;
-            for (int i = 0; i < dataArray.length; i++) {
-                if (cn < colNum) {
-                    if (i == indexCol) {
-                        indexValues.add(dataArray[i]);
-                    } else if (usecols.contains(i)) {
-                        values.get(cn).add(dataArray[i]);
-                        cn++;
-                    }
-                } else {
-                    break;
-                }
-            }
-            if (cn < colNum) {
-                for (int i = cn; i < colNum; i++) {
-                    values.get(i).add("");
-                }
-            }
-
-            line = sr.readLine();
-        }
-        sr.close();
-
-        int rn = values.get(0).size();
-        if (skipFooter > 0) {
-            if (indexCol >= 0) {
-                indexValues = indexValues.subList(0, rn - skipFooter);
-            }
-            for (int i = 0; i < colNum; i++) {
-                values.set(i, values.get(i).subList(0, rn - skipFooter));
-            }
-        }
-        rn = values.get(0).size();
-        Index index;
-        if (indexCol >= 0) {
-            DataType idxDT;
-            DateTimeFormatter dtFormatter = DateTimeFormatter.ISO_DATE_TIME;
-            if (indexFormat != null) {
-                if (indexFormat.substring(0, 1).equals("%")) {
-                    indexFormat = indexFormat.substring(1);
-                }
-                idxDT = DataTypeUtil.getDataType(indexFormat);
-                if (idxDT == DataType.DATE) {
-                    indexFormat = DataTypeUtil.getDateFormat(indexFormat);
-                    dtFormatter = DateTimeFormatter.ofPattern(indexFormat);
-                }
-            } else {
-                idxDT = DataTypeUtil.detectDataType(indexValues, 10, null);
-                if (idxDT == DataType.DATE) {
-                    dtFormatter = TypeUtils.getDateTimeFormatter(indexValues.get(0));
-                }
-            }
-
-            List indexData = new ArrayList<>();
-            if (idxDT == DataType.DATE) {
-                for (String s : indexValues) {
-                    indexData.add(JDateUtil.parseDateTime(s, dtFormatter));
-                }
-                index = new DateTimeIndex(indexData);
-                //((DateTimeIndex) index).setDateTimeFormatter(dtFormatter);
-                if (indexFormat != null) {
-                    index.format = indexFormat;
-                } else {
-                    index.updateFormat();
-                }
-            } else {
-                for (String s : indexValues) {
-                    indexData.add(DataTypeUtil.convertFromString(s, idxDT, null));
-                }
-                index = Index.factory(indexData);
-                index.updateFormat();
-            }
-        } else {
-            index = new IntIndex(rn);
-            index.updateFormat();
-        }
-
-        DataFrame df;
-        if (cols.isSameDataType()) {
-            Array data = Array.factory(cols.get(0).dataType, new int[]{rn, colNum});
-            List vv;
-            col = cols.get(0);
-            for (int i = 0; i < colNum; i++) {
-                vv = values.get(i);
-                String v;
-                for (int j = 0; j < vv.size(); j++) {
-                    v = (String) vv.get(j);
-                    data.setObject(j * colNum + i, col.convertFromString(v));
-                }
-            }
-            df = new DataFrame(data, index, cols);
-        } else {
-            List<Array> data = new ArrayList<>();
-            Array a;
-            List vv;
-            for (int i = 0; i < colNum; i++) {
-                vv = values.get(i);
-                col = cols.get(i);
-                DataType dt = col.getDataType();
-                a = Array.factory(dt, new int[]{rn});
-                String v;
-                for (int j = 0; j < vv.size(); j++) {
-                    v = (String) vv.get(j);
-                    a.setObject(j, col.convertFromString(v));
-                }
-                data.add(a);
-            }
-
-            df = new DataFrame(data, index, cols);
-        }
-        if (names != null) {
-            df.setColumns(names);
-        }
-
-        return df;
+        TableReader reader = new TableReader(fileName);
+        reader.setDelimiter(delimiter);
+        reader.setSkipRows(skipRows);
+        reader.setFormatSpec(formatSpec);
+        reader.setEncoding(encoding);
+        reader.setIndexCol(indexCol);
+        reader.setIndexFormat(indexFormat);
+        reader.setNames(names);
+        reader.setHeader(header);
+        reader.setSkipFooter(skipFooter);
+        reader.setUseCols(usecolsin);
+        return reader.read();
     }
 
     /**
@@ -3133,25 +2570,11 @@ public class DataFrame implements Iterable {
      */
     public void saveCSV(String fileName, String delimiter, String formatSpec, String dateFormat, String floatFormat,
             boolean index) throws IOException {
-        BufferedWriter sw = new BufferedWriter(new FileWriter(fileName));
-        String str = "";
         String idxFormat = this.index.format;
-        if (index) {
-            str = this.index.getName();
-            if (dateFormat != null && (this.index instanceof DateTimeIndex)) {
-                idxFormat = dateFormat;
-            }
+        if (index && dateFormat != null && (this.index instanceof DateTimeIndex)) {
+            idxFormat = dateFormat;
         }
-        for (int i = 0; i < this.size(); i++) {
-            if (str.isEmpty()) {
-                str = this.columns.get(i).getName();
-            } else {
-                str = str + delimiter + this.columns.get(i).getName();
-            }
-        }
-        sw.write(str);
 
-        String line, vstr;
         List<Column> columns = new ArrayList<>();
         if (formatSpec == null) {
             for (Column col : this.columns) {
@@ -3173,28 +2596,82 @@ public class DataFrame implements Iterable {
                 } else {
                     column.setFormat(col.getFormat());
                 }
+                columns.add(column);
                 i += 1;
             }
         }
 
-        for (int j = 0; j < this.length(); j++) {
-            line = "";
+        int colNum = this.size();
+        Array[] arrays = new Array[colNum];
+        for (int i = 0; i < colNum; i++) {
+            try {
+                arrays[i] = this.getColumnData(i);
+            } catch (InvalidRangeException e) {
+                throw new IOException(e);
+            }
+        }
+
+        //The line builder and the formatter are reused for all values
+        StringBuilder sb = new StringBuilder();
+        Formatter formatter = new Formatter(sb, Locale.US);
+        try (BufferedWriter sw = new BufferedWriter(new FileWriter(fileName), 1 << 16)) {
             if (index) {
-                line = this.index.toString(j, idxFormat).trim();
+                sb.append(this.index.getName());
             }
-            for (int i = 0; i < this.size(); i++) {
-                vstr = columns.get(i).toString(this.getValue(j, i));
-                if (line.isEmpty()) {
-                    line = vstr;
-                } else {
-                    line += delimiter + vstr;
+            for (int i = 0; i < colNum; i++) {
+                if (index || i > 0) {
+                    sb.append(delimiter);
                 }
+                sb.append(this.columns.get(i).getName());
+            }
+            sw.write(sb.toString());
+
+            for (int j = 0; j < this.length(); j++) {
+                sb.setLength(0);
+                if (index) {
+                    sb.append(this.index.toString(j, idxFormat).trim());
+                }
+                for (int i = 0; i < colNum; i++) {
+                    if (index || i > 0) {
+                        sb.append(delimiter);
+                    }
+                    Column column = columns.get(i);
+                    Array a = arrays[i];
+                    String format = column.getFormat();
+                    switch (a.getDataType()) {
+                        case DOUBLE:
+                            if (format == null) {
+                                sb.append(a.getDouble(j));
+                            } else {
+                                formatter.format(format, a.getDouble(j));
+                            }
+                            break;
+                        case FLOAT:
+                            if (format == null) {
+                                sb.append(a.getFloat(j));
+                            } else {
+                                formatter.format(format, a.getFloat(j));
+                            }
+                            break;
+                        case INT:
+                            if (format == null) {
+                                sb.append(a.getInt(j));
+                            } else {
+                                formatter.format(format, a.getInt(j));
+                            }
+                            break;
+                        default:
+                            Object v = a.getObject(j);
+                            if (v != null) {
+                                sb.append(column.toString(v));
+                            }
+                            break;
+                    }
+                }
+                sw.newLine();
+                sw.append(sb);
             }
-            sw.newLine();
-            sw.write(line);
         }
-        sw.flush();
-        sw.close();
     }
 
     public <V> DataFrame describe() {
@@ -3571,5 +3048,73 @@ public class DataFrame implements Iterable {
         };
         return df;
     }
+    private static int[] rowIndices(Range range) {
+        int[] rows = new int[range.length()];
+        for (int i = 0, r = range.first(); i < rows.length; i++, r += range.stride()) {
+            rows[i] = r;
+        }
+        return rows;
+    }
+
+    private static int[] rowIndices(List<Integer> rows) {
+        int[] r = new int[rows.size()];
+        for (int i = 0; i < r.length; i++) {
+            r[i] = rows.get(i);
+        }
+        return r;
+    }
+
+    /**
+     * Take the rows of a column array. The values are copied by the primitive
+     * type of the column without boxing, and the negative rows are filled with
+     * the missing value of the data type.
+     *
+     * @param a Column array
+     * @param dtype Data type of the column
+     * @param format Format of the column
+     * @param rows Row indices
+     * @return Result array
+     */
+    private static Array takeRows(Array a, DataType dtype, String format, int[] rows) {
+        int n = rows.length;
+        Array r = Array.factory(dtype, new int[]{n});
+        DataType type = a.getDataType() == dtype ? dtype : DataType.OBJECT;
+        switch (type) {
+            case DOUBLE:
+                for (int i = 0; i < n; i++) {
+                    r.setDouble(i, rows[i] < 0 ? Double.NaN : a.getDouble(rows[i]));
+                }
+                break;
+            case FLOAT:
+                for (int i = 0; i < n; i++) {
+                    r.setFloat(i, rows[i] < 0 ? Float.NaN : a.getFloat(rows[i]));
+                }
+                break;
+            case INT:
+                for (int i = 0; i < n; i++) {
+                    r.setInt(i, rows[i] < 0 ? Integer.MIN_VALUE : a.getInt(rows[i]));
+                }
+                break;
+            case BOOLEAN:
+                for (int i = 0; i < n; i++) {
+                    r.setBoolean(i, rows[i] >= 0 && a.getBoolean(rows[i]));
+                }
+                break;
+            default:
+                Object v = null;
+                for (int i = 0; i < n; i++) {
+                    if (rows[i] < 0) {
+                        if (v == null) {
+                            v = DataTypeUtil.convertTo(null, dtype, format);
+                        }
+                        r.setObject(i, v);
+                    } else {
+                        r.setObject(i, a.getObject(rows[i]));
+                    }
+                }
+                break;
+        }
+        return r;
+    }
     // </editor-fold>
 }
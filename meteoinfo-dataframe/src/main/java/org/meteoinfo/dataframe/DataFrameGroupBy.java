@@ -42,7 +42,7 @@ public class DataFrameGroupBy extends GroupBy implements Iterable<Map.Entry<Obje
      * @return Group number
      */
     public int groupNumber() {
-        return this.groups.keys().size();
+        return this.groups.groupNumber();
     }
 
     /**
@@ -70,7 +70,7 @@ public class DataFrameGroupBy extends GroupBy implements Iterable<Map.Entry<Obje
      */
     public <V> DataFrame apply(final Function<?, ?> function) {
         DataFrame df = this.groups.apply(dataFrame, function);
-        if (this.dataFrame.getIndex() instanceof DateTimeIndex) {
+        if (this.dataFrame.getIndex() instanceof DateTimeIndex && df.getIndex() instanceof DateTimeIndex) {
             ((DateTimeIndex) df.getIndex()).setPeriod(((DateTimeIndex) this.dataFrame.getIndex()).getResamplePeriod());
         }
         return df;
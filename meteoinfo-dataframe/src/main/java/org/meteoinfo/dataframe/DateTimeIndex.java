@@ -18,6 +18,7 @@ import java.time.temporal.TemporalAmount;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  *
@@ -28,6 +29,9 @@ public class DateTimeIndex extends Index<LocalDateTime> {
     TemporalAmount period;
     TemporalAmount resamplePeriod;
     DateTimeFormatter dtFormatter;
+    private List<LocalDateTime> sortedData;
+    private int sortedSize = -1;
+    private boolean sorted;
     // </editor-fold>
     // <editor-fold desc="Constructor">
     /**
@@ -194,7 +198,70 @@ public class DateTimeIndex extends Index<LocalDateTime> {
      * @return Index
      */
     public int indexOf(LocalDateTime d){
-        return this.data.indexOf(d);
+        return firstIndexOf(d);
+    }
+
+    @Override
+    protected void dataChanged() {
+        super.dataChanged();
+        this.sortedSize = -1;
+    }
+
+    /**
+     * Check if the date times are in non-decreasing order
+     * @return Boolean
+     */
+    public boolean isMonotonic() {
+        if (this.sortedData != this.data || this.sortedSize != this.data.size()) {
+            boolean r = this.data instanceof RandomAccess;
+            LocalDateTime prev = null;
+            for (int i = 0; r && i < this.data.size(); i++) {
+                LocalDateTime d = this.data.get(i);
+                if (d == null || (prev != null && d.isBefore(prev))) {
+                    r = false;
+                }
+                prev = d;
+            }
+            this.sorted = r;
+            this.sortedData = this.data;
+            this.sortedSize = this.data.size();
+        }
+        return this.sorted;
+    }
+
+    /**
+     * Get the position of the first occurrence of a date time. Binary search
+     * is used for monotonic index.
+     * @param v Value
+     * @return Position, -1 if the value is not found
+     */
+    @Override
+    protected int firstIndexOf(Object v) {
+        if (!(v instanceof LocalDateTime) || !isMonotonic()) {
+            return super.firstIndexOf(v);
+        }
+
+        LocalDateTime d = (LocalDateTime) v;
+        int lo = 0, hi = this.data.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (this.data.get(mid).isBefore(d)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo < this.data.size() && this.data.get(lo).equals(d) ? lo : -1;
+    }
+
+    @Override
+    protected int nextIndexOf(int i) {
+        if (!isMonotonic()) {
+            return super.nextIndexOf(i);
+        }
+
+        int j = i + 1;
+        return j < this.data.size() && this.data.get(j).equals(this.data.get(i)) ? j : -1;
     }
     
     private LocalDateTime toDateTime(Object d){
@@ -219,7 +286,7 @@ public class DateTimeIndex extends Index<LocalDateTime> {
      */
     public int indexOf(Date d){
         LocalDateTime dt = d.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
-        return this.data.indexOf(dt);
+        return firstIndexOf(dt);
     }
     
     /**
@@ -229,7 +296,7 @@ public class DateTimeIndex extends Index<LocalDateTime> {
      */
     public int indexOf(String d){
         LocalDateTime dt = JDateUtil.getDateTime(d);
-        return this.data.indexOf(dt);
+        return firstIndexOf(dt);
     }
     
     /**
@@ -12,10 +12,15 @@ import org.meteoinfo.ndarray.DataType;
 import org.meteoinfo.ndarray.math.ArrayUtil;
 
 import java.time.LocalDateTime;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.stream.Collectors;
 
 /**
@@ -28,39 +33,44 @@ public class Index<V> implements Iterable<V>{
     protected String format = "%4s";
     protected String name = "Index";
     protected DataType dataType = DataType.STRING;
+    private static final int LOOKUP_MIN_SIZE = 32;
+    private Lookup lookup;
+    private final List<V> view = new DataView();
     // </editor-fold>
     // <editor-fold desc="Constructor">
     
     // </editor-fold>
     // <editor-fold desc="Get Set Methods">
     /**
-     * Get data
+     * Get data, the values could be changed through the returned list
      * @return Values
      */
     public List<V> getValues(){
-        return this.data;
+        return this.view;
     }
     
     /**
-     * Get data
+     * Get data, the values could be changed through the returned list
      * @return Data
      */
     public List<V> getData(){
-        return this.data;
+        return this.view;
     }
     
     /**
-     * Set data
+     * Set data. The list is used by the index, it should not be changed
+     * directly afterwards.
      * @param value Data
      */
     public void setData(List<V> value){
         this.data = value;
+        this.dataChanged();
         this.updateFormat();
     }
     
     @Override
     public Iterator iterator() {
-        return this.data.iterator();
+        return this.view.iterator();
     }
     
     /**
@@ -212,6 +222,7 @@ public class Index<V> implements Iterable<V>{
      */
     public void add(V v) {
         this.data.add(v);
+        this.dataChanged();
     }
     
     /**
@@ -221,6 +232,7 @@ public class Index<V> implements Iterable<V>{
      */
     public void add(int i, V v){
         this.data.add(i, v);
+        this.dataChanged();
     }
     
     /**
@@ -252,7 +264,63 @@ public class Index<V> implements Iterable<V>{
      */
     public void set(int i, V value) {
         this.data.set(i, value);
-    }        
+        this.dataChanged();
+    }
+
+    /**
+     * Notify that the index values are changed, so the lookup of the values
+     * is rebuilt. The changes through the index methods and the lists returned
+     * by {@link #getData()} are notified.
+     */
+    protected void dataChanged() {
+        this.lookup = null;
+    }
+
+    private Lookup getLookup() {
+        Lookup l = this.lookup;
+        if (l == null || l.data != this.data || l.size != this.data.size()) {
+            l = new Lookup(this.data);
+            this.lookup = l;
+        }
+        return l;
+    }
+
+    /**
+     * Get the position of the first occurrence of a value. A hash lookup of
+     * the values is built lazily for large index.
+     *
+     * @param v Value
+     * @return Position, -1 if the value is not found
+     */
+    protected int firstIndexOf(Object v) {
+        if (this.data.size() < LOOKUP_MIN_SIZE) {
+            return this.data.indexOf(v);
+        }
+
+        Integer i = getLookup().first.get(v);
+        return i == null ? -1 : i;
+    }
+
+    /**
+     * Get the position of the next occurrence of the value at a position
+     *
+     * @param i Position of the value
+     * @return Next position, -1 if there is no more occurrence
+     */
+    protected int nextIndexOf(int i) {
+        int n = this.data.size();
+        if (n < LOOKUP_MIN_SIZE) {
+            V v = this.data.get(i);
+            for (int j = i + 1; j < n; j++) {
+                if (Objects.equals(v, this.data.get(j))) {
+                    return j;
+                }
+            }
+            return -1;
+        }
+
+        return getLookup().next[i];
+    }
     
     /**
      * Get indices
@@ -284,10 +352,8 @@ public class Index<V> implements Iterable<V>{
      */
     public List<Integer> indexAll(Object k) {
         List<Integer> idx = new ArrayList<>();
-        for (int i = 0; i < this.data.size(); i++) {
-            if (this.data.get(i).equals(k)) {
-                idx.add(i);
-            }
+        for (int i = firstIndexOf(k); i >= 0; i = nextIndexOf(i)) {
+            idx.add(i);
         }
         
         return idx;
@@ -299,7 +365,7 @@ public class Index<V> implements Iterable<V>{
      * @return Index
      */
     public int indexOf(Object v) {
-        return this.data.indexOf(v);
+        return firstIndexOf(v);
     }
     
     /**
@@ -321,7 +387,7 @@ public class Index<V> implements Iterable<V>{
      * @return Boolean
      */
     public boolean contains(V v) {
-        return this.data.contains(v);
+        return firstIndexOf(v) >= 0;
     }
     
     /**
@@ -487,7 +553,7 @@ public class Index<V> implements Iterable<V>{
     public Object[] getIndices_s(Object label) {
         List<Integer> r = new ArrayList<>();
         List<Object> rIndex = new ArrayList<>();
-        int idx = data.indexOf(label);
+        int idx = firstIndexOf(label);
         if (idx >= 0) {
             r.add(idx);
             rIndex.add(label);
@@ -631,5 +697,67 @@ public class Index<V> implements Iterable<V>{
         r.format = this.format;
         return r;
     }
-    // </editor-fold>    
+    // </editor-fold>
+
+    /**
+     * List view of the index values notifying the changes
+     */
+    private class DataView extends AbstractList<V> implements RandomAccess {
+
+        @Override
+        public V get(int i) {
+            return data.get(i);
+        }
+
+        @Override
+        public int size() {
+            return data.size();
+        }
+
+        @Override
+        public V set(int i, V v) {
+            V r = data.set(i, v);
+            dataChanged();
+            return r;
+        }
+
+        @Override
+        public void add(int i, V v) {
+            data.add(i, v);
+            modCount++;
+            dataChanged();
+        }
+
+        @Override
+        public V remove(int i) {
+            V r = data.remove(i);
+            modCount++;
+            dataChanged();
+            return r;
+        }
+    }
+
+    /**
+     * Hash lookup of the index values with the first position of each value
+     * and the chain of the next positions of the same value
+     */
+    private static class Lookup {
+
+        final List<?> data;
+        final int size;
+        final Map<Object, Integer> first;
+        final int[] next;
+
+        Lookup(List<?> data) {
+            this.data = data;
+            this.size = data.size();
+            this.first = new HashMap<>(size * 4 / 3 + 1);
+            this.next = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                Integer j = first.put(data.get(i), i);
+                next[i] = j == null ? -1 : j;
+            }
+        }
+    }
+    
 }
@@ -0,0 +1,1113 @@
+package org.meteoinfo.dataframe;
+
+import org.meteoinfo.common.util.GlobalUtil;
+import org.meteoinfo.common.util.JDateUtil;
+import org.meteoinfo.common.util.TypeUtils;
+import org.meteoinfo.ndarray.Array;
+import org.meteoinfo.ndarray.DataType;
+import org.meteoinfo.ndarray.util.DataTypeUtil;
+import org.mozilla.universalchardet.UniversalDetector;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Streaming reader of delimited text files to data frames.
+ *
+ * <p>The lines are parsed directly into primitive column buffers, so the
+ * whole file is never held as strings. The column filter and the row filter
+ * are applied while parsing, the file can be read in chunks of bounded row
+ * number, or parsed by line aligned splits in parallel.
+ *
+ * @author Yaqiang Wang
+ */
+public class TableReader {
+
+    // <editor-fold desc="Variables">
+    private static final int SPLIT_SIZE = 1 << 29;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final String fileName;
+    private String delimiter;
+    private int skipRows = 0;
+    private String formatSpec;
+    private String encoding;
+    private int indexCol = -1;
+    private String indexFormat;
+    private List<String> names;
+    private Integer header = 0;
+    private int skipFooter = 0;
+    private List<Object> useCols;
+    private RowFilter rowFilter;
+    private int inferRows = 0;
+    private boolean parallel = false;
+    private long splitSize = SPLIT_SIZE;
+    // </editor-fold>
+    // <editor-fold desc="Constructor">
+
+    /**
+     * Constructor
+     *
+     * @param fileName File name
+     */
+    public TableReader(String fileName) {
+        this.fileName = fileName;
+    }
+    // </editor-fold>
+    // <editor-fold desc="Get Set Methods">
+
+    /**
+     * Set delimiter, null for space or tab
+     *
+     * @param value Delimiter
+     */
+    public void setDelimiter(String value) {
+        this.delimiter = value;
+    }
+
+    /**
+     * Set number of lines to skip at beginning of the file
+     *
+     * @param value Skip rows
+     */
+    public void setSkipRows(int value) {
+        this.skipRows = value;
+    }
+
+    /**
+     * Set format specifiers string
+     *
+     * @param value Format specifiers string
+     */
+    public void setFormatSpec(String value) {
+        this.formatSpec = value;
+    }
+
+    /**
+     * Set file encoding, null for detecting the encoding
+     *
+     * @param value Encoding
+     */
+    public void setEncoding(String value) {
+        this.encoding = value;
+    }
+
+    /**
+     * Set column to be used as index, -1 for no index column
+     *
+     * @param value Index column
+     */
+    public void setIndexCol(int value) {
+        this.indexCol = value;
+    }
+
+    /**
+     * Set index format
+     *
+     * @param value Index format
+     */
+    public void setIndexFormat(String value) {
+        this.indexFormat = value;
+    }
+
+    /**
+     * Set column names
+     *
+     * @param value Column names
+     */
+    public void setNames(List<String> value) {
+        this.names = value;
+    }
+
+    /**
+     * Set row number to use as the column names, null for no header
+     *
+     * @param value Header
+     */
+    public void setHeader(Integer value) {
+        this.header = value;
+    }
+
+    /**
+     * Set number of lines at bottom of file to skip
+     *
+     * @param value Skip footer
+     */
+    public void setSkipFooter(int value) {
+        this.skipFooter = value;
+    }
+
+    /**
+     * Set columns to read by column names or indices
+     *
+     * @param value Columns to read, null for all columns
+     */
+    public void setUseCols(List<Object> value) {
+        this.useCols = value;
+    }
+
+    /**
+     * Set row filter
+     *
+     * @param value Row filter, null for all rows
+     */
+    public void setRowFilter(RowFilter value) {
+        this.rowFilter = value;
+    }
+
+    /**
+     * Set number of rows to infer the column data types when the format
+     * specifiers string is null. The inferred columns are read as string if
+     * the number is 0.
+     *
+     * @param value Number of rows for inferring
+     */
+    public void setInferRows(int value) {
+        this.inferRows = value;
+    }
+
+    /**
+     * Set if the file is parsed in parallel by line aligned splits
+     *
+     * @param value Parallel or not
+     */
+    public void setParallel(boolean value) {
+        this.parallel = value;
+    }
+
+    /**
+     * Set bytes of the parallel splits, files smaller than 1/8 of the split
+     * bytes are not parsed in parallel
+     *
+     * @param value Split bytes
+     */
+    void setSplitSize(long value) {
+        this.splitSize = value;
+    }
+    // </editor-fold>
+    // <editor-fold desc="Methods">
+
+    /**
+     * Read the whole file
+     *
+     * @return DataFrame object, null if there is no column
+     * @throws IOException
+     */
+    public DataFrame read() throws IOException {
+        try (ChunkIterator iter = new ChunkIterator(Integer.MAX_VALUE)) {
+            if (iter.columns == null) {
+                return null;
+            }
+            if (parallel && iter.dataStart >= 0 && Files.size(Paths.get(fileName)) > splitSize / 8) {
+                iter.close();
+                return readParallel(iter);
+            }
+            return iter.next();
+        }
+    }
+
+    /**
+     * Read the file in chunks. The returned iterator should be closed if it
+     * is not exhausted.
+     *
+     * @param chunkSize Maximum row number of each chunk
+     * @return Chunk iterator
+     * @throws IOException
+     */
+    public ChunkIterator iterator(int chunkSize) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be greater than 0: " + chunkSize);
+        }
+        return new ChunkIterator(chunkSize);
+    }
+
+    private DataFrame readParallel(final ChunkIterator head) throws IOException {
+        final Charset charset = Charset.forName(head.charset);
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            long size = channel.size();
+            int n = (int) Math.max(Runtime.getRuntime().availableProcessors(),
+                    (size - head.dataStart + splitSize - 1) / splitSize);
+            final long[] starts = new long[n + 1];
+            starts[0] = head.dataStart;
+            starts[n] = size;
+            ByteBuffer buf = ByteBuffer.allocate(1 << 16);
+            for (int i = 1; i < n; i++) {
+                long pos = Math.max(starts[i - 1], head.dataStart + (size - head.dataStart) * i / n);
+                starts[i] = nextLineStart(channel, pos, buf);
+            }
+
+            final Chunk[] chunks = new Chunk[n];
+            IntStream.range(0, n).parallel().forEach(i -> {
+                if (starts[i + 1] <= starts[i]) {
+                    chunks[i] = head.newChunk();
+                    return;
+                }
+                try {
+                    ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, starts[i], starts[i + 1] - starts[i]);
+                    BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteBufferInputStream(mapped), charset), 1 << 16);
+                    LineSource source = new LineSource(reader, i == n - 1 ? skipFooter : 0, null);
+                    source.stripBOM = i == 0;
+                    Chunk chunk = head.newChunk();
+                    String line;
+                    while ((line = source.next()) != null) {
+                        chunk.parse(line);
+                    }
+                    chunks[i] = chunk;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            return head.toDataFrame(chunks, 0);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static long nextLineStart(FileChannel channel, long pos, ByteBuffer buf) throws IOException {
+        long size = channel.size();
+        while (pos < size) {
+            buf.clear();
+            int n = channel.read(buf, pos);
+            if (n <= 0) {
+                break;
+            }
+            for (int i = 0; i < n; i++) {
+                if (buf.get(i) == '\n') {
+                    return pos + i + 1;
+                }
+            }
+            pos += n;
+        }
+        return size;
+    }
+
+    private static long dataStart(String fileName, int lines) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(fileName)), 1 << 16)) {
+            long pos = 0;
+            int c;
+            while (lines > 0 && (c = in.read()) >= 0) {
+                pos += 1;
+                if (c == '\n') {
+                    lines -= 1;
+                }
+            }
+            return pos;
+        }
+    }
+
+    private static boolean isLineSplittable(String charset) {
+        Charset cs = Charset.forName(charset);
+        byte[] nl = "\n".getBytes(cs);
+        byte[] a = "A".getBytes(cs);
+        return nl.length == 1 && nl[0] == '\n' && a.length == 1;
+    }
+
+    /**
+     * Split a line to fields, same as {@link GlobalUtil#split(String, String)}
+     * except that a line of empty fields gives one empty field
+     *
+     * @param line The line
+     * @param delimiter Delimiter, null or space for space or tab
+     * @return Fields
+     */
+    static String[] split(String line, String delimiter) {
+        if (delimiter == null || delimiter.equals(" ")) {
+            return WHITESPACE.split(line);
+        }
+
+        String[] r = GlobalUtil.split(line, delimiter);
+        if (r.length == 1 && r[0] == null) {
+            r[0] = "";
+        }
+        return r;
+    }
+
+    /**
+     * Create columns by format specifiers string
+     *
+     * @param formatSpec Format specifiers string
+     * @param titles Column titles
+     * @return Columns
+     */
+    static ColumnIndex createColumns(String formatSpec, List<String> titles) {
+        int colNum = titles.size();
+        ColumnIndex cols = new ColumnIndex();
+        Column col;
+        String[] colFormats;
+        if (formatSpec == null) {
+            colFormats = new String[colNum];
+            for (int i = 0; i < colNum; i++) {
+                colFormats[i] = "C";
+            }
+        } else {
+            colFormats = formatSpec.split("%");
+        }
+
+        int idx = 0;
+        boolean isBreak = false;
+        for (String colFormat : colFormats) {
+            if (colFormat.isEmpty()) {
+                continue;
+            }
+
+            int num = 1;
+            if (colFormat.length() > 1 && !colFormat.substring(0, 1).equals("{")) {
+                int index = colFormat.indexOf("{");
+                if (index < 0) {
+                    index = colFormat.length() - 1;
+                }
+                num = Integer.parseInt(colFormat.substring(0, index));
+                colFormat = colFormat.substring(index);
+            }
+            for (int i = 0; i < num; i++) {
+                String colName = titles.get(idx).trim();
+                if (colFormat.equals("C") || colFormat.equals("s")) //String
+                {
+                    col = Column.factory(colName, DataType.STRING);
+                } else if (colFormat.equals("i")) //Integer
+                {
+                    col = Column.factory(colName, DataType.INT);
+                } else if (colFormat.equals("f")) //Float
+                {
+                    col = Column.factory(colName, DataType.FLOAT);
+                } else if (colFormat.equals("d")) //Double
+                {
+                    col = Column.factory(colName, DataType.DOUBLE);
+                } else if (colFormat.equals("B")) //Boolean
+                {
+                    col = Column.factory(colName, DataType.BOOLEAN);
+                } else if (colFormat.substring(0, 1).equals("{")) {    //Date
+                    int eidx = colFormat.indexOf("}");
+                    String formatStr = colFormat.substring(1, eidx);
+                    col = Column.factory(colName, DataType.DATE);
+                    col.setFormat(formatStr);
+                } else {
+                    col = Column.factory(colName, DataType.STRING);
+                }
+                cols.add(col);
+                idx += 1;
+                if (idx == colNum) {
+                    isBreak = true;
+                    break;
+                }
+            }
+            if (isBreak) {
+                break;
+            }
+        }
+
+        if (idx < colNum) {
+            for (int i = idx; i < colNum; i++) {
+                cols.add(new Column(titles.get(i), DataType.STRING));
+            }
+        }
+
+        return cols;
+    }
+
+    /**
+     * Infer data type from sample values, empty and NaN values are ignored
+     */
+    private static DataType inferDataType(List<String> values) {
+        boolean isInt = true, isDouble = true, isBoolean = true;
+        int n = 0;
+        for (String s : values) {
+            if (s.isEmpty() || s.equalsIgnoreCase("nan")) {
+                continue;
+            }
+            n += 1;
+            if (isInt && !DataTypeUtil.isInteger(s)) {
+                isInt = false;
+            }
+            if (isDouble && !isInt && !DataTypeUtil.isDouble(s)) {
+                isDouble = false;
+            }
+            if (isBoolean && !s.equalsIgnoreCase("true") && !s.equalsIgnoreCase("false")) {
+                isBoolean = false;
+            }
+            if (!isInt && !isDouble && !isBoolean) {
+                break;
+            }
+        }
+        if (n == 0) {
+            return DataType.STRING;
+        } else if (isInt) {
+            return DataType.INT;
+        } else if (isDouble) {
+            return DataType.DOUBLE;
+        } else if (isBoolean) {
+            return DataType.BOOLEAN;
+        } else {
+            return DataType.STRING;
+        }
+    }
+
+    private static ColumnBuffer newBuffer(Column col, boolean promote) {
+        switch (col.getDataType()) {
+            case INT:
+                return new IntBuffer(promote);
+            case FLOAT:
+                return new FloatBuffer();
+            case DOUBLE:
+                return new DoubleBuffer();
+            case BOOLEAN:
+                return new BooleanBuffer();
+            default:
+                return new ObjectBuffer(col);
+        }
+    }
+    // </editor-fold>
+
+    /**
+     * Filter of rows applied before the fields are parsed
+     */
+    public interface RowFilter {
+
+        /**
+         * Test a row
+         *
+         * @param fields Field strings of the row in the file, including the
+         * index column and unused columns
+         * @return Keep the row or not
+         */
+        boolean accept(String[] fields);
+    }
+
+    /**
+     * Iterator of data frame chunks of the file
+     */
+    public class ChunkIterator implements Iterator<DataFrame>, Closeable {
+
+        private final int chunkSize;
+        private String charset;
+        private BufferedReader reader;
+        private LineSource source;
+        private ColumnIndex columns;
+        private boolean[] promote;
+        private int[] colFields;
+        private long dataStart = -1;
+        private int rowNum = 0;
+        private String nextLine;
+        private DataType indexType;
+        private DateTimeFormatter indexFormatter;
+        private String indexFormatStr;
+
+        ChunkIterator(int chunkSize) throws IOException {
+            this.chunkSize = chunkSize;
+            charset = encoding;
+            if (charset == null) {
+                charset = UniversalDetector.detectCharset(new File(fileName));
+                if (charset == null) {
+                    charset = "UTF-8";
+                }
+            }
+
+            reader = new BufferedReader(new InputStreamReader(Files.newInputStream(Paths.get(fileName)), charset), 1 << 16);
+            for (int i = 0; i < skipRows; i++) {
+                reader.readLine();
+            }
+
+            String title = reader.readLine();
+            if (title == null) {
+                close();
+                return;
+            }
+            title = title.trim();
+            if (title.startsWith("\uFEFF")) {
+                title = title.substring(1);
+            }
+
+            String[] titleArray1 = split(title, delimiter);
+            Set<Integer> usecols = null;
+            if (useCols != null) {
+                usecols = new HashSet<>();
+                List<String> titleArray2 = Arrays.asList(titleArray1);
+                for (Object o : useCols) {
+                    int idx = o instanceof Integer ? (Integer) o : titleArray2.indexOf((String) o);
+                    if (idx >= 0) {
+                        usecols.add(idx);
+                    }
+                }
+            }
+            List<String> titleArray = new ArrayList<>();
+            List<Integer> fields = new ArrayList<>();
+            for (int i = 0; i < titleArray1.length; i++) {
+                if (i != indexCol && (usecols == null || usecols.contains(i))) {
+                    titleArray.add(titleArray1[i]);
+                    fields.add(i);
+                }
+            }
+
+            if (titleArray.isEmpty()) {
+                Logger.getLogger(TableReader.class.getName()).warning("File format error, no column in " + fileName);
+                close();
+                return;
+            }
+
+            int colNum = titleArray.size();
+            colFields = new int[colNum];
+            for (int i = 0; i < colNum; i++) {
+                colFields[i] = fields.get(i);
+            }
+            if (header == null) {
+                for (int i = 0; i < colNum; i++) {
+                    titleArray.set(i, "Col_" + String.valueOf(i));
+                }
+            }
+
+            source = new LineSource(reader, skipFooter, header == null ? title : null);
+            columns = createColumns(formatSpec, titleArray);
+            promote = new boolean[colNum];
+            if (formatSpec == null && inferRows > 0) {
+                List<String> sample = new ArrayList<>();
+                String line;
+                while (sample.size() < inferRows && (line = source.next()) != null) {
+                    sample.add(line);
+                }
+                source.pending.addAll(sample);
+                for (int i = 0; i < colNum; i++) {
+                    List<String> values = new ArrayList<>();
+                    for (String s : sample) {
+                        String[] ss = split(s, delimiter);
+                        values.add(colFields[i] < ss.length ? ss[colFields[i]] : "");
+                    }
+                    DataType dt = inferDataType(values);
+                    Column col = columns.get(i);
+                    col.setDataType(dt);
+                    col.updateFormat();
+                    promote[i] = dt == DataType.INT;
+                }
+            }
+
+            if (isLineSplittable(charset)) {
+                dataStart = dataStart(fileName, skipRows + (header == null ? 0 : 1));
+            }
+            nextLine = source.next();
+        }
+
+        Chunk newChunk() {
+            return new Chunk(this);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextLine != null;
+        }
+
+        @Override
+        public DataFrame next() {
+            if (columns == null || (nextLine == null && rowNum > 0)) {
+                throw new NoSuchElementException();
+            }
+
+            try {
+                Chunk chunk = newChunk();
+                while (nextLine != null && chunk.rowNum < chunkSize) {
+                    chunk.parse(nextLine);
+                    nextLine = source.next();
+                }
+                DataFrame df = toDataFrame(new Chunk[]{chunk}, rowNum);
+                rowNum += chunk.rowNum;
+                if (nextLine == null) {
+                    close();
+                }
+                return df;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        DataFrame toDataFrame(Chunk[] chunks, int start) {
+            int colNum = columns.size();
+            int rn = 0;
+            for (Chunk chunk : chunks) {
+                rn += chunk.rowNum;
+            }
+
+            //Index
+            Index index;
+            if (indexCol >= 0) {
+                List<String> indexValues = new ArrayList<>(rn);
+                for (Chunk chunk : chunks) {
+                    indexValues.addAll(chunk.indexValues);
+                }
+                index = createIndex(indexValues);
+            } else {
+                List<Integer> indexData = new ArrayList<>(rn);
+                for (int i = 0; i < rn; i++) {
+                    indexData.add(start + i);
+                }
+                index = new IntIndex(indexData);
+            }
+
+            //Columns
+            ColumnIndex cols = new ColumnIndex();
+            List<Array> data = new ArrayList<>();
+            for (int i = 0; i < colNum; i++) {
+                Column col = columns.get(i);
+                DataType dt = col.getDataType();
+                for (Chunk chunk : chunks) {
+                    if (chunk.buffers[i].getDataType() == DataType.DOUBLE && dt == DataType.INT) {
+                        dt = DataType.DOUBLE;
+                    }
+                }
+                Array a;
+                if (chunks.length == 1 && chunks[0].buffers[i].getDataType() == dt) {
+                    a = chunks[0].buffers[i].toArray();
+                } else {
+                    a = Array.factory(dt, new int[]{rn});
+                    int k = 0;
+                    for (Chunk chunk : chunks) {
+                        k = chunk.buffers[i].copyTo(a, k);
+                    }
+                }
+                if (dt != col.getDataType()) {
+                    col = (Column) col.clone();
+                    col.setDataType(dt);
+                    col.updateFormat();
+                }
+                cols.add(col);
+                data.add(a);
+            }
+
+            DataFrame df;
+            if (cols.isSameDataType()) {
+                DataType dt = cols.get(0).getDataType();
+                Array a = Array.factory(dt, new int[]{rn, colNum});
+                for (int i = 0; i < colNum; i++) {
+                    Array ca = data.get(i);
+                    if (dt.isNumeric()) {
+                        for (int j = 0; j < rn; j++) {
+                            a.setDouble(j * colNum + i, ca.getDouble(j));
+                        }
+                    } else {
+                        for (int j = 0; j < rn; j++) {
+                            a.setObject(j * colNum + i, ca.getObject(j));
+                        }
+                    }
+                }
+                df = new DataFrame(a, index, cols);
+            } else {
+                df = new DataFrame(data, index, cols);
+            }
+            if (names != null) {
+                df.setColumns(names);
+            }
+
+            return df;
+        }
+
+        private Index createIndex(List<String> indexValues) {
+            if (indexType == null) {
+                indexFormatter = DateTimeFormatter.ISO_DATE_TIME;
+                indexFormatStr = indexFormat;
+                if (indexFormatStr != null) {
+                    if (indexFormatStr.substring(0, 1).equals("%")) {
+                        indexFormatStr = indexFormatStr.substring(1);
+                    }
+                    indexType = DataTypeUtil.getDataType(indexFormatStr);
+                    if (indexType == DataType.DATE) {
+                        indexFormatStr = DataTypeUtil.getDateFormat(indexFormatStr);
+                        indexFormatter = DateTimeFormatter.ofPattern(indexFormatStr);
+                    }
+                } else {
+                    indexType = DataTypeUtil.detectDataType(indexValues, 10, null);
+                    if (indexType == DataType.DATE) {
+                        indexFormatter = TypeUtils.getDateTimeFormatter(indexValues.get(0));
+                    }
+                }
+            }
+
+            Index index;
+            List indexData = new ArrayList<>(indexValues.size());
+            if (indexType == DataType.DATE) {
+                for (String s : indexValues) {
+                    indexData.add(JDateUtil.parseDateTime(s, indexFormatter));
+                }
+                index = new DateTimeIndex(indexData);
+                if (indexFormatStr != null) {
+                    index.setFormat(indexFormatStr);
+                } else {
+                    index.updateFormat();
+                }
+            } else {
+                for (String s : indexValues) {
+                    indexData.add(DataTypeUtil.convertFromString(s, indexType, null));
+                }
+                index = Index.factory(indexData);
+                index.updateFormat();
+            }
+            return index;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (reader != null) {
+                reader.close();
+                reader = null;
+            }
+        }
+    }
+
+    /**
+     * Parsed rows in column buffers
+     */
+    private class Chunk {
+
+        final ColumnBuffer[] buffers;
+        final int[] colFields;
+        final List<String> indexValues = new ArrayList<>();
+        int rowNum = 0;
+
+        Chunk(ChunkIterator iter) {
+            this.colFields = iter.colFields;
+            this.buffers = new ColumnBuffer[iter.columns.size()];
+            for (int i = 0; i < buffers.length; i++) {
+                buffers[i] = newBuffer(iter.columns.get(i), iter.promote[i]);
+            }
+        }
+
+        void parse(String line) {
+            String[] fields = split(line, delimiter);
+            if (rowFilter != null && !rowFilter.accept(fields)) {
+                return;
+            }
+
+            if (indexCol >= 0) {
+                indexValues.add(indexCol < fields.length ? fields[indexCol] : "");
+            }
+            for (int i = 0; i < buffers.length; i++) {
+                int f = colFields[i];
+                buffers[i] = buffers[i].add(f < fields.length ? fields[f] : "");
+            }
+            rowNum += 1;
+        }
+    }
+
+    /**
+     * Trimmed non-empty lines with the footer lines held back
+     */
+    private static class LineSource {
+
+        final BufferedReader reader;
+        final int skipFooter;
+        final ArrayDeque<String> delay = new ArrayDeque<>();
+        final ArrayDeque<String> pending = new ArrayDeque<>();
+        String first;
+        boolean stripBOM = false;
+
+        LineSource(BufferedReader reader, int skipFooter, String first) {
+            this.reader = reader;
+            this.skipFooter = skipFooter;
+            this.first = first;
+        }
+
+        String next() throws IOException {
+            if (!pending.isEmpty()) {
+                return pending.poll();
+            }
+            while (true) {
+                String line;
+                if (first != null) {
+                    line = first;
+                    first = null;
+                } else {
+                    line = reader.readLine();
+                    if (line == null) {
+                        return null;
+                    }
+                    if (stripBOM) {
+                        stripBOM = false;
+                        if (line.startsWith("\uFEFF")) {
+                            line = line.substring(1);
+                        }
+                    }
+                }
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                delay.add(line);
+                if (delay.size() > skipFooter) {
+                    return delay.poll();
+                }
+            }
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            len = Math.min(len, buffer.remaining());
+            buffer.get(b, off, len);
+            return len;
+        }
+    }
+
+    /**
+     * Growable primitive buffer of a column
+     */
+    private static abstract class ColumnBuffer {
+
+        int size = 0;
+
+        /**
+         * Add a value string
+         *
+         * @param s The value string
+         * @return The buffer with the value, may be a promoted buffer
+         */
+        abstract ColumnBuffer add(String s);
+
+        abstract DataType getDataType();
+
+        abstract Array toArray();
+
+        int copyTo(Array a, int start) {
+            Array b = toArray();
+            for (int i = 0; i < size; i++) {
+                a.setObject(start + i, b.getObject(i));
+            }
+            return start + size;
+        }
+
+        static int grow(int length) {
+            return Math.max(16, length + (length >> 1));
+        }
+    }
+
+    private static class DoubleBuffer extends ColumnBuffer {
+
+        double[] values = new double[16];
+
+        @Override
+        ColumnBuffer add(String s) {
+            double v;
+            if (s.isEmpty() || s.equalsIgnoreCase("nan")) {
+                v = Double.NaN;
+            } else {
+                try {
+                    v = Double.parseDouble(s);
+                } catch (NumberFormatException e) {
+                    v = Double.NaN;
+                }
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, grow(size));
+            }
+            values[size++] = v;
+            return this;
+        }
+
+        @Override
+        DataType getDataType() {
+            return DataType.DOUBLE;
+        }
+
+        @Override
+        Array toArray() {
+            return Array.factory(DataType.DOUBLE, new int[]{size}, Arrays.copyOf(values, size));
+        }
+
+        @Override
+        int copyTo(Array a, int start) {
+            for (int i = 0; i < size; i++) {
+                a.setDouble(start + i, values[i]);
+            }
+            return start + size;
+        }
+    }
+
+    private static class FloatBuffer extends ColumnBuffer {
+
+        float[] values = new float[16];
+
+        @Override
+        ColumnBuffer add(String s) {
+            float v;
+            if (s.isEmpty() || s.equalsIgnoreCase("nan")) {
+                v = Float.NaN;
+            } else {
+                try {
+                    v = Float.parseFloat(s);
+                } catch (NumberFormatException e) {
+                    v = Float.NaN;
+                }
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, grow(size));
+            }
+            values[size++] = v;
+            return this;
+        }
+
+        @Override
+        DataType getDataType() {
+            return DataType.FLOAT;
+        }
+
+        @Override
+        Array toArray() {
+            return Array.factory(DataType.FLOAT, new int[]{size}, Arrays.copyOf(values, size));
+        }
+
+        @Override
+        int copyTo(Array a, int start) {
+            for (int i = 0; i < size; i++) {
+                a.setFloat(start + i, values[i]);
+            }
+            return start + size;
+        }
+    }
+
+    private static class IntBuffer extends ColumnBuffer {
+
+        final boolean promote;
+        int[] values = new int[16];
+
+        IntBuffer(boolean promote) {
+            this.promote = promote;
+        }
+
+        @Override
+        ColumnBuffer add(String s) {
+            int v = Integer.MIN_VALUE;
+            if (!s.isEmpty()) {
+                try {
+                    v = Integer.parseInt(s);
+                } catch (NumberFormatException e) {
+                    if (promote && DataTypeUtil.isDouble(s)) {
+                        //Inferred integer column with decimal values
+                        DoubleBuffer b = new DoubleBuffer();
+                        b.values = new double[Math.max(16, values.length)];
+                        for (int i = 0; i < size; i++) {
+                            b.values[i] = values[i] == Integer.MIN_VALUE ? Double.NaN : values[i];
+                        }
+                        b.size = size;
+                        return b.add(s);
+                    }
+                }
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, grow(size));
+            }
+            values[size++] = v;
+            return this;
+        }
+
+        @Override
+        DataType getDataType() {
+            return DataType.INT;
+        }
+
+        @Override
+        Array toArray() {
+            return Array.factory(DataType.INT, new int[]{size}, Arrays.copyOf(values, size));
+        }
+
+        @Override
+        int copyTo(Array a, int start) {
+            if (a.getDataType() == DataType.INT) {
+                for (int i = 0; i < size; i++) {
+                    a.setInt(start + i, values[i]);
+                }
+            } else {
+                for (int i = 0; i < size; i++) {
+                    a.setDouble(start + i, values[i] == Integer.MIN_VALUE ? Double.NaN : values[i]);
+                }
+            }
+            return start + size;
+        }
+    }
+
+    private static class BooleanBuffer extends ColumnBuffer {
+
+        boolean[] values = new boolean[16];
+
+        @Override
+        ColumnBuffer add(String s) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, grow(size));
+            }
+            values[size++] = Boolean.parseBoolean(s);
+            return this;
+        }
+
+        @Override
+        DataType getDataType() {
+            return DataType.BOOLEAN;
+        }
+
+        @Override
+        Array toArray() {
+            return Array.factory(DataType.BOOLEAN, new int[]{size}, Arrays.copyOf(values, size));
+        }
+    }
+
+    private static class ObjectBuffer extends ColumnBuffer {
+
+        final Column column;
+        Object[] values = new Object[16];
+
+        ObjectBuffer(Column column) {
+            this.column = column;
+        }
+
+        @Override
+        ColumnBuffer add(String s) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, grow(size));
+            }
+            values[size++] = column.convertFromString(s);
+            return this;
+        }
+
+        @Override
+        DataType getDataType() {
+            return column.getDataType();
+        }
+
+        @Override
+        Array toArray() {
+            Array a = Array.factory(column.getDataType(), new int[]{size});
+            for (int i = 0; i < size; i++) {
+                a.setObject(i, values[i]);
+            }
+            return a;
+        }
+
+        @Override
+        int copyTo(Array a, int start) {
+            for (int i = 0; i < size; i++) {
+                a.setObject(start + i, values[i]);
+            }
+            return start + size;
+        }
+    }
+}
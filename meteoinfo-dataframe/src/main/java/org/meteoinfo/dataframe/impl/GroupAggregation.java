@@ -0,0 +1,157 @@
+package org.meteoinfo.dataframe.impl;
+
+import org.meteoinfo.ndarray.Array;
+import org.meteoinfo.ndarray.DataType;
+
+/**
+ * Aggregations of numeric arrays by dense group codes.
+ *
+ * <p>Each aggregation is computed in a single pass over the primitive values
+ * with per group accumulators, NaN values are skipped like the aggregate
+ * functions in {@link Aggregation}.
+ *
+ * @author Yaqiang Wang
+ */
+public class GroupAggregation {
+
+    private enum Statistic {
+        COUNT, SUM, MEAN, MIN, MAX, STD, VAR
+    }
+
+    private static Statistic getStatistic(Function<?, ?> function) {
+        if (function instanceof Aggregation.Count) {
+            return Statistic.COUNT;
+        } else if (function instanceof Aggregation.Sum) {
+            return Statistic.SUM;
+        } else if (function instanceof Aggregation.Mean) {
+            return Statistic.MEAN;
+        } else if (function instanceof Aggregation.Min) {
+            return Statistic.MIN;
+        } else if (function instanceof Aggregation.Max) {
+            return Statistic.MAX;
+        } else if (function instanceof Aggregation.StdDev) {
+            return Statistic.STD;
+        } else if (function instanceof Aggregation.Variance) {
+            return Statistic.VAR;
+        }
+        return null;
+    }
+
+    /**
+     * Check if a function is supported
+     *
+     * @param function The function
+     * @return Supported or not
+     */
+    public static boolean isSupported(Function<?, ?> function) {
+        return getStatistic(function) != null;
+    }
+
+    /**
+     * Check if an array can be aggregated
+     *
+     * @param a The array
+     * @return Boolean
+     */
+    public static boolean isSupported(Array a) {
+        DataType dt = a.getDataType();
+        return dt.isNumeric() && dt != DataType.COMPLEX;
+    }
+
+    /**
+     * Aggregate an array by groups
+     *
+     * @param function Aggregate function
+     * @param a Data array
+     * @param codes Group code of each element
+     * @param groupNum Group number
+     * @return Result array with the length of group number, null if the
+     * function or the array data type is not supported
+     */
+    public static Array apply(Function<?, ?> function, Array a, int[] codes, int groupNum) {
+        Statistic stat = getStatistic(function);
+        if (stat == null || !isSupported(a)) {
+            return null;
+        }
+
+        double[] values = (double[]) a.get1DJavaArray(double.class);
+        int[] count = new int[groupNum];
+        if (stat == Statistic.COUNT) {
+            for (int i = 0; i < values.length; i++) {
+                if (!Double.isNaN(values[i])) {
+                    count[codes[i]] += 1;
+                }
+            }
+            return Array.factory(DataType.INT, new int[]{groupNum}, count);
+        }
+
+        double[] r = new double[groupNum];
+        switch (stat) {
+            case SUM:
+            case MEAN:
+                for (int i = 0; i < values.length; i++) {
+                    double v = values[i];
+                    if (!Double.isNaN(v)) {
+                        r[codes[i]] += v;
+                        count[codes[i]] += 1;
+                    }
+                }
+                for (int g = 0; g < groupNum; g++) {
+                    if (count[g] == 0) {
+                        r[g] = Double.NaN;
+                    } else if (stat == Statistic.MEAN) {
+                        r[g] /= count[g];
+                    }
+                }
+                break;
+            case MIN:
+            case MAX:
+                boolean isMin = stat == Statistic.MIN;
+                for (int i = 0; i < values.length; i++) {
+                    double v = values[i];
+                    if (!Double.isNaN(v)) {
+                        int g = codes[i];
+                        if (count[g] == 0 || (isMin ? v < r[g] : v > r[g])) {
+                            r[g] = v;
+                        }
+                        count[g] += 1;
+                    }
+                }
+                for (int g = 0; g < groupNum; g++) {
+                    if (count[g] == 0) {
+                        r[g] = Double.NaN;
+                    }
+                }
+                break;
+            case STD:
+            case VAR:
+                //Welford's online algorithm with bias-corrected variance
+                double[] mean = new double[groupNum];
+                for (int i = 0; i < values.length; i++) {
+                    double v = values[i];
+                    if (!Double.isNaN(v)) {
+                        int g = codes[i];
+                        count[g] += 1;
+                        double d = v - mean[g];
+                        mean[g] += d / count[g];
+                        r[g] += d * (v - mean[g]);
+                    }
+                }
+                for (int g = 0; g < groupNum; g++) {
+                    if (count[g] == 0) {
+                        r[g] = Double.NaN;
+                    } else if (count[g] == 1) {
+                        r[g] = 0;
+                    } else {
+                        r[g] /= count[g] - 1;
+                        if (stat == Statistic.STD) {
+                            r[g] = Math.sqrt(r[g]);
+                        }
+                    }
+                }
+                break;
+        }
+
+        return Array.factory(DataType.DOUBLE, new int[]{groupNum}, r);
+    }
+}
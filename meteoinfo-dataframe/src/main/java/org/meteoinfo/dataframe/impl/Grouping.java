@@ -18,18 +18,24 @@
 package org.meteoinfo.dataframe.impl;
 
 import org.meteoinfo.dataframe.DataFrame;
+import org.meteoinfo.dataframe.Index;
 import org.meteoinfo.dataframe.Series;
 import org.meteoinfo.dataframe.impl.Transforms.CumulativeFunction;
 import org.meteoinfo.ndarray.math.ArrayUtil;
 import org.meteoinfo.ndarray.Array;
+import org.meteoinfo.ndarray.InvalidRangeException;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.IntStream;
 
 public class Grouping
         implements Iterable<Map.Entry<Object, SparseBitSet>> {
 
-    private final Map<Object, SparseBitSet> groups = new LinkedHashMap<>();
+    private Map<Object, SparseBitSet> groups = null;
+    private final List<Object> keys = new ArrayList<>();
+    private final Map<Object, Integer> keyCodes = new HashMap<>();
+    private int[] codes = new int[0];
     private final Set<Integer> columns = new LinkedHashSet<>();
 
     public Grouping() {
@@ -37,66 +43,40 @@ public class Grouping
 
     public <V> Grouping(final Series series, final KeyFunction<V> function) {
         final Iterator<List<V>> iter = series.iterator();
+        codes = new int[series.size()];
         for (int r = 0; iter.hasNext(); r++) {
             final List<V> row = iter.next();
-            final Object key = function.apply(row);
-            SparseBitSet group = groups.get(key);
-            if (group == null) {
-                group = new SparseBitSet();
-                groups.put(key, group);
-            }
-            group.set(r);
+            codes[r] = code(function.apply(row));
         }
     }
     
     public <V> Grouping(final Series series, final TimeFunction<LocalDateTime, String> function) {
         final Iterator iter = series.getIndex().iterator();
+        codes = new int[series.getIndex().size()];
         for (int r = 0; iter.hasNext(); r++) {
             final Object row = iter.next();
-            final String key = function.apply((LocalDateTime)row);
-            SparseBitSet group = groups.get(key);
-            if (group == null) {
-                group = new SparseBitSet();
-                groups.put(key, group);
-            }
-            group.set(r);
+            codes[r] = code(function.apply((LocalDateTime)row));
         }
     }
 
     public <V> Grouping(final Series series) {
-        this(series, new KeyFunction<V>() {
-            @Override
-            public Object apply(final List<V> value) {
-                return value.get(0);
-            }
-        });
+        final Array data = series.getData();
+        codes = new int[(int) data.getSize()];
+        for (int r = 0; r < codes.length; r++) {
+            codes[r] = code(data.getObject(r));
+        }
     }
 
     public <V> Grouping(final Series series, final WindowFunction function) {
-        final Iterator iter = series.getIndex().iterator();
-        for (int r = 0; iter.hasNext(); r++) {
-            final LocalDateTime row = (LocalDateTime) iter.next();
-            final Object key = function.apply(row);
-            SparseBitSet group = groups.get(key);
-            if (group == null) {
-                group = new SparseBitSet();
-                groups.put(key, group);
-            }
-            group.set(r);
-        }
+        this.codeWindows(series.getIndex(), function);
     }
 
     public <V> Grouping(final DataFrame df, final KeyFunction<V> function, final Integer... columns) {
         final Iterator<List<V>> iter = df.iterator();
+        codes = new int[df.length()];
         for (int r = 0; iter.hasNext(); r++) {
             final List<V> row = iter.next();
-            final Object key = function.apply(row);
-            SparseBitSet group = groups.get(key);
-            if (group == null) {
-                group = new SparseBitSet();
-                groups.put(key, group);
-            }
-            group.set(r);
+            codes[r] = code(function.apply(row));
         }
 
         for (final int column : columns) {
@@ -105,43 +85,111 @@ public class Grouping
     }
 
     public <V> Grouping(final DataFrame df, final Integer... columns) {
-        this(
-                df,
-                columns.length == 1
-                        ? new KeyFunction<V>() {
-                    @Override
-                    public Object apply(final List<V> value) {
-                        return value.get(columns[0]);
-                    }
-
+        final Array[] data = new Array[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            try {
+                data[i] = df.getColumnData(columns[i]);
+            } catch (InvalidRangeException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+        codes = new int[df.length()];
+        for (int r = 0; r < codes.length; r++) {
+            final Object key;
+            if (data.length == 1) {
+                key = data[0].getObject(r);
+            } else {
+                final List<Object> values = new ArrayList<>(data.length);
+                for (final Array a : data) {
+                    values.add(a.getObject(r));
                 }
-                        : new KeyFunction<V>() {
-                    @Override
-                    public Object apply(final List<V> value) {
-                        final List<Object> key = new ArrayList<>(columns.length);
-                        for (final int column : columns) {
-                            key.add(value.get(column));
-                        }
-                        return Collections.unmodifiableList(key);
-                    }
-                },
-                columns
-        );
+                key = Collections.unmodifiableList(values);
+            }
+            codes[r] = code(key);
+        }
+
+        for (final int column : columns) {
+            this.columns.add(column);
+        }
     }
 
     public <V> Grouping(final DataFrame df, final WindowFunction function) {
-        final Iterator iter = df.getIndex().iterator();
+        this.codeWindows(df.getIndex(), function);
+    }
+
+    private int code(final Object key) {
+        Integer c = keyCodes.get(key);
+        if (c == null) {
+            c = keys.size();
+            keyCodes.put(key, c);
+            keys.add(key);
+        }
+        return c;
+    }
+
+    /**
+     * Set group codes of date time index by the windows. The window of the
+     * previous row is reused while the rows are in it, so the window function
+     * is only applied once for each window of sorted date times.
+     */
+    private void codeWindows(final Index index, final WindowFunction function) {
+        final Iterator iter = index.iterator();
+        codes = new int[index.size()];
+        LocalDateTime start = null, end = null;
+        int c = -1;
         for (int r = 0; iter.hasNext(); r++) {
             final LocalDateTime row = (LocalDateTime) iter.next();
-            final Object key = function.apply(row);
-            SparseBitSet group = groups.get(key);
-            if (group == null) {
-                group = new SparseBitSet();
-                group = new SparseBitSet();
-                groups.put(key, group);
+            if (start == null || row.isBefore(start) || !row.isBefore(end)) {
+                final Object key = function.apply(row);
+                c = code(key);
+                start = (LocalDateTime) key;
+                end = function.getWindowEnd(start);
+            }
+            codes[r] = c;
+        }
+    }
+
+    private Map<Object, SparseBitSet> groups() {
+        if (groups == null) {
+            final SparseBitSet[] sets = new SparseBitSet[keys.size()];
+            for (int i = 0; i < sets.length; i++) {
+                sets[i] = new SparseBitSet();
+            }
+            for (int r = 0; r < codes.length; r++) {
+                sets[codes[r]].set(r);
             }
-            group.set(r);
+            final Map<Object, SparseBitSet> map = new LinkedHashMap<>();
+            for (int i = 0; i < sets.length; i++) {
+                map.put(keys.get(i), sets[i]);
+            }
+            groups = map;
         }
+        return groups;
+    }
+
+    /**
+     * Get group number
+     * @return Group number
+     */
+    public int groupNumber() {
+        return this.keys.size();
+    }
+
+    /**
+     * Get the group code of each row, the codes are the positions of the keys
+     * in the order they first appear
+     * @return Group codes
+     */
+    public int[] getCodes() {
+        return this.codes;
+    }
+
+    /**
+     * Get the group keys in the order of the group codes
+     * @return Group keys
+     */
+    public List<Object> getKeys() {
+        return this.keys;
     }
 
     /**
@@ -150,7 +198,7 @@ public class Grouping
      * @return A group
      */
     public SparseBitSet getGroup(Object key) {
-        return this.groups.get(key);
+        return groups().get(key);
     }
 
     @SuppressWarnings("unchecked")
@@ -163,15 +211,13 @@ public class Grouping
         final List<Object> index = new ArrayList<>();
 
         // construct new row index
-        if (function instanceof Aggregate && !groups.isEmpty()) {
-            for (final Object key : groups.keySet()) {
-                index.add(key);
-            }
+        if (function instanceof Aggregate && !keys.isEmpty()) {
+            index.addAll(keys);
         }
 
         // add aggregated data column
         final List<V> column = new ArrayList<>();
-        if (groups.isEmpty()) {
+        if (keys.isEmpty()) {
             try {
                 if (function instanceof Aggregate) {
                     column.add((V) Aggregate.class.cast(function).apply(series.getData()));
@@ -186,8 +232,11 @@ public class Grouping
             if (function instanceof CumulativeFunction) {
                 CumulativeFunction.class.cast(function).reset();
             }
+        } else if (GroupAggregation.isSupported(function) && GroupAggregation.isSupported(series.getData())) {
+            Array grouped = GroupAggregation.apply(function, series.getData(), codes, keys.size());
+            return new Series(grouped, index, name);
         } else {
-            for (final Map.Entry<Object, SparseBitSet> entry : groups.entrySet()) {
+            for (final Map.Entry<Object, SparseBitSet> entry : groups().entrySet()) {
                 final SparseBitSet rows = entry.getValue();
                 try {
                     if (function instanceof Aggregate) {
@@ -230,10 +279,8 @@ public class Grouping
         final List<Object> index = new ArrayList<>();
 
         // construct new row index
-        if (function instanceof Aggregate && !groups.isEmpty()) {
-            for (final Object key : groups.keySet()) {
-                index.add(key);
-            }
+        if (function instanceof Aggregate && !keys.isEmpty()) {
+            index.addAll(keys);
         }
         
 //        // add key columns
@@ -257,11 +304,28 @@ public class Grouping
 //            }
 //        }
         
+        // aggregate numeric columns by the group codes
+        final Array[] aggregated = new Array[df.size()];
+        if (!keys.isEmpty() && GroupAggregation.isSupported(function)) {
+            IntStream.range(0, df.size()).parallel().forEach(c -> {
+                if (!columns.contains(c)) {
+                    try {
+                        aggregated[c] = GroupAggregation.apply(function, df.getColumnData(c), codes, keys.size());
+                    } catch (InvalidRangeException e) {
+                        throw new IllegalArgumentException(e);
+                    }
+                }
+            });
+        }
+
         // add aggregated data columns
         for (int c = 0; c < df.size(); c++) {
-            if (!columns.contains(c)) {
+            if (aggregated[c] != null) {
+                grouped.add(aggregated[c]);
+                newcols.add(names.get(c));
+            } else if (!columns.contains(c)) {
                 final List<V> column = new ArrayList<>();
-                if (groups.isEmpty()) {
+                if (keys.isEmpty()) {
                     try {
                         if (function instanceof Aggregate) {
                             column.add((V) Aggregate.class.cast(function).apply(df.col(c)));
@@ -277,7 +341,7 @@ public class Grouping
                         CumulativeFunction.class.cast(function).reset();
                     }
                 } else {
-                    for (final Map.Entry<Object, SparseBitSet> entry : groups.entrySet()) {
+                    for (final Map.Entry<Object, SparseBitSet> entry : groups().entrySet()) {
                         final SparseBitSet rows = entry.getValue();
                         try {
                             if (function instanceof Aggregate) {
@@ -322,7 +386,7 @@ public class Grouping
     }
 
     public Set<Object> keys() {
-        return groups.keySet();
+        return groups().keySet();
     }
 
     public Set<Integer> columns() {
@@ -331,6 +395,6 @@ public class Grouping
 
     @Override
     public Iterator<Map.Entry<Object, SparseBitSet>> iterator() {
-        return groups.entrySet().iterator();
+        return groups().entrySet().iterator();
     }
 }
@@ -73,5 +73,39 @@ public class WindowFunction implements Function<LocalDateTime, Object>{
         
         return ndt;
     }
+
+    /**
+     * Get the end time of the window of a key, all the date times from the key
+     * to the end time (exclusive) have the same key
+     * @param key The key returned by apply function
+     * @return End time of the window, same with the key if unknown
+     */
+    public LocalDateTime getWindowEnd(LocalDateTime key) {
+        LocalDateTime end;
+        ChronoUnit cu = JDateUtil.getChronoUnit(this.period);
+        switch (cu) {
+            case SECONDS:
+                end = key.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+                break;
+            case MINUTES:
+                end = key.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+                break;
+            case HOURS:
+                end = key.truncatedTo(ChronoUnit.DAYS).plusDays(1);
+                break;
+            case DAYS:
+                end = LocalDateTime.of(key.getYear(), key.getMonthValue(), 1, 0, 0, 0).plusMonths(1);
+                break;
+            case MONTHS:
+            case YEARS:
+                end = LocalDateTime.of(key.getYear() + 1, 1, 1, 0, 0, 0);
+                break;
+            default:
+                return key;
+        }
+
+        LocalDateTime next = key.plus(period);
+        return next.isBefore(end) ? next : end;
+    }
     
 }
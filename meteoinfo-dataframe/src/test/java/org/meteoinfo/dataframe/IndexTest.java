@@ -0,0 +1,156 @@
+package org.meteoinfo.dataframe;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndexTest {
+
+    private static List<Integer> indexAll(List<?> data, Object v) {
+        List<Integer> r = new ArrayList<>();
+        for (int i = 0; i < data.size(); i++) {
+            if (data.get(i).equals(v)) {
+                r.add(i);
+            }
+        }
+        return r;
+    }
+
+    private static void checkLookup(Index index, Object[] values) {
+        List data = new ArrayList<>(index.getData());
+        for (Object v : values) {
+            assertEquals(data.indexOf(v), index.indexOf(v), String.valueOf(v));
+            assertEquals(indexAll(data, v), index.indexAll(v), String.valueOf(v));
+        }
+    }
+
+    private static List<String> strings(int n, int distinct) {
+        List<String> r = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            r.add("s" + (i * 7 % distinct));
+        }
+        return r;
+    }
+
+    @Test
+    public void testSmallAndLarge() {
+        for (int n : new int[]{5, 31, 32, 100}) {
+            Index index = Index.factory(strings(n, 13));
+            checkLookup(index, new Object[]{"s0", "s5", "s12", "s13", "x"});
+        }
+    }
+
+    @Test
+    public void testIndexMethods() {
+        Index<String> index = Index.factory(strings(100, 13));
+        index.add("x");
+        assertEquals(100, index.indexOf("x"));
+        index.add(0, "y");
+        assertEquals(0, index.indexOf("y"));
+        assertEquals(101, index.indexOf("x"));
+        index.set(5, "z");
+        assertTrue(index.contains("z"));
+        checkLookup(index, new Object[]{"s0", "s3", "x", "y", "z"});
+        index.setData(strings(50, 3));
+        assertFalse(index.contains("x"));
+        checkLookup(index, new Object[]{"s0", "s1", "s2", "x"});
+    }
+
+    @Test
+    public void testDataChangedInPlace() {
+        Index<String> index = Index.factory(strings(100, 13));
+        assertEquals(-1, index.indexOf("x"));
+        int n = index.size();
+
+        //Same size changes
+        index.getData().set(10, "x");
+        assertEquals(n, index.size());
+        assertEquals(10, index.indexOf("x"));
+        index.getValues().set(10, "s0");
+        assertEquals(-1, index.indexOf("x"));
+        Collections.reverse(index.getData());
+        checkLookup(index, new Object[]{"s0", "s6", "s12"});
+        Collections.sort(index.getData());
+        checkLookup(index, new Object[]{"s0", "s6", "s12"});
+
+        //Size changes
+        index.getData().add("x");
+        assertEquals(n, index.indexOf("x"));
+        index.getData().remove(0);
+        assertEquals(n - 1, index.indexOf("x"));
+        Iterator it = index.iterator();
+        it.next();
+        it.remove();
+        assertEquals(n - 2, index.indexOf("x"));
+        checkLookup(index, new Object[]{"s0", "s6", "s12", "x"});
+        index.getData().subList(0, 10).clear();
+        checkLookup(index, new Object[]{"s0", "s6", "s12", "x"});
+    }
+
+    @Test
+    public void testAppend() {
+        Index a = Index.factory(strings(40, 5));
+        Index b = Index.factory(Arrays.asList("x", "s1"));
+        Index r = a.append(b);
+        assertEquals(42, r.size());
+        assertEquals(40, r.indexOf("x"));
+        checkLookup(r, new Object[]{"s0", "s1", "x"});
+        assertEquals(-1, a.indexOf("x"));
+    }
+
+    @Test
+    public void testDateTimeIndex() {
+        LocalDateTime t0 = LocalDateTime.of(2020, 1, 1, 0, 0);
+        List<LocalDateTime> times = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            times.add(t0.plusHours(i / 2));
+        }
+        DateTimeIndex index = new DateTimeIndex(times);
+        assertTrue(index.isMonotonic());
+        Object[] values = new Object[]{t0, t0.plusHours(10), t0.plusHours(49), t0.plusHours(50),
+                t0.minusHours(1), "x"};
+        checkLookup(index, values);
+        assertEquals(20, index.indexOf(t0.plusHours(10)));
+
+        //Breaks the order with the same size
+        index.getData().set(0, t0.plusHours(30));
+        assertFalse(index.isMonotonic());
+        checkLookup(index, values);
+        assertEquals(0, index.indexOf(t0.plusHours(30)));
+        assertEquals(Arrays.asList(0, 60, 61), index.indexAll(t0.plusHours(30)));
+
+        //Restores the order
+        index.getData().set(0, t0);
+        assertTrue(index.isMonotonic());
+        checkLookup(index, values);
+
+        //Unsorted
+        Collections.shuffle(index.getData(), new java.util.Random(1));
+        assertFalse(index.isMonotonic());
+        checkLookup(index, values);
+        Collections.sort(index.getData());
+        assertTrue(index.isMonotonic());
+        checkLookup(index, values);
+    }
+
+    @Test
+    public void testDateTimeIndexSmall() {
+        LocalDateTime t0 = LocalDateTime.of(2020, 1, 1, 0, 0);
+        List<LocalDateTime> times = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            times.add(t0.plusDays(i % 4));
+        }
+        DateTimeIndex index = new DateTimeIndex(times);
+        assertFalse(index.isMonotonic());
+        checkLookup(index, new Object[]{t0, t0.plusDays(3), t0.plusDays(4)});
+        index.add(t0.plusDays(4));
+        assertEquals(10, index.indexOf(t0.plusDays(4)));
+    }
+}
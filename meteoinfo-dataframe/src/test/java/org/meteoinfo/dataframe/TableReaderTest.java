@@ -0,0 +1,232 @@
+package org.meteoinfo.dataframe;
+
+import org.junit.jupiter.api.Test;
+import org.meteoinfo.common.util.GlobalUtil;
+import org.meteoinfo.ndarray.Array;
+import org.meteoinfo.ndarray.DataType;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TableReaderTest {
+
+    private static File writeFile(List<String> lines) throws IOException {
+        File file = File.createTempFile("table", ".csv");
+        file.deleteOnExit();
+        Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static TableReader newReader(File file) {
+        TableReader reader = new TableReader(file.getAbsolutePath());
+        reader.setDelimiter(",");
+        reader.setEncoding("UTF-8");
+        return reader;
+    }
+
+    private static List<String> randomLines(int n) {
+        Random random = new Random(1);
+        List<String> lines = new ArrayList<>();
+        lines.add("id,x,name,flag");
+        for (int i = 0; i < n; i++) {
+            String x = random.nextInt(10) == 0 ? "" : String.valueOf(random.nextInt(1000) / 10.0);
+            lines.add(i + "," + x + ",s" + random.nextInt(50) + "," + random.nextBoolean());
+        }
+        return lines;
+    }
+
+    private static void assertFrameEquals(DataFrame expected, DataFrame actual) {
+        assertEquals(expected.length(), actual.length());
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getIndex().getData(), actual.getIndex().getData());
+        for (int c = 0; c < expected.size(); c++) {
+            Column ec = expected.getColumns().get(c);
+            Column ac = actual.getColumns().get(c);
+            assertEquals(ec.getName(), ac.getName());
+            assertEquals(ec.getDataType(), ac.getDataType(), ec.getName());
+            for (int r = 0; r < expected.length(); r++) {
+                assertEquals(expected.getValue(r, c), actual.getValue(r, c), ec.getName() + " row " + r);
+            }
+        }
+    }
+
+    @Test
+    public void testSplit() {
+        String[] lines = new String[]{"a,b,c", "a, b ,c", "a,,c", "a,b,", "a, ,", "a,b, ,", ",a", ",,,"};
+        for (String line : lines) {
+            String[] e = GlobalUtil.split(line, ",");
+            if (e.length == 1 && e[0] == null) {
+                e = new String[]{""};
+            }
+            assertArrayEquals(e, TableReader.split(line, ","), line);
+        }
+        lines = new String[]{"a b c", "a\tb  c", " a b", "a b\t", "", "a b"};
+        for (String line : lines) {
+            assertArrayEquals(GlobalUtil.split(line, null), TableReader.split(line, null), line);
+            assertArrayEquals(GlobalUtil.split(line, " "), TableReader.split(line, " "), line);
+        }
+        assertArrayEquals(GlobalUtil.split("a;b;;", ";"), TableReader.split("a;b;;", ";"));
+        assertArrayEquals(GlobalUtil.split("a|b|c", "\\|"), TableReader.split("a|b|c", "\\|"));
+    }
+
+    @Test
+    public void testInferTypes() throws IOException {
+        List<String> lines = new ArrayList<>(Arrays.asList(
+                "i,d,b,s,p,e",
+                "1,1.5,true,x,1,",
+                "2,NaN,false,y,2,",
+                "3,2,TRUE,3,3,"));
+        for (int i = 0; i < 20; i++) {
+            lines.add(i + ",0.5,false,z,4,");
+        }
+        lines.add("5,0.5,false,z,4.5,");
+        File file = writeFile(lines);
+
+        TableReader reader = newReader(file);
+        reader.setInferRows(3);
+        DataFrame df = reader.read();
+        assertEquals(6, df.size());
+        assertEquals(24, df.length());
+        assertEquals(DataType.INT, df.getColumns().get(0).getDataType());
+        assertEquals(DataType.DOUBLE, df.getColumns().get(1).getDataType());
+        assertEquals(DataType.BOOLEAN, df.getColumns().get(2).getDataType());
+        assertEquals(DataType.STRING, df.getColumns().get(3).getDataType());
+        //Inferred int column promoted to double by a later decimal value
+        assertEquals(DataType.DOUBLE, df.getColumns().get(4).getDataType());
+        assertEquals(DataType.STRING, df.getColumns().get(5).getDataType());
+        assertEquals(3, df.getValue(2, 0));
+        assertTrue(Double.isNaN((Double) df.getValue(1, 1)));
+        assertEquals(true, df.getValue(2, 2));
+        assertEquals("3", df.getValue(2, 3));
+        assertEquals(2.0, df.getValue(1, 4));
+        assertEquals(4.5, df.getValue(23, 4));
+
+        //Not inferred
+        df = newReader(file).read();
+        for (int c = 0; c < df.size(); c++) {
+            assertEquals(DataType.STRING, df.getColumns().get(c).getDataType());
+        }
+        assertEquals("1.5", df.getValue(0, 1));
+
+        //Format specifiers string
+        reader = newReader(file);
+        reader.setFormatSpec("%i%f%B%s%d%s");
+        df = reader.read();
+        assertEquals(DataType.FLOAT, df.getColumns().get(1).getDataType());
+        assertEquals(1.5f, df.getValue(0, 1));
+        assertEquals(4.5, df.getValue(23, 4));
+    }
+
+    @Test
+    public void testChunks() throws IOException {
+        File file = writeFile(randomLines(10));
+        TableReader reader = newReader(file);
+        reader.setInferRows(5);
+        DataFrame all = reader.read();
+
+        reader = newReader(file);
+        reader.setInferRows(5);
+        List<Integer> sizes = new ArrayList<>();
+        int row = 0;
+        try (TableReader.ChunkIterator iter = reader.iterator(3)) {
+            while (iter.hasNext()) {
+                DataFrame df = iter.next();
+                sizes.add(df.length());
+                for (int r = 0; r < df.length(); r++, row++) {
+                    assertEquals(row, df.getIndex().get(r));
+                    for (int c = 0; c < df.size(); c++) {
+                        assertEquals(all.getValue(row, c), df.getValue(r, c));
+                    }
+                }
+            }
+        }
+        assertEquals(Arrays.asList(3, 3, 3, 1), sizes);
+        assertThrows(IllegalArgumentException.class, () -> newReader(file).iterator(0));
+    }
+
+    @Test
+    public void testRowFilterAndUseCols() throws IOException {
+        File file = writeFile(randomLines(50));
+        TableReader reader = newReader(file);
+        reader.setUseCols(Arrays.asList("name", 0));
+        reader.setRowFilter(fields -> fields[3].equals("true"));
+        DataFrame df = reader.read();
+        DataFrame all = newReader(file).read();
+        assertEquals(2, df.size());
+        assertEquals("id", df.getColumns().get(0).getName());
+        assertEquals("name", df.getColumns().get(1).getName());
+        int r = 0;
+        for (int i = 0; i < all.length(); i++) {
+            if (all.getValue(i, 3).equals("true")) {
+                assertEquals(all.getValue(i, 0), df.getValue(r, 0));
+                assertEquals(all.getValue(i, 2), df.getValue(r, 1));
+                r += 1;
+            }
+        }
+        assertEquals(r, df.length());
+    }
+
+    @Test
+    public void testParallel() throws IOException {
+        File file = writeFile(randomLines(2000));
+        for (int skipFooter : new int[]{0, 3}) {
+            TableReader reader = newReader(file);
+            reader.setInferRows(100);
+            reader.setSkipFooter(skipFooter);
+            DataFrame expected = reader.read();
+
+            reader = newReader(file);
+            reader.setInferRows(100);
+            reader.setSkipFooter(skipFooter);
+            reader.setParallel(true);
+            reader.setSplitSize(256);
+            DataFrame actual = reader.read();
+            assertEquals(2000 - skipFooter, actual.length());
+            assertFrameEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testSaveCSV() throws IOException {
+        Array a = Array.factory(DataType.INT, new int[]{4}, new int[]{1, 2, 3, 4});
+        Array b = Array.factory(DataType.DOUBLE, new int[]{4}, new double[]{0.5, Double.NaN, -2.25, 10});
+        Array c = Array.factory(DataType.STRING, new int[]{4});
+        c.setObject(0, "x");
+        c.setObject(2, "z");
+        c.setObject(3, "w");
+        DataFrame df = new DataFrame(new ArrayList<>(Arrays.asList(a, b, c)), Arrays.asList(0, 1, 2, 3),
+                Arrays.asList("a", "b", "c"));
+        File file = File.createTempFile("table", ".csv");
+        file.deleteOnExit();
+
+        df.saveCSV(file.getAbsolutePath(), ",", null, null, "%.2f", false);
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(Arrays.asList("a,b,c", "1,0.50,x", "2,NaN,", "3,-2.25,z", "4,10.00,w"), lines);
+
+        df.saveCSV(file.getAbsolutePath(), ",", "%i%.1f%s", null, null, true);
+        lines = Files.readAllLines(file.toPath());
+        assertEquals("Index,a,b,c", lines.get(0));
+        assertEquals("2,3,-2.3,z", lines.get(3));
+
+        //Read back
+        df.saveCSV(file.getAbsolutePath(), ",", null, null, null, false);
+        TableReader reader = newReader(file);
+        reader.setInferRows(4);
+        DataFrame r = reader.read();
+        assertEquals(DataType.INT, r.getColumns().get(0).getDataType());
+        assertEquals(DataType.DOUBLE, r.getColumns().get(1).getDataType());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(df.getValue(i, 0), r.getValue(i, 0));
+            assertEquals(df.getValue(i, 1), r.getValue(i, 1));
+        }
+        assertEquals("z", r.getValue(2, 2));
+    }
+}
@@ -0,0 +1,136 @@
+package org.meteoinfo.dataframe.impl;
+
+import org.junit.jupiter.api.Test;
+import org.meteoinfo.dataframe.DataFrame;
+import org.meteoinfo.dataframe.Series;
+import org.meteoinfo.ndarray.Array;
+import org.meteoinfo.ndarray.DataType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GroupAggregationTest {
+
+    private static List<Function<?, ?>> functions() {
+        return Arrays.asList(new Aggregation.Count<>(), new Aggregation.Sum<>(), new Aggregation.Mean<>(),
+                new Aggregation.Min<>(), new Aggregation.Max<>(), new Aggregation.StdDev<>(),
+                new Aggregation.Variance<>());
+    }
+
+    /**
+     * Aggregate the values of each group by the aggregate function
+     */
+    private static double[] expected(Function<?, ?> function, Array a, int[] codes, int groupNum) {
+        double[] r = new double[groupNum];
+        for (int g = 0; g < groupNum; g++) {
+            List<Object> values = new ArrayList<>();
+            for (int i = 0; i < codes.length; i++) {
+                if (codes[i] == g) {
+                    values.add(a.getObject(i));
+                }
+            }
+            r[g] = ((Number) ((Aggregate) function).apply(values)).doubleValue();
+        }
+        return r;
+    }
+
+    private static void checkParity(Array a, int[] codes, int groupNum) {
+        for (Function<?, ?> function : functions()) {
+            assertTrue(GroupAggregation.isSupported(function));
+            Array r = GroupAggregation.apply(function, a, codes, groupNum);
+            assertEquals(groupNum, r.getSize());
+            double[] e = expected(function, a, codes, groupNum);
+            for (int g = 0; g < groupNum; g++) {
+                String msg = function.getClass().getSimpleName() + " group " + g;
+                if (Double.isNaN(e[g])) {
+                    assertTrue(Double.isNaN(r.getDouble(g)), msg);
+                } else {
+                    assertEquals(e[g], r.getDouble(g), 1e-9 * Math.max(1, Math.abs(e[g])), msg);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDouble() {
+        Random random = new Random(1);
+        int n = 1000, groupNum = 7;
+        double[] values = new double[n];
+        int[] codes = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = random.nextGaussian() * 100 + 1e4;
+            codes[i] = random.nextInt(groupNum);
+        }
+        checkParity(Array.factory(DataType.DOUBLE, new int[]{n}, values), codes, groupNum);
+    }
+
+    @Test
+    public void testNaN() {
+        double[] values = new double[]{1, Double.NaN, 3, Double.NaN, 5, 6, Double.NaN, 2};
+        int[] codes = new int[]{0, 0, 1, 2, 1, 1, 3, 0};
+        //Group 2 and 3 only have NaN values
+        checkParity(Array.factory(DataType.DOUBLE, new int[]{values.length}, values), codes, 4);
+        Array r = GroupAggregation.apply(new Aggregation.Count<>(), Array.factory(DataType.DOUBLE,
+                new int[]{values.length}, values), codes, 4);
+        assertArrayEquals(new int[]{2, 3, 0, 0}, (int[]) r.get1DJavaArray(int.class));
+    }
+
+    @Test
+    public void testEmptyGroups() {
+        int[] values = new int[]{4, 8, 15, 16, 23, 42};
+        int[] codes = new int[]{0, 2, 0, 2, 4, 0};
+        //Group 1 and 3 have no values, group 4 has a single value
+        checkParity(Array.factory(DataType.INT, new int[]{values.length}, values), codes, 5);
+        Array r = GroupAggregation.apply(new Aggregation.Mean<>(), Array.factory(DataType.INT,
+                new int[]{values.length}, values), codes, 5);
+        assertEquals(DataType.DOUBLE, r.getDataType());
+        assertTrue(Double.isNaN(r.getDouble(1)));
+    }
+
+    @Test
+    public void testVariance() {
+        double[] values = new double[]{2, 4, 4, 4, 5, 5, 7, 9, 3};
+        int[] codes = new int[]{0, 0, 0, 0, 0, 0, 0, 0, 1};
+        Array a = Array.factory(DataType.DOUBLE, new int[]{values.length}, values);
+        //Bias-corrected variance with n - 1 denominator, 0 for a single value
+        Array r = GroupAggregation.apply(new Aggregation.Variance<>(), a, codes, 2);
+        assertEquals(32.0 / 7, r.getDouble(0), 1e-12);
+        assertEquals(0, r.getDouble(1));
+        r = GroupAggregation.apply(new Aggregation.StdDev<>(), a, codes, 2);
+        assertEquals(Math.sqrt(32.0 / 7), r.getDouble(0), 1e-12);
+        checkParity(a, codes, 2);
+    }
+
+    @Test
+    public void testUnsupported() {
+        assertFalse(GroupAggregation.isSupported(new Aggregation.Median<>()));
+        assertNull(GroupAggregation.apply(new Aggregation.Median<>(),
+                Array.factory(DataType.DOUBLE, new int[]{1}), new int[]{0}, 1));
+        Array s = Array.factory(DataType.STRING, new int[]{1});
+        assertFalse(GroupAggregation.isSupported(s));
+        assertNull(GroupAggregation.apply(new Aggregation.Sum<>(), s, new int[]{0}, 1));
+    }
+
+    @Test
+    public void testGroupingApply() {
+        Array key = Array.factory(DataType.INT, new int[]{6}, new int[]{3, 1, 3, 2, 1, 3});
+        Array value = Array.factory(DataType.DOUBLE, new int[]{6}, new double[]{1, 2, 3, 4, Double.NaN, 5});
+        List<Array> data = new ArrayList<>(Arrays.asList(key, value));
+        DataFrame df = new DataFrame(data, Arrays.asList(0, 1, 2, 3, 4, 5), Arrays.asList("key", "value"));
+        Grouping grouping = new Grouping(df, 0);
+        DataFrame r = grouping.apply(df, new Aggregation.Mean<>());
+        assertEquals(Arrays.asList(3, 1, 2), r.getIndex().getData());
+        assertEquals(3.0, ((Number) r.getValue(0, 0)).doubleValue(), 1e-12);
+        assertEquals(2.0, ((Number) r.getValue(1, 0)).doubleValue(), 1e-12);
+        assertEquals(4.0, ((Number) r.getValue(2, 0)).doubleValue(), 1e-12);
+
+        Series series = new Series(key, Arrays.asList(0, 1, 2, 3, 4, 5), "key");
+        Series sr = new Grouping(series).apply(series, new Aggregation.Count<>());
+        assertEquals(Arrays.asList(3, 1, 2), sr.getIndex().getData());
+        assertArrayEquals(new int[]{3, 2, 1}, (int[]) sr.getData().get1DJavaArray(int.class));
+    }
+}
@@ -12,6 +12,7 @@ import org.meteoinfo.common.Extent;
 import org.meteoinfo.common.Extent3D;
 import org.meteoinfo.common.PointD;
 import org.meteoinfo.geo.layer.VectorLayer;
+import org.meteoinfo.geometry.geoprocess.PolygonMask;
 import org.meteoinfo.geometry.shape.*;
 import org.meteoinfo.ndarray.Array;
 import org.meteoinfo.ndarray.DataType;
@@ -35,6 +36,9 @@ public class GeometryUtil {
      * @return extent
      */
     public static Extent getPointsExtent(List<? extends PointD> PList) {
+        if (PList instanceof PackedPointList) {
+            return ((PackedPointList) PList).getExtent();
+        }
         if (PList.get(0) instanceof PointZ){
             Extent3D cET = new Extent3D();
             for (int i = 0; i < PList.size(); i++) {
@@ -309,33 +313,9 @@ public class GeometryUtil {
      */
     public static Array inPolygon(Array a, List<Number> x, List<Number> y, List<PolygonShape> polygons) {
         if (a.getRank() == 2) {
-            int xNum = x.size();
-            int yNum = y.size();
-
-            Array r = Array.factory(DataType.INT, a.getShape());
-            for (int i = 0; i < yNum; i++) {
-                for (int j = 0; j < xNum; j++) {
-                    if (GeoComputation.pointInPolygons(polygons, new PointD(x.get(j).doubleValue(), y.get(i).doubleValue()))) {
-                        r.setInt(i * xNum + j, 1);
-                    } else {
-                        r.setInt(i * xNum + j, -1);
-                    }
-                }
-            }
-
-            return r;
+            return PolygonMask.of(x, y, polygons).getMask();
         } else if (a.getRank() == 1) {
-            int n = x.size();
-            Array r = Array.factory(DataType.INT, a.getShape());
-            for (int i = 0; i < n; i++) {
-                if (GeoComputation.pointInPolygons(polygons, new PointD(x.get(i).doubleValue(), y.get(i).doubleValue()))) {
-                    r.setInt(i, 1);
-                } else {
-                    r.setInt(i, -1);
-                }
-            }
-
-            return r;
+            return PolygonMask.ofPoints(x, y, polygons).getMask();
         }
 
         return null;
@@ -350,20 +330,7 @@ public class GeometryUtil {
      * @return Result boolean array
      */
     public static Array inPolygon(Array x, Array y, List<PolygonShape> polygons) {
-        Array r = Array.factory(DataType.BOOLEAN, x.getShape());
-        IndexIterator xIter = x.getIndexIterator();
-        IndexIterator yIter = y.getIndexIterator();
-        IndexIterator rIter = r.getIndexIterator();
-        while (rIter.hasNext()){
-            if (GeoComputation.pointInPolygons(polygons, new PointD(xIter.getDoubleNext(),
-                    yIter.getDoubleNext()))) {
-                rIter.setBooleanNext(true);
-            } else {
-                rIter.setBooleanNext(false);
-            }
-        }
-
-        return r;
+        return PolygonMask.ofPoints(x, y, polygons).getInside();
     }
 
     /**
@@ -455,22 +422,7 @@ public class GeometryUtil {
      * @return Result array with cell values of missing outside polygons
      */
     public static Array maskout(Array a, Array x, Array y, List<PolygonShape> polygons) {
-        Array r = Array.factory(a.getDataType(), a.getShape());
-        IndexIterator aIter = a.getIndexIterator();
-        IndexIterator xIter = x.getIndexIterator();
-        IndexIterator yIter = y.getIndexIterator();
-        int i = 0;
-        while (aIter.hasNext()){
-            if (GeoComputation.pointInPolygons(polygons, new PointD(xIter.getDoubleNext(),
-                    yIter.getDoubleNext()))) {
-                r.setObject(i, aIter.getObjectNext());
-            } else {
-                r.setObject(i, Double.NaN);
-                aIter.next();
-            }
-            i++;
-        }
-        return r;
+        return PolygonMask.ofPoints(x, y, polygons).maskout(a, Double.NaN);
     }
 
     /**
@@ -483,22 +435,7 @@ public class GeometryUtil {
      * @return Result array with cell values of missing inside polygons
      */
     public static Array maskin(Array a, Array x, Array y, List<PolygonShape> polygons) {
-        Array r = Array.factory(a.getDataType(), a.getShape());
-        IndexIterator aIter = a.getIndexIterator();
-        IndexIterator xIter = x.getIndexIterator();
-        IndexIterator yIter = y.getIndexIterator();
-        int i = 0;
-        while(aIter.hasNext()) {
-            if (GeoComputation.pointInPolygons(polygons, new PointD(xIter.getDoubleNext(),
-                    yIter.getDoubleNext()))) {
-                r.setObject(i, Double.NaN);
-                aIter.next();
-            } else {
-                r.setObject(i, aIter.getObjectNext());
-            }
-            i++;
-        }
-        return r;
+        return PolygonMask.ofPoints(x, y, polygons).maskin(a, Double.NaN);
     }
 
     /**
@@ -511,37 +448,7 @@ public class GeometryUtil {
      * @return Result arrays removing cells outside polygons
      */
     public static Array[] maskout_Remove(Array a, Array x, Array y, List<PolygonShape> polygons) {
-        List<Object> rdata = new ArrayList<>();
-        List<Double> rxdata = new ArrayList<>();
-        List<Double> rydata = new ArrayList<>();
-        IndexIterator aIter = a.getIndexIterator();
-        IndexIterator xIter = x.getIndexIterator();
-        IndexIterator yIter = y.getIndexIterator();
-        double va, vx, vy;
-        while(aIter.hasNext()) {
-            va = aIter.getDoubleNext();
-            vx = xIter.getDoubleNext();
-            vy = yIter.getDoubleNext();
-            if (GeoComputation.pointInPolygons(polygons, new PointD(vx, vy))) {
-                rdata.add(va);
-                rxdata.add(vx);
-                rydata.add(vy);
-            }
-        }
-
-        int n = rdata.size();
-        int[] shape = new int[1];
-        shape[0] = n;
-        Array r = Array.factory(a.getDataType(), shape);
-        Array rx = Array.factory(x.getDataType(), shape);
-        Array ry = Array.factory(y.getDataType(), shape);
-        for (int i = 0; i < n; i++) {
-            r.setObject(i, rdata.get(i));
-            rx.setDouble(i, rxdata.get(i));
-            ry.setDouble(i, rydata.get(i));
-        }
-
-        return new Array[]{r, rx, ry};
+        return PolygonMask.ofPoints(x, y, polygons).remove(a, x, y, false);
     }
 
     /**
@@ -554,37 +461,7 @@ public class GeometryUtil {
      * @return Result arrays removing cells inside polygons
      */
     public static Array[] maskin_Remove(Array a, Array x, Array y, List<PolygonShape> polygons) {
-        List<Object> rdata = new ArrayList<>();
-        List<Double> rxdata = new ArrayList<>();
-        List<Double> rydata = new ArrayList<>();
-        IndexIterator aIter = a.getIndexIterator();
-        IndexIterator xIter = x.getIndexIterator();
-        IndexIterator yIter = y.getIndexIterator();
-        double va, vx, vy;
-        while(aIter.hasNext()) {
-            va = aIter.getDoubleNext();
-            vx = xIter.getDoubleNext();
-            vy = yIter.getDoubleNext();
-            if (!GeoComputation.pointInPolygons(polygons, new PointD(vx, vy))) {
-                rdata.add(va);
-                rxdata.add(vx);
-                rydata.add(vy);
-            }
-        }
-
-        int n = rdata.size();
-        int[] shape = new int[1];
-        shape[0] = n;
-        Array r = Array.factory(a.getDataType(), shape);
-        Array rx = Array.factory(x.getDataType(), shape);
-        Array ry = Array.factory(y.getDataType(), shape);
-        for (int i = 0; i < n; i++) {
-            r.setObject(i, rdata.get(i));
-            rx.setDouble(i, rxdata.get(i));
-            ry.setDouble(i, rydata.get(i));
-        }
-
-        return new Array[]{r, rx, ry};
+        return PolygonMask.ofPoints(x, y, polygons).remove(a, x, y, true);
     }
 
     /**
@@ -611,38 +488,11 @@ public class GeometryUtil {
      * @return Result array with cell values of missing outside polygons
      */
     public static Array maskout(Array a, List<Number> x, List<Number> y, List<PolygonShape> polygons, Number missingValue) {
-        int xNum = x.size();
-        int yNum = y.size();
-
-        Array r = Array.factory(a.getDataType(), a.getShape());
-        IndexIterator iter = a.getIndexIterator();
         if (a.getRank() == 1) {
-            int i = 0;
-            while (iter.hasNext()) {
-                if (GeoComputation.pointInPolygons(polygons, new PointD(x.get(i).doubleValue(), y.get(i).doubleValue()))) {
-                    r.setObject(i, iter.getObjectNext());
-                } else {
-                    r.setObject(i, missingValue);
-                    iter.next();
-                }
-                i++;
-            }
-        } else if (a.getRank() == 2) {
-            int idx;
-            for (int i = 0; i < yNum; i++) {
-                for (int j = 0; j < xNum; j++) {
-                    idx = i * xNum + j;
-                    if (GeoComputation.pointInPolygons(polygons, new PointD(x.get(j).doubleValue(), y.get(i).doubleValue()))) {
-                        r.setObject(idx, iter.getObjectNext());
-                    } else {
-                        r.setObject(idx, missingValue);
-                        iter.next();
-                    }
-                }
-            }
+            return PolygonMask.ofPoints(x, y, polygons).maskout(a, missingValue);
+        } else {
+            return PolygonMask.of(x, y, polygons).maskout(a, missingValue);
         }
-
-        return r;
     }
 
     /**
@@ -654,23 +504,7 @@ public class GeometryUtil {
      * @return Result array
      */
     public static Array maskout(Array a, Array m, Number missingValue) {
-        Array r = Array.factory(a.getDataType(), a.getShape());
-        IndexIterator aIter = a.getIndexIterator();
-        IndexIterator mIter = m.getIndexIterator();
-        double va, vm;
-        int i = 0;
-        while (aIter.hasNext()){
-            va = aIter.getDoubleNext();
-            vm = mIter.getDoubleNext();
-            if (vm < 0) {
-                r.setObject(i, missingValue);
-            } else {
-                r.setObject(i, va);
-            }
-            i++;
-        }
-
-        return r;
+        return ArrayMath.maskout(a, m, missingValue);
     }
 
     /**
@@ -692,23 +526,7 @@ public class GeometryUtil {
      * @return Result array
      */
     public static Array maskin(Array a, Array m) {
-        Array r = Array.factory(a.getDataType(), a.getShape());
-        IndexIterator aIter = a.getIndexIterator();
-        IndexIterator mIter = m.getIndexIterator();
-        double va, vm;
-        int i = 0;
-        while(aIter.hasNext()) {
-            va = aIter.getDoubleNext();
-            vm = mIter.getDoubleNext();
-            if (vm < 0) {
-                r.setObject(i, va);
-            } else {
-                r.setObject(i, Double.NaN);
-            }
-            i++;
-        }
-
-        return r;
+        return ArrayMath.maskin(a, m);
     }
     
     /**
@@ -0,0 +1,456 @@
+package org.meteoinfo.geo.io;
+
+import com.itextpdf.awt.PdfGraphics2D;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.pdf.PdfContentByte;
+import com.itextpdf.text.pdf.PdfTemplate;
+import com.itextpdf.text.pdf.PdfWriter;
+import org.apache.commons.imaging.ImageFormats;
+import org.freehep.graphics2d.VectorGraphics;
+import org.freehep.graphicsio.emf.EMFGraphics2D;
+import org.freehep.graphicsio.ps.PSGraphics2D;
+import org.meteoinfo.chart.Chart;
+import org.meteoinfo.geo.layout.MapLayout;
+import org.meteoinfo.image.ImageUtil;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless batch exporter of figures (charts and map layouts) on a worker
+ * thread pool.
+ *
+ * <p>Each job builds its own figure in the worker thread with the figure
+ * builder and draws it to a new image or vector graphics, so the figure
+ * objects (chart, plots, map layout and map views) should not be shared
+ * between jobs. Map layers should not be shared either: adding a layer to a
+ * map view sets its handle and projects a vector layer in place when the map
+ * view has another projection. A job should add its own layer or a clone of
+ * a loaded layer. Legend schemes and data arrays can be shared if they are
+ * not modified while the jobs are running. The system property
+ * java.awt.headless should be set to true when there is no display.
+ *
+ * @author Yaqiang Wang
+ */
+public class FigureExporter implements Closeable {
+
+    // <editor-fold desc="Variables">
+    private final ExecutorService service;
+    private final Metrics metrics = new Metrics();
+    // </editor-fold>
+    // <editor-fold desc="Constructor">
+
+    /**
+     * Constructor with a thread number of available processors
+     */
+    public FigureExporter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param threadNum Worker thread number
+     */
+    public FigureExporter(int threadNum) {
+        if (threadNum <= 0) {
+            throw new IllegalArgumentException("Thread number must be greater than 0: " + threadNum);
+        }
+        this.service = Executors.newFixedThreadPool(threadNum, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "figure-export-" + count.getAndIncrement());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+    // </editor-fold>
+    // <editor-fold desc="Get Set Methods">
+
+    /**
+     * Get throughput metrics
+     *
+     * @return Metrics
+     */
+    public Metrics getMetrics() {
+        return this.metrics;
+    }
+    // </editor-fold>
+    // <editor-fold desc="Methods">
+
+    /**
+     * Create a figure of a chart
+     *
+     * @param chart The chart
+     * @param width Width
+     * @param height Height
+     * @return Figure
+     */
+    public static Figure of(final Chart chart, final int width, final int height) {
+        return new Figure() {
+            @Override
+            public int getWidth() {
+                return width;
+            }
+
+            @Override
+            public int getHeight() {
+                return height;
+            }
+
+            @Override
+            public void draw(Graphics2D g) {
+                chart.draw(g, new Rectangle2D.Double(0, 0, width, height));
+            }
+        };
+    }
+
+    /**
+     * Create a figure of a map layout with the page size
+     *
+     * @param layout The map layout
+     * @return Figure
+     */
+    public static Figure of(final MapLayout layout) {
+        final Rectangle bounds = layout.getPageBounds();
+        return new Figure() {
+            @Override
+            public int getWidth() {
+                return bounds.width;
+            }
+
+            @Override
+            public int getHeight() {
+                return bounds.height;
+            }
+
+            @Override
+            public void draw(Graphics2D g) {
+                layout.paintGraphics(g);
+            }
+        };
+    }
+
+    /**
+     * Submit a job to render a figure to an image
+     *
+     * @param builder Figure builder, called in the worker thread
+     * @param dpi DPI, null for 72
+     * @return Future of the image
+     */
+    public Future<BufferedImage> submit(final Callable<? extends Figure> builder, final Integer dpi) {
+        return service.submit(new Callable<BufferedImage>() {
+            @Override
+            public BufferedImage call() throws Exception {
+                try {
+                    long t0 = System.nanoTime();
+                    Figure figure = builder.call();
+                    long t1 = System.nanoTime();
+                    BufferedImage image = render(figure, dpi, BufferedImage.TYPE_INT_ARGB);
+                    long t2 = System.nanoTime();
+                    metrics.add(t1 - t0, t2 - t1);
+                    return image;
+                } catch (Exception e) {
+                    metrics.failed.incrementAndGet();
+                    throw e;
+                }
+            }
+        });
+    }
+
+    /**
+     * Submit a job to export a figure to a picture file
+     *
+     * @param builder Figure builder, called in the worker thread
+     * @param fileName File name, the format is decided by the extension
+     * @param dpi DPI of raster image, null for 72
+     * @return Future of the file
+     */
+    public Future<File> submit(final Callable<? extends Figure> builder, final String fileName, final Integer dpi) {
+        return service.submit(new Callable<File>() {
+            @Override
+            public File call() throws Exception {
+                try {
+                    long t0 = System.nanoTime();
+                    Figure figure = builder.call();
+                    long t1 = System.nanoTime();
+                    long[] times = export(figure, fileName, dpi);
+                    metrics.add(t1 - t0, times[0], times[1]);
+                    return new File(fileName);
+                } catch (Exception e) {
+                    metrics.failed.incrementAndGet();
+                    throw e;
+                }
+            }
+        });
+    }
+
+    /**
+     * Render a figure to an image
+     *
+     * @param figure The figure
+     * @param dpi DPI, null for 72
+     * @param imageType Image type
+     * @return The image
+     */
+    public static BufferedImage render(Figure figure, Integer dpi, int imageType) {
+        double scaleFactor = dpi == null ? 1 : dpi / 72.0;
+        BufferedImage image = new BufferedImage((int) (figure.getWidth() * scaleFactor),
+                (int) (figure.getHeight() * scaleFactor), imageType);
+        Graphics2D g = image.createGraphics();
+        if (dpi != null) {
+            AffineTransform at = g.getTransform();
+            at.scale(scaleFactor, scaleFactor);
+            g.setTransform(at);
+        }
+        figure.draw(g);
+        g.dispose();
+
+        return image;
+    }
+
+    /**
+     * Export a figure to a picture file
+     *
+     * @param figure The figure
+     * @param fileName File name, the format is decided by the extension
+     * @param dpi DPI of raster image, null for 72
+     * @return Drawing and writing times in nanoseconds
+     * @throws IOException
+     */
+    public static long[] export(Figure figure, String fileName, Integer dpi) throws IOException {
+        int width = figure.getWidth();
+        int height = figure.getHeight();
+        long t0 = System.nanoTime();
+        long t1;
+        if (fileName.endsWith(".pdf")) {
+            try (OutputStream out = new FileOutputStream(fileName)) {
+                Document document = new Document(new com.itextpdf.text.Rectangle(width, height));
+                PdfWriter writer = PdfWriter.getInstance(document, out);
+                document.open();
+                PdfContentByte cb = writer.getDirectContent();
+                PdfTemplate pdfTemp = cb.createTemplate(width, height);
+                Graphics2D g = new PdfGraphics2D(pdfTemp, width, height, true);
+                figure.draw(g);
+                g.dispose();
+                t1 = System.nanoTime();
+                cb.addTemplate(pdfTemp, 0, 0);
+                document.close();
+            } catch (DocumentException e) {
+                throw new IOException(e);
+            }
+        } else if (fileName.endsWith(".eps") || fileName.endsWith(".emf")) {
+            VectorGraphics g;
+            if (fileName.endsWith(".eps")) {
+                g = new PSGraphics2D(new File(fileName), new Dimension(width, height));
+            } else {
+                g = new EMFGraphics2D(new File(fileName), new Dimension(width, height));
+            }
+            g.startExport();
+            figure.draw(g);
+            t1 = System.nanoTime();
+            g.endExport();
+            g.dispose();
+        } else {
+            ImageFormats imageFormat = ImageUtil.getImageFormat(fileName);
+            int imageType = imageFormat == ImageFormats.JPEG ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+            BufferedImage image = render(figure, dpi, imageType);
+            t1 = System.nanoTime();
+            if (dpi == null) {
+                ImageUtil.imageSave(image, fileName);
+            } else {
+                ImageUtil.imageSave(image, fileName, dpi);
+            }
+        }
+        long t2 = System.nanoTime();
+
+        return new long[]{t1 - t0, t2 - t1};
+    }
+
+    /**
+     * Shutdown the exporter after the submitted jobs are finished
+     */
+    public void shutdown() {
+        service.shutdown();
+    }
+
+    /**
+     * Wait for the submitted jobs to finish after shutdown
+     *
+     * @param timeout Timeout
+     * @param unit Time unit
+     * @return True if the jobs are finished, false if timeout
+     * @throws InterruptedException
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return service.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * Shutdown the exporter and wait for the submitted jobs to finish
+     */
+    @Override
+    public void close() {
+        service.shutdown();
+        try {
+            service.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    // </editor-fold>
+
+    /**
+     * Figure to be exported
+     */
+    public interface Figure {
+
+        /**
+         * Get width
+         *
+         * @return Width
+         */
+        int getWidth();
+
+        /**
+         * Get height
+         *
+         * @return Height
+         */
+        int getHeight();
+
+        /**
+         * Draw the figure
+         *
+         * @param g Graphics2D
+         */
+        void draw(Graphics2D g);
+    }
+
+    /**
+     * Throughput metrics of the exporter
+     */
+    public static class Metrics {
+
+        private final long startTime = System.nanoTime();
+        private final AtomicInteger finished = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger written = new AtomicInteger();
+        private final AtomicLong buildTime = new AtomicLong();
+        private final AtomicLong drawTime = new AtomicLong();
+        private final AtomicLong writeTime = new AtomicLong();
+
+        void add(long build, long draw) {
+            buildTime.addAndGet(build);
+            drawTime.addAndGet(draw);
+            finished.incrementAndGet();
+        }
+
+        void add(long build, long draw, long write) {
+            writeTime.addAndGet(write);
+            written.incrementAndGet();
+            add(build, draw);
+        }
+
+        /**
+         * Get finished figure number
+         *
+         * @return Finished figure number
+         */
+        public int getFinishedNumber() {
+            return finished.get();
+        }
+
+        /**
+         * Get failed figure number
+         *
+         * @return Failed figure number
+         */
+        public int getFailedNumber() {
+            return failed.get();
+        }
+
+        /**
+         * Get number of finished figures written to files
+         *
+         * @return Written figure number
+         */
+        public int getWrittenNumber() {
+            return written.get();
+        }
+
+        /**
+         * Get finished figures per second since the exporter was created
+         *
+         * @return Figures per second
+         */
+        public double getFiguresPerSecond() {
+            double seconds = (System.nanoTime() - startTime) * 1e-9;
+            return seconds > 0 ? finished.get() / seconds : 0;
+        }
+
+        /**
+         * Get mean figure building time in milliseconds
+         *
+         * @return Mean building time
+         */
+        public double getMeanBuildTime() {
+            return mean(buildTime);
+        }
+
+        /**
+         * Get mean figure drawing time in milliseconds
+         *
+         * @return Mean drawing time
+         */
+        public double getMeanDrawTime() {
+            return mean(drawTime);
+        }
+
+        /**
+         * Get mean file writing time in milliseconds of the figures written
+         * to files
+         *
+         * @return Mean writing time
+         */
+        public double getMeanWriteTime() {
+            return mean(writeTime, written.get());
+        }
+
+        private double mean(AtomicLong time) {
+            return mean(time, finished.get());
+        }
+
+        private static double mean(AtomicLong time, int n) {
+            return n == 0 ? 0 : time.get() * 1e-6 / n;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Finished: %d, failed: %d, figures/s: %.2f, build: %.1f ms, draw: %.1f ms, write: %.1f ms",
+                    getFinishedNumber(), getFailedNumber(), getFiguresPerSecond(), getMeanBuildTime(),
+                    getMeanDrawTime(), getMeanWriteTime());
+        }
+    }
+}
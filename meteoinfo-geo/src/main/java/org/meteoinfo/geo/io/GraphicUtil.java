@@ -39,9 +39,7 @@ public class GraphicUtil {
         } else {
             for (Shape shape : layer.getShapes()) {
                 if (shape.getLegendIndex() >= 0) {
-                    for (PointD p : shape.getPoints()) {
-                        p.X += xShift;
-                    }
+                    shape.shiftPoints(xShift, 0);
                     shape.updateExtent();
                     cb = ls.getLegendBreak(shape.getLegendIndex());
                     graphics.add(new Graphic(shape, cb));
@@ -16,8 +16,11 @@ package org.meteoinfo.geo.layer;
 import org.meteoinfo.common.*;
 import org.meteoinfo.chart.graphic.GeoGraphicCollection;
 import org.meteoinfo.geo.mapdata.ShapeFileManage;
+import org.meteoinfo.geo.mapdata.ShapeFileReader;
 import org.meteoinfo.geometry.legend.*;
 import org.meteoinfo.geometry.geoprocess.GeoComputation;
+import org.meteoinfo.geometry.geoprocess.GeometryUtil;
+import org.meteoinfo.geometry.geoprocess.PackedRTree;
 import org.meteoinfo.common.colors.ColorUtil;
 import org.meteoinfo.geometry.shape.*;
 import org.meteoinfo.projection.ProjectionInfo;
@@ -34,7 +37,10 @@ import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.JFileChooser;
@@ -92,6 +98,16 @@ public class VectorLayer extends MapLayer {
     private boolean editing = false;
     private Shape editingShape;
     private final UndoManager undoManager = new UndoManager();
+    private PackedRTree spatialIndex = null;
+    //Simplified shape coordinates of recent tolerance bands
+    private static final int MAX_SIMPLIFY_BANDS = 4;
+    private final Map<Integer, Map<Integer, SimplifiedShape>> simplifiedShapes = new LinkedHashMap<Integer, Map<Integer, SimplifiedShape>>(
+            MAX_SIMPLIFY_BANDS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Map<Integer, SimplifiedShape>> eldest) {
+            return size() > MAX_SIMPLIFY_BANDS;
+        }
+    };
     // </editor-fold>
 
     // <editor-fold desc="Constructor">
@@ -170,6 +186,59 @@ public class VectorLayer extends MapLayer {
      */
     public void setShapes(List<? extends Shape> shapes) {
         this.shapes = (List<Shape>) shapes;
+        this.spatialIndex = null;
+        this.clearSimplifiedShapes();
+    }
+
+    /**
+     * Get spatial index of the shape extents. The index is built when it is
+     * first used after the shapes are changed. No index is used when the layer
+     * is editing, since the shape extents may be changed.
+     *
+     * @return Spatial index, null if the layer is editing
+     */
+    public PackedRTree getSpatialIndex() {
+        if (editing) {
+            return null;
+        }
+        PackedRTree index = this.spatialIndex;
+        if (index == null || index.size() != shapes.size()) {
+            if (shapes instanceof ShapeFileReader.ShapeList) {
+                //Build from record bounding boxes without decoding the shapes
+                index = new PackedRTree(((ShapeFileReader.ShapeList) shapes).getReader().getRecordBounds());
+            } else {
+                index = new PackedRTree(shapes);
+            }
+            this.spatialIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Clear spatial index and simplified shape coordinates, it should be
+     * called after the shapes are changed
+     */
+    public void clearSpatialIndex() {
+        this.spatialIndex = null;
+        this.clearSimplifiedShapes();
+    }
+
+    /**
+     * Get the indexes of the shapes whose extents intersect an extent
+     *
+     * @param extent The extent
+     * @return Ascending shape indexes
+     */
+    public int[] queryShapes(Extent extent) {
+        PackedRTree index = this.getSpatialIndex();
+        if (index == null) {
+            int[] r = new int[shapes.size()];
+            for (int i = 0; i < r.length; i++) {
+                r[i] = i;
+            }
+            return r;
+        }
+        return index.query(extent);
     }
 
     /**
@@ -401,6 +470,90 @@ public class VectorLayer extends MapLayer {
         return editing;
     }
 
+    /**
+     * Get simplified coordinates of a polygon or polyline shape for drawing.
+     * The tolerance is rounded down to a power of 2 band, and the simplified
+     * coordinates are cached for each band so they can be reused when the map
+     * is panned or zoomed within the band. The cache entry is updated when the
+     * points or the extent of the shape are changed.
+     *
+     * @param shapeIdx Shape index
+     * @param tolerance Distance tolerance in map units
+     * @return Interleaved x, y coordinate arrays of the rings (polygon outline
+     * and holes) of each polygon or polyline, null if the shape is not
+     * simplified
+     */
+    public double[][][] getSimplifiedCoordinates(int shapeIdx, double tolerance) {
+        if (editing || !(tolerance > 0) || Double.isInfinite(tolerance)) {
+            return null;
+        }
+
+        Shape shape = shapes.get(shapeIdx);
+        if (!(shape instanceof PolygonShape || shape instanceof PolylineShape)) {
+            return null;
+        }
+
+        int band = Math.getExponent(tolerance);
+        Map<Integer, SimplifiedShape> bandShapes;
+        synchronized (simplifiedShapes) {
+            bandShapes = simplifiedShapes.get(band);
+            if (bandShapes == null) {
+                bandShapes = new ConcurrentHashMap<>();
+                simplifiedShapes.put(band, bandShapes);
+            }
+        }
+        //Lazy loaded shapes are not editable, but may be decoded again with new point lists
+        List<? extends PointD> points = shapes instanceof ShapeFileReader.ShapeList ? null : shape.getPoints();
+        SimplifiedShape ss = bandShapes.get(shapeIdx);
+        if (ss == null || ss.points != points || !ss.isSameExtent(shape.getExtent())) {
+            ss = new SimplifiedShape(points, (Extent) shape.getExtent().clone(),
+                    simplify(shape, Math.scalb(1.0, band)));
+            bandShapes.put(shapeIdx, ss);
+        }
+        return ss.coordinates;
+    }
+
+    private static double[][][] simplify(Shape shape, double tolerance) {
+        int n = 0;
+        double[][][] r;
+        if (shape instanceof PolygonShape) {
+            List<? extends Polygon> polygons = ((PolygonShape) shape).getPolygons();
+            r = new double[polygons.size()][][];
+            for (int i = 0; i < r.length; i++) {
+                Polygon polygon = polygons.get(i);
+                r[i] = new double[polygon.getHoleLineNumber() + 1][];
+                r[i][0] = GeometryUtil.simplify(polygon.getOutLine(), tolerance, true);
+                n += r[i][0].length / 2;
+                for (int j = 0; j < polygon.getHoleLineNumber(); j++) {
+                    r[i][j + 1] = GeometryUtil.simplify(polygon.getHoleLines().get(j), tolerance, true);
+                    n += r[i][j + 1].length / 2;
+                }
+            }
+        } else {
+            List<? extends Polyline> polylines = ((PolylineShape) shape).getPolylines();
+            r = new double[polylines.size()][1][];
+            for (int i = 0; i < r.length; i++) {
+                r[i][0] = GeometryUtil.simplify(polylines.get(i).getPointList(), tolerance, false);
+                n += r[i][0].length / 2;
+            }
+        }
+
+        //Not worth to keep the coordinates if less than half points are removed
+        if (n * 2 > shape.getPointNum()) {
+            return null;
+        }
+        return r;
+    }
+
+    /**
+     * Clear simplified shape coordinates
+     */
+    public void clearSimplifiedShapes() {
+        synchronized (simplifiedShapes) {
+            simplifiedShapes.clear();
+        }
+    }
+
     /**
      * Set if is editing
      *
@@ -408,6 +561,8 @@ public class VectorLayer extends MapLayer {
      */
     public void setEditing(boolean value) {
         editing = value;
+        this.spatialIndex = null;
+        this.clearSimplifiedShapes();
     }
 
     /**
@@ -635,6 +790,8 @@ public class VectorLayer extends MapLayer {
     public void addShape(Shape aShape) {
         shapes.add(aShape);
         updateLayerExtent(aShape);
+        this.spatialIndex = null;
+        this.clearSimplifiedShapes();
     }
 
     /**
@@ -644,7 +801,8 @@ public class VectorLayer extends MapLayer {
      * @return Result shape
      */
     public Shape findShape_contains(Shape other) {
-        for (Shape s : this.shapes) {
+        for (int i : this.queryShapes(other.getExtent())) {
+            Shape s = this.shapes.get(i);
             if (s.contains(other)) {
                 return s;
             }
@@ -660,7 +818,8 @@ public class VectorLayer extends MapLayer {
      * @return Result shape
      */
     public Shape findShape_crosses(Shape other) {
-        for (Shape s : this.shapes) {
+        for (int i : this.queryShapes(other.getExtent())) {
+            Shape s = this.shapes.get(i);
             if (s.crosses(other)) {
                 return s;
             }
@@ -728,8 +887,17 @@ public class VectorLayer extends MapLayer {
      */
     public List<Integer> selectShapes(Extent aExtent, List<Shape> shapes, boolean isSingleSel) {
         List<Integer> selectedShapes = new ArrayList<>();
-        int i, j;
+        int i, j, k;
         PointD sp = aExtent.getCenterPoint();
+        int[] idxs;
+        if (shapes == this.shapes) {
+            idxs = this.queryShapes(aExtent);
+        } else {
+            idxs = new int[shapes.size()];
+            for (i = 0; i < idxs.length; i++) {
+                idxs[i] = i;
+            }
+        }
 
         switch (this.getShapeType()) {
             case POINT:
@@ -739,10 +907,11 @@ public class VectorLayer extends MapLayer {
             case WIND_BARB:
             case WEATHER_SYMBOL:
             case STATION_MODEL:
-                for (i = 0; i < shapes.size(); i++) {
+                for (k = 0; k < idxs.length; k++) {
+                    i = idxs[k];
                     PointShape aPS = (PointShape) shapes.get(i);
                     if (MIMath.pointInExtent(aPS.getPoint(), aExtent)) {
-                        selectedShapes.add(shapes.indexOf(aPS));
+                        selectedShapes.add(i);
                         if (isSingleSel) {
                             break;
                         }
@@ -754,7 +923,8 @@ public class VectorLayer extends MapLayer {
             case POLYLINE_Z:
                 Object sel;
                 List<Double> dislist = new ArrayList<>();
-                for (i = 0; i < shapes.size(); i++) {
+                for (k = 0; k < idxs.length; k++) {
+                    i = idxs[k];
                     PolylineShape aPLS = (PolylineShape) shapes.get(i);
                     if (MIMath.isExtentCross(aExtent, aPLS.getExtent())) {
                         sel = GeoComputation.selectPolylineShape(sp, aPLS, aExtent.getWidth() / 2);
@@ -762,13 +932,13 @@ public class VectorLayer extends MapLayer {
                             if (dislist.size() > 0) {
                                 for (j = 0; j < dislist.size(); j++) {
                                     if ((Double) sel < dislist.get(j)) {
-                                        selectedShapes.add(j, shapes.indexOf(aPLS));
+                                        selectedShapes.add(j, i);
                                         dislist.add(j, (Double) sel);
                                         break;
                                     }
                                 }
                             } else {
-                                selectedShapes.add(shapes.indexOf(aPLS));
+                                selectedShapes.add(i);
                                 dislist.add((Double) sel);
                             }
                             if (isSingleSel) {
@@ -781,19 +951,20 @@ public class VectorLayer extends MapLayer {
             case POLYGON:
             case POLYGON_M:
             case POLYGON_Z:
-                for (i = shapes.size() - 1; i >= 0; i--) {
+                for (k = idxs.length - 1; k >= 0; k--) {
+                    i = idxs[k];
                     PolygonShape aPGS = (PolygonShape) shapes.get(i);
                     if (isSingleSel) {
                         if (GeoComputation.pointInPolygon(aPGS, sp)) {
-                            selectedShapes.add(shapes.indexOf(aPGS));
+                            selectedShapes.add(i);
                             break;
                         }
                     } else if (GeoComputation.pointInPolygon(aPGS, sp)) {
-                        selectedShapes.add(shapes.indexOf(aPGS));
+                        selectedShapes.add(i);
                     } else if (MIMath.isExtentCross(aExtent, aPGS.getExtent())) {
                         for (j = 0; j < aPGS.getPolygons().get(0).getOutLine().size(); j++) {
                             if (MIMath.pointInExtent(aPGS.getPolygons().get(0).getOutLine().get(j), aExtent)) {
-                                selectedShapes.add(shapes.indexOf(aPGS));
+                                selectedShapes.add(i);
                                 break;
                             }
                         }
@@ -813,7 +984,7 @@ public class VectorLayer extends MapLayer {
      */
     public List<Integer> selectShapes(PolygonShape polygonShape) {
         List<Integer> selIdxs = new ArrayList<>();
-        for (int i = 0; i < shapes.size(); i++) {
+        for (int i : this.queryShapes(polygonShape.getExtent())) {
             boolean isIn = false;
             List<PointD> points = (List<PointD>) shapes.get(i).getPoints();
             for (PointD aPoint : points) {
@@ -911,7 +1082,8 @@ public class VectorLayer extends MapLayer {
     public Shape selectShape(PointD p) {
         Coordinate c = new Coordinate(p.X, p.Y);
         Geometry point = new GeometryFactory().createPoint(c);
-        for (Shape shape : shapes) {
+        for (int i : this.queryShapes(new Extent(p.X, p.X, p.Y, p.Y))) {
+            Shape shape = shapes.get(i);
             if (point.within(shape.toGeometry())) {
                 return shape;
             }
@@ -926,7 +1098,8 @@ public class VectorLayer extends MapLayer {
      * @return PolygonShape and polygon hole index
      */
     public Object[] selectPolygonHole(PointD p) {
-        for (Shape shape : shapes) {
+        for (int k : this.queryShapes(new Extent(p.X, p.X, p.Y, p.Y))) {
+            Shape shape = shapes.get(k);
             int i = 0;
             for (Polygon poly : ((PolygonShape) shape).getPolygons()) {
                 if (poly.hasHole()) {
@@ -1337,6 +1510,8 @@ public class VectorLayer extends MapLayer {
         }
 
         shapes.add(position, aShape);
+        this.spatialIndex = null;
+        this.clearSimplifiedShapes();
         insertRecord(position);
         updateLayerExtent(aShape);
 
@@ -1360,6 +1535,8 @@ public class VectorLayer extends MapLayer {
         }
 
         shapes.add(position, aShape);
+        this.spatialIndex = null;
+        this.clearSimplifiedShapes();
         insertRecord(position, record);
         updateLayerExtent(aShape);
 
@@ -1402,6 +1579,8 @@ public class VectorLayer extends MapLayer {
         int idx = this.shapes.indexOf(shape);
         if (idx >= 0) {
             this.shapes.remove(shape);
+            this.spatialIndex = null;
+            this.clearSimplifiedShapes();
             this._attributeTable.getTable().removeRow(idx);
         }
     }
@@ -1413,6 +1592,8 @@ public class VectorLayer extends MapLayer {
     public void editRemoveShape(int idx) {
         if (idx >= 0 && idx < this.getShapeNum() - 1) {
             this.shapes.remove(idx);
+            this.spatialIndex = null;
+            this.clearSimplifiedShapes();
             this._attributeTable.getTable().removeRow(idx);
         }
     }
@@ -1650,7 +1831,7 @@ public class VectorLayer extends MapLayer {
 
         newLayer.setShapes(new ArrayList<Shape>());
         for (PolygonShape aPGS : clipPolys) {
-            for (int i = 0; i < this.getShapeNum(); i++) {
+            for (int i : this.queryShapes(aPGS.getExtent())) {
                 Shape bShape = this.getShapes().get(i);
                 DataRow aDR = this.getAttributeTable().getTable().getRows().get(i);
                 Shape clipShape = bShape.intersection(aPGS);
@@ -1757,6 +1938,9 @@ public class VectorLayer extends MapLayer {
                 if (bShape.isSelected()) {
                     DataRow aDR = this.getAttributeTable().getTable().getRows().get(i);
                     for (PolygonShape aPGS : clipPolys) {
+                        if (!MIMath.isExtentCross(bShape.getExtent(), aPGS.getExtent())) {
+                            continue;
+                        }
                         Shape clipShape = bShape.intersection(aPGS);
                         if (clipShape != null) {
                             newLayer.addShape(clipShape);
@@ -1771,6 +1955,9 @@ public class VectorLayer extends MapLayer {
             } else {
                 DataRow aDR = this.getAttributeTable().getTable().getRows().get(i);
                 for (PolygonShape aPGS : clipPolys) {
+                    if (!MIMath.isExtentCross(bShape.getExtent(), aPGS.getExtent())) {
+                        continue;
+                    }
                     Shape clipShape = bShape.intersection(aPGS);
                     if (clipShape != null) {
                         newLayer.addShape(clipShape);
@@ -2265,10 +2452,11 @@ public class VectorLayer extends MapLayer {
      */
     public void getOriginData() {
         _attributeTable = (AttributeTable) _originAttributeTable.clone();
-        shapes = new ArrayList<>();
+        List<Shape> originShapes = new ArrayList<>();
         for (Shape aShape : _originShapes) {
-            shapes.add((Shape) aShape.clone());
+            originShapes.add((Shape) aShape.clone());
         }
+        this.setShapes(originShapes);
 
         _labelPoints = _originLabelPoints;
         _chartPoints = _originChartPoints;
@@ -2842,9 +3030,7 @@ public class VectorLayer extends MapLayer {
 
         if (xShift != 0) {
             for (Shape shape : shapes) {
-                for (PointD p : shape.getPoints()) {
-                    p.X += xShift;
-                }
+                shape.shiftPoints(xShift, 0);
                 shape.updateExtent();
             }
         }
@@ -2879,6 +3065,8 @@ public class VectorLayer extends MapLayer {
      * Update extent
      */
     public void updateExtent() {
+        this.spatialIndex = null;
+        this.clearSimplifiedShapes();
         for (int i = 0; i < shapes.size(); i++) {
             if (i == 0) {
                 this.setExtent((Extent) shapes.get(i).getExtent().clone());
@@ -3096,6 +3284,8 @@ public class VectorLayer extends MapLayer {
         for (Shape shape : this.shapes) {
             shape.move(xShift, yShift);
         }
+        this.spatialIndex = null;
+        this.clearSimplifiedShapes();
     }
 
     /**
@@ -3214,4 +3404,22 @@ public class VectorLayer extends MapLayer {
     }
     // </editor-fold>
     // </editor-fold>
+
+    private static class SimplifiedShape {
+
+        final List<? extends PointD> points;
+        final Extent extent;
+        final double[][][] coordinates;
+
+        SimplifiedShape(List<? extends PointD> points, Extent extent, double[][][] coordinates) {
+            this.points = points;
+            this.extent = extent;
+            this.coordinates = coordinates;
+        }
+
+        boolean isSameExtent(Extent other) {
+            return extent.minX == other.minX && extent.maxX == other.maxX
+                    && extent.minY == other.minY && extent.maxY == other.maxY;
+        }
+    }
 }
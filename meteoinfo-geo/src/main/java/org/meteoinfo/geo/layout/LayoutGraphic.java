@@ -302,30 +302,7 @@ public class LayoutGraphic extends LayoutElement {
      * @param newY New y
      */
     public void verticeEditUpdate(int vIdx, double newX, double newY) {
-        List<PointD> points = (List<PointD>) _graphic.getShape().getPoints();
-        switch (_graphic.getShape().getShapeType()) {
-            case POLYGON:
-            case CURVE_POLYGON:
-            case RECTANGLE:
-                int last = points.size() - 1;
-                if (vIdx == 0) {
-                    if (points.get(0).X == points.get(last).X && points.get(0).Y == points.get(last).Y) {
-                        points.get(last).X = newX;
-                        points.get(last).Y = newY;
-                    }
-                } else if (vIdx == last) {
-                    if (points.get(0).X == points.get(last).X && points.get(0).Y == points.get(last).Y) {
-                        points.get(0).X = newX;
-                        points.get(0).Y = newY;
-                    }
-                }
-                break;
-        }
-
-        PointD aP = points.get(vIdx);
-        aP.X = newX;
-        aP.Y = newY;
-        _graphic.getShape().setPoints(points);
+        _graphic.verticeMoveUpdate(vIdx, newX, newY);
         updateControlSize();
     }
 
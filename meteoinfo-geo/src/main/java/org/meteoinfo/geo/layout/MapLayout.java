@@ -13,12 +13,6 @@
  */
 package org.meteoinfo.geo.layout;
 
-import com.itextpdf.awt.PdfGraphics2D;
-import com.itextpdf.text.DocumentException;
-import com.itextpdf.text.pdf.PdfContentByte;
-import com.itextpdf.text.pdf.PdfTemplate;
-import com.itextpdf.text.pdf.PdfWriter;
-import org.apache.commons.imaging.ImageFormats;
 import org.meteoinfo.common.MIMath;
 import org.meteoinfo.common.PointD;
 import org.meteoinfo.common.PointF;
@@ -40,6 +34,7 @@ import org.meteoinfo.ui.event.ZoomChangedEvent;
 import org.meteoinfo.geo.gui.FrmMeasurement;
 import org.meteoinfo.geo.gui.FrmMeasurement.MeasureTypes;
 import org.meteoinfo.geo.gui.FrmProperty;
+import org.meteoinfo.geo.io.FigureExporter;
 import org.meteoinfo.geo.layer.LayerTypes;
 import org.meteoinfo.geo.layer.MapLayer;
 import org.meteoinfo.geo.layer.VectorLayer;
@@ -121,14 +116,10 @@ import javax.swing.undo.UndoableEdit;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import org.freehep.graphics2d.VectorGraphics;
-import org.freehep.graphicsio.emf.EMFGraphics2D;
-import org.freehep.graphicsio.ps.PSGraphics2D;
 import org.meteoinfo.data.mapdata.webmap.IWebMapPanel;
 import org.meteoinfo.data.mapdata.webmap.TileLoadListener;
 import org.meteoinfo.ui.event.IUndoEditListener;
 import org.meteoinfo.ui.event.UndoEditEvent;
-import org.meteoinfo.image.ImageUtil;
 import org.meteoinfo.geo.layer.RasterLayer;
 import org.meteoinfo.geo.layer.WebMapLayer;
 import org.meteoinfo.geo.mapview.FrmIdentiferGrid;
@@ -3016,50 +3007,8 @@ import org.xml.sax.SAXException;
                  job.print(doc, attributes);
                  out.close();
              }
-         } else if (aFile.endsWith(".eps")) {
-             int width = this._pageBounds.width;
-             int height = this._pageBounds.height;
-             Properties p = new Properties();
-             p.setProperty("PageSize", "A5");
-             VectorGraphics g = new PSGraphics2D(new File(aFile), new Dimension(width, height));
-             g.startExport();
-             this.paintGraphics(g);
-             g.endExport();
-             g.dispose();
-         } else if (aFile.endsWith(".pdf")) {
-             int width = this._pageBounds.width;
-             int height = this._pageBounds.height;
-             try {
-                 com.itextpdf.text.Document document = new com.itextpdf.text.Document(new com.itextpdf.text.Rectangle(width, height));
-                 PdfWriter writer = PdfWriter.getInstance(document, new FileOutputStream(aFile));
-                 document.open();
-                 PdfContentByte cb = writer.getDirectContent();
-                 PdfTemplate pdfTemp = cb.createTemplate(width, height);
-                 Graphics2D g2 = new PdfGraphics2D(pdfTemp, width, height, true);
-                 this.paintGraphics(g2);
-                 g2.dispose();
-                 cb.addTemplate(pdfTemp, 0, 0);
-                 document.close();
-             } catch (DocumentException | FileNotFoundException e) {
-                 e.printStackTrace();
-             }
-         } else if (aFile.endsWith(".emf")) {
-             int width = this._pageBounds.width;
-             int height = this._pageBounds.height;
-             VectorGraphics g = new EMFGraphics2D(new File(aFile), new Dimension(width, height));
-             g.startExport();
-             this.paintGraphics(g);
-             g.endExport();
-             g.dispose();
          } else {
-             ImageFormats imageFormat = ImageUtil.getImageFormat(aFile);
-             int imageType = imageFormat == ImageFormats.JPEG ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
-             BufferedImage image = new BufferedImage(_pageBounds.width, _pageBounds.height, imageType);
-             Graphics2D g = image.createGraphics();
-             paintGraphics(g);
-             g.dispose();
-
-             ImageUtil.imageSave(image, aFile);
+             FigureExporter.export(FigureExporter.of(this), aFile, null);
          }
      }
 
@@ -3072,53 +3021,13 @@ import org.xml.sax.SAXException;
       * @throws PrintException
       */
      public void exportToPicture(String fileName, Integer dpi) throws FileNotFoundException, PrintException, IOException {
-         if (dpi == null) {
+         if (dpi == null || fileName.endsWith(".ps")) {
              exportToPicture(fileName);
          } else {
              File output = new File(fileName);
              output.delete();
 
-             int width = _pageBounds.width;
-             int height = _pageBounds.height;
-             ImageFormats imageFormat = ImageUtil.getImageFormat(fileName);
-             /*String formatName = fileName.substring(fileName.lastIndexOf('.') + 1);
-             if (formatName.equals("jpg")) {
-                 formatName = "jpeg";
-                 saveImage_Jpeg(fileName, width, height, dpi);
-                 return;
-             }*/
-
-             double scaleFactor = dpi / 72.0;
-             int imageType = imageFormat == ImageFormats.JPEG ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
-             BufferedImage image = new BufferedImage((int)(width * scaleFactor), (int)(height * scaleFactor), imageType);
-             Graphics2D g = image.createGraphics();
-             AffineTransform at = g.getTransform();
-             at.scale(scaleFactor, scaleFactor);
-             g.setTransform(at);
-             paintGraphics(g);
-             /*for (Iterator<ImageWriter> iw = ImageIO.getImageWritersByFormatName(formatName); iw.hasNext();) {
-                 ImageWriter writer = iw.next();
-                 ImageWriteParam writeParam = writer.getDefaultWriteParam();
-                 ImageTypeSpecifier typeSpecifier = ImageTypeSpecifier.createFromBufferedImageType(BufferedImage.TYPE_INT_ARGB);
-                 IIOMetadata metadata = writer.getDefaultImageMetadata(typeSpecifier, writeParam);
-                 if (metadata.isReadOnly() || !metadata.isStandardMetadataFormatSupported()) {
-                     continue;
-                 }
-
-                 ImageUtil.setDPI(metadata, dpi);
-
-                 final ImageOutputStream stream = ImageIO.createImageOutputStream(output);
-                 try {
-                     writer.setOutput(stream);
-                     writer.write(metadata, new IIOImage(image, null, metadata), writeParam);
-                 } finally {
-                     stream.close();
-                 }
-                 break;
-             }*/
-             g.dispose();
-
-             ImageUtil.imageSave(image, fileName, dpi);
+             FigureExporter.export(FigureExporter.of(this), fileName, dpi);
          }
      }
 
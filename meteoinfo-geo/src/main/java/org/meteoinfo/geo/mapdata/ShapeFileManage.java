@@ -20,6 +20,7 @@ package org.meteoinfo.geo.mapdata;
  import org.meteoinfo.geo.layer.LayerDrawType;
  import org.meteoinfo.geo.layer.VectorLayer;
  import org.meteoinfo.geo.legend.LegendManage;
+ import org.meteoinfo.geometry.legend.LegendScheme;
  import org.meteoinfo.geometry.graphic.GraphicCollection;
  import org.meteoinfo.geometry.shape.Shape;
  import org.meteoinfo.geometry.shape.*;
@@ -56,6 +57,10 @@ public class ShapeFileManage {
      * @throws FileNotFoundException
      */
     public static VectorLayer loadShapeFile(String shpfilepath) throws IOException, FileNotFoundException, Exception {
+        return loadShapeFile(shpfilepath, readEncoding(shpfilepath));
+    }
+
+    private static String readEncoding(String shpfilepath) throws IOException {
         String cpgfilepath = shpfilepath.replaceFirst(shpfilepath.substring(shpfilepath.lastIndexOf(".")), ".cpg");
         File cpgFile = new File(cpgfilepath);
         String encoding = ENCODING;
@@ -65,7 +70,116 @@ public class ShapeFileManage {
             sr.close();
             encoding = ec;
         }
-        return loadShapeFile(shpfilepath, encoding);
+        return encoding;
+    }
+
+    /**
+     * Open shape file as a vector layer whose shapes are decoded on demand
+     * from the memory mapped shape file. The layer is read only, the
+     * attribute records are read when the attribute table is first accessed.
+     *
+     * @param shpfilepath Shape file path
+     * @return Vector layer
+     * @throws IOException
+     */
+    public static VectorLayer openShapeFile(String shpfilepath) throws IOException, Exception {
+        return openShapeFile(shpfilepath, readEncoding(shpfilepath));
+    }
+
+    /**
+     * Open shape file as a vector layer whose shapes are decoded on demand
+     * from the memory mapped shape file. The layer is read only, the
+     * attribute records are read when the attribute table is first accessed.
+     *
+     * @param shpfilepath Shape file path
+     * @param encoding Encoding
+     * @return Vector layer
+     * @throws IOException
+     */
+    public static VectorLayer openShapeFile(String shpfilepath, String encoding) throws IOException, Exception {
+        //The reader backs the layer shapes, it keeps the file mapped but no
+        //file handle open
+        ShapeFileReader reader = new ShapeFileReader(shpfilepath);
+        VectorLayer aLayer = new VectorLayer(reader.getShapeType());
+        aLayer.setShapes(reader.getShapes());
+        aLayer.setLegendScheme(createLegendScheme(reader.getShapeType()));
+
+        AttributeTable attrTable = new AttributeTable();
+        attrTable.setEncoding(encoding);
+        attrTable.open(shpfilepath);
+        if (attrTable.getFile().exists()) {
+            attrTable.setFillOnDemand(true);
+        } else {
+            //Only FID records without the dbf file
+            attrTable.fill(reader.getShapeNum());
+        }
+        setLayerProperties(aLayer, shpfilepath, reader.getExtent(), attrTable);
+
+        return aLayer;
+    }
+
+    /**
+     * Load the shapes of a shape file which intersect an extent. Only the
+     * records whose bounding boxes intersect the extent are decoded.
+     *
+     * @param shpfilepath Shape file path
+     * @param encoding Encoding
+     * @param extent The extent
+     * @return Vector layer
+     * @throws IOException
+     */
+    public static VectorLayer loadShapeFile(String shpfilepath, String encoding, Extent extent) throws IOException, Exception {
+        VectorLayer aLayer;
+        int[] idxs;
+        try (ShapeFileReader reader = new ShapeFileReader(shpfilepath)) {
+            idxs = reader.query(extent);
+            aLayer = new VectorLayer(reader.getShapeType());
+            for (Shape shape : reader.readShapes(idxs)) {
+                aLayer.addShape(shape);
+            }
+            aLayer.setLegendScheme(createLegendScheme(reader.getShapeType()));
+        }
+
+        AttributeTable attrTable = new AttributeTable();
+        attrTable.setEncoding(encoding);
+        attrTable.open(shpfilepath);
+        attrTable.fill(idxs);
+        aLayer.updateExtent();
+        setLayerProperties(aLayer, shpfilepath, aLayer.getExtent(), attrTable);
+
+        return aLayer;
+    }
+
+    private static LegendScheme createLegendScheme(ShapeTypes shapeType) {
+        switch (shapeType) {
+            case POINT:
+            case POINT_Z:
+                return LegendManage.createSingleSymbolLegendScheme(ShapeTypes.POINT, Color.black, 5);
+            case POLYLINE:
+            case POLYLINE_Z:
+                return LegendManage.createSingleSymbolLegendScheme(ShapeTypes.POLYLINE, Color.darkGray, 1.0F);
+            default:
+                return LegendManage.createSingleSymbolLegendScheme(ShapeTypes.POLYGON, new Color(255, 251, 195), 1.0F);
+        }
+    }
+
+    private static void setLayerProperties(VectorLayer aLayer, String shpfilepath, Extent extent,
+                                           AttributeTable attrTable) throws IOException {
+        aLayer.setExtent(extent);
+        aLayer.setLayerDrawType(LayerDrawType.MAP);
+        aLayer.setFileName(shpfilepath);
+        aLayer.setLayerName(new File(shpfilepath).getName());
+        aLayer.setVisible(true);
+        aLayer.setAttributeTable(attrTable);
+
+        String projfilepath = shpfilepath.replace(shpfilepath.substring(shpfilepath.lastIndexOf(".")), ".prj");
+        File prjFile = new File(projfilepath);
+        if (!prjFile.exists()) {
+            prjFile = new File(projfilepath.replace(".prj", ".PRJ"));
+        }
+        if (prjFile.exists()) {
+            aLayer.setProjInfo(loadProjFile(prjFile));
+        }
     }
     
     /**
@@ -278,7 +392,6 @@ public class ShapeFileManage {
     private static VectorLayer readPolylineShapes(DataInputStream br, int shapeNum) throws IOException {
         VectorLayer aLayer = new VectorLayer(ShapeTypes.POLYLINE);
         int RecordNum, ContentLength, aShapeType;
-        double x, y;
         byte[] bytes;
         ByteBuffer buffer;
         
@@ -309,23 +422,18 @@ public class ShapeFileManage {
             aPL.setPartNum(buffer.getInt());
             int numPoints = buffer.getInt();
             aPL.parts = new int[aPL.getPartNum()];
-            List<PointD> points = new ArrayList<>();
 
             //firstly read out parts begin pos in file 
             for (int j = 0; j < aPL.getPartNum(); j++) {
                 aPL.parts[j] = buffer.getInt();
             }
 
-            //read out coordinates 
-            for (int j = 0; j < numPoints; j++) {
-                x = buffer.getDouble();
-                y = buffer.getDouble();
-                PointD aPoint = new PointD();
-                aPoint.X = x;
-                aPoint.Y = y;
-                points.add(aPoint);
+            //read out coordinates to packed x, y array
+            double[] coords = new double[numPoints * 2];
+            for (int j = 0; j < coords.length; j++) {
+                coords[j] = buffer.getDouble();
             }
-            aPL.setPoints(points);
+            aPL.setPoints(new PackedPointList(coords));
             aLayer.addShape(aPL);
         }
 
@@ -426,7 +534,6 @@ public class ShapeFileManage {
     private static VectorLayer readPolygonShapes(DataInputStream br, int shapeNum) throws IOException {
         VectorLayer aLayer = new VectorLayer(ShapeTypes.POLYGON);
         int RecordNum, ContentLength, aShapeType;
-        double x, y;
         byte[] bytes;
         ByteBuffer buffer;
 
@@ -460,23 +567,18 @@ public class ShapeFileManage {
             aSPG.setPartNum(buffer.getInt());
             int numPoints = buffer.getInt();
             aSPG.parts = new int[aSPG.getPartNum()];
-            List<PointD> points = new ArrayList<>();
 
             //firstly read out parts begin pos in file 
             for (int j = 0; j < aSPG.getPartNum(); j++) {
                 aSPG.parts[j] = buffer.getInt();
             }
 
-            //read out coordinates 
-            for (int j = 0; j < numPoints; j++) {
-                x = buffer.getDouble();
-                y = buffer.getDouble();
-                PointD aPoint = new PointD();
-                aPoint.X = x;
-                aPoint.Y = y;
-                points.add(aPoint);
+            //read out coordinates to packed x, y array
+            double[] coords = new double[numPoints * 2];
+            for (int j = 0; j < coords.length; j++) {
+                coords[j] = buffer.getDouble();
             }
-            aSPG.setPoints(points);
+            aSPG.setPoints(new PackedPointList(coords));
             aLayer.addShape(aSPG);
         }
 
@@ -0,0 +1,544 @@
+package org.meteoinfo.geo.mapdata;
+
+import org.meteoinfo.common.Extent;
+import org.meteoinfo.common.PointD;
+import org.meteoinfo.geometry.shape.*;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Memory mapped shape file reader.
+ *
+ * <p>The .shp file is memory mapped and the record offsets are read from the
+ * .shx file, so a shape is decoded by record index without reading the other
+ * records. The record bounding boxes are read from the record headers only,
+ * and can be used to find the records in an extent before decoding them.
+ * Decoded shapes are kept in a least recently used cache. The file handles
+ * are closed once the file is mapped, the mapping is released when the
+ * reader is garbage collected.
+ *
+ * @author Yaqiang Wang
+ */
+public class ShapeFileReader implements Closeable {
+
+    // <editor-fold desc="Variables">
+    private static final long SEGMENT_SIZE = 1L << 30;
+
+    private final MappedByteBuffer[] segments;
+    private final ShapeTypes shapeType;
+    private final Extent extent;
+    private final int[] offsets;
+    private final int[] contentLengths;
+    private double[] bounds;
+    private int cacheSize = 10000;
+    private final LinkedHashMap<Integer, Shape> cache = new LinkedHashMap<Integer, Shape>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Shape> eldest) {
+            if (size() > cacheSize) {
+                saveState(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+    //Shape states which should be kept after the shape is removed from the cache
+    private int[] legendIndexes;
+    private byte[] states;
+    // </editor-fold>
+    // <editor-fold desc="Constructor">
+
+    /**
+     * Constructor
+     *
+     * @param shpFileName Shape file name
+     * @throws IOException
+     */
+    public ShapeFileReader(String shpFileName) throws IOException {
+        File shpFile = new File(shpFileName);
+        File shxFile = getSidecarFile(shpFileName, ".shx");
+        if (!shxFile.exists()) {
+            throw new IOException("The shx file was not found: " + shxFile.getPath());
+        }
+
+        //Read record offsets and content lengths from shx file
+        try (RandomAccessFile shxRaf = new RandomAccessFile(shxFile, "r");
+             FileChannel shxChannel = shxRaf.getChannel()) {
+            MappedByteBuffer shx = shxChannel.map(FileChannel.MapMode.READ_ONLY, 0, shxChannel.size());
+            shx.order(ByteOrder.BIG_ENDIAN);
+            int n = (int) ((shxChannel.size() - 100) / 8);
+            this.offsets = new int[n];
+            this.contentLengths = new int[n];
+            shx.position(100);
+            for (int i = 0; i < n; i++) {
+                this.offsets[i] = shx.getInt();
+                this.contentLengths[i] = shx.getInt();
+            }
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(shpFile, "r");
+             FileChannel channel = raf.getChannel()) {
+            long size = channel.size();
+            int segNum = (int) ((size + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+            this.segments = new MappedByteBuffer[segNum];
+            for (int i = 0; i < segNum; i++) {
+                long start = i * SEGMENT_SIZE;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                        Math.min(SEGMENT_SIZE, size - start));
+                segments[i].order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+
+        //Read header
+        ByteBuffer header = read(0, 100);
+        this.shapeType = ShapeTypes.valueOf(header.getInt(32));
+        this.extent = new Extent();
+        extent.minX = header.getDouble(36);
+        extent.minY = header.getDouble(44);
+        extent.maxX = header.getDouble(52);
+        extent.maxY = header.getDouble(60);
+    }
+    // </editor-fold>
+    // <editor-fold desc="Get Set Methods">
+
+    /**
+     * Get shape type
+     *
+     * @return Shape type
+     */
+    public ShapeTypes getShapeType() {
+        return this.shapeType;
+    }
+
+    /**
+     * Get extent of the shape file
+     *
+     * @return Extent
+     */
+    public Extent getExtent() {
+        return (Extent) this.extent.clone();
+    }
+
+    /**
+     * Get shape number
+     *
+     * @return Shape number
+     */
+    public int getShapeNum() {
+        return this.offsets.length;
+    }
+
+    /**
+     * Get maximum cached shape number
+     *
+     * @return Maximum cached shape number
+     */
+    public int getCacheSize() {
+        return this.cacheSize;
+    }
+
+    /**
+     * Set maximum cached shape number
+     *
+     * @param value Maximum cached shape number
+     */
+    public void setCacheSize(int value) {
+        synchronized (cache) {
+            this.cacheSize = value;
+        }
+    }
+    // </editor-fold>
+    // <editor-fold desc="Methods">
+
+    private static File getSidecarFile(String shpFileName, String ext) {
+        String path = shpFileName.substring(0, shpFileName.lastIndexOf("."));
+        File file = new File(path + ext);
+        if (!file.exists()) {
+            file = new File(path + ext.toUpperCase());
+        }
+        return file;
+    }
+
+    /**
+     * Read bytes from the shape file
+     *
+     * @param position Byte position
+     * @param length Byte length
+     * @return Little endian byte buffer
+     */
+    private ByteBuffer read(long position, int length) throws IOException {
+        int seg = (int) (position / SEGMENT_SIZE);
+        int start = (int) (position - seg * SEGMENT_SIZE);
+        if (seg < segments.length && start + length <= segments[seg].capacity()) {
+            ByteBuffer buffer = segments[seg].duplicate();
+            buffer.position(start);
+            buffer.limit(start + length);
+            return buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        //The bytes cross segments
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (seg >= segments.length) {
+                throw new IOException("Unexpected end of the shape file");
+            }
+            ByteBuffer segment = segments[seg].duplicate();
+            segment.position(start);
+            segment.limit(Math.min(segment.capacity(), start + buffer.remaining()));
+            buffer.put(segment);
+            seg += 1;
+            start = 0;
+        }
+        buffer.flip();
+        return buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Read record content of a shape, the record header is skipped
+     */
+    private ByteBuffer readRecord(int idx) throws IOException {
+        return read(offsets[idx] * 2L + 8, contentLengths[idx] * 2);
+    }
+
+    /**
+     * Get record bounding boxes, the boxes are read from the record headers
+     * when it is first called
+     *
+     * @return Record bounding boxes with minX, minY, maxX, maxY of each record
+     */
+    public synchronized double[] getRecordBounds() {
+        if (this.bounds == null) {
+            int n = getShapeNum();
+            double[] b = new double[n * 4];
+            try {
+                for (int i = 0; i < n; i++) {
+                    int k = i * 4;
+                    ByteBuffer buffer = read(offsets[i] * 2L + 8, Math.min(contentLengths[i] * 2, 36));
+                    int type = buffer.remaining() >= 4 ? buffer.getInt(0) : 0;
+                    if (type == 0 || buffer.remaining() < 20) {
+                        //Null shape
+                        b[k] = b[k + 1] = Double.POSITIVE_INFINITY;
+                        b[k + 2] = b[k + 3] = Double.NEGATIVE_INFINITY;
+                    } else if (buffer.remaining() < 36) {
+                        //Point
+                        b[k] = b[k + 2] = buffer.getDouble(4);
+                        b[k + 1] = b[k + 3] = buffer.getDouble(12);
+                    } else {
+                        switch (ShapeTypes.valueOf(type)) {
+                            case POINT:
+                            case POINT_M:
+                            case POINT_Z:
+                                b[k] = b[k + 2] = buffer.getDouble(4);
+                                b[k + 1] = b[k + 3] = buffer.getDouble(12);
+                                break;
+                            default:
+                                b[k] = buffer.getDouble(4);
+                                b[k + 1] = buffer.getDouble(12);
+                                b[k + 2] = buffer.getDouble(20);
+                                b[k + 3] = buffer.getDouble(28);
+                                break;
+                        }
+                    }
+                }
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+            this.bounds = b;
+        }
+        return this.bounds;
+    }
+
+    /**
+     * Get the indexes of the records whose bounding boxes intersect an extent
+     *
+     * @param aExtent The extent
+     * @return Ascending record indexes
+     */
+    public int[] query(Extent aExtent) {
+        double[] b = getRecordBounds();
+        int n = getShapeNum();
+        int[] r = new int[n];
+        int rn = 0;
+        for (int i = 0; i < n; i++) {
+            int k = i * 4;
+            if (b[k] <= aExtent.maxX && b[k + 2] >= aExtent.minX && b[k + 1] <= aExtent.maxY
+                    && b[k + 3] >= aExtent.minY) {
+                r[rn++] = i;
+            }
+        }
+        return java.util.Arrays.copyOf(r, rn);
+    }
+
+    /**
+     * Get a shape by record index. The shape is decoded if it is not in the
+     * cache.
+     *
+     * @param idx Record index
+     * @return The shape
+     */
+    public Shape getShape(int idx) {
+        synchronized (cache) {
+            Shape shape = cache.get(idx);
+            if (shape != null) {
+                return shape;
+            }
+        }
+
+        Shape shape;
+        try {
+            shape = readShape(readRecord(idx), this.shapeType);
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+        synchronized (cache) {
+            Shape cached = cache.get(idx);
+            if (cached != null) {
+                return cached;
+            }
+            restoreState(idx, shape);
+            cache.put(idx, shape);
+        }
+        return shape;
+    }
+
+    /**
+     * Decode shapes by record indexes without caching them
+     *
+     * @param idxs Record indexes
+     * @return Shapes
+     * @throws IOException
+     */
+    public List<Shape> readShapes(int[] idxs) throws IOException {
+        List<Shape> shapes = new ArrayList<>(idxs.length);
+        for (int idx : idxs) {
+            shapes.add(readShape(readRecord(idx), this.shapeType));
+        }
+        return shapes;
+    }
+
+    private void saveState(int idx, Shape shape) {
+        if (legendIndexes == null) {
+            legendIndexes = new int[getShapeNum()];
+            states = new byte[getShapeNum()];
+        }
+        legendIndexes[idx] = shape.getLegendIndex();
+        states[idx] = (byte) ((shape.isVisible() ? 0 : 1) | (shape.isSelected() ? 2 : 0) | 4);
+    }
+
+    private void restoreState(int idx, Shape shape) {
+        if (states != null && (states[idx] & 4) != 0) {
+            shape.setLegendIndex(legendIndexes[idx]);
+            if ((states[idx] & 1) != 0) {
+                shape.setVisible(false);
+            }
+            shape.setSelected((states[idx] & 2) != 0);
+        }
+    }
+
+    /**
+     * Get a read only shape list decoding the shapes on demand
+     *
+     * @return Shape list
+     */
+    public ShapeList getShapes() {
+        return new ShapeList();
+    }
+
+    /**
+     * Decode a shape from record content
+     *
+     * @param buffer Little endian record content buffer
+     * @param shapeType Shape type of the shape file
+     * @return The shape
+     */
+    public static Shape readShape(ByteBuffer buffer, ShapeTypes shapeType) {
+        int type = buffer.remaining() >= 4 ? buffer.getInt() : 0;
+        if (type == 0) {
+            return nullShape(shapeType);
+        }
+
+        switch (shapeType) {
+            case POINT:
+                PointShape ps = new PointShape();
+                ps.setPoint(new PointD(buffer.getDouble(), buffer.getDouble()));
+                return ps;
+            case POINT_Z:
+                PointZShape pzs = new PointZShape();
+                double x = buffer.getDouble();
+                double y = buffer.getDouble();
+                double z = buffer.getDouble();
+                double m = buffer.remaining() >= 8 ? buffer.getDouble() : 0;
+                pzs.setPoint(new PointZ(x, y, z, m));
+                return pzs;
+            case POLYLINE:
+            case POLYLINE_Z:
+            case POLYGON:
+            case POLYGON_M:
+            case POLYGON_Z:
+                return readPolyShape(buffer, shapeType);
+            default:
+                throw new IllegalArgumentException("The shape type is not supported: " + shapeType);
+        }
+    }
+
+    private static Shape nullShape(ShapeTypes shapeType) {
+        Shape shape;
+        switch (shapeType) {
+            case POINT:
+                shape = new PointShape();
+                break;
+            case POINT_Z:
+                shape = new PointZShape();
+                break;
+            case POLYLINE:
+                shape = new PolylineShape();
+                break;
+            case POLYLINE_Z:
+                shape = new PolylineZShape();
+                break;
+            case POLYGON_M:
+                shape = new PolygonMShape();
+                break;
+            case POLYGON_Z:
+                shape = new PolygonZShape();
+                break;
+            default:
+                shape = new PolygonShape();
+                break;
+        }
+        shape.setVisible(false);
+        return shape;
+    }
+
+    private static Shape readPolyShape(ByteBuffer buffer, ShapeTypes shapeType) {
+        Extent extent = new Extent();
+        extent.minX = buffer.getDouble();
+        extent.minY = buffer.getDouble();
+        extent.maxX = buffer.getDouble();
+        extent.maxY = buffer.getDouble();
+        int partNum = buffer.getInt();
+        int numPoints = buffer.getInt();
+        int[] parts = new int[partNum];
+        for (int j = 0; j < partNum; j++) {
+            parts[j] = buffer.getInt();
+        }
+        double[] coords = new double[numPoints * 2];
+        for (int j = 0; j < coords.length; j++) {
+            coords[j] = buffer.getDouble();
+        }
+
+        double[] zArray = null;
+        if (shapeType == ShapeTypes.POLYLINE_Z || shapeType == ShapeTypes.POLYGON_Z) {
+            buffer.getDouble();
+            buffer.getDouble();
+            zArray = new double[numPoints];
+            for (int j = 0; j < numPoints; j++) {
+                zArray[j] = buffer.getDouble();
+            }
+        }
+        double[] mArray = null;
+        if (shapeType == ShapeTypes.POLYLINE_Z || shapeType == ShapeTypes.POLYGON_Z
+                || shapeType == ShapeTypes.POLYGON_M) {
+            mArray = new double[numPoints];
+            if (buffer.remaining() >= 16 + 8 * numPoints) {
+                buffer.getDouble();
+                buffer.getDouble();
+                for (int j = 0; j < numPoints; j++) {
+                    mArray[j] = buffer.getDouble();
+                }
+            }
+        }
+
+        List<PointD> points;
+        if (mArray == null) {
+            points = new PackedPointList(coords);
+        } else {
+            points = new ArrayList<>(numPoints);
+            for (int j = 0; j < numPoints; j++) {
+                if (zArray != null) {
+                    points.add(new PointZ(coords[j * 2], coords[j * 2 + 1], zArray[j], mArray[j]));
+                } else {
+                    points.add(new PointM(coords[j * 2], coords[j * 2 + 1], mArray[j]));
+                }
+            }
+        }
+
+        switch (shapeType) {
+            case POLYLINE:
+            case POLYLINE_Z:
+                PolylineShape pls = shapeType == ShapeTypes.POLYLINE ? new PolylineShape() : new PolylineZShape();
+                pls.setExtent(extent);
+                pls.setPartNum(partNum);
+                pls.parts = parts;
+                pls.setPoints(points);
+                return pls;
+            default:
+                PolygonShape pgs;
+                if (shapeType == ShapeTypes.POLYGON_M) {
+                    pgs = new PolygonMShape();
+                } else if (shapeType == ShapeTypes.POLYGON_Z) {
+                    pgs = new PolygonZShape();
+                } else {
+                    pgs = new PolygonShape();
+                }
+                pgs.setExtent(extent);
+                pgs.setPartNum(partNum);
+                pgs.parts = parts;
+                pgs.setPoints(points);
+                return pgs;
+        }
+    }
+
+    /**
+     * Release the decoded shape cache. The file handles are already closed
+     * after mapping, so the shapes can still be read after closing. The
+     * legend index, visible and selected states of the cached shapes are kept.
+     */
+    @Override
+    public void close() {
+        synchronized (cache) {
+            for (Map.Entry<Integer, Shape> entry : cache.entrySet()) {
+                saveState(entry.getKey(), entry.getValue());
+            }
+            cache.clear();
+        }
+    }
+    // </editor-fold>
+
+    /**
+     * Read only shape list backed by the shape file
+     */
+    public class ShapeList extends AbstractList<Shape> implements RandomAccess {
+
+        /**
+         * Get the shape file reader
+         *
+         * @return Shape file reader
+         */
+        public ShapeFileReader getReader() {
+            return ShapeFileReader.this;
+        }
+
+        @Override
+        public Shape get(int index) {
+            return getShape(index);
+        }
+
+        @Override
+        public int size() {
+            return getShapeNum();
+        }
+    }
+}
@@ -65,6 +65,7 @@ import org.meteoinfo.geometry.shape.CurvePolygonShape;
 import org.meteoinfo.geometry.shape.EllipseShape;
 import org.meteoinfo.geometry.graphic.Graphic;
 import org.meteoinfo.geometry.graphic.GraphicCollection;
+import org.meteoinfo.geometry.shape.PackedPointList;
 import org.meteoinfo.geometry.shape.PointShape;
 import org.meteoinfo.geometry.shape.Polygon;
 import org.meteoinfo.geometry.shape.PolygonShape;
@@ -194,6 +195,12 @@ public class MapView extends JPanel implements IWebMapPanel {
     private boolean _pointAntiAlias = true;
     private boolean _highSpeedWheelZoom = true;
     private boolean _lockViewUpdate = false;
+    private double simplifyTolerance = 0.5;
+    //Pan state to reuse the last map image
+    private boolean panRedraw = false;
+    private Extent lastPaintExtent = null;
+    private double lastPaintScaleX, lastPaintScaleY;
+    private Extent queryExtent = null;
     private LayerCollection layers = new LayerCollection();
     private int _selectedLayer;
     private Extent _extent = new Extent();
@@ -399,6 +406,26 @@ public class MapView extends JPanel implements IWebMapPanel {
         this.doubleBuffer = value;
     }
 
+    /**
+     * Get geometry simplification tolerance in pixels
+     *
+     * @return Simplification tolerance
+     */
+    public double getSimplifyTolerance() {
+        return this.simplifyTolerance;
+    }
+
+    /**
+     * Set geometry simplification tolerance in pixels. The polygon and
+     * polyline vertices are simplified within the tolerance when drawing, 0
+     * means no simplification.
+     *
+     * @param value Simplification tolerance
+     */
+    public void setSimplifyTolerance(double value) {
+        this.simplifyTolerance = value;
+    }
+
     /**
      * Set TileLoadListner for web map plot
      *
@@ -2035,7 +2062,9 @@ public class MapView extends JPanel implements IWebMapPanel {
                     MaxY = _drawExtent.maxY - (mouseLat - lat);
 
                     //oldExtent = (Extent) _viewExtent.clone();
+                    this.panRedraw = true;
                     zoomToExtent(MinX, MaxX, MinY, MaxY);
+                    this.panRedraw = false;
                     //edit = (new MapViewUndoRedo()).new ZoomEdit(this, oldExtent, (Extent) _viewExtent.clone());
                     //this.fireUndoEditEvent(edit);
                 }
@@ -4159,48 +4188,148 @@ public class MapView extends JPanel implements IWebMapPanel {
         }
 
         if (!this._lockViewUpdate) {
+            BufferedImage lastBitmap = this._mapBitmap;
+            int[] panShift = this.getPanShift(lastBitmap);
+            this.panRedraw = false;
+            this.lastPaintExtent = (Extent) _drawExtent.clone();
+            this.lastPaintScaleX = _scaleX;
+            this.lastPaintScaleY = _scaleY;
+
             this._mapBitmap = new BufferedImage(this.getWidth(), this.getHeight(), BufferedImage.TYPE_INT_ARGB);
             //this._mapBitmap = ImageUtil.toCompatibleImage(this._mapBitmap);
             Graphics2D g = this._mapBitmap.createGraphics();
-            if (this.getBackground() != null) {
-                g.setColor(this.getBackground());
-                g.fillRect(0, 0, this.getWidth(), this.getHeight());
-            }
-            //g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-            if (_antiAlias) {
-                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                //g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-                g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
-                g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
-                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-                //g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-                g.setRenderingHint(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_QUALITY);
+            if (panShift == null) {
+                this.paintMapBitmap(g);
             } else {
-                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
-                //g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
-                g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_DEFAULT);
-                g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_OFF);
-                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_DEFAULT);
-                //g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
-                g.setRenderingHint(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_DEFAULT);
+                //Reuse the last map image and only draw the exposed areas
+                int width = this.getWidth();
+                int height = this.getHeight();
+                int dx = panShift[0];
+                int dy = panShift[1];
+                g.drawImage(lastBitmap, dx, dy, null);
+                List<Rectangle> areas = new ArrayList<>();
+                if (dx > 0) {
+                    areas.add(new Rectangle(0, 0, dx, height));
+                } else if (dx < 0) {
+                    areas.add(new Rectangle(width + dx, 0, -dx, height));
+                }
+                int x0 = Math.max(dx, 0);
+                int x1 = Math.min(width + dx, width);
+                if (dy > 0) {
+                    areas.add(new Rectangle(x0, 0, x1 - x0, dy));
+                } else if (dy < 0) {
+                    areas.add(new Rectangle(x0, height + dy, x1 - x0, -dy));
+                }
+                //Pixel margin of the query extent for symbols and line widths
+                int margin = 64;
+                for (Rectangle area : areas) {
+                    double[] p1 = screenToProj((double) (area.x - margin), area.y + area.height + margin);
+                    double[] p2 = screenToProj((double) (area.x + area.width + margin), area.y - margin);
+                    this.queryExtent = new Extent(p1[0], p2[0], p1[1], p2[1]);
+                    g.setClip(area);
+                    this.paintMapBitmap(g);
+                }
+                this.queryExtent = null;
+                g.setClip(null);
             }
+            g.dispose();
 
-            _xGridPosLabel.clear();
-            _yGridPosLabel.clear();
+            this.repaint();
+        }
+    }
 
-            if (_isGeoMap) {
-                updateLonLatLayer();
-                if (_projection.isLonLatMap()) {
-                    drawLonLatMap(g);
-                } else {
-                    drawProjectedMap(g);
+    /**
+     * Get the pixel shift of the map from the last painting if the map is only
+     * panned, so the last map image can be reused.
+     *
+     * @param lastBitmap Last map image
+     * @return X and y pixel shift, null if the last map image can not be reused
+     */
+    private int[] getPanShift(BufferedImage lastBitmap) {
+        if (!this.panRedraw || !_isGeoMap || this.lastPaintExtent == null) {
+            return null;
+        }
+        if (lastBitmap.getWidth() != this.getWidth() || lastBitmap.getHeight() != this.getHeight()) {
+            return null;
+        }
+        if (Math.abs(_scaleX - lastPaintScaleX) > _scaleX * 1e-9 || Math.abs(_scaleY - lastPaintScaleY) > _scaleY * 1e-9) {
+            return null;
+        }
+        for (MapLayer layer : layers) {
+            if (!layer.isVisible()) {
+                continue;
+            }
+            //Web map tiles are loaded asynchronously, and labels avoiding collision depend on the whole view
+            if (layer.getLayerType() == LayerTypes.WEB_MAP_LAYER) {
+                return null;
+            }
+            if (layer instanceof VectorLayer) {
+                LabelSet labelSet = ((VectorLayer) layer).getLabelSet();
+                if (labelSet.isDrawLabels() && labelSet.isAvoidCollision()) {
+                    return null;
                 }
-            } else {
-                draw2DMap(g);
             }
+        }
 
-            this.repaint();
+        double dx = (lastPaintExtent.minX - _drawExtent.minX) * _scaleX;
+        double dy = (_drawExtent.maxY - lastPaintExtent.maxY) * _scaleY;
+        long ix = Math.round(dx);
+        long iy = Math.round(dy);
+        if (Math.abs(dx - ix) > 0.01 || Math.abs(dy - iy) > 0.01) {
+            return null;
+        }
+        if (Math.abs(ix) >= this.getWidth() || Math.abs(iy) >= this.getHeight()) {
+            return null;
+        }
+        return new int[]{(int) ix, (int) iy};
+    }
+
+    /**
+     * Get the map extent to query the shapes to be drawn
+     *
+     * @return Query extent
+     */
+    private Extent getQueryExtent() {
+        return this.queryExtent == null ? _drawExtent : this.queryExtent;
+    }
+
+    private void paintMapBitmap(Graphics2D g) {
+        if (this.getBackground() != null) {
+            g.setColor(this.getBackground());
+            g.fillRect(0, 0, this.getWidth(), this.getHeight());
+        }
+        //g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        if (_antiAlias) {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            //g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+            g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            //g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_QUALITY);
+        } else {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+            //g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+            g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_DEFAULT);
+            g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_OFF);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_DEFAULT);
+            //g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            g.setRenderingHint(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_DEFAULT);
+        }
+
+        _xGridPosLabel.clear();
+        _yGridPosLabel.clear();
+
+        if (_isGeoMap) {
+            updateLonLatLayer();
+            if (_projection.isLonLatMap()) {
+                drawLonLatMap(g);
+            } else {
+                drawProjectedMap(g);
+            }
+        } else {
+            draw2DMap(g);
         }
     }
 
@@ -5173,7 +5302,9 @@ public class MapView extends JPanel implements IWebMapPanel {
         LegendScheme aLS = aLayer.getLegendScheme();
         List<Extent> extentList = new ArrayList<>();
         Extent maxExtent = new Extent();
-        for (PointShape aPS : (List<PointShape>) aLayer.getShapes()) {
+        List<PointShape> shapes = (List<PointShape>) aLayer.getShapes();
+        for (int s : aLayer.queryShapes(MIMath.shiftExtentLon(getQueryExtent(), -LonShift))) {
+            PointShape aPS = shapes.get(s);
             if (!aPS.isVisible()) {
                 continue;
             }
@@ -5264,7 +5395,9 @@ public class MapView extends JPanel implements IWebMapPanel {
         List<Extent> extentList = new ArrayList<>();
         Extent maxExtent = new Extent();
         Extent aExtent;
-        for (StationModelShape aPS : (List<StationModelShape>) aLayer.getShapes()) {
+        List<StationModelShape> shapes = (List<StationModelShape>) aLayer.getShapes();
+        for (int s : aLayer.queryShapes(MIMath.shiftExtentLon(getQueryExtent(), -LonShift))) {
+            StationModelShape aPS = shapes.get(s);
             if (aPS.getPoint().X + LonShift < _drawExtent.minX || aPS.getPoint().X + LonShift > _drawExtent.maxX
                     || aPS.getPoint().Y < _drawExtent.minY || aPS.getPoint().Y > _drawExtent.maxY) {
                 continue;
@@ -5342,8 +5475,9 @@ public class MapView extends JPanel implements IWebMapPanel {
 
     private void drawPolygonLayer(VectorLayer aLayer, Graphics2D g, double LonShift) {
         LegendScheme aLS = aLayer.getLegendScheme();
+        double tolerance = getSimplifyMapTolerance();
 
-        for (int s = 0; s < aLayer.getShapeNum(); s++) {
+        for (int s : aLayer.queryShapes(MIMath.shiftExtentLon(getQueryExtent(), -LonShift))) {
             PolygonShape aPGS = (PolygonShape) aLayer.getShapes().get(s);
             if (!aPGS.isVisible()) {
                 continue;
@@ -5355,7 +5489,7 @@ public class MapView extends JPanel implements IWebMapPanel {
 
             PolygonBreak aPGB = (PolygonBreak) aLS.getLegendBreaks().get(aPGS.getLegendIndex());
             if (aPGB.isDrawShape()) {
-                drawPolygonShape(g, aPGS, aPGB, LonShift);
+                drawPolygonShape(g, aPGS, aPGB, LonShift, false, aLayer.getSimplifiedCoordinates(s, tolerance));
                 //System.out.println(aPGB.getColor().getAlpha());
             }
         }
@@ -5399,9 +5533,10 @@ public class MapView extends JPanel implements IWebMapPanel {
 
     private void drawPolylineLayer(VectorLayer aLayer, Graphics2D g, double lonShift) {
         LegendScheme ls = aLayer.getLegendScheme();
+        int[] idxs = aLayer.queryShapes(MIMath.shiftExtentLon(getQueryExtent(), -lonShift));
 
         if (ls.isGeometry()) {
-            for (int s = 0; s < aLayer.getShapeNum(); s++) {
+            for (int s : idxs) {
                 PolylineShape pls = (PolylineShape) aLayer.getShapes().get(s);
                 if (!pls.isVisible()) {
                     continue;
@@ -5422,8 +5557,9 @@ public class MapView extends JPanel implements IWebMapPanel {
                     isStreamline = true;
                     break;
             }
+            double tolerance = isStreamline ? 0 : getSimplifyMapTolerance();
 
-            for (int s = 0; s < aLayer.getShapeNum(); s++) {
+            for (int s : idxs) {
                 PolylineShape pls = (PolylineShape) aLayer.getShapes().get(s);
                 if (!pls.isVisible()) {
                     continue;
@@ -5434,7 +5570,8 @@ public class MapView extends JPanel implements IWebMapPanel {
 
                 PolylineBreak aPLB = (PolylineBreak) ls.getLegendBreaks().get(pls.getLegendIndex());
                 if (aPLB.isDrawPolyline() || aPLB.isDrawSymbol()) {
-                    drawPolylineShape(g, pls, aPLB, lonShift, isStreamline);
+                    double[][][] coordinates = aPLB.isDrawSymbol() ? null : aLayer.getSimplifiedCoordinates(s, tolerance);
+                    drawPolylineShape(g, pls, aPLB, lonShift, isStreamline, false, false, coordinates);
                 }
             }
         }
@@ -5470,6 +5607,11 @@ public class MapView extends JPanel implements IWebMapPanel {
 
     private void drawPolylineShape(Graphics2D g, PolylineShape aPLS, PolylineBreak aPLB, double LonShift,
             boolean isStreamline, boolean isSelected, boolean isIdentifer) {
+        drawPolylineShape(g, aPLS, aPLB, LonShift, isStreamline, isSelected, isIdentifer, null);
+    }
+
+    private void drawPolylineShape(Graphics2D g, PolylineShape aPLS, PolylineBreak aPLB, double LonShift,
+            boolean isStreamline, boolean isSelected, boolean isIdentifer, double[][][] coordinates) {
         Extent shapeExtent = MIMath.shiftExtentLon(aPLS.getExtent(), LonShift);
         if (!MIMath.isExtentCross(shapeExtent, _drawExtent)) {
             return;
@@ -5492,20 +5634,45 @@ public class MapView extends JPanel implements IWebMapPanel {
         g.setStroke(pen);
 
         List<PointF> drawPs = new ArrayList<>();
-        if (aPLB.isDrawPolyline()) {
+        boolean keepPs = aPLB.isDrawSymbol() || aPLS.isEditing() || isSelected;
+        if (aPLB.isDrawPolyline() && !isStreamline && !keepPs) {
+            if (coordinates != null) {
+                for (double[][] line : coordinates) {
+                    appendPath(path, line[0], LonShift);
+                    g.draw(path);
+                    path.reset();
+                }
+            } else {
+                for (Polyline aline : aPLS.getPolylines()) {
+                    appendPath(path, aline.getPointList(), LonShift, simplifyTolerance, null);
+                    g.draw(path);
+                    path.reset();
+                }
+            }
+        } else if (aPLB.isDrawPolyline()) {
             for (Polyline aline : aPLS.getPolylines()) {
+                List<? extends PointD> pointList = aline.getPointList();
+                PackedPointList packed = pointList instanceof PackedPointList ? (PackedPointList) pointList : null;
                 double[] sXY;
-                PointF[] Points = new PointF[aline.getPointList().size()];
-                for (int i = 0; i < aline.getPointList().size(); i++) {
-                    PointD wPoint = aline.getPointList().get(i);
-                    sXY = projToScreen(wPoint.X, wPoint.Y, LonShift);
+                PointF[] Points = isStreamline ? new PointF[pointList.size()] : null;
+                for (int i = 0; i < pointList.size(); i++) {
+                    if (packed != null) {
+                        sXY = projToScreen(packed.getX(i), packed.getY(i), LonShift);
+                    } else {
+                        PointD wPoint = pointList.get(i);
+                        sXY = projToScreen(wPoint.X, wPoint.Y, LonShift);
+                    }
                     if (i == 0) {
                         path.moveTo(sXY[0], sXY[1]);
                     } else {
                         path.lineTo(sXY[0], sXY[1]);
                     }
-                    Points[i] = new PointF((float) sXY[0], (float) sXY[1]);
-                    drawPs.add(new PointF((float) sXY[0], (float) sXY[1]));
+                    if (isStreamline) {
+                        Points[i] = new PointF((float) sXY[0], (float) sXY[1]);
+                    }
+                    if (keepPs) {
+                        drawPs.add(new PointF((float) sXY[0], (float) sXY[1]));
+                    }
                 }
 
                 if (isStreamline) {
@@ -5695,14 +5862,36 @@ public class MapView extends JPanel implements IWebMapPanel {
 
     private void drawPolygonShape(Graphics2D g, PolygonShape aPGS, PolygonBreak aPGB, double LonShift,
             boolean isSelected) {
+        drawPolygonShape(g, aPGS, aPGB, LonShift, isSelected, null);
+    }
+
+    private void drawPolygonShape(Graphics2D g, PolygonShape aPGS, PolygonBreak aPGB, double LonShift,
+            boolean isSelected, double[][][] coordinates) {
         Extent shapeExtent = MIMath.shiftExtentLon(aPGS.getExtent(), LonShift);
         if (!MIMath.isExtentCross(shapeExtent, _drawExtent)) {
             return;
         }
 
         List<PointF> pointList = new ArrayList<>();
-        for (Polygon aPolygon : aPGS.getPolygons()) {
-            pointList.addAll(drawPolygon(g, aPolygon, aPGB, LonShift, aPGS.isSelected()));
+        if (coordinates != null) {
+            for (double[][] rings : coordinates) {
+                GeneralPath path = new GeneralPath(GeneralPath.WIND_EVEN_ODD, rings[0].length / 2);
+                for (double[] ring : rings) {
+                    appendPath(path, ring, LonShift);
+                    path.closePath();
+                }
+                fillPolygonPath(g, path, aPGB, aPGS.isSelected());
+            }
+            if (isSelected) {
+                double[] sXY = projToScreen(shapeExtent.minX, shapeExtent.maxY, 0);
+                pointList.add(new PointF((float) sXY[0], (float) sXY[1]));
+                sXY = projToScreen(shapeExtent.maxX, shapeExtent.minY, 0);
+                pointList.add(new PointF((float) sXY[0], (float) sXY[1]));
+            }
+        } else {
+            for (Polygon aPolygon : aPGS.getPolygons()) {
+                pointList.addAll(drawPolygon(g, aPolygon, aPGB, LonShift, aPGS.isSelected()));
+            }
         }
 
         //Draw selected rectangle
@@ -5715,42 +5904,115 @@ public class MapView extends JPanel implements IWebMapPanel {
         }
     }
 
+    /**
+     * Append a point line to the path in screen coordinates
+     *
+     * @param path The path
+     * @param points The points
+     * @param LonShift Longitude shift
+     * @param rPoints Screen point list to be added, or null
+     */
+    private void appendPath(GeneralPath path, List<? extends PointD> points, double LonShift, List<PointF> rPoints) {
+        appendPath(path, points, LonShift, 0, rPoints);
+    }
+
+    /**
+     * Append a point line to the path in screen coordinates, the vertices
+     * within the tolerance of the last drawn vertex are not drawn
+     *
+     * @param path The path
+     * @param points The points
+     * @param LonShift Longitude shift
+     * @param tolerance Simplification tolerance in pixels, 0 means no
+     * simplification
+     * @param rPoints Screen point list of all the points to be added, or null
+     */
+    private void appendPath(GeneralPath path, List<? extends PointD> points, double LonShift, double tolerance,
+            List<PointF> rPoints) {
+        PackedPointList packed = points instanceof PackedPointList ? (PackedPointList) points : null;
+        int n = points.size();
+        double x, y, sx, sy, lx = 0, ly = 0;
+        for (int i = 0; i < n; i++) {
+            if (packed != null) {
+                x = packed.getX(i);
+                y = packed.getY(i);
+            } else {
+                PointD wPoint = points.get(i);
+                x = wPoint.X;
+                y = wPoint.Y;
+            }
+            sx = (x + LonShift - _drawExtent.minX) * _scaleX;
+            sy = (_drawExtent.maxY - y) * _scaleY;
+            if (rPoints != null) {
+                rPoints.add(new PointF((float) sx, (float) sy));
+            }
+            if (i == 0) {
+                path.moveTo(sx, sy);
+            } else {
+                //Skip the vertices in the tolerance of the last drawn vertex
+                if (i < n - 1 && Math.abs(sx - lx) < tolerance && Math.abs(sy - ly) < tolerance) {
+                    continue;
+                }
+                path.lineTo(sx, sy);
+            }
+            lx = sx;
+            ly = sy;
+        }
+    }
+
+    /**
+     * Append a point line to the path in screen coordinates
+     *
+     * @param path The path
+     * @param xy Interleaved x, y coordinate array of the points
+     * @param LonShift Longitude shift
+     */
+    private void appendPath(GeneralPath path, double[] xy, double LonShift) {
+        double dx = LonShift - _drawExtent.minX;
+        for (int i = 0; i < xy.length; i += 2) {
+            double sx = (xy[i] + dx) * _scaleX;
+            double sy = (_drawExtent.maxY - xy[i + 1]) * _scaleY;
+            if (i == 0) {
+                path.moveTo(sx, sy);
+            } else {
+                path.lineTo(sx, sy);
+            }
+        }
+    }
+
+    /**
+     * Get geometry simplification tolerance in map units
+     *
+     * @return Simplification tolerance
+     */
+    private double getSimplifyMapTolerance() {
+        if (simplifyTolerance <= 0) {
+            return 0;
+        }
+        return simplifyTolerance / Math.max(_scaleX, _scaleY);
+    }
+
     private List<PointF> drawPolygon(Graphics2D g, Polygon aPG, PolygonBreak aPGB, double LonShift,
             boolean isSelected) {
         int len = aPG.getOutLine().size();
         GeneralPath path = new GeneralPath(GeneralPath.WIND_EVEN_ODD, len);
         path.moveTo(0, 0);
-        PointD wPoint;
-        double[] sXY;
         List<PointF> rPoints = new ArrayList<>();
-        for (int i = 0; i < aPG.getOutLine().size(); i++) {
-            wPoint = aPG.getOutLine().get(i);
-            sXY = projToScreen(wPoint.X, wPoint.Y, LonShift);
-            if (i == 0) {
-                path.moveTo(sXY[0], sXY[1]);
-            } else {
-                path.lineTo(sXY[0], sXY[1]);
-            }
-            rPoints.add(new PointF((float) sXY[0], (float) sXY[1]));
-        }
+        appendPath(path, aPG.getOutLine(), LonShift, rPoints);
+        path.closePath();
 
-        List<PointD> newPList;
         if (aPG.hasHole()) {
             for (int h = 0; h < aPG.getHoleLines().size(); h++) {
-                newPList = (List<PointD>) aPG.getHoleLines().get(h);
-                for (int j = 0; j < newPList.size(); j++) {
-                    wPoint = newPList.get(j);
-                    sXY = projToScreen(wPoint.X, wPoint.Y, LonShift);
-                    if (j == 0) {
-                        path.moveTo(sXY[0], sXY[1]);
-                    } else {
-                        path.lineTo(sXY[0], sXY[1]);
-                    }
-                }
+                appendPath(path, aPG.getHoleLines().get(h), LonShift, null);
+                path.closePath();
             }
         }
-        path.closePath();
+        fillPolygonPath(g, path, aPGB, isSelected);
 
+        return rPoints;
+    }
+
+    private void fillPolygonPath(Graphics2D g, GeneralPath path, PolygonBreak aPGB, boolean isSelected) {
         if (aPGB.isDrawFill()) {
             //int alpha = (int)((1 - (double)transparencyPerc / 100.0) * 255);
             //Color aColor = Color.FromArgb(alpha, aPGB.Color);
@@ -5780,8 +6042,6 @@ public class MapView extends JPanel implements IWebMapPanel {
             g.setColor(aPGB.getOutlineColor());
             g.draw(path);
         }
-
-        return rPoints;
     }
 
     private void drawWebMapLayer(WebMapLayer layer, Graphics2D g, double width, double height) {
@@ -7525,13 +7785,7 @@ public class MapView extends JPanel implements IWebMapPanel {
     }
 
     private void moveShape(Shape aShape, double xShift, double yShift) {
-        List<PointD> points = (List<PointD>) aShape.getPoints();
-        for (PointD aPoint : points) {
-            aPoint.X += xShift;
-            aPoint.Y += yShift;
-        }
-
-        aShape.setPoints(points);
+        aShape.move(xShift, yShift);
     }
 
     /**
@@ -654,6 +654,22 @@ public class DrawMeteoData {
         return createContourLayer(gridData, ls, lName, fieldName, isSmooth);
     }
 
+    /**
+     * Convert traced contour points to packed point list
+     *
+     * @param points Traced points
+     * @return Packed point list
+     */
+    private static PackedPointList toPointList(List<wcontour.global.PointD> points) {
+        double[] coords = new double[points.size() * 2];
+        for (int i = 0; i < points.size(); i++) {
+            wcontour.global.PointD p = points.get(i);
+            coords[i * 2] = p.X;
+            coords[i * 2 + 1] = p.Y;
+        }
+        return new PackedPointList(coords);
+    }
+
     /**
      * Create contour layer
      *
@@ -720,14 +736,7 @@ public class DrawMeteoData {
             aValue = aLine.Value;
 
             PolylineShape aPolyline = new PolylineShape();
-            PointD aPoint;
-            List<PointD> pList = new ArrayList<>();
-            for (int j = 0; j < aLine.PointList.size(); j++) {
-                aPoint = new PointD();
-                aPoint.X = aLine.PointList.get(j).X;
-                aPoint.Y = aLine.PointList.get(j).Y;
-                pList.add(aPoint);
-            }
+            List<PointD> pList = toPointList(aLine.PointList);
             aPolyline.setPoints(pList);
             aPolyline.setValue(aValue);
             aPolyline.setExtent(GeometryUtil.getPointsExtent(pList));
@@ -806,14 +815,7 @@ public class DrawMeteoData {
         for (PolyLine aLine : ContourLines) {
             aValue = aLine.Value;
             PolylineShape aPolyline = new PolylineShape();
-            PointD aPoint;
-            List<PointD> pList = new ArrayList<>();
-            for (wcontour.global.PointD p : aLine.PointList) {
-                aPoint = new PointD();
-                aPoint.X = p.X;
-                aPoint.Y = p.Y;
-                pList.add(aPoint);
-            }
+            List<PointD> pList = toPointList(aLine.PointList);
             aPolyline.setPoints(pList);
             aPolyline.setValue(aValue);
             aPolyline.setExtent(GeometryUtil.getPointsExtent(pList));
@@ -998,14 +1000,7 @@ public class DrawMeteoData {
                 }
             }
 
-            PointD aPoint;
-            List<PointD> pList = new ArrayList<>();
-            for (wcontour.global.PointD pointList : poly.OutLine.PointList) {
-                aPoint = new PointD();
-                aPoint.X = pointList.X;
-                aPoint.Y = pointList.Y;
-                pList.add(aPoint);
-            }
+            List<PointD> pList = toPointList(poly.OutLine.PointList);
             if (!GeoComputation.isClockwise(pList)) {
                 Collections.reverse(pList);
             }
@@ -1016,13 +1011,7 @@ public class DrawMeteoData {
             aPolygonShape.highValue = max;
             if (poly.HasHoles()) {
                 for (PolyLine holeLine : poly.HoleLines) {
-                    pList = new ArrayList<>();
-                    for (wcontour.global.PointD pointList : holeLine.PointList) {
-                        aPoint = new PointD();
-                        aPoint.X = pointList.X;
-                        aPoint.Y = pointList.Y;
-                        pList.add(aPoint);
-                    }
+                    pList = toPointList(holeLine.PointList);
                     aPolygonShape.addHole(pList, 0);
                 }
             }
@@ -1119,14 +1108,7 @@ public class DrawMeteoData {
 
         for (Polygon aPolygon : ContourPolygons) {
             aValue = aPolygon.LowValue;
-            PointD aPoint;
-            List<PointD> pList = new ArrayList<>();
-            for (wcontour.global.PointD pointList : aPolygon.OutLine.PointList) {
-                aPoint = new PointD();
-                aPoint.X = pointList.X;
-                aPoint.Y = pointList.Y;
-                pList.add(aPoint);
-            }
+            List<PointD> pList = toPointList(aPolygon.OutLine.PointList);
             if (!GeoComputation.isClockwise(pList)) {
                 Collections.reverse(pList);
             }
@@ -1139,13 +1121,7 @@ public class DrawMeteoData {
                     if (holeLine.PointList.size() < 3) {
                         continue;
                     }
-                    pList = new ArrayList<>();
-                    for (wcontour.global.PointD pointList : holeLine.PointList) {
-                        aPoint = new PointD();
-                        aPoint.X = pointList.X;
-                        aPoint.Y = pointList.Y;
-                        pList.add(aPoint);
-                    }
+                    pList = toPointList(holeLine.PointList);
                     aPolygonShape.addHole(pList, 0);
                 }
             }
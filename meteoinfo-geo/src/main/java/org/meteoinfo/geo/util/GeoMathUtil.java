@@ -7,6 +7,8 @@ import org.meteoinfo.data.GridDataSetting;
 import org.meteoinfo.data.StationData;
 import org.meteoinfo.geo.layer.VectorLayer;
 import org.meteoinfo.geo.analysis.GeoComputation;
+import org.meteoinfo.geometry.geoprocess.PolygonMask;
+import org.meteoinfo.geometry.geoprocess.PreparedPolygons;
 import org.meteoinfo.geometry.shape.PolygonShape;
 import org.meteoinfo.geometry.shape.ShapeTypes;
 import org.meteoinfo.geo.analysis.InterpolationSetting;
@@ -25,33 +27,9 @@ public class GeoMathUtil {
      * @return Maskouted grid data
      */
     public static GridData maskout(GridData gridData, PolygonShape aPGS) {
-        int xNum = gridData.getXNum();
-        int yNum = gridData.getYNum();
-
-        GridData cGrid = new GridData(gridData);
-        double[] xArray = gridData.getXArray();
-        double[] yArray = gridData.getYArray();
-        for (int i = 0; i < yNum; i++) {
-            if (yArray[i] >= aPGS.getExtent().minY && yArray[i] <= aPGS.getExtent().maxY) {
-                for (int j = 0; j < xNum; j++) {
-                    if (xArray[j] >= aPGS.getExtent().minX && xArray[j] <= aPGS.getExtent().maxX) {
-                        if (GeoComputation.pointInPolygon(aPGS, new PointD(xArray[j], yArray[i]))) {
-                            cGrid.setValue(i, j, gridData.getDoubleValue(i, j));
-                        } else {
-                            cGrid.setValue(i, j, gridData.getDoubleMissingValue());
-                        }
-                    } else {
-                        cGrid.setValue(i, j, gridData.getDoubleMissingValue());
-                    }
-                }
-            } else {
-                for (int j = 0; j < xNum; j++) {
-                    cGrid.setValue(i, j, gridData.getDoubleMissingValue());
-                }
-            }
-        }
-
-        return cGrid;
+        List<PolygonShape> polygons = new ArrayList<>();
+        polygons.add(aPGS);
+        return maskout(gridData, polygons);
     }
 
     /**
@@ -66,14 +44,14 @@ public class GeoMathUtil {
         int yNum = gridData.getYNum();
 
         GridData cGrid = new GridData(gridData);
-        double[] xArray = gridData.getXArray();
-        double[] yArray = gridData.getYArray();
+        PolygonMask mask = PolygonMask.of(gridData.getXArray(), gridData.getYArray(), polygons);
+        double missingValue = gridData.getDoubleMissingValue();
         for (int i = 0; i < yNum; i++) {
             for (int j = 0; j < xNum; j++) {
-                if (GeoComputation.pointInPolygons(polygons, new PointD(xArray[j], yArray[i]))) {
+                if (mask.isInside(i * xNum + j)) {
                     cGrid.setValue(i, j, gridData.getDoubleValue(i, j));
                 } else {
-                    cGrid.setValue(i, j, gridData.getDoubleMissingValue());
+                    cGrid.setValue(i, j, missingValue);
                 }
             }
         }
@@ -93,32 +71,8 @@ public class GeoMathUtil {
             return gridData;
         }
 
-        int xNum = gridData.getXNum();
-        int yNum = gridData.getYNum();
-        GridData cGrid = new GridData(gridData);
-        double[] xArray = gridData.getXArray();
-        double[] yArray = gridData.getYArray();
-        for (int i = 0; i < yNum; i++) {
-            if (yArray[i] >= maskLayer.getExtent().minY && yArray[i] <= maskLayer.getExtent().maxY) {
-                for (int j = 0; j < xNum; j++) {
-                    if (xArray[j] >= maskLayer.getExtent().minX && xArray[j] <= maskLayer.getExtent().maxX) {
-                        if (GeoComputation.pointInPolygonLayer(maskLayer, new PointD(xArray[j], yArray[i]), false)) {
-                            cGrid.setValue(i, j, gridData.getDoubleValue(i, j));
-                        } else {
-                            cGrid.setValue(i, j, gridData.getDoubleMissingValue());
-                        }
-                    } else {
-                        cGrid.setValue(i, j, gridData.getDoubleMissingValue());
-                    }
-                }
-            } else {
-                for (int j = 0; j < xNum; j++) {
-                    cGrid.setValue(i, j, gridData.getDoubleMissingValue());
-                }
-            }
-        }
-
-        return cGrid;
+        List<PolygonShape> polygons = (List<PolygonShape>) maskLayer.getShapes();
+        return maskout(gridData, polygons);
     }
 
     /**
@@ -152,8 +106,9 @@ public class GeoMathUtil {
          StationData stData = new StationData();
          stData.projInfo = stationData.projInfo;
          stData.missingValue = stationData.missingValue;
+         PreparedPolygons prepared = new PreparedPolygons(polygonShapes);
          for (int i = 0; i < stationData.getStNum(); i++) {
-             if (GeoComputation.pointInPolygons(polygonShapes, new PointD(stationData.getX(i), stationData.getY(i)))) {
+             if (prepared.contains(stationData.getX(i), stationData.getY(i))) {
                  stData.addData(stationData.getStid(i), stationData.getX(i), stationData.getY(i), stationData.getValue(i));
              }
          }
@@ -208,8 +163,9 @@ public class GeoMathUtil {
          StationData stData = new StationData();
          stData.projInfo = stationData.projInfo;
          stData.missingValue = stationData.missingValue;
+         PreparedPolygons prepared = new PreparedPolygons(polygonShapes);
          for (int i = 0; i < stationData.getStNum(); i++) {
-             if (!GeoComputation.pointInPolygons(polygonShapes, new PointD(stationData.getX(i), stationData.getY(i)))) {
+             if (!prepared.contains(stationData.getX(i), stationData.getY(i))) {
                  stData.addData(stationData.getStid(i), stationData.getX(i), stationData.getY(i), stationData.getValue(i));
              }
          }
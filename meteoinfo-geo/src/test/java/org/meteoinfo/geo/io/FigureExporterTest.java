@@ -0,0 +1,237 @@
+package org.meteoinfo.geo.io;
+
+import org.junit.jupiter.api.Test;
+import org.meteoinfo.chart.Chart;
+import org.meteoinfo.common.PointD;
+import org.meteoinfo.geo.layer.VectorLayer;
+import org.meteoinfo.geo.layout.MapLayout;
+import org.meteoinfo.geometry.legend.LegendManage;
+import org.meteoinfo.geometry.shape.PolygonShape;
+import org.meteoinfo.geometry.shape.ShapeTypes;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FigureExporterTest {
+
+    static {
+        System.setProperty("java.awt.headless", "true");
+    }
+
+    /**
+     * Figure with red left half and blue right half
+     */
+    private static FigureExporter.Figure makeFigure(final int width, final int height) {
+        return new FigureExporter.Figure() {
+            @Override
+            public int getWidth() {
+                return width;
+            }
+
+            @Override
+            public int getHeight() {
+                return height;
+            }
+
+            @Override
+            public void draw(Graphics2D g) {
+                g.setColor(Color.red);
+                g.fillRect(0, 0, width / 2, height);
+                g.setColor(Color.blue);
+                g.fillRect(width / 2, 0, width - width / 2, height);
+            }
+        };
+    }
+
+    private static Callable<FigureExporter.Figure> builder(final int width, final int height) {
+        return new Callable<FigureExporter.Figure>() {
+            @Override
+            public FigureExporter.Figure call() {
+                return makeFigure(width, height);
+            }
+        };
+    }
+
+    @Test
+    public void testRender() {
+        BufferedImage image = FigureExporter.render(makeFigure(40, 20), null, BufferedImage.TYPE_INT_ARGB);
+        assertEquals(40, image.getWidth());
+        assertEquals(20, image.getHeight());
+        assertEquals(Color.red.getRGB(), image.getRGB(10, 10));
+        assertEquals(Color.blue.getRGB(), image.getRGB(30, 10));
+
+        image = FigureExporter.render(makeFigure(40, 20), 144, BufferedImage.TYPE_INT_RGB);
+        assertEquals(80, image.getWidth());
+        assertEquals(40, image.getHeight());
+        assertEquals(Color.red.getRGB(), image.getRGB(39, 39));
+        assertEquals(Color.blue.getRGB(), image.getRGB(41, 0));
+    }
+
+    @Test
+    public void testSubmitImages() throws Exception {
+        List<Future<BufferedImage>> futures = new ArrayList<>();
+        try (FigureExporter exporter = new FigureExporter(3)) {
+            for (int i = 0; i < 8; i++) {
+                futures.add(exporter.submit(builder(30 + i, 20), null));
+            }
+            for (int i = 0; i < 8; i++) {
+                BufferedImage image = futures.get(i).get();
+                assertEquals(30 + i, image.getWidth());
+                assertEquals(Color.red.getRGB(), image.getRGB(0, 0));
+            }
+
+            FigureExporter.Metrics metrics = exporter.getMetrics();
+            assertEquals(8, metrics.getFinishedNumber());
+            assertEquals(0, metrics.getFailedNumber());
+            assertEquals(0, metrics.getWrittenNumber());
+            assertEquals(0, metrics.getMeanWriteTime());
+        }
+    }
+
+    @Test
+    public void testSubmitFiles() throws Exception {
+        File dir = Files.createTempDirectory("figure").toFile();
+        try (FigureExporter exporter = new FigureExporter(2)) {
+            List<Future<File>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                String fileName = new File(dir, "figure_" + i + ".png").getPath();
+                futures.add(exporter.submit(builder(50, 40), fileName, null));
+            }
+            Future<BufferedImage> imageFuture = exporter.submit(builder(50, 40), null);
+            for (Future<File> future : futures) {
+                File file = future.get();
+                assertTrue(file.isFile());
+                assertTrue(file.length() > 0);
+            }
+            imageFuture.get();
+
+            FigureExporter.Metrics metrics = exporter.getMetrics();
+            assertEquals(5, metrics.getFinishedNumber());
+            assertEquals(4, metrics.getWrittenNumber());
+            assertTrue(metrics.getMeanWriteTime() > 0);
+        } finally {
+            File[] files = dir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void testExportDpi() throws Exception {
+        File file = File.createTempFile("figure", ".png");
+        try {
+            long[] times = FigureExporter.export(makeFigure(40, 20), file.getPath(), 144);
+            assertEquals(2, times.length);
+            assertTrue(times[0] >= 0 && times[1] >= 0);
+            assertTrue(file.length() > 0);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testFailedJob() throws Exception {
+        try (FigureExporter exporter = new FigureExporter(1)) {
+            Future<BufferedImage> future = exporter.submit(new Callable<FigureExporter.Figure>() {
+                @Override
+                public FigureExporter.Figure call() {
+                    throw new IllegalStateException("No figure");
+                }
+            }, null);
+            ExecutionException e = assertThrows(ExecutionException.class, future::get);
+            assertTrue(e.getCause() instanceof IllegalStateException);
+
+            FigureExporter.Metrics metrics = exporter.getMetrics();
+            assertEquals(0, metrics.getFinishedNumber());
+            assertEquals(1, metrics.getFailedNumber());
+        }
+    }
+
+    @Test
+    public void testChartFigure() {
+        Chart chart = new Chart();
+        chart.setBackground(Color.green);
+        FigureExporter.Figure figure = FigureExporter.of(chart, 60, 40);
+        assertEquals(60, figure.getWidth());
+        assertEquals(40, figure.getHeight());
+        BufferedImage image = FigureExporter.render(figure, null, BufferedImage.TYPE_INT_ARGB);
+        assertEquals(60, image.getWidth());
+        assertEquals(Color.green.getRGB(), image.getRGB(30, 20));
+    }
+
+    @Test
+    public void testMapLayoutFigure() {
+        MapLayout layout = new MapLayout();
+        layout.setPageBackColor(Color.yellow);
+        FigureExporter.Figure figure = FigureExporter.of(layout);
+        assertEquals(layout.getPageBounds().width, figure.getWidth());
+        assertEquals(layout.getPageBounds().height, figure.getHeight());
+        BufferedImage image = FigureExporter.render(figure, null, BufferedImage.TYPE_INT_ARGB);
+        assertEquals(Color.yellow.getRGB(), image.getRGB(1, 1));
+    }
+
+    /**
+     * Layer with a polygon in longitude/latitude
+     */
+    private static VectorLayer createLayer() {
+        VectorLayer layer = new VectorLayer(ShapeTypes.POLYGON);
+        PolygonShape shape = new PolygonShape();
+        shape.setPoints(Arrays.asList(new PointD(100, 20), new PointD(100, 40), new PointD(120, 40),
+                new PointD(120, 20), new PointD(100, 20)));
+        layer.addShape(shape);
+        layer.setLegendScheme(LegendManage.createSingleSymbolLegendScheme(ShapeTypes.POLYGON));
+        return layer;
+    }
+
+    @Test
+    public void testSharedLayer() throws Exception {
+        //Each job adds a clone of the shared layer to its own map layout
+        final VectorLayer layer = createLayer();
+        int handle = layer.getHandle();
+        Callable<FigureExporter.Figure> builder = new Callable<FigureExporter.Figure>() {
+            @Override
+            public FigureExporter.Figure call() {
+                MapLayout layout = new MapLayout();
+                layout.getActiveMapFrame().getMapView().addLayer((VectorLayer) layer.clone());
+                return FigureExporter.of(layout);
+            }
+        };
+        try (FigureExporter exporter = new FigureExporter(2)) {
+            Future<BufferedImage> f1 = exporter.submit(builder, null);
+            Future<BufferedImage> f2 = exporter.submit(builder, null);
+            BufferedImage image1 = f1.get();
+            BufferedImage image2 = f2.get();
+            assertEquals(image1.getWidth(), image2.getWidth());
+            assertEquals(image1.getHeight(), image2.getHeight());
+            for (int i = 0; i < image1.getWidth(); i++) {
+                for (int j = 0; j < image1.getHeight(); j++) {
+                    assertEquals(image1.getRGB(i, j), image2.getRGB(i, j));
+                }
+            }
+            assertEquals(2, exporter.getMetrics().getFinishedNumber());
+        }
+        assertEquals(handle, layer.getHandle());
+        assertEquals(1, layer.getShapeNum());
+        assertEquals(100, layer.getExtent().minX);
+    }
+
+    @Test
+    public void testThreadNumber() {
+        assertThrows(IllegalArgumentException.class, () -> new FigureExporter(0));
+    }
+}
@@ -0,0 +1,132 @@
+package org.meteoinfo.geo.mapdata;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.meteoinfo.common.Extent;
+import org.meteoinfo.geo.layer.VectorLayer;
+import org.meteoinfo.geometry.shape.PointShape;
+import org.meteoinfo.geometry.shape.Shape;
+import org.meteoinfo.geometry.shape.ShapeTypes;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShapeFileReaderTest {
+
+    private static final int POINT_NUM = 5;
+
+    private final List<File> files = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    private static void writeHeader(ByteBuffer buffer, int fileLength) {
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(0, 9994);
+        buffer.putInt(24, fileLength / 2);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(28, 1000);
+        buffer.putInt(32, ShapeTypes.POINT.getValue());
+        buffer.putDouble(36, 0);
+        buffer.putDouble(44, 0);
+        buffer.putDouble(52, POINT_NUM - 1);
+        buffer.putDouble(60, (POINT_NUM - 1) * 2);
+    }
+
+    /**
+     * Write a point shape file with points (i, i * 2) and no dbf file
+     */
+    private String createShapeFile() throws IOException {
+        File shp = File.createTempFile("points", ".shp");
+        String path = shp.getPath();
+        File shx = new File(path.substring(0, path.lastIndexOf('.')) + ".shx");
+        files.add(shp);
+        files.add(shx);
+
+        int recordLength = 8 + 20;
+        ByteBuffer shpBuffer = ByteBuffer.allocate(100 + recordLength * POINT_NUM);
+        ByteBuffer shxBuffer = ByteBuffer.allocate(100 + 8 * POINT_NUM);
+        writeHeader(shpBuffer, shpBuffer.capacity());
+        writeHeader(shxBuffer, shxBuffer.capacity());
+        for (int i = 0; i < POINT_NUM; i++) {
+            int offset = 100 + recordLength * i;
+            shpBuffer.order(ByteOrder.BIG_ENDIAN);
+            shpBuffer.putInt(offset, i + 1);
+            shpBuffer.putInt(offset + 4, 10);
+            shpBuffer.order(ByteOrder.LITTLE_ENDIAN);
+            shpBuffer.putInt(offset + 8, ShapeTypes.POINT.getValue());
+            shpBuffer.putDouble(offset + 12, i);
+            shpBuffer.putDouble(offset + 20, i * 2);
+
+            shxBuffer.order(ByteOrder.BIG_ENDIAN);
+            shxBuffer.putInt(100 + i * 8, offset / 2);
+            shxBuffer.putInt(100 + i * 8 + 4, 10);
+        }
+        Files.write(shp.toPath(), shpBuffer.array());
+        Files.write(shx.toPath(), shxBuffer.array());
+        return path;
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        try (ShapeFileReader reader = new ShapeFileReader(createShapeFile())) {
+            assertEquals(ShapeTypes.POINT, reader.getShapeType());
+            assertEquals(POINT_NUM, reader.getShapeNum());
+            PointShape shape = (PointShape) reader.getShape(3);
+            assertEquals(3, shape.getPoint().X);
+            assertEquals(6, shape.getPoint().Y);
+            assertSame(shape, reader.getShape(3));
+            assertArrayEquals(new int[]{1, 2}, reader.query(new Extent(0.5, 2.5, 0, 10)));
+            assertEquals(POINT_NUM, reader.getShapes().size());
+        }
+    }
+
+    @Test
+    public void testStateAfterClose() throws IOException {
+        ShapeFileReader reader = new ShapeFileReader(createShapeFile());
+        Shape shape = reader.getShape(1);
+        shape.setLegendIndex(2);
+        shape.setVisible(false);
+        shape.setSelected(true);
+        reader.close();
+
+        Shape read = reader.getShape(1);
+        assertNotSame(shape, read);
+        assertEquals(2, read.getLegendIndex());
+        assertFalse(read.isVisible());
+        assertTrue(read.isSelected());
+        assertTrue(reader.getShape(2).isVisible());
+        assertFalse(reader.getShape(2).isSelected());
+    }
+
+    @Test
+    public void testStateAfterEviction() throws IOException {
+        ShapeFileReader reader = new ShapeFileReader(createShapeFile());
+        reader.setCacheSize(1);
+        Shape shape = reader.getShape(0);
+        shape.setSelected(true);
+        reader.getShape(1);
+        Shape read = reader.getShape(0);
+        assertNotSame(shape, read);
+        assertTrue(read.isSelected());
+    }
+
+    @Test
+    public void testMissingDbf() throws Exception {
+        VectorLayer layer = ShapeFileManage.openShapeFile(createShapeFile());
+        assertEquals(POINT_NUM, layer.getShapeNum());
+        assertEquals(POINT_NUM, layer.getAttributeTable().getNumRecords());
+        assertEquals(POINT_NUM, layer.getAttributeTable().getTable().getRows().size());
+    }
+}
@@ -111,11 +111,22 @@ public class GeoComputation {
             return false;
         }
 
-        xOld = (poly.get(nPoints - 1)).X;
-        yOld = (poly.get(nPoints - 1)).Y;
+        PackedPointList packed = poly instanceof PackedPointList ? (PackedPointList) poly : null;
+        if (packed != null) {
+            xOld = packed.getX(nPoints - 1);
+            yOld = packed.getY(nPoints - 1);
+        } else {
+            xOld = (poly.get(nPoints - 1)).X;
+            yOld = (poly.get(nPoints - 1)).Y;
+        }
         for (i = 0; i < nPoints; i++) {
-            xNew = (poly.get(i)).X;
-            yNew = (poly.get(i)).Y;
+            if (packed != null) {
+                xNew = packed.getX(i);
+                yNew = packed.getY(i);
+            } else {
+                xNew = (poly.get(i)).X;
+                yNew = (poly.get(i)).Y;
+            }
             if (xNew > xOld) {
                 x1 = xOld;
                 x2 = xNew;
@@ -6,6 +6,7 @@
 package org.meteoinfo.geometry.geoprocess;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
@@ -16,6 +17,7 @@ import org.meteoinfo.common.PointD;
 import org.meteoinfo.common.PointF;
 import org.meteoinfo.geometry.shape.*;
 import org.meteoinfo.ndarray.*;
+import org.meteoinfo.ndarray.math.ArrayMath;
 
 /**
  *
@@ -30,6 +32,9 @@ public class GeometryUtil {
      * @return extent
      */
     public static Extent getPointsExtent(List<? extends PointD> PList) {
+        if (PList instanceof PackedPointList) {
+            return ((PackedPointList) PList).getExtent();
+        }
         if (PList.get(0) instanceof PointZ){
             Extent3D cET = new Extent3D();
             for (int i = 0; i < PList.size(); i++) {
@@ -343,33 +348,9 @@ public class GeometryUtil {
      */
     public static Array inPolygon(Array a, List<Number> x, List<Number> y, List<PolygonShape> polygons) {
         if (a.getRank() == 2) {
-            int xNum = x.size();
-            int yNum = y.size();
-
-            Array r = Array.factory(DataType.INT, a.getShape());
-            for (int i = 0; i < yNum; i++) {
-                for (int j = 0; j < xNum; j++) {
-                    if (GeoComputation.pointInPolygons(polygons, new PointD(x.get(j).doubleValue(), y.get(i).doubleValue()))) {
-                        r.setInt(i * xNum + j, 1);
-                    } else {
-                        r.setInt(i * xNum + j, -1);
-                    }
-                }
-            }
-
-            return r;
+            return PolygonMask.of(x, y, polygons).getMask();
         } else if (a.getRank() == 1) {
-            int n = x.size();
-            Array r = Array.factory(DataType.INT, a.getShape());
-            for (int i = 0; i < n; i++) {
-                if (GeoComputation.pointInPolygons(polygons, new PointD(x.get(i).doubleValue(), y.get(i).doubleValue()))) {
-                    r.setInt(i, 1);
-                } else {
-                    r.setInt(i, -1);
-                }
-            }
-
-            return r;
+            return PolygonMask.ofPoints(x, y, polygons).getMask();
         }
 
         return null;
@@ -384,20 +365,7 @@ public class GeometryUtil {
      * @return Result boolean array
      */
     public static Array inPolygon(Array x, Array y, List<PolygonShape> polygons) {
-        Array r = Array.factory(DataType.BOOLEAN, x.getShape());
-        IndexIterator xIter = x.getIndexIterator();
-        IndexIterator yIter = y.getIndexIterator();
-        IndexIterator rIter = r.getIndexIterator();
-        while (rIter.hasNext()){
-            if (GeoComputation.pointInPolygons(polygons, new PointD(xIter.getDoubleNext(),
-                    yIter.getDoubleNext()))) {
-                rIter.setBooleanNext(true);
-            } else {
-                rIter.setBooleanNext(false);
-            }
-        }
-
-        return r;
+        return PolygonMask.ofPoints(x, y, polygons).getInside();
     }
 
     /**
@@ -456,18 +424,7 @@ public class GeometryUtil {
      * @return Polygon index for each point
      */
     public static Array polygonIndex(Array x, Array y, List<PolygonShape> polygons) {
-        Array r = Array.factory(DataType.INT, x.getShape());
-        IndexIterator xIter = x.getIndexIterator();
-        IndexIterator yIter = y.getIndexIterator();
-        IndexIterator rIter = r.getIndexIterator();
-        int idx;
-        while (rIter.hasNext()){
-            idx = GeoComputation.polygonIndex(polygons, new PointD(xIter.getDoubleNext(),
-                    yIter.getDoubleNext()));
-            rIter.setIntNext(idx);
-        }
-
-        return r;
+        return PolygonMask.ofPoints(x, y, polygons).getPolygonIndex();
     }
 
     /**
@@ -496,22 +453,7 @@ public class GeometryUtil {
      * @return Result array with cell values of missing outside polygons
      */
     public static Array maskout(Array a, Array x, Array y, List<PolygonShape> polygons) {
-        Array r = Array.factory(a.getDataType(), a.getShape());
-        IndexIterator aIter = a.getIndexIterator();
-        IndexIterator xIter = x.getIndexIterator();
-        IndexIterator yIter = y.getIndexIterator();
-        int i = 0;
-        while (aIter.hasNext()){
-            if (GeoComputation.pointInPolygons(polygons, new PointD(xIter.getDoubleNext(),
-                    yIter.getDoubleNext()))) {
-                r.setObject(i, aIter.getObjectNext());
-            } else {
-                r.setObject(i, Double.NaN);
-                aIter.next();
-            }
-            i++;
-        }
-        return r;
+        return PolygonMask.ofPoints(x, y, polygons).maskout(a, Double.NaN);
     }
 
     /**
@@ -524,22 +466,7 @@ public class GeometryUtil {
      * @return Result array with cell values of missing inside polygons
      */
     public static Array maskin(Array a, Array x, Array y, List<PolygonShape> polygons) {
-        Array r = Array.factory(a.getDataType(), a.getShape());
-        IndexIterator aIter = a.getIndexIterator();
-        IndexIterator xIter = x.getIndexIterator();
-        IndexIterator yIter = y.getIndexIterator();
-        int i = 0;
-        while(aIter.hasNext()) {
-            if (GeoComputation.pointInPolygons(polygons, new PointD(xIter.getDoubleNext(),
-                    yIter.getDoubleNext()))) {
-                r.setObject(i, Double.NaN);
-                aIter.next();
-            } else {
-                r.setObject(i, aIter.getObjectNext());
-            }
-            i++;
-        }
-        return r;
+        return PolygonMask.ofPoints(x, y, polygons).maskin(a, Double.NaN);
     }
 
     /**
@@ -552,37 +479,7 @@ public class GeometryUtil {
      * @return Result arrays removing cells outside polygons
      */
     public static Array[] maskout_Remove(Array a, Array x, Array y, List<PolygonShape> polygons) {
-        List<Object> rdata = new ArrayList<>();
-        List<Double> rxdata = new ArrayList<>();
-        List<Double> rydata = new ArrayList<>();
-        IndexIterator aIter = a.getIndexIterator();
-        IndexIterator xIter = x.getIndexIterator();
-        IndexIterator yIter = y.getIndexIterator();
-        double va, vx, vy;
-        while(aIter.hasNext()) {
-            va = aIter.getDoubleNext();
-            vx = xIter.getDoubleNext();
-            vy = yIter.getDoubleNext();
-            if (GeoComputation.pointInPolygons(polygons, new PointD(vx, vy))) {
-                rdata.add(va);
-                rxdata.add(vx);
-                rydata.add(vy);
-            }
-        }
-
-        int n = rdata.size();
-        int[] shape = new int[1];
-        shape[0] = n;
-        Array r = Array.factory(a.getDataType(), shape);
-        Array rx = Array.factory(x.getDataType(), shape);
-        Array ry = Array.factory(y.getDataType(), shape);
-        for (int i = 0; i < n; i++) {
-            r.setObject(i, rdata.get(i));
-            rx.setDouble(i, rxdata.get(i));
-            ry.setDouble(i, rydata.get(i));
-        }
-
-        return new Array[]{r, rx, ry};
+        return PolygonMask.ofPoints(x, y, polygons).remove(a, x, y, false);
     }
 
     /**
@@ -595,37 +492,7 @@ public class GeometryUtil {
      * @return Result arrays removing cells inside polygons
      */
     public static Array[] maskin_Remove(Array a, Array x, Array y, List<PolygonShape> polygons) {
-        List<Object> rdata = new ArrayList<>();
-        List<Double> rxdata = new ArrayList<>();
-        List<Double> rydata = new ArrayList<>();
-        IndexIterator aIter = a.getIndexIterator();
-        IndexIterator xIter = x.getIndexIterator();
-        IndexIterator yIter = y.getIndexIterator();
-        double va, vx, vy;
-        while(aIter.hasNext()) {
-            va = aIter.getDoubleNext();
-            vx = xIter.getDoubleNext();
-            vy = yIter.getDoubleNext();
-            if (!GeoComputation.pointInPolygons(polygons, new PointD(vx, vy))) {
-                rdata.add(va);
-                rxdata.add(vx);
-                rydata.add(vy);
-            }
-        }
-
-        int n = rdata.size();
-        int[] shape = new int[1];
-        shape[0] = n;
-        Array r = Array.factory(a.getDataType(), shape);
-        Array rx = Array.factory(x.getDataType(), shape);
-        Array ry = Array.factory(y.getDataType(), shape);
-        for (int i = 0; i < n; i++) {
-            r.setObject(i, rdata.get(i));
-            rx.setDouble(i, rxdata.get(i));
-            ry.setDouble(i, rydata.get(i));
-        }
-
-        return new Array[]{r, rx, ry};
+        return PolygonMask.ofPoints(x, y, polygons).remove(a, x, y, true);
     }
 
     /**
@@ -652,38 +519,11 @@ public class GeometryUtil {
      * @return Result array with cell values of missing outside polygons
      */
     public static Array maskout(Array a, List<Number> x, List<Number> y, List<PolygonShape> polygons, Number missingValue) {
-        int xNum = x.size();
-        int yNum = y.size();
-
-        Array r = Array.factory(a.getDataType(), a.getShape());
-        IndexIterator iter = a.getIndexIterator();
         if (a.getRank() == 1) {
-            int i = 0;
-            while (iter.hasNext()) {
-                if (GeoComputation.pointInPolygons(polygons, new PointD(x.get(i).doubleValue(), y.get(i).doubleValue()))) {
-                    r.setObject(i, iter.getObjectNext());
-                } else {
-                    r.setObject(i, missingValue);
-                    iter.next();
-                }
-                i++;
-            }
-        } else if (a.getRank() == 2) {
-            int idx;
-            for (int i = 0; i < yNum; i++) {
-                for (int j = 0; j < xNum; j++) {
-                    idx = i * xNum + j;
-                    if (GeoComputation.pointInPolygons(polygons, new PointD(x.get(j).doubleValue(), y.get(i).doubleValue()))) {
-                        r.setObject(idx, iter.getObjectNext());
-                    } else {
-                        r.setObject(idx, missingValue);
-                        iter.next();
-                    }
-                }
-            }
+            return PolygonMask.ofPoints(x, y, polygons).maskout(a, missingValue);
+        } else {
+            return PolygonMask.of(x, y, polygons).maskout(a, missingValue);
         }
-
-        return r;
     }
 
     /**
@@ -695,23 +535,7 @@ public class GeometryUtil {
      * @return Result array
      */
     public static Array maskout(Array a, Array m, Number missingValue) {
-        Array r = Array.factory(a.getDataType(), a.getShape());
-        IndexIterator aIter = a.getIndexIterator();
-        IndexIterator mIter = m.getIndexIterator();
-        double va, vm;
-        int i = 0;
-        while (aIter.hasNext()){
-            va = aIter.getDoubleNext();
-            vm = mIter.getDoubleNext();
-            if (vm < 0) {
-                r.setObject(i, missingValue);
-            } else {
-                r.setObject(i, va);
-            }
-            i++;
-        }
-
-        return r;
+        return ArrayMath.maskout(a, m, missingValue);
     }
 
     /**
@@ -733,23 +557,7 @@ public class GeometryUtil {
      * @return Result array
      */
     public static Array maskin(Array a, Array m) {
-        Array r = Array.factory(a.getDataType(), a.getShape());
-        IndexIterator aIter = a.getIndexIterator();
-        IndexIterator mIter = m.getIndexIterator();
-        double va, vm;
-        int i = 0;
-        while(aIter.hasNext()) {
-            va = aIter.getDoubleNext();
-            vm = mIter.getDoubleNext();
-            if (vm < 0) {
-                r.setObject(i, va);
-            } else {
-                r.setObject(i, Double.NaN);
-            }
-            i++;
-        }
-
-        return r;
+        return ArrayMath.maskin(a, m);
     }
     
     /**
@@ -791,6 +599,154 @@ public class GeometryUtil {
         return isConvex(polygon.getOutLine());
     }
 
+    /**
+     * Simplify a point line with Douglas-Peucker method. The points closer than
+     * the tolerance to the last kept point are removed before the Douglas-Peucker
+     * process. A closed line is kept with at least 4 points.
+     *
+     * @param points The points
+     * @param tolerance Distance tolerance
+     * @param closed Whether the line is closed (polygon ring)
+     * @return Interleaved x, y coordinate array of the simplified line
+     */
+    public static double[] simplify(List<? extends PointD> points, double tolerance, boolean closed) {
+        int n = points.size();
+        double[] xy = new double[n * 2];
+        if (points instanceof PackedPointList) {
+            ((PackedPointList) points).copyTo(xy, 0);
+        } else {
+            for (int i = 0; i < n; i++) {
+                PointD p = points.get(i);
+                xy[i * 2] = p.X;
+                xy[i * 2 + 1] = p.Y;
+            }
+        }
+        return simplify(xy, tolerance, closed);
+    }
+
+    /**
+     * Simplify a point line with Douglas-Peucker method. The points closer than
+     * the tolerance to the last kept point are removed before the Douglas-Peucker
+     * process. A closed line is kept with at least 4 points. The line is returned
+     * unchanged if the tolerance is not positive.
+     *
+     * @param xy Interleaved x, y coordinate array of the line
+     * @param tolerance Distance tolerance
+     * @param closed Whether the line is closed (polygon ring)
+     * @return Interleaved x, y coordinate array of the simplified line
+     */
+    public static double[] simplify(double[] xy, double tolerance, boolean closed) {
+        int n = xy.length / 2;
+        if (n <= 4 || !(tolerance > 0)) {
+            return xy;
+        }
+
+        //Radial distance filter
+        double tol2 = tolerance * tolerance;
+        double[] r = new double[xy.length];
+        r[0] = xy[0];
+        r[1] = xy[1];
+        int m = 1;
+        for (int i = 1; i < n - 1; i++) {
+            double dx = xy[i * 2] - r[(m - 1) * 2];
+            double dy = xy[i * 2 + 1] - r[(m - 1) * 2 + 1];
+            if (dx * dx + dy * dy >= tol2) {
+                r[m * 2] = xy[i * 2];
+                r[m * 2 + 1] = xy[i * 2 + 1];
+                m += 1;
+            }
+        }
+        r[m * 2] = xy[(n - 1) * 2];
+        r[m * 2 + 1] = xy[(n - 1) * 2 + 1];
+        m += 1;
+        if (closed && m < 4) {
+            int[] idxs = new int[]{0, n / 3, n * 2 / 3, n - 1};
+            for (int i = 0; i < 4; i++) {
+                r[i * 2] = xy[idxs[i] * 2];
+                r[i * 2 + 1] = xy[idxs[i] * 2 + 1];
+            }
+            return Arrays.copyOf(r, 8);
+        }
+
+        //Douglas-Peucker
+        boolean[] keep = new boolean[m];
+        keep[0] = true;
+        keep[m - 1] = true;
+        int[] stack = new int[64];
+        int sp = 0;
+        stack[sp++] = 0;
+        stack[sp++] = m - 1;
+        while (sp > 0) {
+            int last = stack[--sp];
+            int first = stack[--sp];
+            double maxDist = tol2;
+            int idx = -1;
+            for (int i = first + 1; i < last; i++) {
+                double d = segmentDistance2(r, i, first, last);
+                if (d > maxDist) {
+                    maxDist = d;
+                    idx = i;
+                }
+            }
+            if (idx > 0) {
+                keep[idx] = true;
+                if (sp + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[sp++] = first;
+                stack[sp++] = idx;
+                stack[sp++] = idx;
+                stack[sp++] = last;
+            }
+        }
+
+        if (closed) {
+            int kn = 0;
+            for (boolean k : keep) {
+                if (k) {
+                    kn += 1;
+                }
+            }
+            if (kn < 4) {
+                keep[m / 3] = true;
+                keep[m * 2 / 3] = true;
+            }
+        }
+
+        int k = 0;
+        for (int i = 0; i < m; i++) {
+            if (keep[i]) {
+                r[k * 2] = r[i * 2];
+                r[k * 2 + 1] = r[i * 2 + 1];
+                k += 1;
+            }
+        }
+        return Arrays.copyOf(r, k * 2);
+    }
+
+    /**
+     * Squared distance from a point to a segment
+     */
+    private static double segmentDistance2(double[] xy, int p, int a, int b) {
+        double x = xy[p * 2], y = xy[p * 2 + 1];
+        double x1 = xy[a * 2], y1 = xy[a * 2 + 1];
+        double dx = xy[b * 2] - x1, dy = xy[b * 2 + 1] - y1;
+        double len2 = dx * dx + dy * dy;
+        if (len2 > 0) {
+            double t = ((x - x1) * dx + (y - y1) * dy) / len2;
+            if (t > 1) {
+                x1 += dx;
+                y1 += dy;
+            } else if (t > 0) {
+                x1 += t * dx;
+                y1 += t * dy;
+            }
+        }
+        dx = x - x1;
+        dy = y - y1;
+        return dx * dx + dy * dy;
+    }
+
     /**
      * Get polygon shape coordinate arrays
      * @param pgs The polygon shape
@@ -0,0 +1,282 @@
+package org.meteoinfo.geometry.geoprocess;
+
+import org.meteoinfo.common.Extent;
+import org.meteoinfo.common.PointD;
+import org.meteoinfo.geometry.shape.Shape;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Packed R-tree of shape extents.
+ *
+ * <p>The tree is bulk loaded once with the Sort-Tile-Recursive (STR) method:
+ * the items are sorted by the x center, cut into vertical slices, sorted by the
+ * y center inside each slice and packed into full nodes, and the node level is
+ * packed the same way until one root node is left. The node bounds are kept in
+ * flat arrays. The tree does not support editing, it should be rebuilt when the
+ * shapes are changed.
+ *
+ * @author Yaqiang Wang
+ */
+public class PackedRTree {
+
+    // <editor-fold desc="Variables">
+    private static final int NODE_CAPACITY = 16;
+
+    private final int size;
+    private final int[] items;
+    private final double[] itemBounds;
+    //Node bounds (minX, minY, maxX, maxY) and child index ranges of each level,
+    //level 0 is the leaf level with children in the items array
+    private final double[][] bounds;
+    private final int[][] starts;
+    private final int[][] ends;
+    // </editor-fold>
+    // <editor-fold desc="Constructor">
+
+    /**
+     * Constructor
+     *
+     * @param shapes The shapes
+     */
+    public PackedRTree(List<? extends Shape> shapes) {
+        this(extents(shapes));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param itemBounds Item bounds array with minX, minY, maxX, maxY of each
+     * item
+     */
+    public PackedRTree(double[] itemBounds) {
+        this.size = itemBounds.length / 4;
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        this.items = strOrder(itemBounds, order);
+        this.itemBounds = new double[size * 4];
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(itemBounds, items[i] * 4, this.itemBounds, i * 4, 4);
+        }
+
+        //Leaf level
+        int n = (size + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        double[] levelBounds = new double[n * 4];
+        int[] levelStarts = new int[n];
+        int[] levelEnds = new int[n];
+        for (int i = 0; i < n; i++) {
+            levelStarts[i] = i * NODE_CAPACITY;
+            levelEnds[i] = Math.min(size, (i + 1) * NODE_CAPACITY);
+            union(this.itemBounds, levelStarts[i], levelEnds[i], levelBounds, i);
+        }
+
+        List<double[]> boundsList = new ArrayList<>();
+        List<int[]> startsList = new ArrayList<>();
+        List<int[]> endsList = new ArrayList<>();
+        while (true) {
+            if (n <= 1) {
+                boundsList.add(levelBounds);
+                startsList.add(levelStarts);
+                endsList.add(levelEnds);
+                break;
+            }
+
+            //Pack the nodes of this level and reorder them in STR order
+            int[] nodeOrder = new int[n];
+            for (int i = 0; i < n; i++) {
+                nodeOrder[i] = i;
+            }
+            nodeOrder = strOrder(levelBounds, nodeOrder);
+            double[] sBounds = new double[n * 4];
+            int[] sStarts = new int[n];
+            int[] sEnds = new int[n];
+            for (int i = 0; i < n; i++) {
+                System.arraycopy(levelBounds, nodeOrder[i] * 4, sBounds, i * 4, 4);
+                sStarts[i] = levelStarts[nodeOrder[i]];
+                sEnds[i] = levelEnds[nodeOrder[i]];
+            }
+            boundsList.add(sBounds);
+            startsList.add(sStarts);
+            endsList.add(sEnds);
+
+            int pn = (n + NODE_CAPACITY - 1) / NODE_CAPACITY;
+            levelBounds = new double[pn * 4];
+            levelStarts = new int[pn];
+            levelEnds = new int[pn];
+            for (int i = 0; i < pn; i++) {
+                levelStarts[i] = i * NODE_CAPACITY;
+                levelEnds[i] = Math.min(n, (i + 1) * NODE_CAPACITY);
+                union(sBounds, levelStarts[i], levelEnds[i], levelBounds, i);
+            }
+            n = pn;
+        }
+
+        int levels = boundsList.size();
+        this.bounds = boundsList.toArray(new double[levels][]);
+        this.starts = startsList.toArray(new int[levels][]);
+        this.ends = endsList.toArray(new int[levels][]);
+    }
+    // </editor-fold>
+    // <editor-fold desc="Get Set Methods">
+
+    /**
+     * Get item number
+     *
+     * @return Item number
+     */
+    public int size() {
+        return this.size;
+    }
+    // </editor-fold>
+    // <editor-fold desc="Methods">
+
+    private static double[] extents(List<? extends Shape> shapes) {
+        double[] r = new double[shapes.size() * 4];
+        for (int i = 0; i < shapes.size(); i++) {
+            Extent extent = shapes.get(i).getExtent();
+            r[i * 4] = extent.minX;
+            r[i * 4 + 1] = extent.minY;
+            r[i * 4 + 2] = extent.maxX;
+            r[i * 4 + 3] = extent.maxY;
+        }
+        return r;
+    }
+
+    private static void union(double[] childBounds, int start, int end, double[] nodeBounds, int node) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = start; i < end; i++) {
+            int k = i * 4;
+            minX = Math.min(minX, childBounds[k]);
+            minY = Math.min(minY, childBounds[k + 1]);
+            maxX = Math.max(maxX, childBounds[k + 2]);
+            maxY = Math.max(maxY, childBounds[k + 3]);
+        }
+        nodeBounds[node * 4] = minX;
+        nodeBounds[node * 4 + 1] = minY;
+        nodeBounds[node * 4 + 2] = maxX;
+        nodeBounds[node * 4 + 3] = maxY;
+    }
+
+    /**
+     * Sort-Tile-Recursive order of the boxes
+     */
+    private static int[] strOrder(double[] boxes, int[] order) {
+        int n = order.length;
+        if (n <= NODE_CAPACITY) {
+            return order;
+        }
+
+        int nodeNum = (n + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        int sliceNum = (int) Math.ceil(Math.sqrt(nodeNum));
+        int sliceSize = NODE_CAPACITY * ((nodeNum + sliceNum - 1) / sliceNum);
+        sortByCenter(boxes, order, 0, n, 0);
+        for (int s = 0; s < n; s += sliceSize) {
+            sortByCenter(boxes, order, s, Math.min(n, s + sliceSize), 1);
+        }
+        return order;
+    }
+
+    private static void sortByCenter(double[] boxes, int[] order, int from, int to, int dim) {
+        //Sort keys with the float center in the high bits and the item in the
+        //low bits, the float precision is enough for the packing order
+        int n = to - from;
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            int k = order[from + i] * 4;
+            int bits = Float.floatToIntBits((float) (boxes[k + dim] + boxes[k + dim + 2]));
+            bits ^= (bits >> 31) & 0x7fffffff;
+            keys[i] = ((long) bits << 32) | (order[from + i] & 0xffffffffL);
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < n; i++) {
+            order[from + i] = (int) keys[i];
+        }
+    }
+
+    /**
+     * Query the items whose extents intersect an extent
+     *
+     * @param extent The extent
+     * @return Ascending item indexes
+     */
+    public int[] query(Extent extent) {
+        return query(extent.minX, extent.minY, extent.maxX, extent.maxY);
+    }
+
+    /**
+     * Query the items whose extents contain a point
+     *
+     * @param p The point
+     * @return Ascending item indexes
+     */
+    public int[] query(PointD p) {
+        return query(p.X, p.Y, p.X, p.Y);
+    }
+
+    /**
+     * Query the items whose extents intersect a rectangle, the boundaries are
+     * included
+     *
+     * @param minX Minimum x
+     * @param minY Minimum y
+     * @param maxX Maximum x
+     * @param maxY Maximum y
+     * @return Ascending item indexes
+     */
+    public int[] query(double minX, double minY, double maxX, double maxY) {
+        if (size == 0) {
+            return new int[0];
+        }
+
+        int[] r = new int[16];
+        int rn = 0;
+        int top = bounds.length - 1;
+        //Stack of (level, node) pairs
+        int[] stack = new int[64];
+        int sp = 0;
+        stack[sp++] = top;
+        stack[sp++] = 0;
+        while (sp > 0) {
+            int node = stack[--sp];
+            int level = stack[--sp];
+            double[] b = bounds[level];
+            int k = node * 4;
+            if (b[k] > maxX || b[k + 1] > maxY || b[k + 2] < minX || b[k + 3] < minY) {
+                continue;
+            }
+            int start = starts[level][node];
+            int end = ends[level][node];
+            if (level == 0) {
+                for (int i = start; i < end; i++) {
+                    int j = i * 4;
+                    if (itemBounds[j] > maxX || itemBounds[j + 1] > maxY || itemBounds[j + 2] < minX
+                            || itemBounds[j + 3] < minY) {
+                        continue;
+                    }
+                    if (rn == r.length) {
+                        r = Arrays.copyOf(r, rn * 2);
+                    }
+                    r[rn++] = items[i];
+                }
+            } else {
+                if (sp + (end - start) * 2 > stack.length) {
+                    stack = Arrays.copyOf(stack, Math.max(stack.length * 2, sp + (end - start) * 2));
+                }
+                for (int i = start; i < end; i++) {
+                    stack[sp++] = level - 1;
+                    stack[sp++] = i;
+                }
+            }
+        }
+
+        r = Arrays.copyOf(r, rn);
+        Arrays.sort(r);
+        return r;
+    }
+    // </editor-fold>
+}
@@ -0,0 +1,783 @@
+package org.meteoinfo.geometry.geoprocess;
+
+import org.meteoinfo.common.Extent;
+import org.meteoinfo.common.PointD;
+import org.meteoinfo.geometry.shape.PackedPointList;
+import org.meteoinfo.geometry.shape.Polygon;
+import org.meteoinfo.geometry.shape.PolygonShape;
+import org.meteoinfo.ndarray.Array;
+import org.meteoinfo.ndarray.DataType;
+import org.meteoinfo.ndarray.IndexIterator;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mask of the cells of a grid or the points inside polygons.
+ *
+ * <p>The polygons are rasterised onto a regular or rectilinear grid column by
+ * column: the crossings of the polygon edges with each grid column are sorted
+ * and the rows between them are filled, with the same edge rule as
+ * {@link GeoComputation#pointInPolygon(java.util.List, PointD)}. Holes are
+ * removed from their polygons, and the cells inside several polygons get the
+ * index of the first polygon. The masks are cached by copies of the grid
+ * coordinates and the polygon geometries up to a maximum number of bytes, so
+ * masking many arrays on the same grid only rasterises the polygons once, and
+ * a polygon edited in place gets a new mask.
+ *
+ * @author Yaqiang Wang
+ */
+public class PolygonMask {
+
+    // <editor-fold desc="Variables">
+    private static long maxCacheBytes = 64L * 1024 * 1024;
+    private static long cacheBytes = 0;
+    private static final LinkedHashMap<Key, PolygonMask> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final int[] shape;
+    private final int[] index;
+    // </editor-fold>
+    // <editor-fold desc="Constructor">
+
+    private PolygonMask(int[] shape, int[] index) {
+        this.shape = shape;
+        this.index = index;
+    }
+    // </editor-fold>
+    // <editor-fold desc="Get Set Methods">
+
+    /**
+     * Get maximum cached bytes of the masks and their keys
+     * @return Maximum cached bytes
+     */
+    public static long getMaxCacheBytes() {
+        synchronized (cache) {
+            return maxCacheBytes;
+        }
+    }
+
+    /**
+     * Set maximum cached bytes of the masks and their keys, the least
+     * recently used masks are removed to fit the new size
+     * @param value Maximum cached bytes
+     */
+    public static void setMaxCacheBytes(long value) {
+        synchronized (cache) {
+            maxCacheBytes = value;
+            trimCache();
+        }
+    }
+
+    /**
+     * Get cached bytes of the masks and their keys
+     * @return Cached bytes
+     */
+    public static long getCacheBytes() {
+        synchronized (cache) {
+            return cacheBytes;
+        }
+    }
+
+    /**
+     * Clear cached masks
+     */
+    public static void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+            cacheBytes = 0;
+        }
+    }
+
+    /**
+     * Get mask shape
+     * @return Mask shape
+     */
+    public int[] getShape() {
+        return shape.clone();
+    }
+
+    /**
+     * Get mask size
+     * @return Mask size
+     */
+    public int getSize() {
+        return index.length;
+    }
+
+    /**
+     * Get if a cell is inside the polygons
+     * @param i Cell index
+     * @return Inside or not
+     */
+    public boolean isInside(int i) {
+        return index[i] >= 0;
+    }
+
+    /**
+     * Get the index of the polygon containing a cell
+     * @param i Cell index
+     * @return Polygon index, -1 if the cell is outside the polygons
+     */
+    public int getPolygonIndex(int i) {
+        return index[i];
+    }
+
+    /**
+     * Get number of the cells inside the polygons
+     * @return Inside cell number
+     */
+    public int getInsideNumber() {
+        int n = 0;
+        for (int idx : index) {
+            if (idx >= 0) {
+                n += 1;
+            }
+        }
+        return n;
+    }
+    // </editor-fold>
+    // <editor-fold desc="Methods">
+
+    /**
+     * Get polygon mask of a rectilinear grid
+     *
+     * @param x X coordinates of the grid columns
+     * @param y Y coordinates of the grid rows
+     * @param polygons The polygons
+     * @return Polygon mask with shape [y number, x number]
+     */
+    public static PolygonMask of(double[] x, double[] y, List<? extends PolygonShape> polygons) {
+        Key key = new Key(x, y, false, polygons);
+        PolygonMask mask;
+        synchronized (cache) {
+            mask = cache.get(key);
+        }
+        if (mask == null) {
+            mask = putCache(key, new PolygonMask(new int[]{y.length, x.length}, rasterize(x, y, polygons)));
+        }
+        return mask;
+    }
+
+    /**
+     * Get polygon mask of a rectilinear grid
+     *
+     * @param x X coordinates of the grid columns
+     * @param y Y coordinates of the grid rows
+     * @param polygons The polygons
+     * @return Polygon mask with shape [y number, x number]
+     */
+    public static PolygonMask of(List<Number> x, List<Number> y, List<? extends PolygonShape> polygons) {
+        return of(toDoubles(x), toDoubles(y), polygons);
+    }
+
+    /**
+     * Get polygon mask of points. The points of 2D coordinate arrays of a
+     * rectilinear grid are rasterised, other points are tested one by one.
+     *
+     * @param x X coordinates of the points
+     * @param y Y coordinates of the points, same shape with x
+     * @param polygons The polygons
+     * @return Polygon mask with the shape of the coordinate arrays
+     */
+    public static PolygonMask ofPoints(Array x, Array y, List<? extends PolygonShape> polygons) {
+        return ofPoints((double[]) x.get1DJavaArray(double.class), (double[]) y.get1DJavaArray(double.class),
+                x.getShape(), polygons);
+    }
+
+    /**
+     * Get polygon mask of points
+     *
+     * @param x X coordinates of the points
+     * @param y Y coordinates of the points
+     * @param polygons The polygons
+     * @return Polygon mask with shape [point number]
+     */
+    public static PolygonMask ofPoints(List<Number> x, List<Number> y, List<? extends PolygonShape> polygons) {
+        return ofPoints(toDoubles(x), toDoubles(y), new int[]{x.size()}, polygons);
+    }
+
+    private static PolygonMask ofPoints(double[] xs, double[] ys, int[] pShape, List<? extends PolygonShape> polygons) {
+        if (pShape.length == 2) {
+            double[][] xy = rectilinear(xs, ys, pShape[0], pShape[1]);
+            if (xy != null) {
+                return of(xy[0], xy[1], polygons);
+            }
+        }
+
+        Key key = new Key(xs, ys, true, polygons);
+        PolygonMask mask;
+        synchronized (cache) {
+            mask = cache.get(key);
+        }
+        if (mask == null) {
+            mask = putCache(key, new PolygonMask(pShape, testPoints(xs, ys, polygons)));
+        }
+        return mask;
+    }
+
+    private static long sizeBytes(Key key, PolygonMask mask) {
+        return key.getSizeBytes() + mask.index.length * 4L;
+    }
+
+    /**
+     * Put a mask into the cache, the mask cached by another thread is
+     * returned if there is one
+     */
+    private static PolygonMask putCache(Key key, PolygonMask mask) {
+        long bytes = sizeBytes(key, mask);
+        synchronized (cache) {
+            PolygonMask cached = cache.putIfAbsent(key, mask);
+            if (cached != null) {
+                return cached;
+            }
+            cacheBytes += bytes;
+            trimCache();
+        }
+        return mask;
+    }
+
+    /**
+     * Remove the least recently used masks until the cached bytes fit the
+     * maximum cached bytes, the caller should hold the cache lock
+     */
+    private static void trimCache() {
+        Iterator<Map.Entry<Key, PolygonMask>> iter = cache.entrySet().iterator();
+        while (cacheBytes > maxCacheBytes && iter.hasNext()) {
+            Map.Entry<Key, PolygonMask> eldest = iter.next();
+            cacheBytes -= sizeBytes(eldest.getKey(), eldest.getValue());
+            iter.remove();
+        }
+    }
+
+    private static double[] toDoubles(List<Number> values) {
+        double[] r = new double[values.size()];
+        for (int i = 0; i < r.length; i++) {
+            r[i] = values.get(i).doubleValue();
+        }
+        return r;
+    }
+
+    /**
+     * Get the column and row coordinates if the 2D point coordinates are a
+     * rectilinear grid
+     */
+    private static double[][] rectilinear(double[] xs, double[] ys, int ny, int nx) {
+        for (int i = 1; i < ny; i++) {
+            int offset = i * nx;
+            for (int j = 0; j < nx; j++) {
+                if (xs[offset + j] != xs[j]) {
+                    return null;
+                }
+            }
+        }
+        double[] x = Arrays.copyOf(xs, nx);
+        double[] y = new double[ny];
+        for (int i = 0; i < ny; i++) {
+            int offset = i * nx;
+            y[i] = ys[offset];
+            for (int j = 1; j < nx; j++) {
+                if (ys[offset + j] != y[i]) {
+                    return null;
+                }
+            }
+        }
+        return new double[][]{x, y};
+    }
+
+    private static int[] testPoints(double[] xs, double[] ys, List<? extends PolygonShape> polygons) {
+        return new PreparedPolygons(polygons).polygonIndex(xs, ys);
+    }
+
+    /**
+     * Sorted order of coordinates
+     */
+    private static int[] argsort(double[] values) {
+        int n = values.length;
+        boolean ascending = true;
+        boolean descending = true;
+        for (int i = 1; i < n; i++) {
+            if (!(values[i] >= values[i - 1])) {
+                ascending = false;
+            }
+            if (!(values[i] <= values[i - 1])) {
+                descending = false;
+            }
+        }
+        int[] order = new int[n];
+        if (ascending || descending) {
+            for (int i = 0; i < n; i++) {
+                order[i] = ascending ? i : n - 1 - i;
+            }
+        } else {
+            Integer[] idx = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                idx[i] = i;
+            }
+            Arrays.sort(idx, (a, b) -> Double.compare(values[a], values[b]));
+            for (int i = 0; i < n; i++) {
+                order[i] = idx[i];
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Number of the sorted values less than v (strict) or not greater than v
+     */
+    private static int bound(double[] sorted, double v, boolean strict) {
+        int low = 0, high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (strict ? sorted[mid] < v : sorted[mid] <= v) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int[] rasterize(double[] x, double[] y, List<? extends PolygonShape> polygons) {
+        int nx = x.length;
+        int ny = y.length;
+        int[] r = new int[ny * nx];
+        Arrays.fill(r, -1);
+        int[] xOrder = argsort(x);
+        int[] yOrder = argsort(y);
+        double[] xs = new double[nx];
+        double[] ys = new double[ny];
+        for (int i = 0; i < nx; i++) {
+            xs[i] = x[xOrder[i]];
+        }
+        for (int i = 0; i < ny; i++) {
+            ys[i] = y[yOrder[i]];
+        }
+
+        int[] stamp = new int[ny];
+        int token = 0;
+        for (int k = 0; k < polygons.size(); k++) {
+            PolygonShape ps = polygons.get(k);
+            Extent extent = ps.getExtent();
+            int c0 = bound(xs, extent.minX, true);
+            int c1 = bound(xs, extent.maxX, false);
+            if (c0 >= c1) {
+                continue;
+            }
+            switch (ps.getShapeType()) {
+                case CIRCLE:
+                case ELLIPSE:
+                case ARC:
+                    //Not defined by border points
+                    int r0 = bound(ys, extent.minY, true);
+                    int r1 = bound(ys, extent.maxY, false);
+                    for (int c = c0; c < c1; c++) {
+                        for (int rr = r0; rr < r1; rr++) {
+                            int idx = yOrder[rr] * nx + xOrder[c];
+                            if (r[idx] < 0 && GeoComputation.pointInPolygon(ps, new PointD(xs[c], ys[rr]))) {
+                                r[idx] = k;
+                            }
+                        }
+                    }
+                    continue;
+            }
+
+            for (Polygon polygon : ps.getPolygons()) {
+                Crossings outline = new Crossings(polygon.getOutLine(), xs, c0, c1);
+                if (outline.isEmpty()) {
+                    continue;
+                }
+                Crossings[] holes = null;
+                if (polygon.hasHole()) {
+                    List<List<? extends PointD>> holeLines = polygon.getHoleLines();
+                    holes = new Crossings[holeLines.size()];
+                    for (int h = 0; h < holes.length; h++) {
+                        holes[h] = new Crossings(holeLines.get(h), xs, c0, c1);
+                    }
+                }
+
+                for (int c = outline.c0; c < outline.c1; c++) {
+                    if (outline.count(c) == 0) {
+                        continue;
+                    }
+                    token += 1;
+                    outline.fill(c, ys, stamp, token, 0);
+                    if (holes != null) {
+                        for (Crossings hole : holes) {
+                            if (hole.count(c) > 0) {
+                                hole.fill(c, ys, stamp, -token, token);
+                            }
+                        }
+                    }
+                    int col = xOrder[c];
+                    int[] rows = outline.rows(c, ys);
+                    for (int i = 0; i < rows.length; i += 2) {
+                        for (int rr = rows[i]; rr < rows[i + 1]; rr++) {
+                            if (stamp[rr] == token) {
+                                int idx = yOrder[rr] * nx + col;
+                                if (r[idx] < 0) {
+                                    r[idx] = k;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        return r;
+    }
+
+    /**
+     * Get mask array with cell values of 1 inside polygons and -1 outside
+     * polygons
+     * @return Mask array
+     */
+    public Array getMask() {
+        int[] data = new int[index.length];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = index[i] >= 0 ? 1 : -1;
+        }
+        return Array.factory(DataType.INT, shape, data);
+    }
+
+    /**
+     * Get boolean array with true values inside polygons
+     * @return Boolean array
+     */
+    public Array getInside() {
+        boolean[] data = new boolean[index.length];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = index[i] >= 0;
+        }
+        return Array.factory(DataType.BOOLEAN, shape, data);
+    }
+
+    /**
+     * Get polygon index array, -1 outside polygons
+     * @return Polygon index array
+     */
+    public Array getPolygonIndex() {
+        return Array.factory(DataType.INT, shape, index.clone());
+    }
+
+    /**
+     * Set the values outside the polygons as missing value. The trailing
+     * dimensions of the array should have the mask shape, and the mask is
+     * applied to each slice of the leading dimensions.
+     *
+     * @param a The array
+     * @param missingValue Missing value
+     * @return Result array
+     */
+    public Array maskout(Array a, Number missingValue) {
+        return apply(a, missingValue, false);
+    }
+
+    /**
+     * Set the values inside the polygons as missing value. The trailing
+     * dimensions of the array should have the mask shape, and the mask is
+     * applied to each slice of the leading dimensions.
+     *
+     * @param a The array
+     * @param missingValue Missing value
+     * @return Result array
+     */
+    public Array maskin(Array a, Number missingValue) {
+        return apply(a, missingValue, true);
+    }
+
+    private Array apply(Array a, Number missingValue, boolean in) {
+        int n = (int) a.getSize();
+        int m = index.length;
+        if (m == 0 || n % m != 0) {
+            throw new IllegalArgumentException("Array shape does not match the mask shape");
+        }
+
+        Array r = a.copy();
+        if (r.getDataType().isNumeric()) {
+            double v = missingValue.doubleValue();
+            for (int s = 0; s < n; s += m) {
+                for (int i = 0; i < m; i++) {
+                    if ((index[i] >= 0) == in) {
+                        r.setDouble(s + i, v);
+                    }
+                }
+            }
+        } else {
+            for (int s = 0; s < n; s += m) {
+                for (int i = 0; i < m; i++) {
+                    if ((index[i] >= 0) == in) {
+                        r.setObject(s + i, missingValue);
+                    }
+                }
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Remove the values outside (maskout) or inside (maskin) the polygons
+     *
+     * @param a The array, same shape with the mask
+     * @param x X coordinates array, same shape with the mask
+     * @param y Y coordinates array, same shape with the mask
+     * @param in Remove the values inside the polygons or not
+     * @return Result data, x and y arrays of the kept values
+     */
+    public Array[] remove(Array a, Array x, Array y, boolean in) {
+        int n = 0;
+        for (int idx : index) {
+            if ((idx >= 0) != in) {
+                n += 1;
+            }
+        }
+        int[] rShape = new int[]{n};
+        Array r = Array.factory(a.getDataType(), rShape);
+        Array rx = Array.factory(x.getDataType(), rShape);
+        Array ry = Array.factory(y.getDataType(), rShape);
+        IndexIterator aIter = a.getIndexIterator();
+        IndexIterator xIter = x.getIndexIterator();
+        IndexIterator yIter = y.getIndexIterator();
+        int k = 0;
+        for (int i = 0; i < index.length; i++) {
+            double va = aIter.getDoubleNext();
+            double vx = xIter.getDoubleNext();
+            double vy = yIter.getDoubleNext();
+            if ((index[i] >= 0) != in) {
+                r.setDouble(k, va);
+                rx.setDouble(k, vx);
+                ry.setDouble(k, vy);
+                k += 1;
+            }
+        }
+
+        return new Array[]{r, rx, ry};
+    }
+    // </editor-fold>
+
+    /**
+     * Sorted edge crossings of a polygon ring with the grid columns
+     */
+    private static class Crossings {
+        final int c0;
+        final int c1;
+        final int[] offsets;
+        final double[] values;
+
+        Crossings(List<? extends PointD> ring, double[] xs, int c0, int c1) {
+            int nPoints = ring.size();
+            this.c0 = c0;
+            this.c1 = c1;
+            this.offsets = new int[c1 - c0 + 1];
+            if (nPoints < 3) {
+                this.values = new double[0];
+                return;
+            }
+
+            //Count crossings of each column. An edge crosses the columns in
+            //(min x, max x] of the edge, vertical edges are ignored.
+            double[] px = new double[nPoints];
+            double[] py = new double[nPoints];
+            if (ring instanceof PackedPointList) {
+                PackedPointList packed = (PackedPointList) ring;
+                for (int i = 0; i < nPoints; i++) {
+                    px[i] = packed.getX(i);
+                    py[i] = packed.getY(i);
+                }
+            } else {
+                for (int i = 0; i < nPoints; i++) {
+                    PointD p = ring.get(i);
+                    px[i] = p.X;
+                    py[i] = p.Y;
+                }
+            }
+            int[] counts = new int[c1 - c0];
+            int prev = nPoints - 1;
+            for (int i = 0; i < nPoints; i++) {
+                int s = Math.max(bound(xs, Math.min(px[i], px[prev]), false), c0);
+                int e = Math.min(bound(xs, Math.max(px[i], px[prev]), false), c1);
+                for (int c = s; c < e; c++) {
+                    counts[c - c0] += 1;
+                }
+                prev = i;
+            }
+            for (int c = 0; c < counts.length; c++) {
+                offsets[c + 1] = offsets[c] + counts[c];
+            }
+
+            this.values = new double[offsets[counts.length]];
+            int[] pos = Arrays.copyOf(offsets, counts.length);
+            prev = nPoints - 1;
+            for (int i = 0; i < nPoints; i++) {
+                double x1, y1, x2, y2;
+                if (px[i] > px[prev]) {
+                    x1 = px[prev];
+                    y1 = py[prev];
+                    x2 = px[i];
+                    y2 = py[i];
+                } else {
+                    x1 = px[i];
+                    y1 = py[i];
+                    x2 = px[prev];
+                    y2 = py[prev];
+                }
+                int s = Math.max(bound(xs, x1, false), c0);
+                int e = Math.min(bound(xs, x2, false), c1);
+                for (int c = s; c < e; c++) {
+                    values[pos[c - c0]++] = y1 + (y2 - y1) * (xs[c] - x1) / (x2 - x1);
+                }
+                prev = i;
+            }
+            for (int c = 0; c < counts.length; c++) {
+                Arrays.sort(values, offsets[c], offsets[c + 1]);
+            }
+        }
+
+        boolean isEmpty() {
+            return values.length == 0;
+        }
+
+        int count(int c) {
+            if (c < c0 || c >= c1) {
+                return 0;
+            }
+            return offsets[c - c0 + 1] - offsets[c - c0];
+        }
+
+        /**
+         * Sorted row index ranges [start, end) inside the ring of a column. A
+         * row is inside if the number of crossings above it is odd.
+         */
+        int[] rows(int c, double[] ys) {
+            int s = offsets[c - c0];
+            int m = offsets[c - c0 + 1] - s;
+            int[] r = new int[m + 2];
+            int n = 0;
+            //Interval k: [crossing k - 1, crossing k), inside if m - k is odd
+            for (int k = (m % 2 == 1) ? 0 : 1; k <= m; k += 2) {
+                int start = k == 0 ? 0 : bound(ys, values[s + k - 1], true);
+                int end = k == m ? ys.length : bound(ys, values[s + k], true);
+                if (start < end) {
+                    r[n++] = start;
+                    r[n++] = end;
+                }
+            }
+            return Arrays.copyOf(r, n);
+        }
+
+        /**
+         * Set the stamp of the rows inside the ring of a column. Only the rows
+         * with the old stamp value are changed if the old value is not 0.
+         */
+        void fill(int c, double[] ys, int[] stamp, int value, int old) {
+            int[] rows = rows(c, ys);
+            for (int i = 0; i < rows.length; i += 2) {
+                for (int rr = rows[i]; rr < rows[i + 1]; rr++) {
+                    if (old == 0 || stamp[rr] == old) {
+                        stamp[rr] = value;
+                    }
+                }
+            }
+        }
+    }
+
+    private static class Key {
+        final double[] x;
+        final double[] y;
+        final boolean points;
+        final double[] geometry;
+        final int hash;
+
+        Key(double[] x, double[] y, boolean points, List<? extends PolygonShape> polygons) {
+            this.x = x.clone();
+            this.y = y.clone();
+            this.points = points;
+            this.geometry = geometry(polygons);
+            int result = Arrays.hashCode(x);
+            result = 31 * result + Arrays.hashCode(y);
+            result = 31 * result + Boolean.hashCode(points);
+            result = 31 * result + Arrays.hashCode(this.geometry);
+            this.hash = result;
+        }
+
+        /**
+         * Copy the shape type, the extent and all ring coordinates of the
+         * polygon shapes to an array
+         */
+        static double[] geometry(List<? extends PolygonShape> polygons) {
+            int n = 1;
+            for (PolygonShape ps : polygons) {
+                n += 6;
+                for (Polygon polygon : ps.getPolygons()) {
+                    n += 2 + polygon.getOutLine().size() * 2;
+                    if (polygon.hasHole()) {
+                        for (List<? extends PointD> hole : polygon.getHoleLines()) {
+                            n += 1 + hole.size() * 2;
+                        }
+                    }
+                }
+            }
+
+            double[] r = new double[n];
+            int k = 0;
+            r[k++] = polygons.size();
+            for (PolygonShape ps : polygons) {
+                Extent extent = ps.getExtent();
+                List<? extends Polygon> pgs = ps.getPolygons();
+                r[k++] = ps.getShapeType().ordinal();
+                r[k++] = extent.minX;
+                r[k++] = extent.maxX;
+                r[k++] = extent.minY;
+                r[k++] = extent.maxY;
+                r[k++] = pgs.size();
+                for (Polygon polygon : pgs) {
+                    r[k++] = polygon.hasHole() ? polygon.getHoleLineNumber() : 0;
+                    k = copyRing(polygon.getOutLine(), r, k);
+                    if (polygon.hasHole()) {
+                        for (List<? extends PointD> hole : polygon.getHoleLines()) {
+                            k = copyRing(hole, r, k);
+                        }
+                    }
+                }
+            }
+            return r;
+        }
+
+        static int copyRing(List<? extends PointD> ring, double[] r, int k) {
+            int n = ring.size();
+            r[k++] = n;
+            if (ring instanceof PackedPointList) {
+                ((PackedPointList) ring).copyTo(r, k);
+                k += n * 2;
+            } else {
+                for (PointD p : ring) {
+                    r[k++] = p.X;
+                    r[k++] = p.Y;
+                }
+            }
+            return k;
+        }
+
+        long getSizeBytes() {
+            return (x.length + y.length + geometry.length) * 8L;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && points == other.points && Arrays.equals(x, other.x)
+                    && Arrays.equals(y, other.y) && Arrays.equals(geometry, other.geometry);
+        }
+    }
+}
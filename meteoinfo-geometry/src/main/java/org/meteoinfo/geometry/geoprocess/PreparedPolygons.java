@@ -0,0 +1,338 @@
+package org.meteoinfo.geometry.geoprocess;
+
+import org.meteoinfo.common.Extent;
+import org.meteoinfo.common.PointD;
+import org.meteoinfo.geometry.shape.PackedPointList;
+import org.meteoinfo.geometry.shape.Polygon;
+import org.meteoinfo.geometry.shape.PolygonShape;
+import org.meteoinfo.ndarray.Array;
+import org.meteoinfo.ndarray.DataType;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Polygons prepared for repeated point-in-polygon queries.
+ *
+ * <p>The edges of each polygon ring are bucketed into vertical slabs by their
+ * x ranges, so a query only tests the edges in the slab of the point, with the
+ * same edge rule as {@link GeoComputation#pointInPolygon(java.util.List, PointD)}.
+ * The edges spanning many slabs are kept in a separate list tested by all
+ * queries, so the slab buckets stay linear in the edge number.
+ * The polygon extents are indexed with a {@link PackedRTree}. The polygons
+ * should not be changed after they are prepared.
+ *
+ * @author Yaqiang Wang
+ */
+public class PreparedPolygons {
+
+    // <editor-fold desc="Variables">
+    private final List<? extends PolygonShape> polygons;
+    private final Ring[][][] rings;
+    private final PackedRTree index;
+    // </editor-fold>
+    // <editor-fold desc="Constructor">
+
+    /**
+     * Constructor
+     *
+     * @param polygons The polygons
+     */
+    public PreparedPolygons(List<? extends PolygonShape> polygons) {
+        this.polygons = polygons;
+        this.rings = new Ring[polygons.size()][][];
+        IntStream.range(0, polygons.size()).parallel().forEach(i -> {
+            PolygonShape ps = polygons.get(i);
+            switch (ps.getShapeType()) {
+                case CIRCLE:
+                case ELLIPSE:
+                case ARC:
+                    //Tested by the shape
+                    return;
+            }
+            List<? extends Polygon> pgs = ps.getPolygons();
+            Ring[][] r = new Ring[pgs.size()][];
+            for (int j = 0; j < r.length; j++) {
+                Polygon polygon = pgs.get(j);
+                r[j] = new Ring[polygon.getHoleLineNumber() + 1];
+                r[j][0] = new Ring(polygon.getOutLine());
+                for (int k = 0; k < polygon.getHoleLineNumber(); k++) {
+                    r[j][k + 1] = new Ring(polygon.getHoleLines().get(k));
+                }
+            }
+            rings[i] = r;
+        });
+        this.index = new PackedRTree(polygons);
+    }
+    // </editor-fold>
+    // <editor-fold desc="Get Set Methods">
+
+    /**
+     * Get polygon number
+     *
+     * @return Polygon number
+     */
+    public int size() {
+        return this.polygons.size();
+    }
+    // </editor-fold>
+    // <editor-fold desc="Methods">
+
+    /**
+     * Determine if a point is in a polygon
+     *
+     * @param idx Polygon index
+     * @param x X
+     * @param y Y
+     * @return Boolean
+     */
+    public boolean contains(int idx, double x, double y) {
+        Extent extent = polygons.get(idx).getExtent();
+        if (x < extent.minX || x > extent.maxX || y < extent.minY || y > extent.maxY) {
+            return false;
+        }
+        return inPolygon(idx, x, y);
+    }
+
+    private boolean inPolygon(int idx, double x, double y) {
+        Ring[][] r = rings[idx];
+        if (r == null) {
+            return GeoComputation.pointInPolygon(polygons.get(idx), new PointD(x, y));
+        }
+
+        for (Ring[] polygon : r) {
+            if (polygon[0].contains(x, y)) {
+                boolean isIn = true;
+                for (int k = 1; k < polygon.length; k++) {
+                    if (polygon[k].contains(x, y)) {
+                        isIn = false;
+                        break;
+                    }
+                }
+                if (isIn) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determine if a point is in any of the polygons
+     *
+     * @param x X
+     * @param y Y
+     * @return Boolean
+     */
+    public boolean contains(double x, double y) {
+        return polygonIndex(x, y) >= 0;
+    }
+
+    /**
+     * Determine if a point is in any of the polygons
+     *
+     * @param p The point
+     * @return Boolean
+     */
+    public boolean contains(PointD p) {
+        return polygonIndex(p.X, p.Y) >= 0;
+    }
+
+    /**
+     * Get the index of the first polygon containing a point
+     *
+     * @param x X
+     * @param y Y
+     * @return Polygon index, -1 if the point is outside the polygons
+     */
+    public int polygonIndex(double x, double y) {
+        for (int i : index.query(x, y, x, y)) {
+            if (inPolygon(i, x, y)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the index of the first polygon containing each point
+     *
+     * @param xs X coordinates of the points
+     * @param ys Y coordinates of the points
+     * @return Polygon indexes, -1 for the points outside the polygons
+     */
+    public int[] polygonIndex(double[] xs, double[] ys) {
+        int[] r = new int[xs.length];
+        IntStream.range(0, xs.length).parallel().forEach(i -> r[i] = polygonIndex(xs[i], ys[i]));
+        return r;
+    }
+
+    /**
+     * Get the index of the first polygon containing each point
+     *
+     * @param x X coordinates of the points
+     * @param y Y coordinates of the points, same shape with x
+     * @return Polygon index array with the shape of x, -1 for the points
+     * outside the polygons
+     */
+    public Array polygonIndex(Array x, Array y) {
+        int[] r = polygonIndex((double[]) x.get1DJavaArray(double.class), (double[]) y.get1DJavaArray(double.class));
+        return Array.factory(DataType.INT, x.getShape(), r);
+    }
+
+    /**
+     * Determine if the points are in any of the polygons
+     *
+     * @param x X coordinates of the points
+     * @param y Y coordinates of the points, same shape with x
+     * @return Boolean array with the shape of x
+     */
+    public Array contains(Array x, Array y) {
+        int[] idx = polygonIndex((double[]) x.get1DJavaArray(double.class), (double[]) y.get1DJavaArray(double.class));
+        boolean[] r = new boolean[idx.length];
+        for (int i = 0; i < r.length; i++) {
+            r[i] = idx[i] >= 0;
+        }
+        return Array.factory(DataType.BOOLEAN, x.getShape(), r);
+    }
+    // </editor-fold>
+
+    /**
+     * Ring edges bucketed by x slabs
+     */
+    private static class Ring {
+        //Maximum number of slabs an edge is bucketed into
+        static final int MAX_EDGE_SLABS = 8;
+        final double minX;
+        final double maxX;
+        final double width;
+        final int[] offsets;
+        //Edge coordinates (x1, y1, x2, y2) with x1 < x2 in slab order
+        final double[] edges;
+        //Coordinates of the edges spanning more than MAX_EDGE_SLABS slabs
+        final double[] longEdges;
+
+        Ring(List<? extends PointD> ring) {
+            int n = ring.size();
+            double[] px = new double[n];
+            double[] py = new double[n];
+            if (ring instanceof PackedPointList) {
+                PackedPointList packed = (PackedPointList) ring;
+                for (int i = 0; i < n; i++) {
+                    px[i] = packed.getX(i);
+                    py[i] = packed.getY(i);
+                }
+            } else {
+                for (int i = 0; i < n; i++) {
+                    PointD p = ring.get(i);
+                    px[i] = p.X;
+                    py[i] = p.Y;
+                }
+            }
+            double x0 = Double.POSITIVE_INFINITY, x1 = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                x0 = Math.min(x0, px[i]);
+                x1 = Math.max(x1, px[i]);
+            }
+            int nb = n < 3 || !(x1 > x0) ? 1 : Math.max(1, n / 4);
+            this.minX = x0;
+            this.maxX = x1;
+            this.width = nb == 1 ? 0 : (x1 - x0) / nb;
+            this.offsets = new int[nb + 1];
+            if (n < 3) {
+                this.edges = new double[0];
+                this.longEdges = new double[0];
+                return;
+            }
+
+            //Count edges of each slab, vertical edges are never crossed
+            int[] counts = new int[nb];
+            int longCount = 0;
+            int prev = n - 1;
+            for (int i = 0; i < n; i++) {
+                if (px[i] != px[prev]) {
+                    int s = slab(Math.min(px[i], px[prev]));
+                    int e = slab(Math.max(px[i], px[prev]));
+                    if (e - s >= MAX_EDGE_SLABS) {
+                        longCount += 1;
+                    } else {
+                        for (int b = s; b <= e; b++) {
+                            counts[b] += 1;
+                        }
+                    }
+                }
+                prev = i;
+            }
+            for (int b = 0; b < nb; b++) {
+                offsets[b + 1] = offsets[b] + counts[b];
+            }
+
+            this.edges = new double[offsets[nb] * 4];
+            this.longEdges = new double[longCount * 4];
+            int[] pos = new int[nb];
+            System.arraycopy(offsets, 0, pos, 0, nb);
+            int longPos = 0;
+            prev = n - 1;
+            for (int i = 0; i < n; i++) {
+                if (px[i] != px[prev]) {
+                    int a = px[i] > px[prev] ? prev : i;
+                    int c = a == i ? prev : i;
+                    int s = slab(px[a]);
+                    int e = slab(px[c]);
+                    if (e - s >= MAX_EDGE_SLABS) {
+                        setEdge(longEdges, longPos++ * 4, px[a], py[a], px[c], py[c]);
+                    } else {
+                        for (int b = s; b <= e; b++) {
+                            setEdge(edges, pos[b]++ * 4, px[a], py[a], px[c], py[c]);
+                        }
+                    }
+                }
+                prev = i;
+            }
+        }
+
+        private static void setEdge(double[] edges, int k, double x1, double y1, double x2, double y2) {
+            edges[k] = x1;
+            edges[k + 1] = y1;
+            edges[k + 2] = x2;
+            edges[k + 3] = y2;
+        }
+
+        private int slab(double x) {
+            if (width == 0) {
+                return 0;
+            }
+            int b = (int) ((x - minX) / width);
+            return Math.max(0, Math.min(offsets.length - 2, b));
+        }
+
+        boolean contains(double x, double y) {
+            if (!(x > minX && x <= maxX)) {
+                return false;
+            }
+
+            int b = slab(x);
+            int n = crossings(edges, offsets[b] * 4, offsets[b + 1] * 4, x, y)
+                    + crossings(longEdges, 0, longEdges.length, x, y);
+            return (n & 1) == 1;
+        }
+
+        /**
+         * Count the edges crossed by the upward ray of a point
+         */
+        private static int crossings(double[] edges, int start, int end, double x, double y) {
+            int n = 0;
+            for (int k = start; k < end; k += 4) {
+                double x1 = edges[k];
+                double x2 = edges[k + 2];
+                if (x1 < x && x <= x2) {
+                    double y1 = edges[k + 1];
+                    if ((y - y1) * (x2 - x1) < (edges[k + 3] - y1) * (x - x1)) {
+                        n += 1;
+                    }
+                }
+            }
+            return n;
+        }
+    }
+}
@@ -337,22 +337,17 @@ package org.meteoinfo.geometry.graphic;
                  int last = points.size() - 1;
                  if (vIdx == 0) {
                      if (points.get(0).X == points.get(last).X && points.get(0).Y == points.get(last).Y) {
-                         points.get(last).X = newX;
-                         points.get(last).Y = newY;
+                         PackedPointList.set(points, last, newX, newY);
                      }
                  } else if (vIdx == last){
                      if (points.get(0).X == points.get(last).X && points.get(0).Y == points.get(last).Y) {
-                         points.get(0).X = newX;
-                         points.get(0).Y = newY;
+                         PackedPointList.set(points, 0, newX, newY);
                      }
                  }
                  break;
          }
 
-         PointD aP = points.get(vIdx);
-         aP.X = newX;
-         aP.Y = newY;
-         //points.set(vIdx, aP);
+         PackedPointList.set(points, vIdx, newX, newY);
          shape.setPoints(points);
      }
 
@@ -363,7 +358,7 @@ package org.meteoinfo.geometry.graphic;
       * @param point The add vertice
       */
      public void verticeAddUpdate(int vIdx, PointD point) {
-         List<PointD> points = (List<PointD>) shape.getPoints();
+         List<PointD> points = new ArrayList<>(shape.getPoints());
          points.add(vIdx, point);
          shape.setPoints(points);
      }
@@ -374,7 +369,7 @@ package org.meteoinfo.geometry.graphic;
       * @param vIdx Vertice index
       */
      public void verticeRemoveUpdate(int vIdx) {
-         List<PointD> points = (List<PointD>) shape.getPoints();
+         List<PointD> points = new ArrayList<>(shape.getPoints());
          points.remove(vIdx);
          shape.setPoints(points);
      }
@@ -894,9 +894,7 @@ public class GraphicCollection extends Graphic implements Iterator {
      */
     public GraphicCollection xShift(double xs) {
         for (Graphic g : this.graphics) {
-            for (PointD p : g.getShape().getPoints()) {
-                p.X += xs;
-            }
+            g.getShape().shiftPoints(xs, 0);
             g.setExtent(g.getExtent().shift(xs, 0));
         }
         this.extent.shift(xs, 0);
@@ -912,9 +910,7 @@ public class GraphicCollection extends Graphic implements Iterator {
         GraphicCollection graphicCollection = new GraphicCollection();
         for (Graphic g : this.graphics) {
             Shape shape = (Shape) g.getShape().clone();
-            for (PointD p : shape.getPoints()) {
-                p.X += xs;
-            }
+            shape.shiftPoints(xs, 0);
             Graphic graphic = new Graphic(shape, g.legend);
             graphic.setExtent(graphic.getExtent().shift(xs, 0));
             graphicCollection.add(graphic);
@@ -11,6 +11,7 @@ import org.meteoinfo.geometry.legend.BreakTypes;
 import org.meteoinfo.geometry.legend.ColorBreak;
 import org.meteoinfo.geometry.legend.ColorBreakCollection;
 import org.meteoinfo.geometry.legend.LegendScheme;
+import org.meteoinfo.geometry.shape.PackedPointList;
 import org.meteoinfo.geometry.shape.PointZ;
 import org.meteoinfo.geometry.shape.PolygonZ;
 import org.meteoinfo.geometry.shape.PolygonZShape;
@@ -252,9 +253,7 @@ public class GraphicCollection3D extends GraphicCollection{
      */
     public GraphicCollection3D xShift(double xs) {
         for (Graphic g : this.graphics) {
-            for (PointD p : g.getShape().getPoints()) {
-                p.X += xs;
-            }
+            g.getShape().shiftPoints(xs, 0);
             g.setExtent(((Extent3D) g.getExtent()).shift(xs, 0, 0));
         }
         this.extent.shift(xs, 0);
@@ -270,9 +269,7 @@ public class GraphicCollection3D extends GraphicCollection{
     public GraphicCollection3D xRandomShift(int exponent) {
         Random r = new Random();
         for (Graphic g : this.graphics) {
-            for (PointD p : g.getShape().getPoints()) {
-                p.X += (1 - r.nextDouble()) * Math.pow(10, exponent);
-            }
+            randomShift(g.getShape(), r, Math.pow(10, exponent), true);
         }
 
         return this;
@@ -286,14 +283,39 @@ public class GraphicCollection3D extends GraphicCollection{
     public GraphicCollection3D yRandomShift(int exponent) {
         Random r = new Random();
         for (Graphic g : this.graphics) {
-            for (PointD p : g.getShape().getPoints()) {
-                p.Y += (1 - r.nextDouble()) * Math.pow(10, exponent);
-            }
+            randomShift(g.getShape(), r, Math.pow(10, exponent), false);
         }
 
         return this;
     }
 
+    /**
+     * Shift each point of a shape in place by a random value, the packed
+     * points are shifted in their coordinate storage
+     */
+    private static void randomShift(Shape shape, Random r, double scale, boolean x) {
+        List<? extends PointD> points = shape.getPoints();
+        if (points instanceof PackedPointList) {
+            PackedPointList packed = (PackedPointList) points;
+            for (int i = 0; i < packed.size(); i++) {
+                double shift = (1 - r.nextDouble()) * scale;
+                if (x) {
+                    packed.set(i, packed.getX(i) + shift, packed.getY(i));
+                } else {
+                    packed.set(i, packed.getX(i), packed.getY(i) + shift);
+                }
+            }
+        } else {
+            for (PointD p : points) {
+                if (x) {
+                    p.X += (1 - r.nextDouble()) * scale;
+                } else {
+                    p.Y += (1 - r.nextDouble()) * scale;
+                }
+            }
+        }
+    }
+
     /**
      * X or Y random shift
      * @param exponent Exponent
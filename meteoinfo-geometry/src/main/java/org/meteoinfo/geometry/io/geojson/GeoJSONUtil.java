@@ -126,12 +126,7 @@ public class GeoJSONUtil {
         double[][] coordinates = lineString.getCoordinates();
         int pNum = coordinates.length;
         if (coordinates[0].length == 2) {
-            List<PointD> points = new ArrayList<>();
-            for (int i = 0; i < pNum; i++) {
-                points.add(new PointD(coordinates[i][0], coordinates[i][1]));
-            }
-
-            return new PolylineShape(points);
+            return new PolylineShape(toPointList(coordinates));
         } else {
             List<PointZ> points = new ArrayList<>();
             for (int i = 0; i < pNum; i++) {
@@ -156,15 +151,14 @@ public class GeoJSONUtil {
             PolylineShape polylineShape = new PolylineShape();
             polylineShape.setPartNum(lineNum);
             polylineShape.parts = new int[lineNum];
-            List<PointD> points = new ArrayList<>();
+            List<PackedPointList> lines = new ArrayList<>();
+            int idx = 0;
             for (int j = 0; j < lineNum; j++) {
-                int pNum = coordinates[j].length;
-                polylineShape.parts[j] = pNum;
-                for (int i = 0; i < pNum; i++) {
-                    points.add(new PointD(coordinates[j][i][0], coordinates[j][i][1]));
-                }
+                polylineShape.parts[j] = idx;
+                idx += coordinates[j].length;
+                lines.add(toPointList(coordinates[j]));
             }
-            polylineShape.setPoints(points);
+            polylineShape.setPoints(PackedPointList.concat(lines));
 
             return polylineShape;
         } else {
@@ -174,7 +168,7 @@ public class GeoJSONUtil {
             List<PointZ> points = new ArrayList<>();
             for (int j = 0; j < lineNum; j++) {
                 int pNum = coordinates[j].length;
-                polylineZShape.parts[j] = pNum;
+                polylineZShape.parts[j] = points.size();
                 for (int i = 0; i < pNum; i++) {
                     points.add(new PointZ(coordinates[j][i][0], coordinates[j][i][1], coordinates[j][i][2]));
                 }
@@ -256,18 +250,18 @@ public class GeoJSONUtil {
         int ringNum = coordinates.length;
         int cNum = coordinates[0][0].length;
         if (cNum == 2) {
-            PolygonShape polygonShape = new PolygonShape();
-            polygonShape.setPartNum(ringNum);
-            polygonShape.parts = new int[ringNum];
-            List<PointD> points = new ArrayList<>();
+            org.meteoinfo.geometry.shape.Polygon sPolygon = new org.meteoinfo.geometry.shape.Polygon();
             for (int j = 0; j < ringNum; j++) {
-                int pNum = coordinates[j].length;
-                polygonShape.parts[j] = pNum;
-                for (int i = 0; i < pNum; i++) {
-                    points.add(new PointD(coordinates[j][i][0], coordinates[j][i][1]));
+                if (j == 0) {
+                    sPolygon.setOutLine(toPointList(coordinates[j]));
+                } else {
+                    sPolygon.addHole(toPointList(coordinates[j]));
                 }
             }
-            polygonShape.setPoints(points);
+            List<org.meteoinfo.geometry.shape.Polygon> polygons = new ArrayList<>();
+            polygons.add(sPolygon);
+            PolygonShape polygonShape = new PolygonShape();
+            polygonShape.setPolygons(polygons);
 
             return polygonShape;
         } else {
@@ -277,7 +271,7 @@ public class GeoJSONUtil {
             List<PointZ> points = new ArrayList<>();
             for (int j = 0; j < ringNum; j++) {
                 int pNum = coordinates[j].length;
-                polygonZShape.parts[j] = pNum;
+                polygonZShape.parts[j] = points.size();
                 for (int i = 0; i < pNum; i++) {
                     points.add(new PointZ(coordinates[j][i][0], coordinates[j][i][1], coordinates[j][i][2]));
                 }
@@ -304,11 +298,7 @@ public class GeoJSONUtil {
                 int ringNum = coordinates[k].length;
                 org.meteoinfo.geometry.shape.Polygon polygon = new org.meteoinfo.geometry.shape.Polygon();
                 for (int j = 0; j < ringNum; j++) {
-                    List<PointD> points = new ArrayList<>();
-                    int pNum = coordinates[k][j].length;
-                    for (int i = 0; i < pNum; i++) {
-                        points.add(new PointD(coordinates[k][j][i][0], coordinates[k][j][i][1]));
-                    }
+                    PackedPointList points = toPointList(coordinates[k][j]);
                     if (j == 0) {
                         polygon.setOutLine(points);
                     } else {
@@ -446,4 +436,19 @@ public class GeoJSONUtil {
                 throw new UnsupportedOperationException();
         }
     }
+
+    /**
+     * Convert GeoJSON coordinates to packed point list
+     *
+     * @param coordinates The coordinates
+     * @return Packed point list
+     */
+    private static PackedPointList toPointList(double[][] coordinates) {
+        double[] coords = new double[coordinates.length * 2];
+        for (int i = 0; i < coordinates.length; i++) {
+            coords[i * 2] = coordinates[i][0];
+            coords[i * 2 + 1] = coordinates[i][1];
+        }
+        return new PackedPointList(coords);
+    }
 }
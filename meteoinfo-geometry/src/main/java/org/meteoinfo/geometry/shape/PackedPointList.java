@@ -0,0 +1,293 @@
+package org.meteoinfo.geometry.shape;
+
+import org.meteoinfo.common.Extent;
+import org.meteoinfo.common.PointD;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Point list packed in an interleaved x, y coordinate array.
+ *
+ * <p>The list keeps no point objects, a new point is created in each get call
+ * and set calls write the coordinates back to the array. So the points got
+ * from the list should not be modified in place, use set methods instead. The
+ * list has a fixed size, and sub lists are views sharing the same array. The
+ * coordinates can be stored as double or float values.
+ *
+ * @author Yaqiang Wang
+ */
+public class PackedPointList extends AbstractList<PointD> implements RandomAccess {
+
+    // <editor-fold desc="Variables">
+    private final double[] coords;
+    private final float[] fCoords;
+    private final int offset;
+    private final int size;
+    // </editor-fold>
+    // <editor-fold desc="Constructor">
+
+    /**
+     * Constructor
+     *
+     * @param coords Interleaved x, y coordinate array
+     */
+    public PackedPointList(double[] coords) {
+        this(coords, null, 0, coords.length / 2);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param coords Interleaved x, y coordinate array
+     */
+    public PackedPointList(float[] coords) {
+        this(null, coords, 0, coords.length / 2);
+    }
+
+    private PackedPointList(double[] coords, float[] fCoords, int offset, int size) {
+        this.coords = coords;
+        this.fCoords = fCoords;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    /**
+     * Create a packed point list from a point list
+     *
+     * @param points The points
+     * @return Packed point list
+     */
+    public static PackedPointList of(List<? extends PointD> points) {
+        if (points instanceof PackedPointList) {
+            return (PackedPointList) points;
+        }
+
+        double[] coords = new double[points.size() * 2];
+        int k = 0;
+        for (PointD p : points) {
+            coords[k++] = p.X;
+            coords[k++] = p.Y;
+        }
+        return new PackedPointList(coords);
+    }
+
+    /**
+     * Concatenate packed point lists
+     *
+     * @param lists The packed point lists
+     * @return Concatenated packed point list with double coordinates
+     */
+    public static PackedPointList concat(List<PackedPointList> lists) {
+        int n = 0;
+        for (PackedPointList list : lists) {
+            n += list.size;
+        }
+        double[] coords = new double[n * 2];
+        int k = 0;
+        for (PackedPointList list : lists) {
+            list.copyTo(coords, k);
+            k += list.size * 2;
+        }
+        return new PackedPointList(coords);
+    }
+    // </editor-fold>
+    // <editor-fold desc="Get Set Methods">
+
+    /**
+     * Get if the coordinates are stored as float values
+     *
+     * @return Float or not
+     */
+    public boolean isFloat() {
+        return this.coords == null;
+    }
+
+    /**
+     * Get x coordinate
+     *
+     * @param index Point index
+     * @return X coordinate
+     */
+    public double getX(int index) {
+        int k = (offset + index) * 2;
+        return coords != null ? coords[k] : fCoords[k];
+    }
+
+    /**
+     * Get y coordinate
+     *
+     * @param index Point index
+     * @return Y coordinate
+     */
+    public double getY(int index) {
+        int k = (offset + index) * 2 + 1;
+        return coords != null ? coords[k] : fCoords[k];
+    }
+
+    /**
+     * Set point coordinates
+     *
+     * @param index Point index
+     * @param x X coordinate
+     * @param y Y coordinate
+     */
+    public void set(int index, double x, double y) {
+        rangeCheck(index);
+        int k = (offset + index) * 2;
+        if (coords != null) {
+            coords[k] = x;
+            coords[k + 1] = y;
+        } else {
+            fCoords[k] = (float) x;
+            fCoords[k + 1] = (float) y;
+        }
+    }
+
+    /**
+     * Set point coordinates of a point list. The coordinates of a packed point
+     * list are written back to its array, and the points of other lists are
+     * modified in place.
+     *
+     * @param points The points
+     * @param index Point index
+     * @param x X coordinate
+     * @param y Y coordinate
+     */
+    public static void set(List<? extends PointD> points, int index, double x, double y) {
+        if (points instanceof PackedPointList) {
+            ((PackedPointList) points).set(index, x, y);
+        } else {
+            PointD p = points.get(index);
+            p.X = x;
+            p.Y = y;
+        }
+    }
+    // </editor-fold>
+    // <editor-fold desc="Methods">
+
+    private void rangeCheck(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    @Override
+    public PointD get(int index) {
+        rangeCheck(index);
+        return new PointD(getX(index), getY(index));
+    }
+
+    @Override
+    public PointD set(int index, PointD p) {
+        PointD old = get(index);
+        set(index, p.X, p.Y);
+        return old;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public PackedPointList subList(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + size);
+        }
+        return new PackedPointList(coords, fCoords, offset + fromIndex, toIndex - fromIndex);
+    }
+
+    /**
+     * Copy the coordinates to an interleaved x, y array
+     *
+     * @param dest Destination array
+     * @param destPos Start position in the destination array
+     */
+    public void copyTo(double[] dest, int destPos) {
+        if (coords != null) {
+            System.arraycopy(coords, offset * 2, dest, destPos, size * 2);
+        } else {
+            for (int i = 0, k = offset * 2; i < size * 2; i++, k++) {
+                dest[destPos + i] = fCoords[k];
+            }
+        }
+    }
+
+    /**
+     * Copy the list to a new compact list with the same storage type
+     *
+     * @return Copied list
+     */
+    public PackedPointList copy() {
+        if (coords != null) {
+            double[] r = new double[size * 2];
+            System.arraycopy(coords, offset * 2, r, 0, r.length);
+            return new PackedPointList(r);
+        } else {
+            float[] r = new float[size * 2];
+            System.arraycopy(fCoords, offset * 2, r, 0, r.length);
+            return new PackedPointList(r);
+        }
+    }
+
+    /**
+     * Copy the list to a new compact list with float coordinates, which uses
+     * half of the memory with reduced precision
+     *
+     * @return Copied list
+     */
+    public PackedPointList toFloat() {
+        float[] r = new float[size * 2];
+        for (int i = 0; i < size; i++) {
+            r[i * 2] = (float) getX(i);
+            r[i * 2 + 1] = (float) getY(i);
+        }
+        return new PackedPointList(r);
+    }
+
+    /**
+     * Move the points
+     *
+     * @param xShift X shift
+     * @param yShift Y shift
+     */
+    public void translate(double xShift, double yShift) {
+        for (int i = 0; i < size; i++) {
+            set(i, getX(i) + xShift, getY(i) + yShift);
+        }
+    }
+
+    /**
+     * Get extent of the points
+     *
+     * @return Extent
+     */
+    public Extent getExtent() {
+        if (size == 0) {
+            return new Extent();
+        }
+
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            double x = getX(i);
+            double y = getY(i);
+            if (x < minX) {
+                minX = x;
+            }
+            if (x > maxX) {
+                maxX = x;
+            }
+            if (y < minY) {
+                minY = y;
+            }
+            if (y > maxY) {
+                maxY = y;
+            }
+        }
+        return new Extent(minX, maxX, minY, maxY);
+    }
+    // </editor-fold>
+}
@@ -358,6 +358,32 @@ public class PolygonShape extends Shape implements Cloneable {
             Polygon aPolygon = new Polygon();
             aPolygon.setOutLine(points);
             ((List<Polygon>)_polygons).add(aPolygon);
+        } else if (points instanceof PackedPointList) {
+            //Rings are views of the packed points
+            PackedPointList packed = (PackedPointList) points;
+            Polygon aPolygon = null;
+            int numPoints = this.getPointNum();
+            for (int p = 0; p < _numParts; p++) {
+                int end = p == _numParts - 1 ? numPoints : parts[p + 1];
+                PackedPointList ring = packed.subList(parts[p], end);
+                if (GeoComputation.isClockwise(ring)) {
+                    if (p > 0) {
+                        ((List<Polygon>)_polygons).add(aPolygon);
+                    }
+
+                    aPolygon = new Polygon();
+                    aPolygon.setOutLine(ring);
+                } else if (aPolygon == null) {
+                    //Reverse a copy to keep the point order of the shape
+                    PackedPointList outLine = ring.copy();
+                    Collections.reverse(outLine);
+                    aPolygon = new Polygon();
+                    aPolygon.setOutLine(outLine);
+                } else {
+                    aPolygon.addHole(ring);
+                }
+            }
+            ((List<Polygon>)_polygons).add(aPolygon);
         } else {
             PointD[] Pointps;
             Polygon aPolygon = null;
@@ -395,6 +421,10 @@ public class PolygonShape extends Shape implements Cloneable {
     }
     
     private void updatePartsPoints() {
+        if (updatePackedPartsPoints()) {
+            return;
+        }
+
         _numParts = 0;
         points = new ArrayList<>();
         List<Integer> partList = new ArrayList<>();
@@ -412,6 +442,47 @@ public class PolygonShape extends Shape implements Cloneable {
         if (points.size() > 0)
             this.updateExtent();
     }
+
+    /**
+     * Concatenate packed rings of the polygons to packed points, the rings are
+     * replaced by the views of the packed points
+     * @return If all rings are packed
+     */
+    private boolean updatePackedPartsPoints() {
+        List<PackedPointList> rings = new ArrayList<>();
+        for (Polygon polygon : _polygons) {
+            for (List<? extends PointD> ring : polygon.getRings()) {
+                if (!(ring instanceof PackedPointList)) {
+                    return false;
+                }
+                rings.add((PackedPointList) ring);
+            }
+        }
+        if (rings.isEmpty()) {
+            return false;
+        }
+
+        PackedPointList packed = PackedPointList.concat(rings);
+        _numParts = rings.size();
+        parts = new int[_numParts];
+        int idx = 0, r = 0;
+        for (Polygon polygon : _polygons) {
+            int n = polygon.getOutLine().size();
+            parts[r++] = idx;
+            polygon.setOutLine(packed.subList(idx, idx + n));
+            idx += n;
+            List<List<? extends PointD>> holeLines = new ArrayList<>();
+            for (List<? extends PointD> hole : polygon.getHoleLines()) {
+                parts[r++] = idx;
+                holeLines.add(packed.subList(idx, idx + hole.size()));
+                idx += hole.size();
+            }
+            polygon.setHoleLines(holeLines);
+        }
+        this.points = packed;
+        this.updateExtent();
+        return true;
+    }
     
     /**
      * Add a hole line
@@ -481,7 +552,7 @@ public class PolygonShape extends Shape implements Cloneable {
             parts[partIdx + 1] += 1;
         }
         
-        ((List<PointD>) points).add(vIdx, vertice);
+        getEditablePoints().add(vIdx, vertice);
         this.updateExtent();
         this.updatePolygons();
     }
@@ -498,7 +569,7 @@ public class PolygonShape extends Shape implements Cloneable {
             parts[partIdx + 1] -= 1;
         }
         
-        ((List<PointD>) points).remove(vIdx);
+        getEditablePoints().remove(vIdx);
         this.updateExtent();
         this.updatePolygons();
     }
@@ -529,11 +600,15 @@ public class PolygonShape extends Shape implements Cloneable {
         aPGS.lowValue = lowValue;
         aPGS._numParts = _numParts;
         aPGS.parts = (int[]) parts.clone();
-        List<PointD> points = new ArrayList<>();
-        for (PointD p : this.points){
-            points.add((PointD)p.clone());
+        if (this.points instanceof PackedPointList) {
+            aPGS.setPoints(((PackedPointList) this.points).copy());
+        } else {
+            List<PointD> points = new ArrayList<>();
+            for (PointD p : this.points){
+                points.add((PointD)p.clone());
+            }
+            aPGS.setPoints(points);
         }
-        aPGS.setPoints(points);
         aPGS.setVisible(this.isVisible());
         aPGS.setSelected(this.isSelected());
         aPGS.setLegendIndex(this.getLegendIndex());
@@ -569,11 +644,15 @@ public class PolygonShape extends Shape implements Cloneable {
         this.lowValue = o.lowValue;
         this._numParts = o._numParts;
         this.parts = (int[]) o.parts.clone();
-        List<PointD> points = new ArrayList<>();
-        for (PointD p : o.points){
-            points.add((PointD)p.clone());
+        if (o.points instanceof PackedPointList) {
+            this.setPoints(((PackedPointList) o.points).copy());
+        } else {
+            List<PointD> points = new ArrayList<>();
+            for (PointD p : o.points){
+                points.add((PointD)p.clone());
+            }
+            this.setPoints(points);
         }
-        this.setPoints(points);
         this.setVisible(o.isVisible());
         this.setSelected(o.isSelected());
         this.setLegendIndex(o.getLegendIndex());
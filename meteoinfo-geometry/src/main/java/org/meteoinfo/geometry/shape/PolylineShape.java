@@ -238,6 +238,15 @@ public class PolylineShape extends Shape implements Cloneable {
             Polyline aPolyLine = new Polyline();
             aPolyLine.setPointList(points);
             polylines.add(aPolyLine);
+        } else if (points instanceof PackedPointList) {
+            //Lines are views of the packed points
+            int numPoints = this.getPointNum();
+            for (int p = 0; p < _numParts; p++) {
+                int end = p == _numParts - 1 ? numPoints : parts[p + 1];
+                Polyline aPolyLine = new Polyline();
+                aPolyLine.setPointList(((PackedPointList) points).subList(parts[p], end));
+                polylines.add(aPolyLine);
+            }
         } else {
             PointD[] Pointps;
             Polyline aPolyLine;
@@ -313,7 +322,7 @@ public class PolylineShape extends Shape implements Cloneable {
             parts[partIdx + 1] += 1;
         }
 
-        ((List<PointD>) points).add(vIdx, vertice);
+        getEditablePoints().add(vIdx, vertice);
         this.updateExtent();
         updatePolyLines();
     }
@@ -330,7 +339,7 @@ public class PolylineShape extends Shape implements Cloneable {
             parts[partIdx + 1] -= 1;
         }
 
-        ((List<PointD>) points).remove(vIdx);
+        getEditablePoints().remove(vIdx);
         this.updateExtent();
         updatePolyLines();
     }
@@ -355,11 +364,15 @@ public class PolylineShape extends Shape implements Cloneable {
         aPLS.setExtent(this.getExtent());
         aPLS._numParts = _numParts;
         aPLS.parts = (int[]) parts.clone();
-        List<PointD> points = new ArrayList<>();
-        for (PointD point : (List<PointD>) this.points) {
-            points.add((PointD) point.clone());
+        if (this.points instanceof PackedPointList) {
+            aPLS.setPoints(((PackedPointList) this.points).copy());
+        } else {
+            List<PointD> points = new ArrayList<>();
+            for (PointD point : (List<PointD>) this.points) {
+                points.add((PointD) point.clone());
+            }
+            aPLS.setPoints(points);
         }
-        aPLS.setPoints(points);
         aPLS.setVisible(this.isVisible());
         aPLS.setSelected(this.isSelected());
         aPLS.setLegendIndex(this.getLegendIndex());
@@ -394,11 +407,15 @@ public class PolylineShape extends Shape implements Cloneable {
         this.setExtent(o.getExtent());
         this._numParts = o._numParts;
         this.parts = (int[]) o.parts.clone();
-        List<PointD> points = new ArrayList<>();
-        for (PointD point : (List<PointD>) o.points) {
-            points.add((PointD) point.clone());
+        if (o.points instanceof PackedPointList) {
+            this.setPoints(((PackedPointList) o.points).copy());
+        } else {
+            List<PointD> points = new ArrayList<>();
+            for (PointD point : (List<PointD>) o.points) {
+                points.add((PointD) point.clone());
+            }
+            this.setPoints(points);
         }
-        this.setPoints(points);
         this.setVisible(o.isVisible());
         this.setSelected(o.isSelected());
         this.setLegendIndex(o.getLegendIndex());
@@ -273,37 +273,56 @@ public abstract class Shape implements Cloneable{
             int last = points.size() - 1;
             if (vIdx == 0) {
                 if (points.get(0).X == points.get(last).X && points.get(0).Y == points.get(last).Y) {
-                    points.get(last).X = newX;
-                    points.get(last).Y = newY;
+                    PackedPointList.set(points, last, newX, newY);
                 }
             } else if (vIdx == last) {
                 if (points.get(0).X == points.get(last).X && points.get(0).Y == points.get(last).Y) {
-                    points.get(0).X = newX;
-                    points.get(0).Y = newY;
+                    PackedPointList.set(points, 0, newX, newY);
                 }
             }
         }
 
-        PointD aP = points.get(vIdx);
-        aP.X = newX;
-        aP.Y = newY;
+        PackedPointList.set(points, vIdx, newX, newY);
         //points.set(vIdx, aP);
         setPoints(points);
     }
-    
+
     /**
      * Move the shape
      * @param xShift X shift
      * @param yShift Y shift
      */
     public void move(double xShift, double yShift){
-        List<PointD> points = (List<PointD>) this.getPoints();
-        for (PointD aPoint : points) {
-            aPoint.X += xShift;
-            aPoint.Y += yShift;
+        shiftPoints(xShift, yShift);
+        this.setPoints(this.getPoints());
+    }
+
+    /**
+     * Shift the points in place, the extent is not updated
+     * @param xShift X shift
+     * @param yShift Y shift
+     */
+    public void shiftPoints(double xShift, double yShift) {
+        if (this.points instanceof PackedPointList) {
+            ((PackedPointList) this.points).translate(xShift, yShift);
+        } else {
+            for (PointD aPoint : this.points) {
+                aPoint.X += xShift;
+                aPoint.Y += yShift;
+            }
         }
+    }
 
-        this.setPoints(points);
+    /**
+     * Get points which can be resized, packed points are unpacked to a
+     * point object list
+     * @return The points
+     */
+    protected List<PointD> getEditablePoints() {
+        if (this.points instanceof PackedPointList) {
+            this.points = new ArrayList<>(this.points);
+        }
+        return (List<PointD>) this.points;
     }
     
     /**
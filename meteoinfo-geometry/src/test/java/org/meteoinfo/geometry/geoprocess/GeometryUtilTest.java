@@ -0,0 +1,94 @@
+package org.meteoinfo.geometry.geoprocess;
+
+import org.junit.jupiter.api.Test;
+import org.meteoinfo.common.PointD;
+import org.meteoinfo.geometry.shape.PackedPointList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeometryUtilTest {
+
+    /**
+     * Closed circle ring with small noise on the radius
+     */
+    private static double[] ring(int n, double radius, double noise) {
+        double[] xy = new double[(n + 1) * 2];
+        for (int i = 0; i < n; i++) {
+            double a = 2 * Math.PI * i / n;
+            double r = radius + (i % 2 == 0 ? noise : -noise);
+            xy[i * 2] = r * Math.cos(a);
+            xy[i * 2 + 1] = r * Math.sin(a);
+        }
+        xy[n * 2] = xy[0];
+        xy[n * 2 + 1] = xy[1];
+        return xy;
+    }
+
+    private static void assertClosedRing(double[] xy) {
+        int n = xy.length / 2;
+        assertTrue(n >= 4, "Point number " + n);
+        assertEquals(xy[0], xy[(n - 1) * 2]);
+        assertEquals(xy[1], xy[(n - 1) * 2 + 1]);
+    }
+
+    @Test
+    public void testClosedRing() {
+        double[] xy = ring(200, 10, 0.01);
+        for (double tolerance : new double[]{0.05, 0.5, 2, 100}) {
+            double[] r = GeometryUtil.simplify(xy, tolerance, true);
+            assertClosedRing(r);
+            assertTrue(r.length < xy.length);
+        }
+
+        //Larger tolerance keeps less points
+        assertTrue(GeometryUtil.simplify(xy, 2, true).length < GeometryUtil.simplify(xy, 0.5, true).length);
+
+        //All the kept points are from the input
+        double[] r = GeometryUtil.simplify(xy, 0.5, true);
+        for (int i = 0; i < r.length / 2; i++) {
+            boolean found = false;
+            for (int j = 0; j < xy.length / 2; j++) {
+                if (r[i * 2] == xy[j * 2] && r[i * 2 + 1] == xy[j * 2 + 1]) {
+                    found = true;
+                    break;
+                }
+            }
+            assertTrue(found, "Point " + i);
+        }
+    }
+
+    @Test
+    public void testZeroTolerance() {
+        double[] xy = ring(50, 10, 0);
+        assertArrayEquals(xy, GeometryUtil.simplify(xy, 0, true));
+
+        //Collinear and duplicate points are kept too
+        double[] line = new double[]{0, 0, 1, 0, 1, 0, 2, 0, 3, 0, 4, 1};
+        assertArrayEquals(line, GeometryUtil.simplify(line, 0, false));
+    }
+
+    @Test
+    public void testCollinear() {
+        double[] line = new double[]{0, 0, 1, 0, 2, 0, 3, 0, 4, 0, 4, 1, 4, 2, 4, 3};
+        assertArrayEquals(new double[]{0, 0, 4, 0, 4, 3}, GeometryUtil.simplify(line, 0.01, false));
+
+        double[] square = new double[]{0, 0, 0, 1, 0, 2, 1, 2, 2, 2, 2, 1, 2, 0, 1, 0, 0, 0};
+        double[] r = GeometryUtil.simplify(square, 0.01, true);
+        assertArrayEquals(new double[]{0, 0, 0, 2, 2, 2, 2, 0, 0, 0}, r);
+    }
+
+    @Test
+    public void testPointList() {
+        double[] xy = ring(100, 5, 0.001);
+        List<PointD> points = new ArrayList<>();
+        for (int i = 0; i < xy.length / 2; i++) {
+            points.add(new PointD(xy[i * 2], xy[i * 2 + 1]));
+        }
+        double[] expected = GeometryUtil.simplify(xy.clone(), 0.2, true);
+        assertArrayEquals(expected, GeometryUtil.simplify(points, 0.2, true));
+        assertArrayEquals(expected, GeometryUtil.simplify(new PackedPointList(xy), 0.2, true));
+    }
+}
@@ -0,0 +1,98 @@
+package org.meteoinfo.geometry.geoprocess;
+
+import org.junit.jupiter.api.Test;
+import org.meteoinfo.common.Extent;
+import org.meteoinfo.common.PointD;
+import org.meteoinfo.geometry.shape.PointShape;
+import org.meteoinfo.geometry.shape.PolylineShape;
+import org.meteoinfo.geometry.shape.Shape;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackedRTreeTest {
+
+    private static int[] linearQuery(double[] itemBounds, double minX, double minY, double maxX, double maxY) {
+        List<Integer> r = new ArrayList<>();
+        for (int i = 0; i < itemBounds.length / 4; i++) {
+            int k = i * 4;
+            if (itemBounds[k] <= maxX && itemBounds[k + 1] <= maxY && itemBounds[k + 2] >= minX
+                    && itemBounds[k + 3] >= minY) {
+                r.add(i);
+            }
+        }
+        return r.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static double[] randomBounds(Random random, int n) {
+        double[] r = new double[n * 4];
+        for (int i = 0; i < n; i++) {
+            double x = random.nextDouble() * 360 - 180;
+            double y = random.nextDouble() * 180 - 90;
+            //Some points and some large boxes
+            double w = random.nextInt(5) == 0 ? 0 : random.nextDouble() * (random.nextInt(10) == 0 ? 100 : 5);
+            double h = random.nextInt(5) == 0 ? 0 : random.nextDouble() * (random.nextInt(10) == 0 ? 50 : 5);
+            r[i * 4] = x;
+            r[i * 4 + 1] = y;
+            r[i * 4 + 2] = x + w;
+            r[i * 4 + 3] = y + h;
+        }
+        return r;
+    }
+
+    @Test
+    public void testQueryLinearScan() {
+        Random random = new Random(7);
+        for (int n : new int[]{0, 1, 15, 16, 17, 255, 256, 257, 5000}) {
+            double[] itemBounds = randomBounds(random, n);
+            PackedRTree tree = new PackedRTree(itemBounds);
+            assertEquals(n, tree.size());
+            for (int q = 0; q < 200; q++) {
+                double x = random.nextDouble() * 400 - 200;
+                double y = random.nextDouble() * 200 - 100;
+                double w = random.nextDouble() * (q % 4 == 0 ? 200 : 20);
+                double h = random.nextDouble() * (q % 4 == 0 ? 100 : 10);
+                assertArrayEquals(linearQuery(itemBounds, x, y, x + w, y + h),
+                        tree.query(x, y, x + w, y + h), "n=" + n + " q=" + q);
+            }
+
+            //Query exactly on the item boundaries
+            for (int i = 0; i < Math.min(n, 50); i++) {
+                double maxX = itemBounds[i * 4 + 2], maxY = itemBounds[i * 4 + 3];
+                int[] r = tree.query(new PointD(maxX, maxY));
+                assertArrayEquals(linearQuery(itemBounds, maxX, maxY, maxX, maxY), r);
+                assertTrue(Arrays.binarySearch(r, i) >= 0);
+            }
+        }
+    }
+
+    @Test
+    public void testShapes() {
+        List<Shape> shapes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            if (i % 2 == 0) {
+                shapes.add(new PointShape(new PointD(i, i)));
+            } else {
+                PolylineShape line = new PolylineShape();
+                line.setPoints(Arrays.asList(new PointD(i, 0), new PointD(i + 10, 5)));
+                shapes.add(line);
+            }
+        }
+        PackedRTree tree = new PackedRTree(shapes);
+
+        Extent extent = new Extent(20, 30, 2, 4);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < shapes.size(); i++) {
+            if (shapes.get(i).getExtent().intersects(extent)) {
+                expected.add(i);
+            }
+        }
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), tree.query(extent));
+        assertArrayEquals(new int[]{50}, tree.query(new PointD(50, 50)));
+        assertArrayEquals(new int[0], new PackedRTree(new ArrayList<Shape>()).query(extent));
+    }
+}
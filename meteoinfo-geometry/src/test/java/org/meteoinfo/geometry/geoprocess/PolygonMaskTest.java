@@ -0,0 +1,154 @@
+package org.meteoinfo.geometry.geoprocess;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.meteoinfo.common.PointD;
+import org.meteoinfo.geometry.shape.PackedPointList;
+import org.meteoinfo.geometry.shape.Polygon;
+import org.meteoinfo.geometry.shape.PolygonShape;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PolygonMaskTest {
+
+    @AfterEach
+    public void tearDown() {
+        PolygonMask.setMaxCacheBytes(64L * 1024 * 1024);
+        PolygonMask.clearCache();
+    }
+
+    private static PolygonShape polygonShape(double[] outLine, double[] hole) {
+        Polygon polygon = new Polygon();
+        polygon.setOutLine(new PackedPointList(outLine));
+        if (hole != null) {
+            polygon.addHole(new PackedPointList(hole));
+        }
+        PolygonShape ps = new PolygonShape();
+        ps.setPolygons(Collections.singletonList(polygon));
+        return ps;
+    }
+
+    /**
+     * Closed star shaped ring around a center with random radii
+     */
+    private static double[] star(Random random, double cx, double cy, double r0, double r1, int n) {
+        double[] xy = new double[(n + 1) * 2];
+        for (int i = 0; i < n; i++) {
+            double a = 2 * Math.PI * i / n;
+            double r = r0 + random.nextDouble() * (r1 - r0);
+            xy[i * 2] = cx + r * Math.cos(a);
+            xy[i * 2 + 1] = cy + r * Math.sin(a);
+        }
+        xy[n * 2] = xy[0];
+        xy[n * 2 + 1] = xy[1];
+        return xy;
+    }
+
+    private static List<PolygonShape> randomPolygons(Random random) {
+        List<PolygonShape> polygons = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            double cx = 10 + random.nextDouble() * 80;
+            double cy = 10 + random.nextDouble() * 80;
+            double[] hole = i % 2 == 0 ? star(random, cx, cy, 3, 8, 30) : null;
+            polygons.add(polygonShape(star(random, cx, cy, 10, 25, 40 + random.nextInt(200)), hole));
+        }
+        return polygons;
+    }
+
+    private static double[] coordinates(Random random, int n, double min, double max) {
+        double[] r = new double[n];
+        for (int i = 0; i < n; i++) {
+            r[i] = min + (max - min) * i / (n - 1) + random.nextDouble() * 1e-3;
+        }
+        return r;
+    }
+
+    @Test
+    public void testGrid() {
+        Random random = new Random(11);
+        List<PolygonShape> polygons = randomPolygons(random);
+        double[] x = coordinates(random, 150, -5, 105);
+        double[] y = coordinates(random, 120, -5, 105);
+        PolygonMask mask = PolygonMask.of(x, y, polygons);
+        assertArrayEquals(new int[]{y.length, x.length}, mask.getShape());
+
+        int inside = 0;
+        for (int i = 0; i < y.length; i++) {
+            for (int j = 0; j < x.length; j++) {
+                boolean in = GeoComputation.pointInPolygons(polygons, new PointD(x[j], y[i]));
+                assertEquals(in, mask.isInside(i * x.length + j), "Point " + x[j] + ", " + y[i]);
+                if (in) {
+                    inside += 1;
+                }
+            }
+        }
+        assertTrue(inside > 0);
+        assertEquals(inside, mask.getInsideNumber());
+    }
+
+    @Test
+    public void testPoints() {
+        Random random = new Random(13);
+        List<PolygonShape> polygons = randomPolygons(random);
+        List<Number> x = new ArrayList<>();
+        List<Number> y = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            x.add(random.nextDouble() * 110 - 5);
+            y.add(random.nextDouble() * 110 - 5);
+        }
+        PolygonMask mask = PolygonMask.ofPoints(x, y, polygons);
+        for (int i = 0; i < x.size(); i++) {
+            PointD p = new PointD(x.get(i).doubleValue(), y.get(i).doubleValue());
+            assertEquals(GeoComputation.pointInPolygons(polygons, p), mask.isInside(i), "Point " + i);
+        }
+    }
+
+    @Test
+    public void testEditedPolygon() {
+        List<PolygonShape> polygons = new ArrayList<>();
+        polygons.add(polygonShape(new double[]{0, 0, 0, 10, 10, 10, 10, 0, 0, 0}, null));
+        double[] x = new double[]{5, 15};
+        double[] y = new double[]{5};
+        PolygonMask mask = PolygonMask.of(x, y, polygons);
+        assertSame(mask, PolygonMask.of(x.clone(), y.clone(), polygons));
+        assertTrue(mask.isInside(0));
+        assertFalse(mask.isInside(1));
+
+        //Edit the polygon in place
+        polygons.get(0).moveVertice(2, 20, 10);
+        polygons.get(0).moveVertice(3, 20, 0);
+        PolygonMask edited = PolygonMask.of(x, y, polygons);
+        assertNotSame(mask, edited);
+        assertTrue(edited.isInside(1));
+    }
+
+    @Test
+    public void testCacheBytes() {
+        List<PolygonShape> polygons = new ArrayList<>();
+        polygons.add(polygonShape(new double[]{0, 0, 0, 10, 10, 10, 10, 0, 0, 0}, null));
+        double[] y = coordinates(new Random(1), 100, 0, 10);
+        PolygonMask.clearCache();
+        PolygonMask m1 = PolygonMask.of(coordinates(new Random(2), 100, 0, 10), y, polygons);
+        long bytes = PolygonMask.getCacheBytes();
+        assertTrue(bytes >= 100 * 100 * 4);
+        double[] x2 = coordinates(new Random(3), 100, 0, 10);
+        PolygonMask m2 = PolygonMask.of(x2, y, polygons);
+        assertEquals(bytes * 2, PolygonMask.getCacheBytes());
+
+        //Shrinking keeps the most recently used mask
+        PolygonMask.setMaxCacheBytes(bytes);
+        assertEquals(bytes, PolygonMask.getCacheBytes());
+        assertSame(m2, PolygonMask.of(x2, y, polygons));
+
+        //Masks larger than the cache are not cached
+        PolygonMask.setMaxCacheBytes(bytes - 1);
+        assertEquals(0, PolygonMask.getCacheBytes());
+        assertNotSame(m1, PolygonMask.of(coordinates(new Random(2), 100, 0, 10), y, polygons));
+        assertEquals(0, PolygonMask.getCacheBytes());
+    }
+}
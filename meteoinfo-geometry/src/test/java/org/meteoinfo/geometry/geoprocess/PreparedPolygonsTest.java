@@ -0,0 +1,176 @@
+package org.meteoinfo.geometry.geoprocess;
+
+import org.junit.jupiter.api.Test;
+import org.meteoinfo.common.PointD;
+import org.meteoinfo.geometry.shape.PackedPointList;
+import org.meteoinfo.geometry.shape.Polygon;
+import org.meteoinfo.geometry.shape.PolygonShape;
+import org.meteoinfo.ndarray.Array;
+import org.meteoinfo.ndarray.DataType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PreparedPolygonsTest {
+
+    private static List<PointD> ring(double... xy) {
+        List<PointD> points = new ArrayList<>();
+        for (int i = 0; i < xy.length; i += 2) {
+            points.add(new PointD(xy[i], xy[i + 1]));
+        }
+        return points;
+    }
+
+    @SafeVarargs
+    private static PolygonShape polygonShape(List<? extends PointD> outLine, List<PointD>... holes) {
+        Polygon polygon = new Polygon();
+        polygon.setOutLine(outLine);
+        for (List<PointD> hole : holes) {
+            polygon.addHole(hole);
+        }
+        PolygonShape ps = new PolygonShape();
+        ps.setPolygons(Collections.singletonList(polygon));
+        return ps;
+    }
+
+    /**
+     * Star shaped ring around a center with random radii
+     */
+    private static double[] star(Random random, double cx, double cy, double r0, double r1, int n) {
+        double[] xy = new double[n * 2];
+        for (int i = 0; i < n; i++) {
+            double a = 2 * Math.PI * i / n;
+            double r = r0 + random.nextDouble() * (r1 - r0);
+            xy[i * 2] = cx + r * Math.cos(a);
+            xy[i * 2 + 1] = cy + r * Math.sin(a);
+        }
+        return xy;
+    }
+
+    /**
+     * Assert the prepared polygons agree with GeoComputation at a point
+     */
+    private static void assertAgree(List<PolygonShape> polygons, PreparedPolygons prepared, double x, double y) {
+        PointD p = new PointD(x, y);
+        int expected = -1;
+        for (int i = 0; i < polygons.size(); i++) {
+            boolean in = GeoComputation.pointInPolygon(polygons.get(i), p);
+            assertEquals(in, prepared.contains(i, x, y), "Polygon " + i + " at " + x + ", " + y);
+            if (in && expected < 0) {
+                expected = i;
+            }
+        }
+        assertEquals(expected, prepared.polygonIndex(x, y), "Point " + x + ", " + y);
+        assertEquals(expected >= 0, prepared.contains(x, y), "Point " + x + ", " + y);
+    }
+
+    /**
+     * Assert agreement at the vertices, the edge midpoints and random points
+     */
+    private static void assertAgree(List<PolygonShape> polygons, PreparedPolygons prepared, Random random) {
+        for (PolygonShape ps : polygons) {
+            for (Polygon polygon : ps.getPolygons()) {
+                for (List<? extends PointD> ring : polygon.getRings()) {
+                    int n = ring.size();
+                    for (int i = 0; i < n; i++) {
+                        PointD p1 = ring.get(i);
+                        PointD p2 = ring.get((i + 1) % n);
+                        assertAgree(polygons, prepared, p1.X, p1.Y);
+                        assertAgree(polygons, prepared, (p1.X + p2.X) / 2, (p1.Y + p2.Y) / 2);
+                        assertAgree(polygons, prepared, p1.X, p2.Y);
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < 20000; i++) {
+            assertAgree(polygons, prepared, random.nextDouble() * 120 - 10, random.nextDouble() * 120 - 10);
+        }
+    }
+
+    @Test
+    public void testHoleBoundary() {
+        List<PolygonShape> polygons = new ArrayList<>();
+        polygons.add(polygonShape(ring(0, 0, 0, 10, 10, 10, 10, 0, 0, 0), ring(4, 4, 6, 4, 6, 6, 4, 6, 4, 4)));
+        PreparedPolygons prepared = new PreparedPolygons(polygons);
+
+        assertTrue(prepared.contains(2, 2));
+        assertFalse(prepared.contains(5, 5));
+        assertFalse(prepared.contains(12, 5));
+        for (double x = -1; x <= 11; x += 0.5) {
+            for (double y = -1; y <= 11; y += 0.5) {
+                assertAgree(polygons, prepared, x, y);
+            }
+        }
+    }
+
+    @Test
+    public void testRandomPolygons() {
+        Random random = new Random(19);
+        List<PolygonShape> polygons = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            double cx = 10 + random.nextDouble() * 80;
+            double cy = 10 + random.nextDouble() * 80;
+            PackedPointList outLine = new PackedPointList(star(random, cx, cy, 10, 25, 50 + random.nextInt(300)));
+            if (i % 2 == 0) {
+                double[] hole = star(random, cx, cy, 3, 8, 40);
+                polygons.add(polygonShape(outLine, ring(hole)));
+            } else {
+                polygons.add(polygonShape(outLine));
+            }
+        }
+        PreparedPolygons prepared = new PreparedPolygons(polygons);
+        assertEquals(polygons.size(), prepared.size());
+        assertAgree(polygons, prepared, random);
+    }
+
+    @Test
+    public void testLongEdges() {
+        //Comb with long top and side edges and many short teeth edges
+        int teeth = 400;
+        double[] xy = new double[(teeth * 2 + 3) * 2];
+        int k = 0;
+        xy[k++] = 0;
+        xy[k++] = 100;
+        xy[k++] = 100;
+        xy[k++] = 100;
+        for (int i = 0; i <= teeth * 2; i++) {
+            xy[k++] = 100 - i * 100.0 / (teeth * 2);
+            xy[k++] = i % 2 == 0 ? 0 : 50;
+        }
+        List<PolygonShape> polygons = new ArrayList<>();
+        polygons.add(polygonShape(new PackedPointList(Arrays.copyOf(xy, k))));
+        PreparedPolygons prepared = new PreparedPolygons(polygons);
+
+        assertTrue(prepared.contains(50, 75));
+        assertFalse(prepared.contains(50, 110));
+        assertAgree(polygons, prepared, new Random(7));
+    }
+
+    @Test
+    public void testPolygonIndex() {
+        List<PolygonShape> polygons = new ArrayList<>();
+        polygons.add(polygonShape(ring(0, 0, 0, 10, 10, 10, 10, 0, 0, 0)));
+        polygons.add(polygonShape(ring(20, 0, 20, 10, 30, 10, 30, 0, 20, 0)));
+        polygons.add(polygonShape(ring(5, 5, 5, 25, 25, 25, 25, 5, 5, 5)));
+        PreparedPolygons prepared = new PreparedPolygons(polygons);
+
+        assertEquals(0, prepared.polygonIndex(2, 2));
+        assertEquals(0, prepared.polygonIndex(7, 7));
+        assertEquals(1, prepared.polygonIndex(27, 2));
+        assertEquals(2, prepared.polygonIndex(15, 15));
+        assertEquals(-1, prepared.polygonIndex(15, 2));
+
+        Array x = Array.factory(DataType.DOUBLE, new int[]{2, 2}, new double[]{2, 27, 15, 15});
+        Array y = Array.factory(DataType.DOUBLE, new int[]{2, 2}, new double[]{2, 2, 15, 2});
+        Array r = prepared.polygonIndex(x, y);
+        assertArrayEquals(new int[]{2, 2}, r.getShape());
+        assertArrayEquals(new int[]{0, 1, 2, -1}, (int[]) r.get1DJavaArray(int.class));
+        Array c = prepared.contains(x, y);
+        assertArrayEquals(new boolean[]{true, true, true, false}, (boolean[]) c.get1DJavaArray(boolean.class));
+    }
+}
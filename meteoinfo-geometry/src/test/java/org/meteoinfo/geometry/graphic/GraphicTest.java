@@ -0,0 +1,68 @@
+package org.meteoinfo.geometry.graphic;
+
+import org.junit.jupiter.api.Test;
+import org.meteoinfo.common.PointD;
+import org.meteoinfo.geometry.legend.PolygonBreak;
+import org.meteoinfo.geometry.shape.PackedPointList;
+import org.meteoinfo.geometry.shape.PolygonShape;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphicTest {
+
+    private static void assertPoint(double x, double y, PointD p) {
+        assertEquals(x, p.X);
+        assertEquals(y, p.Y);
+    }
+
+    private static Graphic packedPolygon() {
+        PolygonShape shape = new PolygonShape();
+        shape.setPoints(new PackedPointList(new double[]{0, 0, 0, 10, 10, 10, 10, 0, 0, 0}));
+        return new Graphic(shape, new PolygonBreak());
+    }
+
+    @Test
+    public void testVerticeMove() {
+        Graphic graphic = packedPolygon();
+        graphic.verticeMoveUpdate(2, 12, 15);
+        assertPoint(12, 15, graphic.getShape().getPoints().get(2));
+        assertEquals(15, graphic.getShape().getExtent().maxY);
+
+        //The closing vertex moves with the first one
+        graphic.verticeMoveUpdate(0, -1, -2);
+        assertPoint(-1, -2, graphic.getShape().getPoints().get(0));
+        assertPoint(-1, -2, graphic.getShape().getPoints().get(4));
+        assertEquals(-1, graphic.getShape().getExtent().minX);
+
+        //Undo
+        graphic.verticeMoveUpdate(0, 0, 0);
+        graphic.verticeMoveUpdate(2, 10, 10);
+        assertPoint(0, 0, graphic.getShape().getPoints().get(4));
+        assertPoint(10, 10, graphic.getShape().getPoints().get(2));
+        assertEquals(10, graphic.getShape().getExtent().maxY);
+    }
+
+    @Test
+    public void testVerticeAddRemove() {
+        Graphic graphic = packedPolygon();
+        graphic.verticeAddUpdate(1, new PointD(-5, 5));
+        assertEquals(6, graphic.getShape().getPointNum());
+        assertPoint(-5, 5, graphic.getShape().getPoints().get(1));
+        assertPoint(0, 10, graphic.getShape().getPoints().get(2));
+        assertEquals(-5, graphic.getShape().getExtent().minX);
+
+        //Moving a vertex of the unpacked points
+        graphic.verticeMoveUpdate(1, -6, 5);
+        assertPoint(-6, 5, graphic.getShape().getPoints().get(1));
+
+        //Undo
+        graphic.verticeRemoveUpdate(1);
+        assertEquals(5, graphic.getShape().getPointNum());
+        assertPoint(0, 10, graphic.getShape().getPoints().get(1));
+        assertEquals(0, graphic.getShape().getExtent().minX);
+
+        graphic.verticeRemoveUpdate(3);
+        assertEquals(4, graphic.getShape().getPointNum());
+        assertPoint(0, 0, graphic.getShape().getPoints().get(3));
+    }
+}
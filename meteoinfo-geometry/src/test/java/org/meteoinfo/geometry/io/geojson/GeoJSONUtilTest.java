@@ -0,0 +1,83 @@
+package org.meteoinfo.geometry.io.geojson;
+
+import org.junit.jupiter.api.Test;
+import org.meteoinfo.geometry.shape.PackedPointList;
+import org.meteoinfo.geometry.shape.PolygonShape;
+import org.meteoinfo.geometry.shape.PolylineShape;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeoJSONUtilTest {
+
+    private static final double[][] OUTLINE = new double[][]{{0, 0}, {0, 10}, {10, 10}, {10, 0}, {0, 0}};
+    private static final double[][] HOLE = new double[][]{{2, 2}, {4, 2}, {4, 4}, {2, 4}, {2, 2}};
+    private static final double[][] OUTLINE2 = new double[][]{{20, 0}, {20, 5}, {25, 5}, {20, 0}};
+
+    private static double[][][][] polygons(Geometry geometry) {
+        if (geometry instanceof MultiPolygon) {
+            return ((MultiPolygon) geometry).getCoordinates();
+        }
+        return new double[][][][]{((Polygon) geometry).getCoordinates()};
+    }
+
+    private static void assertCoordinates(double[][][][] expected, double[][][][] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int k = 0; k < expected.length; k++) {
+            assertEquals(expected[k].length, actual[k].length);
+            for (int j = 0; j < expected[k].length; j++) {
+                assertEquals(expected[k][j].length, actual[k][j].length);
+                for (int i = 0; i < expected[k][j].length; i++) {
+                    assertArrayEquals(expected[k][j][i], actual[k][j][i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPolygon() {
+        double[][][] coordinates = new double[][][]{OUTLINE, HOLE};
+        PolygonShape shape = GeoJSONUtil.toShape(new Polygon(coordinates));
+        assertTrue(shape.getPoints() instanceof PackedPointList);
+        assertEquals(10, shape.getPointNum());
+        assertArrayEquals(new int[]{0, 5}, shape.getParts());
+        assertEquals(1, shape.getPolygons().size());
+        assertEquals(1, shape.getPolygon(0).getHoleLineNumber());
+
+        assertCoordinates(new double[][][][]{coordinates}, polygons(GeoJSONUtil.fromShape(shape)));
+    }
+
+    @Test
+    public void testMultiPolygon() {
+        double[][][][] coordinates = new double[][][][]{{OUTLINE, HOLE}, {OUTLINE2}};
+        PolygonShape shape = GeoJSONUtil.toShape(new MultiPolygon(coordinates));
+        assertEquals(14, shape.getPointNum());
+        assertArrayEquals(new int[]{0, 5, 10}, shape.getParts());
+        assertEquals(2, shape.getPolygons().size());
+        assertEquals(20, shape.getPoints().get(10).X);
+
+        assertCoordinates(coordinates, polygons(GeoJSONUtil.fromShape(shape)));
+    }
+
+    @Test
+    public void testMultiLineString() {
+        double[][][] coordinates = new double[][][]{{{0, 0}, {1, 1}}, {{5, 5}, {6, 6}, {7, 8}}};
+        PolylineShape shape = GeoJSONUtil.toShape(new MultiLineString(coordinates));
+        assertTrue(shape.getPoints() instanceof PackedPointList);
+        assertArrayEquals(new int[]{0, 2}, shape.parts);
+        assertEquals(2, shape.getPolylines().size());
+
+        double[][][] r = ((MultiLineString) GeoJSONUtil.fromShape(shape)).getCoordinates();
+        assertEquals(2, r.length);
+        for (int j = 0; j < 2; j++) {
+            assertEquals(coordinates[j].length, r[j].length);
+            for (int i = 0; i < coordinates[j].length; i++) {
+                assertArrayEquals(coordinates[j][i], r[j][i]);
+            }
+        }
+
+        double[][] line = ((LineString) GeoJSONUtil.fromShape(GeoJSONUtil.toShape(
+                new LineString(coordinates[1])))).getCoordinates();
+        assertEquals(3, line.length);
+        assertArrayEquals(coordinates[1][2], line[2]);
+    }
+}
@@ -0,0 +1,192 @@
+package org.meteoinfo.geometry.shape;
+
+import org.junit.jupiter.api.Test;
+import org.meteoinfo.common.Extent;
+import org.meteoinfo.common.PointD;
+import org.meteoinfo.geometry.geoprocess.GeoComputation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackedPointListTest {
+
+    private static double[] coords(List<? extends PointD> points) {
+        double[] r = new double[points.size() * 2];
+        for (int i = 0; i < points.size(); i++) {
+            r[i * 2] = points.get(i).X;
+            r[i * 2 + 1] = points.get(i).Y;
+        }
+        return r;
+    }
+
+    private static void assertPoint(double x, double y, PointD p) {
+        assertEquals(x, p.X);
+        assertEquals(y, p.Y);
+    }
+
+    @Test
+    public void testGetSet() {
+        PackedPointList list = new PackedPointList(new double[]{0, 1, 2, 3, 4, 5});
+        assertEquals(3, list.size());
+        assertEquals(2, list.getX(1));
+        assertEquals(3, list.getY(1));
+        assertEquals(4, list.get(2).X);
+
+        list.set(1, 20, 30);
+        assertArrayEquals(new double[]{0, 1, 20, 30, 4, 5}, coords(list));
+        PointD old = list.set(0, new PointD(-1, -2));
+        assertEquals(0, old.X);
+        assertEquals(-2, list.getY(0));
+
+        //Points got from the list are copies
+        list.get(2).X = 100;
+        assertEquals(4, list.getX(2));
+
+        PackedPointList.set(list, 2, 40, 50);
+        assertEquals(40, list.getX(2));
+        List<PointD> points = new ArrayList<>(Arrays.asList(new PointD(0, 0), new PointD(1, 1)));
+        PointD p = points.get(1);
+        PackedPointList.set(points, 1, 7, 8);
+        assertEquals(7, p.X);
+        assertEquals(8, p.Y);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(3));
+        assertThrows(UnsupportedOperationException.class, () -> list.add(new PointD(0, 0)));
+        assertThrows(UnsupportedOperationException.class, () -> list.remove(0));
+    }
+
+    @Test
+    public void testSubList() {
+        PackedPointList list = new PackedPointList(new double[]{0, 1, 2, 3, 4, 5, 6, 7});
+        PackedPointList sub = list.subList(1, 3);
+        assertEquals(2, sub.size());
+        assertArrayEquals(new double[]{2, 3, 4, 5}, coords(sub));
+
+        //Views share the array
+        sub.set(0, 20, 30);
+        assertEquals(20, list.getX(1));
+        list.set(2, 40, 50);
+        assertEquals(50, sub.getY(1));
+        assertArrayEquals(new double[]{40, 50}, coords(sub.subList(1, 2)));
+
+        //Copies do not share the array
+        PackedPointList copy = sub.copy();
+        copy.set(0, -1, -1);
+        assertEquals(20, list.getX(1));
+        assertArrayEquals(new double[]{-1, -1, 40, 50}, coords(copy));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.subList(2, 5));
+        assertThrows(IndexOutOfBoundsException.class, () -> sub.get(2));
+    }
+
+    @Test
+    public void testOfConcat() {
+        List<PointD> points = Arrays.asList(new PointD(0, 1), new PointD(2, 3));
+        PackedPointList a = PackedPointList.of(points);
+        assertArrayEquals(new double[]{0, 1, 2, 3}, coords(a));
+        assertSame(a, PackedPointList.of(a));
+
+        PackedPointList b = new PackedPointList(new float[]{4, 5, 6, 7, 8, 9}).subList(1, 3);
+        PackedPointList c = PackedPointList.concat(Arrays.asList(a, b));
+        assertFalse(c.isFloat());
+        assertArrayEquals(new double[]{0, 1, 2, 3, 6, 7, 8, 9}, coords(c));
+
+        double[] dest = new double[6];
+        b.copyTo(dest, 2);
+        assertArrayEquals(new double[]{0, 0, 6, 7, 8, 9}, dest);
+    }
+
+    @Test
+    public void testFloat() {
+        PackedPointList list = new PackedPointList(new double[]{0.1, 1.5, 2.25, 3});
+        PackedPointList f = list.toFloat();
+        assertTrue(f.isFloat());
+        assertEquals((float) 0.1, f.getX(0));
+        assertEquals(2.25, f.getX(1));
+        f.set(1, 4, 5);
+        assertArrayEquals(new double[]{(float) 0.1, 1.5, 4, 5}, coords(f));
+        assertTrue(f.copy().isFloat());
+    }
+
+    @Test
+    public void testTranslateExtent() {
+        PackedPointList list = new PackedPointList(new double[]{0, 1, 2, -3, -4, 5});
+        Extent extent = list.getExtent();
+        assertEquals(-4, extent.minX);
+        assertEquals(2, extent.maxX);
+        assertEquals(-3, extent.minY);
+        assertEquals(5, extent.maxY);
+
+        list.subList(1, 3).translate(10, 100);
+        assertArrayEquals(new double[]{0, 1, 12, 97, 6, 105}, coords(list));
+    }
+
+    @Test
+    public void testPolygonPointOrder() {
+        //Two counter clockwise rings, the first one is reversed as the outline
+        double[] xy = new double[]{0, 0, 10, 0, 10, 10, 0, 10, 0, 0,
+                2, 2, 4, 2, 4, 4, 2, 4, 2, 2};
+        PolygonShape shape = new PolygonShape();
+        shape.setPartNum(2);
+        shape.parts = new int[]{0, 5};
+        shape.setPoints(new PackedPointList(xy.clone()));
+
+        assertArrayEquals(xy, coords(shape.getPoints()));
+        assertEquals(1, shape.getPolygons().size());
+        Polygon polygon = shape.getPolygon(0);
+        assertTrue(GeoComputation.isClockwise(polygon.getOutLine()));
+        assertEquals(1, polygon.getHoleLineNumber());
+        assertArrayEquals(Arrays.copyOfRange(xy, 10, 20), coords(polygon.getHoleLine(0)));
+    }
+
+    @Test
+    public void testPolygonVertices() {
+        double[] xy = new double[]{0, 0, 0, 10, 10, 10, 10, 0, 0, 0,
+                2, 2, 4, 2, 4, 4, 2, 4, 2, 2};
+        PolygonShape shape = new PolygonShape();
+        shape.setPartNum(2);
+        shape.parts = new int[]{0, 5};
+        shape.setPoints(new PackedPointList(xy.clone()));
+
+        shape.moveVertice(3, 12, -1);
+        assertPoint(12, -1, shape.getPoints().get(3));
+        assertEquals(12, shape.getExtent().maxX);
+        assertEquals(-1, shape.getPolygon(0).getExtent().minY);
+
+        shape.addVertice(1, new PointD(-1, 5));
+        assertEquals(11, shape.getPointNum());
+        assertArrayEquals(new int[]{0, 6}, shape.parts);
+        assertPoint(-1, 5, shape.getPoints().get(1));
+        assertEquals(6, shape.getPolygon(0).getOutLine().size());
+        assertEquals(5, shape.getPolygon(0).getHoleLine(0).size());
+
+        shape.removeVertice(1);
+        assertEquals(10, shape.getPointNum());
+        assertArrayEquals(new int[]{0, 5}, shape.parts);
+        assertPoint(0, 10, shape.getPoints().get(1));
+
+        PolygonShape clone = (PolygonShape) shape.clone();
+        clone.moveVertice(2, 20, 20);
+        assertPoint(10, 10, shape.getPoints().get(2));
+    }
+
+    @Test
+    public void testPolylineShape() {
+        PolylineShape shape = new PolylineShape();
+        shape.setPartNum(2);
+        shape.parts = new int[]{0, 2};
+        shape.setPoints(new PackedPointList(new double[]{0, 0, 1, 1, 5, 5, 6, 6, 7, 7}));
+        assertEquals(2, shape.getPolylines().size());
+        assertArrayEquals(new double[]{5, 5, 6, 6, 7, 7},
+                coords(shape.getPolylines().get(1).getPointList()));
+
+        shape.move(1, 2);
+        assertArrayEquals(new double[]{6, 7, 7, 8, 8, 9},
+                coords(shape.getPolylines().get(1).getPointList()));
+        assertEquals(1, shape.getExtent().minX);
+        assertEquals(9, shape.getExtent().maxY);
+    }
+}
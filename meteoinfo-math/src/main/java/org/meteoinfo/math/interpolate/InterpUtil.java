@@ -262,6 +262,12 @@ public class InterpUtil {
     /**
      * Cressman analysis
      *
+     * <p>The station residuals of each pass are computed from the grid values
+     * of the previous pass, so the result does not depend on the grid
+     * traversal order. Earlier versions corrected the grid values in place,
+     * so the residuals of later grid points used the values already corrected
+     * in the same pass.
+     *
      * @param x_s scatter X array
      * @param y_s scatter Y array
      * @param v_s scatter value array
@@ -272,173 +278,19 @@ public class InterpUtil {
      */
     public static Array cressman(List<Number> x_s, List<Number> y_s, Array v_s, List<Number> X, List<Number> Y,
             List<Number> radList) {
-        v_s = v_s.copyIfView();
-
-        int xNum = X.size();
-        int yNum = Y.size();
-        int pNum = x_s.size();
-        Array r = Array.factory(DataType.DOUBLE, new int[]{yNum, xNum});
-        int irad = radList.size();
-        int i, j;
-
-        //Loop through each stn report and convert stn lat/lon to grid coordinates
-        double xMin = X.get(0).doubleValue();
-        double xMax;
-        double yMin = Y.get(0).doubleValue();
-        double yMax;
-        double xDelt = X.get(1).doubleValue() - X.get(0).doubleValue();
-        double yDelt = Y.get(1).doubleValue() - Y.get(0).doubleValue();
-        double x, y;
-        double sum;
-        double[][] stationData = new double[pNum][5];
-        for (i = 0; i < pNum; i++) {
-            x = x_s.get(i).doubleValue();
-            y = y_s.get(i).doubleValue();
-            stationData[i][0] = x;
-            stationData[i][1] = y;
-            stationData[i][2] = v_s.getDouble(i);
-            stationData[i][3] = (x - xMin) / xDelt;
-            stationData[i][4] = (y - yMin) / yDelt;
-        }
-
-        //Construct K-D tree
-        KDTree.Euclidean<double[]> kdTree = new KDTree.Euclidean<>(2);
-        for (i = 0; i < pNum; i++) {
-            if (!Double.isNaN(stationData[i][2]))
-                kdTree.addPoint(new double[]{stationData[i][0], stationData[i][1]}, stationData[i]);
-        }
-
-        double HITOP = -999900000000000000000.0;
-        double HIBOT = 999900000000000000000.0;
-        double[][] TOP = new double[yNum][xNum];
-        double[][] BOT = new double[yNum][xNum];
-        for (i = 0; i < yNum; i++) {
-            for (j = 0; j < xNum; j++) {
-                TOP[i][j] = HITOP;
-                BOT[i][j] = HIBOT;
-            }
-        }
-
-        //Initial grid values are average of station reports within the first radius
-        double val, sx, sy, sxi, syi;
-        double rad;
-        int stNum;
-        if (radList.size() > 0) {
-            rad = radList.get(0).doubleValue();
-        } else {
-            rad = 4;
-        }
-        for (i = 0; i < yNum; i++) {
-            y = Y.get(i).doubleValue();
-            for (j = 0; j < xNum; j++) {
-                x = X.get(j).doubleValue();
-                stNum = 0;
-                sum = 0;
-                ArrayList<double[]> neighbours = kdTree.ballSearch(new double[]{x, y}, rad * rad);
-                for (double[] station : neighbours) {
-                    val = station[2];
-                    sum += val;
-                    stNum += 1;
-                    if (TOP[i][j] < val) {
-                        TOP[i][j] = val;
-                    }
-                    if (BOT[i][j] > val) {
-                        BOT[i][j] = val;
-                    }
-                }
-                if (stNum == 0) {
-                    r.setDouble(i * xNum + j, Double.NaN);
-                } else {
-                    r.setDouble(i * xNum + j, sum / stNum);
-                }
-            }
-        }
-
-        //Perform the objective analysis
-        for (int p = 0; p < irad; p++) {
-            rad = radList.get(p).doubleValue();
-            for (i = 0; i < yNum; i++) {
-                y = Y.get(i).doubleValue();
-                for (j = 0; j < xNum; j++) {
-                    if (Double.isNaN(r.getDouble(i * xNum + j))) {
-                        continue;
-                    }
-
-                    x = X.get(j).doubleValue();
-                    sum = 0;
-                    double wSum = 0;
-                    ArrayList<double[]> neighbours = kdTree.ballSearch(new double[]{x, y}, rad * rad);
-                    for (double[] station : neighbours) {
-                        val = station[2];
-                        sx = station[0];
-                        sy = station[1];
-                        sxi = station[3];
-                        syi = station[4];
-                        
-                        if (sxi < 0 || sxi >= xNum - 1 || syi < 0 || syi >= yNum - 1) {
-                            continue;
-                        }
-                        
-                        double dis = Math.sqrt(Math.pow(sx - x, 2) + Math.pow(sy - y, 2));
-
-                        int i1 = (int) syi;
-                        int j1 = (int) sxi;
-                        int i2 = i1 + 1;
-                        int j2 = j1 + 1;
-                        double a = r.getDouble(i1 * xNum + j1);
-                        double b = r.getDouble(i1 * xNum + j2);
-                        double c = r.getDouble(i2 * xNum + j1);
-                        double d = r.getDouble(i2 * xNum + j2);
-                        List<Double> dList = new ArrayList<>();
-                        if (!Double.isNaN(a)) {
-                            dList.add(a);
-                        }
-                        if (!Double.isNaN(b)) {
-                            dList.add(b);
-                        }
-                        if (!Double.isNaN(c)) {
-                            dList.add(c);
-                        }
-                        if (Double.isNaN(d)) {
-                            dList.add(d);
-                        }
-
-                        double calVal;
-                        if (dList.isEmpty()) {
-                            continue;
-                        } else if (dList.size() == 1) {
-                            calVal = dList.get(0);
-                        } else if (dList.size() <= 3) {
-                            double aSum = 0;
-                            for (double dd : dList) {
-                                aSum += dd;
-                            }
-                            calVal = aSum / dList.size();
-                        } else {
-                            double x1val = a + (c - a) * (syi - i1);
-                            double x2val = b + (d - b) * (syi - i1);
-                            calVal = x1val + (x2val - x1val) * (sxi - j1);
-                        }
-                        double eVal = val - calVal;
-                        double w = (rad * rad - dis * dis) / (rad * rad + dis * dis);
-                        sum += eVal * w;
-                        wSum += w;
-                    }
-                    if (wSum >= 0.000001) {
-                        double aData = r.getDouble(i * xNum + j) + sum / wSum;
-                        r.setDouble(i * xNum + j, Math.max(BOT[i][j], Math.min(TOP[i][j], aData)));
-                    }
-                }
-            }
-        }
+        ScatterGridder gridder = new ScatterGridder(toDoubles(x_s), toDoubles(y_s), toDoubles(X), toDoubles(Y));
+        double[] r = gridder.cressman(toDoubles(radList), toDoubles(v_s))[0];
 
-        //Return
-        return r;
+        return Array.factory(DataType.DOUBLE, new int[]{Y.size(), X.size()}, r);
     }
 
     /**
      * Barnes analysis
      *
+     * <p>The station residuals of each pass are computed from the grid values
+     * of the previous pass, so the result does not depend on the grid
+     * traversal order.
+     *
      * @param x_s scatter X array
      * @param y_s scatter Y array
      * @param v_s scatter value array
@@ -453,178 +305,19 @@ public class InterpUtil {
      */
     public static Array barnes(List<Number> x_s, List<Number> y_s, Array v_s, List<Number> X, List<Number> Y,
             List<Number> radList, double kappa, double gamma) {
-        v_s = v_s.copyIfView();
-
-        int xNum = X.size();
-        int yNum = Y.size();
-        int pNum = x_s.size();
-        Array r = Array.factory(DataType.DOUBLE, new int[]{yNum, xNum});
-        int irad = radList.size();
-        int i, j;
-
-        //Loop through each stn report and convert stn lat/lon to grid coordinates
-        double xMin = X.get(0).doubleValue();
-        double xMax;
-        double yMin = Y.get(0).doubleValue();
-        double yMax;
-        double xDelt = X.get(1).doubleValue() - X.get(0).doubleValue();
-        double yDelt = Y.get(1).doubleValue() - Y.get(0).doubleValue();
-        double x, y;
-        double sum, wSum, w;
-        double[][] stationData = new double[pNum][5];
-        for (i = 0; i < pNum; i++) {
-            x = x_s.get(i).doubleValue();
-            y = y_s.get(i).doubleValue();
-            stationData[i][0] = x;
-            stationData[i][1] = y;
-            stationData[i][2] = v_s.getDouble(i);
-            stationData[i][3] = (x - xMin) / xDelt;
-            stationData[i][4] = (y - yMin) / yDelt;
-        }
-
-        //Construct K-D tree
-        KDTree.Euclidean<double[]> kdTree = new KDTree.Euclidean<>(2);
-        for (i = 0; i < pNum; i++) {
-            if (!Double.isNaN(stationData[i][2]))
-                kdTree.addPoint(new double[]{stationData[i][0], stationData[i][1]}, stationData[i]);
-        }
-
-        double HITOP = -999900000000000000000.0;
-        double HIBOT = 999900000000000000000.0;
-        double[][] TOP = new double[yNum][xNum];
-        double[][] BOT = new double[yNum][xNum];
-        for (i = 0; i < yNum; i++) {
-            for (j = 0; j < xNum; j++) {
-                TOP[i][j] = HITOP;
-                BOT[i][j] = HIBOT;
-            }
-        }
-
-        //Initial grid values are average of station reports within the first radius
-        double val, sx, sy, sxi, syi;
-        double rad;
-        int stNum;
-        if (radList.size() > 0) {
-            rad = radList.get(0).doubleValue();
-        } else {
-            rad = 4;
-        }
-        for (i = 0; i < yNum; i++) {
-            y = Y.get(i).doubleValue();
-            for (j = 0; j < xNum; j++) {
-                x = X.get(j).doubleValue();
-                stNum = 0;
-                sum = 0;
-                wSum = 0;
-                ArrayList<double[]> neighbours = kdTree.ballSearch(new double[]{x, y}, rad * rad);
-                for (double[] station : neighbours) {
-                    val = station[2];
-                    sx = station[0];
-                    sy = station[1];
-                    double dis = Math.pow(sx - x, 2) + Math.pow(sy - y, 2);
-                    w = Math.exp(-dis / (4 * kappa));
-                    wSum += w;
-                    sum += w * val;
-                    stNum += 1;
-                    if (TOP[i][j] < val) {
-                        TOP[i][j] = val;
-                    }
-                    if (BOT[i][j] > val) {
-                        BOT[i][j] = val;
-                    }
-                }
-                if (stNum == 0) {
-                    r.setDouble(i * xNum + j, Double.NaN);
-                } else {
-                    r.setDouble(i * xNum + j, sum / stNum);
-                }
-            }
-        }
-
-        //Perform the objective analysis
-        for (int p = 0; p < irad; p++) {
-            rad = radList.get(p).doubleValue();
-            for (i = 0; i < yNum; i++) {
-                y = Y.get(i).doubleValue();
-                for (j = 0; j < xNum; j++) {
-                    if (Double.isNaN(r.getDouble(i * xNum + j))) {
-                        continue;
-                    }
+        ScatterGridder gridder = new ScatterGridder(toDoubles(x_s), toDoubles(y_s), toDoubles(X), toDoubles(Y));
+        double[] r = gridder.barnes(toDoubles(radList), kappa, gamma, toDoubles(v_s))[0];
 
-                    x = X.get(j).doubleValue();
-                    sum = 0;
-                    wSum = 0;
-                    ArrayList<double[]> neighbours = kdTree.ballSearch(new double[]{x, y}, rad * rad);
-                    for (double[] station : neighbours) {
-                        val = station[2];
-                        sx = station[0];
-                        sy = station[1];
-                        sxi = station[3];
-                        syi = station[4];
-                        
-                        if (sxi < 0 || sxi >= xNum - 1 || syi < 0 || syi >= yNum - 1) {
-                            continue;
-                        }
-                        
-                        double dis = Math.pow(sx - x, 2) + Math.pow(sy - y, 2);
-                        int i1 = (int) syi;
-                        int j1 = (int) sxi;
-                        int i2 = i1 + 1;
-                        int j2 = j1 + 1;
-                        double a = r.getDouble(i1 * xNum + j1);
-                        double b = r.getDouble(i1 * xNum + j2);
-                        double c = r.getDouble(i2 * xNum + j1);
-                        double d = r.getDouble(i2 * xNum + j2);
-                        List<Double> dList = new ArrayList<>();
-                        if (!Double.isNaN(a)) {
-                            dList.add(a);
-                        }
-                        if (!Double.isNaN(b)) {
-                            dList.add(b);
-                        }
-                        if (!Double.isNaN(c)) {
-                            dList.add(c);
-                        }
-                        if (Double.isNaN(d)) {
-                            dList.add(d);
-                        }
-
-                        double calVal;
-                        if (dList.isEmpty()) {
-                            continue;
-                        } else if (dList.size() == 1) {
-                            calVal = dList.get(0);
-                        } else if (dList.size() <= 3) {
-                            double aSum = 0;
-                            for (double dd : dList) {
-                                aSum += dd;
-                            }
-                            calVal = aSum / dList.size();
-                        } else {
-                            double x1val = a + (c - a) * (syi - i1);
-                            double x2val = b + (d - b) * (syi - i1);
-                            calVal = x1val + (x2val - x1val) * (sxi - j1);
-                        }
-                        double eVal = val - calVal;
-                        w = Math.exp(-dis / (4 * kappa * gamma));
-                        sum += eVal * w;
-                        wSum += w;
-                    }
-                    if (wSum >= 0.000001) {
-                        double aData = r.getDouble(i * xNum + j) + sum / wSum;
-                        r.setDouble(i * xNum + j, Math.max(BOT[i][j], Math.min(TOP[i][j], aData)));
-                    }
-                }
-            }
-        }
-
-        //Return
-        return r;
+        return Array.factory(DataType.DOUBLE, new int[]{Y.size(), X.size()}, r);
     }
 
     /**
      * Barnes analysis
      *
+     * <p>The station residuals of each pass are computed from the grid values
+     * of the previous pass, so the result does not depend on the grid
+     * traversal order.
+     *
      * @param x_s scatter X array
      * @param y_s scatter Y array
      * @param v_s scatter value array
@@ -639,176 +332,28 @@ public class InterpUtil {
      */
     public static double[][] barnes(double[] x_s, double[] y_s, double[] v_s, double[] X, double[] Y,
                                List<Double> radList, double kappa, double gamma) {
-        int xNum = X.length;
-        int yNum = Y.length;
-        int pNum = x_s.length;
-        double[][] r = new double[yNum][xNum];
-        int irad = radList.size();
-        int i, j;
-
-        //Loop through each stn report and convert stn lat/lon to grid coordinates
-        double xMin = X[0];
-        double xMax;
-        double yMin = Y[0];
-        double yMax;
-        double xDelt = X[1] - X[0];
-        double yDelt = Y[1] - Y[0];
-        double x, y;
-        double sum, wSum, w;
-        double[][] stationData = new double[pNum][5];
-        for (i = 0; i < pNum; i++) {
-            x = x_s[i];
-            y = y_s[i];
-            stationData[i][0] = x;
-            stationData[i][1] = y;
-            stationData[i][2] = v_s[i];
-            stationData[i][3] = (x - xMin) / xDelt;
-            stationData[i][4] = (y - yMin) / yDelt;
-        }
-
-        //Construct K-D tree
-        KDTree.Euclidean<double[]> kdTree = new KDTree.Euclidean<>(2);
-        for (i = 0; i < pNum; i++) {
-            if (!Double.isNaN(stationData[i][2]))
-                kdTree.addPoint(new double[]{stationData[i][0], stationData[i][1]}, stationData[i]);
-        }
-
-        double HITOP = -999900000000000000000.0;
-        double HIBOT = 999900000000000000000.0;
-        double[][] TOP = new double[yNum][xNum];
-        double[][] BOT = new double[yNum][xNum];
-        for (i = 0; i < yNum; i++) {
-            for (j = 0; j < xNum; j++) {
-                TOP[i][j] = HITOP;
-                BOT[i][j] = HIBOT;
-            }
-        }
-
-        //Initial grid values are average of station reports within the first radius
-        double val, sx, sy, sxi, syi;
-        double rad;
-        int stNum;
-        if (radList.size() > 0) {
-            rad = radList.get(0).doubleValue();
-        } else {
-            rad = 4;
-        }
-        for (i = 0; i < yNum; i++) {
-            y = Y[i];
-            for (j = 0; j < xNum; j++) {
-                x = X[j];
-                stNum = 0;
-                sum = 0;
-                wSum = 0;
-                ArrayList<double[]> neighbours = kdTree.ballSearch(new double[]{x, y}, rad * rad);
-                for (double[] station : neighbours) {
-                    val = station[2];
-                    sx = station[0];
-                    sy = station[1];
-                    double dis = Math.pow(sx - x, 2) + Math.pow(sy - y, 2);
-                    w = Math.exp(-dis / (4 * kappa));
-                    wSum += w;
-                    sum += w * val;
-                    stNum += 1;
-                    if (TOP[i][j] < val) {
-                        TOP[i][j] = val;
-                    }
-                    if (BOT[i][j] > val) {
-                        BOT[i][j] = val;
-                    }
-                }
-                if (stNum == 0) {
-                    r[i][j] = Double.NaN;
-                } else {
-                    r[i][j] = sum / stNum;
-                }
-            }
+        double[] radii = new double[radList.size()];
+        for (int i = 0; i < radii.length; i++) {
+            radii[i] = radList.get(i);
         }
+        ScatterGridder gridder = new ScatterGridder(x_s, y_s, X, Y);
+        double[] data = gridder.barnes(radii, kappa, gamma, v_s)[0];
 
-        //Perform the objective analysis
-        for (int p = 0; p < irad; p++) {
-            rad = radList.get(p).doubleValue();
-            for (i = 0; i < yNum; i++) {
-                y = Y[i];
-                for (j = 0; j < xNum; j++) {
-                    if (Double.isNaN(r[i][j])) {
-                        continue;
-                    }
-
-                    x = X[j];
-                    sum = 0;
-                    wSum = 0;
-                    ArrayList<double[]> neighbours = kdTree.ballSearch(new double[]{x, y}, rad * rad);
-                    for (double[] station : neighbours) {
-                        val = station[2];
-                        sx = station[0];
-                        sy = station[1];
-                        sxi = station[3];
-                        syi = station[4];
-
-                        if (sxi < 0 || sxi >= xNum - 1 || syi < 0 || syi >= yNum - 1) {
-                            continue;
-                        }
-
-                        double dis = Math.pow(sx - x, 2) + Math.pow(sy - y, 2);
-                        int i1 = (int) syi;
-                        int j1 = (int) sxi;
-                        int i2 = i1 + 1;
-                        int j2 = j1 + 1;
-                        double a = r[i1][j1];
-                        double b = r[i1][j2];
-                        double c = r[i2][j1];
-                        double d = r[i2][j2];
-                        List<Double> dList = new ArrayList<>();
-                        if (!Double.isNaN(a)) {
-                            dList.add(a);
-                        }
-                        if (!Double.isNaN(b)) {
-                            dList.add(b);
-                        }
-                        if (!Double.isNaN(c)) {
-                            dList.add(c);
-                        }
-                        if (Double.isNaN(d)) {
-                            dList.add(d);
-                        }
-
-                        double calVal;
-                        if (dList.isEmpty()) {
-                            continue;
-                        } else if (dList.size() == 1) {
-                            calVal = dList.get(0);
-                        } else if (dList.size() <= 3) {
-                            double aSum = 0;
-                            for (double dd : dList) {
-                                aSum += dd;
-                            }
-                            calVal = aSum / dList.size();
-                        } else {
-                            double x1val = a + (c - a) * (syi - i1);
-                            double x2val = b + (d - b) * (syi - i1);
-                            calVal = x1val + (x2val - x1val) * (sxi - j1);
-                        }
-                        double eVal = val - calVal;
-                        w = Math.exp(-dis / (4 * kappa * gamma));
-                        sum += eVal * w;
-                        wSum += w;
-                    }
-                    if (wSum >= 0.000001) {
-                        double aData = r[i][j] + sum / wSum;
-                        r[i][j] = Math.max(BOT[i][j], Math.min(TOP[i][j], aData));
-                    }
-                }
-            }
+        int xNum = X.length;
+        double[][] r = new double[Y.length][];
+        for (int i = 0; i < r.length; i++) {
+            r[i] = Arrays.copyOfRange(data, i * xNum, (i + 1) * xNum);
         }
-
-        //Return
         return r;
     }
 
     /**
      * Barnes analysis
      *
+     * <p>The first guess is the Gaussian weighted mean of the stations in the
+     * grid extent. Earlier versions divided the weighted sum by the station
+     * number instead of the weight sum.
+     *
      * @param x_s scatter X array
      * @param y_s scatter Y array
      * @param v_s scatter value array
@@ -822,129 +367,10 @@ public class InterpUtil {
      */
     public static Array barnes(List<Number> x_s, List<Number> y_s, Array v_s, List<Number> X, List<Number> Y,
             double kappa, double gamma) {
-        v_s = v_s.copyIfView();
-
-        int xNum = X.size();
-        int yNum = Y.size();
-        int pNum = x_s.size();
-        Array r = Array.factory(DataType.DOUBLE, new int[]{yNum, xNum});
-        int i, j;
-
-        //Loop through each stn report and convert stn lat/lon to grid coordinates
-        double xMin = X.get(0).doubleValue();
-        double xMax = X.get(xNum - 1).doubleValue();
-        double yMin = Y.get(0).doubleValue();
-        double yMax = Y.get(yNum - 1).doubleValue();
-        double xDelt = X.get(1).doubleValue() - X.get(0).doubleValue();
-        double yDelt = Y.get(1).doubleValue() - Y.get(0).doubleValue();
-        double x, y;
-        double sum;
-        double[][] stationData = new double[pNum][5];
-        for (i = 0; i < pNum; i++) {
-            x = x_s.get(i).doubleValue();
-            y = y_s.get(i).doubleValue();
-            stationData[i][0] = x;
-            stationData[i][1] = y;
-            stationData[i][2] = v_s.getDouble(i);
-            stationData[i][3] = (x - xMin) / xDelt;
-            stationData[i][4] = (y - yMin) / yDelt;
-        }
-
-        //First guess values
-        double val, sx, sy, sxi, syi;
-        for (i = 0; i < yNum; i++) {
-            y = Y.get(i).doubleValue();
-            for (j = 0; j < xNum; j++) {
-                x = X.get(j).doubleValue();
-                sum = 0;
-                double wSum = 0;
-                double w;
-                for (double[] station : stationData) {
-                    val = station[2];
-                    sx = station[0];
-                    sy = station[1];
-                    if (Double.isNaN(val) || sx < xMin || sx > xMax || sy < yMin || sy > yMax) {
-                        continue;
-                    }
-
-                    double dis = Math.pow(sx - x, 2) + Math.pow(sy - y, 2);
-                    w = Math.exp(-dis / (4 * kappa));
-                    wSum += w;
-                    sum += w * val;
-                }
-                r.setDouble(i * xNum + j, sum / wSum);
-            }
-        }
+        ScatterGridder gridder = new ScatterGridder(toDoubles(x_s), toDoubles(y_s), toDoubles(X), toDoubles(Y));
+        double[] r = gridder.barnes(kappa, gamma, toDoubles(v_s))[0];
 
-        //Second pass
-        for (i = 0; i < yNum; i++) {
-            y = Y.get(i).doubleValue();
-            for (j = 0; j < xNum; j++) {
-                x = X.get(j).doubleValue();
-                sum = 0;
-                double wSum = 0;
-                double w;
-                for (double[] station : stationData) {
-                    val = station[2];
-                    sx = station[0];
-                    sy = station[1];
-                    sxi = station[3];
-                    syi = station[4];
-                    if (Double.isNaN(val) || sx < xMin || sx > xMax || sy < yMin || sy > yMax) {
-                        continue;
-                    }
-
-                    int i1 = (int) syi;
-                    int j1 = (int) sxi;
-                    int i2 = i1 + 1;
-                    int j2 = j1 + 1;
-                    double a = r.getDouble(i1 * xNum + j1);
-                    double b = r.getDouble(i1 * xNum + j2);
-                    double c = r.getDouble(i2 * xNum + j1);
-                    double d = r.getDouble(i2 * xNum + j2);
-                    List<Double> dList = new ArrayList<>();
-                    if (!Double.isNaN(a)) {
-                        dList.add(a);
-                    }
-                    if (!Double.isNaN(b)) {
-                        dList.add(b);
-                    }
-                    if (!Double.isNaN(c)) {
-                        dList.add(c);
-                    }
-                    if (Double.isNaN(d)) {
-                        dList.add(d);
-                    }
-
-                    double calVal;
-                    if (dList.isEmpty()) {
-                        continue;
-                    } else if (dList.size() == 1) {
-                        calVal = dList.get(0);
-                    } else if (dList.size() <= 3) {
-                        double aSum = 0;
-                        for (double dd : dList) {
-                            aSum += dd;
-                        }
-                        calVal = aSum / dList.size();
-                    } else {
-                        double x1val = a + (c - a) * (syi - i1);
-                        double x2val = b + (d - b) * (syi - i1);
-                        calVal = x1val + (x2val - x1val) * (sxi - j1);
-                    }
-                    double eVal = val - calVal;
-
-                    double dis = Math.pow(sx - x, 2) + Math.pow(sy - y, 2);
-                    w = Math.exp(-dis / (4 * kappa * gamma));
-                    wSum += w;
-                    sum += w * eVal;
-                }
-                r.setDouble(i * xNum + j, r.getDouble(i * xNum + j) + sum / wSum);
-            }
-        }
-
-        //Return
-        return r;
+        return Array.factory(DataType.DOUBLE, new int[]{Y.size(), X.size()}, r);
     }
 
     /**
@@ -1720,57 +1146,10 @@ public class InterpUtil {
      */
     public static Array interpolation_IDW_Radius(List<Number> x_s, List<Number> y_s, Array a,
                                                  List<Number> X, List<Number> Y, int neededPointNum, double radius) {
-        int rowNum, colNum, pNum;
-        colNum = X.size();
-        rowNum = Y.size();
-        pNum = x_s.size();
-        Array r = Array.factory(DataType.DOUBLE, new int[]{rowNum, colNum});
-        int i, j;
-        double w, gx, gy, v;
-        boolean match;
-
-        //Construct K-D tree
-        KDTree.Euclidean<Double> kdTree = new KDTree.Euclidean<>(2);
-        IndexIterator iter = a.getIndexIterator();
-        for (i = 0; i < pNum; i++) {
-            v = iter.getDoubleNext();
-            if (!Double.isNaN(v)) {
-                kdTree.addPoint(new double[]{x_s.get(i).doubleValue(), y_s.get(i).doubleValue()}, v);
-            }
-        }
-
-        //---- Do interpolation
-        for (i = 0; i < rowNum; i++) {
-            gy = Y.get(i).doubleValue();
-            for (j = 0; j < colNum; j++) {
-                gx = X.get(j).doubleValue();
-                List<KDTree.SearchResult<Double>> srs = kdTree.ballSearch_distance(new double[]{gx, gy}, radius * radius);
-                if (srs == null || srs.size() < neededPointNum) {
-                    r.setDouble(i * colNum + j, Double.NaN);
-                } else {
-                    double v_sum = 0.0;
-                    double weight_sum = 0.0;
-                    match = false;
-                    for (KDTree.SearchResult sr : srs) {
-                        v = (double) sr.payload;
-                        if (sr.distance == 0) {
-                            r.setDouble(i * colNum + j, v);
-                            match = true;
-                            break;
-                        } else {
-                            w = 1. / sr.distance;
-                            weight_sum += w;
-                            v_sum += v * w;
-                        }
-                    }
-                    if (!match) {
-                        r.setDouble(i * colNum + j, v_sum / weight_sum);
-                    }
-                }
-            }
-        }
+        ScatterGridder gridder = new ScatterGridder(toDoubles(x_s), toDoubles(y_s), toDoubles(X), toDoubles(Y));
+        double[] r = gridder.idwRadius(neededPointNum, radius, toDoubles(a))[0];
 
-        return r;
+        return Array.factory(DataType.DOUBLE, new int[]{Y.size(), X.size()}, r);
     }
 
     /**
@@ -1787,62 +1166,10 @@ public class InterpUtil {
      */
     public static Array interpolation_IDW_Radius(Array x_s, Array y_s, Array a,
                                                  Array X, Array Y, int neededPointNum, double radius) {
-        x_s = x_s.copyIfView();
-        y_s = y_s.copyIfView();
-        a = a.copyIfView();
-        X = X.copyIfView();
-        Y = Y.copyIfView();
-
-        int rowNum, colNum, pNum;
-        colNum = (int)X.getSize();
-        rowNum = (int)Y.getSize();
-        pNum = (int)x_s.getSize();
-        Array r = Array.factory(DataType.DOUBLE, new int[]{rowNum, colNum});
-        int i, j;
-        double w, gx, gy, v;
-        boolean match;
-
-        //Construct K-D tree
-        KDTree.Euclidean<Double> kdTree = new KDTree.Euclidean<>(2);
-        for (i = 0; i < pNum; i++) {
-            v = a.getDouble(i);
-            if (!Double.isNaN(v)) {
-                kdTree.addPoint(new double[]{x_s.getDouble(i), y_s.getDouble(i)}, v);
-            }
-        }
+        ScatterGridder gridder = new ScatterGridder(toDoubles(x_s), toDoubles(y_s), toDoubles(X), toDoubles(Y));
+        double[] r = gridder.idwRadius(neededPointNum, radius, toDoubles(a))[0];
 
-        //---- Do interpolation
-        for (i = 0; i < rowNum; i++) {
-            gy = Y.getDouble(i);
-            for (j = 0; j < colNum; j++) {
-                gx = X.getDouble(j);
-                List<KDTree.SearchResult<Double>> srs = kdTree.ballSearch_distance(new double[]{gx, gy}, radius * radius);
-                if (srs == null || srs.size() < neededPointNum) {
-                    r.setDouble(i * colNum + j, Double.NaN);
-                } else {
-                    double v_sum = 0.0;
-                    double weight_sum = 0.0;
-                    match = false;
-                    for (KDTree.SearchResult sr : srs) {
-                        v = (double) sr.payload;
-                        if (sr.distance == 0) {
-                            r.setDouble(i * colNum + j, v);
-                            match = true;
-                            break;
-                        } else {
-                            w = 1. / sr.distance;
-                            weight_sum += w;
-                            v_sum += v * w;
-                        }
-                    }
-                    if (!match) {
-                        r.setDouble(i * colNum + j, v_sum / weight_sum);
-                    }
-                }
-            }
-        }
-
-        return r;
+        return Array.factory(DataType.DOUBLE, new int[]{(int) Y.getSize(), (int) X.getSize()}, r);
     }
 
     /**
@@ -1940,57 +1267,10 @@ public class InterpUtil {
      */
     public static Array interpolation_IDW_Neighbor(List<Number> x_s, List<Number> y_s, Array a,
                                                    List<Number> X, List<Number> Y, Integer points) {
-        int colNum = X.size();
-        int rowNum = Y.size();
-        int pNum = x_s.size();
-        Array r = Array.factory(DataType.DOUBLE, new int[]{rowNum, colNum});
-        int i, j;
-        double w, v, gx, gy;
-        boolean match;
-
-        //Construct K-D tree
-        int n = 0;
-        IndexIterator iter = a.getIndexIterator();
-        KDTree.Euclidean<Double> kdTree = new KDTree.Euclidean<>(2);
-        for (i = 0; i < pNum; i++) {
-            v = iter.getDoubleNext();
-            if (!Double.isNaN(v)) {
-                kdTree.addPoint(new double[]{x_s.get(i).doubleValue(), y_s.get(i).doubleValue()}, v);
-                n += 1;
-            }
-        }
-        if (points == null) {
-            points = n;
-        }
-
-        //---- Do interpolation with IDW method
-        for (i = 0; i < rowNum; i++) {
-            gy = Y.get(i).doubleValue();
-            for (j = 0; j < colNum; j++) {
-                gx = X.get(j).doubleValue();
-                List<KDTree.SearchResult<Double>> srs = kdTree.nearestNeighbours(new double[]{gx, gy}, points);
-                double v_sum = 0.0;
-                double weight_sum = 0.0;
-                match = false;
-                for (KDTree.SearchResult sr : srs) {
-                    v = (double) sr.payload;
-                    if (sr.distance == 0) {
-                        r.setDouble(i * colNum + j, v);
-                        match = true;
-                        break;
-                    } else {
-                        w = 1. / sr.distance;
-                        weight_sum += w;
-                        v_sum += v * w;
-                    }
-                }
-                if (!match) {
-                    r.setDouble(i * colNum + j, v_sum / weight_sum);
-                }
-            }
-        }
+        ScatterGridder gridder = new ScatterGridder(toDoubles(x_s), toDoubles(y_s), toDoubles(X), toDoubles(Y));
+        double[] r = gridder.idwNeighbor(points == null ? Integer.MAX_VALUE : points, toDoubles(a))[0];
 
-        return r;
+        return Array.factory(DataType.DOUBLE, new int[]{Y.size(), X.size()}, r);
     }
 
     /**
@@ -2006,61 +1286,10 @@ public class InterpUtil {
      */
     public static Array interpolation_IDW_Neighbor(Array x_s, Array y_s, Array a,
                                                    Array X, Array Y, Integer points) {
-        x_s = x_s.copyIfView();
-        y_s = y_s.copyIfView();
-        a = a.copyIfView();
-        X = X.copyIfView();
-        Y = Y.copyIfView();
-        int colNum = (int)X.getSize();
-        int rowNum = (int)Y.getSize();
-        int pNum = (int)x_s.getSize();
-        Array r = Array.factory(DataType.DOUBLE, new int[]{rowNum, colNum});
-        int i, j;
-        double w, v, gx, gy;
-        boolean match;
-
-        //Construct K-D tree
-        int n = 0;
-        KDTree.Euclidean<Double> kdTree = new KDTree.Euclidean<>(2);
-        for (i = 0; i < pNum; i++) {
-            v = a.getDouble(i);
-            if (!Double.isNaN(v)) {
-                kdTree.addPoint(new double[]{x_s.getDouble(i), y_s.getDouble(i)}, v);
-                n += 1;
-            }
-        }
-        if (points == null) {
-            points = n;
-        }
+        ScatterGridder gridder = new ScatterGridder(toDoubles(x_s), toDoubles(y_s), toDoubles(X), toDoubles(Y));
+        double[] r = gridder.idwNeighbor(points == null ? Integer.MAX_VALUE : points, toDoubles(a))[0];
 
-        //---- Do interpolation with IDW method
-        for (i = 0; i < rowNum; i++) {
-            gy = Y.getDouble(i);
-            for (j = 0; j < colNum; j++) {
-                gx = X.getDouble(j);
-                List<KDTree.SearchResult<Double>> srs = kdTree.nearestNeighbours(new double[]{gx, gy}, points);
-                double v_sum = 0.0;
-                double weight_sum = 0.0;
-                match = false;
-                for (KDTree.SearchResult sr : srs) {
-                    v = (double) sr.payload;
-                    if (sr.distance == 0) {
-                        r.setDouble(i * colNum + j, v);
-                        match = true;
-                        break;
-                    } else {
-                        w = 1. / sr.distance;
-                        weight_sum += w;
-                        v_sum += v * w;
-                    }
-                }
-                if (!match) {
-                    r.setDouble(i * colNum + j, v_sum / weight_sum);
-                }
-            }
-        }
-
-        return r;
+        return Array.factory(DataType.DOUBLE, new int[]{(int) Y.getSize(), (int) X.getSize()}, r);
     }
 
     /**
@@ -2143,6 +1372,18 @@ public class InterpUtil {
         return r;
     }
 
+    private static double[] toDoubles(List<Number> values) {
+        double[] r = new double[values.size()];
+        for (int i = 0; i < r.length; i++) {
+            r[i] = values.get(i).doubleValue();
+        }
+        return r;
+    }
+
+    private static double[] toDoubles(Array a) {
+        return (double[]) a.get1DJavaArray(double.class);
+    }
+
     /**
      * Interpolation with Kriging2D method
      *
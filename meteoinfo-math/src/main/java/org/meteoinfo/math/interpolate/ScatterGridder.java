@@ -0,0 +1,487 @@
+package org.meteoinfo.math.interpolate;
+
+import org.meteoinfo.math.spatial.StaticKDTree;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Gridding of scatter (station) data to a rectilinear grid with IDW, Cressman
+ * and Barnes methods.
+ *
+ * <p>The station coordinates are indexed once in a {@link StaticKDTree} and
+ * the grid rows are interpolated in parallel, each thread with its own
+ * neighbour buffer. Several variables observed at the same stations can be
+ * gridded in one call, so the neighbours of each grid point are searched once
+ * for all the variables. Station values of NaN are skipped for each variable.
+ * A gridder is immutable and can be reused for the variables of other times.
+ *
+ * @author Yaqiang Wang
+ */
+public class ScatterGridder {
+
+    // <editor-fold desc="Variables">
+    private final double[] x_s;
+    private final double[] y_s;
+    private final double[] X;
+    private final double[] Y;
+    private final StaticKDTree kdTree;
+    private final ThreadLocal<StaticKDTree.Neighbours> buffers = ThreadLocal.withInitial(StaticKDTree.Neighbours::new);
+    // </editor-fold>
+    // <editor-fold desc="Constructor">
+
+    /**
+     * Constructor
+     *
+     * @param x_s Scatter X coordinates
+     * @param y_s Scatter Y coordinates
+     * @param X Grid X coordinates
+     * @param Y Grid Y coordinates
+     */
+    public ScatterGridder(double[] x_s, double[] y_s, double[] X, double[] Y) {
+        if (x_s.length != y_s.length) {
+            throw new IllegalArgumentException("Scatter X and Y coordinates must have the same length");
+        }
+        this.x_s = x_s;
+        this.y_s = y_s;
+        this.X = X;
+        this.Y = Y;
+        this.kdTree = new StaticKDTree(x_s, y_s);
+    }
+    // </editor-fold>
+    // <editor-fold desc="Get Set Methods">
+
+    /**
+     * Get scatter point number
+     *
+     * @return Scatter point number
+     */
+    public int getPointNum() {
+        return this.x_s.length;
+    }
+
+    /**
+     * Get grid X number
+     *
+     * @return Grid X number
+     */
+    public int getXNum() {
+        return this.X.length;
+    }
+
+    /**
+     * Get grid Y number
+     *
+     * @return Grid Y number
+     */
+    public int getYNum() {
+        return this.Y.length;
+    }
+    // </editor-fold>
+    // <editor-fold desc="Methods">
+
+    private void checkValues(double[][] values) {
+        for (double[] v : values) {
+            if (v.length != x_s.length) {
+                throw new IllegalArgumentException("Scatter values must have the same length with the coordinates");
+            }
+        }
+    }
+
+    /**
+     * Interpolation with IDW neighbor method, the weight is the inverse square
+     * distance
+     *
+     * @param points Number of points used for interpolation
+     * @param values Scatter values of the variables
+     * @return Interpolated grid data of the variables, in row-major order
+     */
+    public double[][] idwNeighbor(int points, double[]... values) {
+        checkValues(values);
+        int nv = values.length;
+        int xNum = X.length;
+        //Search the stations with a valid value of any variable, the nearest valid
+        //stations of each variable are in the nearest points + missing stations
+        boolean[] valid = new boolean[x_s.length];
+        int validNum = 0;
+        for (int s = 0; s < valid.length; s++) {
+            if (Double.isNaN(x_s[s]) || Double.isNaN(y_s[s])) {
+                continue;
+            }
+            for (int v = 0; v < nv; v++) {
+                if (!Double.isNaN(values[v][s])) {
+                    valid[s] = true;
+                    validNum += 1;
+                    break;
+                }
+            }
+        }
+        int[] ks = new int[nv];
+        int maxMissing = 0;
+        for (int v = 0; v < nv; v++) {
+            int missing = 0;
+            for (int s = 0; s < valid.length; s++) {
+                if (valid[s] && Double.isNaN(values[v][s])) {
+                    missing += 1;
+                }
+            }
+            ks[v] = Math.min(points, validNum - missing);
+            maxMissing = Math.max(maxMissing, missing);
+        }
+        int k = (int) Math.min(validNum, (long) points + maxMissing);
+
+        double[][] r = new double[nv][xNum * Y.length];
+        IntStream.range(0, Y.length).parallel().forEach(i -> {
+            StaticKDTree.Neighbours nb = buffers.get();
+            for (int j = 0; j < xNum; j++) {
+                int idx = i * xNum + j;
+                kdTree.nearestSearch(X[j], Y[i], k, valid, nb);
+                for (int v = 0; v < nv; v++) {
+                    double[] a = values[v];
+                    double v_sum = 0.0;
+                    double weight_sum = 0.0;
+                    double match = Double.NaN;
+                    int n = 0;
+                    for (int m = 0; m < nb.size() && n < ks[v]; m++) {
+                        double val = a[nb.getIndex(m)];
+                        if (Double.isNaN(val)) {
+                            continue;
+                        }
+                        n += 1;
+                        double dis = nb.getDistance(m);
+                        if (dis == 0) {
+                            match = val;
+                            break;
+                        }
+                        double w = 1. / dis;
+                        weight_sum += w;
+                        v_sum += val * w;
+                    }
+                    r[v][idx] = Double.isNaN(match) ? v_sum / weight_sum : match;
+                }
+            }
+        });
+
+        return r;
+    }
+
+    /**
+     * Interpolation with IDW radius method, the weight is the inverse square
+     * distance
+     *
+     * @param neededPointNum Needed at least point number
+     * @param radius Search radius
+     * @param values Scatter values of the variables
+     * @return Interpolated grid data of the variables, in row-major order
+     */
+    public double[][] idwRadius(int neededPointNum, double radius, double[]... values) {
+        checkValues(values);
+        int nv = values.length;
+        int xNum = X.length;
+
+        double[][] r = new double[nv][xNum * Y.length];
+        IntStream.range(0, Y.length).parallel().forEach(i -> {
+            StaticKDTree.Neighbours nb = buffers.get();
+            for (int j = 0; j < xNum; j++) {
+                int idx = i * xNum + j;
+                kdTree.radiusSearch(X[j], Y[i], radius, nb);
+                for (int v = 0; v < nv; v++) {
+                    double[] a = values[v];
+                    double v_sum = 0.0;
+                    double weight_sum = 0.0;
+                    double match = Double.NaN;
+                    int n = 0;
+                    for (int m = 0; m < nb.size(); m++) {
+                        double val = a[nb.getIndex(m)];
+                        if (Double.isNaN(val)) {
+                            continue;
+                        }
+                        n += 1;
+                        double dis = nb.getDistance(m);
+                        if (dis == 0) {
+                            if (Double.isNaN(match)) {
+                                match = val;
+                            }
+                        } else {
+                            double w = 1. / dis;
+                            weight_sum += w;
+                            v_sum += val * w;
+                        }
+                    }
+                    if (n < neededPointNum) {
+                        r[v][idx] = Double.NaN;
+                    } else {
+                        r[v][idx] = Double.isNaN(match) ? v_sum / weight_sum : match;
+                    }
+                }
+            }
+        });
+
+        return r;
+    }
+
+    /**
+     * Cressman analysis
+     *
+     * @param radii Radii of the passes, the first radius is also used for the
+     * initial grid values. 4 is used for the initial values if it is empty.
+     * @param values Scatter values of the variables
+     * @return Analysis grid data of the variables, in row-major order
+     */
+    public double[][] cressman(double[] radii, double[]... values) {
+        return analysis(radii, values, (dis, rad2) -> 1,
+                (dis, rad2) -> (rad2 - dis) / (rad2 + dis));
+    }
+
+    /**
+     * Barnes analysis with search radii
+     *
+     * @param radii Radii of the passes, the first radius is also used for the
+     * initial grid values. 4 is used for the initial values if it is empty.
+     * @param kappa A falloff parameter that controls the width of the Gaussian
+     * function
+     * @param gamma The smoothing parameter, is constrained to be between 0.2
+     * and 1.0
+     * @param values Scatter values of the variables
+     * @return Analysis grid data of the variables, in row-major order
+     */
+    public double[][] barnes(double[] radii, double kappa, double gamma, double[]... values) {
+        return analysis(radii, values, (dis, rad2) -> Math.exp(-dis / (4 * kappa)),
+                (dis, rad2) -> Math.exp(-dis / (4 * kappa * gamma)));
+    }
+
+    /**
+     * Successive correction analysis. The grid values of each pass are
+     * corrected by the weighted residuals of the stations within the radius,
+     * the residuals are from the grid values of the previous pass.
+     *
+     * @param radii Radii of the passes
+     * @param values Scatter values of the variables
+     * @param firstWeight Weight function of squared distance and squared
+     * radius for the initial grid values
+     * @param weight Weight function of squared distance and squared radius for
+     * the corrections
+     * @return Analysis grid data
+     */
+    private double[][] analysis(double[] radii, double[][] values, DoubleBinaryOperator firstWeight,
+                                DoubleBinaryOperator weight) {
+        checkValues(values);
+        int nv = values.length;
+        int xNum = X.length;
+        int yNum = Y.length;
+        double[][] r = new double[nv][xNum * yNum];
+        double[][] top = new double[nv][xNum * yNum];
+        double[][] bot = new double[nv][xNum * yNum];
+
+        //Initial grid values are weighted average of station reports within the first radius
+        double rad0 = radii.length > 0 ? radii[0] : 4;
+        double rad02 = rad0 * rad0;
+        IntStream.range(0, yNum).parallel().forEach(i -> {
+            StaticKDTree.Neighbours nb = buffers.get();
+            for (int j = 0; j < xNum; j++) {
+                int idx = i * xNum + j;
+                kdTree.radiusSearch(X[j], Y[i], rad0, nb);
+                for (int v = 0; v < nv; v++) {
+                    double[] a = values[v];
+                    double sum = 0, wSum = 0;
+                    double max = Double.NEGATIVE_INFINITY, min = Double.POSITIVE_INFINITY;
+                    for (int m = 0; m < nb.size(); m++) {
+                        double val = a[nb.getIndex(m)];
+                        if (Double.isNaN(val)) {
+                            continue;
+                        }
+                        double w = firstWeight.applyAsDouble(nb.getDistance(m), rad02);
+                        sum += w * val;
+                        wSum += w;
+                        max = Math.max(max, val);
+                        min = Math.min(min, val);
+                    }
+                    r[v][idx] = max < min ? Double.NaN : sum / wSum;
+                    top[v][idx] = max;
+                    bot[v][idx] = min;
+                }
+            }
+        });
+
+        //Perform the objective analysis
+        for (double rad : radii) {
+            double rad2 = rad * rad;
+            double[][] residuals = residuals(values, r);
+            IntStream.range(0, yNum).parallel().forEach(i -> {
+                StaticKDTree.Neighbours nb = buffers.get();
+                for (int j = 0; j < xNum; j++) {
+                    int idx = i * xNum + j;
+                    boolean valid = false;
+                    for (int v = 0; v < nv; v++) {
+                        if (!Double.isNaN(r[v][idx])) {
+                            valid = true;
+                            break;
+                        }
+                    }
+                    if (!valid) {
+                        continue;
+                    }
+
+                    kdTree.radiusSearch(X[j], Y[i], rad, nb);
+                    for (int v = 0; v < nv; v++) {
+                        if (Double.isNaN(r[v][idx])) {
+                            continue;
+                        }
+                        double[] e = residuals[v];
+                        double sum = 0, wSum = 0;
+                        for (int m = 0; m < nb.size(); m++) {
+                            double eVal = e[nb.getIndex(m)];
+                            if (Double.isNaN(eVal)) {
+                                continue;
+                            }
+                            double w = weight.applyAsDouble(nb.getDistance(m), rad2);
+                            sum += eVal * w;
+                            wSum += w;
+                        }
+                        if (wSum >= 0.000001) {
+                            double aData = r[v][idx] + sum / wSum;
+                            r[v][idx] = Math.max(bot[v][idx], Math.min(top[v][idx], aData));
+                        }
+                    }
+                }
+            });
+        }
+
+        return r;
+    }
+
+    /**
+     * Barnes analysis with all the stations in the grid extent
+     *
+     * @param kappa A falloff parameter that controls the width of the Gaussian
+     * function
+     * @param gamma The smoothing parameter, is constrained to be between 0.2
+     * and 1.0
+     * @param values Scatter values of the variables
+     * @return Analysis grid data of the variables, in row-major order
+     */
+    public double[][] barnes(double kappa, double gamma, double[]... values) {
+        checkValues(values);
+        int nv = values.length;
+        int xNum = X.length;
+        int yNum = Y.length;
+        double xMin = Math.min(X[0], X[xNum - 1]);
+        double xMax = Math.max(X[0], X[xNum - 1]);
+        double yMin = Math.min(Y[0], Y[yNum - 1]);
+        double yMax = Math.max(Y[0], Y[yNum - 1]);
+        int pNum = 0;
+        int[] stations = new int[x_s.length];
+        for (int s = 0; s < x_s.length; s++) {
+            if (x_s[s] >= xMin && x_s[s] <= xMax && y_s[s] >= yMin && y_s[s] <= yMax) {
+                stations[pNum++] = s;
+            }
+        }
+        int stNum = pNum;
+
+        //First guess values
+        double[][] r = new double[nv][xNum * yNum];
+        IntStream.range(0, yNum).parallel().forEach(i -> {
+            double[] sum = new double[nv];
+            double[] wSum = new double[nv];
+            for (int j = 0; j < xNum; j++) {
+                int idx = i * xNum + j;
+                gaussianSum(X[j], Y[i], 4 * kappa, stations, stNum, values, sum, wSum);
+                for (int v = 0; v < nv; v++) {
+                    r[v][idx] = sum[v] / wSum[v];
+                }
+            }
+        });
+
+        //Second pass
+        double[][] residuals = residuals(values, r);
+        IntStream.range(0, yNum).parallel().forEach(i -> {
+            double[] sum = new double[nv];
+            double[] wSum = new double[nv];
+            for (int j = 0; j < xNum; j++) {
+                int idx = i * xNum + j;
+                gaussianSum(X[j], Y[i], 4 * kappa * gamma, stations, stNum, residuals, sum, wSum);
+                for (int v = 0; v < nv; v++) {
+                    r[v][idx] += sum[v] / wSum[v];
+                }
+            }
+        });
+
+        return r;
+    }
+
+    private void gaussianSum(double x, double y, double scale, int[] stations, int stNum, double[][] values,
+                             double[] sum, double[] wSum) {
+        int nv = values.length;
+        for (int v = 0; v < nv; v++) {
+            sum[v] = 0;
+            wSum[v] = 0;
+        }
+        for (int m = 0; m < stNum; m++) {
+            int s = stations[m];
+            double dx = x_s[s] - x;
+            double dy = y_s[s] - y;
+            double w = Math.exp(-(dx * dx + dy * dy) / scale);
+            for (int v = 0; v < nv; v++) {
+                double val = values[v][s];
+                if (!Double.isNaN(val)) {
+                    sum[v] += w * val;
+                    wSum[v] += w;
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the station residuals of the grid values
+     */
+    private double[][] residuals(double[][] values, double[][] r) {
+        int nv = values.length;
+        double[][] e = new double[nv][];
+        for (int v = 0; v < nv; v++) {
+            double[] a = values[v];
+            double[] g = r[v];
+            e[v] = IntStream.range(0, a.length).parallel()
+                    .mapToDouble(s -> a[s] - gridValue(g, x_s[s], y_s[s]))
+                    .toArray();
+        }
+        return e;
+    }
+
+    /**
+     * Get grid value at a station by bilinear interpolation, or the mean of
+     * the valid values of the 4 surrounding grid points if some of them are
+     * NaN
+     */
+    private double gridValue(double[] r, double x, double y) {
+        int xNum = X.length;
+        int yNum = Y.length;
+        double xi = (x - X[0]) / (X[1] - X[0]);
+        double yi = (y - Y[0]) / (Y[1] - Y[0]);
+        if (!(xi >= 0 && xi <= xNum - 1 && yi >= 0 && yi <= yNum - 1)) {
+            return Double.NaN;
+        }
+
+        int i1 = Math.min((int) yi, yNum - 2);
+        int j1 = Math.min((int) xi, xNum - 2);
+        double a = r[i1 * xNum + j1];
+        double b = r[i1 * xNum + j1 + 1];
+        double c = r[(i1 + 1) * xNum + j1];
+        double d = r[(i1 + 1) * xNum + j1 + 1];
+        if (!Double.isNaN(a) && !Double.isNaN(b) && !Double.isNaN(c) && !Double.isNaN(d)) {
+            double x1val = a + (c - a) * (yi - i1);
+            double x2val = b + (d - b) * (yi - i1);
+            return x1val + (x2val - x1val) * (xi - j1);
+        }
+
+        double sum = 0;
+        int n = 0;
+        for (double dd : new double[]{a, b, c, d}) {
+            if (!Double.isNaN(dd)) {
+                sum += dd;
+                n += 1;
+            }
+        }
+        return n == 0 ? Double.NaN : sum / n;
+    }
+    // </editor-fold>
+}
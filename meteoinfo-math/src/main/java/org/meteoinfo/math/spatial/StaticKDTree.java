@@ -0,0 +1,392 @@
+package org.meteoinfo.math.spatial;
+
+import java.util.Arrays;
+
+/**
+ * Static 2D K-D tree built once from coordinate arrays.
+ *
+ * <p>The points are sorted in place into an implicit balanced tree with
+ * median splits, so the tree keeps only a point index array and an
+ * interleaved coordinate array. Queries write the point indexes and squared
+ * distances into a reusable {@link Neighbours} buffer, which should be used
+ * by one thread at a time. The tree is immutable and can be queried from
+ * multiple threads.
+ *
+ * @author Yaqiang Wang
+ */
+public class StaticKDTree {
+
+    // <editor-fold desc="Variables">
+    private static final int DEFAULT_NODE_SIZE = 16;
+
+    private final int nodeSize;
+    private final int[] ids;
+    private final double[] coords;
+    // </editor-fold>
+    // <editor-fold desc="Constructor">
+
+    /**
+     * Constructor
+     *
+     * @param x X coordinates of the points
+     * @param y Y coordinates of the points, points with NaN coordinates are
+     * not indexed
+     */
+    public StaticKDTree(double[] x, double[] y) {
+        this(x, y, DEFAULT_NODE_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param x X coordinates of the points
+     * @param y Y coordinates of the points, points with NaN coordinates are
+     * not indexed
+     * @param nodeSize Maximum point number of the leaf nodes
+     */
+    public StaticKDTree(double[] x, double[] y, int nodeSize) {
+        int n = 0;
+        for (int i = 0; i < x.length; i++) {
+            if (!Double.isNaN(x[i]) && !Double.isNaN(y[i])) {
+                n += 1;
+            }
+        }
+        this.nodeSize = Math.max(1, nodeSize);
+        this.ids = new int[n];
+        this.coords = new double[n * 2];
+        int k = 0;
+        for (int i = 0; i < x.length; i++) {
+            if (!Double.isNaN(x[i]) && !Double.isNaN(y[i])) {
+                ids[k] = i;
+                coords[k * 2] = x[i];
+                coords[k * 2 + 1] = y[i];
+                k += 1;
+            }
+        }
+        sort(0, n - 1, 0);
+    }
+    // </editor-fold>
+    // <editor-fold desc="Get Set Methods">
+
+    /**
+     * Get indexed point number
+     *
+     * @return Point number
+     */
+    public int size() {
+        return this.ids.length;
+    }
+    // </editor-fold>
+    // <editor-fold desc="Methods">
+
+    private void sort(int left, int right, int axis) {
+        if (right - left <= nodeSize) {
+            return;
+        }
+
+        int m = (left + right) >>> 1;
+        select(m, left, right, axis);
+        sort(left, m - 1, 1 - axis);
+        sort(m + 1, right, 1 - axis);
+    }
+
+    /**
+     * Floyd-Rivest selection of the k-th point by the axis coordinate
+     */
+    private void select(int k, int left, int right, int axis) {
+        while (right > left) {
+            if (right - left > 600) {
+                int n = right - left + 1;
+                int m = k - left + 1;
+                double z = Math.log(n);
+                double s = 0.5 * Math.exp(2 * z / 3);
+                double sd = 0.5 * Math.sqrt(z * s * (n - s) / n) * (m - n / 2 < 0 ? -1 : 1);
+                int newLeft = (int) Math.max(left, Math.floor(k - m * s / n + sd));
+                int newRight = (int) Math.min(right, Math.floor(k + (n - m) * s / n + sd));
+                select(k, newLeft, newRight, axis);
+            }
+
+            double t = coords[2 * k + axis];
+            int i = left;
+            int j = right;
+            swap(left, k);
+            if (coords[2 * right + axis] > t) {
+                swap(left, right);
+            }
+            while (i < j) {
+                swap(i, j);
+                i++;
+                j--;
+                while (coords[2 * i + axis] < t) {
+                    i++;
+                }
+                while (coords[2 * j + axis] > t) {
+                    j--;
+                }
+            }
+            if (coords[2 * left + axis] == t) {
+                swap(left, j);
+            } else {
+                j++;
+                swap(j, right);
+            }
+            if (j <= k) {
+                left = j + 1;
+            }
+            if (k <= j) {
+                right = j - 1;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        int id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+        double v = coords[2 * i];
+        coords[2 * i] = coords[2 * j];
+        coords[2 * j] = v;
+        v = coords[2 * i + 1];
+        coords[2 * i + 1] = coords[2 * j + 1];
+        coords[2 * j + 1] = v;
+    }
+
+    private double distance(int i, double x, double y) {
+        double dx = coords[2 * i] - x;
+        double dy = coords[2 * i + 1] - y;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Search the points within a radius of a location, the results are not
+     * sorted
+     *
+     * @param x X coordinate of the location
+     * @param y Y coordinate of the location
+     * @param radius Search radius
+     * @param result Result buffer, cleared before the search
+     */
+    public void radiusSearch(double x, double y, double radius, Neighbours result) {
+        result.clear();
+        double r2 = radius * radius;
+        int[] stack = result.stack;
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = ids.length - 1;
+        stack[top++] = 0;
+        while (top > 0) {
+            int axis = stack[--top];
+            int right = stack[--top];
+            int left = stack[--top];
+            if (right - left <= nodeSize) {
+                for (int i = left; i <= right; i++) {
+                    double d = distance(i, x, y);
+                    if (d <= r2) {
+                        result.add(ids[i], d);
+                    }
+                }
+                continue;
+            }
+
+            int m = (left + right) >>> 1;
+            double d = distance(m, x, y);
+            if (d <= r2) {
+                result.add(ids[m], d);
+            }
+            double c = coords[2 * m + axis];
+            double q = axis == 0 ? x : y;
+            if (top + 6 > stack.length) {
+                stack = result.stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            if (q - radius <= c) {
+                stack[top++] = left;
+                stack[top++] = m - 1;
+                stack[top++] = 1 - axis;
+            }
+            if (q + radius >= c) {
+                stack[top++] = m + 1;
+                stack[top++] = right;
+                stack[top++] = 1 - axis;
+            }
+        }
+    }
+
+    /**
+     * Search the nearest points of a location, the results are sorted by
+     * distance
+     *
+     * @param x X coordinate of the location
+     * @param y Y coordinate of the location
+     * @param k Neighbour number
+     * @param result Result buffer, cleared before the search
+     */
+    public void nearestSearch(double x, double y, int k, Neighbours result) {
+        nearestSearch(x, y, k, null, result);
+    }
+
+    /**
+     * Search the nearest valid points of a location, the results are sorted
+     * by distance
+     *
+     * @param x X coordinate of the location
+     * @param y Y coordinate of the location
+     * @param k Neighbour number
+     * @param valid Valid flags by point index in the coordinate arrays, null
+     * for all valid
+     * @param result Result buffer, cleared before the search
+     */
+    public void nearestSearch(double x, double y, int k, boolean[] valid, Neighbours result) {
+        result.clear();
+        k = Math.min(k, ids.length);
+        if (k <= 0) {
+            return;
+        }
+        nearest(0, ids.length - 1, 0, x, y, k, valid, result);
+        result.sortByDistance();
+    }
+
+    private void nearest(int left, int right, int axis, double x, double y, int k, boolean[] valid,
+                         Neighbours result) {
+        if (right - left <= nodeSize) {
+            for (int i = left; i <= right; i++) {
+                if (valid == null || valid[ids[i]]) {
+                    result.offer(ids[i], distance(i, x, y), k);
+                }
+            }
+            return;
+        }
+
+        int m = (left + right) >>> 1;
+        if (valid == null || valid[ids[m]]) {
+            result.offer(ids[m], distance(m, x, y), k);
+        }
+        double d = (axis == 0 ? x : y) - coords[2 * m + axis];
+        if (d < 0) {
+            nearest(left, m - 1, 1 - axis, x, y, k, valid, result);
+            if (result.size < k || d * d < result.distance[0]) {
+                nearest(m + 1, right, 1 - axis, x, y, k, valid, result);
+            }
+        } else {
+            nearest(m + 1, right, 1 - axis, x, y, k, valid, result);
+            if (result.size < k || d * d < result.distance[0]) {
+                nearest(left, m - 1, 1 - axis, x, y, k, valid, result);
+            }
+        }
+    }
+    // </editor-fold>
+
+    /**
+     * Reusable buffer of neighbour point indexes and squared distances
+     */
+    public static class Neighbours {
+
+        private int size;
+        private int[] index = new int[16];
+        private double[] distance = new double[16];
+        private int[] stack = new int[96];
+
+        /**
+         * Get neighbour number
+         *
+         * @return Neighbour number
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Get point index of a neighbour
+         *
+         * @param i Neighbour index
+         * @return Point index in the coordinate arrays of the tree
+         */
+        public int getIndex(int i) {
+            return index[i];
+        }
+
+        /**
+         * Get squared distance of a neighbour
+         *
+         * @param i Neighbour index
+         * @return Squared distance
+         */
+        public double getDistance(int i) {
+            return distance[i];
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        private void ensureCapacity(int n) {
+            if (n > index.length) {
+                int len = Math.max(n, index.length * 2);
+                index = Arrays.copyOf(index, len);
+                distance = Arrays.copyOf(distance, len);
+            }
+        }
+
+        void add(int id, double d) {
+            ensureCapacity(size + 1);
+            index[size] = id;
+            distance[size] = d;
+            size += 1;
+        }
+
+        /**
+         * Offer a point to the max heap of the k nearest points
+         */
+        void offer(int id, double d, int k) {
+            if (size < k) {
+                ensureCapacity(k);
+                int i = size++;
+                while (i > 0) {
+                    int p = (i - 1) >>> 1;
+                    if (distance[p] >= d) {
+                        break;
+                    }
+                    index[i] = index[p];
+                    distance[i] = distance[p];
+                    i = p;
+                }
+                index[i] = id;
+                distance[i] = d;
+            } else if (d < distance[0]) {
+                siftDown(0, id, d, size);
+            }
+        }
+
+        private void siftDown(int i, int id, double d, int n) {
+            while (true) {
+                int c = 2 * i + 1;
+                if (c >= n) {
+                    break;
+                }
+                if (c + 1 < n && distance[c + 1] > distance[c]) {
+                    c += 1;
+                }
+                if (distance[c] <= d) {
+                    break;
+                }
+                index[i] = index[c];
+                distance[i] = distance[c];
+                i = c;
+            }
+            index[i] = id;
+            distance[i] = d;
+        }
+
+        /**
+         * Heap sort the max heap to ascending distance order
+         */
+        void sortByDistance() {
+            for (int n = size - 1; n > 0; n--) {
+                int id = index[n];
+                double d = distance[n];
+                index[n] = index[0];
+                distance[n] = distance[0];
+                siftDown(0, id, d, n);
+            }
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package org.meteoinfo.math.interpolate;
+
+import org.junit.jupiter.api.Test;
+import org.meteoinfo.math.spatial.KDTree;
+import org.meteoinfo.ndarray.Array;
+import org.meteoinfo.ndarray.DataType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InterpUtilTest {
+
+    private final Array x_s;
+    private final Array y_s;
+    private final Array v_s;
+    private final Array X;
+    private final Array Y;
+
+    public InterpUtilTest() {
+        Random random = new Random(20);
+        int n = 300;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        double[] vs = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = random.nextDouble() * 40 - 5;
+            ys[i] = random.nextDouble() * 30 - 5;
+            vs[i] = random.nextDouble() < 0.1 ? Double.NaN : random.nextDouble() * 50;
+        }
+        //Stations on grid nodes, far apart to avoid equidistant neighbours
+        //whose search order is not defined
+        xs[0] = 3;
+        ys[0] = 2;
+        xs[1] = 18;
+        ys[1] = 6.5;
+        xs[2] = 27.5;
+        ys[2] = 17;
+        x_s = Array.factory(DataType.DOUBLE, new int[]{n}, xs);
+        y_s = Array.factory(DataType.DOUBLE, new int[]{n}, ys);
+        v_s = Array.factory(DataType.DOUBLE, new int[]{n}, vs);
+        X = grid(0, 0.5, 61);
+        Y = grid(0, 0.5, 41);
+    }
+
+    private static Array grid(double start, double delta, int n) {
+        Array a = Array.factory(DataType.DOUBLE, new int[]{n});
+        for (int i = 0; i < n; i++) {
+            a.setDouble(i, start + i * delta);
+        }
+        return a;
+    }
+
+    private static List<Number> toList(Array a) {
+        List<Number> r = new ArrayList<>();
+        for (int i = 0; i < a.getSize(); i++) {
+            r.add(a.getDouble(i));
+        }
+        return r;
+    }
+
+    private static KDTree.Euclidean<Double> kdTree(Array x_s, Array y_s, Array a) {
+        KDTree.Euclidean<Double> kdTree = new KDTree.Euclidean<>(2);
+        for (int i = 0; i < x_s.getSize(); i++) {
+            double v = a.getDouble(i);
+            if (!Double.isNaN(v)) {
+                kdTree.addPoint(new double[]{x_s.getDouble(i), y_s.getDouble(i)}, v);
+            }
+        }
+        return kdTree;
+    }
+
+    /**
+     * IDW neighbor interpolation of the previous implementation
+     */
+    private static double[] idwNeighbor(Array x_s, Array y_s, Array a, Array X, Array Y, Integer points) {
+        KDTree.Euclidean<Double> kdTree = kdTree(x_s, y_s, a);
+        if (points == null) {
+            points = kdTree.size();
+        }
+        int colNum = (int) X.getSize();
+        double[] r = new double[(int) Y.getSize() * colNum];
+        for (int i = 0; i < Y.getSize(); i++) {
+            for (int j = 0; j < colNum; j++) {
+                List<KDTree.SearchResult<Double>> srs = kdTree.nearestNeighbours(
+                        new double[]{X.getDouble(j), Y.getDouble(i)}, points);
+                double v_sum = 0.0;
+                double weight_sum = 0.0;
+                double match = Double.NaN;
+                for (KDTree.SearchResult<Double> sr : srs) {
+                    if (sr.distance == 0) {
+                        match = sr.payload;
+                        break;
+                    }
+                    double w = 1. / sr.distance;
+                    weight_sum += w;
+                    v_sum += sr.payload * w;
+                }
+                r[i * colNum + j] = Double.isNaN(match) ? v_sum / weight_sum : match;
+            }
+        }
+        return r;
+    }
+
+    /**
+     * IDW radius interpolation of the previous implementation
+     */
+    private static double[] idwRadius(Array x_s, Array y_s, Array a, Array X, Array Y, int neededPointNum,
+                                      double radius) {
+        KDTree.Euclidean<Double> kdTree = kdTree(x_s, y_s, a);
+        int colNum = (int) X.getSize();
+        double[] r = new double[(int) Y.getSize() * colNum];
+        for (int i = 0; i < Y.getSize(); i++) {
+            for (int j = 0; j < colNum; j++) {
+                List<KDTree.SearchResult<Double>> srs = kdTree.ballSearch_distance(
+                        new double[]{X.getDouble(j), Y.getDouble(i)}, radius * radius);
+                if (srs == null || srs.size() < neededPointNum) {
+                    r[i * colNum + j] = Double.NaN;
+                    continue;
+                }
+                double v_sum = 0.0;
+                double weight_sum = 0.0;
+                double match = Double.NaN;
+                for (KDTree.SearchResult<Double> sr : srs) {
+                    if (sr.distance == 0) {
+                        match = sr.payload;
+                        break;
+                    }
+                    double w = 1. / sr.distance;
+                    weight_sum += w;
+                    v_sum += sr.payload * w;
+                }
+                r[i * colNum + j] = Double.isNaN(match) ? v_sum / weight_sum : match;
+            }
+        }
+        return r;
+    }
+
+    private static void assertClose(double[] expected, Array actual) {
+        assertEquals(expected.length, actual.getSize());
+        for (int i = 0; i < expected.length; i++) {
+            double e = expected[i];
+            double a = actual.getDouble(i);
+            if (Double.isNaN(e)) {
+                assertTrue(Double.isNaN(a), "Index " + i);
+            } else {
+                assertEquals(e, a, 1e-9 * Math.max(1, Math.abs(e)), "Index " + i);
+            }
+        }
+    }
+
+    @Test
+    public void testIDWNeighbor() {
+        for (Integer points : new Integer[]{1, 4, 8, 20, null}) {
+            double[] expected = idwNeighbor(x_s, y_s, v_s, X, Y, points);
+            assertClose(expected, InterpUtil.interpolation_IDW_Neighbor(x_s, y_s, v_s, X, Y, points));
+            assertClose(expected, InterpUtil.interpolation_IDW_Neighbor(toList(x_s), toList(y_s), v_s,
+                    toList(X), toList(Y), points));
+        }
+    }
+
+    @Test
+    public void testIDWRadius() {
+        for (double radius : new double[]{1, 2.5, 6}) {
+            for (int needed : new int[]{1, 3}) {
+                double[] expected = idwRadius(x_s, y_s, v_s, X, Y, needed, radius);
+                assertClose(expected, InterpUtil.interpolation_IDW_Radius(x_s, y_s, v_s, X, Y, needed, radius));
+                assertClose(expected, InterpUtil.interpolation_IDW_Radius(toList(x_s), toList(y_s), v_s,
+                        toList(X), toList(Y), needed, radius));
+            }
+        }
+    }
+
+    private static Array reverse(Array a) {
+        int n = (int) a.getSize();
+        Array r = Array.factory(DataType.DOUBLE, new int[]{n});
+        for (int i = 0; i < n; i++) {
+            r.setDouble(i, a.getDouble(n - 1 - i));
+        }
+        return r;
+    }
+
+    /**
+     * Assert a result on reversed grid coordinates is the reverse of the result
+     */
+    private void assertOrderIndependent(Array r, Array rr) {
+        int ny = (int) Y.getSize();
+        int nx = (int) X.getSize();
+        for (int i = 0; i < ny; i++) {
+            for (int j = 0; j < nx; j++) {
+                double e = r.getDouble(i * nx + j);
+                double a = rr.getDouble((ny - 1 - i) * nx + nx - 1 - j);
+                if (Double.isNaN(e)) {
+                    assertTrue(Double.isNaN(a));
+                } else {
+                    assertEquals(e, a, 1e-9 * Math.max(1, Math.abs(e)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCressman() {
+        List<Number> radii = Arrays.asList(6, 4, 2);
+        Array r = InterpUtil.cressman(toList(x_s), toList(y_s), v_s, toList(X), toList(Y), radii);
+        assertArrayEquals(new int[]{(int) Y.getSize(), (int) X.getSize()}, r.getShape());
+        Array rr = InterpUtil.cressman(toList(x_s), toList(y_s), v_s, toList(reverse(X)), toList(reverse(Y)), radii);
+        assertOrderIndependent(r, rr);
+
+        //Values are bounded by the stations within the first radius
+        double rad2 = 36;
+        int nx = (int) X.getSize();
+        for (int i = 0; i < Y.getSize(); i++) {
+            for (int j = 0; j < nx; j++) {
+                double max = Double.NEGATIVE_INFINITY, min = Double.POSITIVE_INFINITY;
+                for (int s = 0; s < x_s.getSize(); s++) {
+                    double dx = x_s.getDouble(s) - X.getDouble(j);
+                    double dy = y_s.getDouble(s) - Y.getDouble(i);
+                    double v = v_s.getDouble(s);
+                    if (dx * dx + dy * dy <= rad2 && !Double.isNaN(v)) {
+                        max = Math.max(max, v);
+                        min = Math.min(min, v);
+                    }
+                }
+                double v = r.getDouble(i * nx + j);
+                if (max < min) {
+                    assertTrue(Double.isNaN(v));
+                } else {
+                    assertTrue(v >= min && v <= max);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCressmanSingleStation() {
+        List<Number> xs = Arrays.asList(1.2);
+        List<Number> ys = Arrays.asList(0.7);
+        Array vs = Array.factory(DataType.DOUBLE, new int[]{1}, new double[]{8});
+        Array r = InterpUtil.cressman(xs, ys, vs, Arrays.asList(0, 1, 2, 3), Arrays.asList(0, 1, 2),
+                Arrays.asList(2, 1));
+        double[] expected = {
+                8, 8, 8, 8,
+                8, 8, 8, 8,
+                8, 8, 8, Double.NaN
+        };
+        assertClose(expected, r);
+    }
+
+    @Test
+    public void testConstantField() {
+        int n = (int) x_s.getSize();
+        Array c = Array.factory(DataType.DOUBLE, new int[]{n});
+        for (int i = 0; i < n; i++) {
+            c.setDouble(i, Double.isNaN(v_s.getDouble(i)) ? Double.NaN : 12.5);
+        }
+        Array r = InterpUtil.cressman(toList(x_s), toList(y_s), c, toList(X), toList(Y), Arrays.asList(6, 3));
+        for (int i = 0; i < r.getSize(); i++) {
+            assertEquals(12.5, r.getDouble(i), 1e-9);
+        }
+        r = InterpUtil.barnes(toList(x_s), toList(y_s), c, toList(X), toList(Y), Arrays.asList(6, 3), 4, 0.5);
+        for (int i = 0; i < r.getSize(); i++) {
+            assertEquals(12.5, r.getDouble(i), 1e-9);
+        }
+        //The first guess is the Gaussian weighted mean of the stations
+        r = InterpUtil.barnes(toList(x_s), toList(y_s), c, toList(X), toList(Y), 4, 0.5);
+        for (int i = 0; i < r.getSize(); i++) {
+            assertEquals(12.5, r.getDouble(i), 1e-9);
+        }
+    }
+
+    @Test
+    public void testBarnes() {
+        Array r = InterpUtil.barnes(toList(x_s), toList(y_s), v_s, toList(X), toList(Y), Arrays.asList(6, 3), 4, 0.5);
+        Array rr = InterpUtil.barnes(toList(x_s), toList(y_s), v_s, toList(reverse(X)), toList(reverse(Y)),
+                Arrays.asList(6, 3), 4, 0.5);
+        assertOrderIndependent(r, rr);
+
+        r = InterpUtil.barnes(toList(x_s), toList(y_s), v_s, toList(X), toList(Y), 4, 0.5);
+        rr = InterpUtil.barnes(toList(x_s), toList(y_s), v_s, toList(reverse(X)), toList(reverse(Y)), 4, 0.5);
+        assertOrderIndependent(r, rr);
+        for (int i = 0; i < r.getSize(); i++) {
+            assertFalse(Double.isNaN(r.getDouble(i)));
+        }
+    }
+
+    @Test
+    public void testMultipleVariables() {
+        double[] xs = (double[]) x_s.get1DJavaArray(double.class);
+        double[] ys = (double[]) y_s.get1DJavaArray(double.class);
+        double[] a = (double[]) v_s.get1DJavaArray(double.class);
+        double[] b = new double[a.length];
+        for (int i = 0; i < a.length; i++) {
+            b[i] = i % 7 == 0 ? Double.NaN : Math.sin(xs[i]) * 10;
+        }
+        ScatterGridder gridder = new ScatterGridder(xs, ys, (double[]) X.get1DJavaArray(double.class),
+                (double[]) Y.get1DJavaArray(double.class));
+        double[][] both = gridder.idwNeighbor(8, a, b);
+        assertArrayEquals(gridder.idwNeighbor(8, a)[0], both[0], 1e-9);
+        assertArrayEquals(gridder.idwNeighbor(8, b)[0], both[1], 1e-9);
+        both = gridder.cressman(new double[]{6, 3}, a, b);
+        assertArrayEquals(gridder.cressman(new double[]{6, 3}, a)[0], both[0], 1e-9);
+        assertArrayEquals(gridder.cressman(new double[]{6, 3}, b)[0], both[1], 1e-9);
+    }
+}
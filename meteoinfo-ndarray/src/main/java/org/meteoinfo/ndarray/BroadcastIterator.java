@@ -0,0 +1,117 @@
+package org.meteoinfo.ndarray;
+
+/**
+ * Iterator over the broadcast shape of two arrays.
+ *
+ * <p>The strides of both arrays are aligned to the broadcast shape once, with
+ * zero strides for broadcast (length 1 or missing) dimensions. The backing
+ * element indices of the two arrays are then advanced incrementally, so the
+ * values can be read with the element access methods such as
+ * {@link Array#getDouble(int)}.
+ *
+ * @author Yaqiang Wang
+ */
+public class BroadcastIterator {
+
+    private final int[] shape;
+    private final int rank;
+    private final long size;
+    private final int[] aStride;
+    private final int[] bStride;
+    private final int[] counter;
+    private int aElement;
+    private int bElement;
+
+    /**
+     * Constructor
+     *
+     * @param a Array a
+     * @param b Array b
+     */
+    public BroadcastIterator(Array a, Array b) {
+        Index aIndex = a.getIndexPrivate();
+        Index bIndex = b.getIndexPrivate();
+        int na = aIndex.getRank();
+        int nb = bIndex.getRank();
+        this.rank = Math.max(na, nb);
+        this.shape = new int[rank];
+        this.aStride = new int[rank];
+        this.bStride = new int[rank];
+        this.counter = new int[rank];
+
+        boolean aConstant = a.isConstant();
+        boolean bConstant = b.isConstant();
+        for (int i = 0; i < rank; i++) {
+            int ia = i - rank + na;
+            int ib = i - rank + nb;
+            int la = ia >= 0 ? aIndex.shape[ia] : 1;
+            int lb = ib >= 0 ? bIndex.shape[ib] : 1;
+            if (la != lb && la != 1 && lb != 1) {
+                throw new IllegalArgumentException("Arrays can not be broadcast together");
+            }
+            shape[i] = Math.max(la, lb);
+            if (la != 1 && !aConstant) {
+                aStride[i] = aIndex.stride[ia];
+            }
+            if (lb != 1 && !bConstant) {
+                bStride[i] = bIndex.stride[ib];
+            }
+        }
+        this.size = Index.computeSize(shape);
+        this.aElement = aConstant ? 0 : aIndex.offset;
+        this.bElement = bConstant ? 0 : bIndex.offset;
+    }
+
+    /**
+     * Get broadcast shape
+     *
+     * @return Broadcast shape
+     */
+    public int[] getShape() {
+        return shape.clone();
+    }
+
+    /**
+     * Get total element number of the broadcast shape
+     *
+     * @return Size
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Get current element index into the backing storage of array a
+     *
+     * @return Element index
+     */
+    public int currentElementA() {
+        return aElement;
+    }
+
+    /**
+     * Get current element index into the backing storage of array b
+     *
+     * @return Element index
+     */
+    public int currentElementB() {
+        return bElement;
+    }
+
+    /**
+     * Move to the next element in canonical order of the broadcast shape
+     */
+    public void incr() {
+        for (int d = rank - 1; d >= 0; d--) {
+            counter[d] += 1;
+            aElement += aStride[d];
+            bElement += bStride[d];
+            if (counter[d] < shape[d]) {
+                return;
+            }
+            aElement -= aStride[d] * shape[d];
+            bElement -= bStride[d] * shape[d];
+            counter[d] = 0;
+        }
+    }
+}
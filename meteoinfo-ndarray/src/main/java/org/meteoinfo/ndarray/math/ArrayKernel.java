@@ -0,0 +1,616 @@
+package org.meteoinfo.ndarray.math;
+
+import org.meteoinfo.ndarray.Array;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Element-wise kernels working on the backing primitive arrays.
+ *
+ * <p>The kernels are only used for arrays with fast (canonical, contiguous)
+ * iterators. Large arrays are split into contiguous chunks that run on a
+ * ForkJoin pool when the parallel mode is enabled with
+ * {@link #setParallelism(int, int)}. Non-contiguous views keep using the
+ * iterator path in {@link ArrayMath}.
+ *
+ * @author Yaqiang Wang
+ */
+public class ArrayKernel {
+
+    /**
+     * Arithmetic operators with dedicated primitive loops
+     */
+    public enum Operator {
+        ADD,
+        SUB,
+        MUL,
+        DIV
+    }
+
+    /**
+     * Primitive predicate of two double values
+     */
+    @FunctionalInterface
+    public interface DoubleBiPredicate {
+        boolean test(double a, double b);
+    }
+
+    /**
+     * Task on an element range [from, to)
+     */
+    @FunctionalInterface
+    public interface RangeTask {
+        void run(int from, int to);
+    }
+
+    private static volatile ForkJoinPool pool = null;
+    private static volatile int parallelism = 1;
+    private static volatile int threshold = 100000;
+
+    // <editor-fold desc="Parallelism">
+    /**
+     * Set parallel execution mode
+     *
+     * @param nThreads Thread number of the pool. Values less than 2 disable
+     *                 the parallel mode, 0 means the available processor number
+     * @param threshold Minimum element number of an array to run in parallel
+     */
+    public static synchronized void setParallelism(int nThreads, int threshold) {
+        if (nThreads == 0) {
+            nThreads = Runtime.getRuntime().availableProcessors();
+        }
+        ForkJoinPool old = pool;
+        if (nThreads > 1) {
+            if (old == null || old.getParallelism() != nThreads) {
+                pool = new ForkJoinPool(nThreads);
+                if (old != null) {
+                    old.shutdown();
+                }
+            }
+        } else {
+            pool = null;
+            if (old != null) {
+                old.shutdown();
+            }
+            nThreads = 1;
+        }
+        ArrayKernel.parallelism = nThreads;
+        ArrayKernel.threshold = Math.max(1, threshold);
+    }
+
+    /**
+     * Set parallel execution mode with the current threshold
+     *
+     * @param nThreads Thread number of the pool
+     */
+    public static void setParallelism(int nThreads) {
+        setParallelism(nThreads, threshold);
+    }
+
+    /**
+     * Get thread number of the parallel mode, 1 means serial execution
+     *
+     * @return Thread number
+     */
+    public static int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Get minimum element number of an array to run in parallel
+     *
+     * @return Threshold
+     */
+    public static int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Check if an element number will be processed in parallel
+     *
+     * @param n Element number
+     * @return Parallel or not
+     */
+    public static boolean isParallel(long n) {
+        return pool != null && n >= threshold;
+    }
+
+    /**
+     * Run a task over the element range [0, n), split into contiguous chunks
+     * in parallel mode
+     *
+     * @param n Element number
+     * @param task The task
+     */
+    public static void forRange(int n, RangeTask task) {
+        ForkJoinPool p = pool;
+        if (p == null || n < threshold) {
+            task.run(0, n);
+            return;
+        }
+
+        int nChunk = Math.min(p.getParallelism() * 4, Math.max(1, n / (threshold / 4 + 1)));
+        int chunk = (n + nChunk - 1) / nChunk;
+        p.submit(() -> IntStream.range(0, nChunk).parallel().forEach(k -> {
+            int from = k * chunk;
+            int to = Math.min(n, from + chunk);
+            if (from < to) {
+                task.run(from, to);
+            }
+        })).join();
+    }
+    // </editor-fold>
+
+    // <editor-fold desc="Storage">
+    /**
+     * Check if an array can be accessed with flat element index
+     *
+     * @param a The array
+     * @return Flat or not
+     */
+    public static boolean isFlat(Array a) {
+        return a.getIndexPrivate().isFastIterator() && !a.isConstant();
+    }
+
+    /**
+     * Get backing double array of a flat array
+     *
+     * @param a The array
+     * @return Backing double array, null if the array is not flat or not a
+     * double array
+     */
+    public static double[] doubleStorage(Array a) {
+        if (isFlat(a)) {
+            Object s = a.getStorage();
+            if (s instanceof double[]) {
+                return (double[]) s;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get backing float array of a flat array
+     *
+     * @param a The array
+     * @return Backing float array, null if the array is not flat or not a
+     * float array
+     */
+    public static float[] floatStorage(Array a) {
+        if (isFlat(a)) {
+            Object s = a.getStorage();
+            if (s instanceof float[]) {
+                return (float[]) s;
+            }
+        }
+        return null;
+    }
+    // </editor-fold>
+
+    // <editor-fold desc="Arithmetic">
+    /**
+     * Double arithmetic of two flat arrays with same shape
+     *
+     * @param op Operator
+     * @param a Array a
+     * @param b Array b
+     * @param r Result double array
+     */
+    public static void arithmeticDouble(Operator op, Array a, Array b, Array r) {
+        final int n = (int) r.getSize();
+        final double[] rs = (double[]) r.getStorage();
+        final double[] as = doubleStorage(a);
+        final double[] bs = doubleStorage(b);
+        if (as != null && bs != null) {
+            switch (op) {
+                case ADD:
+                    forRange(n, (from, to) -> {
+                        for (int i = from; i < to; i++) {
+                            rs[i] = as[i] + bs[i];
+                        }
+                    });
+                    break;
+                case SUB:
+                    forRange(n, (from, to) -> {
+                        for (int i = from; i < to; i++) {
+                            rs[i] = as[i] - bs[i];
+                        }
+                    });
+                    break;
+                case MUL:
+                    forRange(n, (from, to) -> {
+                        for (int i = from; i < to; i++) {
+                            rs[i] = as[i] * bs[i];
+                        }
+                    });
+                    break;
+                case DIV:
+                    forRange(n, (from, to) -> {
+                        for (int i = from; i < to; i++) {
+                            rs[i] = as[i] / bs[i];
+                        }
+                    });
+                    break;
+            }
+        } else {
+            final DoubleBinaryOperator f = toFunction(op);
+            forRange(n, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    rs[i] = f.applyAsDouble(a.getDouble(i), b.getDouble(i));
+                }
+            });
+        }
+    }
+
+    /**
+     * Double arithmetic of a flat array and a scalar
+     *
+     * @param op Operator
+     * @param a Array a
+     * @param b Scalar b
+     * @param reverse If true, compute b op a instead of a op b
+     * @param r Result double array
+     */
+    public static void arithmeticDouble(Operator op, Array a, double b, boolean reverse, Array r) {
+        final int n = (int) r.getSize();
+        final double[] rs = (double[]) r.getStorage();
+        final double[] as = doubleStorage(a);
+        if (as != null) {
+            switch (op) {
+                case ADD:
+                    forRange(n, (from, to) -> {
+                        for (int i = from; i < to; i++) {
+                            rs[i] = as[i] + b;
+                        }
+                    });
+                    return;
+                case MUL:
+                    forRange(n, (from, to) -> {
+                        for (int i = from; i < to; i++) {
+                            rs[i] = as[i] * b;
+                        }
+                    });
+                    return;
+                case SUB:
+                    if (!reverse) {
+                        forRange(n, (from, to) -> {
+                            for (int i = from; i < to; i++) {
+                                rs[i] = as[i] - b;
+                            }
+                        });
+                        return;
+                    }
+                    break;
+                case DIV:
+                    if (!reverse) {
+                        forRange(n, (from, to) -> {
+                            for (int i = from; i < to; i++) {
+                                rs[i] = as[i] / b;
+                            }
+                        });
+                        return;
+                    }
+                    break;
+            }
+        }
+
+        final DoubleBinaryOperator f = toFunction(op);
+        if (reverse) {
+            forRange(n, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    rs[i] = f.applyAsDouble(b, a.getDouble(i));
+                }
+            });
+        } else {
+            forRange(n, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    rs[i] = f.applyAsDouble(a.getDouble(i), b);
+                }
+            });
+        }
+    }
+
+    /**
+     * Float arithmetic of two flat arrays with same shape
+     *
+     * @param op Operator
+     * @param a Array a
+     * @param b Array b
+     * @param r Result float array
+     */
+    public static void arithmeticFloat(Operator op, Array a, Array b, Array r) {
+        final int n = (int) r.getSize();
+        final float[] rs = (float[]) r.getStorage();
+        final float[] as = floatStorage(a);
+        final float[] bs = floatStorage(b);
+        if (as != null && bs != null) {
+            switch (op) {
+                case ADD:
+                    forRange(n, (from, to) -> {
+                        for (int i = from; i < to; i++) {
+                            rs[i] = as[i] + bs[i];
+                        }
+                    });
+                    break;
+                case SUB:
+                    forRange(n, (from, to) -> {
+                        for (int i = from; i < to; i++) {
+                            rs[i] = as[i] - bs[i];
+                        }
+                    });
+                    break;
+                case MUL:
+                    forRange(n, (from, to) -> {
+                        for (int i = from; i < to; i++) {
+                            rs[i] = as[i] * bs[i];
+                        }
+                    });
+                    break;
+                case DIV:
+                    forRange(n, (from, to) -> {
+                        for (int i = from; i < to; i++) {
+                            rs[i] = as[i] / bs[i];
+                        }
+                    });
+                    break;
+            }
+        } else {
+            final DoubleBinaryOperator f = toFunction(op);
+            forRange(n, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    rs[i] = (float) f.applyAsDouble(a.getFloat(i), b.getFloat(i));
+                }
+            });
+        }
+    }
+
+    /**
+     * Float arithmetic of a flat array and a scalar
+     *
+     * @param op Operator
+     * @param a Array a
+     * @param b Scalar b
+     * @param reverse If true, compute b op a instead of a op b
+     * @param r Result float array
+     */
+    public static void arithmeticFloat(Operator op, Array a, float b, boolean reverse, Array r) {
+        final int n = (int) r.getSize();
+        final float[] rs = (float[]) r.getStorage();
+        final float[] as = floatStorage(a);
+        if (as != null) {
+            switch (op) {
+                case ADD:
+                    forRange(n, (from, to) -> {
+                        for (int i = from; i < to; i++) {
+                            rs[i] = as[i] + b;
+                        }
+                    });
+                    return;
+                case MUL:
+                    forRange(n, (from, to) -> {
+                        for (int i = from; i < to; i++) {
+                            rs[i] = as[i] * b;
+                        }
+                    });
+                    return;
+                case SUB:
+                    if (!reverse) {
+                        forRange(n, (from, to) -> {
+                            for (int i = from; i < to; i++) {
+                                rs[i] = as[i] - b;
+                            }
+                        });
+                        return;
+                    }
+                    break;
+                case DIV:
+                    if (!reverse) {
+                        forRange(n, (from, to) -> {
+                            for (int i = from; i < to; i++) {
+                                rs[i] = as[i] / b;
+                            }
+                        });
+                        return;
+                    }
+                    break;
+            }
+        }
+
+        final DoubleBinaryOperator f = toFunction(op);
+        if (reverse) {
+            forRange(n, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    rs[i] = (float) f.applyAsDouble(b, a.getFloat(i));
+                }
+            });
+        } else {
+            forRange(n, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    rs[i] = (float) f.applyAsDouble(a.getFloat(i), b);
+                }
+            });
+        }
+    }
+
+    private static DoubleBinaryOperator toFunction(Operator op) {
+        switch (op) {
+            case SUB:
+                return (x, y) -> x - y;
+            case MUL:
+                return (x, y) -> x * y;
+            case DIV:
+                return (x, y) -> x / y;
+            default:
+                return (x, y) -> x + y;
+        }
+    }
+    // </editor-fold>
+
+    // <editor-fold desc="Function">
+    /**
+     * Apply a function to each element of a flat array
+     *
+     * @param a Array a
+     * @param r Result array with same shape
+     * @param f The function
+     */
+    public static void apply(Array a, Array r, DoubleUnaryOperator f) {
+        final int n = (int) r.getSize();
+        final Object rStorage = r.getStorage();
+        final double[] as = doubleStorage(a);
+        final float[] af = as == null ? floatStorage(a) : null;
+        if (rStorage instanceof double[]) {
+            final double[] rs = (double[]) rStorage;
+            if (as != null) {
+                forRange(n, (from, to) -> {
+                    for (int i = from; i < to; i++) {
+                        rs[i] = f.applyAsDouble(as[i]);
+                    }
+                });
+            } else if (af != null) {
+                forRange(n, (from, to) -> {
+                    for (int i = from; i < to; i++) {
+                        rs[i] = f.applyAsDouble(af[i]);
+                    }
+                });
+            } else {
+                forRange(n, (from, to) -> {
+                    for (int i = from; i < to; i++) {
+                        rs[i] = f.applyAsDouble(a.getDouble(i));
+                    }
+                });
+            }
+        } else if (rStorage instanceof float[]) {
+            final float[] rs = (float[]) rStorage;
+            if (af != null) {
+                forRange(n, (from, to) -> {
+                    for (int i = from; i < to; i++) {
+                        rs[i] = (float) f.applyAsDouble(af[i]);
+                    }
+                });
+            } else {
+                forRange(n, (from, to) -> {
+                    for (int i = from; i < to; i++) {
+                        rs[i] = (float) f.applyAsDouble(a.getDouble(i));
+                    }
+                });
+            }
+        } else {
+            forRange(n, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    r.setDouble(i, f.applyAsDouble(a.getDouble(i)));
+                }
+            });
+        }
+    }
+
+    /**
+     * Apply a function to each element pair of two flat arrays with same shape
+     *
+     * @param a Array a
+     * @param b Array b
+     * @param r Result array with same shape
+     * @param f The function
+     */
+    public static void apply(Array a, Array b, Array r, DoubleBinaryOperator f) {
+        final int n = (int) r.getSize();
+        final Object rStorage = r.getStorage();
+        final double[] as = doubleStorage(a);
+        final double[] bs = doubleStorage(b);
+        if (rStorage instanceof double[]) {
+            final double[] rs = (double[]) rStorage;
+            if (as != null && bs != null) {
+                forRange(n, (from, to) -> {
+                    for (int i = from; i < to; i++) {
+                        rs[i] = f.applyAsDouble(as[i], bs[i]);
+                    }
+                });
+            } else {
+                forRange(n, (from, to) -> {
+                    for (int i = from; i < to; i++) {
+                        rs[i] = f.applyAsDouble(a.getDouble(i), b.getDouble(i));
+                    }
+                });
+            }
+        } else if (rStorage instanceof float[]) {
+            final float[] rs = (float[]) rStorage;
+            forRange(n, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    rs[i] = (float) f.applyAsDouble(a.getDouble(i), b.getDouble(i));
+                }
+            });
+        } else {
+            forRange(n, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    r.setDouble(i, f.applyAsDouble(a.getDouble(i), b.getDouble(i)));
+                }
+            });
+        }
+    }
+
+    /**
+     * Test each element of a flat array against a value
+     *
+     * @param a Array a
+     * @param b Value b
+     * @param r Result boolean array with same shape
+     * @param p The predicate
+     */
+    public static void test(Array a, double b, Array r, DoubleBiPredicate p) {
+        final int n = (int) r.getSize();
+        final boolean[] rs = (boolean[]) r.getStorage();
+        final double[] as = doubleStorage(a);
+        final float[] af = as == null ? floatStorage(a) : null;
+        if (as != null) {
+            forRange(n, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    rs[i] = p.test(as[i], b);
+                }
+            });
+        } else if (af != null) {
+            forRange(n, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    rs[i] = p.test(af[i], b);
+                }
+            });
+        } else {
+            forRange(n, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    rs[i] = p.test(a.getDouble(i), b);
+                }
+            });
+        }
+    }
+
+    /**
+     * Test each element pair of two flat arrays with same shape
+     *
+     * @param a Array a
+     * @param b Array b
+     * @param r Result boolean array with same shape
+     * @param p The predicate
+     */
+    public static void test(Array a, Array b, Array r, DoubleBiPredicate p) {
+        final int n = (int) r.getSize();
+        final boolean[] rs = (boolean[]) r.getStorage();
+        final double[] as = doubleStorage(a);
+        final double[] bs = doubleStorage(b);
+        if (as != null && bs != null) {
+            forRange(n, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    rs[i] = p.test(as[i], bs[i]);
+                }
+            });
+        } else {
+            forRange(n, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    rs[i] = p.test(a.getDouble(i), b.getDouble(i));
+                }
+            });
+        }
+    }
+    // </editor-fold>
+}
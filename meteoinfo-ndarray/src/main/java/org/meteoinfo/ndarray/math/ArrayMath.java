@@ -18,6 +18,36 @@ public class ArrayMath {
 
     public static double fill_value = -9999.0;
 
+    /**
+     * Set parallel execution mode of the element-wise kernels
+     *
+     * @param nThreads Thread number. Values less than 2 disable the parallel mode,
+     *                 0 means the available processor number
+     * @param threshold Minimum element number of an array to run in parallel
+     */
+    public static void setParallelism(int nThreads, int threshold) {
+        ArrayKernel.setParallelism(nThreads, threshold);
+    }
+
+    /**
+     * Set parallel execution mode of the element-wise kernels
+     *
+     * @param nThreads Thread number. Values less than 2 disable the parallel mode,
+     *                 0 means the available processor number
+     */
+    public static void setParallelism(int nThreads) {
+        ArrayKernel.setParallelism(nThreads);
+    }
+
+    /**
+     * Get thread number of the element-wise kernels, 1 means serial execution
+     *
+     * @return Thread number
+     */
+    public static int getParallelism() {
+        return ArrayKernel.getParallelism();
+    }
+
     // <editor-fold desc="Data type">
     /**
      * Get data type
@@ -247,55 +277,6 @@ public class ArrayMath {
         }
     }
 
-    private static void setIndex(int broadcast, Index aindex, Index bindex, int[] current, int n, int na, int nb) {
-        if (broadcast == 0) {
-            aindex.set(current);
-            bindex.set(current);
-        } else {
-            int ia, ib;
-            for (int j = 0; j < n; j++) {
-                ia = na - j - 1;
-                if (ia >= 0) {
-                    if (aindex.getShape(ia) == 1) {
-                        aindex.setDim(ia, 0);
-                    } else {
-                        aindex.setDim(ia, current[n - j - 1]);
-                    }
-                }
-                ib = nb - j - 1;
-                if (ib >= 0) {
-                    if (bindex.getShape(ib) == 1) {
-                        bindex.setDim(ib, 0);
-                    } else {
-                        bindex.setDim(ib, current[n - j - 1]);
-                    }
-                }
-            }
-        }
-    }
-
-    private static void setIndex(Index aindex, Index bindex, int[] current, int n, int na, int nb) {
-        int ia, ib;
-        for (int j = 0; j < n; j++) {
-            ia = na - j - 1;
-            if (ia >= 0) {
-                if (aindex.getShape(ia) == 1) {
-                    aindex.setDim(ia, 0);
-                } else {
-                    aindex.setDim(ia, current[n - j - 1]);
-                }
-            }
-            ib = nb - j - 1;
-            if (ib >= 0) {
-                if (bindex.getShape(ib) == 1) {
-                    bindex.setDim(ib, 0);
-                } else {
-                    bindex.setDim(ib, current[n - j - 1]);
-                }
-            }
-        }
-    }
-
     /**
      * Array add
      *
@@ -417,24 +398,19 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.INT, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     if (a.getInt(aindex) == Integer.MIN_VALUE || b.getInt(bindex) == Integer.MIN_VALUE) {
                         r.setInt(i, Integer.MIN_VALUE);
                     } else {
                         r.setInt(i, a.getInt(aindex) + b.getInt(bindex));
                     }
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -498,24 +474,19 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.LONG, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     if (a.getLong(aindex) == Long.MIN_VALUE || b.getLong(bindex) == Long.MIN_VALUE) {
                         r.setLong(i, Long.MIN_VALUE);
                     } else {
                         r.setLong(i, a.getLong(aindex) + b.getLong(bindex));
                     }
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -551,18 +522,8 @@ public class ArrayMath {
         switch (broadcast) {
             case 0:
                 Array r = Array.factory(DataType.FLOAT, a.getShape());
-                if (a.getIndexPrivate().isFastIterator() && b.getIndexPrivate().isFastIterator()) {
-                    float va,
-                     vb;
-                    for (int i = 0; i < r.getSize(); i++) {
-                        va  = a.getFloat(i);
-                        vb = b.getFloat(i);
-                        if (Float.isNaN(va) || Float.isNaN(vb)) {
-                            r.setFloat(i, Float.NaN);
-                        } else {
-                            r.setFloat(i, va  + vb);
-                        }
-                    }
+                if (ArrayKernel.isFlat(a) && ArrayKernel.isFlat(b)) {
+                    ArrayKernel.arithmeticFloat(ArrayKernel.Operator.ADD, a, b, r);
                 } else {
                     IndexIterator iterR = r.getIndexIterator();
                     IndexIterator iterA = a.getIndexIterator();
@@ -581,24 +542,19 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.FLOAT, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     if (Float.isNaN(a.getFloat(aindex)) || Float.isNaN(b.getFloat(bindex))) {
                         r.setFloat(i, Float.NaN);
                     } else {
                         r.setFloat(i, a.getFloat(aindex) + b.getFloat(bindex));
                     }
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -608,10 +564,8 @@ public class ArrayMath {
 
     private static Array addFloat(Array a, float b) {
         Array r = Array.factory(DataType.FLOAT, a.getShape());
-        if (a.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < r.getSize(); i++) {
-                r.setFloat(i, a.getFloat(i) + b);
-            }
+        if (ArrayKernel.isFlat(a)) {
+            ArrayKernel.arithmeticFloat(ArrayKernel.Operator.ADD, a, b, false, r);
         } else {
             IndexIterator iterR = r.getIndexIterator();
             IndexIterator iterA = a.getIndexIterator();
@@ -634,18 +588,8 @@ public class ArrayMath {
         switch (broadcast) {
             case 0:
                 Array r = Array.factory(DataType.DOUBLE, a.getShape());
-                if (a.getIndexPrivate().isFastIterator() && b.getIndexPrivate().isFastIterator()) {
-                    double va,
-                     vb;
-                    for (int i = 0; i < r.getSize(); i++) {
-                        va  = a.getDouble(i);
-                        vb = b.getDouble(i);
-                        if (Double.isNaN(va) || Double.isNaN(vb)) {
-                            r.setDouble(i, Double.NaN);
-                        } else {
-                            r.setDouble(i, va  + vb);
-                        }
-                    }
+                if (ArrayKernel.isFlat(a) && ArrayKernel.isFlat(b)) {
+                    ArrayKernel.arithmeticDouble(ArrayKernel.Operator.ADD, a, b, r);
                 } else {
                     IndexIterator iterR = r.getIndexIterator();
                     IndexIterator iterA = a.getIndexIterator();
@@ -664,24 +608,19 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.DOUBLE, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     if (Double.isNaN(a.getDouble(aindex)) || Double.isNaN(b.getDouble(bindex))) {
                         r.setDouble(i, Double.NaN);
                     } else {
                         r.setDouble(i, a.getDouble(aindex) + b.getDouble(bindex));
                     }
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -691,10 +630,8 @@ public class ArrayMath {
 
     private static Array addDouble(Array a, double b) {
         Array r = Array.factory(DataType.DOUBLE, a.getShape());
-        if (a.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < r.getSize(); i++) {
-                r.setDouble(i, a.getDouble(i) + b);
-            }
+        if (ArrayKernel.isFlat(a)) {
+            ArrayKernel.arithmeticDouble(ArrayKernel.Operator.ADD, a, b, false, r);
         } else {
             IndexIterator iterR = r.getIndexIterator();
             IndexIterator iterA = a.getIndexIterator();
@@ -731,20 +668,15 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.COMPLEX, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     r.setComplex(i, a.getComplex(aindex).add(b.getComplex(bindex)));
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -811,20 +743,15 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.STRING, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     r.setString(i, a.getString(aindex) + b.getString(bindex));
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -988,20 +915,15 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.INT, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     r.setInt(i, a.getInt(aindex) - b.getInt(bindex));
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -1062,20 +984,15 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.LONG, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     r.setLong(i, a.getLong(aindex) - b.getLong(bindex));
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -1122,14 +1039,8 @@ public class ArrayMath {
         switch (broadcast) {
             case 0:
                 Array r = Array.factory(DataType.FLOAT, a.getShape());
-                if (a.getIndexPrivate().isFastIterator() && b.getIndexPrivate().isFastIterator()) {
-                    for (int i = 0; i < a.getSize(); i++) {
-                        if (Float.isNaN(a.getFloat(i)) || Float.isNaN(b.getFloat(i))) {
-                            r.setFloat(i, Float.NaN);
-                        } else {
-                            r.setFloat(i, a.getFloat(i) - b.getFloat(i));
-                        }
-                    }
+                if (ArrayKernel.isFlat(a) && ArrayKernel.isFlat(b)) {
+                    ArrayKernel.arithmeticFloat(ArrayKernel.Operator.SUB, a, b, r);
                 } else {
                     IndexIterator iterA = a.getIndexIterator();
                     IndexIterator iterB = b.getIndexIterator();
@@ -1140,24 +1051,19 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.FLOAT, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     if (Float.isNaN(a.getFloat(aindex)) || Float.isNaN(b.getFloat(bindex))) {
                         r.setFloat(i, Float.NaN);
                     } else {
                         r.setFloat(i, a.getFloat(aindex) - b.getFloat(bindex));
                     }
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -1167,10 +1073,8 @@ public class ArrayMath {
 
     private static Array subFloat(Array a, float b) {
         Array r = Array.factory(DataType.FLOAT, a.getShape());
-        if (a.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < a.getSize(); i++) {
-                r.setFloat(i, a.getFloat(i) - b);
-            }
+        if (ArrayKernel.isFlat(a)) {
+            ArrayKernel.arithmeticFloat(ArrayKernel.Operator.SUB, a, b, false, r);
         } else {
             IndexIterator iterA = a.getIndexIterator();
             IndexIterator iterR = r.getIndexIterator();
@@ -1184,10 +1088,8 @@ public class ArrayMath {
 
     private static Array subFloat(float b, Array a) {
         Array r = Array.factory(DataType.FLOAT, a.getShape());
-        if (a.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < a.getSize(); i++) {
-                r.setFloat(i, b - a.getFloat(i));
-            }
+        if (ArrayKernel.isFlat(a)) {
+            ArrayKernel.arithmeticFloat(ArrayKernel.Operator.SUB, a, b, true, r);
         } else {
             IndexIterator iterA = a.getIndexIterator();
             IndexIterator iterR = r.getIndexIterator();
@@ -1204,14 +1106,8 @@ public class ArrayMath {
         switch (broadcast) {
             case 0:
                 Array r = Array.factory(DataType.DOUBLE, a.getShape());
-                if (a.getIndexPrivate().isFastIterator() && b.getIndexPrivate().isFastIterator()) {
-                    for (int i = 0; i < a.getSize(); i++) {
-                        if (Double.isNaN(a.getDouble(i)) || Double.isNaN(b.getDouble(i))) {
-                            r.setDouble(i, Double.NaN);
-                        } else {
-                            r.setDouble(i, a.getDouble(i) - b.getDouble(i));
-                        }
-                    }
+                if (ArrayKernel.isFlat(a) && ArrayKernel.isFlat(b)) {
+                    ArrayKernel.arithmeticDouble(ArrayKernel.Operator.SUB, a, b, r);
                 } else {
                     IndexIterator iterA = a.getIndexIterator();
                     IndexIterator iterB = b.getIndexIterator();
@@ -1222,24 +1118,19 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.DOUBLE, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     if (Double.isNaN(a.getDouble(aindex)) || Double.isNaN(b.getDouble(bindex))) {
                         r.setDouble(i, Double.NaN);
                     } else {
                         r.setDouble(i, a.getDouble(aindex) - b.getDouble(bindex));
                     }
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -1249,10 +1140,8 @@ public class ArrayMath {
 
     private static Array subDouble(Array a, double b) {
         Array r = Array.factory(DataType.DOUBLE, a.getShape());
-        if (a.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < a.getSize(); i++) {
-                r.setDouble(i, a.getDouble(i) - b);
-            }
+        if (ArrayKernel.isFlat(a)) {
+            ArrayKernel.arithmeticDouble(ArrayKernel.Operator.SUB, a, b, false, r);
         } else {
             IndexIterator iterA = a.getIndexIterator();
             IndexIterator iterR = r.getIndexIterator();
@@ -1266,10 +1155,8 @@ public class ArrayMath {
 
     private static Array subDouble(double b, Array a) {
         Array r = Array.factory(DataType.DOUBLE, a.getShape());
-        if (a.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < a.getSize(); i++) {
-                r.setDouble(i, b - a.getDouble(i));
-            }
+        if (ArrayKernel.isFlat(a)) {
+            ArrayKernel.arithmeticDouble(ArrayKernel.Operator.SUB, a, b, true, r);
         } else {
             IndexIterator iterA = a.getIndexIterator();
             IndexIterator iterR = r.getIndexIterator();
@@ -1322,21 +1209,16 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.COMPLEX, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 if (isComplex(a)) {
                     if (isComplex(b)) {
                         Complex v1, v2;
                         for (int i = 0; i < r.getSize(); i++) {
-                            current = index.getCurrentCounter();
-                            setIndex(aindex, bindex, current, n, na, nb);
+                            aindex = bi.currentElementA();
+                            bindex = bi.currentElementB();
                             v1 = a.getComplex(aindex);
                             v2 = b.getComplex(bindex);
                             if (v1.isNaN() || v2.isNaN()) {
@@ -1344,27 +1226,27 @@ public class ArrayMath {
                             } else {
                                 r.setComplex(i, v1.subtract(v2));
                             }
-                            index.incr();
+                            bi.incr();
                         }
                     } else {
                         Complex v;
                         for (int i = 0; i < r.getSize(); i++) {
-                            current = index.getCurrentCounter();
-                            setIndex(aindex, bindex, current, n, na, nb);
+                            aindex = bi.currentElementA();
+                            bindex = bi.currentElementB();
                             v = a.getComplex(aindex);
                             if (v.isNaN() || Double.isNaN(b.getDouble(bindex))) {
                                 r.setComplex(i, new Complex(Double.NaN));
                             } else {
                                 r.setComplex(i, v.subtract(b.getDouble(bindex)));
                             }
-                            index.incr();
+                            bi.incr();
                         }
                     }
                 } else {
                     Complex v;
                     for (int i = 0; i < a.getSize(); i++) {
-                        current = index.getCurrentCounter();
-                        setIndex(aindex, bindex, current, n, na, nb);
+                        aindex = bi.currentElementA();
+                        bindex = bi.currentElementB();
                         v = b.getComplex(bindex);
                         if (v.isNaN() || Double.isNaN(a.getDouble(aindex))) {
                             r.setComplex(i, new Complex(Double.NaN));
@@ -1544,24 +1426,19 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.INT, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     if (a.getInt(aindex) == Integer.MIN_VALUE || b.getInt(bindex) == Integer.MIN_VALUE) {
                         r.setInt(i, Integer.MIN_VALUE);
                     } else {
                         r.setInt(i, a.getInt(aindex) * b.getInt(bindex));
                     }
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -1625,24 +1502,19 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.LONG, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     if (a.getLong(aindex) == Long.MIN_VALUE || b.getLong(bindex) == Long.MIN_VALUE) {
                         r.setLong(i, Long.MIN_VALUE);
                     } else {
                         r.setLong(i, a.getLong(aindex) * b.getLong(bindex));
                     }
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -1678,18 +1550,8 @@ public class ArrayMath {
         switch (broadcast) {
             case 0:
                 Array r = Array.factory(DataType.FLOAT, a.getShape());
-                if (a.getIndexPrivate().isFastIterator() && b.getIndexPrivate().isFastIterator()) {
-                    float va,
-                     vb;
-                    for (int i = 0; i < a.getSize(); i++) {
-                        va  = a.getFloat(i);
-                        vb = b.getFloat(i);
-                        if (Float.isNaN(va) || Float.isNaN(vb)) {
-                            r.setFloat(i, Float.NaN);
-                        } else {
-                            r.setFloat(i, a.getFloat(i) * b.getFloat(i));
-                        }
-                    }
+                if (ArrayKernel.isFlat(a) && ArrayKernel.isFlat(b)) {
+                    ArrayKernel.arithmeticFloat(ArrayKernel.Operator.MUL, a, b, r);
                 } else {
                     IndexIterator iterR = r.getIndexIterator();
                     IndexIterator iterA = a.getIndexIterator();
@@ -1708,24 +1570,19 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.FLOAT, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     if (Float.isNaN(a.getFloat(aindex)) || Float.isNaN(b.getFloat(bindex))) {
                         r.setFloat(i, Float.NaN);
                     } else {
                         r.setFloat(i, a.getFloat(aindex) * b.getFloat(bindex));
                     }
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -1735,10 +1592,8 @@ public class ArrayMath {
 
     private static Array mulFloat(Array a, float b) {
         Array r = Array.factory(DataType.FLOAT, a.getShape());
-        if (a.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < r.getSize(); i++) {
-                r.setFloat(i, a.getFloat(i) * b);
-            }
+        if (ArrayKernel.isFlat(a)) {
+            ArrayKernel.arithmeticFloat(ArrayKernel.Operator.MUL, a, b, false, r);
         } else {
             IndexIterator iterR = r.getIndexIterator();
             IndexIterator iterA = a.getIndexIterator();
@@ -1761,18 +1616,8 @@ public class ArrayMath {
         switch (broadcast) {
             case 0:
                 Array r = Array.factory(DataType.DOUBLE, a.getShape());
-                if (a.getIndexPrivate().isFastIterator() && b.getIndexPrivate().isFastIterator()) {
-                    double va,
-                     vb;
-                    for (int i = 0; i < a.getSize(); i++) {
-                        va  = a.getDouble(i);
-                        vb = b.getDouble(i);
-                        if (Double.isNaN(va) || Double.isNaN(vb)) {
-                            r.setDouble(i, Double.NaN);
-                        } else {
-                            r.setDouble(i, a.getDouble(i) * b.getDouble(i));
-                        }
-                    }
+                if (ArrayKernel.isFlat(a) && ArrayKernel.isFlat(b)) {
+                    ArrayKernel.arithmeticDouble(ArrayKernel.Operator.MUL, a, b, r);
                 } else {
                     IndexIterator iterR = r.getIndexIterator();
                     IndexIterator iterA = a.getIndexIterator();
@@ -1791,24 +1636,19 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.DOUBLE, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     if (Double.isNaN(a.getDouble(aindex)) || Double.isNaN(b.getDouble(bindex))) {
                         r.setDouble(i, Double.NaN);
                     } else {
                         r.setDouble(i, a.getDouble(aindex) * b.getDouble(bindex));
                     }
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -1818,10 +1658,8 @@ public class ArrayMath {
 
     private static Array mulDouble(Array a, double b) {
         Array r = Array.factory(DataType.DOUBLE, a.getShape());
-        if (a.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < r.getSize(); i++) {
-                r.setDouble(i, a.getDouble(i) * b);
-            }
+        if (ArrayKernel.isFlat(a)) {
+            ArrayKernel.arithmeticDouble(ArrayKernel.Operator.MUL, a, b, false, r);
         } else {
             IndexIterator iterR = r.getIndexIterator();
             IndexIterator iterA = a.getIndexIterator();
@@ -1880,21 +1718,16 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.COMPLEX, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 if (isComplex(a)) {
                     if (isComplex(b)) {
                         Complex v1, v2;
                         for (int i = 0; i < r.getSize(); i++) {
-                            current = index.getCurrentCounter();
-                            setIndex(aindex, bindex, current, n, na, nb);
+                            aindex = bi.currentElementA();
+                            bindex = bi.currentElementB();
                             v1 = a.getComplex(aindex);
                             v2 = b.getComplex(bindex);
                             if (v1.isNaN() || v2.isNaN()) {
@@ -1902,27 +1735,27 @@ public class ArrayMath {
                             } else {
                                 r.setComplex(i, v1.multiply(v2));
                             }
-                            index.incr();
+                            bi.incr();
                         }
                     } else {
                         Complex v;
                         for (int i = 0; i < r.getSize(); i++) {
-                            current = index.getCurrentCounter();
-                            setIndex(aindex, bindex, current, n, na, nb);
+                            aindex = bi.currentElementA();
+                            bindex = bi.currentElementB();
                             v = a.getComplex(aindex);
                             if (v.isNaN() || Double.isNaN(b.getDouble(bindex))) {
                                 r.setComplex(i, new Complex(Double.NaN));
                             } else {
                                 r.setComplex(i, v.multiply(b.getDouble(bindex)));
                             }
-                            index.incr();
+                            bi.incr();
                         }
                     }
                 } else {
                     Complex v;
                     for (int i = 0; i < a.getSize(); i++) {
-                        current = index.getCurrentCounter();
-                        setIndex(aindex, bindex, current, n, na, nb);
+                        aindex = bi.currentElementA();
+                        bindex = bi.currentElementB();
                         v = b.getComplex(bindex);
                         if (v.isNaN() || Double.isNaN(a.getDouble(aindex))) {
                             r.setObject(i, new Complex(Double.NaN));
@@ -2108,24 +1941,19 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.DOUBLE, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     if (Double.isNaN(a.getDouble(aindex)) || Double.isNaN(b.getDouble(bindex))) {
                         r.setDouble(i, Double.NaN);
                     } else {
                         r.setDouble(i, a.getDouble(aindex) / b.getDouble(bindex));
                     }
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -2184,18 +2012,8 @@ public class ArrayMath {
         switch (broadcast) {
             case 0:
                 Array r = Array.factory(DataType.FLOAT, a.getShape());
-                if (a.getIndexPrivate().isFastIterator() && b.getIndexPrivate().isFastIterator()) {
-                    float va,
-                     vb;
-                    for (int i = 0; i < r.getSize(); i++) {
-                        va  = a.getFloat(i);
-                        vb = b.getFloat(i);
-                        if (Float.isNaN(va) || Float.isNaN(vb)) {
-                            r.setFloat(i, Float.NaN);
-                        } else {
-                            r.setFloat(i, va  / vb);
-                        }
-                    }
+                if (ArrayKernel.isFlat(a) && ArrayKernel.isFlat(b)) {
+                    ArrayKernel.arithmeticFloat(ArrayKernel.Operator.DIV, a, b, r);
                 } else {
                     IndexIterator iterR = r.getIndexIterator();
                     IndexIterator iterA = a.getIndexIterator();
@@ -2214,24 +2032,19 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.FLOAT, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     if (Float.isNaN(a.getFloat(aindex)) || Float.isNaN(b.getFloat(bindex))) {
                         r.setFloat(i, Float.NaN);
                     } else {
                         r.setFloat(i, a.getFloat(aindex) / b.getFloat(bindex));
                     }
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -2241,10 +2054,8 @@ public class ArrayMath {
 
     private static Array divFloat(Array a, float b) {
         Array r = Array.factory(DataType.FLOAT, a.getShape());
-        if (a.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < r.getSize(); i++) {
-                r.setFloat(i, a.getFloat(i) / b);
-            }
+        if (ArrayKernel.isFlat(a)) {
+            ArrayKernel.arithmeticFloat(ArrayKernel.Operator.DIV, a, b, false, r);
         } else {
             IndexIterator iterR = r.getIndexIterator();
             IndexIterator iterA = a.getIndexIterator();
@@ -2264,10 +2075,8 @@ public class ArrayMath {
 
     private static Array divFloat(float b, Array a) {
         Array r = Array.factory(DataType.FLOAT, a.getShape());
-        if (a.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < r.getSize(); i++) {
-                r.setFloat(i, b / a.getFloat(i));
-            }
+        if (ArrayKernel.isFlat(a)) {
+            ArrayKernel.arithmeticFloat(ArrayKernel.Operator.DIV, a, b, true, r);
         } else {
             IndexIterator iterR = r.getIndexIterator();
             IndexIterator iterA = a.getIndexIterator();
@@ -2290,18 +2099,8 @@ public class ArrayMath {
         switch (broadcast) {
             case 0:
                 Array r = Array.factory(DataType.DOUBLE, a.getShape());
-                if (a.getIndexPrivate().isFastIterator() && b.getIndexPrivate().isFastIterator()) {
-                    double va,
-                     vb;
-                    for (int i = 0; i < r.getSize(); i++) {
-                        va  = a.getDouble(i);
-                        vb = b.getDouble(i);
-                        if (Double.isNaN(va) || Double.isNaN(vb)) {
-                            r.setDouble(i, Double.NaN);
-                        } else {
-                            r.setDouble(i, va  / vb);
-                        }
-                    }
+                if (ArrayKernel.isFlat(a) && ArrayKernel.isFlat(b)) {
+                    ArrayKernel.arithmeticDouble(ArrayKernel.Operator.DIV, a, b, r);
                 } else {
                     IndexIterator iterR = r.getIndexIterator();
                     IndexIterator iterA = a.getIndexIterator();
@@ -2320,24 +2119,19 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.DOUBLE, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     if (Double.isNaN(a.getDouble(aindex)) || Double.isNaN(b.getDouble(bindex))) {
                         r.setDouble(i, Double.NaN);
                     } else {
                         r.setDouble(i, a.getDouble(aindex) / b.getDouble(bindex));
                     }
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -2347,10 +2141,8 @@ public class ArrayMath {
 
     private static Array divDouble(Array a, double b) {
         Array r = Array.factory(DataType.DOUBLE, a.getShape());
-        if (a.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < r.getSize(); i++) {
-                r.setDouble(i, a.getDouble(i) / b);
-            }
+        if (ArrayKernel.isFlat(a)) {
+            ArrayKernel.arithmeticDouble(ArrayKernel.Operator.DIV, a, b, false, r);
         } else {
             IndexIterator iterR = r.getIndexIterator();
             IndexIterator iterA = a.getIndexIterator();
@@ -2370,10 +2162,8 @@ public class ArrayMath {
 
     private static Array divDouble(double b, Array a) {
         Array r = Array.factory(DataType.DOUBLE, a.getShape());
-        if (a.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < r.getSize(); i++) {
-                r.setDouble(i, b / a.getDouble(i));
-            }
+        if (ArrayKernel.isFlat(a)) {
+            ArrayKernel.arithmeticDouble(ArrayKernel.Operator.DIV, a, b, true, r);
         } else {
             IndexIterator iterR = r.getIndexIterator();
             IndexIterator iterA = a.getIndexIterator();
@@ -2410,21 +2200,16 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.COMPLEX, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 if (isComplex(a)) {
                     if (isComplex(b)) {
                         Complex v1, v2;
                         for (int i = 0; i < r.getSize(); i++) {
-                            current = index.getCurrentCounter();
-                            setIndex(aindex, bindex, current, n, na, nb);
+                            aindex = bi.currentElementA();
+                            bindex = bi.currentElementB();
                             v1 = a.getComplex(aindex);
                             v2 = b.getComplex(bindex);
                             if (v1.isNaN() || v2.isNaN()) {
@@ -2432,27 +2217,27 @@ public class ArrayMath {
                             } else {
                                 r.setComplex(i, v1.divide(v2));
                             }
-                            index.incr();
+                            bi.incr();
                         }
                     } else {
                         Complex v;
                         for (int i = 0; i < r.getSize(); i++) {
-                            current = index.getCurrentCounter();
-                            setIndex(aindex, bindex, current, n, na, nb);
+                            aindex = bi.currentElementA();
+                            bindex = bi.currentElementB();
                             v = a.getComplex(aindex);
                             if (v.isNaN() || Double.isNaN(b.getDouble(bindex))) {
                                 r.setComplex(i, new Complex(Double.NaN));
                             } else {
                                 r.setComplex(i, v.divide(b.getDouble(bindex)));
                             }
-                            index.incr();
+                            bi.incr();
                         }
                     }
                 } else {
                     Complex v;
                     for (int i = 0; i < a.getSize(); i++) {
-                        current = index.getCurrentCounter();
-                        setIndex(aindex, bindex, current, n, na, nb);
+                        aindex = bi.currentElementA();
+                        bindex = bi.currentElementB();
                         v = b.getComplex(bindex);
                         if (v.isNaN() || Double.isNaN(a.getDouble(aindex))) {
                             r.setComplex(i, new Complex(Double.NaN));
@@ -2664,19 +2449,14 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.INT, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 int va, vb;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     va = a.getInt(aindex);
                     vb = b.getInt(bindex);
                     if (va == Integer.MIN_VALUE || vb == Integer.MIN_VALUE) {
@@ -2684,7 +2464,7 @@ public class ArrayMath {
                     } else {
                         r.setInt(i, mod(va, vb));
                     }
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -2773,19 +2553,14 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.INT, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 long va, vb;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     va = a.getLong(aindex);
                     vb = b.getLong(bindex);
                     if (va == Long.MIN_VALUE || vb == Long.MIN_VALUE) {
@@ -2793,7 +2568,7 @@ public class ArrayMath {
                     } else {
                         r.setLong(i, mod(va, vb));
                     }
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -2882,24 +2657,19 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.FLOAT, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     if (Float.isNaN(a.getFloat(aindex)) || Float.isNaN(b.getFloat(bindex))) {
                         r.setFloat(i, Float.NaN);
                     } else {
                         r.setFloat(i, mod(a.getFloat(aindex), b.getFloat(bindex)));
                     }
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -2987,24 +2757,19 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.DOUBLE, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     if (Double.isNaN(a.getDouble(aindex)) || Double.isNaN(b.getDouble(bindex))) {
                         r.setDouble(i, Double.NaN);
                     } else {
                         r.setDouble(i, mod(a.getDouble(aindex), b.getDouble(bindex)));
                     }
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -3168,24 +2933,19 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.INT, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     if (a.getInt(aindex) == Integer.MIN_VALUE || b.getInt(bindex) == Integer.MIN_VALUE) {
                         r.setInt(i, Integer.MIN_VALUE);
                     } else {
                         r.setInt(i, Math.floorDiv(a.getInt(aindex), b.getInt(bindex)));
                     }
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -3273,24 +3033,19 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.DOUBLE, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     if (Float.isNaN(a.getFloat(aindex)) || Float.isNaN(b.getFloat(bindex))) {
                         r.setDouble(i, Double.NaN);
                     } else {
                         r.setDouble(i, Math.floor(a.getFloat(aindex) / b.getFloat(bindex)));
                     }
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -3378,24 +3133,19 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.DOUBLE, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     if (Double.isNaN(a.getDouble(aindex)) || Double.isNaN(b.getDouble(bindex))) {
                         r.setDouble(i, Double.NaN);
                     } else {
                         r.setDouble(i, Math.floor(a.getDouble(aindex) / b.getDouble(bindex)));
                     }
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -3609,20 +3359,15 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.INT, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     r.setInt(i, (int) Math.pow(a.getInt(aindex), b.getInt(bindex)));
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -3683,20 +3428,15 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.LONG, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     r.setLong(i, (long) Math.pow(a.getLong(aindex), b.getLong(bindex)));
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -3761,24 +3501,19 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.DOUBLE, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     if (Double.isNaN(a.getDouble(aindex)) || Double.isNaN(b.getDouble(bindex))) {
                         r.setDouble(i, Double.NaN);
                     } else {
                         r.setDouble(i, Math.pow(a.getDouble(aindex), b.getDouble(bindex)));
                     }
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -3854,21 +3589,16 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.OBJECT, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 if (isComplex(a)) {
                     if (isComplex(b)) {
                         Complex v1, v2;
                         for (int i = 0; i < r.getSize(); i++) {
-                            current = index.getCurrentCounter();
-                            setIndex(aindex, bindex, current, n, na, nb);
+                            aindex = bi.currentElementA();
+                            bindex = bi.currentElementB();
                             v1 = a.getComplex(aindex);
                             v2 = b.getComplex(bindex);
                             if (v1.isNaN() || v2.isNaN()) {
@@ -3876,27 +3606,27 @@ public class ArrayMath {
                             } else {
                                 r.setComplex(i, v1.pow(v2));
                             }
-                            index.incr();
+                            bi.incr();
                         }
                     } else {
                         Complex v;
                         for (int i = 0; i < r.getSize(); i++) {
-                            current = index.getCurrentCounter();
-                            setIndex(aindex, bindex, current, n, na, nb);
+                            aindex = bi.currentElementA();
+                            bindex = bi.currentElementB();
                             v = a.getComplex(aindex);
                             if (v.isNaN() || Double.isNaN(b.getDouble(bindex))) {
                                 r.setComplex(i, new Complex(Double.NaN));
                             } else {
                                 r.setComplex(i, v.pow(b.getDouble(bindex)));
                             }
-                            index.incr();
+                            bi.incr();
                         }
                     }
                 } else {
                     Complex v;
                     for (int i = 0; i < a.getSize(); i++) {
-                        current = index.getCurrentCounter();
-                        setIndex(aindex, bindex, current, n, na, nb);
+                        aindex = bi.currentElementA();
+                        bindex = bi.currentElementB();
                         v = b.getComplex(bindex);
                         if (v.isNaN() || Double.isNaN(a.getDouble(aindex))) {
                             r.setComplex(i, new Complex(Double.NaN));
@@ -4036,10 +3766,8 @@ public class ArrayMath {
             }
         } else {
             r = Array.factory(DataType.DOUBLE, a.getShape());
-            if (a.getIndexPrivate().isFastIterator()) {
-                for (int i = 0; i < a.getSize(); i++) {
-                    r.setDouble(i, Math.exp(a.getDouble(i)));
-                }
+            if (ArrayKernel.isFlat(a)) {
+                ArrayKernel.apply(a, r, Math::exp);
             } else {
                 IndexIterator iterA = a.getIndexIterator();
                 IndexIterator iterR = r.getIndexIterator();
@@ -4075,10 +3803,8 @@ public class ArrayMath {
             }
         } else {
             r = Array.factory(DataType.DOUBLE, a.getShape());
-            if (a.getIndexPrivate().isFastIterator()) {
-                for (int i = 0; i < a.getSize(); i++) {
-                    r.setDouble(i, Math.log(a.getDouble(i)));
-                }
+            if (ArrayKernel.isFlat(a)) {
+                ArrayKernel.apply(a, r, Math::log);
             } else {
                 IndexIterator iterA = a.getIndexIterator();
                 IndexIterator iterR = r.getIndexIterator();
@@ -4099,10 +3825,8 @@ public class ArrayMath {
      */
     public static Array log10(Array a) {
         Array r = Array.factory(DataType.DOUBLE, a.getShape());
-        if (a.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < a.getSize(); i++) {
-                r.setDouble(i, Math.log10(a.getDouble(i)));
-            }
+        if (ArrayKernel.isFlat(a)) {
+            ArrayKernel.apply(a, r, Math::log10);
         } else {
             IndexIterator iterA = a.getIndexIterator();
             IndexIterator iterR = r.getIndexIterator();
@@ -4261,16 +3985,8 @@ public class ArrayMath {
     public static Array clip(Array a, double min, double max) {
         Array r = Array.factory(a.getDataType(), a.getShape());
         double v;
-        if (a.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < a.getSize(); i++) {
-                v = a.getDouble(i);
-                if (v < min) {
-                    v = min;
-                } else if (v > max) {
-                    v = max;
-                }
-                r.setDouble(i, v);
-            }
+        if (ArrayKernel.isFlat(a)) {
+            ArrayKernel.apply(a, r, x -> x < min ? min : (x > max ? max : x));
         } else {
             IndexIterator iterA = a.getIndexIterator();
             IndexIterator iterR = r.getIndexIterator();
@@ -4298,14 +4014,8 @@ public class ArrayMath {
     public static Array clipMin(Array a, double min) {
         Array r = Array.factory(a.getDataType(), a.getShape());
         double v;
-        if (a.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < a.getSize(); i++) {
-                v = a.getDouble(i);
-                if (v < min) {
-                    v = min;
-                }
-                r.setDouble(i, v);
-            }
+        if (ArrayKernel.isFlat(a)) {
+            ArrayKernel.apply(a, r, x -> x < min ? min : x);
         } else {
             IndexIterator iterA = a.getIndexIterator();
             IndexIterator iterR = r.getIndexIterator();
@@ -4331,14 +4041,8 @@ public class ArrayMath {
     public static Array clipMax(Array a, double max) {
         Array r = Array.factory(a.getDataType(), a.getShape());
         double v;
-        if (a.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < a.getSize(); i++) {
-                v = a.getDouble(i);
-                if (v > max) {
-                    v = max;
-                }
-                r.setDouble(i, v);
-            }
+        if (ArrayKernel.isFlat(a)) {
+            ArrayKernel.apply(a, r, x -> x > max ? max : x);
         } else {
             IndexIterator iterA = a.getIndexIterator();
             IndexIterator iterR = r.getIndexIterator();
@@ -4405,20 +4109,15 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.BOOLEAN, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     r.setBoolean(i, a.getDouble(aindex) == b.getDouble(bindex));
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -4559,20 +4258,15 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.BOOLEAN, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     r.setBoolean(i, isClose(a.getDouble(aindex), b.getDouble(bindex), rTol, aTol, equalNaN));
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -4661,10 +4355,8 @@ public class ArrayMath {
         switch (broadcast) {
             case 0:
                 Array r = Array.factory(DataType.BOOLEAN, a.getShape());
-                if (a.getIndexPrivate().isFastIterator() && b.getIndexPrivate().isFastIterator()) {
-                    for (int i = 0; i < a.getSize(); i++) {
-                        r.setBoolean(i, a.getDouble(i) < b.getDouble(i));
-                    }
+                if (ArrayKernel.isFlat(a) && ArrayKernel.isFlat(b)) {
+                    ArrayKernel.test(a, b, r, (x, y) -> x < y);
                 } else {
                     IndexIterator iterA = a.getIndexIterator();
                     IndexIterator iterR = r.getIndexIterator();
@@ -4675,20 +4367,15 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.BOOLEAN, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     r.setBoolean(i, a.getDouble(aindex) < b.getDouble(bindex));
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -4705,10 +4392,8 @@ public class ArrayMath {
      */
     public static Array lessThan(Array a, Number b) {
         Array r = Array.factory(DataType.BOOLEAN, a.getShape());
-        if (a.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < a.getSize(); i++) {
-                r.setBoolean(i, a.getDouble(i) < b.doubleValue());
-            }
+        if (ArrayKernel.isFlat(a)) {
+            ArrayKernel.test(a, b.doubleValue(), r, (x, y) -> x < y);
         } else {
             IndexIterator iterA = a.getIndexIterator();
             IndexIterator iterR = r.getIndexIterator();
@@ -4732,10 +4417,8 @@ public class ArrayMath {
         switch (broadcast) {
             case 0:
                 Array r = Array.factory(DataType.BOOLEAN, a.getShape());
-                if (a.getIndexPrivate().isFastIterator() && b.getIndexPrivate().isFastIterator()) {
-                    for (int i = 0; i < a.getSize(); i++) {
-                        r.setBoolean(i, a.getDouble(i) <= b.getDouble(i));
-                    }
+                if (ArrayKernel.isFlat(a) && ArrayKernel.isFlat(b)) {
+                    ArrayKernel.test(a, b, r, (x, y) -> x <= y);
                 } else {
                     IndexIterator iterA = a.getIndexIterator();
                     IndexIterator iterR = r.getIndexIterator();
@@ -4746,20 +4429,15 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.BOOLEAN, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     r.setBoolean(i, a.getDouble(aindex) <= b.getDouble(bindex));
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -4776,10 +4454,8 @@ public class ArrayMath {
      */
     public static Array lessThanOrEqual(Array a, Number b) {
         Array r = Array.factory(DataType.BOOLEAN, a.getShape());
-        if (a.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < a.getSize(); i++) {
-                r.setBoolean(i, a.getDouble(i) <= b.doubleValue());
-            }
+        if (ArrayKernel.isFlat(a)) {
+            ArrayKernel.test(a, b.doubleValue(), r, (x, y) -> x <= y);
         } else {
             IndexIterator iterA = a.getIndexIterator();
             IndexIterator iterR = r.getIndexIterator();
@@ -4803,10 +4479,8 @@ public class ArrayMath {
         switch (broadcast) {
             case 0:
                 Array r = Array.factory(DataType.BOOLEAN, a.getShape());
-                if (a.getIndexPrivate().isFastIterator() && b.getIndexPrivate().isFastIterator()) {
-                    for (int i = 0; i < a.getSize(); i++) {
-                        r.setBoolean(i, a.getDouble(i) > b.getDouble(i));
-                    }
+                if (ArrayKernel.isFlat(a) && ArrayKernel.isFlat(b)) {
+                    ArrayKernel.test(a, b, r, (x, y) -> x > y);
                 } else {
                     IndexIterator iterA = a.getIndexIterator();
                     IndexIterator iterR = r.getIndexIterator();
@@ -4817,20 +4491,15 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.BOOLEAN, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     r.setBoolean(i, a.getDouble(aindex) > b.getDouble(bindex));
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -4847,10 +4516,8 @@ public class ArrayMath {
      */
     public static Array greaterThan(Array a, Number b) {
         Array r = Array.factory(DataType.BOOLEAN, a.getShape());
-        if (a.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < a.getSize(); i++) {
-                r.setBoolean(i, a.getDouble(i) > b.doubleValue());
-            }
+        if (ArrayKernel.isFlat(a)) {
+            ArrayKernel.test(a, b.doubleValue(), r, (x, y) -> x > y);
         } else {
             IndexIterator iterA = a.getIndexIterator();
             IndexIterator iterR = r.getIndexIterator();
@@ -4874,10 +4541,8 @@ public class ArrayMath {
         switch (broadcast) {
             case 0:
                 Array r = Array.factory(DataType.BOOLEAN, a.getShape());
-                if (a.getIndexPrivate().isFastIterator() && b.getIndexPrivate().isFastIterator()) {
-                    for (int i = 0; i < a.getSize(); i++) {
-                        r.setBoolean(i, a.getDouble(i) >= b.getDouble(i));
-                    }
+                if (ArrayKernel.isFlat(a) && ArrayKernel.isFlat(b)) {
+                    ArrayKernel.test(a, b, r, (x, y) -> x >= y);
                 } else {
                     IndexIterator iterA = a.getIndexIterator();
                     IndexIterator iterR = r.getIndexIterator();
@@ -4888,20 +4553,15 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.BOOLEAN, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     r.setBoolean(i, a.getDouble(aindex) >= b.getDouble(bindex));
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -4918,10 +4578,8 @@ public class ArrayMath {
      */
     public static Array greaterThanOrEqual(Array a, Number b) {
         Array r = Array.factory(DataType.BOOLEAN, a.getShape());
-        if (a.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < a.getSize(); i++) {
-                r.setBoolean(i, a.getDouble(i) >= b.doubleValue());
-            }
+        if (ArrayKernel.isFlat(a)) {
+            ArrayKernel.test(a, b.doubleValue(), r, (x, y) -> x >= y);
         } else {
             IndexIterator iterA = a.getIndexIterator();
             IndexIterator iterR = r.getIndexIterator();
@@ -4945,10 +4603,8 @@ public class ArrayMath {
         switch (broadcast) {
             case 0:
                 Array r = Array.factory(DataType.BOOLEAN, a.getShape());
-                if (a.getIndexPrivate().isFastIterator() && b.getIndexPrivate().isFastIterator()) {
-                    for (int i = 0; i < a.getSize(); i++) {
-                        r.setBoolean(i, a.getDouble(i) != b.getDouble(i));
-                    }
+                if (ArrayKernel.isFlat(a) && ArrayKernel.isFlat(b)) {
+                    ArrayKernel.test(a, b, r, (x, y) -> x != y);
                 } else {
                     IndexIterator iterA = a.getIndexIterator();
                     IndexIterator iterR = r.getIndexIterator();
@@ -4959,20 +4615,15 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(a, b);
+                BroadcastIterator bi = new BroadcastIterator(a, b);
+                int[] shape = bi.getShape();
                 r = Array.factory(DataType.BOOLEAN, shape);
-                Index index = r.getIndex();
-                Index aindex = a.getIndex();
-                Index bindex = b.getIndex();
-                int n = r.getRank();
-                int na = a.getRank();
-                int nb = b.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     r.setBoolean(i, a.getDouble(aindex) != b.getDouble(bindex));
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -4991,10 +4642,8 @@ public class ArrayMath {
         Array r = Array.factory(DataType.BOOLEAN, a.getShape());
         double v = b.doubleValue();
         if (Double.isNaN(v)) {
-            if (a.getIndexPrivate().isFastIterator()) {
-                for (int i = 0; i < a.getSize(); i++) {
-                    r.setBoolean(i, !Double.isNaN(a.getDouble(i)));
-                }
+            if (ArrayKernel.isFlat(a)) {
+                ArrayKernel.test(a, v, r, (x, y) -> !Double.isNaN(x));
             } else {
                 IndexIterator iterA = a.getIndexIterator();
                 IndexIterator iterR = r.getIndexIterator();
@@ -5003,10 +4652,8 @@ public class ArrayMath {
                 }
             }
         } else {
-            if (a.getIndexPrivate().isFastIterator()) {
-                for (int i = 0; i < a.getSize(); i++) {
-                    r.setBoolean(i, a.getDouble(i) != v);
-                }
+            if (ArrayKernel.isFlat(a)) {
+                ArrayKernel.test(a, v, r, (x, y) -> x != y);
             } else {
                 IndexIterator iterA = a.getIndexIterator();
                 IndexIterator iterR = r.getIndexIterator();
@@ -5044,49 +4691,7 @@ public class ArrayMath {
      * @throws InvalidRangeException
      */
     public static Array any(Array a, int axis) throws InvalidRangeException {
-        int[] dataShape = a.getShape();
-        int[] shape = new int[dataShape.length - 1];
-        int idx;
-        for (int i = 0; i < dataShape.length; i++) {
-            idx = i;
-            if (idx == axis) {
-                continue;
-            } else if (idx > axis) {
-                idx -= 1;
-            }
-            shape[idx] = dataShape[i];
-        }
-        Array r = Array.factory(DataType.BOOLEAN, shape);
-        boolean b;
-        Index indexr = r.getIndex();
-        int[] current;
-        for (int i = 0; i < r.getSize(); i++) {
-            current = indexr.getCurrentCounter();
-            List<Range> ranges = new ArrayList<>();
-            for (int j = 0; j < dataShape.length; j++) {
-                if (j == axis) {
-                    ranges.add(new Range(0, dataShape[j] - 1, 1));
-                } else {
-                    idx = j;
-                    if (idx > axis) {
-                        idx -= 1;
-                    }
-                    ranges.add(new Range(current[idx], current[idx], 1));
-                }
-            }
-            IndexIterator ii = a.getRangeIterator(ranges);
-            b = false;
-            while (ii.hasNext()) {
-                if (ii.getBooleanNext()) {
-                    b = true;
-                    break;
-                }
-            }
-            r.setBoolean(i, b);
-            indexr.incr();
-        }
-
-        return r;
+        return new ArrayReduce(a.getShape(), axis).any(a);
     }
 
     /**
@@ -5114,49 +4719,7 @@ public class ArrayMath {
      * @throws InvalidRangeException
      */
     public static Array all(Array a, int axis) throws InvalidRangeException {
-        int[] dataShape = a.getShape();
-        int[] shape = new int[dataShape.length - 1];
-        int idx;
-        for (int i = 0; i < dataShape.length; i++) {
-            idx = i;
-            if (idx == axis) {
-                continue;
-            } else if (idx > axis) {
-                idx -= 1;
-            }
-            shape[idx] = dataShape[i];
-        }
-        Array r = Array.factory(DataType.BOOLEAN, shape);
-        boolean b;
-        Index indexr = r.getIndex();
-        int[] current;
-        for (int i = 0; i < r.getSize(); i++) {
-            current = indexr.getCurrentCounter();
-            List<Range> ranges = new ArrayList<>();
-            for (int j = 0; j < dataShape.length; j++) {
-                if (j == axis) {
-                    ranges.add(new Range(0, dataShape[j] - 1, 1));
-                } else {
-                    idx = j;
-                    if (idx > axis) {
-                        idx -= 1;
-                    }
-                    ranges.add(new Range(current[idx], current[idx], 1));
-                }
-            }
-            IndexIterator ii = a.getRangeIterator(ranges);
-            b = true;
-            while (ii.hasNext()) {
-                if (!ii.getBooleanNext()) {
-                    b = false;
-                    break;
-                }
-            }
-            r.setBoolean(i, b);
-            indexr.incr();
-        }
-
-        return r;
+        return new ArrayReduce(a.getShape(), axis).all(a);
     }
 
     /**
@@ -5883,42 +5446,7 @@ public class ArrayMath {
      * @throws InvalidRangeException
      */
     public static Array trapz(Array a, double dx, int axis) throws InvalidRangeException {
-        int[] dataShape = a.getShape();
-        int[] shape = new int[dataShape.length - 1];
-        int idx;
-        for (int i = 0; i < dataShape.length; i++) {
-            idx = i;
-            if (idx == axis) {
-                continue;
-            } else if (idx > axis) {
-                idx -= 1;
-            }
-            shape[idx] = dataShape[i];
-        }
-        Array r = Array.factory(DataType.DOUBLE, shape);
-        double mean;
-        Index indexr = r.getIndex();
-        int[] current;
-        for (int i = 0; i < r.getSize(); i++) {
-            current = indexr.getCurrentCounter();
-            List<Range> ranges = new ArrayList<>();
-            for (int j = 0; j < dataShape.length; j++) {
-                if (j == axis) {
-                    ranges.add(new Range(0, dataShape[j] - 1, 1));
-                } else {
-                    idx = j;
-                    if (idx > axis) {
-                        idx -= 1;
-                    }
-                    ranges.add(new Range(current[idx], current[idx], 1));
-                }
-            }
-            mean = trapz(a, dx, ranges);
-            r.setDouble(i, mean);
-            indexr.incr();
-        }
-
-        return r;
+        return new ArrayReduce(a.getShape(), axis).trapz(a, dx);
     }
 
     /**
@@ -5931,42 +5459,7 @@ public class ArrayMath {
      * @throws InvalidRangeException
      */
     public static Array trapz(Array a, Array x, int axis) throws InvalidRangeException {
-        int[] dataShape = a.getShape();
-        int[] shape = new int[dataShape.length - 1];
-        int idx;
-        for (int i = 0; i < dataShape.length; i++) {
-            idx = i;
-            if (idx == axis) {
-                continue;
-            } else if (idx > axis) {
-                idx -= 1;
-            }
-            shape[idx] = dataShape[i];
-        }
-        Array r = Array.factory(DataType.DOUBLE, shape);
-        double mean;
-        Index indexr = r.getIndex();
-        int[] current;
-        for (int i = 0; i < r.getSize(); i++) {
-            current = indexr.getCurrentCounter();
-            List<Range> ranges = new ArrayList<>();
-            for (int j = 0; j < dataShape.length; j++) {
-                if (j == axis) {
-                    ranges.add(new Range(0, dataShape[j] - 1, 1));
-                } else {
-                    idx = j;
-                    if (idx > axis) {
-                        idx -= 1;
-                    }
-                    ranges.add(new Range(current[idx], current[idx], 1));
-                }
-            }
-            mean = trapz(a, x, ranges);
-            r.setDouble(i, mean);
-            indexr.incr();
-        }
-
-        return r;
+        return new ArrayReduce(a.getShape(), axis).trapz(a, x);
     }
 
     private static int sign(double v) {
@@ -6218,10 +5711,8 @@ public class ArrayMath {
             }
         } else {
             r = Array.factory(a.getDataType() == DataType.DOUBLE ? DataType.DOUBLE : DataType.FLOAT, a.getShape());
-            if (a.getIndexPrivate().isFastIterator()) {
-                for (int i = 0; i < a.getSize(); i++) {
-                    r.setDouble(i, Math.sin(a.getDouble(i)));
-                }
+            if (ArrayKernel.isFlat(a)) {
+                ArrayKernel.apply(a, r, Math::sin);
             } else {
                 IndexIterator iterA = a.getIndexIterator();
                 IndexIterator iterR = r.getIndexIterator();
@@ -6257,10 +5748,8 @@ public class ArrayMath {
             }
         } else {
             r = Array.factory(a.getDataType() == DataType.DOUBLE ? DataType.DOUBLE : DataType.FLOAT, a.getShape());
-            if (a.getIndexPrivate().isFastIterator()) {
-                for (int i = 0; i < a.getSize(); i++) {
-                    r.setDouble(i, Math.sinh(a.getDouble(i)));
-                }
+            if (ArrayKernel.isFlat(a)) {
+                ArrayKernel.apply(a, r, Math::sinh);
             } else {
                 IndexIterator iterA = a.getIndexIterator();
                 IndexIterator iterR = r.getIndexIterator();
@@ -6296,10 +5785,8 @@ public class ArrayMath {
             }
         } else {
             r = Array.factory(a.getDataType() == DataType.DOUBLE ? DataType.DOUBLE : DataType.FLOAT, a.getShape());
-            if (a.getIndexPrivate().isFastIterator()) {
-                for (int i = 0; i < a.getSize(); i++) {
-                    r.setDouble(i, Math.cos(a.getDouble(i)));
-                }
+            if (ArrayKernel.isFlat(a)) {
+                ArrayKernel.apply(a, r, Math::cos);
             } else {
                 IndexIterator iterA = a.getIndexIterator();
                 IndexIterator iterR = r.getIndexIterator();
@@ -6335,10 +5822,8 @@ public class ArrayMath {
             }
         } else {
             r = Array.factory(a.getDataType() == DataType.DOUBLE ? DataType.DOUBLE : DataType.FLOAT, a.getShape());
-            if (a.getIndexPrivate().isFastIterator()) {
-                for (int i = 0; i < a.getSize(); i++) {
-                    r.setDouble(i, Math.cosh(a.getDouble(i)));
-                }
+            if (ArrayKernel.isFlat(a)) {
+                ArrayKernel.apply(a, r, Math::cosh);
             } else {
                 IndexIterator iterA = a.getIndexIterator();
                 IndexIterator iterR = r.getIndexIterator();
@@ -6374,10 +5859,8 @@ public class ArrayMath {
             }
         } else {
             r = Array.factory(a.getDataType() == DataType.DOUBLE ? DataType.DOUBLE : DataType.FLOAT, a.getShape());
-            if (a.getIndexPrivate().isFastIterator()) {
-                for (int i = 0; i < a.getSize(); i++) {
-                    r.setDouble(i, Math.tan(a.getDouble(i)));
-                }
+            if (ArrayKernel.isFlat(a)) {
+                ArrayKernel.apply(a, r, Math::tan);
             } else {
                 IndexIterator iterA = a.getIndexIterator();
                 IndexIterator iterR = r.getIndexIterator();
@@ -6413,10 +5896,8 @@ public class ArrayMath {
             }
         } else {
             r = Array.factory(a.getDataType() == DataType.DOUBLE ? DataType.DOUBLE : DataType.FLOAT, a.getShape());
-            if (a.getIndexPrivate().isFastIterator()) {
-                for (int i = 0; i < a.getSize(); i++) {
-                    r.setDouble(i, Math.tanh(a.getDouble(i)));
-                }
+            if (ArrayKernel.isFlat(a)) {
+                ArrayKernel.apply(a, r, Math::tanh);
             } else {
                 IndexIterator iterA = a.getIndexIterator();
                 IndexIterator iterR = r.getIndexIterator();
@@ -6452,10 +5933,8 @@ public class ArrayMath {
             }
         } else {
             r = Array.factory(a.getDataType() == DataType.DOUBLE ? DataType.DOUBLE : DataType.FLOAT, a.getShape());
-            if (a.getIndexPrivate().isFastIterator()) {
-                for (int i = 0; i < a.getSize(); i++) {
-                    r.setDouble(i, Math.asin(a.getDouble(i)));
-                }
+            if (ArrayKernel.isFlat(a)) {
+                ArrayKernel.apply(a, r, Math::asin);
             } else {
                 IndexIterator iterA = a.getIndexIterator();
                 IndexIterator iterR = r.getIndexIterator();
@@ -6491,10 +5970,8 @@ public class ArrayMath {
             }
         } else {
             r = Array.factory(a.getDataType() == DataType.DOUBLE ? DataType.DOUBLE : DataType.FLOAT, a.getShape());
-            if (a.getIndexPrivate().isFastIterator()) {
-                for (int i = 0; i < a.getSize(); i++) {
-                    r.setDouble(i, Math.acos(a.getDouble(i)));
-                }
+            if (ArrayKernel.isFlat(a)) {
+                ArrayKernel.apply(a, r, Math::acos);
             } else {
                 IndexIterator iterA = a.getIndexIterator();
                 IndexIterator iterR = r.getIndexIterator();
@@ -6530,10 +6007,8 @@ public class ArrayMath {
             }
         } else {
             r = Array.factory(a.getDataType() == DataType.DOUBLE ? DataType.DOUBLE : DataType.FLOAT, a.getShape());
-            if (a.getIndexPrivate().isFastIterator()) {
-                for (int i = 0; i < a.getSize(); i++) {
-                    r.setDouble(i, Math.atan(a.getDouble(i)));
-                }
+            if (ArrayKernel.isFlat(a)) {
+                ArrayKernel.apply(a, r, Math::atan);
             } else {
                 IndexIterator iterA = a.getIndexIterator();
                 IndexIterator iterR = r.getIndexIterator();
@@ -7529,6 +7004,14 @@ public class ArrayMath {
 
     // </editor-fold>
     // <editor-fold desc="Statistics">
+    private static int[] toAxes(List<Integer> axes) {
+        int[] r = new int[axes.size()];
+        for (int i = 0; i < r.length; i++) {
+            r[i] = axes.get(i);
+        }
+        return r;
+    }
+
     /**
      * Get minimum value
      *
@@ -7653,42 +7136,7 @@ public class ArrayMath {
      * @throws InvalidRangeException
      */
     public static Array min(Array a, int axis) throws InvalidRangeException {
-        int[] dataShape = a.getShape();
-        int[] shape = new int[dataShape.length - 1];
-        int idx;
-        for (int i = 0; i < dataShape.length; i++) {
-            idx = i;
-            if (idx == axis) {
-                continue;
-            } else if (idx > axis) {
-                idx -= 1;
-            }
-            shape[idx] = dataShape[i];
-        }
-        Array r = Array.factory(a.getDataType(), shape);
-        double s;
-        Index indexr = r.getIndex();
-        int[] current;
-        for (int i = 0; i < r.getSize(); i++) {
-            current = indexr.getCurrentCounter();
-            List<Range> ranges = new ArrayList<>();
-            for (int j = 0; j < dataShape.length; j++) {
-                if (j == axis) {
-                    ranges.add(new Range(0, dataShape[j] - 1, 1));
-                } else {
-                    idx = j;
-                    if (idx > axis) {
-                        idx -= 1;
-                    }
-                    ranges.add(new Range(current[idx], current[idx], 1));
-                }
-            }
-            s = min(a, ranges);
-            r.setDouble(i, s);
-            indexr.incr();
-        }
-
-        return r;
+        return new ArrayReduce(a.getShape(), axis).min(a, true);
     }
 
     /**
@@ -7752,42 +7200,7 @@ public class ArrayMath {
      * @throws InvalidRangeException
      */
     public static Array max(Array a, int axis) throws InvalidRangeException {
-        int[] dataShape = a.getShape();
-        int[] shape = new int[dataShape.length - 1];
-        int idx;
-        for (int i = 0; i < dataShape.length; i++) {
-            idx = i;
-            if (idx == axis) {
-                continue;
-            } else if (idx > axis) {
-                idx -= 1;
-            }
-            shape[idx] = dataShape[i];
-        }
-        Array r = Array.factory(a.getDataType(), shape);
-        double s;
-        Index indexr = r.getIndex();
-        int[] current;
-        for (int i = 0; i < r.getSize(); i++) {
-            current = indexr.getCurrentCounter();
-            List<Range> ranges = new ArrayList<>();
-            for (int j = 0; j < dataShape.length; j++) {
-                if (j == axis) {
-                    ranges.add(new Range(0, dataShape[j] - 1, 1));
-                } else {
-                    idx = j;
-                    if (idx > axis) {
-                        idx -= 1;
-                    }
-                    ranges.add(new Range(current[idx], current[idx], 1));
-                }
-            }
-            s = max(a, ranges);
-            r.setDouble(i, s);
-            indexr.incr();
-        }
-
-        return r;
+        return new ArrayReduce(a.getShape(), axis).max(a, true);
     }
 
     /**
@@ -7826,47 +7239,7 @@ public class ArrayMath {
      * @throws InvalidRangeException
      */
     public static Array sum(Array a, int axis) throws InvalidRangeException {
-        int[] dataShape = a.getShape();
-        int[] shape = new int[dataShape.length - 1];
-        int idx;
-        for (int i = 0; i < dataShape.length; i++) {
-            idx = i;
-            if (idx == axis) {
-                continue;
-            } else if (idx > axis) {
-                idx -= 1;
-            }
-            shape[idx] = dataShape[i];
-        }
-
-        DataType dataType = a.getDataType();
-        if (dataType == DataType.BOOLEAN) {
-            dataType = DataType.INT;
-        }
-        Array r = Array.factory(dataType, shape);
-        double s;
-        Index indexr = r.getIndex();
-        int[] current;
-        for (int i = 0; i < r.getSize(); i++) {
-            current = indexr.getCurrentCounter();
-            List<Range> ranges = new ArrayList<>();
-            for (int j = 0; j < dataShape.length; j++) {
-                if (j == axis) {
-                    ranges.add(new Range(0, dataShape[j] - 1, 1));
-                } else {
-                    idx = j;
-                    if (idx > axis) {
-                        idx -= 1;
-                    }
-                    ranges.add(new Range(current[idx], current[idx], 1));
-                }
-            }
-            s = sumRange(a, ranges);
-            r.setDouble(i, s);
-            indexr.incr();
-        }
-
-        return r;
+        return new ArrayReduce(a.getShape(), axis).sum(a, true);
     }
 
     /**
@@ -7878,38 +7251,7 @@ public class ArrayMath {
      * @throws InvalidRangeException
      */
     public static Array sum(Array a, List<Integer> axes) throws InvalidRangeException {
-        int[] dataShape = a.getShape();
-        int[] shape = new int[dataShape.length - axes.size()];
-        int idx = 0;
-        for (int i = 0; i < dataShape.length; i++) {
-            if (axes.contains(i)) {
-                continue;
-            }
-            shape[idx] = dataShape[i];
-            idx += 1;
-        }
-        Array r = Array.factory(a.getDataType(), shape);
-        double s;
-        Index indexr = r.getIndex();
-        int[] current;
-        for (int i = 0; i < r.getSize(); i++) {
-            current = indexr.getCurrentCounter();
-            List<Range> ranges = new ArrayList<>();
-            idx = 0;
-            for (int j = 0; j < dataShape.length; j++) {
-                if (axes.contains(j)) {
-                    ranges.add(new Range(0, dataShape[j] - 1, 1));
-                } else {
-                    ranges.add(new Range(current[idx], current[idx], 1));
-                    idx += 1;
-                }
-            }
-            s = sumRange(a, ranges);
-            r.setDouble(i, s);
-            indexr.incr();
-        }
-
-        return r;
+        return new ArrayReduce(a.getShape(), toAxes(axes)).sum(a, true);
     }
 
     /**
@@ -8048,42 +7390,7 @@ public class ArrayMath {
      * @throws InvalidRangeException
      */
     public static Array prod(Array a, int axis) throws InvalidRangeException {
-        int[] dataShape = a.getShape();
-        int[] shape = new int[dataShape.length - 1];
-        int idx;
-        for (int i = 0; i < dataShape.length; i++) {
-            idx = i;
-            if (idx == axis) {
-                continue;
-            } else if (idx > axis) {
-                idx -= 1;
-            }
-            shape[idx] = dataShape[i];
-        }
-        Array r = Array.factory(a.getDataType(), shape);
-        double s;
-        Index indexr = r.getIndex();
-        int[] current;
-        for (int i = 0; i < r.getSize(); i++) {
-            current = indexr.getCurrentCounter();
-            List<Range> ranges = new ArrayList<>();
-            for (int j = 0; j < dataShape.length; j++) {
-                if (j == axis) {
-                    ranges.add(new Range(0, dataShape[j] - 1, 1));
-                } else {
-                    idx = j;
-                    if (idx > axis) {
-                        idx -= 1;
-                    }
-                    ranges.add(new Range(current[idx], current[idx], 1));
-                }
-            }
-            s = prod(a, ranges);
-            r.setDouble(i, s);
-            indexr.incr();
-        }
-
-        return r;
+        return new ArrayReduce(a.getShape(), axis).prod(a, true);
     }
 
     /**
@@ -8444,41 +7751,7 @@ public class ArrayMath {
      * @throws InvalidRangeException
      */
     public static Array argMin(Array a, int axis) throws InvalidRangeException {
-        int[] dataShape = a.getShape();
-        int[] shape = new int[dataShape.length - 1];
-        int idx;
-        for (int i = 0; i < dataShape.length; i++) {
-            idx = i;
-            if (idx == axis) {
-                continue;
-            } else if (idx > axis) {
-                idx -= 1;
-            }
-            shape[idx] = dataShape[i];
-        }
-        Array r = Array.factory(DataType.INT, shape);
-        Index indexr = r.getIndex();
-        int[] current;
-        for (int i = 0; i < r.getSize(); i++) {
-            current = indexr.getCurrentCounter();
-            List<Range> ranges = new ArrayList<>();
-            for (int j = 0; j < dataShape.length; j++) {
-                if (j == axis) {
-                    ranges.add(new Range(0, dataShape[j] - 1, 1));
-                } else {
-                    idx = j;
-                    if (idx > axis) {
-                        idx -= 1;
-                    }
-                    ranges.add(new Range(current[idx], current[idx], 1));
-                }
-            }
-            idx = argMin(a.section(ranges));
-            r.setInt(i, idx);
-            indexr.incr();
-        }
-
-        return r;
+        return new ArrayReduce(a.getShape(), axis).argMin(a, true);
     }
 
     /**
@@ -8489,7 +7762,7 @@ public class ArrayMath {
      * @throws InvalidRangeException
      */
     public static int argMax(Array a) throws InvalidRangeException {
-        double max = Double.MIN_VALUE, v;
+        double max = -Double.MAX_VALUE, v;
         int idx = 0;
         IndexIterator iterator = a.getIndexIterator();
         int i = 0;
@@ -8515,41 +7788,7 @@ public class ArrayMath {
      * @throws InvalidRangeException
      */
     public static Array argMax(Array a, int axis) throws InvalidRangeException {
-        int[] dataShape = a.getShape();
-        int[] shape = new int[dataShape.length - 1];
-        int idx;
-        for (int i = 0; i < dataShape.length; i++) {
-            idx = i;
-            if (idx == axis) {
-                continue;
-            } else if (idx > axis) {
-                idx -= 1;
-            }
-            shape[idx] = dataShape[i];
-        }
-        Array r = Array.factory(DataType.INT, shape);
-        Index indexr = r.getIndex();
-        int[] current;
-        for (int i = 0; i < r.getSize(); i++) {
-            current = indexr.getCurrentCounter();
-            List<Range> ranges = new ArrayList<>();
-            for (int j = 0; j < dataShape.length; j++) {
-                if (j == axis) {
-                    ranges.add(new Range(0, dataShape[j] - 1, 1));
-                } else {
-                    idx = j;
-                    if (idx > axis) {
-                        idx -= 1;
-                    }
-                    ranges.add(new Range(current[idx], current[idx], 1));
-                }
-            }
-            idx = argMax(a.section(ranges));
-            r.setInt(i, idx);
-            indexr.incr();
-        }
-
-        return r;
+        return new ArrayReduce(a.getShape(), axis).argMax(a, true);
     }
 
     /**
@@ -8561,42 +7800,7 @@ public class ArrayMath {
      * @throws InvalidRangeException
      */
     public static Array mean(Array a, int axis) throws InvalidRangeException {
-        int[] dataShape = a.getShape();
-        int[] shape = new int[dataShape.length - 1];
-        int idx;
-        for (int i = 0; i < dataShape.length; i++) {
-            idx = i;
-            if (idx == axis) {
-                continue;
-            } else if (idx > axis) {
-                idx -= 1;
-            }
-            shape[idx] = dataShape[i];
-        }
-        Array r = Array.factory(DataType.DOUBLE, shape);
-        double mean;
-        Index indexr = r.getIndex();
-        int[] current;
-        for (int i = 0; i < r.getSize(); i++) {
-            current = indexr.getCurrentCounter();
-            List<Range> ranges = new ArrayList<>();
-            for (int j = 0; j < dataShape.length; j++) {
-                if (j == axis) {
-                    ranges.add(new Range(0, dataShape[j] - 1, 1));
-                } else {
-                    idx = j;
-                    if (idx > axis) {
-                        idx -= 1;
-                    }
-                    ranges.add(new Range(current[idx], current[idx], 1));
-                }
-            }
-            mean = meanRange(a, ranges);
-            r.setDouble(i, mean);
-            indexr.incr();
-        }
-
-        return r;
+        return new ArrayReduce(a.getShape(), axis).mean(a, true);
     }
 
     /**
@@ -8608,38 +7812,7 @@ public class ArrayMath {
      * @throws InvalidRangeException
      */
     public static Array mean(Array a, List<Integer> axis) throws InvalidRangeException {
-        int[] dataShape = a.getShape();
-        int[] shape = new int[dataShape.length - axis.size()];
-        int idx = 0;
-        for (int i = 0; i < dataShape.length; i++) {
-            if (axis.contains(i)) {
-                continue;
-            }
-            shape[idx] = dataShape[i];
-            idx += 1;
-        }
-        Array r = Array.factory(DataType.DOUBLE, shape);
-        double mean;
-        Index indexr = r.getIndex();
-        int[] current;
-        for (int i = 0; i < r.getSize(); i++) {
-            current = indexr.getCurrentCounter();
-            List<Range> ranges = new ArrayList<>();
-            idx = 0;
-            for (int j = 0; j < dataShape.length; j++) {
-                if (axis.contains(j)) {
-                    ranges.add(new Range(0, dataShape[j] - 1, 1));
-                } else {
-                    ranges.add(new Range(current[idx], current[idx], 1));
-                    idx += 1;
-                }
-            }
-            mean = meanRange(a, ranges);
-            r.setDouble(i, mean);
-            indexr.incr();
-        }
-
-        return r;
+        return new ArrayReduce(a.getShape(), toAxes(axis)).mean(a, true);
     }
 
     /**
@@ -8739,42 +7912,7 @@ public class ArrayMath {
      * @throws InvalidRangeException
      */
     public static Array std(Array a, int axis, int ddof) throws InvalidRangeException {
-        int[] dataShape = a.getShape();
-        int[] shape = new int[dataShape.length - 1];
-        int idx;
-        for (int i = 0; i < dataShape.length; i++) {
-            idx = i;
-            if (idx == axis) {
-                continue;
-            } else if (idx > axis) {
-                idx -= 1;
-            }
-            shape[idx] = dataShape[i];
-        }
-        Array r = Array.factory(DataType.DOUBLE, shape);
-        double mean;
-        Index indexr = r.getIndex();
-        int[] current;
-        for (int i = 0; i < r.getSize(); i++) {
-            current = indexr.getCurrentCounter();
-            List<Range> ranges = new ArrayList<>();
-            for (int j = 0; j < dataShape.length; j++) {
-                if (j == axis) {
-                    ranges.add(new Range(0, dataShape[j] - 1, 1));
-                } else {
-                    idx = j;
-                    if (idx > axis) {
-                        idx -= 1;
-                    }
-                    ranges.add(new Range(current[idx], current[idx], 1));
-                }
-            }
-            mean = std(a, ranges, ddof);
-            r.setDouble(i, mean);
-            indexr.incr();
-        }
-
-        return r;
+        return new ArrayReduce(a.getShape(), axis).std(a, ddof, true);
     }
 
     /**
@@ -8919,42 +8057,7 @@ public class ArrayMath {
      * @throws InvalidRangeException
      */
     public static Array var(Array a, int axis, int ddof) throws InvalidRangeException {
-        int[] dataShape = a.getShape();
-        int[] shape = new int[dataShape.length - 1];
-        int idx;
-        for (int i = 0; i < dataShape.length; i++) {
-            idx = i;
-            if (idx == axis) {
-                continue;
-            } else if (idx > axis) {
-                idx -= 1;
-            }
-            shape[idx] = dataShape[i];
-        }
-        Array r = Array.factory(DataType.DOUBLE, shape);
-        double mean;
-        Index indexr = r.getIndex();
-        int[] current;
-        for (int i = 0; i < r.getSize(); i++) {
-            current = indexr.getCurrentCounter();
-            List<Range> ranges = new ArrayList<>();
-            for (int j = 0; j < dataShape.length; j++) {
-                if (j == axis) {
-                    ranges.add(new Range(0, dataShape[j] - 1, 1));
-                } else {
-                    idx = j;
-                    if (idx > axis) {
-                        idx -= 1;
-                    }
-                    ranges.add(new Range(current[idx], current[idx], 1));
-                }
-            }
-            mean = var(a, ranges, ddof);
-            r.setDouble(i, mean);
-            indexr.incr();
-        }
-
-        return r;
+        return new ArrayReduce(a.getShape(), axis).var(a, ddof, true);
     }
 
     /**
@@ -9009,42 +8112,7 @@ public class ArrayMath {
      * @throws InvalidRangeException
      */
     public static Array median(Array a, int axis) throws InvalidRangeException {
-        int[] dataShape = a.getShape();
-        int[] shape = new int[dataShape.length - 1];
-        int idx;
-        for (int i = 0; i < dataShape.length; i++) {
-            idx = i;
-            if (idx == axis) {
-                continue;
-            } else if (idx > axis) {
-                idx -= 1;
-            }
-            shape[idx] = dataShape[i];
-        }
-        Array r = Array.factory(DataType.DOUBLE, shape);
-        double mean;
-        Index indexr = r.getIndex();
-        int[] current;
-        for (int i = 0; i < r.getSize(); i++) {
-            current = indexr.getCurrentCounter();
-            List<Range> ranges = new ArrayList<>();
-            for (int j = 0; j < dataShape.length; j++) {
-                if (j == axis) {
-                    ranges.add(new Range(0, dataShape[j] - 1, 1));
-                } else {
-                    idx = j;
-                    if (idx > axis) {
-                        idx -= 1;
-                    }
-                    ranges.add(new Range(current[idx], current[idx], 1));
-                }
-            }
-            mean = median(a, ranges);
-            r.setDouble(i, mean);
-            indexr.incr();
-        }
-
-        return r;
+        return new ArrayReduce(a.getShape(), axis).median(a, true);
     }
 
     /**
@@ -9198,10 +8266,8 @@ public class ArrayMath {
             case 0:
                 DataType dt = commonType(x1.getDataType(), x2.getDataType());
                 Array r = Array.factory(dt, x1.getShape());
-                if (x1.getIndexPrivate().isFastIterator() && x2.getIndexPrivate().isFastIterator()) {
-                    for (int i = 0; i < r.getSize(); i++) {
-                        r.setObject(i, Math.max(x1.getDouble(i), x2.getDouble(i)));
-                    }
+                if (ArrayKernel.isFlat(x1) && ArrayKernel.isFlat(x2)) {
+                    ArrayKernel.apply(x1, x2, r, Math::max);
                 } else {
                     IndexIterator iterX1 = x1.getIndexIterator();
                     IndexIterator iterX2 = x2.getIndexIterator();
@@ -9212,21 +8278,16 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(x1, x2);
+                BroadcastIterator bi = new BroadcastIterator(x1, x2);
+                int[] shape = bi.getShape();
                 dt = commonType(x1.getDataType(), x2.getDataType());
                 r = Array.factory(dt, shape);
-                Index index = r.getIndex();
-                Index aindex = x1.getIndex();
-                Index bindex = x2.getIndex();
-                int n = r.getRank();
-                int na = x1.getRank();
-                int nb = x2.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     r.setObject(i, Math.max(x1.getDouble(aindex), x2.getDouble(bindex)));
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -9245,10 +8306,8 @@ public class ArrayMath {
         DataType dt = commonType(x1.getDataType(), DataType.getType(x2.getClass()));
         Array r = Array.factory(dt, x1.getShape());
         double v = x2.doubleValue();
-        if (x1.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < r.getSize(); i++) {
-                r.setObject(i, Math.max(x1.getDouble(i), v));
-            }
+        if (ArrayKernel.isFlat(x1)) {
+            ArrayKernel.apply(x1, r, x -> Math.max(x, v));
         } else {
             IndexIterator iterX1 = x1.getIndexIterator();
             IndexIterator iterR = r.getIndexIterator();
@@ -9303,19 +8362,14 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(x1, x2);
+                BroadcastIterator bi = new BroadcastIterator(x1, x2);
+                int[] shape = bi.getShape();
                 dt = commonType(x1.getDataType(), x2.getDataType());
                 r = Array.factory(dt, shape);
-                Index index = r.getIndex();
-                Index aindex = x1.getIndex();
-                Index bindex = x2.getIndex();
-                int n = r.getRank();
-                int na = x1.getRank();
-                int nb = x2.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     v1 = x1.getDouble(aindex);
                     v2 = x2.getDouble(bindex);
                     if (Double.isNaN(v1)) {
@@ -9325,7 +8379,7 @@ public class ArrayMath {
                     } else {
                         r.setObject(i, Math.max(v1, v2));
                     }
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -9381,10 +8435,8 @@ public class ArrayMath {
             case 0:
                 DataType dt = commonType(x1.getDataType(), x2.getDataType());
                 Array r = Array.factory(dt, x1.getShape());
-                if (x1.getIndexPrivate().isFastIterator() && x2.getIndexPrivate().isFastIterator()) {
-                    for (int i = 0; i < r.getSize(); i++) {
-                        r.setObject(i, Math.min(x1.getDouble(i), x2.getDouble(i)));
-                    }
+                if (ArrayKernel.isFlat(x1) && ArrayKernel.isFlat(x2)) {
+                    ArrayKernel.apply(x1, x2, r, Math::min);
                 } else {
                     IndexIterator iterX1 = x1.getIndexIterator();
                     IndexIterator iterX2 = x2.getIndexIterator();
@@ -9395,21 +8447,16 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(x1, x2);
+                BroadcastIterator bi = new BroadcastIterator(x1, x2);
+                int[] shape = bi.getShape();
                 dt = commonType(x1.getDataType(), x2.getDataType());
                 r = Array.factory(dt, shape);
-                Index index = r.getIndex();
-                Index aindex = x1.getIndex();
-                Index bindex = x2.getIndex();
-                int n = r.getRank();
-                int na = x1.getRank();
-                int nb = x2.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     r.setObject(i, Math.min(x1.getDouble(aindex), x2.getDouble(bindex)));
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -9428,10 +8475,8 @@ public class ArrayMath {
         DataType dt = commonType(x1.getDataType(), DataType.getType(x2.getClass()));
         Array r = Array.factory(dt, x1.getShape());
         double v = x2.doubleValue();
-        if (x1.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < r.getSize(); i++) {
-                r.setObject(i, Math.min(x1.getDouble(i), v));
-            }
+        if (ArrayKernel.isFlat(x1)) {
+            ArrayKernel.apply(x1, r, x -> Math.min(x, v));
         } else {
             IndexIterator iterX1 = x1.getIndexIterator();
             IndexIterator iterR = r.getIndexIterator();
@@ -9486,19 +8531,14 @@ public class ArrayMath {
                 }
                 return r;
             case 1:
-                int[] shape = broadcast(x1, x2);
+                BroadcastIterator bi = new BroadcastIterator(x1, x2);
+                int[] shape = bi.getShape();
                 dt = commonType(x1.getDataType(), x2.getDataType());
                 r = Array.factory(dt, shape);
-                Index index = r.getIndex();
-                Index aindex = x1.getIndex();
-                Index bindex = x2.getIndex();
-                int n = r.getRank();
-                int na = x1.getRank();
-                int nb = x2.getRank();
-                int[] current;
+                int aindex, bindex;
                 for (int i = 0; i < r.getSize(); i++) {
-                    current = index.getCurrentCounter();
-                    setIndex(aindex, bindex, current, n, na, nb);
+                    aindex = bi.currentElementA();
+                    bindex = bi.currentElementB();
                     v1 = x1.getDouble(aindex);
                     v2 = x2.getDouble(bindex);
                     if (Double.isNaN(v1)) {
@@ -9508,7 +8548,7 @@ public class ArrayMath {
                     } else {
                         r.setObject(i, Math.min(v1, v2));
                     }
-                    index.incr();
+                    bi.incr();
                 }
                 return r;
             default:
@@ -10098,30 +9138,7 @@ public class ArrayMath {
      * @return Result array
      */
     public static Array maskout(Array a, Array m, Number missingValue) {
-        Array r = Array.factory(a.getDataType(), a.getShape());
-        int n = (int) a.getSize();
-        if (a.getIndexPrivate().isFastIterator() && m.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < n; i++) {
-                if (m.getDouble(i) < 0) {
-                    r.setObject(i, missingValue);
-                } else {
-                    r.setObject(i, a.getObject(i));
-                }
-            }
-        } else {
-            IndexIterator iterA = a.getIndexIterator();
-            IndexIterator iterM = m.getIndexIterator();
-            IndexIterator iterR = r.getIndexIterator();
-            while (iterA.hasNext()) {
-                if (iterM.getDoubleNext() < 0) {
-                    iterR.setObjectNext(missingValue);
-                } else {
-                    iterR.setObjectNext(iterA.getObjectNext());
-                }
-            }
-        }
-
-        return r;
+        return mask(a, m, missingValue, false);
     }
 
     /**
@@ -10132,30 +9149,7 @@ public class ArrayMath {
      * @return Result array
      */
     public static Array maskout(Array a, Array m) {
-        Array r = Array.factory(a.getDataType(), a.getShape());
-        int n = (int) a.getSize();
-        if (a.getIndexPrivate().isFastIterator() && m.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < n; i++) {
-                if (m.getDouble(i) < 0) {
-                    r.setObject(i, Double.NaN);
-                } else {
-                    r.setObject(i, a.getObject(i));
-                }
-            }
-        } else {
-            IndexIterator iterA = a.getIndexIterator();
-            IndexIterator iterM = m.getIndexIterator();
-            IndexIterator iterR = r.getIndexIterator();
-            while (iterA.hasNext()) {
-                if (iterM.getDoubleNext() < 0) {
-                    iterR.setObjectNext(Double.NaN);
-                } else {
-                    iterR.setObjectNext(iterA.getObjectNext());
-                }
-            }
-        }
-
-        return r;
+        return mask(a, m, Double.NaN, false);
     }
 
     /**
@@ -10166,25 +9160,50 @@ public class ArrayMath {
      * @return Result array
      */
     public static Array maskin(Array a, Array m) {
-        Array r = Array.factory(a.getDataType(), a.getShape());
+        return mask(a, m, Double.NaN, true);
+    }
+
+    /**
+     * Set the values of an array as missing value by a mask array. The mask
+     * array may have the shape of the trailing dimensions of the array, and is
+     * applied to each slice of the leading dimensions.
+     *
+     * @param a Array a
+     * @param m Array mask, negative values are outside
+     * @param missingValue Missing value
+     * @param in Set the values inside (maskin) or outside (maskout) the mask
+     * @return Result array
+     */
+    private static Array mask(Array a, Array m, Number missingValue, boolean in) {
         int n = (int) a.getSize();
-        if (a.getIndexPrivate().isFastIterator() && m.getIndexPrivate().isFastIterator()) {
-            for (int i = 0; i < n; i++) {
-                if (m.getDouble(i) >= 0) {
-                    r.setObject(i, Double.NaN);
-                } else {
-                    r.setObject(i, a.getObject(i));
+        int mn = (int) m.getSize();
+        if (mn == 0 || n % mn != 0) {
+            throw new IllegalArgumentException("Mask array size does not match the array size");
+        }
+
+        boolean[] hit = new boolean[mn];
+        IndexIterator iterM = m.getIndexIterator();
+        for (int i = 0; i < mn; i++) {
+            double vm = iterM.getDoubleNext();
+            hit[i] = in ? vm >= 0 : vm < 0;
+        }
+
+        Array r = a.copy();
+        if (r.getDataType().isNumeric()) {
+            double v = missingValue.doubleValue();
+            for (int s = 0; s < n; s += mn) {
+                for (int i = 0; i < mn; i++) {
+                    if (hit[i]) {
+                        r.setDouble(s + i, v);
+                    }
                 }
             }
         } else {
-            IndexIterator iterA = a.getIndexIterator();
-            IndexIterator iterM = m.getIndexIterator();
-            IndexIterator iterR = r.getIndexIterator();
-            while (iterA.hasNext()) {
-                if (iterM.getDoubleNext() >= 0) {
-                    iterR.setObjectNext(Double.NaN);
-                } else {
-                    iterR.setObjectNext(iterA.getObjectNext());
+            for (int s = 0; s < n; s += mn) {
+                for (int i = 0; i < mn; i++) {
+                    if (hit[i]) {
+                        r.setObject(s + i, missingValue);
+                    }
                 }
             }
         }
@@ -0,0 +1,790 @@
+package org.meteoinfo.ndarray.math;
+
+import org.meteoinfo.ndarray.*;
+
+import java.util.Arrays;
+
+/**
+ * Axis reduction engine.
+ *
+ * <p>The source array is walked once in canonical order, one line of the last
+ * dimension at a time. Each source dimension has a precomputed result stride
+ * (zero for the reduced dimensions), so the result cell of every element is
+ * advanced incrementally like an odometer instead of being searched with
+ * section views. Values are accumulated into primitive arrays of the result
+ * size.
+ *
+ * @author Yaqiang Wang
+ */
+public class ArrayReduce {
+
+    private final int[] shape;
+    private final int[] axes;
+    private final boolean[] reduced;
+    private final int[] rShape;
+    private final int[] rStride;
+    private final int rSize;
+    private final long size;
+
+    /**
+     * Constructor
+     *
+     * @param shape Source array shape
+     * @param axes Reduced axes
+     */
+    public ArrayReduce(int[] shape, int[] axes) {
+        int rank = shape.length;
+        this.shape = shape.clone();
+        this.reduced = new boolean[rank];
+        this.axes = new int[axes.length];
+        for (int i = 0; i < axes.length; i++) {
+            int axis = axes[i];
+            if (axis < 0) {
+                axis += rank;
+            }
+            if (axis < 0 || axis >= rank) {
+                throw new IllegalArgumentException("Axis " + axes[i] + " is out of bounds for array of dimension " + rank);
+            }
+            this.axes[i] = axis;
+            this.reduced[axis] = true;
+        }
+
+        int nr = 0;
+        for (boolean b : reduced) {
+            if (!b) {
+                nr += 1;
+            }
+        }
+        this.rShape = new int[nr];
+        this.rStride = new int[rank];
+        int idx = nr - 1;
+        int stride = 1;
+        for (int i = rank - 1; i >= 0; i--) {
+            if (reduced[i]) {
+                rStride[i] = 0;
+            } else {
+                rShape[idx] = shape[i];
+                rStride[i] = stride;
+                stride *= shape[i];
+                idx -= 1;
+            }
+        }
+        this.rSize = stride;
+        this.size = Index.computeSize(shape);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param shape Source array shape
+     * @param axis Reduced axis
+     */
+    public ArrayReduce(int[] shape, int axis) {
+        this(shape, new int[]{axis});
+    }
+
+    /**
+     * Get result shape
+     *
+     * @return Result shape
+     */
+    public int[] getResultShape() {
+        return rShape.clone();
+    }
+
+    /**
+     * Get result size
+     *
+     * @return Result size
+     */
+    public int getResultSize() {
+        return rSize;
+    }
+
+    /**
+     * Get the number of source elements reduced into each result element
+     *
+     * @return Reduced element number
+     */
+    public int getReducedSize() {
+        return rSize == 0 ? 0 : (int) (size / rSize);
+    }
+
+    // <editor-fold desc="Walk">
+    /**
+     * Accumulator receiving one line of the last source dimension at a time
+     */
+    private static abstract class Accumulator {
+
+        /**
+         * Accumulate a line of values
+         *
+         * @param v Values
+         * @param len Value number
+         * @param off Result offset of the first value
+         * @param step Result offset increment between values
+         * @param counter Source counter of the line (last dimension is 0)
+         */
+        abstract void line(double[] v, int len, int off, int step, int[] counter);
+    }
+
+    private void walk(Array a, Accumulator acc) {
+        int rank = shape.length;
+        if (size == 0) {
+            return;
+        }
+        if (rank == 0) {
+            acc.line(new double[]{a.getDouble(0)}, 1, 0, 0, new int[0]);
+            return;
+        }
+
+        int last = rank - 1;
+        int len = shape[last];
+        int step = rStride[last];
+        long nLine = size / len;
+        double[] line = new double[len];
+        int[] counter = new int[rank];
+        int off = 0;
+        boolean fast = a.getIndexPrivate().isFastIterator() && !a.isConstant();
+        Object storage = fast ? a.getStorage() : null;
+        IndexIterator ii = fast ? null : a.getIndexIterator();
+        int elem = 0;
+        for (long l = 0; l < nLine; l++) {
+            if (storage instanceof double[]) {
+                System.arraycopy((double[]) storage, elem, line, 0, len);
+            } else if (storage instanceof float[]) {
+                float[] fs = (float[]) storage;
+                for (int i = 0; i < len; i++) {
+                    line[i] = fs[elem + i];
+                }
+            } else if (fast) {
+                for (int i = 0; i < len; i++) {
+                    line[i] = a.getDouble(elem + i);
+                }
+            } else {
+                for (int i = 0; i < len; i++) {
+                    line[i] = ii.getDoubleNext();
+                }
+            }
+            elem += len;
+            acc.line(line, len, off, step, counter);
+
+            for (int d = last - 1; d >= 0; d--) {
+                counter[d] += 1;
+                off += rStride[d];
+                if (counter[d] < shape[d]) {
+                    break;
+                }
+                off -= rStride[d] * shape[d];
+                counter[d] = 0;
+            }
+        }
+    }
+
+    private static Array toArray(DataType dataType, int[] shape, double[] values) {
+        if (dataType == DataType.DOUBLE) {
+            return Array.factory(DataType.DOUBLE, shape, values);
+        }
+
+        Array r = Array.factory(dataType, shape);
+        for (int i = 0; i < values.length; i++) {
+            r.setDouble(i, values[i]);
+        }
+        return r;
+    }
+    // </editor-fold>
+
+    // <editor-fold desc="Accumulators">
+    private static class SumAccumulator extends Accumulator {
+        final double[] s;
+        final int[] n;
+        final boolean skipNaN;
+
+        SumAccumulator(int rSize, boolean skipNaN) {
+            this.s = new double[rSize];
+            this.n = new int[rSize];
+            this.skipNaN = skipNaN;
+        }
+
+        @Override
+        void line(double[] v, int len, int off, int step, int[] counter) {
+            for (int i = 0, o = off; i < len; i++, o += step) {
+                double x = v[i];
+                if (skipNaN && Double.isNaN(x)) {
+                    continue;
+                }
+                s[o] += x;
+                n[o] += 1;
+            }
+        }
+    }
+
+    private static class ProdAccumulator extends Accumulator {
+        final double[] p;
+        final int[] n;
+        final boolean skipNaN;
+
+        ProdAccumulator(int rSize, boolean skipNaN) {
+            this.p = new double[rSize];
+            Arrays.fill(this.p, 1.0);
+            this.n = new int[rSize];
+            this.skipNaN = skipNaN;
+        }
+
+        @Override
+        void line(double[] v, int len, int off, int step, int[] counter) {
+            for (int i = 0, o = off; i < len; i++, o += step) {
+                double x = v[i];
+                if (skipNaN && Double.isNaN(x)) {
+                    continue;
+                }
+                p[o] *= x;
+                n[o] += 1;
+            }
+        }
+    }
+
+    private static class MinMaxAccumulator extends Accumulator {
+        final double[] m;
+        final int[] n;
+        final boolean isMax;
+        final boolean skipNaN;
+
+        MinMaxAccumulator(int rSize, boolean isMax, boolean skipNaN) {
+            this.m = new double[rSize];
+            Arrays.fill(this.m, isMax ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+            this.n = new int[rSize];
+            this.isMax = isMax;
+            this.skipNaN = skipNaN;
+        }
+
+        @Override
+        void line(double[] v, int len, int off, int step, int[] counter) {
+            for (int i = 0, o = off; i < len; i++, o += step) {
+                double x = v[i];
+                if (Double.isNaN(x)) {
+                    if (!skipNaN) {
+                        m[o] = Double.NaN;
+                        n[o] += 1;
+                    }
+                    continue;
+                }
+                if (isMax) {
+                    if (x > m[o]) {
+                        m[o] = x;
+                    }
+                } else {
+                    if (x < m[o]) {
+                        m[o] = x;
+                    }
+                }
+                n[o] += 1;
+            }
+        }
+    }
+
+    /**
+     * Welford's online algorithm, so mean and variance come from one pass
+     */
+    private static class MomentAccumulator extends Accumulator {
+        final double[] mean;
+        final double[] m2;
+        final int[] n;
+        final boolean skipNaN;
+
+        MomentAccumulator(int rSize, boolean skipNaN) {
+            this.mean = new double[rSize];
+            this.m2 = new double[rSize];
+            this.n = new int[rSize];
+            this.skipNaN = skipNaN;
+        }
+
+        @Override
+        void line(double[] v, int len, int off, int step, int[] counter) {
+            for (int i = 0, o = off; i < len; i++, o += step) {
+                double x = v[i];
+                if (skipNaN && Double.isNaN(x)) {
+                    continue;
+                }
+                int c = n[o] + 1;
+                double d = x - mean[o];
+                mean[o] += d / c;
+                m2[o] += d * (x - mean[o]);
+                n[o] = c;
+            }
+        }
+    }
+
+    private static class ArgAccumulator extends Accumulator {
+        final double[] m;
+        final int[] idx;
+        final boolean isMax;
+        final boolean skipNaN;
+        final int axis;
+        final boolean lastAxis;
+
+        ArgAccumulator(int rSize, int axis, int rank, boolean isMax, boolean skipNaN) {
+            this.m = new double[rSize];
+            Arrays.fill(this.m, isMax ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+            this.idx = new int[rSize];
+            this.isMax = isMax;
+            this.skipNaN = skipNaN;
+            this.axis = axis;
+            this.lastAxis = axis == rank - 1;
+        }
+
+        @Override
+        void line(double[] v, int len, int off, int step, int[] counter) {
+            int pos = lastAxis ? 0 : counter[axis];
+            for (int i = 0, o = off; i < len; i++, o += step) {
+                double x = v[i];
+                if (lastAxis) {
+                    pos = i;
+                }
+                if (Double.isNaN(x)) {
+                    if (!skipNaN && !Double.isNaN(m[o])) {
+                        m[o] = Double.NaN;
+                        idx[o] = pos;
+                    }
+                    continue;
+                }
+                if (isMax ? x > m[o] : x < m[o]) {
+                    m[o] = x;
+                    idx[o] = pos;
+                }
+            }
+        }
+    }
+    private static class AnyAllAccumulator extends Accumulator {
+        final boolean[] b;
+        final boolean isAll;
+
+        AnyAllAccumulator(int rSize, boolean isAll) {
+            this.b = new boolean[rSize];
+            Arrays.fill(this.b, isAll);
+            this.isAll = isAll;
+        }
+
+        @Override
+        void line(double[] v, int len, int off, int step, int[] counter) {
+            for (int i = 0, o = off; i < len; i++, o += step) {
+                //NaN is True like any other non-zero value
+                if ((v[i] != 0) != isAll) {
+                    b[o] = !isAll;
+                }
+            }
+        }
+    }
+
+    /**
+     * Trapezoidal integration with even spacing. The values of each result
+     * element arrive in axis order, the inner valid values count twice.
+     */
+    private static class TrapzAccumulator extends Accumulator {
+        final double[] s;
+        final int[] n;
+        final int nMax;
+
+        TrapzAccumulator(int rSize, int nMax) {
+            this.s = new double[rSize];
+            this.n = new int[rSize];
+            this.nMax = nMax;
+        }
+
+        @Override
+        void line(double[] v, int len, int off, int step, int[] counter) {
+            for (int i = 0, o = off; i < len; i++, o += step) {
+                double x = v[i];
+                if (Double.isNaN(x)) {
+                    continue;
+                }
+                int c = n[o];
+                s[o] += c > 0 && c < nMax ? x + x : x;
+                n[o] = c + 1;
+            }
+        }
+    }
+
+    /**
+     * Trapezoidal integration with a coordinate array along the reduced axis.
+     * NaN values are skipped and the coordinate only advances on valid values.
+     */
+    private static class TrapzXAccumulator extends Accumulator {
+        final double[] x;
+        final double[] s;
+        final double[] v0;
+        final int[] xi;
+        final int[] n;
+
+        TrapzXAccumulator(int rSize, double[] x) {
+            this.x = x;
+            this.s = new double[rSize];
+            this.v0 = new double[rSize];
+            Arrays.fill(this.v0, Double.NEGATIVE_INFINITY);
+            this.xi = new int[rSize];
+            this.n = new int[rSize];
+        }
+
+        @Override
+        void line(double[] v, int len, int off, int step, int[] counter) {
+            for (int i = 0, o = off; i < len; i++, o += step) {
+                double y = v[i];
+                if (Double.isNaN(y)) {
+                    continue;
+                }
+                if (Double.isInfinite(v0[o])) {
+                    v0[o] = y;
+                    continue;
+                }
+                int k = xi[o];
+                s[o] += (x[k + 1] - x[k]) * (y + v0[o]);
+                v0[o] = y;
+                xi[o] = k + 1;
+                n[o] += 1;
+            }
+        }
+    }
+    // </editor-fold>
+
+    // <editor-fold desc="Reductions">
+    /**
+     * Sum along the reduced axes
+     *
+     * @param a Source array
+     * @param skipNaN Skip NaN values or not. If all values of a result element
+     *                are NaN the result is NaN
+     * @return Sum array with the data type of the source array
+     */
+    public Array sum(Array a, boolean skipNaN) {
+        SumAccumulator acc = new SumAccumulator(rSize, skipNaN);
+        walk(a, acc);
+        for (int i = 0; i < rSize; i++) {
+            if (acc.n[i] == 0) {
+                acc.s[i] = Double.NaN;
+            }
+        }
+        DataType dataType = a.getDataType();
+        if (dataType == DataType.BOOLEAN) {
+            dataType = DataType.INT;
+        }
+        return toArray(dataType, rShape, acc.s);
+    }
+
+    /**
+     * Arithmetic mean along the reduced axes
+     *
+     * @param a Source array
+     * @param skipNaN Skip NaN values or not
+     * @return Mean array
+     */
+    public Array mean(Array a, boolean skipNaN) {
+        SumAccumulator acc = new SumAccumulator(rSize, skipNaN);
+        walk(a, acc);
+        for (int i = 0; i < rSize; i++) {
+            acc.s[i] = acc.n[i] == 0 ? Double.NaN : acc.s[i] / acc.n[i];
+        }
+        return toArray(DataType.DOUBLE, rShape, acc.s);
+    }
+
+    /**
+     * Product along the reduced axes
+     *
+     * @param a Source array
+     * @param skipNaN Skip NaN values or not
+     * @return Product array with the data type of the source array
+     */
+    public Array prod(Array a, boolean skipNaN) {
+        ProdAccumulator acc = new ProdAccumulator(rSize, skipNaN);
+        walk(a, acc);
+        for (int i = 0; i < rSize; i++) {
+            if (acc.n[i] == 0) {
+                acc.p[i] = Double.NaN;
+            }
+        }
+        return toArray(a.getDataType(), rShape, acc.p);
+    }
+
+    /**
+     * Minimum along the reduced axes
+     *
+     * @param a Source array
+     * @param skipNaN Skip NaN values or not
+     * @return Minimum array with the data type of the source array
+     */
+    public Array min(Array a, boolean skipNaN) {
+        return minMax(a, false, skipNaN);
+    }
+
+    /**
+     * Maximum along the reduced axes
+     *
+     * @param a Source array
+     * @param skipNaN Skip NaN values or not
+     * @return Maximum array with the data type of the source array
+     */
+    public Array max(Array a, boolean skipNaN) {
+        return minMax(a, true, skipNaN);
+    }
+
+    private Array minMax(Array a, boolean isMax, boolean skipNaN) {
+        MinMaxAccumulator acc = new MinMaxAccumulator(rSize, isMax, skipNaN);
+        walk(a, acc);
+        for (int i = 0; i < rSize; i++) {
+            if (acc.n[i] == 0) {
+                acc.m[i] = Double.NaN;
+            }
+        }
+        return toArray(a.getDataType(), rShape, acc.m);
+    }
+
+    /**
+     * Variance along the reduced axes
+     *
+     * @param a Source array
+     * @param ddof Means delta degree of freedom
+     * @param skipNaN Skip NaN values or not
+     * @return Variance array
+     */
+    public Array var(Array a, int ddof, boolean skipNaN) {
+        MomentAccumulator acc = new MomentAccumulator(rSize, skipNaN);
+        walk(a, acc);
+        double[] r = acc.m2;
+        for (int i = 0; i < rSize; i++) {
+            r[i] = acc.n[i] == 0 ? Double.NaN : r[i] / (acc.n[i] - ddof);
+        }
+        return toArray(DataType.DOUBLE, rShape, r);
+    }
+
+    /**
+     * Standard deviation along the reduced axes
+     *
+     * @param a Source array
+     * @param ddof Means delta degree of freedom
+     * @param skipNaN Skip NaN values or not
+     * @return Standard deviation array
+     */
+    public Array std(Array a, int ddof, boolean skipNaN) {
+        MomentAccumulator acc = new MomentAccumulator(rSize, skipNaN);
+        walk(a, acc);
+        double[] r = acc.m2;
+        for (int i = 0; i < rSize; i++) {
+            r[i] = acc.n[i] == 0 ? Double.NaN : Math.sqrt(r[i] / (acc.n[i] - ddof));
+        }
+        return toArray(DataType.DOUBLE, rShape, r);
+    }
+
+    /**
+     * Indices of the minimum values along the reduced axis
+     *
+     * @param a Source array
+     * @param skipNaN Skip NaN values or not. If not, the index of the first NaN
+     *                is returned
+     * @return Index array
+     */
+    public Array argMin(Array a, boolean skipNaN) {
+        return argMinMax(a, false, skipNaN);
+    }
+
+    /**
+     * Indices of the maximum values along the reduced axis
+     *
+     * @param a Source array
+     * @param skipNaN Skip NaN values or not. If not, the index of the first NaN
+     *                is returned
+     * @return Index array
+     */
+    public Array argMax(Array a, boolean skipNaN) {
+        return argMinMax(a, true, skipNaN);
+    }
+
+    private Array argMinMax(Array a, boolean isMax, boolean skipNaN) {
+        if (axes.length != 1) {
+            throw new IllegalArgumentException("Only one axis is supported for arg reductions");
+        }
+        ArgAccumulator acc = new ArgAccumulator(rSize, axes[0], shape.length, isMax, skipNaN);
+        walk(a, acc);
+        return Array.factory(DataType.INT, rShape, acc.idx);
+    }
+
+    /**
+     * Test whether any element along the reduced axes evaluates to True
+     *
+     * @param a Source array
+     * @return Boolean array
+     */
+    public Array any(Array a) {
+        return anyAll(a, false);
+    }
+
+    /**
+     * Test whether all elements along the reduced axes evaluate to True
+     *
+     * @param a Source array
+     * @return Boolean array
+     */
+    public Array all(Array a) {
+        return anyAll(a, true);
+    }
+
+    private Array anyAll(Array a, boolean isAll) {
+        AnyAllAccumulator acc = new AnyAllAccumulator(rSize, isAll);
+        walk(a, acc);
+        return Array.factory(DataType.BOOLEAN, rShape, acc.b);
+    }
+
+    /**
+     * Integrate along the reduced axis using the composite trapezoidal rule
+     *
+     * @param a Source array
+     * @param dx Spacing between the elements
+     * @return Integral array. NaN values are skipped and the result is NaN
+     * with less than two valid values
+     */
+    public Array trapz(Array a, double dx) {
+        if (axes.length != 1) {
+            throw new IllegalArgumentException("Only one axis is supported for trapz");
+        }
+        int n = shape[axes[0]] - 1;
+        TrapzAccumulator acc = new TrapzAccumulator(rSize, n);
+        walk(a, acc);
+        double scale = ((n * dx + 1) - 1) / (2 * n);
+        for (int i = 0; i < rSize; i++) {
+            acc.s[i] = acc.n[i] >= 2 ? acc.s[i] * scale : Double.NaN;
+        }
+        return toArray(DataType.DOUBLE, rShape, acc.s);
+    }
+
+    /**
+     * Integrate along the reduced axis using the composite trapezoidal rule
+     *
+     * @param a Source array
+     * @param x Coordinate array along the reduced axis
+     * @return Integral array. NaN values are skipped and the result is NaN
+     * with less than two valid intervals
+     */
+    public Array trapz(Array a, Array x) {
+        if (axes.length != 1) {
+            throw new IllegalArgumentException("Only one axis is supported for trapz");
+        }
+        int len = shape[axes[0]];
+        if (x.getSize() < len) {
+            throw new IllegalArgumentException("The coordinate array is shorter than the axis");
+        }
+        double[] xs = new double[len];
+        IndexIterator iterX = x.getIndexIterator();
+        for (int i = 0; i < len; i++) {
+            xs[i] = iterX.getDoubleNext();
+        }
+        TrapzXAccumulator acc = new TrapzXAccumulator(rSize, xs);
+        walk(a, acc);
+        for (int i = 0; i < rSize; i++) {
+            acc.s[i] = acc.n[i] >= 2 ? acc.s[i] / 2 : Double.NaN;
+        }
+        return toArray(DataType.DOUBLE, rShape, acc.s);
+    }
+
+    /**
+     * Median along the reduced axes.
+     *
+     * <p>The values of each result element are gathered with precomputed
+     * source strides into one reused buffer.
+     *
+     * @param a Source array
+     * @param skipNaN Skip NaN values or not
+     * @return Median array
+     */
+    public Array median(Array a, boolean skipNaN) {
+        int rank = shape.length;
+        double[] r = new double[rSize];
+        int n = getReducedSize();
+        if (n == 0) {
+            Arrays.fill(r, Double.NaN);
+            return toArray(DataType.DOUBLE, rShape, r);
+        }
+
+        if (!a.getIndexPrivate().isFastIterator() || a.isConstant()) {
+            a = a.copy();
+        }
+        int[] stride = new int[rank];
+        int s = 1;
+        for (int i = rank - 1; i >= 0; i--) {
+            stride[i] = s;
+            s *= shape[i];
+        }
+        int nAxes = axes.length;
+        int[] aShape = new int[nAxes];
+        int[] aStride = new int[nAxes];
+        int[] sAxes = axes.clone();
+        Arrays.sort(sAxes);
+        for (int i = 0; i < nAxes; i++) {
+            aShape[i] = shape[sAxes[i]];
+            aStride[i] = stride[sAxes[i]];
+        }
+        int nKeep = rank - nAxes;
+        int[] kShape = new int[nKeep];
+        int[] kStride = new int[nKeep];
+        for (int i = 0, k = 0; i < rank; i++) {
+            if (!reduced[i]) {
+                kShape[k] = shape[i];
+                kStride[k] = stride[i];
+                k += 1;
+            }
+        }
+
+        double[] buf = new double[n];
+        int[] kCounter = new int[nKeep];
+        int[] aCounter = new int[nAxes];
+        int base = 0;
+        for (int o = 0; o < rSize; o++) {
+            int cnt = 0;
+            int elem = base;
+            Arrays.fill(aCounter, 0);
+            for (int j = 0; j < n; j++) {
+                double v = a.getDouble(elem);
+                if (!(skipNaN && Double.isNaN(v))) {
+                    buf[cnt++] = v;
+                }
+                for (int d = nAxes - 1; d >= 0; d--) {
+                    aCounter[d] += 1;
+                    elem += aStride[d];
+                    if (aCounter[d] < aShape[d]) {
+                        break;
+                    }
+                    elem -= aStride[d] * aShape[d];
+                    aCounter[d] = 0;
+                }
+            }
+            r[o] = median(buf, cnt);
+
+            for (int d = nKeep - 1; d >= 0; d--) {
+                kCounter[d] += 1;
+                base += kStride[d];
+                if (kCounter[d] < kShape[d]) {
+                    break;
+                }
+                base -= kStride[d] * kShape[d];
+                kCounter[d] = 0;
+            }
+        }
+
+        return toArray(DataType.DOUBLE, rShape, r);
+    }
+
+    private static double median(double[] buf, int n) {
+        if (n == 0) {
+            return Double.NaN;
+        }
+        for (int i = 0; i < n; i++) {
+            if (Double.isNaN(buf[i])) {
+                return Double.NaN;
+            }
+        }
+        Arrays.sort(buf, 0, n);
+        if (n % 2 == 0) {
+            return (buf[n / 2 - 1] + buf[n / 2]) / 2.0;
+        } else {
+            return buf[n / 2];
+        }
+    }
+    // </editor-fold>
+}
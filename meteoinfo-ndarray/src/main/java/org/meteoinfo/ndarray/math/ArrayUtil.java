@@ -2473,6 +2473,101 @@ public class ArrayUtil {
         return a;
     }
 
+    /**
+     * Unpack array in a single pass by missing value, valid range, scale
+     * factor and add offset. The missing value is compared with the packed
+     * values and the valid range with the unpacked values, the masked
+     * elements are set to NaN.
+     *
+     * @param a Input array, can be a view such as a flipped array
+     * @param missingValue Missing value of the packed data, NaN for none
+     * @param validMin Valid minimum unpacked value
+     * @param validMax Valid maximum unpacked value
+     * @param scaleFactor Scale factor
+     * @param addOffset Add offset
+     * @param dataType Output data type - FLOAT or DOUBLE
+     * @return Output array
+     */
+    public static Array unPack(Array a, double missingValue, double validMin, double validMax,
+                               double scaleFactor, double addOffset, DataType dataType) {
+        if (dataType != DataType.FLOAT && dataType != DataType.DOUBLE) {
+            throw new IllegalArgumentException("Unpack data type should be float or double: " + dataType);
+        }
+
+        int n = (int) a.getSize();
+        boolean isFloat = dataType == DataType.FLOAT;
+        float[] fr = isFloat ? new float[n] : null;
+        double[] dr = isFloat ? null : new double[n];
+        boolean fast = a.getIndexPrivate().isFastIterator() && !a.isUnsigned();
+        double v;
+        switch (fast ? a.getDataType() : DataType.OBJECT) {
+            case BYTE:
+                byte[] bs = (byte[]) a.getStorage();
+                for (int i = 0; i < n; i++) {
+                    v = unPack(bs[i], missingValue, validMin, validMax, scaleFactor, addOffset);
+                    if (isFloat) {
+                        fr[i] = (float) v;
+                    } else {
+                        dr[i] = v;
+                    }
+                }
+                break;
+            case SHORT:
+                short[] ss = (short[]) a.getStorage();
+                for (int i = 0; i < n; i++) {
+                    v = unPack(ss[i], missingValue, validMin, validMax, scaleFactor, addOffset);
+                    if (isFloat) {
+                        fr[i] = (float) v;
+                    } else {
+                        dr[i] = v;
+                    }
+                }
+                break;
+            case INT:
+                int[] is = (int[]) a.getStorage();
+                for (int i = 0; i < n; i++) {
+                    v = unPack(is[i], missingValue, validMin, validMax, scaleFactor, addOffset);
+                    if (isFloat) {
+                        fr[i] = (float) v;
+                    } else {
+                        dr[i] = v;
+                    }
+                }
+                break;
+            default:
+                //Short values are not read as double, which gives NaN for Short.MIN_VALUE
+                IndexIterator iter = a.getIndexIterator();
+                boolean isShort = a.getDataType() == DataType.SHORT || a.getDataType() == DataType.USHORT;
+                boolean isUnsigned = a.isUnsigned();
+                for (int i = 0; i < n; i++) {
+                    if (isShort) {
+                        short s = iter.getShortNext();
+                        v = isUnsigned ? DataType.unsignedShortToInt(s) : s;
+                    } else {
+                        v = iter.getDoubleNext();
+                    }
+                    v = unPack(v, missingValue, validMin, validMax, scaleFactor, addOffset);
+                    if (isFloat) {
+                        fr[i] = (float) v;
+                    } else {
+                        dr[i] = v;
+                    }
+                }
+                break;
+        }
+
+        return Array.factory(dataType, a.getShape(), isFloat ? fr : dr);
+    }
+
+    private static double unPack(double v, double missingValue, double validMin, double validMax,
+                                 double scaleFactor, double addOffset) {
+        if (v == missingValue) {
+            return Double.NaN;
+        }
+        v = v * scaleFactor + addOffset;
+        return v < validMin || v > validMax ? Double.NaN : v;
+    }
+
     /**
      * Sort array along an axis
      *
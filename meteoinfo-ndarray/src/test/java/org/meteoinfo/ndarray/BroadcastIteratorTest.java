@@ -0,0 +1,85 @@
+package org.meteoinfo.ndarray;
+
+import org.junit.jupiter.api.Test;
+import org.meteoinfo.ndarray.math.ArrayMath;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BroadcastIteratorTest {
+
+    private static Array createArray(int[] shape, int seed) {
+        Array a = Array.factory(DataType.DOUBLE, shape);
+        for (int i = 0; i < a.getSize(); i++) {
+            a.setDouble(i, Math.sin(i + seed));
+        }
+        return a;
+    }
+
+    /**
+     * Broadcast add with per-element index setting, the path used before
+     * BroadcastIterator
+     */
+    private static Array addByIndex(Array a, Array b) {
+        int[] shape = ArrayMath.broadcast(a, b);
+        Array r = Array.factory(DataType.DOUBLE, shape);
+        Index index = r.getIndex();
+        Index aindex = a.getIndex();
+        Index bindex = b.getIndex();
+        int n = r.getRank();
+        int na = a.getRank();
+        int nb = b.getRank();
+        for (int i = 0; i < r.getSize(); i++) {
+            int[] current = index.getCurrentCounter();
+            for (int j = 0; j < n; j++) {
+                int ia = na - j - 1;
+                if (ia >= 0) {
+                    aindex.setDim(ia, aindex.getShape(ia) == 1 ? 0 : current[n - j - 1]);
+                }
+                int ib = nb - j - 1;
+                if (ib >= 0) {
+                    bindex.setDim(ib, bindex.getShape(ib) == 1 ? 0 : current[n - j - 1]);
+                }
+            }
+            r.setDouble(i, a.getDouble(aindex) + b.getDouble(bindex));
+            index.incr();
+        }
+        return r;
+    }
+
+    @Test
+    public void testBroadcast() throws InvalidRangeException {
+        Array a = createArray(new int[]{4, 5, 6}, 0);
+        Array b = createArray(new int[]{5, 6}, 1);
+        Array c = createArray(new int[]{4, 1, 6}, 2);
+        Array d = createArray(new int[]{8, 7}, 3).section(new int[]{1, 0}, new int[]{5, 7}, new int[]{1, 1})
+                .flip(1).section(new int[]{0, 1}, new int[]{5, 6}, new int[]{1, 1});
+        Array[][] pairs = {{a, b}, {b, a}, {a, c}, {c, b}, {a, d}};
+        for (Array[] pair : pairs) {
+            Array expected = addByIndex(pair[0], pair[1]);
+            Array r = ArrayMath.add(pair[0], pair[1]);
+            assertArrayEquals(expected.getShape(), r.getShape());
+            for (int i = 0; i < r.getSize(); i++) {
+                assertEquals(expected.getDouble(i), r.getDouble(i), 0);
+            }
+        }
+    }
+
+    @Test
+    public void testBroadcastVolume() {
+        Array a = createArray(new int[]{10, 18, 36}, 0);
+        Array b = createArray(new int[]{18, 36}, 1);
+        Array r = ArrayMath.add(a, b);
+        assertArrayEquals(a.getShape(), r.getShape());
+        int n = (int) b.getSize();
+        for (int i = 0; i < r.getSize(); i++) {
+            assertEquals(a.getDouble(i) + b.getDouble(i % n), r.getDouble(i), 0);
+        }
+
+        Array expected = addByIndex(b, a);
+        r = ArrayMath.add(b, a);
+        for (int i = 0; i < r.getSize(); i++) {
+            assertEquals(expected.getDouble(i), r.getDouble(i), 0);
+        }
+    }
+}
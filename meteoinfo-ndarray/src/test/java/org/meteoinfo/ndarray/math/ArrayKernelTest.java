@@ -0,0 +1,155 @@
+package org.meteoinfo.ndarray.math;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.meteoinfo.ndarray.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.BinaryOperator;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArrayKernelTest {
+
+    private static final int[] SHAPE = {37, 53};
+
+    @AfterEach
+    public void tearDown() {
+        ArrayKernel.setParallelism(1, 100000);
+    }
+
+    /**
+     * Random values with some NaN, zero and negative elements
+     */
+    private static Array createArray(DataType dataType, long seed) {
+        Random random = new Random(seed);
+        Array a = Array.factory(dataType, SHAPE);
+        for (int i = 0; i < a.getSize(); i++) {
+            int k = random.nextInt(20);
+            double v = k == 0 ? Double.NaN : (k == 1 ? 0 : random.nextDouble() * 20 - 5);
+            a.setDouble(i, v);
+        }
+        return a;
+    }
+
+    /**
+     * Non-contiguous view with the same values: every other column of a larger
+     * array, with the rows flipped
+     */
+    private static Array stridedView(Array a) throws InvalidRangeException {
+        int ny = SHAPE[0], nx = SHAPE[1];
+        Array big = Array.factory(a.getDataType(), new int[]{ny, nx * 2});
+        Index index = big.getIndex();
+        for (int i = 0; i < ny; i++) {
+            for (int j = 0; j < nx; j++) {
+                index.set(ny - 1 - i, j * 2);
+                big.setDouble(index, a.getDouble(i * nx + j));
+            }
+        }
+        Array v = big.section(Arrays.asList(new Range(0, ny - 1, 1), new Range(0, nx * 2 - 2, 2))).flip(0);
+        assertFalse(ArrayKernel.isFlat(v));
+        return v;
+    }
+
+    private static void assertArrayEqual(Array expected, Array actual) {
+        assertArrayEquals(expected.getShape(), actual.getShape());
+        assertEquals(expected.getDataType(), actual.getDataType());
+        for (int i = 0; i < expected.getSize(); i++) {
+            assertEquals(expected.getObject(i), actual.getObject(i), "Element " + i);
+        }
+    }
+
+    /**
+     * Check that the kernel path on contiguous arrays, the iterator path on
+     * strided views and the parallel kernel path give the same result
+     */
+    private static void checkUnary(Array a, UnaryOperator<Array> op) throws InvalidRangeException {
+        assertTrue(ArrayKernel.isFlat(a));
+        Array expected = op.apply(stridedView(a));
+        assertArrayEqual(expected, op.apply(a));
+        ArrayKernel.setParallelism(4, 64);
+        assertTrue(ArrayKernel.isParallel(a.getSize()));
+        assertArrayEqual(expected, op.apply(a));
+        ArrayKernel.setParallelism(1, 100000);
+    }
+
+    private static void checkBinary(Array a, Array b, BinaryOperator<Array> op) throws InvalidRangeException {
+        Array expected = op.apply(stridedView(a), stridedView(b));
+        assertArrayEqual(expected, op.apply(a, stridedView(b)));
+        assertArrayEqual(expected, op.apply(a, b));
+        ArrayKernel.setParallelism(4, 64);
+        assertArrayEqual(expected, op.apply(a, b));
+        ArrayKernel.setParallelism(1, 100000);
+    }
+
+    @Test
+    public void testArithmetic() throws InvalidRangeException {
+        for (DataType dataType : new DataType[]{DataType.DOUBLE, DataType.FLOAT}) {
+            Array a = createArray(dataType, 1);
+            Array b = createArray(dataType, 2);
+            checkBinary(a, b, ArrayMath::add);
+            checkBinary(a, b, ArrayMath::sub);
+            checkBinary(a, b, ArrayMath::mul);
+            checkBinary(a, b, ArrayMath::div);
+            checkBinary(a, b, ArrayMath::maximum);
+            checkBinary(a, b, ArrayMath::minimum);
+
+            checkUnary(a, x -> ArrayMath.add(x, 1.5));
+            checkUnary(a, x -> ArrayMath.sub(x, 2.5));
+            checkUnary(a, x -> ArrayMath.sub(2.5, x));
+            checkUnary(a, x -> ArrayMath.mul(x, -3));
+            checkUnary(a, x -> ArrayMath.div(x, 4));
+            checkUnary(a, x -> ArrayMath.div(4, x));
+            checkUnary(a, x -> ArrayMath.maximum(x, 1));
+            checkUnary(a, x -> ArrayMath.minimum(x, 1));
+        }
+
+        //Mixed float and double arrays
+        checkBinary(createArray(DataType.FLOAT, 3), createArray(DataType.DOUBLE, 4), ArrayMath::add);
+        checkBinary(createArray(DataType.DOUBLE, 5), createArray(DataType.FLOAT, 6), ArrayMath::div);
+    }
+
+    @Test
+    public void testFunctions() throws InvalidRangeException {
+        for (DataType dataType : new DataType[]{DataType.DOUBLE, DataType.FLOAT}) {
+            Array a = createArray(dataType, 7);
+            checkUnary(a, ArrayMath::exp);
+            checkUnary(a, ArrayMath::log);
+            checkUnary(a, ArrayMath::log10);
+            checkUnary(a, ArrayMath::sin);
+            checkUnary(a, ArrayMath::cos);
+            checkUnary(a, ArrayMath::tan);
+            checkUnary(a, ArrayMath::atan);
+            checkUnary(a, ArrayMath::sinh);
+            checkUnary(a, ArrayMath::tanh);
+            checkUnary(ArrayMath.div(a, 20), ArrayMath::asin);
+            checkUnary(ArrayMath.div(a, 20), ArrayMath::acos);
+            checkUnary(a, x -> ArrayMath.clip(x, 0, 10));
+            checkUnary(a, x -> ArrayMath.clipMin(x, 0));
+            checkUnary(a, x -> ArrayMath.clipMax(x, 10));
+        }
+    }
+
+    @Test
+    public void testCompare() throws InvalidRangeException {
+        for (DataType dataType : new DataType[]{DataType.DOUBLE, DataType.FLOAT}) {
+            Array a = createArray(dataType, 8);
+            Array b = createArray(dataType, 9);
+            checkBinary(a, b, ArrayMath::lessThan);
+            checkBinary(a, b, ArrayMath::lessThanOrEqual);
+            checkBinary(a, b, ArrayMath::greaterThan);
+            checkBinary(a, b, ArrayMath::greaterThanOrEqual);
+            checkBinary(a, b, ArrayMath::notEqual);
+            checkBinary(a, a.copy(), ArrayMath::notEqual);
+
+            checkUnary(a, x -> ArrayMath.lessThan(x, 2));
+            checkUnary(a, x -> ArrayMath.lessThanOrEqual(x, 0));
+            checkUnary(a, x -> ArrayMath.greaterThan(x, 2));
+            checkUnary(a, x -> ArrayMath.greaterThanOrEqual(x, 0));
+            checkUnary(a, x -> ArrayMath.notEqual(x, 0));
+            checkUnary(a, x -> ArrayMath.notEqual(x, Double.NaN));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.meteoinfo.ndarray.math;
+
+import org.junit.jupiter.api.Test;
+import org.meteoinfo.ndarray.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ArrayReduceTest {
+
+    private static Array createArray() {
+        int[] shape = {3, 4, 5};
+        Array a = Array.factory(DataType.DOUBLE, shape);
+        for (int i = 0; i < a.getSize(); i++) {
+            a.setDouble(i, i % 7 == 0 ? Double.NaN : Math.sin(i));
+        }
+        return a;
+    }
+
+    private static List<Range> cellRanges(int[] shape, int axis, int[] current) throws InvalidRangeException {
+        List<Range> ranges = new ArrayList<>();
+        int idx = 0;
+        for (int j = 0; j < shape.length; j++) {
+            if (j == axis) {
+                ranges.add(new Range(0, shape[j] - 1, 1));
+            } else {
+                ranges.add(new Range(current[idx], current[idx], 1));
+                idx += 1;
+            }
+        }
+        return ranges;
+    }
+
+    @Test
+    public void testAxisReduce() throws InvalidRangeException {
+        Array a = createArray();
+        Array v = a.section(new int[]{0, 1, 0}, new int[]{3, 3, 4}, new int[]{1, 1, 1}).flip(2);
+        for (Array arr : new Array[]{a, v}) {
+            int[] shape = arr.getShape();
+            for (int axis = 0; axis < shape.length; axis++) {
+                Array sum = ArrayMath.sum(arr, axis);
+                Array mean = ArrayMath.mean(arr, axis);
+                Array std = ArrayMath.std(arr, axis, 1);
+                Array max = ArrayMath.max(arr, axis);
+                Index index = sum.getIndex();
+                for (int i = 0; i < sum.getSize(); i++) {
+                    List<Range> ranges = cellRanges(shape, axis, index.getCurrentCounter());
+                    assertEquals(ArrayMath.sumRange(arr, ranges), sum.getDouble(i), 1e-10);
+                    assertEquals(ArrayMath.meanRange(arr, ranges), mean.getDouble(i), 1e-10);
+                    assertEquals(ArrayMath.std(arr, ranges, 1), std.getDouble(i), 1e-10);
+                    assertEquals(ArrayMath.max(arr, ranges), max.getDouble(i), 1e-10);
+                    index.incr();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAnyAllTrapz() throws InvalidRangeException {
+        Array a = createArray();
+        Array v = a.section(new int[]{0, 1, 0}, new int[]{3, 3, 4}, new int[]{1, 1, 1}).flip(2);
+        Array b = ArrayMath.greaterThan(a, 0.5);
+        for (Array arr : new Array[]{a, v, b}) {
+            int[] shape = arr.getShape();
+            for (int axis = 0; axis < shape.length; axis++) {
+                Array x = Array.factory(DataType.DOUBLE, new int[]{shape[axis]});
+                for (int i = 0; i < x.getSize(); i++) {
+                    x.setDouble(i, i * i * 0.5);
+                }
+                Array any = ArrayMath.any(arr, axis);
+                Array all = ArrayMath.all(arr, axis);
+                Array trapz = ArrayMath.trapz(arr, 0.3, axis);
+                Array trapzX = ArrayMath.trapz(arr, x, axis);
+                Index index = any.getIndex();
+                for (int i = 0; i < any.getSize(); i++) {
+                    List<Range> ranges = cellRanges(shape, axis, index.getCurrentCounter());
+                    boolean bAny = false, bAll = true;
+                    IndexIterator ii = arr.getRangeIterator(ranges);
+                    while (ii.hasNext()) {
+                        boolean e = ii.getBooleanNext();
+                        bAny = bAny || e;
+                        bAll = bAll && e;
+                    }
+                    assertEquals(bAny, any.getBoolean(i));
+                    assertEquals(bAll, all.getBoolean(i));
+                    assertEquals(ArrayMath.trapz(arr, 0.3, ranges), trapz.getDouble(i), 1e-10);
+                    assertEquals(ArrayMath.trapz(arr, x, ranges), trapzX.getDouble(i), 1e-10);
+                    index.incr();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMultiAxis() {
+        Array a = createArray();
+        ArrayReduce reduce = new ArrayReduce(a.getShape(), new int[]{0, 2});
+        assertArrayEquals(new int[]{4}, reduce.getResultShape());
+        Array r = reduce.sum(a, false);
+        assertEquals(Double.NaN, r.getDouble(0));
+        r = reduce.sum(a, true);
+        double s = 0;
+        for (int i = 0; i < 3; i++) {
+            for (int k = 0; k < 5; k++) {
+                double d = a.getDouble(i * 20 + k);
+                if (!Double.isNaN(d)) {
+                    s += d;
+                }
+            }
+        }
+        assertEquals(s, r.getDouble(0), 1e-10);
+    }
+
+    @Test
+    public void testArgAndMedian() {
+        Array a = Array.factory(DataType.DOUBLE, new int[]{2, 3}, new double[]{-3, -1, -2, 4, Double.NaN, 5});
+        Array r = new ArrayReduce(a.getShape(), 1).argMax(a, true);
+        assertArrayEquals(new int[]{1, 2}, (int[]) r.getStorage());
+        r = new ArrayReduce(a.getShape(), 1).argMax(a, false);
+        assertArrayEquals(new int[]{1, 1}, (int[]) r.getStorage());
+        r = new ArrayReduce(a.getShape(), 1).median(a, true);
+        assertEquals(-2, r.getDouble(0));
+        assertEquals(4.5, r.getDouble(1));
+        r = new ArrayReduce(a.getShape(), new int[]{0, 1}).median(a, true);
+        assertEquals(-1, r.getDouble(0));
+    }
+}
@@ -0,0 +1,117 @@
+package org.meteoinfo.ndarray.math;
+
+import org.junit.jupiter.api.Test;
+import org.meteoinfo.ndarray.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArrayUnPackTest {
+
+    private static final double SCALE = 0.01;
+    private static final double OFFSET = 273.15;
+
+    private static double expected(double v, double missingValue, double validMin, double validMax) {
+        if (v == missingValue) {
+            return Double.NaN;
+        }
+        double u = v * SCALE + OFFSET;
+        return u < validMin || u > validMax ? Double.NaN : u;
+    }
+
+    private static void check(Array a, double missingValue, double validMin, double validMax) {
+        Array r = ArrayUtil.unPack(a, missingValue, validMin, validMax, SCALE, OFFSET, DataType.DOUBLE);
+        Array f = ArrayUtil.unPack(a, missingValue, validMin, validMax, SCALE, OFFSET, DataType.FLOAT);
+        assertEquals(DataType.DOUBLE, r.getDataType());
+        assertEquals(DataType.FLOAT, f.getDataType());
+        assertArrayEquals(a.getShape(), r.getShape());
+        IndexIterator iter = a.getIndexIterator();
+        for (int i = 0; i < r.getSize(); i++) {
+            double e = expected(((Number) iter.getObjectNext()).doubleValue(), missingValue, validMin, validMax);
+            assertEquals(e, r.getDouble(i), 0, "index " + i);
+            assertEquals((float) e, f.getFloat(i), 0, "index " + i);
+        }
+    }
+
+    private static Array createShort() {
+        Array a = Array.factory(DataType.SHORT, new int[]{4, 5});
+        short[] values = {Short.MIN_VALUE, -32767, -1, 0, 1, 100, 200, 300, 1000, Short.MAX_VALUE,
+                -100, -200, 5, 6, 7, 8, 9, 10, 11, 12};
+        for (int i = 0; i < values.length; i++) {
+            a.setShort(i, values[i]);
+        }
+        return a;
+    }
+
+    @Test
+    public void testContiguous() {
+        Array s = createShort();
+        //Short.MIN_VALUE is only masked when it is the missing value
+        check(s, Double.NaN, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+        check(s, -1, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+        check(s, Short.MIN_VALUE, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+        Array r = ArrayUtil.unPack(s, -1, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, SCALE, OFFSET,
+                DataType.DOUBLE);
+        assertEquals(Short.MIN_VALUE * SCALE + OFFSET, r.getDouble(0), 1e-9);
+        assertTrue(Double.isNaN(r.getDouble(2)));
+
+        Array b = Array.factory(DataType.BYTE, new int[]{6}, new byte[]{Byte.MIN_VALUE, -1, 0, 1, 50, Byte.MAX_VALUE});
+        check(b, Byte.MIN_VALUE, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+        check(b, Double.NaN, 0 * SCALE + OFFSET, 50 * SCALE + OFFSET);
+        Array i = Array.factory(DataType.INT, new int[]{5}, new int[]{Integer.MIN_VALUE, -999, 0, 12345, 99999});
+        check(i, -999, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
+    @Test
+    public void testValidRange() {
+        Array s = createShort();
+        //Inclusive bounds of the unpacked values
+        double validMin = -100 * SCALE + OFFSET;
+        double validMax = 300 * SCALE + OFFSET;
+        check(s, 5, validMin, validMax);
+        Array r = ArrayUtil.unPack(s, 5, validMin, validMax, SCALE, OFFSET, DataType.DOUBLE);
+        assertEquals(validMin, r.getDouble(10));
+        assertEquals(validMax, r.getDouble(7));
+        assertTrue(Double.isNaN(r.getDouble(8)));
+        assertTrue(Double.isNaN(r.getDouble(11)));
+        assertTrue(Double.isNaN(r.getDouble(12)));
+        check(s, Double.NaN, Double.NEGATIVE_INFINITY, OFFSET);
+        check(s, Double.NaN, OFFSET, Double.POSITIVE_INFINITY);
+    }
+
+    @Test
+    public void testView() throws InvalidRangeException {
+        Array s = createShort();
+        Array[] views = {s.flip(0), s.flip(1).flip(0), s.section(new int[]{1, 0}, new int[]{2, 3}, new int[]{2, 2}),
+                s.transpose(0, 1)};
+        double validMin = -200 * SCALE + OFFSET;
+        double validMax = 1000 * SCALE + OFFSET;
+        for (Array v : views) {
+            check(v, Double.NaN, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+            check(v, Short.MIN_VALUE, validMin, validMax);
+            check(v, 7, validMin, validMax);
+            //Same as the contiguous copy
+            Array c = v.copy();
+            Array r1 = ArrayUtil.unPack(v, 7, validMin, validMax, SCALE, OFFSET, DataType.DOUBLE);
+            Array r2 = ArrayUtil.unPack(c, 7, validMin, validMax, SCALE, OFFSET, DataType.DOUBLE);
+            assertArrayEquals((double[]) r2.getStorage(), (double[]) r1.getStorage(), 0);
+        }
+    }
+
+    @Test
+    public void testUnsigned() {
+        Array s = Array.factory(DataType.USHORT, new int[]{4}, new short[]{0, 1, Short.MIN_VALUE, -1});
+        Array r = ArrayUtil.unPack(s, 1, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, SCALE, OFFSET,
+                DataType.DOUBLE);
+        assertEquals(OFFSET, r.getDouble(0));
+        assertTrue(Double.isNaN(r.getDouble(1)));
+        assertEquals(32768 * SCALE + OFFSET, r.getDouble(2), 1e-9);
+        assertEquals(65535 * SCALE + OFFSET, r.getDouble(3), 1e-9);
+    }
+
+    @Test
+    public void testDataType() {
+        Array s = createShort();
+        assertThrows(IllegalArgumentException.class, () -> ArrayUtil.unPack(s, Double.NaN,
+                Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, SCALE, OFFSET, DataType.INT));
+    }
+}
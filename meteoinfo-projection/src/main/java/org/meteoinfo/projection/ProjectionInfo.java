@@ -44,6 +44,7 @@ package org.meteoinfo.projection;
      protected CoordinateReferenceSystem crs;
      protected PolygonShape boundary;
      protected float cutoff = Float.NaN;    //Latitude cutoff - valiad for some speciafic projections
+     private volatile String proj4String;    //Cached proj4 string of the crs
      // </editor-fold>
      // <editor-fold desc="Constructor">
 
@@ -389,12 +390,18 @@ package org.meteoinfo.projection;
      }
 
      /**
-      * Get proj4 string
+      * Get proj4 string. The string is built once, the crs should not be
+      * modified afterwards.
       *
       * @return Proj4 string
       */
      public String toProj4String() {
-         return crs.getParameterString();
+         String r = proj4String;
+         if (r == null) {
+             r = crs.getParameterString();
+             proj4String = r;
+         }
+         return r;
      }
 
      /**
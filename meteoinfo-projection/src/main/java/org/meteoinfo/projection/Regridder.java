@@ -0,0 +1,433 @@
+package org.meteoinfo.projection;
+
+import org.meteoinfo.common.MIMath;
+import org.meteoinfo.common.ResampleMethods;
+import org.meteoinfo.ndarray.Array;
+import org.meteoinfo.ndarray.DataType;
+import org.meteoinfo.ndarray.IndexIterator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Reusable regridder from a source grid to a target grid.
+ *
+ * <p>The target points are reprojected to the source projection once, and the
+ * source cell index and the interpolation weights of each target point are
+ * kept in primitive arrays. The regridder can then be applied to every 2D
+ * slice of N-D data arrays on the same source grid, and be saved to a file to
+ * be reused by other runs.
+ *
+ * @author Yaqiang Wang
+ */
+public class Regridder {
+
+    // <editor-fold desc="Variables">
+    private static final int MAGIC = 0x4D495247;    //MIRG
+    private static final int VERSION = 1;
+    private static final int CHUNK_SIZE = 4096;
+    private final ResampleMethods method;
+    private final int srcNy;
+    private final int srcNx;
+    private final int[] shape;
+    private final int[] index;
+    private final double[] wx;
+    private final double[] wy;
+    private boolean parallel = true;
+    // </editor-fold>
+    // <editor-fold desc="Constructor">
+
+    /**
+     * Constructor
+     *
+     * @param x Source x coordinates, ascending
+     * @param y Source y coordinates, ascending
+     * @param rx Target x coordinates of all target points
+     * @param ry Target y coordinates of all target points
+     * @param fromProj Source projection
+     * @param toProj Target projection
+     * @param method Resample method
+     */
+    public Regridder(List<Number> x, List<Number> y, Array rx, Array ry, ProjectionInfo fromProj,
+                     ProjectionInfo toProj, ResampleMethods method) {
+        this(toDoubles(x), toDoubles(y), rx, ry, fromProj, toProj, method);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param x Source x coordinates, ascending
+     * @param y Source y coordinates, ascending
+     * @param rx Target x coordinates of all target points
+     * @param ry Target y coordinates of all target points
+     * @param fromProj Source projection
+     * @param toProj Target projection
+     * @param method Resample method
+     */
+    public Regridder(Array x, Array y, Array rx, Array ry, ProjectionInfo fromProj,
+                     ProjectionInfo toProj, ResampleMethods method) {
+        this(toDoubles(x), toDoubles(y), rx, ry, fromProj, toProj, method);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param x Source x coordinates, ascending
+     * @param y Source y coordinates, ascending
+     * @param rx Target x coordinates of all target points
+     * @param ry Target y coordinates of all target points
+     * @param fromProj Source projection
+     * @param toProj Target projection
+     * @param method Resample method
+     */
+    public Regridder(double[] x, double[] y, Array rx, Array ry, ProjectionInfo fromProj,
+                     ProjectionInfo toProj, ResampleMethods method) {
+        if (x.length < 2 || y.length < 2) {
+            throw new IllegalArgumentException("Source grid should have at least 2 x and 2 y coordinates");
+        }
+
+        this.method = method;
+        this.srcNx = x.length;
+        this.srcNy = y.length;
+        this.shape = rx.getShape();
+        int n = (int) rx.getSize();
+        this.index = new int[n];
+        if (method == ResampleMethods.Bilinear) {
+            this.wx = new double[n];
+            this.wy = new double[n];
+        } else {
+            this.wx = null;
+            this.wy = null;
+        }
+
+        //Target points in source projection
+        double[] px = new double[n];
+        double[] py = new double[n];
+        IndexIterator iterX = rx.getIndexIterator();
+        IndexIterator iterY = ry.getIndexIterator();
+        for (int i = 0; i < n; i++) {
+            px[i] = iterX.getDoubleNext();
+            py[i] = iterY.getDoubleNext();
+        }
+        if (!fromProj.equals(toProj)) {
+            Reproject.reprojectPoints(px, py, toProj, fromProj);
+        }
+
+        for (int i = 0; i < n; i++) {
+            double xx = px[i];
+            double yy = py[i];
+            if (Double.isNaN(xx) || Double.isNaN(yy) || xx < x[0] || xx > x[srcNx - 1]
+                    || yy < y[0] || yy > y[srcNy - 1]) {
+                index[i] = -1;
+                continue;
+            }
+
+            int j1 = cellIndex(x, xx);
+            int i1 = cellIndex(y, yy);
+            int j2 = j1 + 1;
+            int i2 = i1 + 1;
+            if (wx == null) {
+                int jj = Math.abs(xx - x[j1]) < Math.abs(x[j2] - xx) ? j1 : j2;
+                int ii = Math.abs(yy - y[i1]) < Math.abs(y[i2] - yy) ? i1 : i2;
+                index[i] = ii * srcNx + jj;
+            } else {
+                index[i] = i1 * srcNx + j1;
+                wx[i] = (xx - x[j1]) / (x[j2] - x[j1]);
+                wy[i] = (yy - y[i1]) / (y[i2] - y[i1]);
+            }
+        }
+    }
+
+    private Regridder(ResampleMethods method, int srcNy, int srcNx, int[] shape, int[] index,
+                      double[] wx, double[] wy) {
+        this.method = method;
+        this.srcNy = srcNy;
+        this.srcNx = srcNx;
+        this.shape = shape;
+        this.index = index;
+        this.wx = wx;
+        this.wy = wy;
+    }
+    // </editor-fold>
+    // <editor-fold desc="Get Set Methods">
+
+    /**
+     * Get resample method
+     * @return Resample method
+     */
+    public ResampleMethods getMethod() {
+        return this.method;
+    }
+
+    /**
+     * Get source grid shape - [ny, nx]
+     * @return Source grid shape
+     */
+    public int[] getSourceShape() {
+        return new int[]{srcNy, srcNx};
+    }
+
+    /**
+     * Get target shape
+     * @return Target shape
+     */
+    public int[] getShape() {
+        return this.shape.clone();
+    }
+
+    /**
+     * Get if the slices or target points are calculated in parallel
+     * @return Parallel or not
+     */
+    public boolean isParallel() {
+        return this.parallel;
+    }
+
+    /**
+     * Set if the slices or target points are calculated in parallel
+     * @param value Parallel or not
+     */
+    public void setParallel(boolean value) {
+        this.parallel = value;
+    }
+    // </editor-fold>
+    // <editor-fold desc="Methods">
+
+    private static double[] toDoubles(List<Number> values) {
+        double[] r = new double[values.size()];
+        for (int i = 0; i < r.length; i++) {
+            r[i] = values.get(i).doubleValue();
+        }
+        return r;
+    }
+
+    private static double[] toDoubles(Array values) {
+        double[] r = new double[(int) values.getSize()];
+        IndexIterator iter = values.getIndexIterator();
+        for (int i = 0; i < r.length; i++) {
+            r[i] = iter.getDoubleNext();
+        }
+        return r;
+    }
+
+    /**
+     * Get the index of the cell containing a value, the value should be in
+     * the coordinates range
+     */
+    private static int cellIndex(double[] coords, double v) {
+        int n = coords.length;
+        int low = 1, high = n - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (v < coords[mid]) {
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low >= n ? n - 2 : low - 1;
+    }
+
+    /**
+     * Regrid data array, only NaN values are treated as missing
+     *
+     * @param data Data array, the last two dimensions are the source y and x
+     * @return Regridded data array
+     */
+    public Array regrid(Array data) {
+        return regrid(data, Double.NaN);
+    }
+
+    /**
+     * Regrid data array. The leading dimensions are kept and the last two
+     * dimensions are replaced by the target shape.
+     *
+     * @param data Data array, the last two dimensions are the source y and x
+     * @param fillValue Fill value treated as missing in bilinear interpolation
+     * @return Regridded data array
+     */
+    public Array regrid(Array data, double fillValue) {
+        int[] dshape = data.getShape();
+        int rank = dshape.length;
+        if (rank < 2 || dshape[rank - 2] != srcNy || dshape[rank - 1] != srcNx) {
+            throw new IllegalArgumentException("Data shape does not match the source grid");
+        }
+
+        int nSlice = 1;
+        int[] rshape = new int[rank - 2 + shape.length];
+        for (int i = 0; i < rank - 2; i++) {
+            nSlice *= dshape[i];
+            rshape[i] = dshape[i];
+        }
+        System.arraycopy(shape, 0, rshape, rank - 2, shape.length);
+
+        double[] src = (double[]) data.get1DJavaArray(double.class);
+        int srcSize = srcNy * srcNx;
+        int n = index.length;
+        double[] dst = new double[nSlice * n];
+        if (parallel && nSlice > 1) {
+            IntStream.range(0, nSlice).parallel().forEach(s ->
+                    apply(src, s * srcSize, dst, s * n, 0, n, fillValue));
+        } else if (parallel && n > CHUNK_SIZE) {
+            int nChunk = (n + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            for (int s = 0; s < nSlice; s++) {
+                int srcOffset = s * srcSize;
+                int dstOffset = s * n;
+                IntStream.range(0, nChunk).parallel().forEach(c ->
+                        apply(src, srcOffset, dst, dstOffset, c * CHUNK_SIZE,
+                                Math.min((c + 1) * CHUNK_SIZE, n), fillValue));
+            }
+        } else {
+            for (int s = 0; s < nSlice; s++) {
+                apply(src, s * srcSize, dst, s * n, 0, n, fillValue);
+            }
+        }
+
+        if (data.getDataType() == DataType.DOUBLE) {
+            return Array.factory(DataType.DOUBLE, rshape, dst);
+        }
+        Array r = Array.factory(data.getDataType(), rshape);
+        for (int i = 0; i < dst.length; i++) {
+            r.setDouble(i, dst[i]);
+        }
+        return r;
+    }
+
+    private void apply(double[] src, int srcOffset, double[] dst, int dstOffset, int start, int end,
+                       double fillValue) {
+        if (wx == null) {
+            for (int i = start; i < end; i++) {
+                int k = index[i];
+                dst[dstOffset + i] = k < 0 ? Double.NaN : src[srcOffset + k];
+            }
+            return;
+        }
+
+        boolean checkFill = !Double.isNaN(fillValue);
+        for (int i = start; i < end; i++) {
+            int k = index[i];
+            if (k < 0) {
+                dst[dstOffset + i] = Double.NaN;
+                continue;
+            }
+            //Corner values: a - (i1, j1), b - (i1, j2), c - (i2, j1), d - (i2, j2)
+            k += srcOffset;
+            double a = src[k];
+            double b = src[k + 1];
+            double c = src[k + srcNx];
+            double d = src[k + srcNx + 1];
+            boolean va = isValid(a, fillValue, checkFill);
+            boolean vb = isValid(b, fillValue, checkFill);
+            boolean vc = isValid(c, fillValue, checkFill);
+            boolean vd = isValid(d, fillValue, checkFill);
+            if (va && vb && vc && vd) {
+                double x1val = a + (c - a) * wy[i];
+                double x2val = b + (d - b) * wy[i];
+                dst[dstOffset + i] = x1val + (x2val - x1val) * wx[i];
+            } else {
+                //Average of the valid corner values
+                double sum = 0;
+                int count = 0;
+                if (va) {
+                    sum += a;
+                    count += 1;
+                }
+                if (vb) {
+                    sum += b;
+                    count += 1;
+                }
+                if (vc) {
+                    sum += c;
+                    count += 1;
+                }
+                if (vd) {
+                    sum += d;
+                    count += 1;
+                }
+                dst[dstOffset + i] = count == 0 ? Double.NaN : sum / count;
+            }
+        }
+    }
+
+    private static boolean isValid(double v, double fillValue, boolean checkFill) {
+        return !Double.isNaN(v) && !(checkFill && MIMath.doubleEquals(v, fillValue));
+    }
+
+    /**
+     * Save the regridder to a file
+     *
+     * @param fileName File name
+     * @throws IOException
+     */
+    public void save(String fileName) throws IOException {
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(fileName)))) {
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+            dos.writeInt(method.ordinal());
+            dos.writeInt(srcNy);
+            dos.writeInt(srcNx);
+            dos.writeInt(shape.length);
+            for (int s : shape) {
+                dos.writeInt(s);
+            }
+            dos.writeInt(index.length);
+            for (int k : index) {
+                dos.writeInt(k);
+            }
+            if (wx != null) {
+                for (int i = 0; i < index.length; i++) {
+                    dos.writeDouble(wx[i]);
+                    dos.writeDouble(wy[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Load a regridder from a file
+     *
+     * @param fileName File name
+     * @return The regridder
+     * @throws IOException
+     */
+    public static Regridder load(String fileName) throws IOException {
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(fileName)))) {
+            if (dis.readInt() != MAGIC || dis.readInt() != VERSION) {
+                throw new IOException("Not a regridder file: " + fileName);
+            }
+            ResampleMethods method = ResampleMethods.values()[dis.readInt()];
+            int srcNy = dis.readInt();
+            int srcNx = dis.readInt();
+            int[] shape = new int[dis.readInt()];
+            for (int i = 0; i < shape.length; i++) {
+                shape[i] = dis.readInt();
+            }
+            int n = dis.readInt();
+            int[] index = new int[n];
+            for (int i = 0; i < n; i++) {
+                index[i] = dis.readInt();
+            }
+            double[] wx = null;
+            double[] wy = null;
+            if (method == ResampleMethods.Bilinear) {
+                wx = new double[n];
+                wy = new double[n];
+                for (int i = 0; i < n; i++) {
+                    wx[i] = dis.readDouble();
+                    wy[i] = dis.readDouble();
+                }
+            }
+            return new Regridder(method, srcNy, srcNx, shape, index, wx, wy);
+        }
+    }
+    // </editor-fold>
+}
@@ -22,7 +22,11 @@ import org.meteoinfo.ndarray.math.ArrayUtil;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 /**
  *
@@ -31,6 +35,71 @@ import java.util.List;
 public class Reproject {
 
     private static final CoordinateTransformFactory ctFactory = new CoordinateTransformFactory();
+    private static final int PARALLEL_THRESHOLD = 10000;
+    private static final int CHUNK_SIZE = 4096;
+    private static int transformCacheSize = 32;
+    private static final Map<TransformKey, ThreadLocal<CoordinateTransform>> transformCache =
+            new LinkedHashMap<TransformKey, ThreadLocal<CoordinateTransform>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TransformKey, ThreadLocal<CoordinateTransform>> eldest) {
+            return size() > transformCacheSize;
+        }
+    };
+    private static final ThreadLocal<ProjCoordinate[]> projCoordinates =
+            ThreadLocal.withInitial(() -> new ProjCoordinate[]{new ProjCoordinate(), new ProjCoordinate()});
+
+    /**
+     * Set maximum cached coordinate transform number, default is 32
+     * @param value Maximum cached coordinate transform number
+     */
+    public static void setTransformCacheSize(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Transform cache size should not be negative: " + value);
+        }
+        synchronized (transformCache) {
+            transformCacheSize = value;
+            Iterator<TransformKey> it = transformCache.keySet().iterator();
+            while (transformCache.size() > value && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Clear cached coordinate transforms
+     */
+    public static void clearTransformCache() {
+        synchronized (transformCache) {
+            transformCache.clear();
+        }
+    }
+
+    /**
+     * Get coordinate transform between two projections. The least recently
+     * used transforms are cached by the proj4 definitions of the projections,
+     * so equal projections share the transform. A
+     * coordinate transform is not thread safe, so each thread gets its own
+     * transform instance.
+     *
+     * @param source Source projection info
+     * @param dest Destination projection info
+     * @return Coordinate transform
+     */
+    public static CoordinateTransform getTransform(ProjectionInfo source, ProjectionInfo dest) {
+        CoordinateReferenceSystem sourceCRS = source.getCoordinateReferenceSystem();
+        CoordinateReferenceSystem destCRS = dest.getCoordinateReferenceSystem();
+        TransformKey key = new TransformKey(source.toProj4String(), dest.toProj4String());
+        ThreadLocal<CoordinateTransform> transform;
+        synchronized (transformCache) {
+            transform = transformCache.get(key);
+            if (transform == null) {
+                transform = ThreadLocal.withInitial(() -> ctFactory.createTransform(sourceCRS, destCRS));
+                transformCache.put(key, transform);
+            }
+        }
+        return transform.get();
+    }
 
     /**
      * Reproject a point
@@ -41,12 +110,11 @@ public class Reproject {
      * @return Projected point
      */
     public static PointD reprojectPoint(double x, double y, ProjectionInfo source, ProjectionInfo dest) {
-        double[][] points = new double[1][];
-        points[0] = new double[]{x, y};
-        Reproject.reprojectPoints(points, source, dest, 0, points.length);
-        PointD rPoint = new PointD(points[0][0], points[0][1]);
-        
-        return rPoint;
+        double[] xs = new double[]{x};
+        double[] ys = new double[]{y};
+        reprojectPoints(xs, ys, source, dest);
+
+        return new PointD(xs[0], ys[0]);
     }
     
     /**
@@ -80,38 +148,117 @@ public class Reproject {
      * @param numPoints Point number
      */
     public static void reprojectPoints(double[][] points, ProjectionInfo source, ProjectionInfo dest, int startIndex, int numPoints) {
-        CoordinateTransform trans = ctFactory.createTransform(source.getCoordinateReferenceSystem(), dest.getCoordinateReferenceSystem());
-        if (source.getProjectionName() == ProjectionNames.LongLat) {
-            for (int i = startIndex; i < startIndex + numPoints; i++) {
-                if (i >= points.length) {
-                    break;
-                }
-                if (points[i][0] > 180.0) {
-                    points[i][0] -= 360;
-                } else if (points[i][0] < -180) {
-                    points[i][0] += 360;
-                }
-            }
+        int end = Math.min(startIndex + numPoints, points.length);
+        if (startIndex >= end) {
+            return;
+        }
+        double[] xs = new double[end - startIndex];
+        double[] ys = new double[xs.length];
+        for (int i = startIndex; i < end; i++) {
+            xs[i - startIndex] = points[i][0];
+            ys[i - startIndex] = points[i][1];
+        }
+        reprojectPoints(xs, ys, source, dest);
+        for (int i = startIndex; i < end; i++) {
+            points[i][0] = xs[i - startIndex];
+            points[i][1] = ys[i - startIndex];
+        }
+    }
+
+    /**
+     * Reproject points in place
+     *
+     * @param x X coordinates
+     * @param y Y coordinates
+     * @param source Source projection info
+     * @param dest Destination projection info
+     */
+    public static void reprojectPoints(double[] x, double[] y, ProjectionInfo source, ProjectionInfo dest) {
+        reprojectPoints(x, y, source, dest, 0, x.length);
+    }
+
+    /**
+     * Reproject points in place. Large point numbers are reprojected in
+     * parallel chunks.
+     *
+     * @param x X coordinates
+     * @param y Y coordinates
+     * @param source Source projection info
+     * @param dest Destination projection info
+     * @param startIndex Start index
+     * @param numPoints Point number
+     */
+    public static void reprojectPoints(double[] x, double[] y, ProjectionInfo source, ProjectionInfo dest,
+                                       int startIndex, int numPoints) {
+        int end = Math.min(startIndex + numPoints, Math.min(x.length, y.length));
+        boolean wrapLon = source.getProjectionName() == ProjectionNames.LongLat;
+        if (end - startIndex < PARALLEL_THRESHOLD) {
+            reprojectRange(x, y, source, dest, startIndex, end, wrapLon);
+        } else {
+            int nChunk = (end - startIndex + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            IntStream.range(0, nChunk).parallel().forEach(c -> {
+                int s = startIndex + c * CHUNK_SIZE;
+                reprojectRange(x, y, source, dest, s, Math.min(s + CHUNK_SIZE, end), wrapLon);
+            });
         }
-        for (int i = startIndex; i < startIndex + numPoints; i++) {
-            if (i >= points.length) {
-                break;
+    }
+
+    private static void reprojectRange(double[] x, double[] y, ProjectionInfo source, ProjectionInfo dest,
+                                       int start, int end, boolean wrapLon) {
+        CoordinateTransform trans = getTransform(source, dest);
+        ProjCoordinate[] pcs = projCoordinates.get();
+        ProjCoordinate p1 = pcs[0];
+        ProjCoordinate p2 = pcs[1];
+        for (int i = start; i < end; i++) {
+            if (Double.isNaN(x[i]) || Double.isNaN(y[i])) {
+                x[i] = Double.NaN;
+                y[i] = Double.NaN;
+                continue;
             }
-            if (Double.isNaN(points[i][0]) || Double.isNaN(points[i][1])) {
-                points[i][0] = Double.NaN;
-                points[i][1] = Double.NaN;
-            } else {
-                ProjCoordinate p1 = new ProjCoordinate(points[i][0], points[i][1]);
-                ProjCoordinate p2 = new ProjCoordinate();
-                try {
-                    trans.transform(p1, p2);
-                    points[i][0] = p2.x;
-                    points[i][1] = p2.y;
-                } catch (ProjectionException e) {
-                    points[i][0] = Double.NaN;
-                    points[i][1] = Double.NaN;
+            if (wrapLon) {
+                if (x[i] > 180.0) {
+                    x[i] -= 360;
+                } else if (x[i] < -180) {
+                    x[i] += 360;
                 }
             }
+            p1.x = x[i];
+            p1.y = y[i];
+            try {
+                trans.transform(p1, p2);
+                x[i] = p2.x;
+                y[i] = p2.y;
+            } catch (ProjectionException e) {
+                x[i] = Double.NaN;
+                y[i] = Double.NaN;
+            }
+        }
+    }
+
+    /**
+     * Reproject points in place. The arrays should be double arrays and not
+     * views, otherwise the values are copied and set back.
+     *
+     * @param x X array
+     * @param y Y array
+     * @param source Source projection info
+     * @param dest Destination projection info
+     */
+    public static void reprojectPoints(Array x, Array y, ProjectionInfo source, ProjectionInfo dest) {
+        if (x.getDataType() == DataType.DOUBLE && !x.isView() && y.getDataType() == DataType.DOUBLE
+                && !y.isView()) {
+            reprojectPoints((double[]) x.getStorage(), (double[]) y.getStorage(), source, dest,
+                    0, (int) x.getSize());
+        } else {
+            double[] xs = (double[]) x.get1DJavaArray(double.class);
+            double[] ys = (double[]) y.get1DJavaArray(double.class);
+            reprojectPoints(xs, ys, source, dest);
+            IndexIterator iterX = x.getIndexIterator();
+            IndexIterator iterY = y.getIndexIterator();
+            for (int i = 0; i < xs.length; i++) {
+                iterX.setDoubleNext(xs[i]);
+                iterY.setDoubleNext(ys[i]);
+            }
         }
     }
     
@@ -263,133 +410,7 @@ public class Reproject {
      */
     public static Array reproject(Array data, List<Number> x, List<Number> y, Array rx, Array ry,
             ProjectionInfo fromProj, ProjectionInfo toProj, double fill_value, ResampleMethods resampleMethod) throws InvalidRangeException {
-        int n = (int) rx.getSize();
-        int[] dshape = data.getShape();
-        int[] shape;
-        if (rx.getRank() == 1) {
-            shape = new int[1];
-            shape[0] = rx.getShape()[0];
-        } else {
-            shape = new int[data.getRank()];
-            for (int i = 0; i < shape.length; i++) {
-                if (i == shape.length - 2) {
-                    shape[i] = rx.getShape()[0];
-                } else if (i == shape.length - 1) {
-                    shape[i] = rx.getShape()[1];
-                } else {
-                    shape[i] = data.getShape()[i];
-                }
-            }
-        }
-        Array r = Array.factory(data.getDataType(), shape);
-
-        double[][] points = new double[n][];
-        for (int i = 0; i < n; i++) {
-            points[i] = new double[]{rx.getDouble(i), ry.getDouble(i)};
-        }
-        if (!fromProj.equals(toProj)) {
-            Reproject.reprojectPoints(points, toProj, fromProj, 0, points.length);
-        }
-        double xx, yy;
-        if (resampleMethod == ResampleMethods.Bilinear) {
-            if (shape.length <= 2) {
-                for (int i = 0; i < n; i++) {
-                    xx = points[i][0];
-                    yy = points[i][1];
-                    if (Double.isNaN(xx) || Double.isNaN(yy)) {
-                        r.setObject(i, Double.NaN);
-                    } else {
-                        r.setObject(i, ArrayUtil.toStation(data, x, y, xx, yy, fill_value));
-                    }
-                }
-            } else {
-                Index indexr = r.getIndex();
-                int[] current, cc = null;
-                boolean isNew;
-                Array ndata = null;
-                int k;
-                for (int i = 0; i < r.getSize(); i++) {
-                    current = indexr.getCurrentCounter();
-                    isNew = true;
-                    if (i > 0) {
-                        for (int j = 0; j < shape.length - 2; j++) {
-                            if (cc[j] != current[j]) {
-                                isNew = false;
-                                break;
-                            }
-                        }
-                    }
-                    cc = Arrays.copyOf(current, current.length);
-                    if (isNew) {
-                        List<Range> ranges = new ArrayList<>();
-                        for (int j = 0; j < shape.length - 2; j++) {
-                            ranges.add(new Range(current[j], current[j], 1));
-                        }
-                        ranges.add(new Range(0, dshape[dshape.length - 2] - 1, 1));
-                        ranges.add(new Range(0, dshape[dshape.length - 1] - 1, 1));
-                        ndata = data.section(ranges).reduce();
-                    }
-                    k = current[shape.length - 2] * shape[shape.length - 1] + current[shape.length - 1];
-                    xx = points[k][0];
-                    yy = points[k][1];
-                    if (Double.isNaN(xx) || Double.isNaN(yy)) {
-                        r.setObject(i, Double.NaN);
-                    } else {
-                        r.setObject(i, ArrayUtil.toStation(ndata, x, y, xx, yy, fill_value));
-                    }
-                    indexr.incr();
-                }
-            }
-        } else if (shape.length <= 2) {
-            for (int i = 0; i < n; i++) {
-                xx = points[i][0];
-                yy = points[i][1];
-                if (Double.isNaN(xx) || Double.isNaN(yy)) {
-                    r.setObject(i, Double.NaN);
-                } else {
-                    r.setObject(i, ArrayUtil.toStation_Neighbor(data, x, y, xx, yy, fill_value));
-                }
-            }
-        } else {
-            Index indexr = r.getIndex();
-            int[] current, cc = null;
-            boolean isNew;
-            Array ndata = null;
-            int k;
-            for (int i = 0; i < r.getSize(); i++) {
-                current = indexr.getCurrentCounter();
-                isNew = true;
-                if (i > 0) {
-                    for (int j = 0; j < shape.length - 2; j++) {
-                        if (cc[j] != current[j]) {
-                            isNew = false;
-                            break;
-                        }
-                    }
-                }
-                cc = Arrays.copyOf(current, current.length);
-                if (isNew) {
-                    List<Range> ranges = new ArrayList<>();
-                    for (int j = 0; j < shape.length - 2; j++) {
-                        ranges.add(new Range(current[j], current[j], 1));
-                    }
-                    ranges.add(new Range(0, dshape[dshape.length - 2] - 1, 1));
-                    ranges.add(new Range(0, dshape[dshape.length - 1] - 1, 1));
-                    ndata = data.section(ranges).reduce();
-                }
-                k = current[shape.length - 2] * shape[shape.length - 1] + current[shape.length - 1];
-                xx = points[k][0];
-                yy = points[k][1];
-                if (Double.isNaN(xx) || Double.isNaN(yy)) {
-                    r.setObject(i, Double.NaN);
-                } else {
-                    r.setObject(i, ArrayUtil.toStation_Neighbor(ndata, x, y, xx, yy, fill_value));
-                }
-                indexr.incr();
-            }
-        }
-
-        return r;
+        return new Regridder(x, y, rx, ry, fromProj, toProj, resampleMethod).regrid(data, fill_value);
     }
 
     /**
@@ -408,117 +429,7 @@ public class Reproject {
      */
     public static Array reproject(Array data, List<Number> x, List<Number> y, Array rx, Array ry,
             ProjectionInfo fromProj, ProjectionInfo toProj, ResampleMethods resampleMethod) throws InvalidRangeException {
-        int n = (int) rx.getSize();
-        int[] dshape = data.getShape();
-        int[] shape;
-        if (rx.getRank() == 1) {
-            shape = new int[1];
-            shape[0] = rx.getShape()[0];
-        } else {
-            shape = new int[data.getRank()];
-            for (int i = 0; i < shape.length; i++) {
-                if (i == shape.length - 2) {
-                    shape[i] = rx.getShape()[0];
-                } else if (i == shape.length - 1) {
-                    shape[i] = rx.getShape()[1];
-                } else {
-                    shape[i] = data.getShape()[i];
-                }
-            }
-        }
-        Array r = Array.factory(data.getDataType(), shape);
-
-        double[][] points = new double[n][];
-        for (int i = 0; i < n; i++) {
-            points[i] = new double[]{rx.getDouble(i), ry.getDouble(i)};
-        }
-        if (!fromProj.equals(toProj)) {
-            Reproject.reprojectPoints(points, toProj, fromProj, 0, points.length);
-        }
-        double xx, yy;
-        if (resampleMethod == ResampleMethods.Bilinear) {
-            if (shape.length <= 2) {
-                for (int i = 0; i < n; i++) {
-                    xx = points[i][0];
-                    yy = points[i][1];
-                    r.setObject(i, ArrayUtil.toStation(data, x, y, xx, yy));
-                }
-            } else {
-                Index indexr = r.getIndex();
-                int[] current, cc = null;
-                boolean isNew;
-                Array ndata = null;
-                int k;
-                for (int i = 0; i < r.getSize(); i++) {
-                    current = indexr.getCurrentCounter();
-                    isNew = true;
-                    if (i > 0) {
-                        for (int j = 0; j < shape.length - 2; j++) {
-                            if (cc[j] != current[j]) {
-                                isNew = false;
-                                break;
-                            }
-                        }
-                    }
-                    cc = Arrays.copyOf(current, current.length);
-                    if (isNew) {
-                        List<Range> ranges = new ArrayList<>();
-                        for (int j = 0; j < shape.length - 2; j++) {
-                            ranges.add(new Range(current[j], current[j], 1));
-                        }
-                        ranges.add(new Range(0, dshape[dshape.length - 2] - 1, 1));
-                        ranges.add(new Range(0, dshape[dshape.length - 1] - 1, 1));
-                        ndata = data.section(ranges).reduce();
-                    }
-                    k = current[shape.length - 2] * shape[shape.length - 1] + current[shape.length - 1];
-                    xx = points[k][0];
-                    yy = points[k][1];
-                    r.setObject(i, ArrayUtil.toStation(ndata, x, y, xx, yy));
-                    indexr.incr();
-                }
-            }
-        } else if (shape.length == 2) {
-            for (int i = 0; i < n; i++) {
-                xx = points[i][0];
-                yy = points[i][1];
-                r.setObject(i, ArrayUtil.toStation_Neighbor(data, x, y, xx, yy));
-            }
-        } else {
-            Index indexr = r.getIndex();
-            int[] current, cc = null;
-            boolean isNew;
-            Array ndata = null;
-            int k;
-            for (int i = 0; i < r.getSize(); i++) {
-                current = indexr.getCurrentCounter();
-                isNew = true;
-                if (i > 0) {
-                    for (int j = 0; j < shape.length - 2; j++) {
-                        if (cc[j] != current[j]) {
-                            isNew = false;
-                            break;
-                        }
-                    }
-                }
-                cc = Arrays.copyOf(current, current.length);
-                if (isNew) {
-                    List<Range> ranges = new ArrayList<>();
-                    for (int j = 0; j < shape.length - 2; j++) {
-                        ranges.add(new Range(current[j], current[j], 1));
-                    }
-                    ranges.add(new Range(0, dshape[dshape.length - 2] - 1, 1));
-                    ranges.add(new Range(0, dshape[dshape.length - 1] - 1, 1));
-                    ndata = data.section(ranges).reduce();
-                }
-                k = current[shape.length - 2] * shape[shape.length - 1] + current[shape.length - 1];
-                xx = points[k][0];
-                yy = points[k][1];
-                r.setObject(i, ArrayUtil.toStation_Neighbor(ndata, x, y, xx, yy));
-                indexr.incr();
-            }
-        }
-
-        return r;
+        return new Regridder(x, y, rx, ry, fromProj, toProj, resampleMethod).regrid(data);
     }
 
     /**
@@ -537,117 +448,7 @@ public class Reproject {
      */
     public static Array reproject(Array data, Array x, Array y, Array rx, Array ry,
                                   ProjectionInfo fromProj, ProjectionInfo toProj, ResampleMethods resampleMethod) throws InvalidRangeException {
-        int n = (int) rx.getSize();
-        int[] dshape = data.getShape();
-        int[] shape;
-        if (rx.getRank() == 1) {
-            shape = new int[1];
-            shape[0] = rx.getShape()[0];
-        } else {
-            shape = new int[data.getRank()];
-            for (int i = 0; i < shape.length; i++) {
-                if (i == shape.length - 2) {
-                    shape[i] = rx.getShape()[0];
-                } else if (i == shape.length - 1) {
-                    shape[i] = rx.getShape()[1];
-                } else {
-                    shape[i] = data.getShape()[i];
-                }
-            }
-        }
-        Array r = Array.factory(data.getDataType(), shape);
-
-        double[][] points = new double[n][];
-        for (int i = 0; i < n; i++) {
-            points[i] = new double[]{rx.getDouble(i), ry.getDouble(i)};
-        }
-        if (!fromProj.equals(toProj)) {
-            Reproject.reprojectPoints(points, toProj, fromProj, 0, points.length);
-        }
-        double xx, yy;
-        if (resampleMethod == ResampleMethods.Bilinear) {
-            if (shape.length <= 2) {
-                for (int i = 0; i < n; i++) {
-                    xx = points[i][0];
-                    yy = points[i][1];
-                    r.setDouble(i, ArrayUtil.toStation(data, x, y, xx, yy));
-                }
-            } else {
-                Index indexr = r.getIndex();
-                int[] current, cc = null;
-                boolean isNew;
-                Array ndata = null;
-                int k;
-                for (int i = 0; i < r.getSize(); i++) {
-                    current = indexr.getCurrentCounter();
-                    isNew = true;
-                    if (i > 0) {
-                        for (int j = 0; j < shape.length - 2; j++) {
-                            if (cc[j] != current[j]) {
-                                isNew = false;
-                                break;
-                            }
-                        }
-                    }
-                    cc = Arrays.copyOf(current, current.length);
-                    if (isNew) {
-                        List<Range> ranges = new ArrayList<>();
-                        for (int j = 0; j < shape.length - 2; j++) {
-                            ranges.add(new Range(current[j], current[j], 1));
-                        }
-                        ranges.add(new Range(0, dshape[dshape.length - 2] - 1, 1));
-                        ranges.add(new Range(0, dshape[dshape.length - 1] - 1, 1));
-                        ndata = data.section(ranges).reduce();
-                    }
-                    k = current[shape.length - 2] * shape[shape.length - 1] + current[shape.length - 1];
-                    xx = points[k][0];
-                    yy = points[k][1];
-                    r.setObject(i, ArrayUtil.toStation(ndata, x, y, xx, yy));
-                    indexr.incr();
-                }
-            }
-        } else if (shape.length == 2) {
-            for (int i = 0; i < n; i++) {
-                xx = points[i][0];
-                yy = points[i][1];
-                r.setObject(i, ArrayUtil.toStation_Neighbor(data, x, y, xx, yy));
-            }
-        } else {
-            Index indexr = r.getIndex();
-            int[] current, cc = null;
-            boolean isNew;
-            Array ndata = null;
-            int k;
-            for (int i = 0; i < r.getSize(); i++) {
-                current = indexr.getCurrentCounter();
-                isNew = true;
-                if (i > 0) {
-                    for (int j = 0; j < shape.length - 2; j++) {
-                        if (cc[j] != current[j]) {
-                            isNew = false;
-                            break;
-                        }
-                    }
-                }
-                cc = Arrays.copyOf(current, current.length);
-                if (isNew) {
-                    List<Range> ranges = new ArrayList<>();
-                    for (int j = 0; j < shape.length - 2; j++) {
-                        ranges.add(new Range(current[j], current[j], 1));
-                    }
-                    ranges.add(new Range(0, dshape[dshape.length - 2] - 1, 1));
-                    ranges.add(new Range(0, dshape[dshape.length - 1] - 1, 1));
-                    ndata = data.section(ranges).reduce();
-                }
-                k = current[shape.length - 2] * shape[shape.length - 1] + current[shape.length - 1];
-                xx = points[k][0];
-                yy = points[k][1];
-                r.setObject(i, ArrayUtil.toStation_Neighbor(ndata, x, y, xx, yy));
-                indexr.incr();
-            }
-        }
-
-        return r;
+        return new Regridder(x, y, rx, ry, fromProj, toProj, resampleMethod).regrid(data);
     }
 
     /**
@@ -670,26 +471,28 @@ public class Reproject {
         int[] shape = new int[]{ry.size(), rx.size()};
         Array r = Array.factory(data.getDataType(), shape);
 
-        double[][] points = new double[n][];
+        double[] px = new double[n];
+        double[] py = new double[n];
         for (int i = 0; i < ry.size(); i++) {
             for (int j = 0; j < rx.size(); j++) {
-                points[i * rx.size() + j] = new double[]{rx.get(j).doubleValue(), ry.get(i).doubleValue()};
+                px[i * rx.size() + j] = rx.get(j).doubleValue();
+                py[i * rx.size() + j] = ry.get(i).doubleValue();
             }
         }
         if (!fromProj.equals(toProj)) {
-            Reproject.reprojectPoints(points, toProj, fromProj, 0, points.length);
+            Reproject.reprojectPoints(px, py, toProj, fromProj);
         }
         double xx, yy;
         if (resampleMethod == ResampleMethods.Bilinear) {
             for (int i = 0; i < n; i++) {
-                xx = points[i][0];
-                yy = points[i][1];
+                xx = px[i];
+                yy = py[i];
                 r.setObject(i, ArrayUtil.toStation(data, x, y, xx, yy, fill_value));
             }
         } else {
             for (int i = 0; i < n; i++) {
-                xx = points[i][0];
-                yy = points[i][1];
+                xx = px[i];
+                yy = py[i];
                 r.setObject(i, ArrayUtil.toStation_Neighbor(data, x, y, xx, yy, fill_value));
             }
         }
@@ -709,18 +512,9 @@ public class Reproject {
     public static Array[] reproject(Array x, Array y, ProjectionInfo fromProj, ProjectionInfo toProj) {
         Array rx = Array.factory(DataType.DOUBLE, x.getShape());
         Array ry = Array.factory(DataType.DOUBLE, x.getShape());
-        int n = (int) x.getSize();
-        double[][] points = new double[n][];
-        IndexIterator iterX = x.getIndexIterator();
-        IndexIterator iterY = y.getIndexIterator();
-        for (int i = 0; i < n; i++) {
-            points[i] = new double[]{iterX.getDoubleNext(), iterY.getDoubleNext()};
-        }
-        Reproject.reprojectPoints(points, fromProj, toProj, 0, points.length);
-        for (int i = 0; i < n; i++) {
-            rx.setDouble(i, points[i][0]);
-            ry.setDouble(i, points[i][1]);
-        }
+        MAMath.copyDouble(rx, x);
+        MAMath.copyDouble(ry, y);
+        reprojectPoints(rx, ry, fromProj, toProj);
 
         return new Array[]{rx, ry};
     }
@@ -758,12 +552,14 @@ public class Reproject {
         Array r = Array.factory(data.getDataType(), newShape);
 
         int n = ny * nx;
-        double[][] points = new double[n][];
+        double[] px = new double[n];
+        double[] py = new double[n];
         for (int i = 0; i < n; i++) {
-            points[i] = new double[]{rx.getDouble(i), ry.getDouble(i)};
+            px[i] = rx.getDouble(i);
+            py[i] = ry.getDouble(i);
         }
         if (!fromProj.equals(toProj)) {
-            Reproject.reprojectPoints(points, toProj, fromProj, 0, points.length);
+            Reproject.reprojectPoints(px, py, toProj, fromProj);
         }
 
         double minX = x.getDouble(0);
@@ -780,8 +576,8 @@ public class Reproject {
             for (int i = 0; i < ny; i++) {
                 for (int j = 0; j < nx; j++) {
                     ii = i * nx + j;
-                    xx = points[ii][0];
-                    yy = points[ii][1];
+                    xx = px[ii];
+                    yy = py[ii];
                     if (xx < minX || xx > maxX)
                         xi = -1;
                     else
@@ -804,8 +600,8 @@ public class Reproject {
             for (int i = 0; i < ny; i++) {
                 for (int j = 0; j < nx; j++) {
                     ii = i * nx + j;
-                    xx = points[ii][0];
-                    yy = points[ii][1];
+                    xx = px[ii];
+                    yy = py[ii];
                     if (xx < minX || xx > maxX)
                         xi = -1;
                     else
@@ -878,4 +674,28 @@ public class Reproject {
 
         return new Object[]{r, rx, ry};
     }
+
+    private static class TransformKey {
+        final String source;
+        final String dest;
+
+        TransformKey(String source, String dest) {
+            this.source = source;
+            this.dest = dest;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * source.hashCode() + dest.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof TransformKey)) {
+                return false;
+            }
+            TransformKey other = (TransformKey) o;
+            return source.equals(other.source) && dest.equals(other.dest);
+        }
+    }
 }
@@ -0,0 +1,59 @@
+package org.meteoinfo.projection;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.proj4j.CoordinateTransform;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProjectionInfoTest {
+
+    private static final String LCC = "+proj=lcc +lat_1=30 +lat_2=60 +lat_0=0 +lon_0=105 +datum=WGS84 +units=m +no_defs";
+
+    @AfterEach
+    public void tearDown() {
+        Reproject.clearTransformCache();
+    }
+
+    @Test
+    public void testProj4String() {
+        ProjectionInfo proj = ProjectionInfo.factory(LCC);
+        String proj4Str = proj.toProj4String();
+        assertEquals(proj.getCoordinateReferenceSystem().getParameterString(), proj4Str);
+        assertSame(proj4Str, proj.toProj4String());
+    }
+
+    @Test
+    public void testEqualsClone() {
+        ProjectionInfo proj = ProjectionInfo.factory(LCC);
+        ProjectionInfo same = ProjectionInfo.factory(proj.toProj4String());
+        assertEquals(proj.toProj4String(), same.toProj4String());
+        assertTrue(proj.equals(same));
+
+        ProjectionInfo clone = (ProjectionInfo) proj.clone();
+        assertNotSame(proj, clone);
+        assertTrue(proj.equals(clone));
+        assertFalse(proj.equals(ProjectionInfo.factory(LCC.replace("+lon_0=105", "+lon_0=110"))));
+    }
+
+    @Test
+    public void testTransform() throws Exception {
+        ProjectionInfo source = ProjectionInfo.factory("+proj=longlat +datum=WGS84 +no_defs");
+        ProjectionInfo dest = ProjectionInfo.factory(LCC);
+        CoordinateTransform transform = Reproject.getTransform(source, dest);
+        assertSame(transform, Reproject.getTransform((ProjectionInfo) source.clone(),
+                ProjectionInfo.factory(LCC)));
+
+        //Each thread gets its own transform
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CoordinateTransform other = executor.submit(() -> Reproject.getTransform(source, dest)).get();
+            assertNotSame(transform, other);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package org.meteoinfo.projection;
+
+import org.junit.jupiter.api.Test;
+import org.meteoinfo.common.ResampleMethods;
+import org.meteoinfo.ndarray.Array;
+import org.meteoinfo.ndarray.DataType;
+import org.meteoinfo.ndarray.Index;
+import org.meteoinfo.ndarray.InvalidRangeException;
+import org.meteoinfo.ndarray.math.ArrayUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RegridderTest {
+
+    private static final double FILL_VALUE = -9999.0;
+
+    private final List<Number> x = new ArrayList<>();
+    private final List<Number> y = new ArrayList<>();
+    private final ProjectionInfo proj = ProjectionInfo.factory("+proj=longlat +datum=WGS84 +no_defs");
+
+    public RegridderTest() {
+        for (int i = 0; i < 12; i++) {
+            x.add(100.0 + i * 0.5);
+        }
+        for (int i = 0; i < 10; i++) {
+            y.add(20.0 + i * 0.75);
+        }
+    }
+
+    /**
+     * Random 3D data with NaN and fill values
+     */
+    private Array makeData(Random random) {
+        Array data = Array.factory(DataType.DOUBLE, new int[]{3, y.size(), x.size()});
+        for (int i = 0; i < data.getSize(); i++) {
+            double r = random.nextDouble();
+            if (r < 0.1) {
+                data.setDouble(i, Double.NaN);
+            } else if (r < 0.2) {
+                data.setDouble(i, FILL_VALUE);
+            } else {
+                data.setDouble(i, random.nextDouble() * 100);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Random target points, partly outside the source grid and partly on the
+     * source grid nodes and edges
+     */
+    private Array[] makeTargets(Random random) {
+        int[] shape = {7, 9};
+        Array rx = Array.factory(DataType.DOUBLE, shape);
+        Array ry = Array.factory(DataType.DOUBLE, shape);
+        double x0 = x.get(0).doubleValue(), x1 = x.get(x.size() - 1).doubleValue();
+        double y0 = y.get(0).doubleValue(), y1 = y.get(y.size() - 1).doubleValue();
+        for (int i = 0; i < rx.getSize(); i++) {
+            if (i % 10 == 0) {
+                rx.setDouble(i, x.get(i % x.size()).doubleValue());
+                ry.setDouble(i, y.get(i % y.size()).doubleValue());
+            } else if (i % 10 == 1) {
+                rx.setDouble(i, x1);
+                ry.setDouble(i, y1);
+            } else {
+                rx.setDouble(i, x0 - 0.5 + random.nextDouble() * (x1 - x0 + 1));
+                ry.setDouble(i, y0 - 0.5 + random.nextDouble() * (y1 - y0 + 1));
+            }
+        }
+        return new Array[]{rx, ry};
+    }
+
+    private void assertSameAsToStation(Array data, Array rx, Array ry, Array r, ResampleMethods method,
+                                       double fillValue) throws InvalidRangeException {
+        int nz = data.getShape()[0];
+        int n = (int) rx.getSize();
+        assertArrayEquals(new int[]{nz, 7, 9}, r.getShape());
+        Index index = r.getIndex();
+        for (int k = 0; k < nz; k++) {
+            Array slice = data.section(new int[]{k, 0, 0}, new int[]{1, y.size(), x.size()}, new int[]{1, 1, 1});
+            for (int i = 0; i < n; i++) {
+                double xx = rx.getDouble(i);
+                double yy = ry.getDouble(i);
+                double expected = method == ResampleMethods.Bilinear
+                        ? ArrayUtil.toStation(slice, x, y, xx, yy, fillValue)
+                        : ArrayUtil.toStation_Neighbor(slice, x, y, xx, yy, fillValue);
+                double actual = r.getDouble(index.set(k, i / 9, i % 9));
+                assertEquals(expected, actual, 1e-10, "slice " + k + " point " + i);
+            }
+        }
+    }
+
+    @Test
+    public void testBilinear() throws InvalidRangeException {
+        Random random = new Random(7);
+        Array data = makeData(random);
+        Array[] targets = makeTargets(random);
+        Regridder regridder = new Regridder(x, y, targets[0], targets[1], proj, proj, ResampleMethods.Bilinear);
+        assertSameAsToStation(data, targets[0], targets[1], regridder.regrid(data, FILL_VALUE),
+                ResampleMethods.Bilinear, FILL_VALUE);
+
+        regridder.setParallel(false);
+        assertSameAsToStation(data, targets[0], targets[1], regridder.regrid(data, FILL_VALUE),
+                ResampleMethods.Bilinear, FILL_VALUE);
+    }
+
+    @Test
+    public void testNeighbor() throws InvalidRangeException {
+        Random random = new Random(11);
+        Array data = makeData(random);
+        Array[] targets = makeTargets(random);
+        Regridder regridder = new Regridder(x, y, targets[0], targets[1], proj, proj,
+                ResampleMethods.NearestNeighbor);
+        assertSameAsToStation(data, targets[0], targets[1], regridder.regrid(data, FILL_VALUE),
+                ResampleMethods.NearestNeighbor, FILL_VALUE);
+    }
+
+    @Test
+    public void testSaveLoad() throws IOException, InvalidRangeException {
+        Random random = new Random(13);
+        Array data = makeData(random);
+        Array[] targets = makeTargets(random);
+        for (ResampleMethods method : new ResampleMethods[]{ResampleMethods.Bilinear,
+                ResampleMethods.NearestNeighbor}) {
+            Regridder regridder = new Regridder(x, y, targets[0], targets[1], proj, proj, method);
+            File file = File.createTempFile("regridder", ".bin");
+            try {
+                regridder.save(file.getAbsolutePath());
+                Regridder loaded = Regridder.load(file.getAbsolutePath());
+                assertEquals(method, loaded.getMethod());
+                assertArrayEquals(regridder.getShape(), loaded.getShape());
+                assertArrayEquals(regridder.getSourceShape(), loaded.getSourceShape());
+                Array expected = regridder.regrid(data, FILL_VALUE);
+                Array actual = loaded.regrid(data, FILL_VALUE);
+                for (int i = 0; i < expected.getSize(); i++) {
+                    assertEquals(expected.getDouble(i), actual.getDouble(i));
+                }
+            } finally {
+                file.delete();
+            }
+        }
+    }
+
+    @Test
+    public void testShapeMismatch() {
+        Array[] targets = makeTargets(new Random(17));
+        Regridder regridder = new Regridder(x, y, targets[0], targets[1], proj, proj, ResampleMethods.Bilinear);
+        Array data = Array.factory(DataType.DOUBLE, new int[]{y.size() + 1, x.size()});
+        assertThrows(IllegalArgumentException.class, () -> regridder.regrid(data));
+    }
+}
@@ -59,6 +59,7 @@ public final class AttributeTable implements Cloneable {
     //private bool _virtualMode;
     private List<Integer> _deletedRows;
     private String encoding = "UTF-8";
+    private boolean fillOnDemand = false;
     // </editor-fold>
 
     // <editor-fold desc="Constructor">
@@ -110,15 +111,31 @@ public final class AttributeTable implements Cloneable {
      * @return Record number
      */
     public int getNumRecords() {
+        if (this.fillOnDemand && !_attributesPopulated) {
+            return _numRecords;
+        }
         return _dataTable.getRows().size();
     }
 
     /**
-     * Get data table
+     * Get data table, the records are read first if the table is filled on
+     * demand and has not been filled
      *
      * @return The data table
      */
     public DataTable getTable() {
+        if (this.fillOnDemand && !_attributesPopulated) {
+            synchronized (this) {
+                if (!_attributesPopulated) {
+                    try {
+                        fill(_numRecords);
+                    } catch (Exception ex) {
+                        Logger.getLogger(AttributeTable.class.getName()).log(Level.SEVERE, null, ex);
+                        _attributesPopulated = true;
+                    }
+                }
+            }
+        }
         return _dataTable;
     }
 
@@ -148,6 +165,24 @@ public final class AttributeTable implements Cloneable {
     public void setEncoding(String value) {
         this.encoding = value;
     }
+
+    /**
+     * Get if the records are read when the data table is first accessed
+     *
+     * @return Fill on demand or not
+     */
+    public boolean isFillOnDemand() {
+        return this.fillOnDemand;
+    }
+
+    /**
+     * Set if the records are read when the data table is first accessed
+     *
+     * @param value Fill on demand or not
+     */
+    public void setFillOnDemand(boolean value) {
+        this.fillOnDemand = value;
+    }
     // </editor-fold>
 
     // <editor-fold desc="Methods">
@@ -360,9 +395,6 @@ public final class AttributeTable implements Cloneable {
      * @throws FileNotFoundException
      */
     public void fill(int numRows) throws FileNotFoundException, IOException, Exception {
-        if (!_loaded) {
-            load();
-        }
         //_dataRowWatch = new Stopwatch();
 
         _dataTable.getRows().clear(); // if we have already loaded data, clear the data.
@@ -378,8 +410,13 @@ public final class AttributeTable implements Cloneable {
                 _dataTable.addRow(dr);
             }
             //_dataTable.EndLoadData();
+            _attributesPopulated = true;
             return;
         }
+
+        if (!_loaded) {
+            load();
+        }
         //Stopwatch sw = new Stopwatch();
         //sw.Start();
 
@@ -404,16 +441,76 @@ public final class AttributeTable implements Cloneable {
         //onAttributesFilled();
     }
 
-    private DataRow readTableRowFromBytes(int currentRow) throws Exception {
-        DataRow result = _dataTable.newRow();
+    /**
+     * Populates the Table with the selected records read from the file, the
+     * rows are added in the order of the record indexes and the other records
+     * are not read.
+     *
+     * @param rows Record indexes
+     * @throws FileNotFoundException
+     */
+    public void fill(int[] rows) throws FileNotFoundException, IOException, Exception {
+        _dataTable.getRows().clear();
+        if (!_file.exists()) {
+            _dataTable.addColumn("FID", DataType.INT);
+            for (int row : rows) {
+                DataRow dr = _dataTable.newRow();
+                dr.setValue("FID", row);
+                _dataTable.addRow(dr);
+            }
+            _attributesPopulated = true;
+            return;
+        }
 
+        if (_hasDeletedRecords) {
+            //The record offsets skipping the deleted records are only known
+            //after the whole file is loaded
+            if (!_loaded) {
+                load();
+            }
+            for (int row : rows) {
+                try {
+                    _dataTable.addRow(readTableRowFromBytes(row));
+                } catch (Exception ex) {
+                    Logger.getLogger(AttributeTable.class.getName()).log(Level.WARNING,
+                            "Failed to read record " + row, ex);
+                }
+            }
+            _attributesPopulated = true;
+            return;
+        }
+
+        //The record length includes the deletion flag byte which is skipped
+        byte[] content = new byte[_recordLength - 1];
+        try (RandomAccessFile raf = new RandomAccessFile(_file, "r")) {
+            for (int row : rows) {
+                raf.seek(_headerLength + 1 + (long) row * _recordLength);
+                raf.readFully(content);
+                try {
+                    _dataTable.addRow(readTableRowFromBytes(content, 0));
+                } catch (Exception ex) {
+                    Logger.getLogger(AttributeTable.class.getName()).log(Level.WARNING,
+                            "Failed to read record " + row, ex);
+                }
+            }
+        }
+        _attributesPopulated = true;
+    }
+
+    private DataRow readTableRowFromBytes(int currentRow) throws Exception {
         long start;
         if (_hasDeletedRecords == false) {
-            start = currentRow * _recordLength;
+            start = (long) currentRow * _recordLength;
         } else {
             start = _offsets[currentRow];
         }
 
+        return readTableRowFromBytes(_byteContent, start);
+    }
+
+    private DataRow readTableRowFromBytes(byte[] content, long start) throws Exception {
+        DataRow result = _dataTable.newRow();
+
         for (int col = 0; col < _dataTable.getColumns().size(); col++) {
             // find the length of the field.
             Field CurrentField = fields.get(col);
@@ -423,7 +520,7 @@ public final class AttributeTable implements Cloneable {
 
             // read the data.
             //char[] cBuffer = new char[CurrentField.Length];
-            byte[] cBuffer = Arrays.copyOfRange(_byteContent, (int) start, (int) start + CurrentField.getLength());
+            byte[] cBuffer = Arrays.copyOfRange(content, (int) start, (int) start + CurrentField.getLength());
             //Array.copy(_byteContent, start, cBuffer, 0, CurrentField.getLength());
             //Array.Copy(_characterContent, start, bBuffer, 0, CurrentField.Length);
             start += CurrentField.getLength();
@@ -575,7 +672,7 @@ public final class AttributeTable implements Cloneable {
     private void updateSchema() {
         List<Field> tempColumns = new ArrayList<>();
         _recordLength = 1; // delete character
-        _numRecords = this._dataTable.getRows().size();
+        _numRecords = this.getTable().getRows().size();
         _updateDate = LocalDateTime.now();
         _headerLength = FileDescriptorSize + FileDescriptorSize * _dataTable.getColumns().size() + 1;
         if (fields == null) {
@@ -809,7 +906,7 @@ public final class AttributeTable implements Cloneable {
     @Override
     public Object clone() {
         AttributeTable newAT = new AttributeTable();
-        newAT.setTable((DataTable) _dataTable.clone());
+        newAT.setTable((DataTable) getTable().clone());
 
         return newAT;
     }
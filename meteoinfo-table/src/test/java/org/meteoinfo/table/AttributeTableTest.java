@@ -0,0 +1,103 @@
+package org.meteoinfo.table;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.meteoinfo.ndarray.DataType;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AttributeTableTest {
+
+    private static final String[] NAMES = new String[]{"a", "bb", "ccc", "dddd"};
+
+    private final List<File> files = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    private File createDbf() throws Exception {
+        File file = File.createTempFile("attr", ".dbf");
+        files.add(file);
+        file.delete();
+        AttributeTable table = new AttributeTable();
+        table.addField(new Field("NAME", DataType.STRING, 10, 0));
+        table.addField(new Field("VALUE", DataType.INT, 8, 0));
+        for (int i = 0; i < NAMES.length; i++) {
+            DataRow row = table.getTable().addRow();
+            row.setValue("NAME", NAMES[i]);
+            row.setValue("VALUE", i * 10);
+        }
+        table.saveAs(file.getPath(), true);
+        return file;
+    }
+
+    private File missingFile() throws IOException {
+        File file = File.createTempFile("attr", ".shp");
+        file.delete();
+        return file;
+    }
+
+    @Test
+    public void testFill() throws Exception {
+        File file = createDbf();
+        AttributeTable table = new AttributeTable();
+        table.open(file.getPath());
+        table.fill(NAMES.length);
+        assertEquals(NAMES.length, table.getNumRecords());
+        for (int i = 0; i < NAMES.length; i++) {
+            assertEquals(NAMES[i], table.getTable().getValue(i, "NAME"));
+            assertEquals(i * 10, ((Number) table.getTable().getValue(i, "VALUE")).intValue());
+        }
+    }
+
+    @Test
+    public void testFillRows() throws Exception {
+        File file = createDbf();
+        AttributeTable table = new AttributeTable();
+        table.open(file.getPath());
+        //The last record ends at the end of the file
+        table.fill(new int[]{3, 0, 2});
+        assertEquals(3, table.getNumRecords());
+        assertEquals("dddd", table.getTable().getValue(0, "NAME"));
+        assertEquals(30, ((Number) table.getTable().getValue(0, "VALUE")).intValue());
+        assertEquals("a", table.getTable().getValue(1, "NAME"));
+        assertEquals("ccc", table.getTable().getValue(2, "NAME"));
+        assertEquals(20, ((Number) table.getTable().getValue(2, "VALUE")).intValue());
+    }
+
+    @Test
+    public void testFillOnDemand() throws Exception {
+        File file = createDbf();
+        AttributeTable table = new AttributeTable();
+        table.open(file.getPath());
+        table.setFillOnDemand(true);
+        assertEquals(NAMES.length, table.getNumRecords());
+        assertEquals("bb", table.getTable().getValue(1, "NAME"));
+        assertEquals(NAMES.length, table.getNumRecords());
+    }
+
+    @Test
+    public void testMissingFile() throws Exception {
+        File file = missingFile();
+        AttributeTable table = new AttributeTable();
+        table.open(file.getPath());
+        table.fill(3);
+        assertEquals(3, table.getNumRecords());
+        assertEquals(2, table.getTable().getValue(2, "FID"));
+
+        table = new AttributeTable();
+        table.open(file.getPath());
+        table.fill(new int[]{5, 7});
+        assertEquals(2, table.getNumRecords());
+        assertEquals(7, table.getTable().getValue(1, "FID"));
+    }
+}